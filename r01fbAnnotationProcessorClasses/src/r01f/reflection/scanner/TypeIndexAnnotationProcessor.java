@@ -0,0 +1,175 @@
+package r01f.reflection.scanner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes the type index of the compiled types at the
+ * {@link TypeIndexFormat#INDEX_RESOURCE} resource of the jar so the types can be found at runtime
+ * (see r01fbClasses' r01f.reflection.scanner.TypeIndex) WITHOUT scanning the classpath
+ *
+ * For every compiled type (top level or nested) an entry is written with:
+ * <ul>
+ * 		<li>the type's binary name</li>
+ * 		<li>the annotations of the type and of every type in it's hierarchy</li>
+ * 		<li>every super-type (classes and interfaces)</li>
+ * </ul>
+ * <pre>
+ * 		r01f.model.MyModelObject|r01f.model.annotations.ModelObjectData,javax.xml.bind.annotation.XmlRootElement|r01f.model.ModelObject,...
+ * </pre>
+ * The processor is registered at META-INF/services/javax.annotation.processing.Processor so javac runs it
+ * for every project having this artifact at the classpath (r01fbClasses depends on it so it's transitively
+ * at the classpath of every project using r01fbClasses)
+ * It's packaged apart from r01fbClasses because javac reads the service file of the project being compiled:
+ * if the processor were at r01fbClasses, compiling r01fbClasses itself would fail with 
+ * "Provider r01f.reflection.scanner.TypeIndexAnnotationProcessor not found" since it's NOT compiled yet
+ * (when compiling incrementally the previous index entries of the types NOT recompiled are kept)
+ * BEWARE! the processor runs inside javac so it does NOT use any third party library
+ */
+@SupportedAnnotationTypes("*")
+public class TypeIndexAnnotationProcessor
+	 extends AbstractProcessor {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * binary type name to index entry
+	 */
+	private final Map<String,String> _entries = new TreeMap<String,String>();
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  PROCESS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations,
+						   final RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			_writeIndex();
+		} else {
+			for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+				_index(type);
+			}
+		}
+		return false;		// do NOT claim the annotations
+	}
+	private void _index(final TypeElement type) {
+		if (type.getKind() != ElementKind.ANNOTATION_TYPE) {
+			Set<String> typeAnnotations = new TreeSet<String>();
+			Set<String> superTypes = new TreeSet<String>();
+			_collectAnnotations(type,typeAnnotations);
+			_collectSuperTypes(type.asType(),
+							   typeAnnotations,superTypes);
+			String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+			_entries.put(binaryName,
+						 TypeIndexFormat.entry(binaryName,typeAnnotations,superTypes));
+		}
+		// nested types
+		for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+			_index(nested);
+		}
+	}
+	private void _collectSuperTypes(final TypeMirror typeMirror,
+									final Set<String> typeAnnotations,final Set<String> superTypes) {
+		for (TypeMirror superTypeMirror : processingEnv.getTypeUtils().directSupertypes(typeMirror)) {
+			if (superTypeMirror.getKind() != TypeKind.DECLARED) continue;
+			TypeElement superType = (TypeElement)((DeclaredType)superTypeMirror).asElement();
+			String superTypeName = processingEnv.getElementUtils().getBinaryName(superType).toString();
+			if (superTypeName.equals(Object.class.getName())) continue;
+			if (!superTypes.add(superTypeName)) continue;		// already visited
+			_collectAnnotations(superType,typeAnnotations);
+			_collectSuperTypes(superTypeMirror,
+							   typeAnnotations,superTypes);
+		}
+	}
+	private void _collectAnnotations(final Element element,
+									 final Set<String> typeAnnotations) {
+		for (AnnotationMirror annot : element.getAnnotationMirrors()) {
+			TypeElement annotType = (TypeElement)annot.getAnnotationType().asElement();
+			typeAnnotations.add(processingEnv.getElementUtils().getBinaryName(annotType).toString());
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  WRITE
+/////////////////////////////////////////////////////////////////////////////////////////
+	private void _writeIndex() {
+		if (_entries.isEmpty()) return;
+		Filer filer = processingEnv.getFiler();
+		try {
+			_mergePreviousEntries(filer);
+			FileObject res = filer.createResource(StandardLocation.CLASS_OUTPUT,"",
+												  TypeIndexFormat.INDEX_RESOURCE);
+			Writer w = new OutputStreamWriter(res.openOutputStream(),"UTF-8");
+			try {
+				for (String entry : _entries.values()) {
+					w.write(entry);
+					w.write('\n');
+				}
+			} finally {
+				w.close();
+			}
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+													 "r01f type index: " + _entries.size() + " types indexed at " + TypeIndexFormat.INDEX_RESOURCE);
+		} catch(IOException ioEx) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+													 "Could NOT write the r01f type index: " + ioEx.getMessage());
+		}
+	}
+	/**
+	 * When compiling incrementally only the changed types are processed so the previous entries
+	 * of the types that still exist are kept
+	 */
+	private void _mergePreviousEntries(final Filer filer) {
+		Collection<String> previousEntries = null;
+		try {
+			FileObject prevRes = filer.getResource(StandardLocation.CLASS_OUTPUT,"",
+												   TypeIndexFormat.INDEX_RESOURCE);
+			BufferedReader r = new BufferedReader(new InputStreamReader(prevRes.openInputStream(),"UTF-8"));
+			try {
+				previousEntries = new ArrayList<String>();
+				for (String line = r.readLine(); line != null; line = r.readLine()) previousEntries.add(line);
+			} finally {
+				r.close();
+			}
+		} catch(IOException ioEx) {
+			return;		// full build
+		} catch(IllegalArgumentException illArgEx) {
+			return;		// some filers do NOT support reading resources
+		}
+		for (String prevEntry : previousEntries) {
+			String typeName = TypeIndexFormat.typeNameOf(prevEntry);
+			if (typeName == null || _entries.containsKey(typeName)) continue;
+			if (processingEnv.getElementUtils().getTypeElement(typeName.replace('$','.')) == null) continue;	// the type no longer exists
+			_entries.put(typeName,prevEntry);
+		}
+	}
+}
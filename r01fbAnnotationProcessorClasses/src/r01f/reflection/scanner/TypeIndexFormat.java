@@ -0,0 +1,81 @@
+package r01f.reflection.scanner;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * The type index resource format (read by r01fbClasses' r01f.reflection.scanner.TypeIndex): a line for every indexed type
+ * <pre>
+ * 		{type binary name}|{annotation},{annotation},...|{super type},{super type},...
+ * </pre>
+ * (it's used by the {@link TypeIndexAnnotationProcessor} that runs inside javac so it MUST NOT depend on any library)
+ */
+public final class TypeIndexFormat {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The index resource written at every jar
+	 */
+	public static final String INDEX_RESOURCE = "META-INF/r01f/type-index";
+
+	private static final char FIELD_SEPARATOR = '|';
+	private static final char LIST_SEPARATOR = ',';
+	private static final String[] EMPTY = new String[0];
+
+	private TypeIndexFormat() {
+		// no instances
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  WRITE
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static String entry(final String typeName,
+						final Collection<String> annotations,final Collection<String> superTypes) {
+		StringBuilder sb = new StringBuilder(typeName.length() + 32 * (annotations.size() + superTypes.size()));
+		sb.append(typeName)
+		  .append(FIELD_SEPARATOR);
+		_appendList(sb,annotations);
+		sb.append(FIELD_SEPARATOR);
+		_appendList(sb,superTypes);
+		return sb.toString();
+	}
+	private static void _appendList(final StringBuilder sb,
+									final Collection<String> items) {
+		for (Iterator<String> it = items.iterator(); it.hasNext(); ) {
+			sb.append(it.next());
+			if (it.hasNext()) sb.append(LIST_SEPARATOR);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  READ
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return the type name of the entry or null if it's NOT a valid entry
+	 */
+	public static String typeNameOf(final String entry) {
+		int idx = entry != null ? entry.indexOf(FIELD_SEPARATOR) : -1;
+		return idx > 0 ? entry.substring(0,idx) : null;
+	}
+	/**
+	 * @return the annotations of the entry
+	 */
+	public static String[] annotationsOf(final String entry) {
+		return _field(entry,1);
+	}
+	/**
+	 * @return the super types of the entry
+	 */
+	public static String[] superTypesOf(final String entry) {
+		return _field(entry,2);
+	}
+	private static String[] _field(final String entry,final int field) {
+		int start = 0;
+		for (int i = 0; i < field; i++) {
+			start = entry.indexOf(FIELD_SEPARATOR,start) + 1;
+			if (start == 0) return EMPTY;
+		}
+		int end = entry.indexOf(FIELD_SEPARATOR,start);
+		String list = end >= 0 ? entry.substring(start,end) : entry.substring(start);
+		return list.length() > 0 ? list.split(String.valueOf(LIST_SEPARATOR)) : EMPTY;
+	}
+}
@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Locale;
-import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
 
 import lombok.Getter;
@@ -13,7 +12,9 @@ import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import r01f.resources.ResourcesLoader;
 import r01f.resources.ResourcesReloadControl;
+import r01f.resources.ResourcesReloadControlFileWatchBased;
 import r01f.resources.ResourcesReloadControlVoid;
+import r01f.types.Path;
 
 /**
  * Controls the loading & reloading of a resource based on a definition in an xml properties file
@@ -92,9 +93,20 @@ public class ResourceBundleControl
     		log.warn("...load {}: reload={}",resourceName,
     							   			 reload);
 		    
-		    // Load file
+		    // Watch the file (if it's watched for changes) BEFORE it's loaded so a change while loading is NOT lost
+		    if (_reloadControl instanceof ResourcesReloadControlFileWatchBased) {
+		    	((ResourcesReloadControlFileWatchBased)_reloadControl).watch(resourceName,
+		    																 _resourcesLoader,Path.from(resourceName));
+		    }
+		    // Load file: every load / reload creates an immutable snapshot with the pre-parsed messages
 			InputStream is = _resourcesLoader.getInputStream(resourceName,reload);
-		    if (is != null) outBundle = new PropertyResourceBundle(is);
+		    if (is != null) {
+		    	try {
+		    		outBundle = ResourceBundleSnapshot.load(is);
+		    	} finally {
+		    		is.close();
+		    	}
+		    }
         } else {
             throw new IllegalArgumentException("ResourceBundle: unknown format: " + format);
         }
@@ -0,0 +1,169 @@
+package r01f.bundles;
+
+import java.text.DateFormat;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.Date;
+import java.util.Locale;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+/**
+ * A pre-parsed resource bundle message used to customize the message with some params
+ * WITHOUT parsing the message pattern every time as {@link MessageFormat#format(String, Object...)} does
+ * <ul>
+ * 		<li>Simple patterns (ie: 'Hello {0}, you have {1} messages') are split in literals and argument indexes
+ * 			so formatting is just appending the literals and the params</li>
+ * 		<li>Complex patterns (quotes, format types like {0,number,#.##}, etc) are parsed once to a {@link MessageFormat}
+ * 			that is cloned for every call since {@link MessageFormat} is NOT thread-safe</li>
+ * </ul>
+ * In both cases the result is the same as {@link MessageFormat#format(String, Object...)}
+ * Instances are immutable and thread-safe
+ */
+@Accessors(prefix="_")
+public class ResourceBundleMessageTemplate {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The message as it's at the bundle (not customized)
+	 */
+	@Getter private final String _rawMessage;
+	/**
+	 * Simple patterns: the literal before every argument (the last one is the literal after the last argument)
+	 */
+	private final String[] _literals;
+	/**
+	 * Simple patterns: the argument indexes
+	 */
+	private final int[] _argIndexes;
+	/**
+	 * Complex patterns: the parsed message format (it's cloned for every call)
+	 * (null if the pattern is a simple one or it's not a valid pattern)
+	 */
+	private final MessageFormat _messageFormat;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	private ResourceBundleMessageTemplate(final String rawMessage,
+										  final String[] literals,final int[] argIndexes,
+										  final MessageFormat messageFormat) {
+		_rawMessage = rawMessage;
+		_literals = literals;
+		_argIndexes = argIndexes;
+		_messageFormat = messageFormat;
+	}
+	/**
+	 * Parses the message pattern
+	 * @param rawMessage
+	 * @return
+	 */
+	public static ResourceBundleMessageTemplate compile(final String rawMessage) {
+		if (rawMessage == null) throw new IllegalArgumentException("Cannot compile a null message");
+
+		// [1] - Try a simple pattern: only literals and {n} arguments
+		int argCount = 0;
+		boolean simple = true;
+		for (int i=0; i < rawMessage.length() && simple; i++) {
+			char c = rawMessage.charAt(i);
+			if (c == '\'') {
+				simple = false;						// quoted text
+			} else if (c == '{') {
+				int end = rawMessage.indexOf('}',i);
+				simple = end > i+1 && end <= i+5 && _isDigits(rawMessage,i+1,end);	// {n} with up to 4 digits
+				if (simple) {
+					argCount++;
+					i = end;
+				}
+			}
+		}
+		if (simple) {
+			String[] literals = new String[argCount + 1];
+			int[] argIndexes = new int[argCount];
+			int arg = 0;
+			int literalStart = 0;
+			for (int i = rawMessage.indexOf('{'); i >= 0; i = rawMessage.indexOf('{',literalStart)) {
+				int end = rawMessage.indexOf('}',i);
+				literals[arg] = rawMessage.substring(literalStart,i);
+				argIndexes[arg] = Integer.parseInt(rawMessage.substring(i+1,end));
+				arg++;
+				literalStart = end + 1;
+			}
+			literals[arg] = rawMessage.substring(literalStart);
+			return new ResourceBundleMessageTemplate(rawMessage,
+													 literals,argIndexes,
+													 null);
+		}
+		// [2] - Complex pattern: parse it once
+		MessageFormat messageFormat = null;
+		try {
+			messageFormat = new MessageFormat(rawMessage);
+		} catch(IllegalArgumentException illArgEx) {
+			// not a valid pattern: MessageFormat#format will throw when the message is customized (as it did before)
+		}
+		return new ResourceBundleMessageTemplate(rawMessage,
+												 null,null,
+												 messageFormat);
+	}
+	private static boolean _isDigits(final String str,final int start,final int end) {
+		for (int i=start; i < end; i++) {
+			if (!Character.isDigit(str.charAt(i))) return false;
+		}
+		return true;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Customizes the message with the given params
+	 * @param params
+	 * @return the customized message or the raw message if there're no params
+	 */
+	public String format(final Object... params) {
+		if (params == null || params.length == 0) return _rawMessage;
+
+		// Simple pattern
+		if (_literals != null) {
+			StringBuilder sb = new StringBuilder(_rawMessage.length() + params.length * 16);
+			for (int i=0; i < _argIndexes.length; i++) {
+				sb.append(_literals[i]);
+				_appendArg(sb,_argIndexes[i],params);
+			}
+			sb.append(_literals[_argIndexes.length]);
+			return sb.toString();
+		}
+		// Complex pattern
+		if (_messageFormat != null) return ((MessageFormat)_messageFormat.clone()).format(params);
+
+		// Not a valid pattern
+		return MessageFormat.format(_rawMessage,params);
+	}
+	/**
+	 * Formats an argument the same way a {@link MessageFormat} with no format set does
+	 */
+	private static void _appendArg(final StringBuilder sb,
+								   final int argIndex,final Object[] params) {
+		if (argIndex >= params.length) {
+			sb.append('{').append(argIndex).append('}');		// missing param
+			return;
+		}
+		Object param = params[argIndex];
+		if (param == null) {
+			sb.append("null");
+		} else if (param instanceof String) {
+			sb.append((String)param);
+		} else if (param instanceof Number) {
+			sb.append(NumberFormat.getInstance(Locale.getDefault()).format(param));
+		} else if (param instanceof Date) {
+			sb.append(DateFormat.getDateTimeInstance(DateFormat.SHORT,DateFormat.SHORT,Locale.getDefault()).format(param));
+		} else {
+			sb.append(param.toString());
+		}
+	}
+	@Override
+	public String toString() {
+		return _rawMessage;
+	}
+}
@@ -0,0 +1,141 @@
+package r01f.bundles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.PropertyResourceBundle;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+import com.google.common.collect.Maps;
+
+/**
+ * An immutable {@link ResourceBundle} created every time a properties bundle is loaded or reloaded
+ * by the {@link ResourceBundleControl}
+ * It contains:
+ * <ul>
+ * 		<li>The pre-parsed messages ({@link ResourceBundleMessageTemplate}) so a message is NOT parsed every time it's customized</li>
+ * 		<li>A sorted keys index so the messages with keys starting with a prefix are found with a binary search
+ * 			instead of walking all the bundle keys</li>
+ * </ul>
+ * Since it's immutable, a snapshot can be used concurrently; a reload creates a new snapshot
+ */
+public class ResourceBundleSnapshot
+	 extends ResourceBundle {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The pre-parsed messages by key
+	 */
+	private final Map<String,ResourceBundleMessageTemplate> _templates;
+	/**
+	 * The sorted keys
+	 */
+	private final String[] _sortedKeys;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	public ResourceBundleSnapshot(final Map<String,String> messages) {
+		_templates = Maps.newHashMapWithExpectedSize(messages.size());
+		for (Map.Entry<String,String> me : messages.entrySet()) {
+			_templates.put(me.getKey(),ResourceBundleMessageTemplate.compile(me.getValue()));
+		}
+		_sortedKeys = messages.keySet().toArray(new String[messages.size()]);
+		Arrays.sort(_sortedKeys);
+	}
+	/**
+	 * Loads a properties bundle (see {@link PropertyResourceBundle})
+	 * @param is the properties stream (it's NOT closed)
+	 * @return
+	 * @throws IOException
+	 */
+	public static ResourceBundleSnapshot load(final InputStream is) throws IOException {
+		PropertyResourceBundle props = new PropertyResourceBundle(is);
+		Map<String,String> messages = Maps.newHashMap();
+		for (Enumeration<String> keys = props.getKeys(); keys.hasMoreElements(); ) {
+			String key = keys.nextElement();
+			messages.put(key,props.getString(key));
+		}
+		return new ResourceBundleSnapshot(messages);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  ResourceBundle
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	protected Object handleGetObject(final String key) {
+		if (key == null) throw new NullPointerException();
+		ResourceBundleMessageTemplate template = _templates.get(key);
+		return template != null ? template.getRawMessage() : null;
+	}
+	@Override
+	protected Set<String> handleKeySet() {
+		return _templates.keySet();
+	}
+	@Override
+	public Enumeration<String> getKeys() {
+		return Collections.enumeration(this.keySet());		// this bundle and the parents keys
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the pre-parsed message of a key looking at the bundle and it's parents
+	 * (if the bundle is NOT a snapshot the message is parsed)
+	 * @param bundle
+	 * @param key
+	 * @return the message or null if the key is NOT found
+	 */
+	public static ResourceBundleMessageTemplate templateOf(final ResourceBundle bundle,
+														   final String key) {
+		for (ResourceBundle rb = bundle; rb != null; rb = _parentOf(rb)) {
+			if (rb instanceof ResourceBundleSnapshot) {
+				ResourceBundleMessageTemplate template = ((ResourceBundleSnapshot)rb)._templates.get(key);
+				if (template != null) return template;
+			} else {
+				// not a snapshot (it resolves it's parents by itself)
+				try {
+					return ResourceBundleMessageTemplate.compile(rb.getString(key));
+				} catch(MissingResourceException mrEx) {
+					return null;
+				}
+			}
+		}
+		return null;
+	}
+	/**
+	 * Returns the messages which keys start with the given prefix looking at this bundle and it's parents
+	 * (the messages at this bundle override the parent's ones)
+	 * @param keyPrefix
+	 * @return
+	 */
+	public Map<String,String> getMessagesWithKeysStartingWith(final String keyPrefix) {
+		Map<String,String> outMessages = Maps.newHashMap();
+		for (ResourceBundle bundle = this; bundle != null; bundle = _parentOf(bundle)) {
+			if (bundle instanceof ResourceBundleSnapshot) {
+				ResourceBundleSnapshot snapshot = (ResourceBundleSnapshot)bundle;
+				int pos = Arrays.binarySearch(snapshot._sortedKeys,keyPrefix);
+				if (pos < 0) pos = -pos - 1;		// insertion point: the first key greater than the prefix
+				for (int i=pos; i < snapshot._sortedKeys.length && snapshot._sortedKeys[i].startsWith(keyPrefix); i++) {
+					String key = snapshot._sortedKeys[i];
+					if (!outMessages.containsKey(key)) outMessages.put(key,snapshot._templates.get(key).getRawMessage());
+				}
+			} else {
+				// not a snapshot (it resolves it's parents by itself)
+				for (String key : Collections.list(bundle.getKeys())) {
+					if (key.startsWith(keyPrefix) && !outMessages.containsKey(key)) outMessages.put(key,bundle.getString(key));
+				}
+			}
+		}
+		return outMessages;
+	}
+	private static ResourceBundle _parentOf(final ResourceBundle bundle) {
+		return bundle instanceof ResourceBundleSnapshot ? ((ResourceBundleSnapshot)bundle).parent
+														: null;
+	}
+}
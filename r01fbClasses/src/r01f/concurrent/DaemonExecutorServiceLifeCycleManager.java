@@ -1,12 +1,12 @@
 package r01f.concurrent;
 
 import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -36,10 +36,12 @@ import lombok.extern.slf4j.Slf4j;
  * 		}
  * </pre>
  * 
+ * The executor is an {@link InstrumentedThreadPoolExecutor}: its queue can be bounded (see {@link ExecutorSaturationPolicy})
+ * and its saturation can be watched
+ * 
  * http://stackoverflow.com/questions/4907502/running-a-background-java-program-in-tomcat
  */
 @Slf4j
-@RequiredArgsConstructor
 public class DaemonExecutorServiceLifeCycleManager 
   implements ExecutorServiceManager,
   			 Serializable {
@@ -52,6 +54,18 @@ public class DaemonExecutorServiceLifeCycleManager
 	 * Config
 	 */
 	private final int _numberOfThreadsInPool;
+	/**
+	 * The queue capacity (<= 0 if the queue is unbounded)
+	 */
+	private final int _queueCapacity;
+	/**
+	 * What's done with a task when the queue is full
+	 */
+	private final ExecutorSaturationPolicy _saturationPolicy;
+	/**
+	 * The tasks run when the executor is stopped (see {@link #addStopTask(Runnable)})
+	 */
+	private final List<Runnable> _stopTasks = new CopyOnWriteArrayList<Runnable>();
 /////////////////////////////////////////////////////////////////////////////////////////
 //  NON FINAL FIELDS
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -60,6 +74,29 @@ public class DaemonExecutorServiceLifeCycleManager
 	 */
 	private ExecutorService _executor;
 /////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Creates a manager of a thread pool with an unbounded queue
+	 * @param numberOfThreadsInPool
+	 */
+	public DaemonExecutorServiceLifeCycleManager(final int numberOfThreadsInPool) {
+		this(numberOfThreadsInPool,
+			 -1,null);
+	}
+	/**
+	 * Creates a manager of a thread pool with a bounded queue
+	 * @param numberOfThreadsInPool
+	 * @param queueCapacity the queue capacity (<= 0 if the queue is unbounded)
+	 * @param saturationPolicy what's done with a task when the queue is full
+	 */
+	public DaemonExecutorServiceLifeCycleManager(final int numberOfThreadsInPool,
+												 final int queueCapacity,final ExecutorSaturationPolicy saturationPolicy) {
+		_numberOfThreadsInPool = numberOfThreadsInPool;
+		_queueCapacity = queueCapacity;
+		_saturationPolicy = saturationPolicy != null ? saturationPolicy : ExecutorSaturationPolicy.CALLER_RUNS;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
 //  ServiceHandler
 /////////////////////////////////////////////////////////////////////////////////////////
 	@Override
@@ -68,17 +105,31 @@ public class DaemonExecutorServiceLifeCycleManager
 	        ThreadFactory daemonFactory = new DaemonThreadFactory();
 	
 	        int theNumExecutors = _numberOfThreadsInPool <= 0 ? 1 : _numberOfThreadsInPool;
-	        log.warn("Creating a background jobs executor pool with size={}",theNumExecutors);
-	        if (theNumExecutors <= 1) {
-	        	_executor = Executors.newSingleThreadExecutor(daemonFactory);
+	        if (_queueCapacity <= 0) {
+		        log.warn("Creating a background jobs executor pool with size={} and an unbounded queue",theNumExecutors);
+	        	_executor = InstrumentedThreadPoolExecutor.createUnbounded(theNumExecutors,
+	        															   daemonFactory);
 	        } else {
-	        	_executor = Executors.newFixedThreadPool(theNumExecutors,
-	        											 daemonFactory);
+		        log.warn("Creating a background jobs executor pool with size={} and a queue of {} jobs (saturation policy: {})",
+		        		 theNumExecutors,_queueCapacity,_saturationPolicy);
+	        	_executor = InstrumentedThreadPoolExecutor.createBounded(theNumExecutors,
+	        															 _queueCapacity,_saturationPolicy,
+	        															 daemonFactory);
 	        }
 		}
 	}
 	@Override
 	public void stop() {
+		// Run the stop tasks (ie unregister the jmx beans) before the pending jobs are discarded
+		for (Runnable stopTask : _stopTasks) {
+			try {
+				stopTask.run();
+			} catch(Throwable th) {
+				log.error("Error running an executor service stop task: {}",th.getMessage(),th);
+			}
+		}
+		_stopTasks.clear();
+
 		// Shutdown the thread pool or process/wait until all pending jobs are done
         _executor.shutdownNow(); 	// this DO NOT close the executor service... simply tells it not to accept more tasks
 									// see: http://java.dzone.com/articles/executorservice-10-tips-and
@@ -105,4 +156,8 @@ public class DaemonExecutorServiceLifeCycleManager
 		if (_executor == null) this.start();	// Ensure the executor is initialized!
 		return _executor;
 	}
+	@Override
+	public void addStopTask(final Runnable task) {
+		_stopTasks.add(task);
+	}
 }
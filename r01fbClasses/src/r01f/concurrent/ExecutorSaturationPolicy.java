@@ -0,0 +1,35 @@
+package r01f.concurrent;
+
+import r01f.enums.EnumExtended;
+import r01f.enums.EnumExtendedWrapper;
+
+/**
+ * What a bounded executor does with a task when its queue is full (see {@link InstrumentedThreadPoolExecutor})
+ * <ul>
+ * 		<li>CALLER_RUNS: the task is run at the thread that submitted it (the submitter is slowed down)</li>
+ * 		<li>BLOCK: the submitter waits until there's room at the queue</li>
+ * 		<li>DROP: the task is discarded and counted</li>
+ * </ul>
+ */
+public enum ExecutorSaturationPolicy
+ implements EnumExtended<ExecutorSaturationPolicy> {
+	CALLER_RUNS,
+	BLOCK,
+	DROP;
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final EnumExtendedWrapper<ExecutorSaturationPolicy> _enums = EnumExtendedWrapper.create(ExecutorSaturationPolicy.class);
+
+	public static ExecutorSaturationPolicy fromName(final String name) {
+		return _enums.fromName(name);
+	}
+	@Override
+	public boolean isIn(final ExecutorSaturationPolicy... els) {
+		return _enums.isIn(this,els);
+	}
+	@Override
+	public boolean is(final ExecutorSaturationPolicy el) {
+		return _enums.is(this,el);
+	}
+}
@@ -15,4 +15,10 @@ public interface ExecutorServiceManager
 	 * @return the executor service
 	 */
 	public ExecutorService getExecutorService();
+	/**
+	 * Registers a task that is run when the {@link ExecutorService} is stopped (see {@link #stop()})
+	 * ie to release the resources of the types that use the {@link ExecutorService}
+	 * @param task
+	 */
+	public void addStopTask(Runnable task);
 }
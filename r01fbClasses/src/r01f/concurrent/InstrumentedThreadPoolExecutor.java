@@ -0,0 +1,181 @@
+package r01f.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import r01f.debug.Debuggable;
+import r01f.util.types.Strings;
+
+/**
+ * A fixed size thread pool whose queue can be bounded and whose saturation can be watched
+ * <ul>
+ * 		<li>If the queue is bounded, when it's full the {@link ExecutorSaturationPolicy} decides what's done with a new task</li>
+ * 		<li>The queue depth, the number of tasks run at the submitter thread, the number of times a submitter
+ * 			blocked and the number of dropped tasks are recorded</li>
+ * </ul>
+ * A dropped task implementing {@link DropAware} is notified so it can record the drop
+ * <pre class='brush:java'>
+ * 		InstrumentedThreadPoolExecutor exec = InstrumentedThreadPoolExecutor.createBounded(4,			// threads
+ * 																				  1000,		// queue capacity
+ * 																				  ExecutorSaturationPolicy.CALLER_RUNS,
+ * 																				  new DaemonThreadFactory());
+ * </pre>
+ */
+@Slf4j
+@Accessors(prefix="_")
+public class InstrumentedThreadPoolExecutor
+	 extends ThreadPoolExecutor
+  implements Debuggable {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The queue capacity (-1 if it's unbounded)
+	 */
+	@Getter private final int _queueCapacity;
+	/**
+	 * What's done with a task when the queue is full
+	 */
+	@Getter private final ExecutorSaturationPolicy _saturationPolicy;
+
+	private final AtomicLong _callerRunCount = new AtomicLong(0);
+	private final AtomicLong _blockedCount = new AtomicLong(0);
+	private final AtomicLong _droppedCount = new AtomicLong(0);
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	private InstrumentedThreadPoolExecutor(final int numberOfThreads,
+										   final BlockingQueue<Runnable> queue,final int queueCapacity,
+										   final ExecutorSaturationPolicy saturationPolicy,
+										   final ThreadFactory threadFactory) {
+		super(numberOfThreads,numberOfThreads,
+			  0L,TimeUnit.MILLISECONDS,
+			  queue,
+			  threadFactory);
+		_queueCapacity = queueCapacity;
+		_saturationPolicy = saturationPolicy;
+		this.setRejectedExecutionHandler(new SaturationHandler());
+	}
+	/**
+	 * Creates a thread pool with an unbounded queue (the tasks are never rejected while the pool is running)
+	 * @param numberOfThreads
+	 * @param threadFactory
+	 * @return
+	 */
+	public static InstrumentedThreadPoolExecutor createUnbounded(final int numberOfThreads,
+																 final ThreadFactory threadFactory) {
+		return new InstrumentedThreadPoolExecutor(numberOfThreads,
+												  new LinkedBlockingQueue<Runnable>(),-1,
+												  ExecutorSaturationPolicy.BLOCK,		// never used
+												  threadFactory);
+	}
+	/**
+	 * Creates a thread pool with a bounded queue
+	 * @param numberOfThreads
+	 * @param queueCapacity
+	 * @param saturationPolicy what's done with a task when the queue is full
+	 * @param threadFactory
+	 * @return
+	 */
+	public static InstrumentedThreadPoolExecutor createBounded(final int numberOfThreads,
+															   final int queueCapacity,
+															   final ExecutorSaturationPolicy saturationPolicy,
+															   final ThreadFactory threadFactory) {
+		if (queueCapacity <= 0) throw new IllegalArgumentException("The queue capacity MUST be greater than zero");
+		return new InstrumentedThreadPoolExecutor(numberOfThreads,
+												  new ArrayBlockingQueue<Runnable>(queueCapacity),queueCapacity,
+												  saturationPolicy != null ? saturationPolicy : ExecutorSaturationPolicy.CALLER_RUNS,
+												  threadFactory);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METRICS
+/////////////////////////////////////////////////////////////////////////////////////////
+	public boolean isBounded() {
+		return _queueCapacity > 0;
+	}
+	/**
+	 * @return the number of tasks waiting at the queue
+	 */
+	public int getQueueDepth() {
+		return this.getQueue().size();
+	}
+	/**
+	 * @return the number of tasks run at the submitter thread because the queue was full (CALLER_RUNS)
+	 */
+	public long getCallerRunCount() {
+		return _callerRunCount.get();
+	}
+	/**
+	 * @return the number of times a submitter waited because the queue was full (BLOCK)
+	 */
+	public long getBlockedCount() {
+		return _blockedCount.get();
+	}
+	/**
+	 * @return the number of tasks discarded because the queue was full (DROP)
+	 */
+	public long getDroppedCount() {
+		return _droppedCount.get();
+	}
+	@Override
+	public CharSequence debugInfo() {
+		return Strings.of("Thread pool: {} threads ({} active); queue {}/{}; {} completed tasks; saturation {}: {} caller runs, {} blocked, {} dropped")
+					  .customizeWith(this.getPoolSize(),this.getActiveCount(),
+							  		 this.getQueueDepth(),this.isBounded() ? Integer.toString(_queueCapacity) : "unbounded",
+							  		 this.getCompletedTaskCount(),
+							  		 _saturationPolicy,_callerRunCount.get(),_blockedCount.get(),_droppedCount.get())
+					  .asString();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SATURATION
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Implemented by the tasks that need to know they've been dropped
+	 */
+	public interface DropAware {
+		/**
+		 * Called when the task is discarded because the queue is full
+		 */
+		public void onDropped();
+	}
+	private class SaturationHandler
+	   implements RejectedExecutionHandler {
+		@Override
+		public void rejectedExecution(final Runnable task,final ThreadPoolExecutor executor) {
+			if (executor.isShutdown()) throw new RejectedExecutionException("The executor is shut down");
+			switch(_saturationPolicy) {
+			case CALLER_RUNS:
+				_callerRunCount.incrementAndGet();
+				task.run();
+				break;
+			case BLOCK:
+				_blockedCount.incrementAndGet();
+				try {
+					executor.getQueue().put(task);
+				} catch (InterruptedException intEx) {
+					Thread.currentThread().interrupt();
+					throw new RejectedExecutionException("Interrupted while waiting for room at the executor queue",intEx);
+				}
+				break;
+			case DROP:
+				long dropped = _droppedCount.incrementAndGet();
+				if (task instanceof DropAware) ((DropAware)task).onDropped();
+				if (dropped == 1 || dropped % 1000 == 0) log.warn("The executor queue is full ({} tasks): {} tasks dropped so far",
+																  _queueCapacity,dropped);
+				break;
+			default:
+				throw new IllegalStateException();
+			}
+		}
+	}
+}
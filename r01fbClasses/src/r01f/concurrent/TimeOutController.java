@@ -1,7 +1,31 @@
 package r01f.concurrent;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a task waiting at most a timeout for it to complete
+ * <ul>
+ * 		<li>{@link #execute(Runnable, long)} starts a new thread for every task: it's expensive if it's called often</li>
+ * 		<li>{@link #execute(Runnable, long, ExecutorService)} and {@link #executePooled(Runnable, long)} run the task
+ * 			at an executor so the threads are reused</li>
+ * </ul>
+ * BEWARE! if the timeout can be enforced by the task itself (ie socket connect / read timeouts) do NOT use this type
+ */
 public class TimeOutController {
 ///////////////////////////////////////////////////////////////////////////////
+// SHARED EXECUTOR
+///////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Lazily created daemon threads pool used by {@link #executePooled(Runnable, long)}
+	 * (the idle threads are released after a minute)
+	 */
+	private static class SharedExecutorHolder {
+		static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new DaemonThreadFactory());
+	}
+///////////////////////////////////////////////////////////////////////////////
 // CONSTRUCTOR
 ///////////////////////////////////////////////////////////////////////////////
 	/**
@@ -48,6 +72,47 @@ public class TimeOutController {
         t.setDaemon(true);
         execute(t,timeout);	// Ejecutarla igual que el metodo anterior
     }
+    /**
+     * Runs the task at the given executor and waits at most the timeout for it to complete
+     * If the task does not complete in time it's cancelled (the thread is interrupted) and an exception is thrown
+     * @param task the task
+     * @param timeout the timeout in millis; 0 means wait forever
+     * @param executor the executor where the task is run
+     * @throws TimeoutException if the task does not complete in time
+     */
+    public static void execute(final Runnable task,final long timeout,
+    						   final ExecutorService executor) throws TimeoutException {
+    	Future<?> future = executor.submit(task);
+    	try {
+    		if (timeout == 0) {
+    			future.get();
+    		} else {
+    			future.get(timeout,TimeUnit.MILLISECONDS);
+    		}
+    	} catch (java.util.concurrent.TimeoutException timeoutEx) {
+    		future.cancel(true);
+    		throw new TimeoutException();
+    	} catch (InterruptedException intEx) {
+    		future.cancel(true);
+    		Thread.currentThread().interrupt();
+    	} catch (java.util.concurrent.ExecutionException execEx) {
+    		Throwable cause = execEx.getCause();
+    		if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+    		if (cause instanceof Error) throw (Error)cause;
+    		throw new IllegalStateException(cause);
+    	}
+    }
+    /**
+     * Runs the task at a shared daemon threads pool and waits at most the timeout for it to complete
+     * (see {@link #execute(Runnable, long, ExecutorService)})
+     * @param task the task
+     * @param timeout the timeout in millis; 0 means wait forever
+     * @throws TimeoutException if the task does not complete in time
+     */
+    public static void executePooled(final Runnable task,final long timeout) throws TimeoutException {
+    	execute(task,timeout,
+    			SharedExecutorHolder.EXECUTOR);
+    }
     /**
      * Signals that the task timed out.
      */
@@ -1,6 +1,7 @@
 package r01f.guid;
 
 
+import r01f.guid.HighLowBlockGUIDDispenser.HighLowBlockGUIDDispenserFactory;
 import r01f.guid.HighLowGUIDDispenser.HighLowGUIDDispenserFactory;
 import r01f.guid.SimpleGUIDDispenser.SimpleGUIDDispenserFactory;
 
@@ -102,8 +103,12 @@ public class GUIDDispenserGuiceModule
 		Module assistedModuleForHighLowGUIDDispenser = new FactoryModuleBuilder().implement(GUIDDispenser.class,
 																							HighLowGUIDDispenser.class)
 												 		   						 .build(HighLowGUIDDispenserFactory.class);
+		Module assistedModuleForHighLowBlockGUIDDispenser = new FactoryModuleBuilder().implement(GUIDDispenser.class,
+																								 HighLowBlockGUIDDispenser.class)
+																					  .build(HighLowBlockGUIDDispenserFactory.class);
 		binder.install(assistedModuleForSimpleGUIDDispenser);	
 		binder.install(assistedModuleForHighLowGUIDDispenser);
+		binder.install(assistedModuleForHighLowBlockGUIDDispenser);
 		
 		// [2] MapBinders config: it's used to get the GUIDDispenserFactory factory at run-time from it's id
 		//		- MapBinder of GUIDs factories to get the guidDispenser at run-time
@@ -114,6 +119,9 @@ public class GUIDDispenserGuiceModule
 		guidDispenserFactoryMapBinder.addBinding("highLowGUIDDispenser")
 									 .to(HighLowGUIDDispenserFactory.class)
 									 .in(Singleton.class);
+		guidDispenserFactoryMapBinder.addBinding("highLowBlockGUIDDispenser")		// lock-free HIGH/LOW dispenser for highly concurrent guid generation
+									 .to(HighLowBlockGUIDDispenserFactory.class)
+									 .in(Singleton.class);
 		
 		// [2] MapBinders config: it's used to get the HighLowGUIDPersist instane at run-time from it's id
 		//	   (this is only used in HighLowGUIDDispensers)
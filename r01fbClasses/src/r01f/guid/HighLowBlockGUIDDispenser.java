@@ -0,0 +1,280 @@
+package r01f.guid;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.extern.slf4j.Slf4j;
+import r01f.exceptions.Throwables;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.assistedinject.Assisted;
+
+/**
+ * A {@link HighLowGUIDDispenser} flavour suited for highly concurrent GUID generation:
+ * the GUIDs have the same format (HIGH + LOW + UniqueID) BUT:
+ * <ul>
+ * 		<li>NO lock is used: the LOW values of the current HIGH are handed using an atomic counter</li>
+ * 		<li>Every thread reserves a block of LOW values (see threadBlockSize property) so most of the
+ * 			GUIDs are generated without even touching the shared counter</li>
+ * 		<li>The next HIGH value is reserved at the persistence in the background when the current HIGH is
+ * 			about to be exhausted so the threads usually do NOT wait for the persistence round-trip
+ * 			when the HIGH rolls over</li>
+ * 		<li>The GUID is composed over a char[] template (HIGH and UniqueID are precomputed) instead of
+ * 			concatenating strings</li>
+ * </ul>
+ * The definition properties are the same as the {@link HighLowGUIDDispenser} ones plus:
+ * <pre class='brush:xml'>
+ * 		<sequence name='default'>
+ * 			<factoryBindingId>highLowBlockGUIDDispenser</factoryBindingId>
+ * 			<uniqueId>desa</uniqueId>
+ * 			<length>36</length>
+ * 			<properties>
+ * 				<highKeyBytes>8</highKeyBytes>
+ * 				<lowKeyBytes>8</lowKeyBytes>
+ * 				<persistenceBindingId>bbddHighKeyPersist</persistenceBindingId>
+ * 				<threadBlockSize>64</threadBlockSize>		<!-- number of LOW values reserved by every thread -->
+ * 			</properties>
+ * 		</sequence>
+ * </pre>
+ * BEWARE! 	the LOW values reserved by a thread that are NOT used (ie: the thread dies) are lost:
+ * 			the GUIDs are unique but NOT consecutive
+ */
+@Slf4j
+public class HighLowBlockGUIDDispenser
+  implements GUIDDispenser {
+///////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+///////////////////////////////////////////////////////////////////////////////////////////
+	private static final int DEFAULT_THREAD_BLOCK_SIZE = 64;
+	private static final char[] HEX_CHARS = "0123456789ABCDEF".toCharArray();
+
+///////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+///////////////////////////////////////////////////////////////////////////////////////////
+	private final GUIDDispenserDef _dispDef;
+	private final HighLowGUIDPersist _guidPersist;
+
+	private final int _lowKeyBytes;
+	private final long _lowSpace;				// number of LOW values for every HIGH value
+	private final int _threadBlockSize;
+	private final char[] _uniqueId;
+
+	/**
+	 * The HIGH key: it's ONLY accessed from the prefetch thread, the constructor or a thread retrying
+	 * a failed prefetch (see {@link #_reserveNextHighKey()})
+	 */
+	private final HighLowKey _highKey;
+	/**
+	 * The HIGH block the LOW values are being reserved from
+	 */
+	private final AtomicReference<HighBlock> _currHighBlock = new AtomicReference<HighBlock>();
+	/**
+	 * The background thread that reserves the next HIGH values at the persistence
+	 */
+	private final ExecutorService _highKeyPrefetcher;
+	/**
+	 * The LOW values block reserved by every thread
+	 */
+	private final ThreadLocal<ThreadBlock> _threadBlocks = new ThreadLocal<ThreadBlock>() {
+																	@Override
+																	protected ThreadBlock initialValue() {
+																		return new ThreadBlock();
+																	}
+														   };
+
+///////////////////////////////////////////////////////////////////////////////////////////
+//  INTERFACE GUIDDispenserFactory used by Guice AssistedInject to create GUIDDispenser
+//  objects using a GUIDDispenserDef definition that's only known at runtime
+//	(see GUIDDispenserFlavourFactory)
+///////////////////////////////////////////////////////////////////////////////////////////
+    static interface HighLowBlockGUIDDispenserFactory
+             extends GUIDDispenserFlavourFactory {
+    	/* empty */
+    }
+///////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+///////////////////////////////////////////////////////////////////////////////////////////
+    @Inject
+    public HighLowBlockGUIDDispenser(@Assisted final GUIDDispenserDef dispDef,
+    								 		   final Map<String,HighLowGUIDPersist> highLowGUIDPersistFactories) {
+    	_dispDef = new GUIDDispenserDef(dispDef);
+
+    	// Default properties
+    	if (_dispDef.getProperty("highKeyBytes") == null) {
+    		log.warn("No highKeyBytes property was set for the {} guid sequence of app {}: {} is assumed",
+    				 _dispDef.getSequenceName(),_dispDef.getAppCode(),_dispDef.getLength() / 2);
+    		_dispDef.getProperties().put("highKeyBytes",Integer.toString(_dispDef.getLength() / 2));
+    	}
+    	if (_dispDef.getProperty("lowKeyBytes") == null) {
+    		log.warn("No lowKeyBytes property was set for the {} guid sequence of app {}: {} is assumed",
+    				 _dispDef.getSequenceName(),_dispDef.getAppCode(),_dispDef.getLength() / 2);
+    		_dispDef.getProperties().put("lowKeyBytes",Integer.toString(_dispDef.getLength() / 2));
+    	}
+    	if (_dispDef.getProperty("persistenceBindingId") == null) {
+    		log.warn("No persistenceBindingId property was set for the {} guid sequence of app {}: the HIGH key will be stored in MEMORY!",
+    				 _dispDef.getSequenceName(),_dispDef.getAppCode());
+    		_dispDef.getProperties().put("persistenceBindingId","inMemoryHighKeyPersist");
+    	}
+    	_guidPersist = highLowGUIDPersistFactories.get(_dispDef.getProperty("persistenceBindingId"));
+    	if (_guidPersist == null) throw new IllegalStateException(Throwables.message("There's NO HighLowGUIDPersist binded to {}",
+    																				 _dispDef.getProperty("persistenceBindingId")));
+    	_lowKeyBytes = Integer.parseInt(_dispDef.getProperty("lowKeyBytes"));
+    	_lowSpace = _lowKeyBytes >= 8 ? Long.MAX_VALUE
+    								  : 1L << (8 * _lowKeyBytes);
+    	_threadBlockSize = _dispDef.getProperty("threadBlockSize") != null ? Math.max(1,Integer.parseInt(_dispDef.getProperty("threadBlockSize")))
+    																	   : DEFAULT_THREAD_BLOCK_SIZE;
+    	_uniqueId = _dispDef.getUniqueID() != null ? _dispDef.getUniqueID().toCharArray()
+    											   : new char[0];
+
+    	// The persisted HIGH value is NEVER reused: the next one is reserved
+    	HighLowKey persistedHighKey = _guidPersist.getHighKeyValue(_dispDef);
+    	_highKey = persistedHighKey != null ? persistedHighKey
+    										: new HighLowKey(Integer.parseInt(_dispDef.getProperty("highKeyBytes")));
+    	_highKeyPrefetcher = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setDaemon(true)
+    																					 .setNameFormat("guid-highkey-prefetch-" + _dispDef.getSequenceName() + "-%d")
+    																					 .build());
+    	_currHighBlock.set(_reserveNextHighKey());
+    }
+///////////////////////////////////////////////////////////////////////////////////////////
+//  GUIDDispenser
+///////////////////////////////////////////////////////////////////////////////////////////
+    @Override
+    public String generateGUID() {
+    	ThreadBlock threadBlock = _threadBlocks.get();
+    	if (threadBlock._next >= threadBlock._end) _reserveThreadBlock(threadBlock);
+    	long low = threadBlock._next++;
+    	return threadBlock._highBlock.guidFor(low);
+    }
+///////////////////////////////////////////////////////////////////////////////////////////
+//  LOW BLOCKS
+///////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * Reserves a new block of LOW values for the calling thread
+     * @param threadBlock
+     */
+    private void _reserveThreadBlock(final ThreadBlock threadBlock) {
+    	while (true) {
+    		HighBlock highBlock = _currHighBlock.get();
+    		long start = highBlock._nextLow.getAndAdd(_threadBlockSize);
+    		if (start >= 0 && start < _lowSpace) {
+    			// prefetch the next HIGH if the current one is about to be exhausted
+    			if (start >= highBlock._prefetchThreshold) highBlock.prefetchNext();
+    			threadBlock._highBlock = highBlock;
+    			threadBlock._next = start;
+    			threadBlock._end = Math.min(_lowSpace,start + _threadBlockSize);
+    			return;
+    		}
+    		// the current HIGH is exhausted: move to the next one (only a thread wins the CAS; the others retry)
+    		HighBlock nextHighBlock = highBlock.waitForNext();
+    		_currHighBlock.compareAndSet(highBlock,nextHighBlock);
+    	}
+    }
+///////////////////////////////////////////////////////////////////////////////////////////
+//  HIGH BLOCKS
+///////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * Increments the HIGH key and updates it at the persistence
+     * (this method is called from the constructor, the prefetch thread or a thread retrying a failed prefetch
+     *  so it's synchronized)
+     * @return
+     */
+    private synchronized HighBlock _reserveNextHighKey() {
+    	try {
+    		_highKey.increment();
+    	} catch (HighLowMaxForKeyReachedException maxKeyEx) {
+            log.error("The HIGH values are exhausted; there's a BIG risk of GUID repetition... check the guid size (guids definition)!!",maxKeyEx);
+            _highKey.setToZero();
+    	}
+    	boolean updated = _guidPersist.updateGUID(_dispDef,_highKey);
+    	if (!updated) log.error("Could NOT update the HIGH value {} at the guid persistence",_highKey);
+    	return new HighBlock(_highKey.toString());
+    }
+    /**
+     * The LOW values of a HIGH value
+     */
+    private class HighBlock {
+    	private final char[] _guidTemplate;		// HIGH + (LOW placeholder) + UniqueID
+    	private final int _lowOffset;
+    	private final AtomicLong _nextLow = new AtomicLong(1);		// the LOW is incremented before being used in HighLowGUIDDispenser
+    	private final long _prefetchThreshold = _lowSpace - (_lowSpace / 4);
+    	private final AtomicBoolean _prefetchRequested = new AtomicBoolean(false);
+    	private volatile Future<HighBlock> _next;
+
+    	HighBlock(final String highKey) {
+    		_lowOffset = highKey.length();
+    		_guidTemplate = new char[highKey.length() + (_lowKeyBytes * 2) + _uniqueId.length];
+    		highKey.getChars(0,highKey.length(),_guidTemplate,0);
+    		System.arraycopy(_uniqueId,0,_guidTemplate,_lowOffset + (_lowKeyBytes * 2),_uniqueId.length);
+    	}
+    	/**
+    	 * Composes the guid: the LOW value is encoded as {@link HighLowKey} does:
+    	 * the less significant byte first, every byte as two hex chars
+    	 * @param low
+    	 * @return
+    	 */
+    	String guidFor(final long low) {
+    		char[] guid = _guidTemplate.clone();
+    		long value = low;
+    		for (int i = 0; i < _lowKeyBytes; i++) {
+    			int b = (int)(value & 0xFF);
+    			guid[_lowOffset + (i * 2)] = HEX_CHARS[b >>> 4];
+    			guid[_lowOffset + (i * 2) + 1] = HEX_CHARS[b & 0x0F];
+    			value >>>= 8;
+    		}
+    		return new String(guid);
+    	}
+    	void prefetchNext() {
+    		if (!_prefetchRequested.compareAndSet(false,true)) return;		// already requested
+    		_next = _highKeyPrefetcher.submit(new Callable<HighBlock>() {
+													@Override
+													public HighBlock call() {
+														return _reserveNextHighKey();
+													}
+    										  });
+    	}
+    	HighBlock waitForNext() {
+    		this.prefetchNext();
+    		while (true) {
+	    		Future<HighBlock> next = null;
+	    		while ((next = _next) == null) Thread.yield();		// another thread is submitting the prefetch
+	    		try {
+	    			return next.get();
+	    		} catch (InterruptedException intEx) {
+	    			Thread.currentThread().interrupt();
+	    			throw new IllegalStateException("Interrupted while waiting for the next guid HIGH value",intEx);
+	    		} catch (ExecutionException exEx) {
+	    			log.warn("Could NOT prefetch the next guid HIGH value: it's reserved synchronously: {}",exEx.getCause().getMessage(),
+	    																									  exEx.getCause());
+	    			_retryNext(next);
+	    		}
+    		}
+    	}
+    	/**
+    	 * Replaces a failed prefetch with a synchronously reserved HIGH value
+    	 * (if the reservation fails again, the failed prefetch is kept so the next call retries)
+    	 * @param failedNext
+    	 */
+    	private synchronized void _retryNext(final Future<HighBlock> failedNext) {
+    		if (_next != failedNext) return;		// another thread already retried
+    		HighBlock nextHighBlock = _reserveNextHighKey();
+    		_next = Futures.immediateFuture(nextHighBlock);
+    	}
+    }
+    /**
+     * The LOW values reserved by a thread
+     */
+    private static class ThreadBlock {
+    	private HighBlock _highBlock;
+    	private long _next;
+    	private long _end;
+    }
+}
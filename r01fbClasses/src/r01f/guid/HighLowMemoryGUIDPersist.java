@@ -15,7 +15,6 @@ public class HighLowMemoryGUIDPersist
 ///////////////////////////////////////////////////////////////////////////////////////////
 //  FIELDS
 ///////////////////////////////////////////////////////////////////////////////////////////
-	private GUIDDispenserDef _dispDef;		// dispenser definition
     private HighLowKey _highKey;           	// guid actual high key part 
 
 ///////////////////////////////////////////////////////////////////////////////////////////
@@ -24,7 +23,7 @@ public class HighLowMemoryGUIDPersist
     @Override
     public HighLowKey getHighKeyValue(final GUIDDispenserDef dispDef) {
         return _highKey != null ? _highKey
-        						: new HighLowKey(Integer.parseInt(_dispDef.getProperty("highKeyBytes")));
+        						: new HighLowKey(Integer.parseInt(dispDef.getProperty("highKeyBytes")));
     }
     @Override
     public boolean updateGUID(final GUIDDispenserDef dispDef,
@@ -3,7 +3,6 @@ package r01f.httpclient;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 
-import r01f.concurrent.TimeOutController;
 import r01f.guids.CommonOIDs.Password;
 import r01f.guids.CommonOIDs.UserCode;
 
@@ -22,6 +21,9 @@ abstract class ConnectionRetrieverBase {
 	 * 		<li>{@link HttpsConnectionRetriever}</li>
 	 * </ul>
 	 * 
+	 * The timeout is enforced at the socket level ({@link HttpURLConnection#setConnectTimeout(int)}):
+	 * the connection is NOT opened here but when the request is sent, so no thread is needed to guard it
+	 * 
 	 * NOTE: To debug : -Djavax.net.debug=all
 	 * 
 	 * @param urlStr url to connect with
@@ -36,28 +38,10 @@ abstract class ConnectionRetrieverBase {
 	public HttpURLConnection getConnection( final String urlStr,final long timeout,
 											final String proxyHost,final String proxyPort,
 											final UserCode proxyUser,final Password proxyPassword) throws IOException {
-		HttpURLConnection outConx = null;
-		if (timeout < 0) {
-			outConx = _retrieveConnection(urlStr,
-										  proxyHost,proxyPort,proxyUser,proxyPassword);
-		} else {
-			try {
-				ObtainConnectionTask task = new ObtainConnectionTask() {
-					@Override
-					public void doit() throws IOException {
-						this.conx = _retrieveConnection(urlStr,
+		HttpURLConnection outConx = _retrieveConnection(urlStr,
 														proxyHost,proxyPort,proxyUser,proxyPassword);
-					}
-				};
-				TimeOutController.execute(task,timeout);
-				outConx = task.conx;
-				if (task.ioException != null) {
-					throw task.ioException;
-				}
-			} catch (TimeOutController.TimeoutException timeOutEx) {
-				throw new IOException("No se ha podido obtener la conexin con el host '" + urlStr + "' en el tiempo especificado: " + timeout + " millis");
-			}
-		}
+		if (timeout >= 0) outConx.setConnectTimeout(timeout > Integer.MAX_VALUE ? Integer.MAX_VALUE
+																				 : (int)timeout);
 		return outConx;
 	}
 	
@@ -85,30 +69,4 @@ abstract class ConnectionRetrieverBase {
 														  final String proxyHost,final String proxyPort,
 														  final UserCode proxyUser,final Password proxyPassword) throws IOException;
 
-///////////////////////////////////////////////////////////////////////////////
-// AUX TYPE TO HANDLE WITH CONNECTION TIMEOUT
-///////////////////////////////////////////////////////////////////////////////
-	/**
-	 * Aux type that encloses the connection timeout
-	 */
-	abstract class ObtainConnectionTask 
-	    implements Runnable {
-		
-		public java.net.HttpURLConnection conx;
-		public IOException ioException;
-		/**
-		 * Runs whatever
-		 * @throws IOException if an error occurs..
-		 */
-		public abstract void doit() throws IOException;
-		@Override
-		public void run() {
-			try {
-				this.doit();		// Normally here a connection is retrieved
-			} catch (IOException ioEx) {
-				ioException = ioEx;
-			}
-		}
-	}
-	
 }
@@ -0,0 +1,34 @@
+package r01f.httpclient;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+import r01f.guids.CommonOIDs.Password;
+import r01f.guids.CommonOIDs.UserCode;
+
+/**
+ * The transport used by {@link HttpRequestFluentStatementForResponse} to get a connection with the server
+ * The fluent api sets the request method, headers and payload over the returned {@link HttpURLConnection}
+ * so the transport only decides HOW the connection is really done:
+ * <ul>
+ * 		<li>{@link HttpClientTransportForURLConnection}: a new jdk {@link HttpURLConnection} for every request (the default)</li>
+ * 		<li>{@link HttpClientTransportPooled}: a pool of keep-alive connections</li>
+ * </ul>
+ * The transport in use is set at {@link HttpClientTransports}
+ */
+public interface HttpClientTransport {
+	/**
+	 * Returns a NOT connected {@link HttpURLConnection} to the given url
+	 * @param urlStr url to connect with
+	 * @param conxTimeOut timeout to get the connection (this is not the timeout to get the response); < 0 if there's no timeout
+	 * @param proxyHost proxy host to use
+	 * @param proxyPort proxy host port
+	 * @param proxyUser proxy user
+	 * @param proxyPassword proxy password
+	 * @return the connection
+	 * @throws IOException if a connection could not be retrieved
+	 */
+	public HttpURLConnection openConnection(final String urlStr,final long conxTimeOut,
+											final String proxyHost,final String proxyPort,
+											final UserCode proxyUser,final Password proxyPassword) throws IOException;
+}
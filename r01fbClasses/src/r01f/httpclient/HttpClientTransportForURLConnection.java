@@ -0,0 +1,34 @@
+package r01f.httpclient;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+import r01f.guids.CommonOIDs.Password;
+import r01f.guids.CommonOIDs.UserCode;
+
+/**
+ * {@link HttpClientTransport} that opens a new jdk {@link HttpURLConnection} for every request
+ * (the jdk reuses the keep-alive sockets only if the response stream is fully read and closed)
+ */
+public class HttpClientTransportForURLConnection
+  implements HttpClientTransport {
+
+	@Override
+	public HttpURLConnection openConnection(final String urlStr,final long conxTimeOut,
+											final String proxyHost,final String proxyPort,
+											final UserCode proxyUser,final Password proxyPassword) throws IOException {
+		HttpURLConnection outConx = null;
+		if (urlStr.startsWith("https")) {
+			HttpsConnectionRetriever connectionRetriever = new HttpsConnectionRetriever();
+			outConx = connectionRetriever.getConnection(urlStr,conxTimeOut,
+													 	proxyHost,proxyPort,proxyUser,proxyPassword);
+		} else if (urlStr.startsWith("http")) {
+			HttpConnectionRetriever connectionRetriever = new HttpConnectionRetriever();
+			outConx = connectionRetriever.getConnection(urlStr,conxTimeOut,
+													 	proxyHost,proxyPort,proxyUser,proxyPassword);
+		} else {
+			throw new IOException("NO se soporta el protocolo especificado en la url: '" + urlStr + "'");
+		}
+		return outConx;
+	}
+}
@@ -0,0 +1,296 @@
+package r01f.httpclient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import r01f.debug.Debuggable;
+import r01f.guids.CommonOIDs.Password;
+import r01f.guids.CommonOIDs.UserCode;
+import r01f.util.types.Strings;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link HttpClientTransport} backed by a pool of keep-alive connections
+ * <ul>
+ * 		<li>The connections are reused between requests to the same host (scheme+host+port+proxy)</li>
+ * 		<li>The number of connections per host and the total number of connections are bounded:
+ * 			when there's no free connection, the request waits for one at most the pool timeout 
+ * 			(whatever the connection timeout is): a request never waits forever for a connection</li>
+ * 		<li>Only the http requests are pooled: the https requests are delegated to {@link HttpClientTransportForURLConnection}
+ * 			so they keep using the custom jsse handler and the {@link SSLTunnelSocketFactory} to tunnel through the proxies</li>
+ * 		<li>The connections idle for more than the idle timeout are closed by a background daemon thread</li>
+ * 		<li>The number of requests, connect / pool / read timeouts and the mean response time are recorded</li>
+ * </ul>
+ * The returned {@link HttpURLConnection}s are NOT real jdk connections (see {@link HttpPooledConnectionWrapper}):
+ * the request is buffered and sent when the response is requested; the connection returns to the pool
+ * when the response stream is fully read or closed
+ * BEWARE! the request payload is buffered in memory (do NOT use this transport to upload huge files)
+ */
+@Slf4j
+@Accessors(prefix="_")
+public class HttpClientTransportPooled
+  implements HttpClientTransport,
+  			 Closeable,
+  			 Debuggable {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 20;
+	public static final int DEFAULT_MAX_CONNECTIONS = 200;
+	public static final long DEFAULT_IDLE_TIMEOUT = 30 * 1000L;
+	public static final int DEFAULT_READ_TIMEOUT = 0;					// no read timeout (as the jdk connections)
+	public static final int DEFAULT_POOL_TIMEOUT = 30 * 1000;			// max time waiting for a free pooled connection
+	private static final int VALIDATE_AFTER_INACTIVITY = 2 * 1000;		// a connection idle for more than this is checked before reused
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final PoolingHttpClientConnectionManager _connManager;
+	private final CloseableHttpClient _httpClient;
+	private final ScheduledExecutorService _idleConnectionsEvictor;
+	private final HttpClientTransport _httpsTransport = new HttpClientTransportForURLConnection();
+
+	@Getter private final int _maxConnectionsPerHost;
+	@Getter private final int _maxConnections;
+	@Getter private final long _idleTimeout;
+	@Getter private final int _readTimeout;
+	@Getter private final int _poolTimeout;
+
+	private final AtomicLong _requestCount = new AtomicLong(0);
+	private final AtomicLong _failedRequestCount = new AtomicLong(0);
+	private final AtomicLong _connectTimeoutCount = new AtomicLong(0);
+	private final AtomicLong _poolTimeoutCount = new AtomicLong(0);
+	private final AtomicLong _readTimeoutCount = new AtomicLong(0);
+	private final AtomicLong _responseNanos = new AtomicLong(0);
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	private HttpClientTransportPooled(final int maxConnectionsPerHost,final int maxConnections,
+									  final long idleTimeout,final int readTimeout,
+									  final int poolTimeout) {
+		if (poolTimeout <= 0) throw new IllegalArgumentException("The pool timeout must be greater than 0: a request could wait forever for a pooled connection");
+		_maxConnectionsPerHost = maxConnectionsPerHost;
+		_maxConnections = maxConnections;
+		_idleTimeout = idleTimeout;
+		_readTimeout = readTimeout;
+		_poolTimeout = poolTimeout;
+
+		_connManager = new PoolingHttpClientConnectionManager();
+		_connManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+		_connManager.setMaxTotal(maxConnections);
+		_connManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY);
+
+		_httpClient = HttpClients.custom()
+								 .setConnectionManager(_connManager)
+								 .setDefaultRequestConfig(RequestConfig.custom()
+										 							   .setSocketTimeout(readTimeout)
+										 							   .setConnectionRequestTimeout(poolTimeout)
+										 							   .build())
+								 .disableCookieManagement()			// cookies are handled by the fluent api
+								 .disableContentCompression()		// as the jdk connections
+								 .disableAuthCaching()
+								 .build();
+
+		long evictionPeriod = Math.max(1000,idleTimeout / 2);
+		_idleConnectionsEvictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+																									   .setNameFormat("r01f-httpclient-idle-connections-evictor-%d")
+																									   .build());
+		_idleConnectionsEvictor.scheduleWithFixedDelay(new Runnable() {
+																@Override
+																public void run() {
+																	_connManager.closeExpiredConnections();
+																	_connManager.closeIdleConnections(_idleTimeout,TimeUnit.MILLISECONDS);
+																}
+													   },
+													   evictionPeriod,evictionPeriod,TimeUnit.MILLISECONDS);
+		log.info("Pooled http client transport: {} connections per host, {} connections, {} millis idle timeout, {} millis read timeout, {} millis pool timeout",
+				 maxConnectionsPerHost,maxConnections,idleTimeout,readTimeout,poolTimeout);
+	}
+	/**
+	 * Creates a pooled transport with the default settings
+	 * @return
+	 */
+	public static HttpClientTransportPooled create() {
+		return new HttpClientTransportPooled(DEFAULT_MAX_CONNECTIONS_PER_HOST,DEFAULT_MAX_CONNECTIONS,
+											 DEFAULT_IDLE_TIMEOUT,DEFAULT_READ_TIMEOUT,
+											 DEFAULT_POOL_TIMEOUT);
+	}
+	/**
+	 * Creates a pooled transport
+	 * @param maxConnectionsPerHost max number of connections to the same host
+	 * @param maxConnections max number of connections
+	 * @param idleTimeout the connections idle for more than this (millis) are closed
+	 * @param readTimeout max time (millis) waiting for data once connected (0 = no timeout)
+	 * @return
+	 */
+	public static HttpClientTransportPooled create(final int maxConnectionsPerHost,final int maxConnections,
+												   final long idleTimeout,final int readTimeout) {
+		return new HttpClientTransportPooled(maxConnectionsPerHost,maxConnections,
+											 idleTimeout,readTimeout,
+											 DEFAULT_POOL_TIMEOUT);
+	}
+	/**
+	 * Creates a pooled transport
+	 * @param maxConnectionsPerHost max number of connections to the same host
+	 * @param maxConnections max number of connections
+	 * @param idleTimeout the connections idle for more than this (millis) are closed
+	 * @param readTimeout max time (millis) waiting for data once connected (0 = no timeout)
+	 * @param poolTimeout max time (millis) waiting for a free pooled connection (it must be greater than 0: 0 = wait forever)
+	 * @return
+	 */
+	public static HttpClientTransportPooled create(final int maxConnectionsPerHost,final int maxConnections,
+												   final long idleTimeout,final int readTimeout,
+												   final int poolTimeout) {
+		return new HttpClientTransportPooled(maxConnectionsPerHost,maxConnections,
+											 idleTimeout,readTimeout,
+											 poolTimeout);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  HttpClientTransport
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public HttpURLConnection openConnection(final String urlStr,final long conxTimeOut,
+											final String proxyHost,final String proxyPort,
+											final UserCode proxyUser,final Password proxyPassword) throws IOException {
+		if (!urlStr.startsWith("http")) throw new IOException("NO se soporta el protocolo especificado en la url: '" + urlStr + "'");
+		// https: the custom jsse handler (and the ssl tunnel socket factory when using a proxy) as before
+		if (urlStr.startsWith("https")) return _httpsTransport.openConnection(urlStr,conxTimeOut,
+																			   proxyHost,proxyPort,proxyUser,proxyPassword);
+
+		// the connection timeout is NOT used as the time waiting for a free pooled connection:
+		// a 0 connection timeout (no timeout) would make the request wait forever for a connection
+		RequestConfig.Builder reqConfig = RequestConfig.custom()
+													   .setSocketTimeout(_readTimeout)
+													   .setConnectionRequestTimeout(_poolTimeout);	// time waiting for a free pooled connection
+		if (conxTimeOut >= 0) {
+			int timeout = conxTimeOut > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)conxTimeOut;
+			reqConfig.setConnectTimeout(timeout);
+		}
+		HttpClientContext ctx = HttpClientContext.create();
+		if (proxyHost != null && proxyPort != null) {
+			HttpHost proxy = new HttpHost(proxyHost,Integer.parseInt(proxyPort));
+			reqConfig.setProxy(proxy);
+			if (proxyUser != null && proxyPassword != null) {
+				BasicCredentialsProvider credentials = new BasicCredentialsProvider();
+				credentials.setCredentials(new AuthScope(proxy),
+										   new UsernamePasswordCredentials(proxyUser.asString(),proxyPassword.asString()));
+				ctx.setCredentialsProvider(credentials);
+			}
+		}
+		ctx.setRequestConfig(reqConfig.build());
+		return new HttpPooledConnectionWrapper(this,
+											   new URL(urlStr),ctx);
+	}
+	/**
+	 * Executes the request using a pooled connection
+	 * @param request
+	 * @param ctx
+	 * @return
+	 * @throws IOException
+	 */
+	CloseableHttpResponse execute(final HttpUriRequest request,
+								  final HttpClientContext ctx) throws IOException {
+		_requestCount.incrementAndGet();
+		long start = System.nanoTime();
+		try {
+			CloseableHttpResponse outResponse = _httpClient.execute(request,ctx);
+			_responseNanos.addAndGet(System.nanoTime() - start);
+			return outResponse;
+		} catch(ConnectionPoolTimeoutException poolTimeoutEx) {
+			_failedRequestCount.incrementAndGet();
+			_poolTimeoutCount.incrementAndGet();
+			log.warn("Timeout waiting for a free pooled connection to {} ({})",request.getURI().getHost(),
+					 this.debugInfo());
+			throw poolTimeoutEx;
+		} catch(ConnectTimeoutException conxTimeoutEx) {
+			_failedRequestCount.incrementAndGet();
+			_connectTimeoutCount.incrementAndGet();
+			throw conxTimeoutEx;
+		} catch(SocketTimeoutException readTimeoutEx) {
+			_failedRequestCount.incrementAndGet();
+			_readTimeoutCount.incrementAndGet();
+			throw readTimeoutEx;
+		} catch(IOException ioEx) {
+			_failedRequestCount.incrementAndGet();
+			throw ioEx;
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  Closeable
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public void close() throws IOException {
+		_idleConnectionsEvictor.shutdownNow();
+		_httpClient.close();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METRICS
+/////////////////////////////////////////////////////////////////////////////////////////
+	public long getRequestCount() {
+		return _requestCount.get();
+	}
+	public long getFailedRequestCount() {
+		return _failedRequestCount.get();
+	}
+	public long getConnectTimeoutCount() {
+		return _connectTimeoutCount.get();
+	}
+	public long getPoolTimeoutCount() {
+		return _poolTimeoutCount.get();
+	}
+	public long getReadTimeoutCount() {
+		return _readTimeoutCount.get();
+	}
+	/**
+	 * @return the mean time (millis) from the request to the response headers of the successful requests
+	 */
+	public double getMeanResponseMillis() {
+		long okCount = _requestCount.get() - _failedRequestCount.get();
+		return okCount > 0 ? (_responseNanos.get() / (double)okCount) / 1000000D
+						   : 0D;
+	}
+	/**
+	 * @return the pool stats: leased, available and pending (waiting for a connection) connections
+	 */
+	public PoolStats getPoolStats() {
+		return _connManager.getTotalStats();
+	}
+	@Override
+	public CharSequence debugInfo() {
+		PoolStats stats = _connManager.getTotalStats();
+		return Strings.of("Pooled http client transport: {} leased / {} available / {} pending connections (max {} per host, {} total, {} millis pool timeout); {} requests ({} failed: {} connect timeouts, {} pool timeouts, {} read timeouts); mean response time {} millis")
+					  .customizeWith(stats.getLeased(),stats.getAvailable(),stats.getPending(),
+							  		 _maxConnectionsPerHost,_maxConnections,_poolTimeout,
+							  		 _requestCount.get(),_failedRequestCount.get(),
+							  		 _connectTimeoutCount.get(),_poolTimeoutCount.get(),_readTimeoutCount.get(),
+							  		 String.format("%.2f",this.getMeanResponseMillis()))
+					  .asString();
+	}
+}
@@ -0,0 +1,63 @@
+package r01f.httpclient;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the {@link HttpClientTransport} used by every {@link HttpClient} request
+ * <ul>
+ * 		<li>By default a new jdk connection is opened for every request ({@link HttpClientTransportForURLConnection})</li>
+ * 		<li>The pooled keep-alive transport ({@link HttpClientTransportPooled}) is used if the
+ * 			-Dr01f.httpclient.transport=pooled system property is set; it can be tuned with the
+ * 			r01f.httpclient.pool.maxConnectionsPerHost, r01f.httpclient.pool.maxConnections,
+ * 			r01f.httpclient.pool.idleTimeout, r01f.httpclient.pool.readTimeout and r01f.httpclient.pool.poolTimeout (millis) system properties</li>
+ * 		<li>... or it can be set programmatically:
+ * 			<pre class='brush:java'>
+ * 				HttpClientTransports.setDefault(HttpClientTransportPooled.create(20,		// max connections per host
+ * 																				 200,		// max connections
+ * 																				 30000,		// idle timeout
+ * 																				 60000));	// read timeout
+ * 			</pre></li>
+ * </ul>
+ * The fluent api does NOT change
+ */
+@Slf4j
+@NoArgsConstructor(access=AccessLevel.PRIVATE)
+public class HttpClientTransports {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static volatile HttpClientTransport DEFAULT = _transportFromSystemProperties();
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return the transport used by the {@link HttpClient}
+	 */
+	public static HttpClientTransport getDefault() {
+		return DEFAULT;
+	}
+	/**
+	 * Sets the transport used by the {@link HttpClient}
+	 * (the previous transport is NOT closed)
+	 * @param transport
+	 */
+	public static void setDefault(final HttpClientTransport transport) {
+		if (transport == null) throw new IllegalArgumentException("The http client transport cannot be null!");
+		log.info("Using {} as http client transport",transport.getClass().getSimpleName());
+		DEFAULT = transport;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static HttpClientTransport _transportFromSystemProperties() {
+		if (!"pooled".equalsIgnoreCase(System.getProperty("r01f.httpclient.transport"))) return new HttpClientTransportForURLConnection();
+		return HttpClientTransportPooled.create(Integer.getInteger("r01f.httpclient.pool.maxConnectionsPerHost",HttpClientTransportPooled.DEFAULT_MAX_CONNECTIONS_PER_HOST),
+												Integer.getInteger("r01f.httpclient.pool.maxConnections",HttpClientTransportPooled.DEFAULT_MAX_CONNECTIONS),
+												Long.getLong("r01f.httpclient.pool.idleTimeout",HttpClientTransportPooled.DEFAULT_IDLE_TIMEOUT),
+												Integer.getInteger("r01f.httpclient.pool.readTimeout",HttpClientTransportPooled.DEFAULT_READ_TIMEOUT),
+												Integer.getInteger("r01f.httpclient.pool.poolTimeout",HttpClientTransportPooled.DEFAULT_POOL_TIMEOUT));
+	}
+}
@@ -0,0 +1,234 @@
+package r01f.httpclient;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpOptions;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpTrace;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Exposes a {@link HttpClientTransportPooled} request as a {@link HttpURLConnection} so the
+ * fluent api and {@link HttpResponse} do NOT change:
+ * <ul>
+ * 		<li>The request method, headers and payload are buffered</li>
+ * 		<li>The request is executed when the response (code, headers or stream) is requested</li>
+ * 		<li>The error responses and the small responses (known content length up to {@link #BUFFERED_RESPONSE_MAX_LENGTH})
+ * 			are buffered and the pooled connection is released at once, so it's NOT leaked if the caller
+ * 			only checks the response code and never reads the body</li>
+ * 		<li>Otherwise the pooled connection is released when the response stream is fully read or closed
+ * 			(or when {@link #disconnect()} is called)</li>
+ * </ul>
+ */
+@Slf4j
+class HttpPooledConnectionWrapper
+	extends HttpURLConnection {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	static final long BUFFERED_RESPONSE_MAX_LENGTH = 64 * 1024;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final HttpClientTransportPooled _transport;
+	private final HttpClientContext _ctx;
+
+	private ByteArrayOutputStream _requestOS;		// the buffered payload
+	private CloseableHttpResponse _response;
+	private InputStream _responseIS;
+	private Header[] _responseHeaders;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	HttpPooledConnectionWrapper(final HttpClientTransportPooled transport,
+								final URL url,final HttpClientContext ctx) {
+		super(url);
+		_transport = transport;
+		_ctx = ctx;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  REQUEST
+/////////////////////////////////////////////////////////////////////////////////////////
+	private void _doRequest() throws IOException {
+		if (_response != null) return;
+
+		HttpRequestBase request = _requestFor(this.getRequestMethod(),
+											  _uri());
+		for (Map.Entry<String,List<String>> me : this.getRequestProperties().entrySet()) {
+			String name = me.getKey();
+			if (name == null
+			 || name.equalsIgnoreCase("Content-Length")			// set by the entity
+			 || name.equalsIgnoreCase("Transfer-Encoding")
+			 || name.equalsIgnoreCase("Host")) continue;
+			for (String value : me.getValue()) request.addHeader(name,value);
+		}
+		if (_requestOS != null && request instanceof HttpEntityEnclosingRequestBase) {
+			((HttpEntityEnclosingRequestBase)request).setEntity(new ByteArrayEntity(_requestOS.toByteArray()));
+		}
+		_response = _transport.execute(request,_ctx);
+		this.responseCode = _response.getStatusLine().getStatusCode();
+		this.responseMessage = _response.getStatusLine().getReasonPhrase();
+		_responseHeaders = _response.getAllHeaders();
+		HttpEntity entity = _response.getEntity();
+		if (entity == null) {
+			_responseIS = new ByteArrayInputStream(new byte[0]);
+		} else if (this.responseCode >= 400
+				|| (entity.getContentLength() >= 0 && entity.getContentLength() <= BUFFERED_RESPONSE_MAX_LENGTH)) {
+			try {
+				_responseIS = new ByteArrayInputStream(EntityUtils.toByteArray(entity));	// the entity is fully read: the connection returns to the pool
+			} finally {
+				_response.close();
+			}
+		} else {
+			_responseIS = entity.getContent();
+		}
+		this.connected = true;
+	}
+	private URI _uri() throws IOException {
+		try {
+			return this.getURL().toURI();
+		} catch(URISyntaxException uriEx) {
+			throw new IOException(uriEx);
+		}
+	}
+	private static HttpRequestBase _requestFor(final String method,
+											   final URI uri) throws IOException {
+		HttpRequestBase outRequest = null;
+		if ("GET".equals(method)) {
+			outRequest = new HttpGet(uri);
+		} else if ("POST".equals(method)) {
+			outRequest = new HttpPost(uri);
+		} else if ("PUT".equals(method)) {
+			outRequest = new HttpPut(uri);
+		} else if ("DELETE".equals(method)) {
+			outRequest = new HttpDelete(uri);
+		} else if ("HEAD".equals(method)) {
+			outRequest = new HttpHead(uri);
+		} else if ("OPTIONS".equals(method)) {
+			outRequest = new HttpOptions(uri);
+		} else if ("TRACE".equals(method)) {
+			outRequest = new HttpTrace(uri);
+		} else {
+			throw new IOException("Unsupported http method: " + method);
+		}
+		return outRequest;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  OVERRIDEN METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public OutputStream getOutputStream() throws IOException {
+		if (_response != null) throw new IOException("The request has already been sent");
+		if (_requestOS == null) _requestOS = new ByteArrayOutputStream(1024);
+		return _requestOS;
+	}
+	@Override
+	public InputStream getInputStream() throws IOException {
+		_doRequest();
+		return _responseIS;
+	}
+	@Override
+	public InputStream getErrorStream() {
+		try {
+			_doRequest();
+		} catch(IOException ioEx) {
+			log.error("Error retrieving connection for error stream: {}",ioEx.getMessage());
+			return null;
+		}
+		return this.responseCode >= 400 ? _responseIS : null;
+	}
+	@Override
+	public int getResponseCode() throws IOException {
+		_doRequest();
+		return this.responseCode;
+	}
+	@Override
+	public String getResponseMessage() throws IOException {
+		_doRequest();
+		return this.responseMessage;
+	}
+	@Override
+	public Map<String,List<String>> getHeaderFields() {
+		if (!_ensureResponse()) return Collections.emptyMap();
+		Map<String,List<String>> outHeaders = new LinkedHashMap<String,List<String>>(_responseHeaders.length);
+		for (Header header : _responseHeaders) {
+			List<String> values = outHeaders.get(header.getName());
+			if (values == null) {
+				values = Lists.newArrayListWithExpectedSize(1);
+				outHeaders.put(header.getName(),values);
+			}
+			values.add(header.getValue());
+		}
+		return Collections.unmodifiableMap(outHeaders);
+	}
+	@Override
+	public String getHeaderField(final String name) {
+		if (!_ensureResponse()) return null;
+		Header header = _response.getLastHeader(name);
+		return header != null ? header.getValue() : null;
+	}
+	@Override
+	public String getHeaderFieldKey(final int n) {
+		if (!_ensureResponse()) return null;
+		return n >= 0 && n < _responseHeaders.length ? _responseHeaders[n].getName() : null;
+	}
+	@Override
+	public String getHeaderField(final int n) {
+		if (!_ensureResponse()) return null;
+		return n >= 0 && n < _responseHeaders.length ? _responseHeaders[n].getValue() : null;
+	}
+	private boolean _ensureResponse() {
+		try {
+			_doRequest();
+			return true;
+		} catch(IOException ioEx) {
+			log.error("Error retrieving connection for the response headers: {}",ioEx.getMessage());
+			return false;
+		}
+	}
+	@Override
+	public void connect() throws IOException {
+		// empty: the request is executed when the response is requested
+	}
+	@Override
+	public void disconnect() {
+		if (_response == null) return;
+		try {
+			_response.close();		// releases (or discards if the response was NOT fully read) the pooled connection
+		} catch(IOException ioEx) {
+			log.warn("Error closing the pooled http connection to {}: {}",this.getURL(),ioEx.getMessage());
+		}
+	}
+	@Override
+	public boolean usingProxy() {
+		return _ctx.getRequestConfig().getProxy() != null;
+	}
+}
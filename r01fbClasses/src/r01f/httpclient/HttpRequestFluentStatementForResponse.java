@@ -92,9 +92,10 @@ public class HttpRequestFluentStatementForResponse
 			// The getAuthorizationHeaderValue method from AuthDigestSolutionRetriever type gets the value to be 
 			// set at the Authorization header
 			log.trace("...using user/password auth: {}/{}",authUserCode,authPassword);
+			HttpURLConnection conxNOAuth = null;
 			try {
-				HttpURLConnection conxNOAuth = this.getConnection(useGAEHttpFetch,
-																  null,null);		// no auth
+				conxNOAuth = this.getConnection(useGAEHttpFetch,
+												null,null);		// no auth
 				String authHeaderValue = AuthDigestSolutionRetriever.getAuthorizationHeaderValue(conxNOAuth,
 																	   		  	 				 RequestMethod.GET,_targetURLStr,
 																	   		  	 				 authUserCode,authPassword);
@@ -103,6 +104,9 @@ public class HttpRequestFluentStatementForResponse
 				throw new IOException(authEx);
 			} catch(MalformedChallengeException mfcEx) {
 				throw new IOException(mfcEx);
+			} finally {
+				// the 401 response body is never read: release the connection (a pooled connection is returned to the pool)
+				if (conxNOAuth != null) conxNOAuth.disconnect();
 			}
 		}
 
@@ -159,18 +163,9 @@ public class HttpRequestFluentStatementForResponse
 	private void _doRequest(final String url) throws IOException {
 		log.trace("...retrieving connection using {} method",_method);
 		// Get the server connection and send headers
-		HttpURLConnection conx = null;
-		if (url.startsWith("https")) {
-			HttpsConnectionRetriever connectionRetriever = new HttpsConnectionRetriever();
-			conx = connectionRetriever.getConnection(url,_conxTimeOut,
-													 _proxyHost,_proxyPort,_proxyUser,_proxyPassword);
-		} else if (url.startsWith("http")) {
-			HttpConnectionRetriever connectionRetriever = new HttpConnectionRetriever();
-			conx = connectionRetriever.getConnection(url,_conxTimeOut,
-													 _proxyHost,_proxyPort,_proxyUser,_proxyPassword);
-		} else {
-			throw new IOException("NO se soporta el protocolo especificado en la url: '" + url + "'");
-		}
+		HttpURLConnection conx = HttpClientTransports.getDefault()
+													 .openConnection(url,_conxTimeOut,
+															 		 _proxyHost,_proxyPort,_proxyUser,_proxyPassword);
 		if (conx == null) throw new IOException( "No se ha podido obtener una conexin con '" + url + "'" );
 		conx.setDoInput(true);
 		conx.setUseCaches(false);
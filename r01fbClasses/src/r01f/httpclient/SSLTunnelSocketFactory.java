@@ -5,6 +5,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
 
@@ -49,6 +50,7 @@ public class SSLTunnelSocketFactory
 	private int _proxyPort;					// Port/Proxy
 	private UserCode _proxyUser;			// User
 	private Password _proxyPassword;		// Password
+	private int _connectTimeout = 0;		// Timeout (millis) to connect with the proxy (0 = infinite)
 
 ///////////////////////////////////////////////////////////////////////////////
 // CONSTRUCTORES
@@ -99,7 +101,7 @@ public class SSLTunnelSocketFactory
 							   final boolean flag) throws IOException, 
 							   							  UnknownHostException {
 		Socket proxySocket = socket != null ? socket 
-											: new Socket(_proxyHost,_proxyPort);
+											: _connectToProxy();
 		_doTunnelHandshake(proxySocket,remoteHost,remotePort);
 		SSLSocket sslsocket = (SSLSocket)_dfactory.createSocket(proxySocket,
 																remoteHost,remotePort,
@@ -121,6 +123,13 @@ public class SSLTunnelSocketFactory
 	public void setDelegateFactory(final SSLSocketFactory sslsocketfactory) {
 		_dfactory = sslsocketfactory;
 	}
+	/**
+	 * Sets the socket level timeout to connect with the proxy
+	 * @param timeout the timeout in millis (0 = infinite)
+	 */
+	public void setConnectTimeout(final int timeout) {
+		_connectTimeout = timeout;
+	}
 	public void setProxyAuth(final UserCode usr,final Password pwd) {
 		_proxyUser = usr;
 		_proxyPassword = pwd;
@@ -129,6 +138,23 @@ public class SSLTunnelSocketFactory
 ///////////////////////////////////////////////////////////////////////////////
 // PRIVATE METHODS
 ///////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Connects with the proxy
+	 * @return the socket connected with the proxy
+	 * @throws IOException if the proxy cannot be reached within the connect timeout (if set)
+	 */
+	private Socket _connectToProxy() throws IOException {
+		if (_connectTimeout <= 0) return new Socket(_proxyHost,_proxyPort);
+		Socket proxySocket = new Socket();
+		try {
+			proxySocket.connect(new InetSocketAddress(_proxyHost,_proxyPort),
+								_connectTimeout);
+		} catch (IOException ioEx) {
+			proxySocket.close();
+			throw ioEx;
+		}
+		return proxySocket;
+	}
 	/**
 	 * Realiza la comunicacin SSL entre el proxy y el host remoto.
 	 * @param proxySocket socket con el proxy
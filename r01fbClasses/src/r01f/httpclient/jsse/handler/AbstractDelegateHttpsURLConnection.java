@@ -35,7 +35,10 @@ public abstract class AbstractDelegateHttpsURLConnection
 		
 		super.http = HttpsClient.getHTTPSClient(getSSLSocketFactory(),
 												super.url,
-												getHostnameVerifier());
+												getHostnameVerifier(),
+												(String)null,-1,
+												true,
+												getConnectTimeout());	// socket level connect timeout
 		super.connected = true;
 		return;
 	}
@@ -58,7 +61,7 @@ public abstract class AbstractDelegateHttpsURLConnection
 	}
 	@Override
 	public void setNewClient(final URL url,final boolean flag) throws IOException {
-		super.http = HttpsClient.getHTTPSClient(getSSLSocketFactory(), url, getHostnameVerifier(), flag);
+		super.http = HttpsClient.getHTTPSClient(getSSLSocketFactory(), url, getHostnameVerifier(), (String)null, -1, flag, getConnectTimeout());
 		((HttpsClient) super.http).afterConnect();
 	}
 	public Certificate[] getLocalCertificates() {
@@ -91,7 +94,7 @@ public abstract class AbstractDelegateHttpsURLConnection
 		if (securitymanager != null) {
 			securitymanager.checkConnect(s, i);
 		}
-		super.http = HttpsClient.getHTTPSClient(getSSLSocketFactory(),aUrl,getHostnameVerifier(), s, i, flag);
+		super.http = HttpsClient.getHTTPSClient(getSSLSocketFactory(),aUrl,getHostnameVerifier(), s, i, flag, getConnectTimeout());
 		super.connected = true;
 	}
 	@Override
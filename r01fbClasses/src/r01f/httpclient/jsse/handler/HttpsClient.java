@@ -5,7 +5,9 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.net.SocketException;
 import java.net.URL;
 import java.net.UnknownHostException;
 import java.security.AccessController;
@@ -23,6 +25,7 @@ import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
 
+import r01f.httpclient.SSLTunnelSocketFactory;
 import sun.misc.RegexpPool;
 import sun.net.NetworkClient;
 import sun.net.www.http.HttpClient;
@@ -84,6 +87,22 @@ final class HttpsClient
 									 final HostnameVerifier hostNameVerifier,
 									 final String proxyHost,final int proxyPort,
 									 final boolean useCache) throws IOException {
+		return HttpsClient.getHTTPSClient(sslSocketFactory,
+										  url,
+										  hostNameVerifier,
+										  proxyHost,proxyPort,
+										  useCache,
+										  -1);
+	}
+	/**
+	 * @param connectTimeout the socket connect timeout in millis (0 = infinite, &lt; 0 = the default one)
+	 */
+	static HttpClient getHTTPSClient(final SSLSocketFactory sslSocketFactory,
+									 final URL url,
+									 final HostnameVerifier hostNameVerifier,
+									 final String proxyHost,final int proxyPort,
+									 final boolean useCache,
+									 final int connectTimeout) throws IOException {
 		HttpsClient httpsClient = null;
 		if (useCache) {
 			httpsClient = (HttpsClient) HttpClient.kac.get(url, sslSocketFactory);
@@ -94,7 +113,8 @@ final class HttpsClient
 		if (httpsClient == null) {
 			httpsClient = new HttpsClient(sslSocketFactory,
 										  url,
-										  proxyHost, proxyPort);
+										  proxyHost, proxyPort,
+										  connectTimeout);
 		} else {
 			SecurityManager securitymanager = System.getSecurityManager();
 			if (securitymanager != null) {
@@ -111,7 +131,17 @@ final class HttpsClient
 	public HttpsClient(final SSLSocketFactory sslsocketfactory,
 					   final URL url,
 					   final String proxyHost,final int proxyPort) throws IOException {
+		this(sslsocketfactory,
+			 url,
+			 proxyHost,proxyPort,
+			 -1);
+	}
+	public HttpsClient(final SSLSocketFactory sslsocketfactory,
+					   final URL url,
+					   final String proxyHost,final int proxyPort,
+					   final int connectTimeout) throws IOException {
 		this.setSSLSocketFactory(sslsocketfactory);
+		super.connectTimeout = connectTimeout >= 0 ? connectTimeout : getDefaultConnectTimeout();	// BEFORE the server is opened
 		if (proxyHost != null) {
 			this.setProxy(proxyHost, proxyPort);
 		}
@@ -291,7 +321,26 @@ final class HttpsClient
 	@Override
 	protected Socket doConnect(final String aHost,final int aPort) throws IOException, 
 																		UnknownHostException {
-		Socket socket = _sslSocketFactory.createSocket(aHost,aPort);
+		if (super.connectTimeout <= 0) return _sslSocketFactory.createSocket(aHost,aPort);
+
+		// honor the connect timeout: an unconnected socket is created and connected with the timeout
+		if (_sslSocketFactory instanceof SSLTunnelSocketFactory) {
+			((SSLTunnelSocketFactory)_sslSocketFactory).setConnectTimeout(super.connectTimeout);	// the timeout to connect to the proxy
+			return _sslSocketFactory.createSocket(aHost,aPort);
+		}
+		Socket socket = null;
+		try {
+			socket = _sslSocketFactory.createSocket();
+		} catch (SocketException unconnectedNotSupportedEx) {
+			return _sslSocketFactory.createSocket(aHost,aPort);		// the socket factory does NOT support unconnected sockets
+		}
+		try {
+			socket.connect(new InetSocketAddress(aHost,aPort),
+						   super.connectTimeout);
+		} catch (IOException ioEx) {
+			socket.close();
+			throw ioEx;
+		}
 		return socket;
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -257,6 +257,22 @@ public class HttpsURLConnectionImpl
 	public void setRequestProperty(String s, String s1) {
 		_flddelegate.setRequestProperty(s, s1);
 	}
+	@Override
+	public void setConnectTimeout(int timeout) {
+		_flddelegate.setConnectTimeout(timeout);
+	}
+	@Override
+	public int getConnectTimeout() {
+		return _flddelegate.getConnectTimeout();
+	}
+	@Override
+	public void setReadTimeout(int timeout) {
+		_flddelegate.setReadTimeout(timeout);
+	}
+	@Override
+	public int getReadTimeout() {
+		return _flddelegate.getReadTimeout();
+	}
 
 	protected void setProxiedClient(URL url, String s, int i) throws IOException {
 		_flddelegate.setProxiedClient(url, s, i);
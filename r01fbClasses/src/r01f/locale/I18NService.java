@@ -17,6 +17,8 @@ import r01f.bundles.ResourceBundleControl;
 import r01f.bundles.ResourceBundleControlBuilder;
 import r01f.bundles.ResourceBundleMissingKeyBehaviour;
 import r01f.bundles.ResourceBundleMissingKeyException;
+import r01f.bundles.ResourceBundleMessageTemplate;
+import r01f.bundles.ResourceBundleSnapshot;
 import r01f.resources.ResourcesLoader;
 import r01f.xmlproperties.XMLProperties;
 
@@ -318,7 +320,9 @@ public class I18NService {
 	    public final String message(final String key,final Object... params) throws ResourceBundleMissingKeyException {
 	        if (key == null) throw new IllegalArgumentException("Cannot load bundle key: Missing key!");
 	        
-	        String outValue = _retrieveMessage(key);
+	        // the message is pre-parsed when the bundle is loaded (see ResourceBundleSnapshot)
+	        ResourceBundleMessageTemplate template = _retrieveMessage(key);
+	        String outValue = template != null ? template.getRawMessage() : null;
 	        if (outValue == null || outValue.length() == 0) {
 	            switch (_missingKeyBehaviour) {
 	                case RETURN_KEY: {
@@ -333,8 +337,10 @@ public class I18NService {
 	                default:
 	            }
 	        }
-	        return outValue == null || params == null || params.length == 0 ? outValue 
-	        																: MessageFormat.format(outValue,params);
+	        if (outValue == null || params == null || params.length == 0) return outValue;
+	        boolean found = template != null && template.getRawMessage().length() > 0;
+	        return found ? template.format(params)
+	        			 : MessageFormat.format(outValue,params);		// ie: the missing key behaviour returned the key
 	    }
 	    /**
 	     * Devuelve todos los mensajes cuyas claves empiezan por un prefijo dado
@@ -359,9 +365,15 @@ public class I18NService {
 	        	for (int i = 0; i < _bundleChain.length; i++) {
 	        		String thisBundle = _bundleChain[i];
 	        		
+			    	ResourceBundle bundle = _retrieveBundle(thisBundle);
+			    	
+			    	// Snapshot: binary search at the sorted keys index
+			    	if (bundle instanceof ResourceBundleSnapshot) {
+			    		outMessages.putAll(((ResourceBundleSnapshot)bundle).getMessagesWithKeysStartingWith(keyPrefix));
+			    		continue;
+			    	}
 			        // Cargar el resourceBundle e iterar por todos los keys para encontrar las que empiezan
 			        // por el valor dado
-			    	ResourceBundle bundle = _retrieveBundle(thisBundle);
 		    		Enumeration<String> keys = bundle.getKeys();
 		    		if (keys != null && keys.hasMoreElements()) {
 		    			do {
@@ -390,15 +402,14 @@ public class I18NService {
 	     * @return
 	     * @throws I18NMissingMessageException
 	     */
-	    private final String _retrieveMessage(final String key) throws ResourceBundleMissingKeyException {
-	    	String outKey = null;
+	    private final ResourceBundleMessageTemplate _retrieveMessage(final String key) throws ResourceBundleMissingKeyException {
+	    	ResourceBundleMessageTemplate outKey = null;
 	        try {
 	        	for (int i = 0; i < _bundleChain.length; i++) {
 	        		String thisBundle = _bundleChain[i];
 		        	ResourceBundle bundle = _retrieveBundle(thisBundle);
-		        	try {
-		        		outKey = bundle.getString(key);
-		        	} catch(MissingResourceException mkEx) {
+		        	outKey = ResourceBundleSnapshot.templateOf(bundle,key);		// pre-parsed when the bundle was loaded
+		        	if (outKey == null) {
 		        		if (i == _bundleChain.length-1) {
 		        			log.warn("NO se encuentra la clave {} en NINGUNO de los bundles de la cadena {}",
 		        					 key,_bundleChain);
@@ -0,0 +1,270 @@
+package r01f.marshalling.simple;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Charsets;
+
+import r01f.exceptions.Throwables;
+import r01f.marshalling.MarshallerException;
+import r01f.marshalling.MarshallerMappings;
+import r01f.marshalling.simple.DataTypes.DataType;
+import r01f.reflection.ReflectionException;
+import r01f.util.types.Strings;
+import r01f.util.types.collections.CollectionUtils;
+
+/**
+ * Writes the compact binary encoding of an objects hierarchy (see {@link SimpleBinaryMarshaller})
+ * traversing the objects with the same {@link BeanMap} / {@link FieldMap} metadata used by {@link XMLFromObjsBuilder}
+ * <ul>
+ * 		<li>Every value is prefixed by a one-byte tag (see {@link SimpleBinaryMarshaller} TAG_* constants) so the
+ * 			encoding is self-describing and a field that is not mapped anymore can be skipped when read</li>
+ * 		<li>The type and field names are written only the first time; the next times just its index is written</li>
+ * 		<li>The integers, longs and dates are written as variable length integers</li>
+ * </ul>
+ * An instance MUST be used to write a single object hierarchy (it holds the names table)
+ */
+class BinaryFromObjsBuilder {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final SimpleMarshallerMappings _beanMappings;
+	private final DataOutputStream _out;
+	/**
+	 * The already written type and field names with its index
+	 */
+	private final Map<String,Integer> _names = new HashMap<String,Integer>();
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	BinaryFromObjsBuilder(final MarshallerMappings mappings,
+						  final OutputStream os) {
+		_beanMappings = (SimpleMarshallerMappings)mappings;
+		_out = new DataOutputStream(os);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  PUBLIC INTERFACE
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Writes the binary encoding of the given object
+	 * @param obj
+	 * @throws MarshallerException if the object (or any child object) is NOT mapped
+	 */
+	void write(final Object obj) throws MarshallerException {
+		try {
+			_writeValue(obj,
+						null,null);
+			_out.flush();
+		} catch(IOException ioEx) {
+			throw new MarshallerException(ioEx);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  VALUES
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Writes a value
+	 * @param value the value
+	 * @param dataType the declared data type (null if it's not known: ie the root object)
+	 * @param fieldMap the field the value belongs to (null if it's a root object or a collection element)
+	 */
+	private void _writeValue(final Object value,
+							 final DataType dataType,final FieldMap fieldMap) throws IOException {
+		if (value == null) {
+			_out.writeByte(SimpleBinaryMarshaller.TAG_NULL);
+			return;
+		}
+		// custom transformed types
+		BeanMap beanMap = _beanMappings.getBeanMapFromClassName(value.getClass().getName());
+		BeanMap customBeanMap = beanMap != null && beanMap.isCustomXmlTransformed() ? beanMap
+							  : dataType != null && dataType.getBeanMap() != null && dataType.getBeanMap().isCustomXmlTransformed() ? dataType.getBeanMap()
+							  : null;
+		if (customBeanMap != null) {
+			boolean isAttribute = fieldMap != null && fieldMap.getXmlMap().isAttribute();
+			_out.writeByte(SimpleBinaryMarshaller.TAG_CUSTOM);
+			_writeName(customBeanMap.getTypeName());
+			_out.writeBoolean(isAttribute);
+			_writeString(customBeanMap.getCustomXMLTransformers().getXmlWriteTransformer()
+														   		 .xmlFromBean(isAttribute,value));
+		}
+		// simple types
+		else if (value instanceof String) {
+			_out.writeByte(SimpleBinaryMarshaller.TAG_STRING);
+			_writeString((String)value);
+		} else if (value instanceof Integer) {
+			_out.writeByte(SimpleBinaryMarshaller.TAG_INT);
+			_writeVarLong(((Integer)value).longValue());
+		} else if (value instanceof Long) {
+			_out.writeByte(SimpleBinaryMarshaller.TAG_LONG);
+			_writeVarLong((Long)value);
+		} else if (value instanceof Double) {
+			_out.writeByte(SimpleBinaryMarshaller.TAG_DOUBLE);
+			_out.writeDouble((Double)value);
+		} else if (value instanceof Float) {
+			_out.writeByte(SimpleBinaryMarshaller.TAG_FLOAT);
+			_out.writeFloat((Float)value);
+		} else if (value instanceof Boolean) {
+			_out.writeByte(((Boolean)value) ? SimpleBinaryMarshaller.TAG_TRUE
+											: SimpleBinaryMarshaller.TAG_FALSE);
+		} else if (value instanceof java.sql.Date) {
+			_out.writeByte(SimpleBinaryMarshaller.TAG_SQL_DATE);
+			_writeVarLong(((java.sql.Date)value).getTime());
+		} else if (value instanceof java.util.Date) {
+			_out.writeByte(SimpleBinaryMarshaller.TAG_DATE);
+			_writeVarLong(((java.util.Date)value).getTime());
+		} else if (value instanceof CharSequence) {
+			_out.writeByte(SimpleBinaryMarshaller.TAG_STRING);		// StringBuilder, StringBuffer...
+			_writeString(value.toString());
+		} else if (value instanceof Enum) {
+			_out.writeByte(SimpleBinaryMarshaller.TAG_ENUM);
+			_writeName(((Enum<?>)value).getDeclaringClass().getName());
+			_writeName(((Enum<?>)value).name());
+		} else if (value instanceof Class) {
+			_out.writeByte(SimpleBinaryMarshaller.TAG_JAVA_TYPE);
+			_writeName(((Class<?>)value).getName());
+		}
+		// collections & maps
+		else if (value instanceof Map) {
+			_writeMap((Map<?,?>)value,
+					  dataType != null && dataType.isMap() ? dataType : null);
+		} else if (value instanceof Collection || value.getClass().isArray()) {
+			_writeCollection(MappingReflectionUtils.getCollectionElements(value),
+							 dataType != null && dataType.isCollection() ? dataType : null);
+		}
+		// objects
+		else if (beanMap == null) {
+			// a type NOT mapped: it's written as text ONLY if it can be created back from the text
+			if (dataType == null || !dataType.isCanBeCreatedFromString()) throw new MarshallerException(Throwables.message("Mapping for type {} was not found",
+																														   value.getClass().getName()));
+			_out.writeByte(SimpleBinaryMarshaller.TAG_TEXT);
+			_writeName(value.getClass().getName());
+			_writeString(value.toString());
+		} else if (CollectionUtils.isNullOrEmpty(beanMap.getFields())) {
+			// an object with NO mapped fields (ie r01f.types.Path): it's created back from the text
+			_out.writeByte(SimpleBinaryMarshaller.TAG_TEXT);
+			_writeName(beanMap.getTypeName());
+			_writeString(value.toString());
+		} else {
+			_writeBean(value,
+					   beanMap);
+		}
+	}
+	private void _writeBean(final Object bean,
+							final BeanMap beanMap) throws IOException {
+		String fieldName = null;
+		try {
+			// the not null fields are collected first since the fields count is written before the fields
+			List<FieldMap> fieldMaps = new ArrayList<FieldMap>(beanMap.getFields().size());
+			List<Object> fieldValues = new ArrayList<Object>(beanMap.getFields().size());
+			for (FieldMap fieldMap : beanMap.getFields().values()) {
+				if (fieldMap.isTranzient()) continue;
+				fieldName = fieldMap.getName();
+				Object fieldValue = MappingReflectionUtils.getFieldValue(bean,fieldName,beanMap.isUseAccessors(),
+																		 fieldMap.getDataType().getType());
+				if (fieldValue == null) continue;
+
+				// Ignore the fields whose value is the one to be ignored
+				String valueToIgnore = fieldMap.getXmlMap() != null ? fieldMap.getXmlMap().getValueToIgnoreWhenWritingXML() : null;
+				if (Strings.isNOTNullOrEmpty(valueToIgnore) && fieldValue.toString().equals(valueToIgnore)) continue;
+
+				fieldMaps.add(fieldMap);
+				fieldValues.add(fieldValue);
+			}
+			_out.writeByte(SimpleBinaryMarshaller.TAG_BEAN);
+			_writeName(beanMap.getTypeName());
+			_writeVarInt(fieldMaps.size());
+			for (int i = 0; i < fieldMaps.size(); i++) {
+				FieldMap fieldMap = fieldMaps.get(i);
+				fieldName = fieldMap.getName();
+				_writeName(fieldName);
+				_writeValue(fieldValues.get(i),
+							fieldMap.getDataType(),fieldMap);
+			}
+		} catch (ReflectionException refEx) {
+			throw new MarshallerException("Error accessing the field '" + fieldName + "' of the bean '" + beanMap.getTypeName() + "'",refEx);
+		}
+	}
+	private void _writeCollection(final Collection<?> col,
+								  final DataType colDataType) throws IOException {
+		DataType elsDataType = colDataType != null ? colDataType.asCollection().getValueElementsDataType() : null;
+		_out.writeByte(SimpleBinaryMarshaller.TAG_COLLECTION);
+		_writeVarInt(_notNullCount(col));
+		for (Object el : col) {
+			if (el == null) continue;
+			_writeValue(el,
+						elsDataType,null);
+		}
+	}
+	private void _writeMap(final Map<?,?> map,
+						   final DataType mapDataType) throws IOException {
+		DataType keysDataType = mapDataType != null ? mapDataType.asMap().getKeyElementsDataType() : null;
+		DataType valuesDataType = mapDataType != null ? mapDataType.asMap().getValueElementsDataType() : null;
+		_out.writeByte(SimpleBinaryMarshaller.TAG_MAP);
+		_writeVarInt(_notNullCount(map.values()));
+		for (Map.Entry<?,?> me : map.entrySet()) {
+			if (me.getValue() == null) continue;
+			_writeValue(me.getKey(),
+						keysDataType,null);
+			_writeValue(me.getValue(),
+						valuesDataType,null);
+		}
+	}
+	private static int _notNullCount(final Collection<?> col) {
+		int outCount = 0;
+		for (Object el : col) {
+			if (el != null) outCount++;
+		}
+		return outCount;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  PRIMITIVES
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Writes a type or field name: the first time the name is written as a string and next times just its index
+	 * (the lowest bit tells which one is written)
+	 */
+	private void _writeName(final String name) throws IOException {
+		Integer index = _names.get(name);
+		if (index != null) {
+			_writeVarInt((index << 1) | 1);
+			return;
+		}
+		_names.put(name,_names.size());
+		byte[] bytes = name.getBytes(Charsets.UTF_8);
+		_writeVarInt(bytes.length << 1);
+		_out.write(bytes);
+	}
+	private void _writeString(final String str) throws IOException {
+		byte[] bytes = str.getBytes(Charsets.UTF_8);
+		_writeVarInt(bytes.length);
+		_out.write(bytes);
+	}
+	/**
+	 * Writes an unsigned int using 7 bits per byte
+	 */
+	private void _writeVarInt(final int value) throws IOException {
+		int v = value;
+		while ((v & ~0x7F) != 0) {
+			_out.writeByte((v & 0x7F) | 0x80);
+			v >>>= 7;
+		}
+		_out.writeByte(v);
+	}
+	/**
+	 * Writes a signed long zig-zag encoded (small negative numbers are also short) using 7 bits per byte
+	 */
+	private void _writeVarLong(final long value) throws IOException {
+		long v = (value << 1) ^ (value >> 63);
+		while ((v & ~0x7FL) != 0) {
+			_out.writeByte((int)((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		_out.writeByte((int)v);
+	}
+}
@@ -152,21 +152,8 @@ class MappingReflectionUtils {
 			
 			// [Collections] ------
 			if (dataType.isCollection()) {
-				Collection<Object> listInstance = null;
-				if (dataType.getTypeDef() == DataTypeEnum.ARRAY) {
-					listInstance = new ArrayList<Object>(instances.size());
-					
-				} else {
-					// Create a collection instance with the correct size if possible
-					if (!COLLECTION_TYPES_WITHOUT_SIZE_CONSTRUCTOR.contains(dataType.getType())) {
-						listInstance = ReflectionUtils.createInstanceOf(dataType.getType(),							 // tipo de lista
-										  							    new Class[] {int.class},					 // tamao de la lista
-																		new Object[] {new Integer(instances.size())},// 
-																		true);										 // forzar la creacin
-					} else {
-						listInstance = ReflectionUtils.createInstanceOf(dataType.getType());	// tipo de lista	
-					}
-				}
+				Collection<Object> listInstance = MappingReflectionUtils.newCollectionInstance(dataType,
+																							  instances.size());
 				// Every bean instance
 				for (BeanInstance beanInstance : instances) {
 					Object colElInstance = null;
@@ -179,15 +166,13 @@ class MappingReflectionUtils {
 					}
 					if (colElInstance != null) listInstance.add(colElInstance);
 				} // for collection elements
-				valueObj = dataType.getTypeDef() == DataTypeEnum.ARRAY ? CollectionUtils.toArray(listInstance,dataType.getType())
-														   			   : listInstance;
+				valueObj = MappingReflectionUtils.collectionFieldValue(dataType,
+																	   listInstance);
 			}
 			// [Maps] -------
 			else if (dataType.isMap()) {	
-				Map<Object,Object> mapInstance = ReflectionUtils.createInstanceOf(dataType.getType(),							// tipo de mapa
-                                                								  new Class[] {int.class},						// tamao del mapa
-                                                								  new Object[] {new Integer(instances.size())},	// 
-                                                								  true);										// forzar la creacin
+				Map<Object,Object> mapInstance = MappingReflectionUtils.newMapInstance(dataType,
+																					   instances.size());
 				int i = 1;
 				for (BeanInstance beanInstance : instances) {
 					Object mapEntryKeyInstance = null;
@@ -253,22 +238,8 @@ class MappingReflectionUtils {
 					i++;
 				} // for map elements
 				
-				// Si se trata de un Map<Language,String> el miembro PUEDE ser un LanguageTexts
-				// ... en otro caso es un simple Mapa
-				if (dataType.asMap().getKeyElementsType().equals(Language.class) 
-				 && dataType.asMap().getValueElementsType().equals(String.class)) {
-					LanguageTexts langTexts = new LanguageTextsMapBacked(mapInstance.size(),
-																		 LangTextNotFoundBehabior.RETURN_NULL);
-					for(Map.Entry<Object,Object> me : mapInstance.entrySet()) {					
-						langTexts.add((Language)me.getKey(),
-									  (String)me.getValue());
-					}
-					valueObj = langTexts;
-				}
-				// Mapa "normal"
-				else {
-					valueObj = mapInstance;
-				}
+				valueObj = MappingReflectionUtils.mapFieldValue(dataType,
+																mapInstance);
 			}		
 			
 		}
@@ -285,6 +256,76 @@ class MappingReflectionUtils {
 	        							  fieldMap.getDeclaringBeanMap().isUseAccessors());
 		}
 	}
+	/**
+	 * Creates an (empty) instance of a collection field
+	 * (arrays are collected at a list: see {@link #collectionFieldValue(DataType, Collection)})
+	 * @param dataType the collection field data type
+	 * @param size the number of elements
+	 * @return the collection instance
+	 */
+	static Collection<Object> newCollectionInstance(final DataType dataType,
+													final int size) {
+		Collection<Object> outCol = null;
+		if (dataType.getTypeDef() == DataTypeEnum.ARRAY) {
+			outCol = new ArrayList<Object>(size);
+			
+		} else if (!COLLECTION_TYPES_WITHOUT_SIZE_CONSTRUCTOR.contains(dataType.getType())) {
+			// Create a collection instance with the correct size if possible
+			outCol = ReflectionUtils.createInstanceOf(dataType.getType(),		// collection type
+													  new Class[] {int.class},	// collection size
+													  new Object[] {new Integer(size)},
+													  true);					// force creation
+		} else {
+			outCol = ReflectionUtils.createInstanceOf(dataType.getType());
+		}
+		return outCol;
+	}
+	/**
+	 * Returns the value to be set at a collection field
+	 * @param dataType the collection field data type
+	 * @param col the collection created with {@link #newCollectionInstance(DataType, int)}
+	 * @return the collection or an array if the field is an array
+	 */
+	static Object collectionFieldValue(final DataType dataType,
+									   final Collection<Object> col) {
+		return dataType.getTypeDef() == DataTypeEnum.ARRAY ? CollectionUtils.toArray(col,dataType.getType())
+														   : col;
+	}
+	/**
+	 * Creates an (empty) instance of a map field
+	 * @param dataType the map field data type
+	 * @param size the number of entries
+	 * @return the map instance
+	 */
+	static Map<Object,Object> newMapInstance(final DataType dataType,
+											 final int size) {
+		Map<Object,Object> outMap = ReflectionUtils.createInstanceOf(dataType.getType(),		// map type
+																	 new Class[] {int.class},	// map size
+																	 new Object[] {new Integer(size)},
+																	 true);						// force creation
+		return outMap;
+	}
+	/**
+	 * Returns the value to be set at a map field
+	 * If it's a Map<Language,String> the field CAN be a {@link LanguageTexts}; otherwise it's just a map
+	 * @param dataType the map field data type
+	 * @param map the map created with {@link #newMapInstance(DataType, int)}
+	 * @return the map or a {@link LanguageTexts}
+	 */
+	static Object mapFieldValue(final DataType dataType,
+								final Map<Object,Object> map) {
+		if (dataType.asMap().getKeyElementsType().equals(Language.class) 
+		 && dataType.asMap().getValueElementsType().equals(String.class)) {
+			LanguageTexts langTexts = new LanguageTextsMapBacked(map.size(),
+																 LangTextNotFoundBehabior.RETURN_NULL);
+			for(Map.Entry<Object,Object> me : map.entrySet()) {					
+				langTexts.add((Language)me.getKey(),
+							  (String)me.getValue());
+			}
+			return langTexts;
+		}
+		return map;
+	}
 	/**
 	 * Formatea el valor de un miembro como un String
 	 * @param fieldMap el miembro
@@ -0,0 +1,346 @@
+package r01f.marshalling.simple;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Charsets;
+
+import lombok.extern.slf4j.Slf4j;
+import r01f.exceptions.Throwables;
+import r01f.marshalling.MarshallerException;
+import r01f.marshalling.MarshallerMappings;
+import r01f.marshalling.simple.DataTypes.DataType;
+import r01f.reflection.ReflectionException;
+import r01f.reflection.ReflectionUtils;
+
+/**
+ * Reads an objects hierarchy from the compact binary encoding written by {@link BinaryFromObjsBuilder}
+ * (see {@link SimpleBinaryMarshaller})
+ * <ul>
+ * 		<li>The beans are created and its fields set with the same {@link BeanMap} / {@link FieldMap} metadata
+ * 			used by {@link ObjsFromXMLBuilder}: the final fields are handed to the constructor
+ * 			and the non-final ones are set once the bean is created</li>
+ * 		<li>The fields that are NOT mapped anymore are skipped</li>
+ * </ul>
+ * An instance MUST be used to read a single object hierarchy (it holds the names table)
+ */
+@Slf4j
+class ObjsFromBinaryBuilder {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final SimpleMarshallerMappings _beanMappings;
+	private final DataInputStream _in;
+	/**
+	 * The already read type and field names (by index)
+	 */
+	private final List<String> _names = new ArrayList<String>();
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	ObjsFromBinaryBuilder(final MarshallerMappings mappings,
+						  final InputStream is) {
+		_beanMappings = (SimpleMarshallerMappings)mappings;
+		_in = new DataInputStream(is);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  PUBLIC INTERFACE
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Reads an object
+	 * @return the object
+	 * @throws MarshallerException if the binary encoding is NOT valid or a type is NOT mapped
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T read() throws MarshallerException {
+		try {
+			return (T)_readValue(null);
+		} catch(IOException ioEx) {
+			throw new MarshallerException("Not a valid binary encoded object: " + ioEx.getMessage(),ioEx);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  VALUES
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Reads a value
+	 * @param dataType the declared data type (null if it's not known: ie the root object or a field not mapped anymore)
+	 */
+	private Object _readValue(final DataType dataType) throws IOException {
+		byte tag = _in.readByte();
+		switch(tag) {
+		case SimpleBinaryMarshaller.TAG_NULL:
+			return null;
+		case SimpleBinaryMarshaller.TAG_STRING:
+			String str = _readString();
+			if (dataType != null && dataType.getType() == StringBuilder.class) return new StringBuilder(str);
+			if (dataType != null && dataType.getType() == StringBuffer.class) return new StringBuffer(str);
+			return str;
+		case SimpleBinaryMarshaller.TAG_INT:
+			return (int)_readVarLong();
+		case SimpleBinaryMarshaller.TAG_LONG:
+			return _readVarLong();
+		case SimpleBinaryMarshaller.TAG_DOUBLE:
+			return _in.readDouble();
+		case SimpleBinaryMarshaller.TAG_FLOAT:
+			return _in.readFloat();
+		case SimpleBinaryMarshaller.TAG_TRUE:
+			return Boolean.TRUE;
+		case SimpleBinaryMarshaller.TAG_FALSE:
+			return Boolean.FALSE;
+		case SimpleBinaryMarshaller.TAG_DATE:
+			return new java.util.Date(_readVarLong());
+		case SimpleBinaryMarshaller.TAG_SQL_DATE:
+			return new java.sql.Date(_readVarLong());
+		case SimpleBinaryMarshaller.TAG_ENUM:
+			return _readEnum();
+		case SimpleBinaryMarshaller.TAG_JAVA_TYPE:
+			return ReflectionUtils.typeFromClassName(_readName());
+		case SimpleBinaryMarshaller.TAG_CUSTOM:
+			BeanMap customBeanMap = _beanMapFor(_readName());
+			boolean isAttribute = _in.readBoolean();
+			return customBeanMap.getCustomXMLTransformers().getXmlReadTransformer()
+														   .beanFromXml(isAttribute,_readString());
+		case SimpleBinaryMarshaller.TAG_TEXT:
+			String typeName = _readName();
+			BeanMap textBeanMap = _beanMappings.getBeanMapFromClassName(typeName);
+			DataType textDataType = textBeanMap != null ? textBeanMap.getDataType()
+								  : dataType != null ? dataType
+								  : DataType.create(typeName);
+			return MappingReflectionUtils.simpleObjFromString(textDataType,
+															  _readString());
+		case SimpleBinaryMarshaller.TAG_COLLECTION:
+			return _readCollection(dataType);
+		case SimpleBinaryMarshaller.TAG_MAP:
+			return _readMap(dataType);
+		case SimpleBinaryMarshaller.TAG_BEAN:
+			return _readBean(_beanMapFor(_readName()));
+		default:
+			throw new IOException("Unknown value tag " + tag);
+		}
+	}
+	@SuppressWarnings({ "unchecked","rawtypes" })
+	private Object _readEnum() throws IOException {
+		Class<? extends Enum> enumType = ReflectionUtils.typeFromClassName(_readName());
+		return Enum.valueOf(enumType,_readName());
+	}
+	private Object _readBean(final BeanMap beanMap) throws IOException {
+		// [1] - Read the fields
+		int fieldCount = _readSize();
+		Map<String,Object> fieldValues = new LinkedHashMap<String,Object>(fieldCount * 2);
+		for (int i = 0; i < fieldCount; i++) {
+			String fieldName = _readName();
+			FieldMap fieldMap = beanMap.getField(fieldName);
+			if (fieldMap == null) {
+				log.debug("The field {} is NOT mapped at {} anymore: it's ignored",fieldName,beanMap.getTypeName());
+				_skipValue();
+				continue;
+			}
+			fieldValues.put(fieldName,
+							_readValue(fieldMap.getDataType()));
+		}
+		// [2] - The final fields are handed to the constructor (in the mapping order as the xml attributes are)
+		Class<?>[] constructorArgsTypes = null;
+		Object[] constructorArgs = null;
+		List<FieldMap> finalFields = new ArrayList<FieldMap>();
+		for (FieldMap fieldMap : beanMap.getFields().values()) {
+			if (fieldMap.isFinal() && fieldValues.get(fieldMap.getName()) != null) finalFields.add(fieldMap);
+		}
+		if (!finalFields.isEmpty()) {
+			constructorArgsTypes = new Class<?>[finalFields.size()];
+			constructorArgs = new Object[finalFields.size()];
+			for (int i = 0; i < finalFields.size(); i++) {
+				constructorArgsTypes[i] = finalFields.get(i).getDataType().getType();
+				constructorArgs[i] = fieldValues.remove(finalFields.get(i).getName());
+			}
+		}
+		// [3] - Create the bean and set the non final fields
+		String fieldName = null;
+		try {
+			Object outBean = MappingReflectionUtils.createObjectInstance(beanMap,
+																		 constructorArgsTypes,constructorArgs);
+			for (Map.Entry<String,Object> me : fieldValues.entrySet()) {
+				fieldName = me.getKey();
+				FieldMap fieldMap = beanMap.getField(fieldName);
+				ReflectionUtils.setFieldValue(outBean,fieldName,me.getValue(),
+											  fieldMap.getDeclaringBeanMap() != null ? fieldMap.getDeclaringBeanMap().isUseAccessors()
+													  								 : beanMap.isUseAccessors());
+			}
+			return outBean;
+		} catch(ReflectionException refEx) {
+			throw new MarshallerException("Error creating an instance of " + beanMap.getTypeName() + (fieldName != null ? " or setting the field " + fieldName : "") + ": " + refEx.getMessage(),refEx);
+		}
+	}
+	private Object _readCollection(final DataType dataType) throws IOException {
+		int size = _readSize();
+		DataType colDataType = dataType != null && dataType.isCollection() ? dataType : null;
+		DataType elsDataType = colDataType != null ? colDataType.asCollection().getValueElementsDataType() : null;
+		Collection<Object> outCol = null;
+		if (colDataType != null) {
+			outCol = MappingReflectionUtils.newCollectionInstance(colDataType,
+																  size);
+		} else if (_isInstanciableAs(dataType,Collection.class)) {
+			outCol = ReflectionUtils.createInstanceOf(dataType.getType());		// a mapped type extending a collection
+		} else {
+			outCol = new ArrayList<Object>(size);
+		}
+		for (int i = 0; i < size; i++) {
+			Object el = _readValue(elsDataType);
+			if (el != null) outCol.add(el);
+		}
+		return colDataType != null ? MappingReflectionUtils.collectionFieldValue(colDataType,outCol)
+								   : outCol;
+	}
+	private Object _readMap(final DataType dataType) throws IOException {
+		int size = _readSize();
+		DataType mapDataType = dataType != null && dataType.isMap() ? dataType : null;
+		DataType keysDataType = mapDataType != null ? mapDataType.asMap().getKeyElementsDataType() : null;
+		DataType valuesDataType = mapDataType != null ? mapDataType.asMap().getValueElementsDataType() : null;
+		Map<Object,Object> outMap = null;
+		if (mapDataType != null) {
+			outMap = MappingReflectionUtils.newMapInstance(mapDataType,
+														   size);
+		} else if (_isInstanciableAs(dataType,Map.class)) {
+			outMap = ReflectionUtils.createInstanceOf(dataType.getType());		// a mapped type extending a map
+		} else {
+			outMap = new LinkedHashMap<Object,Object>(size * 2);
+		}
+		for (int i = 0; i < size; i++) {
+			Object key = _readValue(keysDataType);
+			Object value = _readValue(valuesDataType);
+			if (key == null) throw new MarshallerException("Null keys are NOT allowed!");
+			outMap.put(key,value);
+		}
+		return mapDataType != null ? MappingReflectionUtils.mapFieldValue(mapDataType,outMap)
+								   : outMap;
+	}
+	private static boolean _isInstanciableAs(final DataType dataType,final Class<?> type) {
+		return dataType != null && dataType.getType() != null
+			&& type.isAssignableFrom(dataType.getType()) && dataType.isInstanciable();
+	}
+	private BeanMap _beanMapFor(final String typeName) {
+		BeanMap outBeanMap = _beanMappings.getBeanMapFromClassName(typeName);
+		if (outBeanMap == null) throw new MarshallerException(Throwables.message("Mapping for type {} was not found",typeName));
+		return outBeanMap;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SKIP (values of the fields NOT mapped anymore)
+/////////////////////////////////////////////////////////////////////////////////////////
+	private void _skipValue() throws IOException {
+		byte tag = _in.readByte();
+		switch(tag) {
+		case SimpleBinaryMarshaller.TAG_NULL:
+		case SimpleBinaryMarshaller.TAG_TRUE:
+		case SimpleBinaryMarshaller.TAG_FALSE:
+			break;
+		case SimpleBinaryMarshaller.TAG_STRING:
+			_readString();
+			break;
+		case SimpleBinaryMarshaller.TAG_INT:
+		case SimpleBinaryMarshaller.TAG_LONG:
+		case SimpleBinaryMarshaller.TAG_DATE:
+		case SimpleBinaryMarshaller.TAG_SQL_DATE:
+			_readVarLong();
+			break;
+		case SimpleBinaryMarshaller.TAG_DOUBLE:
+			_in.readDouble();
+			break;
+		case SimpleBinaryMarshaller.TAG_FLOAT:
+			_in.readFloat();
+			break;
+		case SimpleBinaryMarshaller.TAG_ENUM:
+			_readName();
+			_readName();
+			break;
+		case SimpleBinaryMarshaller.TAG_JAVA_TYPE:
+			_readName();
+			break;
+		case SimpleBinaryMarshaller.TAG_CUSTOM:
+			_readName();
+			_in.readBoolean();
+			_readString();
+			break;
+		case SimpleBinaryMarshaller.TAG_TEXT:
+			_readName();
+			_readString();
+			break;
+		case SimpleBinaryMarshaller.TAG_COLLECTION:
+			int size = _readVarInt();
+			for (int i = 0; i < size; i++) _skipValue();
+			break;
+		case SimpleBinaryMarshaller.TAG_MAP:
+			int entries = _readVarInt();
+			for (int i = 0; i < entries * 2; i++) _skipValue();
+			break;
+		case SimpleBinaryMarshaller.TAG_BEAN:
+			_readName();
+			int fieldCount = _readVarInt();
+			for (int i = 0; i < fieldCount; i++) {
+				_readName();
+				_skipValue();
+			}
+			break;
+		default:
+			throw new IOException("Unknown value tag " + tag);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  PRIMITIVES
+/////////////////////////////////////////////////////////////////////////////////////////
+	private String _readName() throws IOException {
+		int v = _readVarInt();
+		if ((v & 1) == 1) {
+			int index = v >>> 1;
+			if (index >= _names.size()) throw new IOException("Unknown name index " + index);
+			return _names.get(index);
+		}
+		String outName = _readUTF8(v >>> 1);
+		_names.add(outName);
+		return outName;
+	}
+	private String _readString() throws IOException {
+		return _readUTF8(_readVarInt());
+	}
+	private String _readUTF8(final int length) throws IOException {
+		_checkAvailable(length);
+		byte[] bytes = new byte[length];
+		_in.readFully(bytes);
+		return new String(bytes,Charsets.UTF_8);
+	}
+	/**
+	 * Reads the number of elements of a collection, map or bean: every element takes at least a byte
+	 * so a corrupt size is detected before anything is allocated
+	 */
+	private int _readSize() throws IOException {
+		int outSize = _readVarInt();
+		_checkAvailable(outSize);
+		return outSize;
+	}
+	private void _checkAvailable(final int length) throws IOException {
+		if (length < 0 || length > _in.available()) throw new IOException("Truncated binary encoded object: " + length + " bytes expected but " + _in.available() + " available");
+	}
+	private int _readVarInt() throws IOException {
+		int outValue = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = _in.readUnsignedByte();
+			outValue |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return outValue;
+		}
+		throw new IOException("Malformed variable length int");
+	}
+	private long _readVarLong() throws IOException {
+		long v = 0;
+		for (int shift = 0; shift < 70; shift += 7) {
+			int b = _in.readUnsignedByte();
+			v |= (long)(b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return (v >>> 1) ^ -(v & 1);		// zig-zag decode
+		}
+		throw new IOException("Malformed variable length long");
+	}
+}
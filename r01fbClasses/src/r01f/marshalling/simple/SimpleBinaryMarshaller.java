@@ -0,0 +1,260 @@
+package r01f.marshalling.simple;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.google.common.io.BaseEncoding;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import r01f.exceptions.Throwables;
+import r01f.marshalling.Marshaller;
+import r01f.marshalling.MarshallerException;
+import r01f.marshalling.MarshallerMappings;
+
+/**
+ * Binary counterpart of the simple marshaller: encodes objects into a compact binary format
+ * built from the same mappings ({@link BeanMap} / {@link FieldMap}) the xml {@link Marshaller} uses
+ * (see {@link BinaryFromObjsBuilder} and {@link ObjsFromBinaryBuilder})
+ * <pre>
+ * 		[format version (1 byte)][flags (1 byte)][encoded objects (deflated if the flags say so)]
+ * </pre>
+ * It's mainly intended to store the model objects at the db descriptor columns, so there's also a text form:
+ * <pre>
+ * 		R01B.{base64(binary)}
+ * </pre>
+ * When a descriptor is read the format is detected so the already stored xml descriptors keep working:
+ * <pre class='brush:java'>
+ * 		SimpleBinaryMarshaller binMarshaller = SimpleBinaryMarshaller.createFor(marshaller)
+ * 																	 .compressingOver(1024);
+ * 		String descriptor = binMarshaller.descriptorFromBean(myObj);
+ * 		MyObj myObj = binMarshaller.beanFromDescriptor(descriptor);		// also accepts an xml descriptor
+ * </pre>
+ * The encoding is versioned at two levels:
+ * <ul>
+ * 		<li>The format version byte: a reader rejects a newer format but MUST read the older ones</li>
+ * 		<li>The fields are written by name (a name is written only once) so a field added or removed at the model
+ * 			objects does NOT break the already stored descriptors (a field NOT mapped anymore is skipped)</li>
+ * </ul>
+ * It's thread safe: every encode / decode uses its own builder
+ */
+@Accessors(prefix="_")
+public class SimpleBinaryMarshaller {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Prefix of the text form (descriptor) of the binary encoding
+	 */
+	public static final String DESCRIPTOR_PREFIX = "R01B.";
+	/**
+	 * By default the encoded objects are deflated if they're bigger than this size
+	 */
+	public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+	static final byte FORMAT_VERSION = 1;
+	static final byte FLAG_DEFLATED = 0x01;
+
+	// value tags
+	static final byte TAG_NULL = 0;
+	static final byte TAG_STRING = 1;
+	static final byte TAG_INT = 2;
+	static final byte TAG_LONG = 3;
+	static final byte TAG_DOUBLE = 4;
+	static final byte TAG_FLOAT = 5;
+	static final byte TAG_TRUE = 6;
+	static final byte TAG_FALSE = 7;
+	static final byte TAG_DATE = 8;
+	static final byte TAG_SQL_DATE = 9;
+	static final byte TAG_ENUM = 10;
+	static final byte TAG_JAVA_TYPE = 11;
+	static final byte TAG_CUSTOM = 12;		// a type with custom xml transformers: the transformer's text
+	static final byte TAG_TEXT = 13;		// a type created from a text (ie r01f.types.Path)
+	static final byte TAG_COLLECTION = 14;
+	static final byte TAG_MAP = 15;
+	static final byte TAG_BEAN = 16;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The xml marshaller whose mappings are used and that reads the xml descriptors
+	 */
+	@Getter private final Marshaller _xmlMarshaller;
+	/**
+	 * The encoded objects are deflated if they're bigger than this size (-1 if they're never deflated)
+	 */
+	@Getter private final int _compressionThreshold;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	private SimpleBinaryMarshaller(final Marshaller xmlMarshaller,
+								   final int compressionThreshold) {
+		_xmlMarshaller = xmlMarshaller;
+		_compressionThreshold = compressionThreshold;
+	}
+	/**
+	 * @param xmlMarshaller
+	 * @return true if the binary marshaller can use the given marshaller mappings (it's a simple marshaller)
+	 */
+	public static boolean canBeCreatedFor(final Marshaller xmlMarshaller) {
+		return xmlMarshaller != null
+			&& xmlMarshaller.getMappings() instanceof SimpleMarshallerMappings;
+	}
+	/**
+	 * Creates a binary marshaller that uses the mappings of a simple marshaller
+	 * @param xmlMarshaller
+	 * @return
+	 */
+	public static SimpleBinaryMarshaller createFor(final Marshaller xmlMarshaller) {
+		if (!SimpleBinaryMarshaller.canBeCreatedFor(xmlMarshaller)) throw new IllegalArgumentException(Throwables.message("The binary marshaller needs the mappings of a simple marshaller; {} is NOT supported",
+																														   xmlMarshaller != null ? xmlMarshaller.getClass().getName() : null));
+		return new SimpleBinaryMarshaller(xmlMarshaller,
+										  DEFAULT_COMPRESSION_THRESHOLD);
+	}
+	/**
+	 * Returns a binary marshaller that deflates the encoded objects bigger than the given size
+	 * @param bytes
+	 * @return
+	 */
+	public SimpleBinaryMarshaller compressingOver(final int bytes) {
+		return new SimpleBinaryMarshaller(_xmlMarshaller,
+										  bytes);
+	}
+	/**
+	 * Returns a binary marshaller that never deflates the encoded objects
+	 * @return
+	 */
+	public SimpleBinaryMarshaller notCompressing() {
+		return new SimpleBinaryMarshaller(_xmlMarshaller,
+										  -1);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BINARY
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Encodes an object
+	 * @param bean
+	 * @return the binary encoding
+	 * @throws MarshallerException if the object (or any child object) is NOT mapped
+	 */
+	public byte[] bytesFromBean(final Object bean) throws MarshallerException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(512);
+		new BinaryFromObjsBuilder(_mappings(),bos).write(bean);
+		byte[] encoded = bos.toByteArray();
+
+		byte flags = 0;
+		if (_compressionThreshold >= 0 && encoded.length > _compressionThreshold) {
+			byte[] deflated = _deflate(encoded);
+			if (deflated.length < encoded.length) {
+				encoded = deflated;
+				flags |= FLAG_DEFLATED;
+			}
+		}
+		byte[] outBytes = new byte[encoded.length + 2];
+		outBytes[0] = FORMAT_VERSION;
+		outBytes[1] = flags;
+		System.arraycopy(encoded,0,outBytes,2,encoded.length);
+		return outBytes;
+	}
+	/**
+	 * Decodes an object
+	 * @param bytes the binary encoding
+	 * @return the object
+	 * @throws MarshallerException if the binary encoding is NOT valid or a type is NOT mapped
+	 */
+	public <T> T beanFromBytes(final byte[] bytes) throws MarshallerException {
+		if (bytes == null || bytes.length < 2) throw new MarshallerException("Not a valid binary encoded object");
+		if (bytes[0] > FORMAT_VERSION) throw new MarshallerException(Throwables.message("Unsupported binary format version {} (the supported version is {})",
+																						bytes[0],FORMAT_VERSION));
+		byte[] encoded = (bytes[1] & FLAG_DEFLATED) != 0 ? _inflate(bytes,2)
+														 : null;
+		ByteArrayInputStream bis = encoded != null ? new ByteArrayInputStream(encoded)
+												   : new ByteArrayInputStream(bytes,2,bytes.length - 2);
+		return new ObjsFromBinaryBuilder(_mappings(),bis).<T>read();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  DESCRIPTORS (text)
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Encodes an object as a text descriptor: R01B.{base64(binary)}
+	 * @param bean
+	 * @return
+	 * @throws MarshallerException if the object (or any child object) is NOT mapped
+	 */
+	public String descriptorFromBean(final Object bean) throws MarshallerException {
+		return DESCRIPTOR_PREFIX + BaseEncoding.base64()
+											   .encode(this.bytesFromBean(bean));
+	}
+	/**
+	 * Decodes an object from a text descriptor detecting its format:
+	 * a binary descriptor (see {@link #descriptorFromBean(Object)}) or an xml descriptor
+	 * @param descriptor
+	 * @return the object
+	 * @throws MarshallerException if the descriptor is NOT valid or a type is NOT mapped
+	 */
+	public <T> T beanFromDescriptor(final CharSequence descriptor) throws MarshallerException {
+		if (!SimpleBinaryMarshaller.isBinaryDescriptor(descriptor)) return _xmlMarshaller.<T>beanFromXml(descriptor);
+		byte[] bytes = null;
+		try {
+			bytes = BaseEncoding.base64()
+								.decode(descriptor.subSequence(DESCRIPTOR_PREFIX.length(),descriptor.length()));
+		} catch(IllegalArgumentException illArgEx) {
+			throw new MarshallerException("Not a valid binary descriptor: " + illArgEx.getMessage(),illArgEx);
+		}
+		return this.<T>beanFromBytes(bytes);
+	}
+	/**
+	 * @param descriptor
+	 * @return true if the descriptor is a binary one (see {@link #descriptorFromBean(Object)})
+	 */
+	public static boolean isBinaryDescriptor(final CharSequence descriptor) {
+		if (descriptor == null || descriptor.length() < DESCRIPTOR_PREFIX.length()) return false;
+		for (int i = 0; i < DESCRIPTOR_PREFIX.length(); i++) {
+			if (descriptor.charAt(i) != DESCRIPTOR_PREFIX.charAt(i)) return false;
+		}
+		return true;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  PRIVATE METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private MarshallerMappings _mappings() {
+		return _xmlMarshaller.getMappings();
+	}
+	private static byte[] _deflate(final byte[] bytes) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(bytes.length / 2 + 16);
+			byte[] buf = new byte[1024];
+			while (!deflater.finished()) {
+				int n = deflater.deflate(buf);
+				bos.write(buf,0,n);
+			}
+			return bos.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+	private static byte[] _inflate(final byte[] bytes,final int offset) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(bytes,offset,bytes.length - offset);
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(bytes.length * 4);
+			byte[] buf = new byte[1024];
+			while (!inflater.finished()) {
+				int n = inflater.inflate(buf);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) throw new MarshallerException("Truncated binary encoded object");
+				bos.write(buf,0,n);
+			}
+			return bos.toByteArray();
+		} catch(DataFormatException dfEx) {
+			throw new MarshallerException("Not a valid deflated binary encoded object: " + dfEx.getMessage(),dfEx);
+		} finally {
+			inflater.end();
+		}
+	}
+}
@@ -50,6 +50,7 @@ import r01f.marshalling.annotations.XmlWriteTransformer;
 import r01f.marshalling.simple.DataTypes.DataType;
 import r01f.reflection.Reflection;
 import r01f.reflection.ReflectionUtils;
+import r01f.reflection.scanner.TypeIndex;
 import r01f.reflection.ReflectionUtils.FieldAnnotated;
 import r01f.util.types.Strings;
 import r01f.util.types.collections.CollectionUtils;
@@ -527,25 +528,35 @@ public class SimpleMarshallerMappingsFromAnnotationsLoader {
     }
     private void _processPackages(final Set<String> packages) {
     	if (CollectionUtils.hasData(_packages)) {
-    		// [1] - Find all types annotated with @XmlRootElement 
     		Set<Class<?>> allPckgsTypes = Sets.newHashSet(); 
     		
+    		// [0] - Use the build-time type index for the classpath roots that ship one (see TypeIndexAnnotationProcessor)
+    		TypeIndex typeIndex = TypeIndex.get();
+    		if (typeIndex.isAvailable()) {
+    			Set<Class<?>> indexedTypes = typeIndex.getTypesAnnotatedWith(XmlRootElement.class,
+    																		 packages);
+    			log.debug("{} types annotated with @XmlRootElement found at packages {} using the type index",indexedTypes.size(),packages);
+    			allPckgsTypes.addAll(indexedTypes);
+    		}
+    		// [1] - Find all types annotated with @XmlRootElement at the classpath roots that do NOT ship an index
 			List<URL> urls = new ArrayList<URL>();
 			//urls.addAll(ClasspathHelper.forPackage("javax.xml.bind.annotation"));
     		for (String p : packages) {
     			//Reflections typeScanner = new Reflections(p);
-				urls.addAll(ClasspathHelper.forPackage(p));	// see https://code.google.com/p/reflections/issues/detail?id=53
+				urls.addAll(typeIndex.notIndexed(ClasspathHelper.forPackage(p)));	// see https://code.google.com/p/reflections/issues/detail?id=53
 				log.debug("Scanning package {} for @XmlRootElement annotated types",p);
     		}
-			Reflections typeScanner = new Reflections(new ConfigurationBuilder()
-																.setUrls(urls));    				
-			Set<Class<?>> pckgTypes = typeScanner.getTypesAnnotatedWith(XmlRootElement.class);
-			if (CollectionUtils.hasData(pckgTypes)) {
-					for (Class<?> type : pckgTypes) log.trace(">Type {}",type);
-				allPckgsTypes.addAll(pckgTypes);
-			} else {
-				log.debug("NO types annotated with @XmlRootElement");
-			}
+    		if (CollectionUtils.hasData(urls)) {
+				Reflections typeScanner = new Reflections(new ConfigurationBuilder()
+																	.setUrls(urls));    				
+				Set<Class<?>> pckgTypes = typeScanner.getTypesAnnotatedWith(XmlRootElement.class);
+				if (CollectionUtils.hasData(pckgTypes)) {
+						for (Class<?> type : pckgTypes) log.trace(">Type {}",type);
+					allPckgsTypes.addAll(pckgTypes);
+				} else {
+					log.debug("NO types annotated with @XmlRootElement");
+				}
+    		}
     		// [2] - Process...
     		_processTypes(allPckgsTypes);
     	}
@@ -1,7 +1,9 @@
 package r01f.model.metadata;
 
+import java.util.Collection;
 import java.util.Set;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import lombok.AccessLevel;
@@ -366,6 +368,30 @@ public abstract class FieldMetaDataConfigBuilder
 							 .setTokenized(false);	// NOT tokenized!!
 			return _fieldMetaDataCfg;
 		}
+		/**
+		 * The field is indexed and the search results are counted by the field values
+		 * @return
+		 */
+		public F indexedAndFaceted() {
+			this.indexed();
+			_fieldMetaDataCfg.getSearchEngineIndexingConfig()
+							 .setFaceted(true);
+			return _fieldMetaDataCfg;
+		}
+		/**
+		 * The field is indexed and the search results are counted by ranges of the field values:
+		 * (-inf,b0) [b0,b1) ... [bn,+inf)
+		 * @param bounds the (ascending) range bounds (dates as millis)
+		 * @return
+		 */
+		public F indexedAndFacetedByRanges(final double... bounds) {
+			this.indexedAndFaceted();
+			Collection<Double> theBounds = Lists.newArrayListWithExpectedSize(bounds.length);
+			for (double bound : bounds) theBounds.add(bound);
+			_fieldMetaDataCfg.getSearchEngineIndexingConfig()
+							 .setFacetRangeBounds(theBounds);
+			return _fieldMetaDataCfg;
+		}
 	}
 	@RequiredArgsConstructor(access=AccessLevel.PRIVATE)
 	public class MetaDataConfigBuilderIndexingCfgTokenizableStep<F extends FieldMetaData> {
@@ -391,6 +417,16 @@ public abstract class FieldMetaDataConfigBuilder
 							 .setTokenized(false);
 			return _fieldMetaDataCfg;
 		}
+		/**
+		 * The field is NOT tokenized and the search results are counted by the field values
+		 * @return
+		 */
+		public F notTokenizedAndFaceted() {
+			this.notTokenized();
+			_fieldMetaDataCfg.getSearchEngineIndexingConfig()
+							 .setFaceted(true);
+			return _fieldMetaDataCfg;
+		}
 		public MetaDataConfigBuilderIndexingCfgBoostingStep<F> tokenized() {
 			_fieldMetaDataCfg.getSearchEngineIndexingConfig()
 							 .setTokenized(true);
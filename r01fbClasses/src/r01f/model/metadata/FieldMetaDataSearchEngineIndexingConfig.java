@@ -1,12 +1,16 @@
 package r01f.model.metadata;
 
+import java.util.Collection;
+
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import r01f.util.types.collections.CollectionUtils;
 
 /**
  * Search engine indexing config used when defined a {@link FieldMetaData} config
@@ -39,4 +43,28 @@ public class FieldMetaDataSearchEngineIndexingConfig {
 	 */
 	@XmlElement(name="tokenized")
 	@Getter @Setter private boolean _tokenized;
+	/**
+	 * Are the field values counted when searching? (see {@link r01f.model.search.SearchResults#getFacets()})
+	 * The values of faceted fields are also indexed as doc values so the counts are computed
+	 * in the same pass over the matching docs as the search
+	 * (multi-dimensional fields -ie language dependent- cannot be faceted)
+	 */
+	@XmlAttribute(name="facet")
+	@Getter @Setter private boolean _faceted;
+	/**
+	 * The bounds of the buckets of a faceted numeric (or date) field: the matching docs are counted by range
+	 * instead of by value: (-inf,b0) [b0,b1) ... [bn,+inf)
+	 * (dates are compared as millis)
+	 */
+	@XmlElementWrapper(name="facetRangeBounds") @XmlElement(name="bound")
+	@Getter @Setter private Collection<Double> _facetRangeBounds;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return true if the faceted field values are counted by range
+	 */
+	public boolean isFacetedByRanges() {
+		return _faceted && CollectionUtils.hasData(_facetRangeBounds);
+	}
 }
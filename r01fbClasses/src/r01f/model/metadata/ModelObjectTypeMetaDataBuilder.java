@@ -17,7 +17,9 @@ import com.google.common.annotations.GwtIncompatible;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -30,6 +32,7 @@ import r01f.model.annotations.ModelObjectData;
 import r01f.model.search.SearchFilter;
 import r01f.model.search.SearchResultItemForModelObject;
 import r01f.reflection.ReflectionUtils;
+import r01f.reflection.scanner.TypeIndex;
 import r01f.services.client.internal.ServicesClientAPIBootstrapGuiceModuleBase;
 import r01f.util.types.Strings;
 import r01f.util.types.collections.CollectionUtils;
@@ -64,28 +67,13 @@ public class ModelObjectTypeMetaDataBuilder {
 		// Find every type annotated with ModelObjectData
 		final String modelObjPackage = Strings.customized("{}.model",
 														  apiAppAndModule.getAppCode());
-		List<URL> modelObjTypesUrl = new ArrayList<URL>();
-		modelObjTypesUrl.addAll(ClasspathHelper.forPackage(modelObjPackage));	// xxx.model.*
-		Reflections ref = new Reflections(new ConfigurationBuilder()					
-													.setUrls(// org.reflections.ClasspathHelper seems to return ONLY the jar or path containing the given package
-															 // ... so the package MUST be added back to the url to minimize scan time and unneeded class loading
-															 FluentIterable.from(modelObjTypesUrl)
-																		   .transform(new Function<URL,URL>() {
-																								@Override
-																								public URL apply(final URL url) {
-																									try {
-																										return new URL(url.toString() + modelObjPackage.replace(".", "/")
-																																					   .replace("\\", "/"));
-																									} catch (MalformedURLException ex) {
-																										ex.printStackTrace();
-																									}
-																									return url;
-																								}
-																		   			   })
-																		   .toList())
-													.setScanners(new SubTypesScanner(),
-																 new TypeAnnotationsScanner()));
-		Set<Class<?>> modelObjTypes = ref.getTypesAnnotatedWith(ModelObjectData.class);
+		// (the build-time type index is used for the classpath roots that ship one and the other roots are scanned)
+		TypeIndex typeIndex = TypeIndex.get();
+		Set<Class<?>> modelObjTypes = Sets.newLinkedHashSet();
+		if (typeIndex.isAvailable()) modelObjTypes.addAll(typeIndex.getTypesAnnotatedWith(ModelObjectData.class,
+																						   Lists.newArrayList(modelObjPackage)));
+		modelObjTypes.addAll(_scanModelObjectTypes(modelObjPackage,
+												   typeIndex));
 		
 		// For every found type, look at the @ModelObjectData annotation and load the ModelObjectMetaData
 		if (CollectionUtils.hasData(modelObjTypes)) {
@@ -123,6 +111,38 @@ public class ModelObjectTypeMetaDataBuilder {
 			}
 		}
 	}
+	/**
+	 * Scans the classpath roots that do NOT ship a type index for the types annotated with {@link ModelObjectData} at the given package
+	 * @param modelObjPackage
+	 * @param typeIndex
+	 * @return
+	 */
+	private static Set<Class<?>> _scanModelObjectTypes(final String modelObjPackage,
+													   final TypeIndex typeIndex) {
+		List<URL> modelObjTypesUrl = new ArrayList<URL>();
+		modelObjTypesUrl.addAll(typeIndex.notIndexed(ClasspathHelper.forPackage(modelObjPackage)));	// xxx.model.*
+		if (modelObjTypesUrl.isEmpty()) return Sets.newHashSet();
+		Reflections ref = new Reflections(new ConfigurationBuilder()					
+													.setUrls(// org.reflections.ClasspathHelper seems to return ONLY the jar or path containing the given package
+															 // ... so the package MUST be added back to the url to minimize scan time and unneeded class loading
+															 FluentIterable.from(modelObjTypesUrl)
+																		   .transform(new Function<URL,URL>() {
+																								@Override
+																								public URL apply(final URL url) {
+																									try {
+																										return new URL(url.toString() + modelObjPackage.replace(".", "/")
+																																					   .replace("\\", "/"));
+																									} catch (MalformedURLException ex) {
+																										ex.printStackTrace();
+																									}
+																									return url;
+																								}
+																		   			   })
+																		   .toList())
+													.setScanners(new SubTypesScanner(),
+																 new TypeAnnotationsScanner()));
+		return ref.getTypesAnnotatedWith(ModelObjectData.class);
+	}
 	
 /////////////////////////////////////////////////////////////////////////////////////////
 //  
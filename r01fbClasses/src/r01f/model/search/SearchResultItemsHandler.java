@@ -0,0 +1,27 @@
+package r01f.model.search;
+
+/**
+ * Handles every item of a streamed search (see {@link r01f.services.interfaces.SearchServices})
+ * The items are handed one by one as they're got from the index so the whole result set
+ * is NEVER kept in memory
+ * <pre class='brush:java'>
+ *	// Handler of the search results (quite verbose for java6 WTF!)
+ *	int count = searchServices.filterRecords(userContext,
+ *											 filter,
+ *											 new SearchResultItemsHandler<MySearchResultsItem>() {
+ *													@Override
+ *													public void handle(final MySearchResultsItem item) {
+ *														// ... export the item
+ *													}
+ *											 });
+ * </pre>
+ * @param <I>
+ */
+public interface SearchResultItemsHandler<I extends SearchResultItem> {
+	/**
+	 * Handles a search result item
+	 * (if an exception is thrown the search is aborted)
+	 * @param item
+	 */
+	public void handle(final I item);
+}
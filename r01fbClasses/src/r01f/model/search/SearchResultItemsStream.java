@@ -0,0 +1,102 @@
+package r01f.model.search;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import r01f.marshalling.Marshaller;
+import r01f.util.types.Strings;
+
+import com.google.common.base.Charsets;
+
+/**
+ * The format of the search result items streamed by the REST search resources (a chunked response):
+ * every item is serialized as xml preceded by a line with its length (in chars)
+ * <pre>
+ * 		{length}
+ * 		<searchResultItem ...>...</searchResultItem>
+ * 		{length}
+ * 		<searchResultItem ...>...</searchResultItem>
+ * 		...
+ * </pre>
+ * so the client can de-serialize and handle every item as it's received WITHOUT keeping the whole response in memory
+ * (the xml is written as is: it can contain line breaks, ie inside CDATA sections)
+ */
+@NoArgsConstructor(access=AccessLevel.PRIVATE)
+public class SearchResultItemsStream {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static final String MEDIA_TYPE = "application/vnd.r01f.search-result-items+xml";
+/////////////////////////////////////////////////////////////////////////////////////////
+//  WRITE
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Writes an item: a line with the xml length followed by the xml
+	 * @param marshaller
+	 * @param item
+	 * @param w
+	 * @throws IOException
+	 */
+	public static <I extends SearchResultItem> void write(final Marshaller marshaller,
+														  final I item,
+														  final Writer w) throws IOException {
+		String xml = marshaller.xmlFromBean(item);
+		w.write(Integer.toString(xml.length()));
+		w.write('\n');
+		w.write(xml);
+		w.write('\n');
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  READ
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Reads the items handing them to the handler as they're received
+	 * @param marshaller
+	 * @param is the stream (it's closed when all items are read)
+	 * @param handler
+	 * @return the number of handled items
+	 * @throws IOException
+	 */
+	public static <I extends SearchResultItem> int read(final Marshaller marshaller,
+														final InputStream is,
+														final SearchResultItemsHandler<I> handler) throws IOException {
+		int outCount = 0;
+		BufferedReader r = new BufferedReader(new InputStreamReader(is,Charsets.UTF_8));
+		try {
+			for (String line = r.readLine(); line != null; line = r.readLine()) {
+				if (Strings.isNullOrEmpty(line)) continue;		// the line break after the previous item's xml
+				int length = _parseLength(line);
+				char[] xml = new char[length];
+				int read = 0;
+				while (read < length) {
+					int n = r.read(xml,read,length - read);
+					if (n < 0) throw new EOFException(Strings.customized("The search result items stream ended after {} of the {} chars of the item #{}",
+																		 read,length,outCount + 1));
+					read += n;
+				}
+				I item = marshaller.beanFromXml(new String(xml));
+				handler.handle(item);
+				outCount++;
+			}
+		} finally {
+			r.close();
+		}
+		return outCount;
+	}
+	private static int _parseLength(final String line) throws IOException {
+		try {
+			int outLength = Integer.parseInt(line.trim());
+			if (outLength < 0) throw new NumberFormatException();
+			return outLength;
+		} catch(NumberFormatException numEx) {
+			throw new IOException(Strings.customized("Not a valid search result items stream: '{}' is NOT an item length",
+													 line));
+		}
+	}
+}
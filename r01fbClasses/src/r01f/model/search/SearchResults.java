@@ -51,6 +51,13 @@ public class SearchResults<F extends SearchFilter,
 	 */
 	@XmlAttribute(name="endPosition")
 	@Getter @Setter private int _endPosition = 10;
+	/**
+	 * An opaque token used to get the next page when paging with a cursor
+	 * (null if this is the last page or if NOT paging with a cursor)
+	 * Getting a page with a cursor costs the same whatever the page is
+	 */
+	@XmlAttribute(name="nextPageCursor")
+	@Getter @Setter private String _nextPageCursor;
 	/**
 	 * The filter that was executed to get this results page
 	 */
@@ -61,6 +68,12 @@ public class SearchResults<F extends SearchFilter,
 	 */
 	@XmlElementWrapper(name = "pageItems") 
 	@Getter	@Setter private Collection<I> _pageItems;
+	/**
+	 * The counts of the search results (all of them, not only this page's) by the values of the faceted fields
+	 * (null if there's no faceted field or if it's NOT the first page when paging with a cursor)
+	 */
+	@XmlElementWrapper(name = "facets")
+	@Getter @Setter private Collection<SearchResultsFacet> _facets;
 	
 /////////////////////////////////////////////////////////////////////////////////////////
 //	CONSTRUCTOR & BUILDER
@@ -139,6 +152,29 @@ public class SearchResults<F extends SearchFilter,
 		if (!this.hasMorePages()) throw new IllegalStateException("This is the last search results page; cannot go to the next page!!");
 		return _endPosition; 
 	}
+	/**
+	 * @return true if there's a cursor to get the next page
+	 */
+	public boolean hasNextPageCursor() {
+		return _nextPageCursor != null;
+	}
+	/**
+	 * @return true if there're facet counts
+	 */
+	public boolean hasFacets() {
+		return CollectionUtils.hasData(_facets);
+	}
+	/**
+	 * @param fieldId
+	 * @return the facet counts of the given field (null if the field is NOT faceted)
+	 */
+	public SearchResultsFacet getFacetFor(final String fieldId) {
+		if (CollectionUtils.isNullOrEmpty(_facets)) return null;
+		for (SearchResultsFacet facet : _facets) {
+			if (facet.getFieldId().equals(fieldId)) return facet;
+		}
+		return null;
+	}
 	
 /////////////////////////////////////////////////////////////////////////////////////////
 //  DEFAULT	
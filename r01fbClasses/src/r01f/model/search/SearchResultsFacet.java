@@ -0,0 +1,75 @@
+package r01f.model.search;
+
+import java.util.Collection;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import r01f.util.types.collections.CollectionUtils;
+
+/**
+ * The counts of the search results by the values (or ranges of values) of a faceted field
+ * (see {@link r01f.model.metadata.FieldMetaDataSearchEngineIndexingConfig#isFaceted()})
+ * <pre class='brush:java'>
+ * 		SearchResultsFacet facet = searchResults.getFacetFor("myField");
+ * 		for (SearchResultsFacetCount count : facet.getCounts()) {
+ * 			System.out.println(count.getValue() + ": " + count.getCount());
+ * 		}
+ * </pre>
+ */
+@XmlRootElement(name="facet")
+@Accessors(prefix="_")
+@NoArgsConstructor
+public class SearchResultsFacet 
+  implements SearchModelObject {
+
+	private static final long serialVersionUID = -2196655740213580925L;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The faceted field id
+	 */
+	@XmlAttribute(name="fieldId")
+	@Getter @Setter private String _fieldId;
+	/**
+	 * The counts (sorted by count desc if counted by value or by range if counted by ranges)
+	 */
+	@XmlElementWrapper(name="counts") @XmlElement(name="facetCount")
+	@Getter @Setter private Collection<SearchResultsFacetCount> _counts;
+	
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	public SearchResultsFacet(final String fieldId,
+							  final Collection<SearchResultsFacetCount> counts) {
+		_fieldId = fieldId;
+		_counts = counts;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return true if there's any count
+	 */
+	public boolean hasData() {
+		return CollectionUtils.hasData(_counts);
+	}
+	/**
+	 * @param value
+	 * @return the count of the given field value (0 if there's no result with the value)
+	 */
+	public int getCountOf(final String value) {
+		if (CollectionUtils.isNullOrEmpty(_counts)) return 0;
+		for (SearchResultsFacetCount count : _counts) {
+			if (count.getValue() != null && count.getValue().equals(value)) return count.getCount();
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,87 @@
+package r01f.model.search;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * The number of search results having a value (or a value in a range) of a faceted field
+ * (see {@link SearchResultsFacet})
+ */
+@XmlRootElement(name="facetCount")
+@Accessors(prefix="_")
+@NoArgsConstructor
+public class SearchResultsFacetCount 
+  implements SearchModelObject {
+
+	private static final long serialVersionUID = 4735412786208003712L;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The field value (or the range as [from,to) if the field is counted by ranges)
+	 */
+	@XmlAttribute(name="value")
+	@Getter @Setter private String _value;
+	/**
+	 * The range lower bound -inclusive- (null if the field is NOT counted by ranges or if the range is unbounded)
+	 */
+	@XmlAttribute(name="from")
+	@Getter @Setter private Double _from;
+	/**
+	 * The range upper bound -exclusive- (null if the field is NOT counted by ranges or if the range is unbounded)
+	 */
+	@XmlAttribute(name="to")
+	@Getter @Setter private Double _to;
+	/**
+	 * The number of search results 
+	 */
+	@XmlAttribute(name="count")
+	@Getter @Setter private int _count;
+	
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Creates the count of a field value
+	 * @param value
+	 * @param count
+	 * @return
+	 */
+	public static SearchResultsFacetCount forValue(final String value,
+												   final int count) {
+		SearchResultsFacetCount outCount = new SearchResultsFacetCount();
+		outCount.setValue(value);
+		outCount.setCount(count);
+		return outCount;
+	}
+	/**
+	 * Creates the count of a range of field values: [from,to)
+	 * @param from the lower bound (null if unbounded)
+	 * @param to the upper bound (null if unbounded)
+	 * @param count
+	 * @return
+	 */
+	public static SearchResultsFacetCount forRange(final Double from,final Double to,
+												   final int count) {
+		SearchResultsFacetCount outCount = new SearchResultsFacetCount();
+		outCount.setValue((from != null ? "[" + from : "(*") + "," + (to != null ? to + ")" : "*)"));
+		outCount.setFrom(from);
+		outCount.setTo(to);
+		outCount.setCount(count);
+		return outCount;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return true if it's the count of a range of field values
+	 */
+	public boolean isRange() {
+		return _from != null || _to != null;
+	}
+}
@@ -37,14 +37,14 @@ public class CRUDOnMultipleOK<M>
 //  CONSTRUCTOR & BUILDER
 /////////////////////////////////////////////////////////////////////////////////////////
 	public CRUDOnMultipleOK() {
-		_operationExecResult = Sets.newHashSet();
+		_operationExecResult = Sets.newLinkedHashSet();		// keep the operations order
 	}
 	CRUDOnMultipleOK(final Class<M> entityType,
 					 final PersistenceRequestedOperation reqOp,final PersistencePerformedOperation performedOp) {
 		super(Collection.class,
 			  reqOp,performedOp);
 		_modelObjectType = entityType;
-		_operationExecResult = Sets.newHashSet();
+		_operationExecResult = Sets.newLinkedHashSet();		// keep the operations order
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  FLUENT-API
@@ -63,6 +63,13 @@ public class CRUDOnMultipleOK<M>
 	public void addOperationNOK(final CRUDError<M> opNOK) {
 		_operationExecResult.add(opNOK);
 	}
+	/**
+	 * Adds all the operations of another {@link CRUDOnMultipleOK} (ie when an operation is executed in blocks)
+	 * @param other
+	 */
+	public void addOperations(final CRUDOnMultipleOK<M> other) {
+		if (CollectionUtils.hasData(other._operationExecResult)) _operationExecResult.addAll(other._operationExecResult);
+	}
 	/**
 	 * Adds a collection of performed operations
 	 * @param okEntities
@@ -163,14 +170,14 @@ public class CRUDOnMultipleOK<M>
 	 * @return true if there's any failed operation
 	 */
 	public boolean haveSomeFailed() {
-		return CollectionUtils.hasData(_operationExecResult) ? this.getOperationsNOK().size() <= _operationExecResult.size()
+		return CollectionUtils.hasData(_operationExecResult) ? this.getOperationsNOK().size() > 0
 														  	 : false;
 	}
 	/**
 	 * @return true if there's any successful operation
 	 */
 	public boolean haveSomeSucceeded() {
-		return CollectionUtils.hasData(_operationExecResult) ? this.getOperationsOK().size() <= _operationExecResult.size()
+		return CollectionUtils.hasData(_operationExecResult) ? this.getOperationsOK().size() > 0
 														  	 : false;		
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -209,7 +216,7 @@ public class CRUDOnMultipleOK<M>
 	public Collection<M> getStrict() throws PersistenceException {
 		Collection<M> outResults = null;
 		
-		if (!this.haveSomeSucceeded()) {
+		if (!this.haveSomeFailed()) {
 			// everything ok
 			outResults = this.getEntitiesOK();
 		} else {		
@@ -224,13 +231,13 @@ public class CRUDOnMultipleOK<M>
 	 */
 	public Collection<M> getEntitiesOK() {
 		Set<M> outEntities = null;
-		if (CollectionUtils.hasData(this.getOperationsOK())) {
-			outEntities = FluentIterable.from(_operationExecResult)
-									    .transform(new Function<CRUDResult<M>,M>() {
+		Collection<CRUDOK<M>> opsOK = this.getOperationsOK();
+		if (CollectionUtils.hasData(opsOK)) {
+			outEntities = FluentIterable.from(opsOK)			// only the successful operations
+									    .transform(new Function<CRUDOK<M>,M>() {
 															@Override 
-															public M apply(final CRUDResult<M> op) {
-																M entity = op.asCRUDOK()		//.as(CRUDOK.class)
-																			 .getOrThrow();	// sure it won't throw
+															public M apply(final CRUDOK<M> op) {
+																M entity = op.getOrThrow();	// sure it won't throw
 																return entity;
 															}
 												   })
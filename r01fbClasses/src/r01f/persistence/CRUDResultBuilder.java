@@ -57,6 +57,13 @@ import r01f.validation.ObjectValidationResults.ObjectValidationResultNOK;
  * 													   .because(error)
  * 														 	.about(myEntityOid);
  * </pre>
+ * If many entities are loaded at once (a {@link CRUDOK} or {@link CRUDError} is added for every entity):
+ * <pre class='brush:java'>
+ * 		CRUDOnMultipleOK<MyEntity> opsResult = CRUDResultBuilder.using(userContext)
+ * 																.on(MyEntity.class)
+ * 																.loadedMultiple();
+ * 		opsResult.addOperationOK(CRUDResultBuilder.using(userContext).on(MyEntity.class).loaded().entity(myEntityInstance));
+ * </pre>
  * If multiple entities are affected by the operation (ie: the deletion of all entity versions)
  * <pre class='brush:java'>
  * 		CRUDResultOnMultipleEntities<MyEntity> opResult = CRUDResultBuilder.using(userContext)
@@ -175,6 +182,20 @@ public class CRUDResultBuilder
 														 		 _entityType,
 														 		 PersistenceRequestedOperation.DELETE,PersistencePerformedOperation.DELETED);
 		}
+		// --------- MULTIPLE
+		/**
+		 * Starts a multiple load result: a {@link CRUDOK} (loaded) or a {@link CRUDError} (ie not found) 
+		 * MUST be added for every requested entity
+		 * @return
+		 */
+		public CRUDOnMultipleOK<T> loadedMultiple() {
+			return new CRUDOnMultipleOK<T>(_entityType,
+										   PersistenceRequestedOperation.LOAD,PersistencePerformedOperation.LOADED);
+		}
+		public CRUDResultBuilderForMultipleErrorStep<T> notLoadedMultiple() {
+			return new CRUDResultBuilderForMultipleErrorStep<T>(_entityType,
+																PersistenceRequestedOperation.LOAD);
+		}
 		// --------- MULTIPLE SUCCESS
 		@SuppressWarnings("unchecked")
 		public <MV extends PersistableModelObject<? extends OIDForVersionableModelObject> & HasVersionableFacet>
@@ -250,6 +271,32 @@ public class CRUDResultBuilder
 		}
 	}
 	@RequiredArgsConstructor(access=AccessLevel.PRIVATE)
+	public class CRUDResultBuilderForMultipleErrorStep<T> {
+		protected final Class<T> _entityType;
+		protected final PersistenceRequestedOperation _requestedOp;
+		
+		public CRUDOnMultipleError<T> because(final Throwable th) {
+			return new CRUDOnMultipleError<T>(_entityType,
+											  _requestedOp,
+											  th);
+		}
+		public CRUDOnMultipleError<T> becauseClientCannotConnectToServer(final Url serverUrl) {
+			return new CRUDOnMultipleError<T>(_entityType,
+											  _requestedOp,
+											  Strings.customized("Cannot connect to server at {}",serverUrl),PersistenceErrorType.CLIENT_CANNOT_CONNECT_SERVER);
+		}
+		public CRUDOnMultipleError<T> becauseServerError(final String errData,final Object... vars) {
+			return new CRUDOnMultipleError<T>(_entityType,
+											  _requestedOp,
+											  Strings.customized(errData,vars),PersistenceErrorType.SERVER_ERROR);
+		}
+		public CRUDOnMultipleError<T> becauseClientBadRequest(final String msg,final Object... vars) {
+			return new CRUDOnMultipleError<T>(_entityType,
+											  _requestedOp,
+											  Strings.customized(msg,vars),PersistenceErrorType.BAD_REQUEST_DATA);
+		}
+	}
+	@RequiredArgsConstructor(access=AccessLevel.PRIVATE)
 	public class CRUDResultBuilderForErrorAboutStep<T> { 
 		protected final UserContext _userContext;
 		protected final CRUDError<T> _err;
@@ -25,6 +25,12 @@ public class FindOIDsOK<O extends OID>
 	 */
 	@XmlAttribute(name="modelObjType")
 	@Getter @Setter private Class<? extends PersistableModelObject<? extends OID>> _modelObjectType;
+	/**
+	 * When the oids are found page by page (keyset pagination), the cursor used to get 
+	 * the next page (null if this is the last page)
+	 */
+	@XmlAttribute(name="nextPageCursor")
+	@Getter @Setter private String _nextPageCursor;
 	
 /////////////////////////////////////////////////////////////////////////////////////////
 //  CONSTRUCTOR & BUILDER
@@ -43,6 +49,12 @@ public class FindOIDsOK<O extends OID>
 /////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return true if there's a cursor to get the next page of oids
+	 */
+	public boolean hasNextPageCursor() {
+		return _nextPageCursor != null;
+	}
 	@Override
 	public FindOIDsError<O> asCRUDError() {
 		throw new ClassCastException();
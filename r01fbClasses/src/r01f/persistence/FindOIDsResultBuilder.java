@@ -25,6 +25,13 @@ import com.google.common.collect.Lists;
  * 											    		    .on(MyEntity.class)
  * 												  	   			.foundEntitiesWithOids(myEntityOids);
  * </pre>
+ * If the oids are found page by page (keyset pagination):
+ * <pre class='brush:java'>
+ * 		FindOIDsOK<MyEntityOID> opOK = FindOIDsResultBuilder.using(userContext)
+ * 											    		    .on(MyEntity.class)
+ * 												  	   			.foundEntitiesPageWithOids(myEntityOids,
+ * 																						   nextPageCursor);
+ * </pre>
  * If an error is raised while executing an entity find operation:
  * <pre class='brush:java'>
  * 		FindError<MyEntityOID> opError = FindOIDsResultBuilder.using(userContext)
@@ -78,6 +85,18 @@ public class FindOIDsResultBuilder
 			outFoundOids.setOperationExecResult(oids);	
 			return outFoundOids;
 		}
+		/**
+		 * A page of oids when the oids are found page by page (keyset pagination)
+		 * @param oids this page oids
+		 * @param nextPageCursor the cursor to get the next page (null if it's the last page)
+		 * @return
+		 */
+		public <O extends OID> FindOIDsOK<O> foundEntitiesPageWithOids(final Collection<O> oids,
+																	   final String nextPageCursor) {
+			FindOIDsOK<O> outFoundOids = this.foundEntitiesWithOids(oids);
+			outFoundOids.setNextPageCursor(nextPageCursor);
+			return outFoundOids;
+		}
 		public <O extends OID> FindOIDsOK<O> noEntityFound() {
 			FindOIDsOK<O> outFoundOids = new FindOIDsOK<O>();
 			outFoundOids.setModelObjectType(_entityType);
@@ -0,0 +1,174 @@
+package r01f.persistence.db;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Map;
+
+import r01f.exceptions.Throwables;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Acceso tipado a la fila actual de un {@link ResultSet} recorrido en modo streaming 
+ * (ver {@link DBSQLExecutor#query(String,java.util.List,int,DBRowHandler)})
+ * Los nombres de las columnas se obtienen UNA sola vez de los metadatos del {@link ResultSet}
+ * y se puede acceder a las columnas por nombre (sin distinguir mayusculas / minusculas) o por posicion (empezando en 1)
+ * <pre class='brush:java'>
+ *		sqlExec.query("SELECT OID,NAME,CREATE_DATE FROM MY_TABLE",null,
+ *					  500,		// fetch size
+ *					  new DBRowHandler() {
+ *							@Override
+ *							public void handle(final DBRow row) throws SQLException {
+ *								String oid = row.getString("OID");
+ *								Date createDate = row.getDate("CREATE_DATE");
+ *								...
+ *							}
+ *					  });
+ * </pre>
+ * IMPORTANTE!! la instancia es la MISMA para todas las filas: apunta a la fila actual del {@link ResultSet}
+ * 				asi que NO hay que guardarla ya que solo es valida durante el tratamiento de la fila
+ */
+public class DBRow {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  ESTADO
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final ResultSet _rs;
+	private final String[] _columnNames;
+	private final Map<String,Integer> _columnIndexes;
+	
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	private DBRow(final ResultSet rs) throws SQLException {
+		_rs = rs;
+		ResultSetMetaData metaData = rs.getMetaData();
+		int columnCount = metaData.getColumnCount();
+		_columnNames = new String[columnCount];
+		_columnIndexes = Maps.newHashMapWithExpectedSize(columnCount);
+		for (int i=1; i <= columnCount; i++) {
+			String colName = metaData.getColumnName(i).toUpperCase();
+			_columnNames[i-1] = colName;
+			if (!_columnIndexes.containsKey(colName)) _columnIndexes.put(colName,i);		// the first column with the name
+		}
+	}
+	/**
+	 * Crea el acceso a las filas de un {@link ResultSet}
+	 * @param rs
+	 * @return
+	 * @throws SQLException
+	 */
+	public static DBRow of(final ResultSet rs) throws SQLException {
+		return new DBRow(rs);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  COLUMNAS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return el numero de columnas
+	 */
+	public int getColumnCount() {
+		return _columnNames.length;
+	}
+	/**
+	 * @param index posicion de la columna (empezando en 1)
+	 * @return el nombre de la columna (en mayusculas)
+	 */
+	public String getColumnName(final int index) {
+		return _columnNames[index-1];
+	}
+	/**
+	 * @param colName
+	 * @return la posicion de la columna (empezando en 1)
+	 * @throws SQLException si la consulta no devuelve la columna
+	 */
+	public int getColumnIndex(final String colName) throws SQLException {
+		Integer outIndex = _columnIndexes.get(colName.toUpperCase());
+		if (outIndex == null) throw new SQLException(Throwables.message("The column {} is NOT returned by the query",colName));
+		return outIndex;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  VALORES (null si la columna es null)
+/////////////////////////////////////////////////////////////////////////////////////////
+	public String getString(final String colName) throws SQLException {
+		return _rs.getString(this.getColumnIndex(colName));
+	}
+	public String getString(final int index) throws SQLException {
+		return _rs.getString(index);
+	}
+	public Long getLong(final String colName) throws SQLException {
+		return this.getLong(this.getColumnIndex(colName));
+	}
+	public Long getLong(final int index) throws SQLException {
+		long outValue = _rs.getLong(index);
+		return _rs.wasNull() ? null : outValue;
+	}
+	public Integer getInteger(final String colName) throws SQLException {
+		return this.getInteger(this.getColumnIndex(colName));
+	}
+	public Integer getInteger(final int index) throws SQLException {
+		int outValue = _rs.getInt(index);
+		return _rs.wasNull() ? null : outValue;
+	}
+	public Double getDouble(final String colName) throws SQLException {
+		return this.getDouble(this.getColumnIndex(colName));
+	}
+	public Double getDouble(final int index) throws SQLException {
+		double outValue = _rs.getDouble(index);
+		return _rs.wasNull() ? null : outValue;
+	}
+	public BigDecimal getBigDecimal(final String colName) throws SQLException {
+		return _rs.getBigDecimal(this.getColumnIndex(colName));
+	}
+	public BigDecimal getBigDecimal(final int index) throws SQLException {
+		return _rs.getBigDecimal(index);
+	}
+	public Boolean getBoolean(final String colName) throws SQLException {
+		return this.getBoolean(this.getColumnIndex(colName));
+	}
+	public Boolean getBoolean(final int index) throws SQLException {
+		boolean outValue = _rs.getBoolean(index);
+		return _rs.wasNull() ? null : outValue;
+	}
+	/**
+	 * @return la fecha (con hora) de la columna
+	 */
+	public Date getDate(final String colName) throws SQLException {
+		return this.getDate(this.getColumnIndex(colName));
+	}
+	public Date getDate(final int index) throws SQLException {
+		Timestamp ts = _rs.getTimestamp(index);
+		return ts != null ? new Date(ts.getTime()) : null;
+	}
+	public byte[] getBytes(final String colName) throws SQLException {
+		return _rs.getBytes(this.getColumnIndex(colName));
+	}
+	public byte[] getBytes(final int index) throws SQLException {
+		return _rs.getBytes(index);
+	}
+	public Object getObject(final String colName) throws SQLException {
+		return _rs.getObject(this.getColumnIndex(colName));
+	}
+	public Object getObject(final int index) throws SQLException {
+		return _rs.getObject(index);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Copia la fila actual a un mapa con la estructura nombreColumna|valor 
+	 * (el formato de {@link DBSQLExecutor#query(String,java.util.List)})
+	 * @return
+	 * @throws SQLException
+	 */
+	public Map<String,String> asMap() throws SQLException {
+		Map<String,String> outMap = Maps.newHashMapWithExpectedSize(_columnNames.length);
+		for (int i=1; i <= _columnNames.length; i++) {
+			outMap.put(_columnNames[i-1],_rs.getString(i));
+		}
+		return outMap;
+	}
+}
@@ -0,0 +1,18 @@
+package r01f.persistence.db;
+
+import java.sql.SQLException;
+
+/**
+ * Trata cada una de las filas de una consulta a medida que se leen de la base de datos
+ * (ver {@link DBSQLExecutor#query(String,java.util.List,int,DBRowHandler)}) 
+ * de forma que NO se mantienen todas las filas en memoria
+ */
+public interface DBRowHandler {
+	/**
+	 * Trata una fila 
+	 * (si se lanza una excepcion se aborta la consulta)
+	 * @param row la fila actual (la instancia SOLO es valida durante la llamada)
+	 * @throws SQLException
+	 */
+	public void handle(final DBRow row) throws SQLException;
+}
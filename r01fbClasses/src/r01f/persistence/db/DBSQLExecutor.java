@@ -21,6 +21,20 @@ public interface DBSQLExecutor {
      */
     public List<Map<String,String>> query(final String querySql,
     						 			  final List<String> params) throws SQLException;
+    /**
+     * Consulta con parametros sobre la base de datos tratando cada fila a medida que se lee
+     * (las filas NO se mantienen en memoria: ver {@link DBRow})
+     * @param querySql Sentencia a ejecutar.
+     * @param params Parametros a incorporar en la query.
+     * @param fetchSize numero de filas que se leen de la base de datos en cada viaje (0 para utilizar el valor por defecto del driver)
+     * @param rowHandler trata cada fila
+     * @return el numero de filas tratadas
+     * @throws SQLException si ocurre algun error
+     */
+    public int query(final String querySql,
+    				 final List<String> params,
+    				 final int fetchSize,
+    				 final DBRowHandler rowHandler) throws SQLException;
     /**
      * Insert sin parametros sobre la base de datos
      * @param insertSQL Sentencia a ejecutar
@@ -63,4 +77,13 @@ public interface DBSQLExecutor {
      */
     public void delete(final String deleteSQL,
     				   final List<String> params) throws SQLException;
+    /**
+     * Ejecuta en batch (JDBC) una sentencia con distintos parametros
+     * @param sql Sentencia a ejecutar (insert, update o delete)
+     * @param paramsList los parametros de cada ejecucion
+     * @return el numero de filas afectadas por cada ejecucion
+     * @throws SQLException si ocurre algun error
+     */
+    public int[] executeBatch(final String sql,
+    						  final List<List<String>> paramsList) throws SQLException;
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package r01f.persistence.index;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import r01f.debug.Debuggable;
+import r01f.model.jobs.EnqueuedJob;
+import r01f.model.jobs.EnqueuedJobOID;
+import r01f.model.jobs.EnqueuedJobStatus;
+import r01f.util.types.Strings;
+
+/**
+ * The result of a batch index operation (index / update index / remove from index a batch of model objects)
+ * Besides the {@link EnqueuedJob} info, it reports the number of processed documents and the throughput (docs/sec)
+ * <pre class='brush:java'>
+ * 		IndexBatchResult result = indexApi.indexBatch(modelObjects);
+ * 		log.info("{} docs indexed at {} docs/sec",result.getNumberOfDocsProcessed(),result.getDocsPerSecond());
+ * </pre>
+ */
+@XmlRootElement(name="indexBatchResult")
+@Accessors(prefix="_")
+public class IndexBatchResult
+     extends EnqueuedJob
+  implements Debuggable {
+
+	private static final long serialVersionUID = -3364010768960468624L;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The batch operation
+	 */
+	@XmlAttribute(name="operation")
+	@Getter @Setter private IndexBatchOperation _operation;
+	/**
+	 * The number of documents handed to the batch
+	 */
+	@XmlAttribute(name="docsRequested")
+	@Getter @Setter private int _numberOfDocsRequested;
+	/**
+	 * The number of documents successfully processed
+	 */
+	@XmlAttribute(name="docsProcessed")
+	@Getter @Setter private int _numberOfDocsProcessed;
+	/**
+	 * The number of documents that could NOT be processed
+	 */
+	@XmlAttribute(name="docsFailed")
+	@Getter @Setter private int _numberOfDocsFailed;
+	/**
+	 * The time it took to process the batch (including the commit)
+	 */
+	@XmlAttribute(name="elapsedMilis")
+	@Getter @Setter private long _elapsedMilis;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	public IndexBatchResult() {
+		// nothing
+	}
+	public IndexBatchResult(final EnqueuedJobOID jobOid,
+							final IndexBatchOperation operation,
+							final int numberOfDocsRequested,final int numberOfDocsProcessed,final int numberOfDocsFailed,
+							final long elapsedMilis) {
+		this(jobOid,
+			 operation,
+			 numberOfDocsRequested,numberOfDocsProcessed,numberOfDocsFailed,
+			 elapsedMilis,
+			 null);	// no detail
+	}
+	public IndexBatchResult(final EnqueuedJobOID jobOid,
+							final IndexBatchOperation operation,
+							final int numberOfDocsRequested,final int numberOfDocsProcessed,final int numberOfDocsFailed,
+							final long elapsedMilis,
+							final String detail) {
+		super(jobOid,
+			  numberOfDocsFailed == 0 ? EnqueuedJobStatus.FINALIZED_OK
+					  				  : EnqueuedJobStatus.FINALIZED_ERROR,
+			  detail);
+		_operation = operation;
+		_numberOfDocsRequested = numberOfDocsRequested;
+		_numberOfDocsProcessed = numberOfDocsProcessed;
+		_numberOfDocsFailed = numberOfDocsFailed;
+		_elapsedMilis = elapsedMilis;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return the throughput of the batch: number of processed documents per second
+	 */
+	public double getDocsPerSecond() {
+		if (_elapsedMilis <= 0) return _numberOfDocsProcessed;
+		return _numberOfDocsProcessed * 1000D / _elapsedMilis;
+	}
+	/**
+	 * @return true if all the documents were processed
+	 */
+	public boolean haveAllSucceeded() {
+		return _numberOfDocsFailed == 0
+			&& _numberOfDocsProcessed == _numberOfDocsRequested;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public CharSequence debugInfo() {
+		return Strings.customized("{} batch: {} docs requested, {} processed, {} failed in {} milis ({} docs/sec)",
+								  _operation,
+								  _numberOfDocsRequested,_numberOfDocsProcessed,_numberOfDocsFailed,
+								  _elapsedMilis,String.format("%.2f",this.getDocsPerSecond()));
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Batch index operations
+	 */
+	public static enum IndexBatchOperation {
+		INDEX,
+		UPDATE_INDEX,
+		UNINDEX;
+	}
+}
@@ -0,0 +1,253 @@
+package r01f.reflection.scanner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import r01f.util.types.collections.CollectionUtils;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+
+/**
+ * An index of the types of every jar built with the {@link TypeIndexAnnotationProcessor}
+ * (the {@link #INDEX_RESOURCE} resources) used to find sub-types and annotated types WITHOUT
+ * scanning the classpath (only the matching types are loaded)
+ * <pre class='brush:java'>
+ * 		TypeIndex index = TypeIndex.get();
+ * 		if (index.isAvailable()) {
+ * 			Set<Class<? extends ServiceInterface>> types = index.getSubTypesOf(ServiceInterface.class,
+ * 																			   Arrays.asList("myapp.services"));
+ * 		}
+ * </pre>
+ * Only the types at jars (or classpath dirs) built with the processor are indexed so the finders MUST merge
+ * the indexed types with the types found scanning the classpath roots that do NOT ship an index:
+ * <pre class='brush:java'>
+ * 		Set<Class<?>> types = index.getTypesAnnotatedWith(MyAnnotation.class,pckgs);
+ * 		Collection<URL> notIndexedUrls = index.notIndexed(ClasspathHelper.forPackage(pckg));
+ * 		if (CollectionUtils.hasData(notIndexedUrls)) types.addAll(... scan the not indexed urls ...);
+ * </pre>
+ * (the index can be disabled with the -Dr01f.typeindex.disabled=true system property: every root is scanned)
+ */
+@Slf4j
+@Accessors(prefix="_")
+public class TypeIndex {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The index resource at every jar
+	 */
+	public static final String INDEX_RESOURCE = TypeIndexFormat.INDEX_RESOURCE;
+
+	private static final boolean DISABLED = Boolean.getBoolean("r01f.typeindex.disabled");
+/////////////////////////////////////////////////////////////////////////////////////////
+//  STATIC STATE
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final LoadingCache<ClassLoader,TypeIndex> INDEXES = CacheBuilder.newBuilder()
+																				   .weakKeys()
+																				   .build(new CacheLoader<ClassLoader,TypeIndex>() {
+																								@Override
+																								public TypeIndex load(final ClassLoader classLoader) {
+																									return TypeIndex.forClassLoader(classLoader);
+																								}
+																				   		  });
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final ClassLoader _classLoader;
+	/**
+	 * super type name to sub-types names
+	 */
+	private final Multimap<String,String> _subTypes = HashMultimap.create();
+	/**
+	 * annotation name to annotated types (or sub-types of annotated types) names
+	 */
+	private final Multimap<String,String> _annotatedTypes = HashMultimap.create();
+	/**
+	 * The classpath roots (jar or dir urls) that ship an index
+	 */
+	private final Set<String> _indexedRoots = Sets.newHashSet();
+	/**
+	 * The number of index resources found (usually one per jar)
+	 */
+	@Getter private int _indexResourceCount;
+	/**
+	 * The number of indexed types
+	 */
+	@Getter private int _indexedTypeCount;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	private TypeIndex(final ClassLoader classLoader) {
+		_classLoader = classLoader;
+	}
+	/**
+	 * Returns the index of the types visible from the context class loader (or the r01f class loader)
+	 * The index is loaded only once per class loader
+	 * @return
+	 */
+	public static TypeIndex get() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		if (classLoader == null) classLoader = TypeIndex.class.getClassLoader();
+		return TypeIndex.get(classLoader);
+	}
+	/**
+	 * Returns the index of the types visible from the given class loader
+	 * The index is loaded only once per class loader
+	 * @param classLoader
+	 * @return
+	 */
+	public static TypeIndex get(final ClassLoader classLoader) {
+		return INDEXES.getUnchecked(classLoader);
+	}
+	/**
+	 * Loads the index of the types visible from the given class loader
+	 * @param classLoader
+	 * @return
+	 */
+	public static TypeIndex forClassLoader(final ClassLoader classLoader) {
+		TypeIndex outIndex = new TypeIndex(classLoader);
+		if (DISABLED) {
+			log.info("The type index is disabled (-Dr01f.typeindex.disabled=true): the classpath will be scanned");
+			return outIndex;
+		}
+		long start = System.currentTimeMillis();
+		try {
+			Enumeration<URL> indexResources = classLoader.getResources(INDEX_RESOURCE);
+			while (indexResources.hasMoreElements()) {
+				URL indexResource = indexResources.nextElement();
+				outIndex._load(indexResource);
+			}
+		} catch(IOException ioEx) {
+			log.warn("Could NOT load the type index resources ({}): {}",INDEX_RESOURCE,ioEx.getMessage());
+		}
+		log.info("Type index: {} types from {} index resources loaded in {} millis",
+				 outIndex._indexedTypeCount,outIndex._indexResourceCount,System.currentTimeMillis() - start);
+		return outIndex;
+	}
+	private void _load(final URL indexResource) throws IOException {
+		log.debug("...loading type index from {}",indexResource);
+		String indexResourceUrl = indexResource.toExternalForm();
+		_indexedRoots.add(indexResourceUrl.substring(0,indexResourceUrl.length() - INDEX_RESOURCE.length()));	// ie: jar:file:/.../my.jar!/
+		BufferedReader r = new BufferedReader(new InputStreamReader(indexResource.openStream(),Charsets.UTF_8));
+		try {
+			for (String entry = r.readLine(); entry != null; entry = r.readLine()) {
+				String typeName = TypeIndexFormat.typeNameOf(entry);
+				if (typeName == null) continue;
+				for (String superType : TypeIndexFormat.superTypesOf(entry)) _subTypes.put(superType,typeName);
+				for (String annot : TypeIndexFormat.annotationsOf(entry)) _annotatedTypes.put(annot,typeName);
+				_indexedTypeCount++;
+			}
+			_indexResourceCount++;
+		} finally {
+			r.close();
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  QUERY
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return true if at least an index resource was found
+	 */
+	public boolean isAvailable() {
+		return _indexResourceCount > 0;
+	}
+	/**
+	 * Returns true if the given url is a classpath root (or a resource inside a classpath root) that ships an index
+	 * (the url MUST be in the form returned by the class loader, ie: jar:file:/.../my.jar!/my/package)
+	 * @param url
+	 * @return
+	 */
+	public boolean isIndexed(final URL url) {
+		if (_indexedRoots.isEmpty()) return false;
+		String urlStr = url.toExternalForm();
+		if (!urlStr.endsWith("/")) urlStr = urlStr + "/";
+		for (String root : _indexedRoots) {
+			if (urlStr.startsWith(root)) return true;
+		}
+		return false;
+	}
+	/**
+	 * Returns the given urls that do NOT ship an index: they must be scanned
+	 * @param urls
+	 * @return
+	 */
+	public List<URL> notIndexed(final Collection<URL> urls) {
+		if (CollectionUtils.isNullOrEmpty(urls)) return Lists.newArrayList();
+		List<URL> outUrls = Lists.newArrayListWithExpectedSize(urls.size());
+		for (URL url : urls) {
+			if (!this.isIndexed(url)) outUrls.add(url);
+		}
+		return outUrls;
+	}
+	/**
+	 * Returns the sub-types (classes extending or interfaces / classes implementing) of the given type
+	 * at the given packages (or sub-packages)
+	 * @param superType
+	 * @param pckgNames the packages (all if null or empty)
+	 * @return the sub-types or an empty set if none is indexed (the not indexed roots MUST be scanned, see {@link #notIndexed(Collection)})
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Set<Class<? extends T>> getSubTypesOf(final Class<T> superType,
+													 final Collection<String> pckgNames) {
+		Set<Class<? extends T>> outTypes = Sets.newLinkedHashSet();
+		for (Class<?> type : _load(_subTypes.get(superType.getName()),pckgNames)) {
+			if (superType.isAssignableFrom(type)) outTypes.add((Class<? extends T>)type);
+		}
+		return outTypes;
+	}
+	/**
+	 * Returns the types annotated with the given annotation (or extending / implementing an annotated type
+	 * as org.reflections does) at the given packages (or sub-packages)
+	 * @param annotation
+	 * @param pckgNames the packages (all if null or empty)
+	 * @return the types or an empty set if none is indexed (the not indexed roots MUST be scanned, see {@link #notIndexed(Collection)})
+	 */
+	public Set<Class<?>> getTypesAnnotatedWith(final Class<? extends Annotation> annotation,
+											   final Collection<String> pckgNames) {
+		return _load(_annotatedTypes.get(annotation.getName()),pckgNames);
+	}
+	private Set<Class<?>> _load(final Collection<String> typeNames,
+								final Collection<String> pckgNames) {
+		if (CollectionUtils.isNullOrEmpty(typeNames)) return Sets.newLinkedHashSet();
+		Set<Class<?>> outTypes = Sets.newLinkedHashSet();
+		for (String typeName : typeNames) {
+			if (!_isInPackages(typeName,pckgNames)) continue;
+			try {
+				outTypes.add(Class.forName(typeName,false,			// do NOT initialize the type
+										   _classLoader));
+			} catch(ClassNotFoundException cnfEx) {
+				log.warn("The indexed type {} could NOT be loaded: {}",typeName,cnfEx.getMessage());
+			} catch(LinkageError linkErr) {
+				log.warn("The indexed type {} could NOT be loaded: {}",typeName,linkErr.getMessage());
+			}
+		}
+		return outTypes;
+	}
+	private static boolean _isInPackages(final String typeName,
+										 final Collection<String> pckgNames) {
+		if (CollectionUtils.isNullOrEmpty(pckgNames)) return true;
+		for (String pckg : pckgNames) {
+			if (typeName.startsWith(pckg)
+			 && (typeName.length() == pckg.length() || typeName.charAt(pckg.length()) == '.')) return true;
+		}
+		return false;
+	}
+}
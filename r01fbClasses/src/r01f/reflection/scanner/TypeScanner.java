@@ -2,6 +2,8 @@ package r01f.reflection.scanner;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
@@ -166,8 +168,11 @@ public class TypeScanner<T> {
         if (packageNames == null) return this;
 
         TypeScannerTest test = new IsA(parent);
+        TypeIndex typeIndex = TypeIndex.get(this.getClassLoader());
+        _findAtTypeIndex(test,typeIndex.getSubTypesOf(parent,Arrays.asList(packageNames)));
         for (String pkg : packageNames) {
-            find(test, pkg);
+            _findAtNotIndexed(test,pkg,
+            				  typeIndex);
         }
         return this;
     }
@@ -183,8 +188,11 @@ public class TypeScanner<T> {
         if (packageNames == null) return this;
 
         TypeScannerTest test = new AnnotatedWith(annotation);
+        TypeIndex typeIndex = TypeIndex.get(this.getClassLoader());
+        _findAtTypeIndex(test,typeIndex.getTypesAnnotatedWith(annotation,Arrays.asList(packageNames)));
         for (String pkg : packageNames) {
-            find(test, pkg);
+            _findAtNotIndexed(test,pkg,
+            				  typeIndex);
         }
         return this;
     }
@@ -211,6 +219,36 @@ public class TypeScanner<T> {
         }
         return this;
     }
+    /**
+     * Adds the types found at the build-time {@link TypeIndex} that pass the test
+     * (only the classpath roots that ship an index are there: the others MUST be scanned)
+     */
+    @SuppressWarnings("unchecked")
+	private void _findAtTypeIndex(final TypeScannerTest test,
+    							  final Collection<? extends Class<?>> indexedTypes) {
+    	for (Class<?> type : indexedTypes) {
+    		if (test.matches(type)) matches.add((Class<T>)type);
+    	}
+    }
+    /**
+     * Same as {@link #find(TypeScannerTest, String)} BUT skipping the classpath roots whose types are at the {@link TypeIndex}
+     */
+    private void _findAtNotIndexed(final TypeScannerTest test,
+    							   final String packageName,
+    							   final TypeIndex typeIndex) {
+        String path = _getPackagePath(packageName);
+        try {
+        	VFS vfs = VFS.getInstance();
+        	for (URL url : VFS._getResources(path)) {
+        		if (typeIndex.isIndexed(url)) continue;
+        		for (String child : vfs._list(url,path)) {
+        			if (child.endsWith(".class")) _addIfMatching(test, child);
+        		}
+        	}
+        } catch (IOException ioe) {
+            log.error("Could not read package: {}",packageName,ioe);
+        }
+    }
 /////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,164 @@
+package r01f.resources;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Watches the files behind the resources using a {@link WatchService} (the os file change notifications)
+ * so the resources are NOT checked (or re-parsed) if they didn't change
+ * <ul>
+ * 		<li>A single daemon thread receives the change events of all the watched files' directories</li>
+ * 		<li>Every watched file has a {@link WatchedFileState}: a change counter and the timestamp of the last change event.
+ * 			The reload controls just compare the counter with the last seen one (see {@link ResourcesReloadControlFileWatchBased})</li>
+ * </ul>
+ * The watcher is only started when the first file is watched
+ */
+@Slf4j
+final class ResourcesFileWatcher {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SINGLETON
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final class ResourcesFileWatcherHolder {
+		private static final ResourcesFileWatcher INSTANCE = new ResourcesFileWatcher();
+	}
+	static ResourcesFileWatcher get() {
+		return ResourcesFileWatcherHolder.INSTANCE;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The watch service (null if it could NOT be created: the files are NOT watched)
+	 */
+	private final WatchService _watchService;
+	/**
+	 * The watched directories
+	 */
+	private final ConcurrentMap<java.nio.file.Path,WatchKey> _watchedDirs = new ConcurrentHashMap<java.nio.file.Path,WatchKey>();
+	/**
+	 * The watched files state by absolute path
+	 */
+	private final ConcurrentMap<java.nio.file.Path,WatchedFileState> _watchedFiles = new ConcurrentHashMap<java.nio.file.Path,WatchedFileState>();
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	private ResourcesFileWatcher() {
+		WatchService watchService = null;
+		try {
+			watchService = FileSystems.getDefault().newWatchService();
+		} catch(IOException ioEx) {
+			log.error("Could NOT create the resources file watch service: the resources will NOT be reloaded when changed: {}",ioEx.getMessage(),ioEx);
+		}
+		_watchService = watchService;
+		if (_watchService == null) return;
+
+		// the events thread is started once the watch service is set
+		Thread watcherThread = new Thread(new Runnable() {
+												@Override
+												public void run() {
+													_processEvents();
+												}
+										  },
+										  "r01f-resources-file-watcher");
+		watcherThread.setDaemon(true);
+		watcherThread.start();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Starts watching a file (if it's NOT already watched)
+	 * @param file
+	 * @return the watched file state or null if the file cannot be watched
+	 */
+	WatchedFileState watch(final File file) {
+		if (_watchService == null || file == null) return null;
+		java.nio.file.Path filePath = file.toPath().toAbsolutePath().normalize();
+		WatchedFileState outState = _watchedFiles.get(filePath);
+		if (outState != null) return outState;
+
+		java.nio.file.Path dir = filePath.getParent();
+		if (dir == null) return null;
+		try {
+			if (!_watchedDirs.containsKey(dir)) {
+				WatchKey key = dir.register(_watchService,
+											StandardWatchEventKinds.ENTRY_CREATE,
+											StandardWatchEventKinds.ENTRY_MODIFY,
+											StandardWatchEventKinds.ENTRY_DELETE);
+				_watchedDirs.putIfAbsent(dir,key);
+			}
+		} catch(IOException ioEx) {
+			log.warn("Could NOT watch the directory {}: the resource at {} will NOT be reloaded when changed: {}",
+					 dir,filePath,ioEx.getMessage());
+			return null;
+		}
+		WatchedFileState newState = new WatchedFileState();
+		outState = _watchedFiles.putIfAbsent(filePath,newState);
+		if (outState == null) {
+			outState = newState;
+			log.info("...watching {} for changes",filePath);
+		}
+		return outState;
+	}
+	private void _processEvents() {
+		while (true) {
+			WatchKey key = null;
+			try {
+				key = _watchService.take();
+			} catch(InterruptedException intEx) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			java.nio.file.Path dir = (java.nio.file.Path)key.watchable();
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+					// some events were lost: every file in the dir is considered changed
+					for (java.nio.file.Path filePath : _watchedFiles.keySet()) {
+						if (dir.equals(filePath.getParent())) _watchedFiles.get(filePath).changed();
+					}
+					continue;
+				}
+				java.nio.file.Path filePath = dir.resolve((java.nio.file.Path)event.context());
+				WatchedFileState state = _watchedFiles.get(filePath);
+				if (state != null) {
+					state.changed();
+					log.debug("{} event for watched file {}",event.kind(),filePath);
+				}
+			}
+			if (!key.reset()) _watchedDirs.remove(dir);		// the directory is NOT accessible anymore
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  WATCHED FILE STATE
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The change state of a watched file
+	 * (a burst of events just increments the counter and updates the last change timestamp)
+	 */
+	static final class WatchedFileState {
+		private final AtomicLong _changeCount = new AtomicLong(0);
+		private volatile long _lastChangeTimeStamp;
+
+		void changed() {
+			_lastChangeTimeStamp = System.currentTimeMillis();
+			_changeCount.incrementAndGet();
+		}
+		long getChangeCount() {
+			return _changeCount.get();
+		}
+		long getLastChangeTimeStamp() {
+			return _lastChangeTimeStamp;
+		}
+	}
+}
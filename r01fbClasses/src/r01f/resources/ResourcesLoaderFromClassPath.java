@@ -1,7 +1,9 @@
 package r01f.resources;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.Map;
@@ -74,4 +76,19 @@ public class ResourcesLoaderFromClassPath
         }
         return outResourceIS;
     }
+	/**
+	 * Returns the file behind a resource (used to watch the file for changes)
+	 * @param resourcePath
+	 * @return the file or null if the resource is NOT a file (ie: it's inside a jar)
+	 */
+	File fileFor(final Path resourcePath) {
+		URL url = ResourcesLoaderFromClassPath.class.getClassLoader()
+													.getResource(resourcePath.asRelativeString());
+		if (url == null || !"file".equals(url.getProtocol())) return null;
+		try {
+			return new File(url.toURI());
+		} catch(URISyntaxException uriEx) {
+			return new File(url.getPath());
+		}
+	}
 }
@@ -1,5 +1,6 @@
 package r01f.resources;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -31,4 +32,12 @@ public class ResourcesLoaderFromFileSystem
         InputStream fileIS = new FileInputStream(resourceName.asAbsoluteString());
         return fileIS;
     }
+	/**
+	 * Returns the file behind a resource (used to watch the file for changes)
+	 * @param resourceName
+	 * @return
+	 */
+	File fileFor(final Path resourceName) {
+		return new File(resourceName.asAbsoluteString());
+	}
 }
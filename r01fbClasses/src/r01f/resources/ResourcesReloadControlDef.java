@@ -22,7 +22,7 @@ import r01f.xmlproperties.XMLProperties;
  * Usually comes from a {@link XMLProperties} file:<br>
  * <pre class="brush:xml">
  *		<resourcesLoader type='CLASSPATH'>
- *			<!-- PERIODIC, BBDD, CONTENT_SERVER_FILE_LAST_MODIF_TIMESTAMP, FILE_LAST_MODIF_TIMESTAMP, VOID -->
+ *			<!-- PERIODIC, BBDD, CONTENT_SERVER_FILE_LAST_MODIF_TIMESTAMP, FILE_LAST_MODIF_TIMESTAMP, FILE_WATCH, VOID -->
  *			<reloadControl impl='PERIODIC' enabled='true' checkInterval='2s'>
  *				<props>
  *					<period>2s</period>
@@ -62,7 +62,8 @@ public class ResourcesReloadControlDef
 		NO_RELOAD,
 		BBDD,
 		PERIODIC,
-		FILE_LAST_MODIF_TIMESTAMP;
+		FILE_LAST_MODIF_TIMESTAMP,
+		FILE_WATCH;
 	}
 ///////////////////////////////////////////////////////////////////////////////
 // 	VALOR POR DEFECTO (sin recarga)
@@ -115,6 +116,9 @@ public class ResourcesReloadControlDef
 		case FILE_LAST_MODIF_TIMESTAMP:
 			outCtrl = new ResourcesReloadControlFileLastModifTimeStampBased(this);
 			break;
+		case FILE_WATCH:
+			outCtrl = new ResourcesReloadControlFileWatchBased(this);
+			break;
 		case NO_RELOAD:
 			// nothing
 			break;
@@ -136,6 +136,47 @@ public class ResourcesReloadControlDefBuilder
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * <pre class='brush:java'>
+	 * 		ResourcesReloadControlDef def = ResourcesReloadControlDef.createForFileWatching()
+	 * 																 .debouncingFor("1s")
+	 * 																 .checkingIfReloadIsNeededEvery(1000)
+	 * 																 .enabled();	
+	 * </pre>
+	 * Checking if a reload is needed is just a memory lookup so the check interval can be short
+	 * @return a builder for a file watch based reloading
+	 */
+	public static ResourcesReloadControlBuilderFileWatchDebounceStep createForFileWatching() {
+		ResourcesReloadControlDef outDef = new ResourcesReloadControlDef(ResourcesReloadPolicy.FILE_WATCH);
+		outDef.setControlProps(new HashMap<String,String>(1));
+		return new ResourcesReloadControlDefBuilder()
+						.new ResourcesReloadControlBuilderFileWatchDebounceStep(outDef);
+	}
+	@RequiredArgsConstructor(access=AccessLevel.PRIVATE)
+	public class ResourcesReloadControlBuilderFileWatchDebounceStep {
+		private final ResourcesReloadControlDef _reloadControlDef;
+		
+		/**
+		 * Sets the time a file must NOT change before it's reloaded
+		 * @param milis the debounce time in milliseconds
+		 */
+		public ResourcesReloadControlBuilderCheckStep debouncingFor(final long milis) {
+			_reloadControlDef.getControlProps()
+							 .put(ResourcesReloadControlFileWatchBased.DEBOUNCE_PROP_KEY,Long.toString(milis));
+			return new ResourcesReloadControlBuilderCheckStep(_reloadControlDef);
+		}
+		public ResourcesReloadControlBuilderCheckStep debouncingFor(final String timeSpec) {
+			long millis = TimeLapse.createFor(timeSpec)
+								   .asMilis();
+			return this.debouncingFor(millis);
+		}
+		public ResourcesReloadControlBuilderCheckStep withDefaultDebounce() {
+			return this.debouncingFor(ResourcesReloadControlFileWatchBased.DEFAULT_DEBOUNCE_MILIS);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  
 /////////////////////////////////////////////////////////////////////////////////////////
 	/**
 	 * <pre class='brush:java'>
@@ -0,0 +1,138 @@
+package r01f.resources;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import lombok.extern.slf4j.Slf4j;
+import r01f.resources.ResourcesFileWatcher.WatchedFileState;
+import r01f.types.Path;
+import r01f.types.TimeLapse;
+import r01f.util.types.Strings;
+
+
+/**
+ * Reload policy implemented by watching the resource files for changes using the os file change notifications
+ * (see {@link ResourcesFileWatcher}).<br>
+ * Unlike {@link ResourcesReloadControlPeriodic} a resource is reloaded ONLY if it's file changed and unlike
+ * {@link ResourcesReloadControlFileLastModifTimeStampBased} the file is NOT accessed to know if it changed,
+ * so checking if a reload is needed is just a memory lookup.<br>
+ *
+ * The watched files are the ones loaded by {@link ResourcesLoaderFromFileSystem} or {@link ResourcesLoaderFromClassPath}
+ * (only if the classpath resource is a file -not inside a jar-); any other resource is never reloaded.<br>
+ *
+ * The params (the {@link Map} provided to the constructor) are optional:<br>
+ * <ul>
+ * <li>The debounce time: a file is NOT reloaded until this time has passed without changes
+ * 	   (editors usually save a file with a burst of events)
+ * 		<pre>
+ * 		ie: 	500 (500 milis)
+ * 				2s (2 seconds)
+ * 		</pre>
+ * </li></ul>
+ */
+@Slf4j
+public class ResourcesReloadControlFileWatchBased
+     extends ResourcesReloadControlBase<ResourcesReloadControlFileWatchBased> {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	static final String DEBOUNCE_PROP_KEY = "debounce";
+	static final long DEFAULT_DEBOUNCE_MILIS = 500;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The watched resources by name (component or bundle)
+	 */
+	private final ConcurrentMap<String,WatchedResource> _watchedResources = new ConcurrentHashMap<String,WatchedResource>();
+	/**
+	 * Debounce time
+	 */
+	private long _debounceMilis = DEFAULT_DEBOUNCE_MILIS;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	public ResourcesReloadControlFileWatchBased() {
+		// nothing
+	}
+	public ResourcesReloadControlFileWatchBased(final ResourcesReloadControlDef resCtrlDef) {
+		super(resCtrlDef);
+		_debounceMilis = _debounceMilisFrom(resCtrlDef.getControlProps());
+	}
+	@Override
+	boolean _checkProperties(final Map<String,String> props) {
+		return _debounceMilisFrom(props) >= 0;		// the debounce prop is optional
+	}
+	private static long _debounceMilisFrom(final Map<String,String> props) {	// -1 if the spec is NOT valid
+		String debounce = props != null ? props.get(DEBOUNCE_PROP_KEY) : null;
+		if (Strings.isNullOrEmpty(debounce)) return DEFAULT_DEBOUNCE_MILIS;
+		return TimeLapse.createFor(debounce)
+						.asMilis();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Starts watching the file behind a resource
+	 * (it MUST be called BEFORE the resource is loaded so a change while loading is NOT lost)
+	 * @param resourceName the resource name as it's handed to {@link #needsReload(String)}
+	 * @param resLoader the loader used to load the resource
+	 * @param resourcePath the resource path
+	 */
+	public void watch(final String resourceName,
+					  final ResourcesLoader resLoader,final Path resourcePath) {
+		File file = null;
+		if (resLoader instanceof ResourcesLoaderFromFileSystem) {
+			file = ((ResourcesLoaderFromFileSystem)resLoader).fileFor(resourcePath);
+		} else if (resLoader instanceof ResourcesLoaderFromClassPath) {
+			file = ((ResourcesLoaderFromClassPath)resLoader).fileFor(resourcePath);
+		}
+		WatchedFileState fileState = file != null ? ResourcesFileWatcher.get().watch(file)
+												  : null;
+		if (fileState == null) {
+			log.debug("The resource {} ({}) is NOT a watchable file: it will NOT be reloaded",
+					  resourceName,resourcePath);
+			_watchedResources.remove(resourceName);
+			return;
+		}
+		_watchedResources.put(resourceName,
+							  new WatchedResource(fileState));
+	}
+///////////////////////////////////////////////////////////////////////////////////////////
+//  ResourcesReloadControl
+///////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public boolean needsReload(final String component) {
+		WatchedResource res = _watchedResources.get(component);
+		if (res == null) return false;
+		return res.changedAndSettled(_debounceMilis);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  WATCHED RESOURCE
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final class WatchedResource {
+		private final WatchedFileState _fileState;
+		private final long _seenChangeCount;
+		private volatile boolean _reloadNotified;
+
+		WatchedResource(final WatchedFileState fileState) {
+			_fileState = fileState;
+			_seenChangeCount = fileState.getChangeCount();
+		}
+		/**
+		 * @return true only once if the file changed since it was loaded
+		 * 		   and it has NOT changed during the debounce time
+		 */
+		boolean changedAndSettled(final long debounceMilis) {
+			if (_reloadNotified || _fileState.getChangeCount() == _seenChangeCount) return false;
+			if (System.currentTimeMillis() - _fileState.getLastChangeTimeStamp() < debounceMilis) return false;
+			synchronized(this) {
+				if (_reloadNotified) return false;
+				_reloadNotified = true;		// the resource is reloaded and watched again
+			}
+			return true;
+		}
+	}
+}
@@ -16,10 +16,12 @@ import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 import lombok.extern.slf4j.Slf4j;
 import r01f.exceptions.Throwables;
 import r01f.reflection.ReflectionUtils;
+import r01f.reflection.scanner.TypeIndex;
 import r01f.services.ServiceIDs.ClientApiAppAndModule;
 import r01f.services.ServiceIDs.ClientApiAppCode;
 import r01f.services.ServiceIDs.ClientApiModule;
@@ -57,13 +59,25 @@ public class ServicesPackages {
 	public static <T> Set<Class<? extends T>> findSubTypesAt(final Class<T> superType,
 													  		 final List<String> pckgNames,
 													  		 final ClassLoader otherClassLoader) {
+		// [0] - Use the build-time type index for the classpath roots that ship one (see TypeIndexAnnotationProcessor)
+		TypeIndex typeIndex = otherClassLoader != null ? TypeIndex.get(otherClassLoader)
+													   : TypeIndex.get();
+		Set<Class<? extends T>> indexedSubTypes = typeIndex.isAvailable() ? typeIndex.getSubTypesOf(superType,
+																									pckgNames)
+																		  : null;
+		if (CollectionUtils.hasData(indexedSubTypes)) log.info("...found {} subtypes of {} at packages {} using the type index",indexedSubTypes.size(),superType,pckgNames);
+		
+		// [1] - Scan the classpath roots that do NOT ship an index
 		Set<Class<? extends T>> outSubTypes = null;
 		
 		log.info("...finding subtypes of {} at packages {} (BEWARE that every type between the type to be found and the supertype MUST be accesible in the package names list)",superType,pckgNames);
-		List<URL> pckgUrls = _urlsForPackages(pckgNames,
-											  otherClassLoader);
+		List<URL> allPckgUrls = _urlsForPackages(pckgNames,
+											  	 otherClassLoader);
+		List<URL> pckgUrls = typeIndex.notIndexed(allPckgUrls);
 		
-		if (CollectionUtils.isNullOrEmpty(pckgUrls)) {
+		if (CollectionUtils.hasData(allPckgUrls) && CollectionUtils.isNullOrEmpty(pckgUrls)) {
+			log.debug("...every classpath root with packages {} ships a type index: nothing to scan",pckgNames);
+		} else if (CollectionUtils.isNullOrEmpty(pckgUrls)) {
 			log.error("Could NOT get any URL for packages {} from any classloader!!!",pckgNames);
 			// The org.reflections' ClasspathHelper.forPackage method, at the end does: 
 	        // 		for (ClassLoader classLader : ClasspathHelper.classLoaders()) {
@@ -108,7 +122,12 @@ public class ServicesPackages {
 												})
 										.toSet();
 		}
-		return outSubTypes;
+		// [2] - Merge the indexed types and the scanned types
+		if (CollectionUtils.isNullOrEmpty(indexedSubTypes)) return outSubTypes;
+		if (CollectionUtils.isNullOrEmpty(outSubTypes)) return indexedSubTypes;
+		Set<Class<? extends T>> outAllSubTypes = Sets.newLinkedHashSet(indexedSubTypes);
+		outAllSubTypes.addAll(outSubTypes);
+		return outAllSubTypes;
 	}
 	private static ClassLoader[] _scanClassLoaders(final ClassLoader otherClassLoader) {
 		ClassLoader[] outClassLoaders =	ClasspathHelper.classLoaders(ClasspathHelper.staticClassLoader(),
@@ -1,5 +1,9 @@
 package r01f.services.client.api.delegates;
 
+import java.util.Collection;
+
+import com.google.common.collect.Sets;
+
 import lombok.extern.slf4j.Slf4j;
 import r01f.aspects.interfaces.dirtytrack.ConvertToDirtyStateTrackable;
 import r01f.aspects.interfaces.dirtytrack.DirtyStateTrackable;
@@ -7,11 +11,13 @@ import r01f.exceptions.Throwables;
 import r01f.guids.OID;
 import r01f.marshalling.Marshaller;
 import r01f.model.PersistableModelObject;
+import r01f.persistence.CRUDOnMultipleResult;
 import r01f.persistence.CRUDResult;
 import r01f.persistence.PersistenceException;
 import r01f.services.interfaces.CRUDServicesForModelObject;
 import r01f.types.dirtytrack.DirtyTrackAdapter;
 import r01f.usercontext.UserContext;
+import r01f.util.types.collections.CollectionUtils;
 
 /**
  * Adapts Persistence API method invocations to the service proxy that performs the core method invocations
@@ -72,6 +78,29 @@ public abstract class ClientAPIDelegateForModelObjectCRUDServices<O extends OID,
 		}
 		return outRecord;
 	}
+	/**
+	 * Loads many records at once using a single call instead of calling {@link #load(OID)} for every record
+	 * The NOT found records are NOT returned (use {@link #existsAll(Collection)} if all of them must exist)
+	 * @param oids
+	 * @return the found records (an empty collection if none was found)
+	 * @throws PersistenceException if the records could NOT be loaded
+	 */
+	public Collection<M> loadAll(final Collection<O> oids) throws PersistenceException {
+		if (CollectionUtils.isNullOrEmpty(oids)) return Sets.newLinkedHashSet();
+		
+		CRUDOnMultipleResult<M> loadOpResults = this.getServiceProxy()
+														.loadAll(this.getUserContext(),
+																 oids);
+		Collection<M> outRecords = loadOpResults.getSuccessfulOperationsOrThrow();
+		if (outRecords == null) return Sets.newLinkedHashSet();		// none was found
+		
+		for (M record : outRecords) {
+			if (record instanceof DirtyStateTrackable) {
+				ClientAPIModelObjectChangesTrack.startTrackingChangesOnLoaded(record);
+			}
+		}
+		return outRecords;
+	}
 	/**
 	 * Checks a record existence
 	 * @param oid
@@ -79,7 +108,20 @@ public abstract class ClientAPIDelegateForModelObjectCRUDServices<O extends OID,
 	 * @throws PersistenceException
 	 */
 	public boolean exists(final O oid) throws PersistenceException {
-		return this.loadOrNull(oid) != null;
+		return this.getServiceProxy()
+						.exists(this.getUserContext(),
+								oid);
+	}
+	/**
+	 * Checks the existence of many records at once
+	 * @param oids
+	 * @return true if ALL the records exist
+	 * @throws PersistenceException
+	 */
+	public boolean existsAll(final Collection<O> oids) throws PersistenceException {
+		return this.getServiceProxy()
+						.existsAll(this.getUserContext(),
+								   oids);
 	}
 	/**
 	 * Updates a record. This method is usually used when {@link DirtyStateTrackable} aspect is NOT being used
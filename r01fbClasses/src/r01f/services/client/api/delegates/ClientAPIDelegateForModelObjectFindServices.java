@@ -9,6 +9,7 @@ import r01f.guids.OID;
 import r01f.marshalling.Marshaller;
 import r01f.model.PersistableModelObject;
 import r01f.model.facets.Versionable;
+import r01f.persistence.FindOIDsOK;
 import r01f.persistence.FindOIDsResult;
 import r01f.persistence.PersistenceOperationResult;
 import r01f.services.interfaces.FindServicesForModelObject;
@@ -52,6 +53,28 @@ public abstract class ClientAPIDelegateForModelObjectFindServices<O extends OID,
 		Collection<O> outOids = findResult.getOrThrow();
 		return outOids;
 	}	
+	/**
+	 * Finds all persisted model object oids page by page (keyset pagination)
+	 * <pre class='brush:java'>
+	 * 		FindOIDsOK<MyOID> page = api.findAllPage(null,100);		// first page
+	 * 		while (page.hasNextPageCursor()) {
+	 * 			page = api.findAllPage(page.getNextPageCursor(),100);
+	 * 		}
+	 * </pre>
+	 * @param cursor the cursor returned alongside the previous page or null for the first page
+	 * @param pageSize
+	 * @return the page oids (see {@link FindOIDsOK#getOrThrow()}) and the next page cursor
+	 */
+	public FindOIDsOK<O> findAllPage(final String cursor,final int pageSize) {
+		FindOIDsResult<O> findResult = this.getServiceProxy()
+												.findAllPage(this.getUserContext(),
+															 cursor,pageSize);
+		
+		log.debug(findResult.debugInfo().toString());
+		
+		findResult.getOrThrow();		// throws if the find failed
+		return findResult.asCRUDOK();
+	}
 	/**
 	 * Finds all persisted model object which create date is in the provided range
 	 * If the entity is a {@link Versionable}  {@link PersistableModelObject}, it returns the 
@@ -6,6 +6,7 @@ import r01f.guids.OID;
 import r01f.marshalling.Marshaller;
 import r01f.model.IndexableModelObject;
 import r01f.model.jobs.EnqueuedJob;
+import r01f.persistence.index.IndexBatchResult;
 import r01f.services.interfaces.IndexServicesForModelObject;
 import r01f.usercontext.UserContext;
 
@@ -117,4 +118,37 @@ public abstract class ClientAPIDelegateForModelObjectIndexServices<O extends OID
 		return this.getServiceProxy()
 						.reIndexAll(this.getUserContext());
 	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BATCH
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Indexes a batch of model objects in a single call
+	 * @param modelObjects
+	 * @return the batch result (including the throughput)
+	 */
+	public IndexBatchResult indexBatch(final Collection<M> modelObjects) {
+		return this.getServiceProxy()
+						.indexBatch(this.getUserContext(),
+									modelObjects);
+	}
+	/**
+	 * Updates the indexed info for a batch of model objects in a single call
+	 * @param modelObjects
+	 * @return the batch result (including the throughput)
+	 */
+	public IndexBatchResult updateIndexBatch(final Collection<M> modelObjects) {
+		return this.getServiceProxy()
+						.updateIndexBatch(this.getUserContext(),
+										  modelObjects);
+	}
+	/**
+	 * Un-Indexes a batch of model objects in a single call
+	 * @param oids
+	 * @return the batch result (including the throughput)
+	 */
+	public IndexBatchResult removeFromIndexBatch(final Collection<O> oids) {
+		return this.getServiceProxy()
+						.removeFromIndexBatch(this.getUserContext(),
+											  oids);
+	}
 }
@@ -7,6 +7,7 @@ import lombok.experimental.Accessors;
 import r01f.marshalling.Marshaller;
 import r01f.model.search.SearchFilter;
 import r01f.model.search.SearchResultItem;
+import r01f.model.search.SearchResultItemsHandler;
 import r01f.model.search.SearchResults;
 import r01f.services.interfaces.SearchServices;
 import r01f.usercontext.UserContext;
@@ -67,6 +68,16 @@ public abstract class ClientAPIDelegateForModelObjectSearchServices<F extends Se
 			return new ClientAPIDelegateForModelObjectSearchServicesPageStep2(_filter,
 																			  firstItemNum);
 		}
+		/**
+		 * Pages with a cursor: the page after the one the cursor was returned with
+		 * (see {@link SearchResults#getNextPageCursor()}); a null cursor returns the first page
+		 * @param cursor
+		 * @return
+		 */
+		public ClientAPIDelegateForModelObjectSearchServicesCursorStep afterCursor(final String cursor) {
+			return new ClientAPIDelegateForModelObjectSearchServicesCursorStep(_filter,
+																			   cursor);
+		}
 		public SearchResults<F,I> firstPageOfSize(final int numberOfItems) {
 			return ClientAPIDelegateForModelObjectSearchServices.this.getServiceProxy()
 																	 .filterRecords(ClientAPIDelegateForModelObjectSearchServices.this.getUserContext(),
@@ -79,6 +90,17 @@ public abstract class ClientAPIDelegateForModelObjectSearchServices<F extends Se
 																			 		_filter,
 																			 		0,SEARCH_RESULT_PAGE_SIZE);
 		}
+		/**
+		 * Hands ALL the results to the handler as they're got (the results are NOT kept in memory)
+		 * @param handler
+		 * @return the number of handled items
+		 */
+		public int all(final SearchResultItemsHandler<I> handler) {
+			return ClientAPIDelegateForModelObjectSearchServices.this.getServiceProxy()
+																	 .filterRecords(ClientAPIDelegateForModelObjectSearchServices.this.getUserContext(),
+																			 		_filter,
+																			 		handler);
+		}
 	}
 	@RequiredArgsConstructor(access=AccessLevel.PRIVATE)
 	public class ClientAPIDelegateForModelObjectSearchServicesPageStep2 {		
@@ -98,4 +120,22 @@ public abstract class ClientAPIDelegateForModelObjectSearchServices<F extends Se
 																			 		_firstItemNum,SEARCH_RESULT_PAGE_SIZE);
 		}
 	}
+	@RequiredArgsConstructor(access=AccessLevel.PRIVATE)
+	public class ClientAPIDelegateForModelObjectSearchServicesCursorStep {		
+		private final F _filter;
+		private final String _cursor;
+		
+		public SearchResults<F,I> returning(final int numberOfItems) {
+			return ClientAPIDelegateForModelObjectSearchServices.this.getServiceProxy()
+																	 .filterRecords(ClientAPIDelegateForModelObjectSearchServices.this.getUserContext(),
+																			 		_filter,
+																			 		_cursor,numberOfItems);
+		}
+		public SearchResults<F,I> returningTheDefaultNumberOfItems() {
+			return ClientAPIDelegateForModelObjectSearchServices.this.getServiceProxy()
+																	 .filterRecords(ClientAPIDelegateForModelObjectSearchServices.this.getUserContext(),
+																			 		_filter,
+																			 		_cursor,SEARCH_RESULT_PAGE_SIZE);
+		}
+	}
 }
@@ -13,6 +13,11 @@ import r01f.services.ServiceProxyException;
 import r01f.types.url.Url;
 import r01f.util.types.Strings;
 
+/**
+ * Raw REST calls
+ * The userContext header value is usually a compact user context token (see {@link r01f.usercontext.UserContextTokens#tokenFor(Marshaller, r01f.usercontext.UserContext)})
+ * instead of the user context xml
+ */
 @Slf4j
 public abstract class DelegateForRawREST {
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -58,6 +63,22 @@ public abstract class DelegateForRawREST {
 		}
 		return outHttpResponse;
 	}
+	public static HttpResponse HEAD(final Url restResourceUrl,
+								    final String userContextXml) {
+		log.trace("\t\tHEAD resource: {}",restResourceUrl);
+			
+		HttpResponse outHttpResponse = null;
+		try {
+			outHttpResponse = HttpClient.forUrl(restResourceUrl)
+									    .withHeader("userContext",userContextXml)
+									    .HEAD()
+									  		.getResponse();
+		} catch(IOException ioEx) {
+			log.error("Error while HEADing {}: {}",restResourceUrl,ioEx.getMessage());
+			throw new ServiceProxyException(ioEx);
+		}
+		return outHttpResponse;
+	}
 	public static HttpResponse POST(final Url restResourceUrl,
 									final String userContextXml,
 							     	final String entityXml,
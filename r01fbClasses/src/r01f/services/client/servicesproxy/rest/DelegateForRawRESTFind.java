@@ -12,6 +12,7 @@ import r01f.types.url.Url;
 import r01f.types.url.UrlQueryStringParam;
 import r01f.types.url.Urls;
 import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextTokens;
 
 @Slf4j
 public class DelegateForRawRESTFind<O extends OID,M extends PersistableModelObject<O>>
@@ -54,7 +55,7 @@ public class DelegateForRawRESTFind<O extends OID,M extends PersistableModelObje
 	public FindOIDsResult<O> doFindOids(final UserContext userContext,
 										final Url restResourceUrl) {
 		// do the http call
-		String userContextXml = _marshaller.xmlFromBean(userContext);
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		HttpResponse httpResponse = DelegateForRawREST.GET(restResourceUrl,
 												 		   userContextXml);
 		// map the response
@@ -71,7 +72,7 @@ public class DelegateForRawRESTFind<O extends OID,M extends PersistableModelObje
 	public FindResult<M> doFindEntities(final UserContext userContext,
 										final Url restResourceUrl) {
 		// do the http call
-		String userContextXml = _marshaller.xmlFromBean(userContext);
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		HttpResponse httpResponse = DelegateForRawREST.GET(restResourceUrl,
 												 		   userContextXml);
 		// map the response
@@ -95,7 +96,7 @@ public class DelegateForRawRESTFind<O extends OID,M extends PersistableModelObje
 			theRESResourceURL = restResourceUrl;
 		}
 		// do the http call
-		String userContextXml = _marshaller.xmlFromBean(userContext);
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		HttpResponse httpResponse = DelegateForRawREST.GET(theRESResourceURL,
 												 		   userContextXml);
 		// map the response
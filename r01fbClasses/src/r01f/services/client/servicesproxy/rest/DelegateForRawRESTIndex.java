@@ -1,6 +1,7 @@
 package r01f.services.client.servicesproxy.rest;
 
 import java.io.IOException;
+import java.util.Collection;
 
 import lombok.extern.slf4j.Slf4j;
 import r01f.httpclient.HttpClient;
@@ -9,9 +10,12 @@ import r01f.httpclient.HttpResponse;
 import r01f.marshalling.Marshaller;
 import r01f.mime.MimeTypes;
 import r01f.model.jobs.EnqueuedJob;
+import r01f.persistence.index.IndexBatchResult;
+import r01f.persistence.index.IndexBatchResult.IndexBatchOperation;
 import r01f.services.ServiceProxyException;
 import r01f.types.url.Url;
 import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextTokens;
 
 @Slf4j
 public class DelegateForRawRESTIndex 
@@ -32,7 +36,7 @@ public class DelegateForRawRESTIndex
 		log.trace("\t\tINDEX resource: {}",restResourceUrl);
 		
 		// [1] - Serialize params
-		String userContextXml = _marshaller.xmlFromBean(userContext);
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		String dataXml = _marshaller.xmlFromBean(data);
 		
 		// [2] - Do http request
@@ -71,7 +75,7 @@ public class DelegateForRawRESTIndex
 		log.trace("\t\tINDEX resource: {}",restResourceUrl);
 		
 		// [1] - Serialize params
-		String userContextXml = _marshaller.xmlFromBean(userContext);
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		String dataXml = _marshaller.xmlFromBean(data);
 		
 		// [2] - Do http request
@@ -113,7 +117,7 @@ public class DelegateForRawRESTIndex
 		log.trace("\t\tUN INDEX resource: {}",restResourceUrl);
 		
 		// [1] - Serialize params
-		String userContextXml = _marshaller.xmlFromBean(userContext);
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		String dataXml = data != null ? _marshaller.xmlFromBean(data) : null;
 		
 		// [2] - Do http request
@@ -147,6 +151,75 @@ public class DelegateForRawRESTIndex
 		return outJob;
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
+//  BATCH
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Sends a batch of model objects (index / update index) or oids (un-index) in a single request:
+	 * <ul>
+	 * 		<li>index: POST {resource}/batch</li>
+	 * 		<li>update index: PUT {resource}/batch</li>
+	 * 		<li>un-index: POST {resource}/batch/unindex (a DELETE request does NOT carry a payload)</li>
+	 * </ul>
+	 * @param restResourceUrl the url of the batch resource (the un-index sub-resource url if the operation is un-index)
+	 * @param userContext
+	 * @param operation
+	 * @param data
+	 * @return
+	 */
+	public IndexBatchResult processBatch(final Url restResourceUrl,
+										 final UserContext userContext,
+										 final IndexBatchOperation operation,
+										 final Collection<?> data) {
+		log.trace("\t\t{} BATCH resource: {}",operation,restResourceUrl);
+		
+		// [1] - Serialize params
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
+		String dataXml = _marshaller.xmlFromBean(data);
+		
+		// [2] - Do http request
+		HttpResponse httpResponse = null;
+		try {
+			switch(operation) {
+			case INDEX:
+				httpResponse = HttpClient.forUrl(restResourceUrl)		
+							             .withHeader("userContext",userContextXml)
+							             .POST()
+							             	.withPayload(HttpRequestPayload.wrap(dataXml)
+							             								   .mimeType(MimeTypes.APPLICATION_XML))
+										 .getResponse();
+				break;
+			case UPDATE_INDEX:
+				httpResponse = HttpClient.forUrl(restResourceUrl)		
+							             .withHeader("userContext",userContextXml)
+							             .PUT()
+							             	.withPayload(HttpRequestPayload.wrap(dataXml)
+							             								   .mimeType(MimeTypes.APPLICATION_XML))
+										 .getResponse();
+				break;
+			case UNINDEX:
+				httpResponse = HttpClient.forUrl(restResourceUrl)		
+							             .withHeader("userContext",userContextXml)
+							             .POST()
+							             	.withPayload(HttpRequestPayload.wrap(dataXml)
+							             								   .mimeType(MimeTypes.APPLICATION_XML))
+										 .getResponse();
+				break;
+			default:
+				throw new IllegalArgumentException();
+			}
+		} catch(IOException ioEx) {
+			throw new ServiceProxyException(ioEx);
+		}
+		
+		// [3] - De-serialize response
+		IndexBatchResult outResult = this.getResponseToResultMapper()
+												.mapHttpResponse(userContext,
+														  		 restResourceUrl,
+														  		 httpResponse,
+														  		 IndexBatchResult.class);
+		return outResult;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
 	public EnqueuedJob mapHttpResponseForEnqueuedJob(final UserContext userContext,
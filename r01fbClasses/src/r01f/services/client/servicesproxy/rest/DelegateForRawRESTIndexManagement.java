@@ -14,6 +14,7 @@ import r01f.persistence.index.IndexManagementCommand;
 import r01f.services.ServiceProxyException;
 import r01f.types.url.Url;
 import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextTokens;
 import r01f.util.types.Strings;
 
 @Slf4j
@@ -34,7 +35,7 @@ public class DelegateForRawRESTIndexManagement
 		log.trace("\t\tINDEX resource: {}",restResourceUrl);
 		
 		// [1] - Serialize params
-		String userContextXml = userContext != null ? _marshaller.xmlFromBean(userContext) : null;
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		String dataXml = _marshaller.xmlFromBean(indexCmd);
 		
 		// [2] - Do http request
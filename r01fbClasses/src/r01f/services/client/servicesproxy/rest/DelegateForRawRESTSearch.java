@@ -3,6 +3,7 @@ package r01f.services.client.servicesproxy.rest;
 import java.io.IOException;
 
 import lombok.extern.slf4j.Slf4j;
+import r01f.exceptions.Throwables;
 import r01f.httpclient.HttpClient;
 import r01f.httpclient.HttpRequestURLEncodedParameter;
 import r01f.httpclient.HttpResponse;
@@ -10,10 +11,13 @@ import r01f.marshalling.Marshaller;
 import r01f.model.search.SearchFilter;
 import r01f.model.search.SearchFilterAsCriteriaString;
 import r01f.model.search.SearchResultItem;
+import r01f.model.search.SearchResultItemsHandler;
+import r01f.model.search.SearchResultItemsStream;
 import r01f.model.search.SearchResults;
 import r01f.services.ServiceProxyException;
 import r01f.types.url.Url;
 import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextTokens;
 
 @Slf4j
 public class DelegateForRawRESTSearch<F extends SearchFilter,I extends SearchResultItem>
@@ -35,7 +39,7 @@ public class DelegateForRawRESTSearch<F extends SearchFilter,I extends SearchRes
 		
 		
 		// [1] - Serialize params
-		String userContextXml = _marshaller.xmlFromBean(userContext);
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		SearchFilterAsCriteriaString filterCriteriaStr = filter.toCriteriaString();
 		
 		// [2] - Do http request
@@ -59,6 +63,90 @@ public class DelegateForRawRESTSearch<F extends SearchFilter,I extends SearchRes
 																			      httpResponse);
 		return outSearchResult;
 	}
+	/**
+	 * Searches paging with a cursor: the cursor returned alongside the previous page is sent back
+	 * (no cursor is sent to get the first page)
+	 * @param restResourceUrl
+	 * @param userContext
+	 * @param filter
+	 * @param cursor
+	 * @param numberOfRows
+	 * @return
+	 */
+	public SearchResults<F,I> doSEARCH(final Url restResourceUrl,
+									   final UserContext userContext,
+ 								       final SearchFilter filter,
+ 								       final String cursor,final int numberOfRows) {
+		log.trace("\t\tSEARCH resource (cursor paging): {}",restResourceUrl);
+		
+		// [1] - Serialize params
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
+		SearchFilterAsCriteriaString filterCriteriaStr = filter.toCriteriaString();
+		
+		// [2] - Do http request
+		HttpResponse httpResponse = null;
+		try {
+			HttpRequestURLEncodedParameter[] params = cursor != null 
+						? new HttpRequestURLEncodedParameter[] {HttpRequestURLEncodedParameter.of(filterCriteriaStr.asString()).withName("filter"),
+															    HttpRequestURLEncodedParameter.of(cursor).withName("cursor"),
+															    HttpRequestURLEncodedParameter.of(numberOfRows).withName("items")}
+						: new HttpRequestURLEncodedParameter[] {HttpRequestURLEncodedParameter.of(filterCriteriaStr.asString()).withName("filter"),
+															    HttpRequestURLEncodedParameter.of(numberOfRows).withName("items")};
+			httpResponse = HttpClient.forUrl(restResourceUrl)		
+						             .withHeader("userContext",userContextXml)
+									 .withURLParameters(params)
+									 .GET()
+									 	.getResponse();
+		} catch(IOException ioEx) {
+			log.error("Error connecting to {}",restResourceUrl,ioEx);
+			throw new ServiceProxyException(ioEx);
+		}		
+		
+		// [2] - De-serialize response
+		SearchResults<F,I> outSearchResult = this.mapHttpResponseForSearchResults(userContext,
+																			      restResourceUrl,
+																			      httpResponse);
+		return outSearchResult;
+	}
+	/**
+	 * Searches ALL the records: the server streams the items (a chunked response: see {@link SearchResultItemsStream})
+	 * and every item is handed to the handler as it's received so the whole result set is NEVER kept in memory
+	 * @param restResourceUrl
+	 * @param userContext
+	 * @param filter
+	 * @param handler
+	 * @return the number of handled items
+	 */
+	public int doSEARCH(final Url restResourceUrl,
+						final UserContext userContext,
+						final SearchFilter filter,
+						final SearchResultItemsHandler<I> handler) {
+		log.trace("\t\tSEARCH resource (streamed): {}",restResourceUrl);
+		
+		// [1] - Serialize params
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
+		SearchFilterAsCriteriaString filterCriteriaStr = filter.toCriteriaString();
+		
+		// [2] - Do http request & de-serialize every received item
+		int outCount = 0;
+		try {
+			HttpResponse httpResponse = HttpClient.forUrl(restResourceUrl)		
+									              .withHeader("userContext",userContextXml)
+									              .withHeader("Accept",SearchResultItemsStream.MEDIA_TYPE)
+												  .withURLParameters(HttpRequestURLEncodedParameter.of(filterCriteriaStr.asString()).withName("filter"))
+												  .GET()
+												  	.getResponse();
+			if (!httpResponse.isSuccess()) throw new ServiceProxyException(Throwables.message("Error streaming the search results from {}: {} {}",
+																							  restResourceUrl,httpResponse.getCodeNumber(),httpResponse.loadAsString()));
+			outCount = SearchResultItemsStream.read(_marshaller,
+													httpResponse.loadAsStream(),
+													handler);
+		} catch(IOException ioEx) {
+			log.error("Error connecting to {}",restResourceUrl,ioEx);
+			throw new ServiceProxyException(ioEx);
+		}
+		return outCount;
+	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
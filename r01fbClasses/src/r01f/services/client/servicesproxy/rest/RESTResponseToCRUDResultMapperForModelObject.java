@@ -12,6 +12,7 @@ import r01f.marshalling.Marshaller;
 import r01f.model.PersistableModelObject;
 import r01f.persistence.CRUDError;
 import r01f.persistence.CRUDOK;
+import r01f.persistence.CRUDOnMultipleResult;
 import r01f.persistence.CRUDResult;
 import r01f.persistence.CRUDResultBuilder;
 import r01f.persistence.PersistenceErrorType;
@@ -112,6 +113,47 @@ public class RESTResponseToCRUDResultMapperForModelObject<O extends OID,M extend
 		}
 		return outOperationResult;
 	}
+	/**
+	 * Maps the response of a multiple entities load
+	 * (the NOT found entities are NOT an error: they're returned as not loaded operations)
+	 * @param userContext
+	 * @param restResourceUrl
+	 * @param httpResponse
+	 * @return
+	 */
+	public CRUDOnMultipleResult<M> mapHttpResponseForMultipleLoad(final UserContext userContext,
+																  final Url restResourceUrl,final HttpResponse httpResponse) {
+		CRUDOnMultipleResult<M> outOperationsResults = null;
+		
+		// [0] - Load the http response text
+		String responseStr = httpResponse.loadAsString();		// DO not move!!
+		
+		// [1] - Map the response
+		if (httpResponse.isSuccess()) {
+			if (Strings.isNullOrEmpty(responseStr)) throw new ServiceProxyException(Throwables.message("The REST service {} worked BUT it returned an EMPTY RESPONSE. This is a developer mistake! It MUST return the target entities data",
+																	   								   restResourceUrl));
+			outOperationsResults = _marshaller.beanFromXml(responseStr);
+		} else if (httpResponse.isNotFound()) {
+			outOperationsResults = CRUDResultBuilder.using(userContext)
+													.on(_modelObjectType)
+													.notLoadedMultiple()
+													.becauseClientCannotConnectToServer(restResourceUrl);
+		} else if (httpResponse.isServerError()) {
+			outOperationsResults = CRUDResultBuilder.using(userContext)
+													.on(_modelObjectType)
+													.notLoadedMultiple()
+													.becauseServerError(responseStr);	// the rest endpoint response is the error as TEXT
+		} else {
+			outOperationsResults = CRUDResultBuilder.using(userContext)
+													.on(_modelObjectType)
+													.notLoadedMultiple()
+													.becauseClientBadRequest("The REST service {} rejected the request (http code={}): {}",
+																			 restResourceUrl,httpResponse.getCodeNumber(),
+																			 httpResponse.getSingleValuedHeaderAsString("x-r01-errorMessage"));
+		}
+		// [2] - Return
+		return outOperationsResults;
+	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  SUCCESS
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -115,6 +115,8 @@ public class RESTServiceResourceUrlPathBuilders {
 		public UrlPath pathOfEntity(final O oid);
 		public UrlPath pathOfAllEntities();
 		public UrlPath pathOfEntityList();	
+		public UrlPath pathOfEntityListByOids();
+		public UrlPath pathOfEntityListByOidsExistence();
 		public UrlPath pathOfEntityListByCreateDate(final Range<Date> dateRange);
 		public UrlPath pathOfEntityListByLastUpdateDate(final Range<Date> dateRange);
 		public UrlPath pathOfEntityListByCreator(final UserCode creatorUserCode);
@@ -150,6 +152,21 @@ public class RESTServiceResourceUrlPathBuilders {
 			return Paths.forUrlPaths().join(this.pathOfAllEntities(),
 					   						"list");
 		}
+		@Override
+		public UrlPath pathOfEntityListByOids() {
+			return Paths.forUrlPaths().join(this.pathOfEntityList(),
+					   						"byOids");
+		}
+		/**
+		 * The existence of many entities is checked at a dedicated resource: a HEAD request to 
+		 * {@link #pathOfEntityListByOids()} would be answered by its GET method (the entities would be loaded
+		 * and 200 returned even if some of them does NOT exist)
+		 */
+		@Override
+		public UrlPath pathOfEntityListByOidsExistence() {
+			return Paths.forUrlPaths().join(this.pathOfEntityListByOids(),
+					   						"exists");
+		}
 		@Override @GwtIncompatible("Range NOT usable in GWT")
 		public UrlPath pathOfEntityListByCreateDate(final Range<Date> dateRange) {
 			return Paths.forUrlPaths().join(this.pathOfEntityList(),
@@ -1,17 +1,31 @@
 package r01f.services.client.servicesproxy.rest;
 
+import java.util.Collection;
+import java.util.List;
+
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
+import r01f.exceptions.Throwables;
 import r01f.guids.OID;
 import r01f.httpclient.HttpResponse;
 import r01f.marshalling.Marshaller;
 import r01f.model.PersistableModelObject;
+import r01f.persistence.CRUDOnMultipleOK;
+import r01f.persistence.CRUDOnMultipleResult;
 import r01f.persistence.CRUDResult;
+import r01f.persistence.CRUDResultBuilder;
 import r01f.persistence.PersistenceRequestedOperation;
+import r01f.services.ServiceProxyException;
 import r01f.services.client.servicesproxy.rest.RESTServiceResourceUrlPathBuilders.RESTServiceResourceUrlPathBuilderForModelObjectPersistence;
 import r01f.services.interfaces.CRUDServicesForModelObject;
 import r01f.types.url.Url;
+import r01f.types.url.UrlQueryString;
+import r01f.types.url.UrlQueryStringParam;
 import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextTokens;
+import r01f.util.types.collections.CollectionUtils;
+
+import com.google.common.collect.Iterables;
 
 @Accessors(prefix="_")
 @Slf4j
@@ -26,6 +40,14 @@ public abstract class RESTServicesForDBCRUDProxyBase<O extends OID,M extends Per
 	 */
 	protected final RESTResponseToCRUDResultMapperForModelObject<O,M> _responseToCRUDResultMapper;
 /////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Max number of oids sent at the query string of every multiple load call
+	 * (the url length is limited by most servers & proxies)
+	 */
+	protected static final int LOAD_ALL_MAX_OIDS_PER_CALL = 100;
+/////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////	
 	public <P extends RESTServiceResourceUrlPathBuilderForModelObjectPersistence<O>>
@@ -62,7 +84,7 @@ public abstract class RESTServicesForDBCRUDProxyBase<O extends OID,M extends Per
 		// do the http call
 		Url restResourceUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
 															   			  .pathOfEntity(oid));
-		String ctxXml = _marshaller.xmlFromBean(userContext);
+		String ctxXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		HttpResponse httpResponse = DelegateForRawREST.GET(restResourceUrl,
 										 				   ctxXml);
 		// map the response
@@ -79,12 +101,103 @@ public abstract class RESTServicesForDBCRUDProxyBase<O extends OID,M extends Per
 		return outResponse;
 	}
 	@Override
+	public CRUDOnMultipleResult<M> loadAll(final UserContext userContext,
+										   final Collection<O> oids) {
+		CRUDOnMultipleOK<M> outResults = CRUDResultBuilder.using(userContext)
+														  .on(_modelObjectType)
+														  .loadedMultiple();
+		if (CollectionUtils.isNullOrEmpty(oids)) return outResults;
+		
+		String ctxXml = UserContextTokens.tokenFor(_marshaller,userContext);
+		// a single http call for every block of oids: GET {resource}/list/byOids?oids=oid1,oid2,...
+		for (List<O> oidsBlock : Iterables.partition(oids,LOAD_ALL_MAX_OIDS_PER_CALL)) {
+			Url restResourceUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
+																   			  .pathOfEntityListByOids(),
+													 UrlQueryString.fromParams(UrlQueryStringParam.of("oids",
+															 										  _oidsAsString(oidsBlock))));
+			HttpResponse httpResponse = DelegateForRawREST.GET(restResourceUrl,
+											 				   ctxXml);
+			// map the response
+			CRUDOnMultipleResult<M> blockResults = this.getResponseToCRUDResultMapperForModelObject()
+															.mapHttpResponseForMultipleLoad(userContext,
+																  							restResourceUrl,httpResponse);
+			log.debug("REST GET at resource path={}: {}",restResourceUrl,blockResults.debugInfo());
+			if (blockResults.hasFailed()) return blockResults;		// the whole call failed
+			outResults.addOperations(blockResults.asCRUDOnMultipleOK());
+		}
+		return outResults;
+	}
+	private static <O extends OID> String _oidsAsString(final Collection<O> oids) {
+		StringBuilder outOids = new StringBuilder(oids.size() * 32);
+		for (O oid : oids) {
+			if (oid == null) continue;
+			if (outOids.length() > 0) outOids.append(',');
+			outOids.append(oid.asString());
+		}
+		return outOids.toString();
+	}
+	@Override
+	public boolean exists(final UserContext userContext,
+						  final O oid) {
+		if (oid == null) return false;
+		// do the http call: a HEAD call has no entity body so the entity is NOT transferred
+		Url restResourceUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
+															   			  .pathOfEntity(oid));
+		String ctxXml = UserContextTokens.tokenFor(_marshaller,userContext);
+		HttpResponse httpResponse = DelegateForRawREST.HEAD(restResourceUrl,
+										 				    ctxXml);
+		// map the response: 2xx > exists / 404 > does NOT exist
+		boolean outExists = false;
+		if (httpResponse.isSuccess()) {
+			outExists = true;
+		} else if (httpResponse.isNotFound()) {
+			outExists = false;
+		} else {
+			throw new ServiceProxyException(Throwables.message("Error checking the existence of the {} entity with oid={} at the REST resource {}: http code={}",
+															   _modelObjectType,oid,restResourceUrl,httpResponse.getCodeNumber()));
+		}
+		log.debug("REST HEAD at resource path={}: entity with oid={} exists={}",restResourceUrl,oid,outExists);
+		return outExists;
+	}
+	@Override
+	public boolean existsAll(final UserContext userContext,
+							 final Collection<O> oids) {
+		if (CollectionUtils.isNullOrEmpty(oids)) return true;
+		
+		String ctxXml = UserContextTokens.tokenFor(_marshaller,userContext);
+		// a single HEAD call for every block of oids: HEAD {resource}/list/byOids/exists?oids=oid1,oid2,...
+		// (no entity body is transferred); it stops at the first block with a NOT existing entity
+		// BEWARE! NOT {resource}/list/byOids: the HEAD would be answered by the loadAll GET method with a 200 
+		//		   even if some entity does NOT exist
+		for (List<O> oidsBlock : Iterables.partition(oids,LOAD_ALL_MAX_OIDS_PER_CALL)) {
+			Url restResourceUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
+																   			  .pathOfEntityListByOidsExistence(),
+													 UrlQueryString.fromParams(UrlQueryStringParam.of("oids",
+															 										  _oidsAsString(oidsBlock))));
+			HttpResponse httpResponse = DelegateForRawREST.HEAD(restResourceUrl,
+											 				    ctxXml);
+			// map the response: 2xx > all the block entities exist / 404 > some entity does NOT exist
+			boolean blockExists = false;
+			if (httpResponse.isSuccess()) {
+				blockExists = true;
+			} else if (httpResponse.isNotFound()) {
+				blockExists = false;
+			} else {
+				throw new ServiceProxyException(Throwables.message("Error checking the existence of {} {} entities at the REST resource {}: http code={}",
+																   oidsBlock.size(),_modelObjectType,restResourceUrl,httpResponse.getCodeNumber()));
+			}
+			log.debug("REST HEAD at resource path={}: all the {} entities exist={}",restResourceUrl,oidsBlock.size(),blockExists);
+			if (!blockExists) return false;
+		}
+		return true;
+	}
+	@Override
 	public CRUDResult<M> create(final UserContext userContext,
 								final M entity) {
 		// do the http call
 		Url restResourceUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
 															   			  .pathOfAllEntities());	//   .pathOfEntity(entity.getOid())); 	// _resourcePathForRecord(record,PersistenceRequestedOperation.CREATE);
-		String ctxXml = _marshaller.xmlFromBean(userContext); 		
+		String ctxXml = UserContextTokens.tokenFor(_marshaller,userContext); 		
 		String entityXml = _marshaller.xmlFromBean(entity);
 		HttpResponse httpResponse = DelegateForRawREST.POST(restResourceUrl,
 										  					ctxXml,
@@ -110,7 +223,7 @@ public abstract class RESTServicesForDBCRUDProxyBase<O extends OID,M extends Per
 		// do the http call
 		Url restResourceUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
 													 		   			  .pathOfEntity(entity.getOid())); 	// _resourcePathForRecord(record,PersistenceRequestedOperation.UPDATE);
-		String ctxXml = _marshaller.xmlFromBean(userContext); 	
+		String ctxXml = UserContextTokens.tokenFor(_marshaller,userContext); 	
 		String entityXml = _marshaller.xmlFromBean(entity);
 		HttpResponse httpResponse = DelegateForRawREST.PUT(restResourceUrl,
 										 				   ctxXml,
@@ -134,7 +247,7 @@ public abstract class RESTServicesForDBCRUDProxyBase<O extends OID,M extends Per
 		// do the http call
 		Url restResourceUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
 															   			  .pathOfEntity(oid));
-		String ctxXml = _marshaller.xmlFromBean(userContext);
+		String ctxXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		HttpResponse httpResponse = DelegateForRawREST.DELETE(restResourceUrl,
 															  ctxXml);
 		// map the response
@@ -11,6 +11,8 @@ import r01f.services.client.servicesproxy.rest.RESTServiceResourceUrlPathBuilder
 import r01f.services.interfaces.FindServicesForModelObject;
 import r01f.types.Range;
 import r01f.types.url.Url;
+import r01f.types.url.UrlQueryString;
+import r01f.types.url.UrlQueryStringParam;
 import r01f.usercontext.UserContext;
 
 public abstract class RESTServicesForDBFindProxyBase<O extends OID,M extends PersistableModelObject<O>>
@@ -47,6 +49,19 @@ public abstract class RESTServicesForDBFindProxyBase<O extends OID,M extends Per
 				           				restResourceUrl);
 	}
 	@Override 
+	public FindOIDsResult<O> findAllPage(final UserContext userContext,
+										 final String cursor,final int pageSize) {
+		// GET {resource}?pageSize=n[&cursor=token]
+		UrlQueryString qryString = cursor != null ? UrlQueryString.fromParams(UrlQueryStringParam.of("pageSize",pageSize),
+																			  UrlQueryStringParam.of("cursor",cursor))
+												  : UrlQueryString.fromParams(UrlQueryStringParam.of("pageSize",pageSize));
+		Url restResourceUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
+															   			  .pathOfEntityList(),
+												 qryString);
+		return _findDelegate.doFindOids(userContext,
+				           				restResourceUrl);
+	}
+	@Override 
 	public FindOIDsResult<O> findByCreateDate(final UserContext userContext,
 										  	  final Range<Date> createDate) {
 		Url restResourceUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
@@ -10,6 +10,8 @@ import r01f.model.facets.Facetable;
 import r01f.model.facets.Facetables;
 import r01f.model.facets.HasOID;
 import r01f.model.jobs.EnqueuedJob;
+import r01f.persistence.index.IndexBatchResult;
+import r01f.persistence.index.IndexBatchResult.IndexBatchOperation;
 import r01f.services.client.servicesproxy.rest.RESTServiceResourceUrlPathBuilders.RESTServiceResourceUrlPathBuilderForModelObjectPersistence;
 import r01f.services.interfaces.IndexServicesForModelObject;
 import r01f.types.Path;
@@ -107,6 +109,33 @@ public abstract class RESTServicesForIndexProxyBase<O extends OID,M extends Inde
 	}
 
 /////////////////////////////////////////////////////////////////////////////////////////
+//  BATCH
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public IndexBatchResult indexBatch(final UserContext userContext,
+									   final Collection<M> modelObjects) {
+		return _rawRESTIndexDelegate.processBatch(_indexBatchResourcesUrl(),
+												  userContext,
+												  IndexBatchOperation.INDEX,
+												  modelObjects);
+	}
+	@Override
+	public IndexBatchResult updateIndexBatch(final UserContext userContext,
+									   		 final Collection<M> modelObjects) {
+		return _rawRESTIndexDelegate.processBatch(_indexBatchResourcesUrl(),
+												  userContext,
+												  IndexBatchOperation.UPDATE_INDEX,
+												  modelObjects);
+	}
+	@Override
+	public IndexBatchResult removeFromIndexBatch(final UserContext userContext,
+									   		 	 final Collection<O> oids) {
+		return _rawRESTIndexDelegate.processBatch(_unIndexBatchResourcesUrl(),
+												  userContext,
+												  IndexBatchOperation.UNINDEX,
+												  oids);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
 	private Url _composeIndexURIFor(final Path path) {
@@ -121,4 +150,14 @@ public abstract class RESTServicesForIndexProxyBase<O extends OID,M extends Inde
 		return _composeIndexURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
 									  	   			.pathOfAllEntities());
 	}
+	protected Url _indexBatchResourcesUrl() {
+		return _composeIndexURIFor(Paths.forUrlPaths().join(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
+									  	   									.pathOfAllEntities(),
+									  	   					  "batch"));
+	}
+	protected Url _unIndexBatchResourcesUrl() {
+		return _composeIndexURIFor(Paths.forUrlPaths().join(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForModelObjectPersistence.class)
+									  	   									.pathOfAllEntities(),
+									  	   					  "batch","unindex"));
+	}
 }
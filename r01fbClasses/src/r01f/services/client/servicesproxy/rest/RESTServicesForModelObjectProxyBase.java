@@ -9,6 +9,7 @@ import r01f.model.metadata.ModelObjectTypeMetaData;
 import r01f.model.metadata.ModelObjectTypeMetaDataBuilder;
 import r01f.services.client.servicesproxy.rest.RESTServiceResourceUrlPathBuilders.RESTServiceResourceUrlPathBuilderForModelObjectPersistence;
 import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextTokens;
 
 @Accessors(prefix="_")
 public abstract class RESTServicesForModelObjectProxyBase<O extends OID,M extends ModelObject> 
@@ -42,11 +43,11 @@ public abstract class RESTServicesForModelObjectProxyBase<O extends OID,M extend
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
 	/**
-	 * Returns the {@link UserContext} as XML
+	 * Returns the {@link UserContext} as a token to be sent at the userContext header (see {@link UserContextTokens})
 	 * @param userContext
 	 * @return
 	 */
 	protected String _userContextXml(final UserContext userContext) {
-		return _marshaller.xmlFromBean(userContext);
+		return UserContextTokens.tokenFor(_marshaller,userContext);
 	}
 }
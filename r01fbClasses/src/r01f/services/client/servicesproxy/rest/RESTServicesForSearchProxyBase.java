@@ -6,6 +6,7 @@ import r01f.guids.OID;
 import r01f.marshalling.Marshaller;
 import r01f.model.search.SearchFilter;
 import r01f.model.search.SearchResultItem;
+import r01f.model.search.SearchResultItemsHandler;
 import r01f.model.search.SearchResults;
 import r01f.services.client.servicesproxy.rest.RESTServiceResourceUrlPathBuilders.RESTServiceResourceUrlPathBuilderForModelObjectPersistence;
 import r01f.services.interfaces.SearchServices;
@@ -55,4 +56,24 @@ public abstract class RESTServicesForSearchProxyBase<F extends SearchFilter,I ex
 									       filter,
 										   firstRowNum,numberOfRows);
 	}
+	@Override
+	public SearchResults<F,I> filterRecords(final UserContext userContext,
+										    final F filter, 
+										    final String cursor,final int numberOfRows) {
+		Url restResourceUrl = this.composeURIFor(UrlPath.from("index"));
+		return _rawSearchDelegate.doSEARCH(restResourceUrl,
+										   userContext,	
+									       filter,
+										   cursor,numberOfRows);
+	}
+	@Override
+	public int filterRecords(final UserContext userContext,
+							 final F filter,
+							 final SearchResultItemsHandler<I> handler) {
+		Url restResourceUrl = this.composeURIFor(UrlPath.from("index","stream"));
+		return _rawSearchDelegate.doSEARCH(restResourceUrl,
+										   userContext,
+										   filter,
+										   handler);
+	}
 }
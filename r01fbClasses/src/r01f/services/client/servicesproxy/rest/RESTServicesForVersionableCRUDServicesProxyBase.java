@@ -15,6 +15,7 @@ import r01f.services.client.servicesproxy.rest.RESTServiceResourceUrlPathBuilder
 import r01f.services.interfaces.CRUDServicesForVersionableModelObject;
 import r01f.types.url.Url;
 import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextTokens;
 
 public abstract class RESTServicesForVersionableCRUDServicesProxyBase<O extends OIDForVersionableModelObject,M extends PersistableModelObject<O> & HasVersionableFacet>
               extends RESTServicesForDBCRUDProxyBase<O,M>
@@ -53,7 +54,7 @@ public abstract class RESTServicesForVersionableCRUDServicesProxyBase<O extends
 			this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForVersionableModelObjectPersistenceBase.class)
 								   .pathOfActiveVersion(oid));			// currently active version
 		}
-		String ctxXml = _marshaller.xmlFromBean(userContext);
+		String ctxXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		HttpResponse httpResponse = DelegateForRawREST.GET(restResourceUrl,
 										 				   ctxXml);
 		// map the response
@@ -70,7 +71,7 @@ public abstract class RESTServicesForVersionableCRUDServicesProxyBase<O extends
 		// do the http call: GET the version whose activation date is NULL -it's not active-
 		Url restResourceUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForVersionableModelObjectPersistenceBase.class)
 															   .pathOfWorkVersion(oid));
-		String ctxXml = _marshaller.xmlFromBean(userContext);
+		String ctxXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		HttpResponse httpResponse = DelegateForRawREST.GET(restResourceUrl,
 										 				   ctxXml);
 		// map the response
@@ -92,7 +93,7 @@ public abstract class RESTServicesForVersionableCRUDServicesProxyBase<O extends
 		// do the http call
 		Url restResourceUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForVersionableModelObjectPersistenceBase.class)
 															   .pathOfAllVersions(oid));
-		String userContextXml = _marshaller.xmlFromBean(userContext);
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		HttpResponse httpResponse = DelegateForRawREST.DELETE(restResourceUrl,
 															  userContextXml);
 		// map the response
@@ -112,7 +113,7 @@ public abstract class RESTServicesForVersionableCRUDServicesProxyBase<O extends
 		// do the http call: a CREATION (POST) of the entiy at the /versions/activeVersion resource path
 		Url restResourceVersionUrl = this.composeURIFor(this.getServicesRESTResourceUrlPathBuilderAs(RESTServiceResourceUrlPathBuilderForVersionableModelObjectPersistenceBase.class)
 																				.pathOfActiveVersion(entityToBeActivated.getOid().getOid()));	// Version independent oid
-		String userContextXml = _marshaller.xmlFromBean(userContext);
+		String userContextXml = UserContextTokens.tokenFor(_marshaller,userContext);
 		String entityXml = _marshaller.xmlFromBean(entityToBeActivated);
 		HttpResponse httpResponse = DelegateForRawREST.POST(restResourceVersionUrl,
 										 				    userContextXml,
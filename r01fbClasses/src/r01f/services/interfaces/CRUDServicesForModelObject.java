@@ -1,8 +1,11 @@
 package r01f.services.interfaces;
 
+import java.util.Collection;
+
 import r01f.guids.OID;
 import r01f.model.PersistableModelObject;
 import r01f.model.facets.Versionable;
+import r01f.persistence.CRUDOnMultipleResult;
 import r01f.persistence.CRUDResult;
 import r01f.usercontext.UserContext;
 
@@ -33,6 +36,33 @@ public interface CRUDServicesForModelObject<O extends OID,M extends PersistableM
 	 */
 	public CRUDResult<M> load(final UserContext userContext,
 				  			  final O oid);	
+	/**
+	 * Checks the existence of an entity WITHOUT loading it (only the oid is queried)
+	 * If the entity is a {@link Versionable} {@link PersistableModelObject}, the given version is checked
+	 * @param userContext the user auth data & context info
+	 * @param oid the entity identifier
+	 * @return true if the entity exists
+	 */
+	public boolean exists(final UserContext userContext,
+						  final O oid);
+	/**
+	 * Checks the existence of many entities at once WITHOUT loading them (only the oids are queried)
+	 * @param userContext the user auth data & context info
+	 * @param oids the entities identifiers
+	 * @return true if ALL the entities exist
+	 */
+	public boolean existsAll(final UserContext userContext,
+							 final Collection<O> oids);
+	/**
+	 * Loads many entities at once (instead of calling {@link #load(UserContext, OID)} for every entity)
+	 * If the entity is a {@link Versionable} {@link PersistableModelObject}, the given versions are loaded
+	 * @param userContext the user auth data & context info
+	 * @param oids the entities identifiers
+	 * @return a {@link CRUDOnMultipleResult} with a {@link r01f.persistence.CRUDOK} for every loaded entity 
+	 * 		   and a {@link r01f.persistence.CRUDError} for every NOT found entity
+	 */
+	public CRUDOnMultipleResult<M> loadAll(final UserContext userContext,
+										   final Collection<O> oids);
 	/**
 	 * Creates a entity
 	 * If the entity is a {@link Versionable} {@link PersistableModelObject}, and no other version exists 
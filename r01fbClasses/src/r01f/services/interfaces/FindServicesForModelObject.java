@@ -29,6 +29,17 @@ public interface FindServicesForModelObject<O extends OID,M extends PersistableM
 	 * @return a {@link FindResult} that encapsulates the oids
 	 */
 	public FindOIDsResult<O> findAll(final UserContext userContext);	
+	/**
+	 * Finds all persisted model object oids page by page (keyset pagination): every page is got 
+	 * after the last oid of the previous page so a deep page costs the same as the first one
+	 * If the entity is a {@link Versionable}  {@link PersistableModelObject}, all the versions are returned
+	 * @param userContext the user auth data & context info
+	 * @param cursor the cursor returned alongside the previous page (see {@link r01f.persistence.FindOIDsOK#getNextPageCursor()}) or null for the first page
+	 * @param pageSize the max number of oids to return
+	 * @return a {@link FindResult} that encapsulates the page oids and the next page cursor
+	 */
+	public FindOIDsResult<O> findAllPage(final UserContext userContext,
+										 final String cursor,final int pageSize);
 	/**
 	 * Finds all persisted model object oids which create date is in the provided range
 	 * If the entity is a {@link Versionable}  {@link PersistableModelObject}, it returns the 
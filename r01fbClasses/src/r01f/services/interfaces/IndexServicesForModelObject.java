@@ -5,6 +5,7 @@ import java.util.Collection;
 import r01f.guids.OID;
 import r01f.model.IndexableModelObject;
 import r01f.model.jobs.EnqueuedJob;
+import r01f.persistence.index.IndexBatchResult;
 import r01f.usercontext.UserContext;
 
 public interface IndexServicesForModelObject<O extends OID,M extends IndexableModelObject> 
@@ -78,5 +79,34 @@ public interface IndexServicesForModelObject<O extends OID,M extends IndexableMo
 	 * @return
 	 */
 	public EnqueuedJob reIndexAll(final UserContext userContext);
-
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BATCH
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Indexes a batch of model objects
+	 * The documents are created in parallel and the index is commited once at the end of the batch
+	 * @param userContext
+	 * @param modelObjects
+	 * @return the batch result (including the throughput)
+	 */
+	public IndexBatchResult indexBatch(final UserContext userContext,
+									   final Collection<M> modelObjects);
+	/**
+	 * Updates the index data for a batch of model objects
+	 * The documents are created in parallel and the index is commited once at the end of the batch
+	 * @param userContext
+	 * @param modelObjects
+	 * @return the batch result (including the throughput)
+	 */
+	public IndexBatchResult updateIndexBatch(final UserContext userContext,
+									   		 final Collection<M> modelObjects);
+	/**
+	 * Un-Indexes a batch of model objects
+	 * The index is commited once at the end of the batch
+	 * @param userContext
+	 * @param oids
+	 * @return the batch result (including the throughput)
+	 */
+	public IndexBatchResult removeFromIndexBatch(final UserContext userContext,
+									   		 	 final Collection<O> oids);
 }
@@ -5,6 +5,7 @@ import java.util.Collection;
 import r01f.guids.OID;
 import r01f.model.search.SearchFilter;
 import r01f.model.search.SearchResultItem;
+import r01f.model.search.SearchResultItemsHandler;
 import r01f.model.search.SearchResults;
 import r01f.usercontext.UserContext;
 
@@ -45,4 +46,28 @@ public interface SearchServices<F extends SearchFilter,
 	public SearchResults<F,I> filterRecords(final UserContext userContext,
 									        final F filter,
 									     	final int firstRowNum,final int numberOfRows);
+	/**
+	 * Searches records using a provided filter paging with a cursor: every page is got after the
+	 * last item of the previous page so getting a deep page costs the same as getting the first one
+	 * (the cursor to get the next page is returned alongside the results: see {@link SearchResults#getNextPageCursor()})
+	 * @param userContext the user auth data & context info
+	 * @param filter the filter
+	 * @param cursor the cursor returned alongside the previous page or null for the first page
+	 * @param numberOfRows number of rows to be returned
+	 * @return the result items
+	 */
+	public SearchResults<F,I> filterRecords(final UserContext userContext,
+									        final F filter,
+									     	final String cursor,final int numberOfRows);
+	/**
+	 * Searches ALL the records verifying the filter handing them one by one to the given handler
+	 * as they're got so the whole result set is NEVER kept in memory (ie: to export huge result sets)
+	 * @param userContext the user auth data & context info
+	 * @param filter the filter
+	 * @param handler the handler of every result item
+	 * @return the number of handled items
+	 */
+	public int filterRecords(final UserContext userContext,
+							 final F filter,
+							 final SearchResultItemsHandler<I> handler);
 }
@@ -0,0 +1,307 @@
+package r01f.usercontext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import r01f.exceptions.Throwables;
+import r01f.marshalling.Marshaller;
+import r01f.util.types.Strings;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Encodes a {@link UserContext} as a compact, versioned token sent at the userContext http header
+ * of every REST call instead of the user context xml:
+ * <pre>
+ * 		R01UC1.{base64url(deflate(userContext xml))}
+ * </pre>
+ * <ul>
+ * 		<li>Client side: the token is cached by user context instance so a user context is marshalled
+ * 			only once while it's NOT modified (see {@link #tokenFor(Marshaller, UserContext)})</li>
+ * 		<li>Server side: the unmarshalled user context is cached by token so an unchanged user context
+ * 			is parsed only once (see {@link #userContextFrom(Marshaller, String)}); every request gets
+ * 			its own copy of the user context so it can be modified</li>
+ * </ul>
+ * The tokens are opt-in: the clients send the user context xml as before unless the 
+ * -Dr01f.usercontext.tokens=true system property is set; the server side accepts both the tokens and 
+ * the xml so the tokens MUST only be enabled at the clients once the servers are upgraded
+ *
+ * A cached token is reused only if the user context has NOT been modified: the whole user context 
+ * is fingerprinted (a hash of its java serialized form) every time it's sent
+ */
+@Slf4j
+@NoArgsConstructor(access=AccessLevel.PRIVATE)
+public class UserContextTokens {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final String TOKEN_PREFIX = "R01UC";
+	private static final char TOKEN_VERSION = '1';
+	private static final String TOKEN_V1_PREFIX = TOKEN_PREFIX + TOKEN_VERSION + ".";
+	/**
+	 * Max size of an inflated user context xml (a bigger token is rejected)
+	 */
+	private static final int MAX_XML_SIZE = 64 * 1024;
+
+	private static final boolean TOKENS_ENABLED = "true".equalsIgnoreCase(System.getProperty("r01f.usercontext.tokens"));
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Client side: user context instance (by identity) to token
+	 */
+	private static final Cache<UserContext,UserContextToken> TOKENS = CacheBuilder.newBuilder()
+																				  .weakKeys()
+																				  .maximumSize(1000)
+																				  .expireAfterWrite(10,TimeUnit.MINUTES)
+																				  .build();
+	/**
+	 * Server side: token (or legacy xml) to the java serialized user context 
+	 * (the user context is NOT cached since it's mutable: a copy is deserialized for every request)
+	 */
+	private static final Cache<String,SerializedUserContext> USER_CONTEXTS = CacheBuilder.newBuilder()
+																			   .maximumSize(10000)
+																			   .expireAfterAccess(10,TimeUnit.MINUTES)
+																			   .recordStats()
+																			   .build();
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CLIENT SIDE
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the token to be sent at the userContext header for the given user context
+	 * The user context is marshalled only the first time it's sent
+	 * @param marshaller
+	 * @param userContext
+	 * @return the token (or null if the user context is null)
+	 */
+	public static String tokenFor(final Marshaller marshaller,
+								  final UserContext userContext) {
+		if (userContext == null) return null;
+		long fingerprint = _fingerprintOf(userContext);
+		UserContextToken cached = TOKENS.getIfPresent(userContext);
+		if (cached != null && cached._fingerprint == fingerprint) return cached._token;
+
+		String xml = marshaller.xmlFromBean(userContext);
+		String outToken = TOKENS_ENABLED ? _encode(xml) : xml;
+		TOKENS.put(userContext,new UserContextToken(outToken,fingerprint));
+		return outToken;
+	}
+	/**
+	 * Discards the cached token for a user context that has been modified
+	 * @param userContext
+	 */
+	public static void invalidate(final UserContext userContext) {
+		if (userContext != null) TOKENS.invalidate(userContext);
+	}
+	/**
+	 * The whole user context is checked before reusing a cached token: any modified field changes the fingerprint
+	 * (java serialization is used since it's way cheaper than marshalling the user context)
+	 */
+	private static long _fingerprintOf(final UserContext userContext) {
+		return Hashing.murmur3_128()
+					  .hashBytes(_serialize(userContext))
+					  .asLong();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SERVER SIDE
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the user context received at the userContext header either as a token or as xml
+	 * Every token is parsed only once: afterwards a copy of the parsed user context is returned
+	 * (the copy is deserialized from the cached java serialized form, which is cheaper than parsing the xml)
+	 * @param marshaller
+	 * @param tokenOrXml
+	 * @return the user context (or null if the header is null or empty)
+	 */
+	@SuppressWarnings("unchecked")
+	public static <U extends UserContext> U userContextFrom(final Marshaller marshaller,
+															final String tokenOrXml) {
+		if (Strings.isNullOrEmpty(tokenOrXml)) return null;
+		final String theTokenOrXml = tokenOrXml.trim();
+		try {
+			SerializedUserContext serialized = USER_CONTEXTS.get(theTokenOrXml,
+																 new Callable<SerializedUserContext>() {
+																		@Override
+																		public SerializedUserContext call() {
+																			String xml = isToken(theTokenOrXml) ? _decode(theTokenOrXml)
+																												: theTokenOrXml;		// legacy: the xml
+																			UserContext userContext = marshaller.beanFromXml(xml);
+																			return new SerializedUserContext(userContext.getClass(),
+																											 _serialize(userContext));
+																		}
+																 });
+			return (U)serialized.copy();
+		} catch(ExecutionException exEx) {
+			throw _userContextParseError(exEx.getCause());
+		} catch(UncheckedExecutionException uncheckedExEx) {
+			// the token decoding or the xml unmarshalling failed with a runtime exception
+			throw _userContextParseError(uncheckedExEx.getCause());
+		} catch(ExecutionError execErr) {
+			throw (Error)execErr.getCause();
+		}
+	}
+	private static IllegalArgumentException _userContextParseError(final Throwable cause) {
+		return new IllegalArgumentException(Throwables.message("Could NOT get the user context from the received userContext header: {}",
+															   cause.getMessage()),
+											cause);
+	}
+	/**
+	 * @param str
+	 * @return true if the given string is a user context token (not the user context xml)
+	 */
+	public static boolean isToken(final String str) {
+		return str != null && str.startsWith(TOKEN_PREFIX);
+	}
+	/**
+	 * @return the server side cache stats
+	 */
+	public static CacheStats getUserContextsCacheStats() {
+		return USER_CONTEXTS.stats();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CODEC
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static String _encode(final String xml) {
+		byte[] xmlBytes = xml.getBytes(Charsets.UTF_8);
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(xmlBytes);
+			deflater.finish();
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(xmlBytes.length / 2 + 16);
+			byte[] buf = new byte[512];
+			while (!deflater.finished()) {
+				int n = deflater.deflate(buf);
+				bos.write(buf,0,n);
+			}
+			return TOKEN_V1_PREFIX + BaseEncoding.base64Url()
+												 .omitPadding()
+												 .encode(bos.toByteArray());
+		} finally {
+			deflater.end();
+		}
+	}
+	private static String _decode(final String token) {
+		if (!token.startsWith(TOKEN_V1_PREFIX)) throw new IllegalArgumentException(Throwables.message("Unsupported user context token version: {}",
+																									  token.length() > TOKEN_PREFIX.length() ? token.charAt(TOKEN_PREFIX.length()) : '?'));
+		byte[] deflated = BaseEncoding.base64Url()
+									  .omitPadding()
+									  .decode(token.substring(TOKEN_V1_PREFIX.length()));
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(deflated);
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(deflated.length * 4);
+			byte[] buf = new byte[512];
+			while (!inflater.finished()) {
+				int n = inflater.inflate(buf);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) throw new IllegalArgumentException("Truncated user context token");
+				bos.write(buf,0,n);
+				if (bos.size() > MAX_XML_SIZE) throw new IllegalArgumentException(Throwables.message("The user context token is bigger than {} bytes",
+																									  MAX_XML_SIZE));
+			}
+			log.trace("User context token of {} chars decoded to {} bytes of xml",token.length(),bos.size());
+			return new String(bos.toByteArray(),Charsets.UTF_8);
+		} catch(DataFormatException dfEx) {
+			throw new IllegalArgumentException(Throwables.message("Not a valid user context token: {}",dfEx.getMessage()),
+											   dfEx);
+		} finally {
+			inflater.end();
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SERIALIZATION
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static byte[] _serialize(final UserContext userContext) {
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(512);
+			ObjectOutputStream oos = new ObjectOutputStream(bos);
+			oos.writeObject(userContext);
+			oos.close();
+			return bos.toByteArray();
+		} catch(IOException ioEx) {
+			throw new IllegalArgumentException(Throwables.message("Could NOT serialize the {} user context: {}",
+																  userContext.getClass(),ioEx.getMessage()),
+											   ioEx);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	@RequiredArgsConstructor
+	private static class UserContextToken {
+		private final String _token;
+		private final long _fingerprint;
+	}
+	/**
+	 * A user context java serialized form: it's immutable so it can be shared by every request
+	 */
+	@RequiredArgsConstructor
+	private static class SerializedUserContext {
+		private final Class<? extends UserContext> _type;
+		private final byte[] _serialized;
+
+		UserContext copy() {
+			try {
+				ObjectInputStream ois = new UserContextObjectInputStream(new ByteArrayInputStream(_serialized),
+																		 _type.getClassLoader());
+				try {
+					return (UserContext)ois.readObject();
+				} finally {
+					ois.close();
+				}
+			} catch(IOException ioEx) {
+				throw new IllegalStateException(Throwables.message("Could NOT copy the {} user context: {}",
+																   _type,ioEx.getMessage()),
+												ioEx);
+			} catch(ClassNotFoundException cnfEx) {
+				throw new IllegalStateException(Throwables.message("Could NOT copy the {} user context: {}",
+																   _type,cnfEx.getMessage()),
+												cnfEx);
+			}
+		}
+	}
+	/**
+	 * Resolves the classes with the user context type's classloader (the default one could NOT see them at a web app)
+	 */
+	private static class UserContextObjectInputStream
+				 extends ObjectInputStream {
+		private final ClassLoader _classLoader;
+
+		UserContextObjectInputStream(final InputStream is,
+									 final ClassLoader classLoader) throws IOException {
+			super(is);
+			_classLoader = classLoader;
+		}
+		@Override
+		protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException,
+																			 ClassNotFoundException {
+			if (_classLoader == null) return super.resolveClass(desc);
+			try {
+				return Class.forName(desc.getName(),false,_classLoader);
+			} catch(ClassNotFoundException cnfEx) {
+				return super.resolveClass(desc);	// ie: primitive types or types not visible from the classloader
+			}
+		}
+	}
+}
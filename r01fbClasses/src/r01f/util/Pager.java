@@ -3,12 +3,15 @@ package r01f.util;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 
+import com.google.common.collect.Maps;
+
 /**
  * Clase que modela la paginacin en un conjunto de resultados
  * Esencialmente es una lista que contiene el cdigo de los primeros elementos
@@ -44,6 +47,8 @@ public class Pager<T>
     @Getter 		private int _totalNumberOfItems;     		// Nmero total de elementos encontrados en la bsqueda
     @Getter 		private int _currentPageOrderNumber;        // La pgina actualmente mostrada
     
+    private Map<Integer,String> _pageCursors;					// Cursores para obtener cada pgina cuando se pagina con cursor
+    
     @NoArgsConstructor
     private class PageFirstAndLastItemsOids<U> {
     	U _firstItemOid;
@@ -348,6 +353,57 @@ public class Pager<T>
         return this.getPageFirstItemOrderNumber(nextBlockFirstPageOrderNumber);
     }    
 ///////////////////////////////////////////////////////////////////////////////////////////
+//  CURSORES
+//	Cuando se pagina con cursor cada pgina se obtiene con el cursor (token opaco) 
+//	devuelto junto con la pgina anterior (ver SearchResults#getNextPageCursor()) 
+///////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * Registra el cursor devuelto junto con la pgina actual (el cursor de la pgina siguiente)
+     * @param cursor
+     */
+    public void registerNextPageCursor(final String cursor) {
+    	this.registerPageCursor(_currentPageOrderNumber + 1,
+    							cursor);
+    }
+    /**
+     * Registra el cursor para obtener una pgina
+     * @param pageOrderNum nmero de orden de la pgina
+     * @param cursor
+     */
+    public void registerPageCursor(final int pageOrderNum,
+    							   final String cursor) {
+    	if (pageOrderNum <= 1) return;		// la primera pgina se obtiene sin cursor
+    	if (_pageCursors == null) _pageCursors = Maps.newHashMap();
+    	if (cursor != null) {
+    		_pageCursors.put(pageOrderNum,cursor);
+    	} else {
+    		_pageCursors.remove(pageOrderNum);
+    	}
+    }
+    /**
+     * Devuelve el cursor para obtener una pgina (null si es la primera pgina o no se conoce el cursor)
+     * @param pageOrderNum nmero de orden de la pgina
+     * @return
+     */
+    public String getPageCursor(final int pageOrderNum) {
+    	if (pageOrderNum <= 1 || _pageCursors == null) return null;
+    	return _pageCursors.get(pageOrderNum);
+    }
+    /**
+     * Devuelve el cursor para obtener la pgina actual
+     * @return
+     */
+    public String getCurrentPageCursor() {
+    	return this.getPageCursor(_currentPageOrderNumber);
+    }
+    /**
+     * Devuelve el cursor para obtener la pgina siguiente
+     * @return
+     */
+    public String getNextPageCursor() {
+    	return this.getPageCursor(_currentPageOrderNumber + 1);
+    }
+///////////////////////////////////////////////////////////////////////////////////////////
 //  CUENTA DE ELEMENTOS
 ///////////////////////////////////////////////////////////////////////////////////////////        
     /**
@@ -2,8 +2,10 @@ package r01f.util;
 
 import java.io.Serializable;
 import java.util.Iterator;
+import java.util.Map;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
 
 import lombok.Getter;
 import lombok.experimental.Accessors;
@@ -54,6 +56,8 @@ public class Paging
     @Getter private int _currentPage;  				// Current page
     @Getter private int[] _currentPageItems;			// Current page items
     @Getter private int[] _currentNavBarWindowPages;	// Current window pages
+    
+    private Map<Integer,String> _pageCursors;			// The cursors used to get every page when paging with a cursor (see SearchResults#getNextPageCursor())
 ///////////////////////////////////////////////////////////////////////////////////////////
 //  CONSTRUCTORS
 ///////////////////////////////////////////////////////////////////////////////////////////
@@ -260,6 +264,68 @@ public class Paging
         }
         return page * _pageItems;
     }
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CURSORS
+//	When paging with a cursor every page is got using the opaque cursor token
+//	returned alongside the previous page; the tokens are kept by page number 
+//	so the pages already visited can be got again 
+/////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * Registers the cursor returned alongside the current page, that's the cursor
+     * used to get the next page
+     * @param cursor
+     */
+    public void registerNextPageCursor(final String cursor) {
+    	this.registerPageCursor(_currentPage + 1,
+    							cursor);
+    }
+    /**
+     * Registers the cursor used to get a page
+     * @param page
+     * @param cursor
+     */
+    public void registerPageCursor(final int page,
+    							   final String cursor) {
+    	if (page <= 1) return;		// the first page is got without cursor
+    	if (_pageCursors == null) _pageCursors = Maps.newHashMap();
+    	if (cursor != null) {
+    		_pageCursors.put(page,cursor);
+    	} else {
+    		_pageCursors.remove(page);
+    	}
+    }
+    /**
+     * Returns the cursor used to get a page
+     * (null for the first page or if the cursor is NOT known)
+     * @param page
+     * @return
+     */
+    public String getPageCursor(final int page) {
+    	if (page <= 1 || _pageCursors == null) return null;
+    	return _pageCursors.get(page);
+    }
+    /**
+     * @return the cursor used to get the current page (null if it's the first page)
+     */
+    public String getCurrentPageCursor() {
+    	return this.getPageCursor(_currentPage);
+    }
+    /**
+     * @return the cursor used to get the next page (null if NOT known)
+     */
+    public String getNextPageCursor() {
+    	return this.getPageCursor(_currentPage + 1);
+    }
+    /**
+     * Returns true if the given page can be got with a cursor: it's the first page
+     * or the cursor returned alongside the previous page was registered
+     * @param page
+     * @return
+     */
+    public boolean isReachableWithCursor(final int page) {
+    	return page == 1 
+    		|| (_pageCursors != null && _pageCursors.containsKey(page));
+    }
 ///////////////////////////////////////////////////////////////////////////////////////////
 //  WINDOW FUNCTIONS
 ///////////////////////////////////////////////////////////////////////////////////////////
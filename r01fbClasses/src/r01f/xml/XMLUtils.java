@@ -14,11 +14,8 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -365,6 +362,7 @@ public final class XMLUtils {
 ///////////////////////////////////////////////////////////////////////////////////////////////////
     /**
      * Gets the {@link Node} at the provided XPath 
+     * (the compiled xpath expressions are cached: see {@link XPathCompiledExpressions})
      * @param xml
      * @param theXPath
      * @param returnType The java type returned (boolean, number, string, node o nodeSet).
@@ -373,24 +371,9 @@ public final class XMLUtils {
 	private static Object _xPath(final Node xml,
     				      		 final String theXPath,
     				      		 final QName returnType) throws XPathExpressionException {
-
-        final XPathFactory xPathFactory = XPathFactory.newInstance();
-        final XPath xPath = xPathFactory.newXPath();
-        final XPathExpression xPathExpr = xPath.compile(theXPath.trim());
-
-        Object outObj = null;
-        if (returnType == XPathConstants.BOOLEAN) {
-        	outObj = xPathExpr.evaluate(xml,XPathConstants.BOOLEAN);
-        } else if (returnType == XPathConstants.NUMBER) {
-        	outObj = xPathExpr.evaluate(xml,XPathConstants.NUMBER);
-        } else if (returnType == XPathConstants.STRING) {
-        	outObj = xPathExpr.evaluate(xml,XPathConstants.STRING);
-        } else if (returnType == XPathConstants.NODE) {
-        	outObj = xPathExpr.evaluate(xml,XPathConstants.NODE);
-        } else if (returnType == XPathConstants.NODESET) {
-        	outObj = xPathExpr.evaluate(xml,XPathConstants.NODESET);
-        }
-        return outObj;
+        return XPathCompiledExpressions.evaluate(xml,
+        										 theXPath.trim(),
+        										 returnType);
     }
 	/**
 	 * Gets the {@link Node} at the provided XPath
@@ -0,0 +1,102 @@
+package r01f.xml;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import org.w3c.dom.Node;
+
+/**
+ * A cache of compiled {@link XPathExpression}s
+ * <ul>
+ * 		<li>{@link XPathFactory#newInstance()} goes through the service loader (very expensive) and
+ * 			neither {@link XPathFactory}, {@link XPath} nor {@link XPathExpression} are thread-safe</li>
+ * 		<li>So every thread has it's own {@link XPath} object and a LRU map of the compiled expressions
+ * 			(the factory is looked up only once per thread)</li>
+ * </ul>
+ * <pre class='brush:java'>
+ * 		String str = (String)XPathCompiledExpressions.evaluate(doc,
+ * 															   "/root/child/@attr",
+ * 															   XPathConstants.STRING);
+ * </pre>
+ */
+@NoArgsConstructor(access=AccessLevel.PRIVATE)
+public class XPathCompiledExpressions {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The max number of compiled expressions cached by every thread
+	 */
+	public static final int MAX_CACHED_EXPRESSIONS_PER_THREAD = 256;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final ThreadLocal<XPathCompiler> COMPILERS = new ThreadLocal<XPathCompiler>() {
+																		@Override
+																		protected XPathCompiler initialValue() {
+																			return new XPathCompiler();
+																		}
+																};
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the compiled expression for the given xpath
+	 * BEWARE! the returned expression is NOT thread-safe: it MUST be used by the calling thread only
+	 * @param theXPath
+	 * @return
+	 * @throws XPathExpressionException
+	 */
+	public static XPathExpression compile(final String theXPath) throws XPathExpressionException {
+		return COMPILERS.get().compile(theXPath);
+	}
+	/**
+	 * Evaluates the xpath over the given node
+	 * @param xml
+	 * @param theXPath
+	 * @param returnType the java type returned (boolean, number, string, node o nodeSet).
+	 * @return
+	 * @throws XPathExpressionException
+	 */
+	public static Object evaluate(final Node xml,
+								  final String theXPath,
+								  final QName returnType) throws XPathExpressionException {
+		return XPathCompiledExpressions.compile(theXPath)
+									   .evaluate(xml,returnType);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The per-thread {@link XPath} object and the LRU map of compiled expressions
+	 */
+	private static class XPathCompiler {
+		private final XPath _xPath = XPathFactory.newInstance()
+												 .newXPath();
+		@SuppressWarnings("serial")
+		private final Map<String,XPathExpression> _compiled = new LinkedHashMap<String,XPathExpression>(64,0.75F,
+																										 true) {		// access order: LRU
+																		@Override
+																		protected boolean removeEldestEntry(final Map.Entry<String,XPathExpression> eldest) {
+																			return this.size() > MAX_CACHED_EXPRESSIONS_PER_THREAD;
+																		}
+																 };
+		XPathExpression compile(final String theXPath) throws XPathExpressionException {
+			XPathExpression outExpr = _compiled.get(theXPath);
+			if (outExpr == null) {
+				outExpr = _xPath.compile(theXPath);
+				_compiled.put(theXPath,outExpr);
+			}
+			return outExpr;
+		}
+	}
+}
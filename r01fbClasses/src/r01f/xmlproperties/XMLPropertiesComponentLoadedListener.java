@@ -1,5 +1,9 @@
 package r01f.xmlproperties;
 
+import org.w3c.dom.Document;
+
+import r01f.guids.CommonOIDs.AppComponent;
+
 /**
  * {@link XMLPropertiesForAppComponent} load listener
  */
@@ -9,4 +13,12 @@ interface XMLPropertiesComponentLoadedListener {
 	 * @param def component definition
 	 */
 	public void newComponentLoaded(XMLPropertiesComponentDef def);
+	/**
+	 * the component's xml has been loaded (or reloaded)
+	 * @param component the component
+	 * @param def component definition
+	 * @param xml the component's xml
+	 */
+	public void componentXMLLoaded(AppComponent component,XMLPropertiesComponentDef def,
+								   Document xml);
 }
@@ -0,0 +1,203 @@
+package r01f.xmlproperties;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import r01f.xml.XMLUtils;
+
+/**
+ * An immutable snapshot of an app component's properties built once when the component's xml is loaded (or reloaded)
+ * <ul>
+ * 		<li>All the leaf properties (elements containing only text and attributes) are flattened into a sorted array
+ * 			indexed by their simple xpath (ie: properties/group/prop or properties/group/prop/@attr)</li>
+ * 		<li>The values are converted to String, Number and Boolean at build time</li>
+ * </ul>
+ * Reading a property is a binary search over the sorted keys (NO lock, NO allocation); when the component is reloaded
+ * a NEW snapshot is built and atomically published (see {@link XMLPropertiesForAppCache}) so the readers are never blocked
+ *
+ * Only simple xpaths are indexed: xpaths with predicates, axis, functions, etc are NOT found at the snapshot
+ * and are resolved against the component's xml as usual
+ * If a simple xpath matches more than a single node, the first one (in document order) is indexed as xpath does;
+ * if that first node is NOT a leaf (it has child elements or NO text) the xpath is NOT indexed at all so it's 
+ * resolved against the xml (otherwise a later leaf node would be returned instead of the node xpath returns)
+ */
+@Slf4j
+final class XMLPropertiesComponentSnapshot {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final String[] _keys;			// sorted
+	private final String[] _strings;
+	private final Number[] _numbers;		// null if the value is NOT a number
+	private final Boolean[] _booleans;		// null if the value is NOT a boolean
+
+	private final long _reloadCheckInterval;
+	private volatile long _nextReloadCheck;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	private XMLPropertiesComponentSnapshot(final Map<String,String> sortedProps,
+										   final long reloadCheckInterval) {
+		int size = sortedProps.size();
+		_keys = new String[size];
+		_strings = new String[size];
+		_numbers = new Number[size];
+		_booleans = new Boolean[size];
+		int i = 0;
+		for (Map.Entry<String,String> me : sortedProps.entrySet()) {
+			_keys[i] = me.getKey();
+			_strings[i] = me.getValue();
+			_numbers[i] = _asNumber(me.getValue());
+			_booleans[i] = BooleanUtils.toBooleanObject(me.getValue());
+			i++;
+		}
+		_reloadCheckInterval = reloadCheckInterval > 0 ? reloadCheckInterval
+													   : Long.MAX_VALUE;		// never check
+		_nextReloadCheck = _reloadCheckInterval != Long.MAX_VALUE ? System.currentTimeMillis() + _reloadCheckInterval
+																  : Long.MAX_VALUE;
+	}
+	/**
+	 * Builds the snapshot from the component's xml
+	 * @param xml
+	 * @param reloadCheckInterval the component's reload check interval (<= 0 if the component is never reloaded)
+	 * @return
+	 */
+	static XMLPropertiesComponentSnapshot of(final Document xml,
+											 final long reloadCheckInterval) {
+		Map<String,String> props = new TreeMap<String,String>();
+		if (xml != null && xml.getDocumentElement() != null) {
+			_collectLeafProperties(xml.getDocumentElement(),
+								   xml.getDocumentElement().getNodeName(),
+								   props);
+		}
+		// the xpaths whose first match is NOT a leaf are NOT indexed
+		props.values().removeAll(Collections.singleton(null));
+		return new XMLPropertiesComponentSnapshot(props,
+												  reloadCheckInterval);
+	}
+	private static void _collectLeafProperties(final Node node,final String path,
+											   final Map<String,String> props) {
+		// attributes
+		NamedNodeMap attrs = node.getAttributes();
+		if (attrs != null) {
+			for (int i = 0; i < attrs.getLength(); i++) {
+				Node attr = attrs.item(i);
+				_putIfAbsent(props,
+							 path + "/@" + attr.getNodeName(),XMLUtils.nodeTextContent(attr));
+			}
+		}
+		// child elements or text
+		boolean hasChildElements = false;
+		for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() != Node.ELEMENT_NODE) continue;
+			hasChildElements = true;
+			_collectLeafProperties(child,path + "/" + child.getNodeName(),
+								   props);
+		}
+		boolean isLeaf = !hasChildElements && XMLUtils.isTextNode(node.getFirstChild());
+		_putIfAbsent(props,
+					 path,isLeaf ? XMLUtils.nodeTextContent(node)
+							  	 : null);		// a null value marks the xpath as NOT indexable
+	}
+	private static void _putIfAbsent(final Map<String,String> props,
+									 final String path,final String value) {
+		if (!props.containsKey(path)) props.put(path,value);		// xpath returns the first node in document order
+	}
+	private static Number _asNumber(final String str) {
+		if (!NumberUtils.isNumber(str)) return null;
+		try {
+			return NumberUtils.createNumber(str);
+		} catch (NumberFormatException nfEx) {
+			log.trace("{} is NOT a number",str);
+			return null;
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  LOOKUP
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the index of the property at the given xpath (a leading / is ignored)
+	 * @param propXPath
+	 * @return the index or a negative number if the property is NOT at the snapshot
+	 */
+	int indexOf(final String propXPath) {
+		if (propXPath == null) return -1;
+		int offset = propXPath.startsWith("/") ? 1 : 0;
+		int low = 0;
+		int high = _keys.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = _compare(_keys[mid],propXPath,offset);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+	String stringAt(final int index) {
+		return _strings[index];
+	}
+	Number numberAt(final int index) {
+		return _numbers[index];
+	}
+	Boolean booleanAt(final int index) {
+		return _booleans[index];
+	}
+	int size() {
+		return _keys.length;
+	}
+	/**
+	 * Compares the key with the path starting at the given offset as {@link String#compareTo(String)} does
+	 * (without creating a substring)
+	 */
+	private static int _compare(final String key,
+								final String path,final int offset) {
+		int keyLength = key.length();
+		int pathLength = path.length() - offset;
+		int lim = Math.min(keyLength,pathLength);
+		for (int i = 0; i < lim; i++) {
+			char c1 = key.charAt(i);
+			char c2 = path.charAt(offset + i);
+			if (c1 != c2) return c1 - c2;
+		}
+		return keyLength - pathLength;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  RELOAD
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return true if it's time to check if the component must be reloaded
+	 */
+	boolean isReloadCheckDue() {
+		return _nextReloadCheck != Long.MAX_VALUE
+			&& System.currentTimeMillis() >= _nextReloadCheck;
+	}
+	/**
+	 * Sets the next time to check if the component must be reloaded
+	 */
+	void reloadChecked() {
+		_nextReloadCheck = System.currentTimeMillis() + _reloadCheckInterval;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public String toString() {
+		return Arrays.toString(_keys);
+	}
+}
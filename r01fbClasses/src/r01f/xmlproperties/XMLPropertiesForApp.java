@@ -204,6 +204,12 @@ public final class XMLPropertiesForApp {
 	     * @return El valor de la propiedad o el valor por defecto que se pasa si la propiedad es <code>null</code>.
 	     */
 	    public String getString(final String propXPath,final String defaultValue) {
+	    	// Try the component's properties snapshot (lock-free)
+	    	XMLPropertiesComponentSnapshot snapshot = _cache.getSnapshot(_component);
+	    	int idx = snapshot != null ? snapshot.indexOf(propXPath) : -1;
+	    	if (idx >= 0) return snapshot.stringAt(idx);
+	    	
+	    	// ... resolve against the component's xml
 	        String outStr = _cache.getProperty(_component,Path.from(propXPath),
 	        								   defaultValue,
 	        								   String.class);
@@ -257,6 +263,12 @@ public final class XMLPropertiesForApp {
 	     * @return El valor de la propiedad o el valor por defecto que se pasa si la propiedad es <code>null</code>.
 	     */
 	    public Number getNumber(final String propXPath,final Number defaultValue) {
+	    	// Try the component's properties snapshot (lock-free)
+	    	XMLPropertiesComponentSnapshot snapshot = _cache.getSnapshot(_component);
+	    	int idx = snapshot != null ? snapshot.indexOf(propXPath) : -1;
+	    	if (idx >= 0 && snapshot.numberAt(idx) != null) return snapshot.numberAt(idx);
+	    	
+	    	// ... resolve against the component's xml
 	    	Number outNum = _cache.getProperty(_component,Path.from(propXPath),
 	    									   defaultValue,
 	    									   Number.class);
@@ -353,6 +365,12 @@ public final class XMLPropertiesForApp {
 	     * @return El valor de la propiedad o el valor por defecto que se pasa si la propiedad es <code>null</code>.
 	     */
 	    public boolean getBoolean(final String propXPath,final boolean defaultValue) {
+	    	// Try the component's properties snapshot (lock-free)
+	    	XMLPropertiesComponentSnapshot snapshot = _cache.getSnapshot(_component);
+	    	int idx = snapshot != null ? snapshot.indexOf(propXPath) : -1;
+	    	if (idx >= 0 && snapshot.booleanAt(idx) != null) return snapshot.booleanAt(idx);
+	    	
+	    	// ... resolve against the component's xml
 	    	Boolean bool = _cache.getProperty(_component,Path.from(propXPath),
 	    									  defaultValue,
 	    									  Boolean.class);
@@ -4,9 +4,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.math.NumberUtils;
+import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
@@ -94,6 +97,12 @@ implements XMLPropertiesComponentLoadedListener {
 ///////////////////////////////////////////////////////////////////////////////////////////
 	private Map<CacheKey,CacheValue> _cache;
 ///////////////////////////////////////////////////////////////////////////////////////////
+//  PROPERTIES SNAPSHOTS: an immutable snapshot of every component's leaf properties already
+//	converted to their types; it's built when the component's xml is loaded and replaced
+//	(atomically) when it's reloaded (see XMLPropertiesComponentSnapshot)
+///////////////////////////////////////////////////////////////////////////////////////////
+	private final ConcurrentMap<AppComponent,XMLPropertiesComponentSnapshot> _snapshots = new ConcurrentHashMap<AppComponent,XMLPropertiesComponentSnapshot>();
+///////////////////////////////////////////////////////////////////////////////////////////
 //  FIELDS
 ///////////////////////////////////////////////////////////////////////////////////////////
 	private AppCode _appCode;	
@@ -173,6 +182,24 @@ implements XMLPropertiesComponentLoadedListener {
 		// Ensure there's enough space at the props cache
 		_ensureCapacity(def.getNumberOfPropertiesEstimation());
 	}
+	@Override
+	public void componentXMLLoaded(final AppComponent component,final XMLPropertiesComponentDef def,
+								   final Document xml) {
+		if (!_useCache) return;
+		try {
+			long reloadCheckInterval = def.getLoaderDef() != null && def.getLoaderDef().getReloadControlDef() != null ? def.getLoaderDef().getReloadControlDef().getCheckIntervalMilis()
+																													  : -1;		// never reloaded
+			XMLPropertiesComponentSnapshot snapshot = XMLPropertiesComponentSnapshot.of(xml,
+																						reloadCheckInterval);
+			_snapshots.put(component,snapshot);		// publish (replaces the previous one)
+			log.trace("{} properties snapshot for {}/{} published",
+					  snapshot.size(),_appCode,component);
+		} catch (RuntimeException rtEx) {
+			log.warn("Could NOT build the properties snapshot for {}/{}: the properties will be resolved against the xml: {}",
+					 _appCode,component,rtEx.getMessage());
+			_snapshots.remove(component);
+		}
+	}
 	/**
 	 * Ensures a certain cache capacity<br>
 	 * This function is called from {@link XMLPropertiesForAppComponentsContainer} when a new XML properties file is loaded
@@ -383,6 +410,42 @@ implements XMLPropertiesComponentLoadedListener {
 		return nodeList;
 	}
 ///////////////////////////////////////////////////////////////////////////////
+//	SNAPSHOT
+///////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the component's properties snapshot (if available)
+	 * If it's time to check if the component must be reloaded, the check is done and
+	 * if it's reloaded the new snapshot is returned
+	 * @param component
+	 * @return the snapshot or null if there's NO snapshot (the properties MUST be resolved using the xml)
+	 */
+	XMLPropertiesComponentSnapshot getSnapshot(final AppComponent component) {
+		if (!_useCache) return null;
+		XMLPropertiesComponentSnapshot outSnapshot = _snapshots.get(component);
+		if (outSnapshot != null && outSnapshot.isReloadCheckDue()) {
+			boolean reloaded = _reloadIfNecessary(component);
+			if (reloaded) {
+				outSnapshot = _snapshots.get(component);				// the new snapshot
+			} else {
+				outSnapshot.reloadChecked();
+			}
+		}
+		return outSnapshot;
+	}
+	/**
+	 * Checks if the component must be reloaded: if so, the component's cached properties are discarded
+	 * and the component's xml is loaded again (a new snapshot is published)
+	 * @param component
+	 * @return true if the component was reloaded
+	 */
+	private boolean _reloadIfNecessary(final AppComponent component) {
+		boolean reloaded = _componentXMLManager.reloadIfNecessary(component);
+		if (!reloaded) return false;
+		this.clear(component);									// the cached properties are NOT longer valid
+		_componentXMLManager.loadIfNecessary(component);		// a new snapshot is published
+		return true;
+	}
+///////////////////////////////////////////////////////////////////////////////
 // 	METODOS PRIVADOS
 ///////////////////////////////////////////////////////////////////////////////
 	private String _retrieveStringProperty(final AppComponent component,final Path propXPath) {
@@ -473,8 +536,7 @@ implements XMLPropertiesComponentLoadedListener {
 	private <T> CacheValue _retrieve(final AppComponent component,final Path xPath,
 									 final Class<T> type,final Marshaller marshaller) {
 		// [0] Comprobar si es necesario re-cargar las propiedades
-		boolean hasToClear = _componentXMLManager.reloadIfNecessary(component);
-		if (hasToClear) this.clear(component);		// Borrar todas las entradas del componente en la cach
+		_reloadIfNecessary(component);		// Borrar todas las entradas del componente en la cach
 
 		// [1] Cargar la propiedad
 		CacheKey key = new CacheKey(component,xPath);
@@ -11,9 +11,7 @@ import java.util.Map;
 import javax.xml.namespace.QName;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -36,8 +34,10 @@ import r01f.resources.ResourcesLoaderBuilder;
 import r01f.resources.ResourcesReloadControl;
 import r01f.resources.ResourcesReloadControlBuilder;
 import r01f.resources.ResourcesReloadControlDef;
+import r01f.resources.ResourcesReloadControlFileWatchBased;
 import r01f.types.Path;
 import r01f.xml.XMLDocumentBuilder;
+import r01f.xml.XPathCompiledExpressions;
 
 
 /**
@@ -207,6 +207,15 @@ class XMLPropertiesForAppComponentsContainer {
     	}
     	return outReload;
     }
+    /**
+     * Loads the component's xml if it's NOT loaded
+     * (the {@link XMLPropertiesComponentLoadedListener} is notified if the xml is loaded)
+     * @param component
+     * @return true if the component's xml is loaded
+     */
+    boolean loadIfNecessary(final AppComponent component) {
+    	return _retrieveComponent(component) != null;
+    }
 ///////////////////////////////////////////////////////////////////////////////////////////
 //  PUBLIC METHODS
 ///////////////////////////////////////////////////////////////////////////////////////////
@@ -245,20 +254,9 @@ class XMLPropertiesForAppComponentsContainer {
             thePropXPath = propXPath.asString().trim();
             if (thePropXPath.startsWith("/")) thePropXPath = thePropXPath.substring(1);
 
-            XPathFactory xPathFactory = XPathFactory.newInstance();
-            XPath xPath = xPathFactory.newXPath();
-            XPathExpression xPathExpr = xPath.compile(thePropXPath);
-            if (returnType == XPathConstants.BOOLEAN) {
-            	outObj = xPathExpr.evaluate(comp.getXml(),XPathConstants.BOOLEAN);
-            } else if (returnType == XPathConstants.NUMBER) {
-            	outObj = xPathExpr.evaluate(comp.getXml(),XPathConstants.NUMBER);
-            } else if (returnType == XPathConstants.STRING) {
-            	outObj = xPathExpr.evaluate(comp.getXml(),XPathConstants.STRING);
-            } else if (returnType == XPathConstants.NODE) {
-            	outObj = xPathExpr.evaluate(comp.getXml(),XPathConstants.NODE);
-            } else if (returnType == XPathConstants.NODESET) {
-            	outObj = xPathExpr.evaluate(comp.getXml(),XPathConstants.NODESET);
-            }
+            outObj = XPathCompiledExpressions.evaluate(comp.getXml(),		// the compiled expression is cached
+            										   thePropXPath,
+            										   returnType);
             return outObj;
         } catch (XPathExpressionException xPathEx) {
         	log.warn("Error retrieving property at {} for {}/{}",
@@ -289,16 +287,27 @@ class XMLPropertiesForAppComponentsContainer {
         			//		  (at this point the cache is re-built to accomodate the new estimated property number)
         			_componentLoadedListener.newComponentLoaded(compDef);
 
-        			// [1] -- Load the XML file
-        			Document xmlDoc = _loadComponentXML(compDef);
-
-	        		// [2] -- Load the reload control policy
+        			// [1] -- Load the reload control policy
+        			//		  (files are watched BEFORE they're loaded so a change while loading is NOT lost)
+        			ResourcesLoader resLoader = ResourcesLoaderBuilder.createResourcesLoaderFor(compDef.getLoaderDef());
         			ResourcesReloadControl reloadControlImpl = _loadReloadControlImpl(compDef);
+        			if (reloadControlImpl instanceof ResourcesReloadControlFileWatchBased) {
+        				((ResourcesReloadControlFileWatchBased)reloadControlImpl).watch(component.asString(),
+        																				resLoader,compDef.getPropertiesFileURI());
+        			}
+
+        			// [2] -- Load the XML file
+        			Document xmlDoc = _loadComponentXML(compDef,
+        												resLoader);
 
 	        		// [3] -- Cache
 	        		outComp = new ComponentCacheXML(compDef,System.currentTimeMillis(),reloadControlImpl,
 	        									    xmlDoc);
 	        		_componentsXMLCache.put(key,outComp);
+	        		
+	        		// [4] -- Tell the cache that the component's xml is available (the properties snapshot is built)
+	        		_componentLoadedListener.componentXMLLoaded(component,compDef,
+	        													xmlDoc);
         		}
         	}
         } catch (XMLPropertiesException xmlPropsEx) {
@@ -310,14 +319,13 @@ class XMLPropertiesForAppComponentsContainer {
      * Loads a properties XML file for appCode/component as stated at the component definition
      * @param component 
      * @param compDef component definition
+     * @param resLoader the resources loader created from the component definition
      * @return the xml {@link Document}
      * @throws XMLPropertiesException if the XML file cannot be loaded or it's malformed
      */
-    private Document _loadComponentXML(final XMLPropertiesComponentDef compDef) throws XMLPropertiesException {
-    	// [1] Get a resources loader
-    	ResourcesLoader resLoader = ResourcesLoaderBuilder.createResourcesLoaderFor(compDef.getLoaderDef());
-    	
-    	// [2] Load the XML file using the configured resourcesLoader and parse it
+    private Document _loadComponentXML(final XMLPropertiesComponentDef compDef,
+    								   final ResourcesLoader resLoader) throws XMLPropertiesException {
+    	// Load the XML file using the configured resourcesLoader and parse it
 		XMLDocumentBuilder domBuilder = new XMLDocumentBuilder(resLoader);
 		Document xmlDoc = null;
 		try {
@@ -7,7 +7,14 @@ import java.io.StringWriter;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -237,6 +244,15 @@ import r01f.util.types.collections.CollectionUtils;
  *  		This should be implemented in the remote importer to fully support partials.
  * 		</li>
  * </ul>
+ * 
+ * Ruby engines pool
+ * =================
+ * Creating a jRuby runtime and requiring the sass / compass gems is slow so a bounded pool of warmed-up engines is kept:
+ * <ul>
+ * 		<li>Every engine is created with the LOAD_PATH set and the gems already required</li>
+ * 		<li>Every engine is used by a single thread at a time so independent stylesheets are compiled in parallel</li>
+ * 		<li>The engines are shared by every processor using the same gems home (see {@link #sharedFor(String, SassOptions, int)})</li>
+ * </ul>
  */
 @Slf4j
 class RubySassEngine {
@@ -244,14 +260,48 @@ class RubySassEngine {
 //  CONSTANTS
 /////////////////////////////////////////////////////////////////////////////////////////
 	private static Pattern GEM_NAME_PATTERN = Pattern.compile("([a-z_]+)-(.+)");
+	/**
+	 * Default max number of ruby engines (every engine is a whole jRuby runtime so they're heavy)
+	 */
+	static final int DEFAULT_ENGINE_POOL_SIZE = Math.min(4,Runtime.getRuntime().availableProcessors());
+	/**
+	 * The ruby global var where the sass source to be compiled is handed to the engine
+	 */
+	private static final String SOURCE_SASS_VAR = "$r01f_sass_source";
+	/**
+	 * The engines shared by gems home (and remote importing) so the engines are warmed-up only once
+	 */
+	private static final ConcurrentMap<String,RubySassEngine> SHARED_ENGINES = new ConcurrentHashMap<String,RubySassEngine>();
 /////////////////////////////////////////////////////////////////////////////////////////
 //  FIELDS
 /////////////////////////////////////////////////////////////////////////////////////////
+	private final Map<String,String> _gems;
 	/**
-	 * The ruby engine... this should be initialized ONLY once
+	 * The stylesheets dirs of the frameworks shipped with the gems (ie: compass) where the
+	 * framework @imports are resolved
 	 */
-	private ScriptingContainer _rubyEngine;
-	private final Map<String,String> _gems;
+	private final List<File> _frameworksDirs;
+	/**
+	 * true if the remote-sass gem is required (@imports NOT resolved locally are resolved remotely)
+	 */
+	private final boolean _remoteImports;
+	/**
+	 * The max number of ruby engines
+	 */
+	private final int _poolSize;
+	/**
+	 * The warmed-up ruby engines (the sass / compass gems are already required) NOT in use
+	 * Every engine is used by a single thread at a time
+	 */
+	private final BlockingQueue<ScriptingContainer> _idleRubyEngines;
+	/**
+	 * The number of created ruby engines
+	 */
+	private final AtomicInteger _createdRubyEngines = new AtomicInteger(0);
+	/**
+	 * The compile scripts by sass options
+	 */
+	private final ConcurrentMap<String,String> _compileScripts = new ConcurrentHashMap<String,String>();
 /////////////////////////////////////////////////////////////////////////////////////////
 //  BUILDER
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -267,11 +317,42 @@ class RubySassEngine {
 	 * @param gemsHome the dir 
 	 */
 	public RubySassEngine(final String gemsHome) {
+		this(gemsHome,
+			 false,DEFAULT_ENGINE_POOL_SIZE);
+	}
+	public RubySassEngine(final String gemsHome,
+						  final boolean remoteImports,final int poolSize) {
+		if (poolSize <= 0) throw new IllegalArgumentException("The ruby engines pool size MUST be greater than zero");
 		_gems = _initGemsPaths(gemsHome);
+		_frameworksDirs = _initFrameworksDirs(_gems);
+		_remoteImports = remoteImports;
+		_poolSize = poolSize;
+		_idleRubyEngines = new ArrayBlockingQueue<ScriptingContainer>(poolSize);
 	}
 	public static RubySassEngine create(final String gemsHome) {
 		return new RubySassEngine(gemsHome);
 	}
+	/**
+	 * Returns the engine shared by every processor using the same gems home and remote importing
+	 * (the first call creates the engine with the given pool size)
+	 * @param gemsHome
+	 * @param sassOptions
+	 * @param poolSize
+	 * @return
+	 */
+	public static RubySassEngine sharedFor(final String gemsHome,
+										   final SassOptions sassOptions,final int poolSize) {
+		boolean remoteImports = sassOptions != null && Strings.isNOTNullOrEmpty(sassOptions.getRemoteResourcesLocation());
+		String key = gemsHome + (remoteImports ? "#remote" : "#local");
+		RubySassEngine outEngine = SHARED_ENGINES.get(key);
+		if (outEngine == null) {
+			RubySassEngine newEngine = new RubySassEngine(gemsHome,
+														  remoteImports,poolSize);
+			outEngine = SHARED_ENGINES.putIfAbsent(key,newEngine);
+			if (outEngine == null) outEngine = newEngine;
+		}
+		return outEngine;
+	}
 	/**
 	 * Init gems by inspecting the contents of the gemsHome dir
 	 * @param gemsHome
@@ -314,6 +395,27 @@ class RubySassEngine {
 		
 		return outPaths;
 	}
+	/**
+	 * Finds the stylesheets dirs of the frameworks registered by the gems when required
+	 * (ie: compass-0.12.2/frameworks/compass/stylesheets or compass-core-1.0.3/stylesheets)
+	 * @param gems
+	 * @return
+	 */
+	private static List<File> _initFrameworksDirs(final Map<String,String> gems) {
+		List<File> outDirs = Lists.newArrayList();
+		for (String gemLibPath : new TreeMap<String,String>(gems).values()) {
+			File gemDir = new File(gemLibPath).getParentFile();		// ie: gemsRoot + "compass-0.12.2"
+			File stylesheetsDir = new File(gemDir,"stylesheets");
+			if (stylesheetsDir.isDirectory()) outDirs.add(stylesheetsDir);
+			File[] frameworks = new File(gemDir,"frameworks").listFiles();
+			if (frameworks == null) continue;
+			for (File framework : frameworks) {
+				File frameworkStylesheetsDir = new File(framework,"stylesheets");
+				if (frameworkStylesheetsDir.isDirectory()) outDirs.add(frameworkStylesheetsDir);
+			}
+		}
+		return outDirs;
+	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  PROCESS
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -329,6 +431,7 @@ class RubySassEngine {
 	}
 	/**
 	 * Transforms a sass content into css 
+	 * Many sources can be compiled at the same time (up to the pool size): every compilation uses it's own ruby engine
 	 * @param sassOptions sass framework options
 	 * @param sassCss the Sass content to process.
 	 */
@@ -338,63 +441,123 @@ class RubySassEngine {
 		
 		SassOptions theSassOptions = sassOptions == null ? SassOptions.DEFAULT_OPTIONS	
 														 : sassOptions;
+		String theScript = _compileScriptFor(theSassOptions);
+		log.debug("Sass compile script:\n{}",theScript);
 		
-		String scriptTemplate = _buildCompileScript(theSassOptions);		
-		String theSassToBeCompiled = sassCss.replace("'","\"");
-		String theScript = Strings.create(theSassToBeCompiled.length() + scriptTemplate.length())
-								  .add(scriptTemplate)
-								  .replace("${SOURCE_SASS}",theSassToBeCompiled)
-								  .asString();
-		log.info(theScript);
-		System.out.println(theScript);
-		ScriptingContainer rubyEngine = _getOrCreateRubyEngine();
-		String compiledCSS = rubyEngine.runScriptlet(theScript)
-								   	   .toString();
-		return compiledCSS;
+		ScriptingContainer rubyEngine = _borrowRubyEngine();
+		try {
+			// the source is handed as a ruby var so it's NOT escaped into the script
+			rubyEngine.put(SOURCE_SASS_VAR,sassCss);
+			String compiledCSS = rubyEngine.runScriptlet(theScript)
+									   	   .toString();
+			return compiledCSS;
+		} finally {
+			rubyEngine.remove(SOURCE_SASS_VAR);
+			_idleRubyEngines.offer(rubyEngine);
+		}
+	}
+	/**
+	 * Returns a key that changes if the gems used to compile change: the path of every gem
+	 * (the gem dirs are named [gem_name]-[version] so a gem upgrade changes the key)
+	 * @return
+	 */
+	public String getGemsKey() {
+		StringBuilder outKey = new StringBuilder();
+		for (Map.Entry<String,String> gem : new TreeMap<String,String>(_gems).entrySet()) {
+			outKey.append(gem.getKey()).append('=').append(gem.getValue()).append(';');
+		}
+		if (_remoteImports) outKey.append("#remote");
+		return outKey.toString();
+	}
+	/**
+	 * @return the stylesheets dirs of the frameworks shipped with the gems (ie: compass)
+	 */
+	public List<File> getFrameworksDirs() {
+		return _frameworksDirs;
+	}
+	/**
+	 * @return the max number of sources compiled at the same time
+	 */
+	public int getPoolSize() {
+		return _poolSize;
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
-//  
+//  RUBY ENGINES POOL
 /////////////////////////////////////////////////////////////////////////////////////////	
 	/**
-	 * Returns the previously created ruby engine or creates a new one if it's not been created
+	 * Gets an idle ruby engine, creates a new one if the pool is NOT full or 
+	 * waits for an engine to be released
 	 * @return
 	 * @throws ScriptException
 	 */
-	private ScriptingContainer _getOrCreateRubyEngine() throws ScriptException {
-		if (_rubyEngine == null) {
-			// Create the scripting engine
-			_rubyEngine = new ScriptingContainer(LocalContextScope.CONCURRENT);
-			// Set the load path
-			if (CollectionUtils.hasData(_gems)) _rubyEngine.setLoadPaths(Lists.newArrayList(_gems.values()));
-			// _rubyEngine.setClassLoader(RubySassEngine.class.getClassLoader());
-	
-			// Another way of running a ruby script could be:
-			// ScriptEngine _rubyEngine = new ScriptEngineManager().getEngineByName("jruby");
+	private ScriptingContainer _borrowRubyEngine() throws ScriptException {
+		ScriptingContainer outEngine = _idleRubyEngines.poll();
+		if (outEngine != null) return outEngine;
+		
+		// Create a new engine if the pool is NOT full
+		while (true) {
+			int created = _createdRubyEngines.get();
+			if (created >= _poolSize) break;
+			if (_createdRubyEngines.compareAndSet(created,created + 1)) {
+				try {
+					return _createRubyEngine();
+				} catch(RuntimeException rtEx) {
+					_createdRubyEngines.decrementAndGet();
+					throw rtEx;
+				} catch(ScriptException scriptEx) {
+					_createdRubyEngines.decrementAndGet();
+					throw scriptEx;
+				}
+			}
+		}
+		// ... wait for an engine
+		try {
+			outEngine = _idleRubyEngines.take();
+		} catch(InterruptedException intEx) {
+			Thread.currentThread().interrupt();
+			throw new ScriptException("Interrupted while waiting for an idle jRuby engine");
 		}
-		if (_rubyEngine == null) throw new ScriptException("Cannot create the jRuby engine. Check that the required libraries are available at runtime!");
-		return _rubyEngine;
+		return outEngine;
 	}
-  	private String _buildCompileScript(final SassOptions sassOptions) {
-		// See [Using Sass in ruby code] at http://sass-lang.com/docs/yardoc/file.SASS_REFERENCE.html
-		// The following ruby script is built:
-  		//		# Set the LOAD_PATH
-  		//		sassGemDir = 'd:/ruby/gems/sass-3.2.13/lib'
-  		//		remoteSassGemDir = 'd:/ruby/gems/remote-sass-0.0.1/lib'
-  		//		compassGemDir = 'd:/ruby/gems/compass-0.12.2/lib'
-  		//		chunkyPngGemDir = 'd:/ruby/gems/chunky_png-1.2.9/lib' 
-  		//		fssmGemDir = 'd:/ruby/gems/fssm-0.2.10/lib'
-  		//		$LOAD_PATH.insert(0,sassGemDir,remoteSassGemDir,compassGemDir,chunkyPngGemDir,fssmGemDir)
-  		//
-  		//		# Call the engine
-		//		require 'rubygems'
-		//		require 'sass/plugin'
-		//		require 'sass/engine'
-		//		source = '...the scss code....'
-		//		engine = Sass::Engine.new(source,{ :syntax => :scss, 
-		//										   :compass => {:css_dir => '/styles',:js_dir => '/scripts',images_dir => '/images'},
-	  	//										   :load_paths => {'d:/styles/framewors/} })
-		//		result = engine.render
+	/**
+	 * Creates a new ruby engine and warms it up: the LOAD_PATH is set and the sass / compass gems are required
+	 * so the compile script does NOT have to do it every time
+	 * @return
+	 * @throws ScriptException
+	 */
+	private ScriptingContainer _createRubyEngine() throws ScriptException {
+		// Create the scripting engine: every engine has it's own runtime since it's used by a single thread at a time
+		ScriptingContainer outRubyEngine = new ScriptingContainer(LocalContextScope.SINGLETHREAD);
+		// Set the load path
+		if (CollectionUtils.hasData(_gems)) outRubyEngine.setLoadPaths(Lists.newArrayList(_gems.values()));
+		// outRubyEngine.setClassLoader(RubySassEngine.class.getClassLoader());
+
+		// Another way of running a ruby script could be:
+		// ScriptEngine _rubyEngine = new ScriptEngineManager().getEngineByName("jruby");
 		
+		String warmUpScript = _buildWarmUpScript();
+		log.debug("Warming up a new jRuby engine ({} of {}):\n{}",
+				  _createdRubyEngines.get(),_poolSize,warmUpScript);
+		long start = System.currentTimeMillis();
+		outRubyEngine.runScriptlet(warmUpScript);
+		log.info("...jRuby engine ready for sass compilation in {} millis",
+				 System.currentTimeMillis() - start);
+		return outRubyEngine;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SCRIPTS
+/////////////////////////////////////////////////////////////////////////////////////////	
+	/**
+	 * Builds the script that is run ONCE when an engine is created:
+	 * 		# Set the LOAD_PATH
+	 * 		...
+	 * 		# requires
+	 * 		require 'rubygems'
+	 * 		require 'sass/plugin'
+	 * 		...
+	 * @return
+	 */
+	private String _buildWarmUpScript() {
 		final StringWriter raw = new StringWriter();
 		final PrintWriter rubyScript = new PrintWriter(raw);
 		
@@ -403,12 +566,39 @@ class RubySassEngine {
 		if (Strings.isNOTNullOrEmpty(loadPath)) rubyScript.println(loadPath);
 		
 		// 2 - Requires
-		rubyScript.println(_buildRequiredRubyGems(sassOptions));
+		rubyScript.println(_buildRequiredRubyGems(_remoteImports));
+		
+		if (log.isDebugEnabled()) _debugRubyEnvironment(rubyScript);
+		
+		rubyScript.flush();
+		return raw.toString();
+	}
+	/**
+	 * Returns the compile script for the given options (the scripts are built once for every options)
+	 * @param sassOptions
+	 * @return
+	 */
+	private String _compileScriptFor(final SassOptions sassOptions) {
+		String optionsKey = sassOptions.asCacheKey();
+		String outScript = _compileScripts.get(optionsKey);
+		if (outScript == null) {
+			outScript = _buildCompileScript(sassOptions);
+			_compileScripts.putIfAbsent(optionsKey,outScript);
+		}
+		return outScript;
+	}
+  	private static String _buildCompileScript(final SassOptions sassOptions) {
+		// See [Using Sass in ruby code] at http://sass-lang.com/docs/yardoc/file.SASS_REFERENCE.html
+		// The LOAD_PATH and the requires are set when the engine is warmed up, so the following ruby script is built:
+		//		engine = Sass::Engine.new($r01f_sass_source,{ :syntax => :scss, 
+		//										   			  :compass => {:css_dir => '/styles',:js_dir => '/scripts',images_dir => '/images'},
+	  	//										   			  :load_paths => {'d:/styles/framewors/} })
+		//		result = engine.render
 		
-		// 3 - The source Sass styles to be compiled
-		rubyScript.println("source = '${SOURCE_SASS}'");
+		final StringWriter raw = new StringWriter();
+		final PrintWriter rubyScript = new PrintWriter(raw);
 		
-		// 4 - The remote location where @imports NOT resolved locally are going to be looked for
+		// 1 - The remote location where @imports NOT resolved locally are going to be looked for
 		if (Strings.isNOTNullOrEmpty(sassOptions.getRemoteResourcesLocation())) {
 			log.warn("@import will be tried to be resolved locally and if it's not possible, they'll be resolved remotelly at {}",sassOptions.getRemoteResourcesLocation());
 			rubyScript.println(Strings.of("RemoteSass.location = \"{}\"")
@@ -417,15 +607,13 @@ class RubySassEngine {
 		} else {
 			log.warn("ALL @import will be resolved locally");
 		}
-		// 5 - Set the options > Sass Engine Options see http://sass-lang.com/documentation/file.SASS_REFERENCE.html#options
+		// 2 - Set the options > Sass Engine Options see http://sass-lang.com/documentation/file.SASS_REFERENCE.html#options
 	    Map<String,String> rubyOptionsMap = _buildOptions(sassOptions);
 	    
-		// 6 - Sass engine invocation
-		rubyScript.println("engine = Sass::Engine.new(source," + _buildRubyOptionsMapFor(rubyOptionsMap) + ")");
+		// 3 - Sass engine invocation
+		rubyScript.println("engine = Sass::Engine.new(" + SOURCE_SASS_VAR + "," + _buildRubyOptionsMapFor(rubyOptionsMap) + ")");
 		rubyScript.println("result = engine.render");
 		
-		if (log.isDebugEnabled()) _debugRubyEnvironment(rubyScript);
-		
 		rubyScript.flush();
 		
 		// [4] - Return
@@ -448,11 +636,11 @@ class RubySassEngine {
 	    				  			 "chunkyPngGemDir = '{}'\n" + 
 	    				  			 "fssmGemDir = '{}'\n" + 
 	     			  	  			"$LOAD_PATH.insert(0,sassGemDir,remoteSassGemDir,compassGemDir,chunkyPngGemDir,fssmGemDir)\n\n")
-	     			  	  		 .customizeWith(_gems.get("sassGem"),
-	     			  	  				 		_gems.get("remoteSassGem"),
-	     			  	  				 		_gems.get("compassGem"),
-	     			  	  				 		_gems.get("chunkyPngGem"),
-	     			  	  				 		_gems.get("fssmGem"))
+	     			  	  		 .customizeWith(_gems.get("sass"),
+	     			  	  				 		_gems.get("remote_sass"),
+	     			  	  				 		_gems.get("compass"),
+	     			  	  				 		_gems.get("chunky_png"),
+	     			  	  				 		_gems.get("fssm"))
 	     			  	  		 .asString();
   		}
   		return outLoadPath;
@@ -465,15 +653,16 @@ class RubySassEngine {
 	 *		require 'rubygems'
 	 *		require 'sass/plugin'
 	 *		require 'sass/engine'
+	 * @param remoteImports true if the remote-sass gem must be required
   	 * @return
   	 */
-  	private static String _buildRequiredRubyGems(final SassOptions options) {  		
+  	private static String _buildRequiredRubyGems(final boolean remoteImports) {  		
 	    LinkedHashSet<String> rubyRequires = new LinkedHashSet<String>();
 	    _addRequiredRubyGem("rubygems",rubyRequires);
 	    _addRequiredRubyGem("sass/plugin",rubyRequires);
 	    _addRequiredRubyGem("sass/engine",rubyRequires);
-	    if (options != null && Strings.isNOTNullOrEmpty(options.getRemoteResourcesLocation())) _addRequiredRubyGem("remote-sass",rubyRequires);
-	    if (options != null) _addRequiredRubyGem("compass",rubyRequires);
+	    if (remoteImports) _addRequiredRubyGem("remote-sass",rubyRequires);
+	    _addRequiredRubyGem("compass",rubyRequires);
 	    
 		if (CollectionUtils.isNullOrEmpty(rubyRequires)) return Strings.EMPTY;
 		
@@ -0,0 +1,195 @@
+package r01f.html.css;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+import lombok.extern.slf4j.Slf4j;
+import r01f.util.types.Strings;
+
+/**
+ * A disk cache of compiled css so a Sass source is NOT compiled again if neither it nor the files it imports changed
+ * (it survives restarts so a cold start does NOT have to compile every stylesheet)
+ * The cache key is a content hash of:
+ * <ul>
+ * 		<li>The sass source</li>
+ * 		<li>The {@link SassOptions}</li>
+ * 		<li>The gems home and the path of every sass / compass gem (the path contains the gem version)</li>
+ * 		<li>The contents of every file imported (@import) by the source or by the imported files
+ * 			(the imports are resolved as the Sass fileSystem importer does: foo.scss, foo.sass, _foo.scss, _foo.sass, foo
+ * 			relative to the importing file, the frameworks home dir or the stylesheets dirs of the frameworks shipped with the gems -ie: compass-)</li>
+ * </ul>
+ * If an import cannot be resolved locally (ie: it's resolved by the remote importer) the source is NOT cached
+ * since the remote file changes cannot be detected
+ */
+@Slf4j
+class SassCompiledCssCache {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final Pattern BLOCK_COMMENT_PATTERN = Pattern.compile("/\\*.*?\\*/",Pattern.DOTALL);
+	private static final Pattern LINE_COMMENT_PATTERN = Pattern.compile("(?m)^\\s*//.*$");
+	private static final Pattern IMPORT_PATTERN = Pattern.compile("@import\\s+([^;{}]+);");
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final File _cacheDir;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	SassCompiledCssCache(final String cacheDir) {
+		_cacheDir = new File(cacheDir);
+		if (!_cacheDir.isDirectory() && !_cacheDir.mkdirs()) throw new IllegalArgumentException("The compiled css cache dir " + cacheDir + " does NOT exists and cannot be created!!");
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the cache key of a sass source
+	 * @param gemsHome the sass / compass gems home
+	 * @param gemsKey the gems used to compile (see {@link RubySassEngine#getGemsKey()})
+	 * @param frameworksDirs the stylesheets dirs of the frameworks shipped with the gems (see {@link RubySassEngine#getFrameworksDirs()})
+	 * @param sassOptions
+	 * @param sassSource
+	 * @return the key or null if the source cannot be cached (an @import cannot be resolved locally)
+	 */
+	String keyFor(final String gemsHome,final String gemsKey,final Collection<File> frameworksDirs,
+				  final SassOptions sassOptions,
+				  final String sassSource) {
+		SassOptions theSassOptions = sassOptions == null ? SassOptions.DEFAULT_OPTIONS
+														 : sassOptions;
+		// the imports are looked for at the frameworks home dir (the load_paths option) and then at the gems frameworks dirs
+		List<File> importsDirs = Lists.newArrayList();
+		importsDirs.add(Strings.isNOTNullOrEmpty(theSassOptions.getFrameworksLocalHomeDir()) ? new File(theSassOptions.getFrameworksLocalHomeDir())
+																							 : new File("."));		// the default working dir
+		if (frameworksDirs != null) importsDirs.addAll(frameworksDirs);
+		Set<File> importedFiles = new LinkedHashSet<File>();
+		if (!_collectImportedFiles(sassSource,null,importsDirs,
+								   importedFiles)) return null;
+		try {
+			Hasher hasher = Hashing.sha1().newHasher();
+			hasher.putString(gemsHome != null ? gemsHome : Strings.EMPTY,Charsets.UTF_8);
+			hasher.putString(gemsKey != null ? gemsKey : Strings.EMPTY,Charsets.UTF_8);
+			hasher.putString(theSassOptions.asCacheKey(),Charsets.UTF_8);
+			hasher.putString(sassSource,Charsets.UTF_8);
+			for (File importedFile : importedFiles) {
+				hasher.putString(importedFile.getPath(),Charsets.UTF_8);
+				hasher.putBytes(Files.toByteArray(importedFile));
+			}
+			return hasher.hash().toString();
+		} catch(IOException ioEx) {
+			log.warn("Could NOT read a sass imported file: the compiled css will NOT be cached: {}",ioEx.getMessage());
+			return null;
+		}
+	}
+	/**
+	 * Returns a cached compiled css
+	 * @param key
+	 * @return the compiled css or null if it's NOT cached
+	 */
+	String get(final String key) {
+		File cssFile = new File(_cacheDir,key + ".css");
+		if (!cssFile.isFile()) return null;
+		try {
+			return Files.toString(cssFile,Charsets.UTF_8);
+		} catch(IOException ioEx) {
+			log.warn("Could NOT read the cached compiled css at {}: {}",cssFile,ioEx.getMessage());
+			return null;
+		}
+	}
+	/**
+	 * Caches a compiled css
+	 * (it's written to a temp file that is renamed so a partially written css is never read)
+	 * @param key
+	 * @param compiledCss
+	 */
+	void put(final String key,
+			 final String compiledCss) {
+		File cssFile = new File(_cacheDir,key + ".css");
+		try {
+			File tempFile = File.createTempFile(key,".tmp",_cacheDir);
+			Files.write(compiledCss,tempFile,Charsets.UTF_8);
+			if (!tempFile.renameTo(cssFile)) tempFile.delete();	// another thread cached the same css
+		} catch(IOException ioEx) {
+			log.warn("Could NOT cache the compiled css at {}: {}",cssFile,ioEx.getMessage());
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  IMPORTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Collects the files imported by a sass source and by the imported files
+	 * @return false if an import cannot be resolved locally
+	 */
+	private static boolean _collectImportedFiles(final String sassSource,
+												 final File sourceDir,final List<File> importsDirs,
+												 final Set<File> importedFiles) {
+		String theSource = LINE_COMMENT_PATTERN.matcher(BLOCK_COMMENT_PATTERN.matcher(sassSource).replaceAll(""))
+											   .replaceAll("");
+		Matcher m = IMPORT_PATTERN.matcher(theSource);
+		while (m.find()) {
+			for (String imported : m.group(1).split(",")) {
+				String importedName = imported.trim();
+				if (importedName.length() < 2
+				 || (importedName.charAt(0) != '"' && importedName.charAt(0) != '\'')) continue;	// url(...) or media query imports: plain css
+				importedName = importedName.substring(1,importedName.length() - 1);
+				if (importedName.endsWith(".css") || importedName.startsWith("http://") || importedName.startsWith("https://")
+				 || importedName.startsWith("//")) continue;											// plain css imports
+
+				File importedFile = _resolveImport(importedName,sourceDir);
+				for (Iterator<File> it = importsDirs.iterator(); importedFile == null && it.hasNext(); ) {
+					importedFile = _resolveImport(importedName,it.next());
+				}
+				if (importedFile == null) {
+					log.debug("The sass @import {} cannot be resolved locally: the compiled css will NOT be cached",importedName);
+					return false;
+				}
+				if (!importedFiles.add(importedFile)) continue;				// already collected
+				try {
+					if (!_collectImportedFiles(Files.toString(importedFile,Charsets.UTF_8),
+											   importedFile.getParentFile(),importsDirs,
+											   importedFiles)) return false;
+				} catch(IOException ioEx) {
+					log.warn("Could NOT read the sass imported file {}: {}",importedFile,ioEx.getMessage());
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	/**
+	 * Resolves an @import as the Sass fileSystem importer does
+	 * @return the imported file or null if it's NOT found
+	 */
+	private static File _resolveImport(final String importedName,
+									   final File dir) {
+		if (dir == null) return null;
+		File file = new File(dir,importedName);
+		File parentDir = file.getParentFile();
+		String name = file.getName();
+		File[] candidates = importedName.endsWith(".scss") || importedName.endsWith(".sass")
+												? new File[] { file,
+															   new File(parentDir,"_" + name) }
+												: new File[] { new File(parentDir,name + ".scss"),
+															   new File(parentDir,name + ".sass"),
+															   new File(parentDir,"_" + name + ".scss"),
+															   new File(parentDir,"_" + name + ".sass"),
+															   file };
+		for (File candidate : candidates) {
+			if (candidate.isFile()) return candidate.getAbsoluteFile();
+		}
+		return null;
+	}
+}
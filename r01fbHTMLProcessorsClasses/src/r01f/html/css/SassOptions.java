@@ -61,6 +61,21 @@ public class SassOptions
 		return this.copy();
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
+//  KEY
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return a key that is the same for options with the same values 
+	 * 		   (used to cache the compile scripts and the compiled css)
+	 */
+	String asCacheKey() {
+		return new StringBuilder().append(_frameworksLocalHomeDir).append('|')
+								  .append(_remoteResourcesLocation).append('|')
+								  .append(_webServerDirForStylesheets).append('|')
+								  .append(_webServerDirForScripts).append('|')
+								  .append(_webServerDirForImages)
+								  .toString();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
 //  METHODS
 /////////////////////////////////////////////////////////////////////////////////////////
 	@Override
@@ -2,11 +2,20 @@ package r01f.html.css;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.script.ScriptException;
 
+import com.google.common.collect.Maps;
+
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
+import r01f.concurrent.DaemonThreadFactory;
 import r01f.util.types.Strings;
 
 /**
@@ -28,6 +37,8 @@ import r01f.util.types.Strings;
  * String compiledCss = sassProcessor.process(sassSourceReader);
  * System.out.println(writer.toString());
  * </pre>
+ * The compilations are done by a pool of warmed-up ruby engines shared by every processor with the same gems home
+ * (see {@link RubySassEngine}) and the compiled css can be cached at disk (see {@link #cachingCompiledCssAt(String)})
  * It also can be used with Wro4j (see documents at https://code.google.com/p/wro4j/) 
  */
 @Accessors(prefix="_")
@@ -49,9 +60,13 @@ public class SassProcessor
 	 */
 	private final String _gemsHome;
 	/**
-	 * Ruby SaasEngine; this should be initialized ONLY once.
+	 * The compiled css cache (lazy loaded)
+	 */
+	private SassCompiledCssCache _compiledCssCache;
+	/**
+	 * The executor used to compile many sources in parallel (the ruby engines pool limits the real parallelism)
 	 */
-	private RubySassEngine _rubySASSEngine;
+	private static final ExecutorService PARALLEL_EXECUTOR = Executors.newCachedThreadPool(new DaemonThreadFactory());
 /////////////////////////////////////////////////////////////////////////////////////////
 //  BUILDER
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -88,9 +103,21 @@ public class SassProcessor
 			String sassSource = Strings.of(sassSourceReader)
 							     	   .asString();
 			try {
-				outCompiledCss = _getOrCreateRubySASSEngine(_gemsHome)
-											.process(sassOptions,
-													 sassSource);
+				RubySassEngine engine = RubySassEngine.sharedFor(_gemsHome,
+																 sassOptions,_enginePoolSize);
+				// [1] - Try the cache
+				SassCompiledCssCache cache = _getOrCreateCompiledCssCache();
+				String cacheKey = cache != null ? cache.keyFor(_gemsHome,engine.getGemsKey(),engine.getFrameworksDirs(),
+															   sassOptions,sassSource)
+												: null;
+				if (cacheKey != null) outCompiledCss = cache.get(cacheKey);
+				if (outCompiledCss != null) return outCompiledCss;
+				
+				// [2] - Compile
+				outCompiledCss = engine.process(sassOptions,
+											 	sassSource);
+				// [3] - Cache
+				if (cacheKey != null) cache.put(cacheKey,outCompiledCss);
 				
 			} catch (final ScriptException scriptEx) {
 				ProcessorException procEx = null;
@@ -113,11 +140,55 @@ public class SassProcessor
 		}
 		return outCompiledCss;
 	}
+	/**
+	 * Transforms many independent sass contents into css in parallel
+	 * (up to the ruby engines pool size are compiled at the same time)
+	 * @param sassOptions sass and compass framework options 
+	 * @param sassSourceReaders the Sass contents to process by an id
+	 * @return the compiled css by the same id
+	 */
+	public <K> Map<K,String> processAll(final SassOptions sassOptions,
+										final Map<K,Reader> sassSourceReaders) throws ProcessorException {
+		Map<K,Future<String>> futures = Maps.newLinkedHashMap();
+		for (final Map.Entry<K,Reader> me : sassSourceReaders.entrySet()) {
+			futures.put(me.getKey(),
+						PARALLEL_EXECUTOR.submit(new Callable<String>() {
+														@Override
+														public String call() throws ProcessorException {
+															return SassProcessor.this.process(sassOptions,
+																							  me.getValue());
+														}
+												 }));
+		}
+		Map<K,String> outCompiledCss = Maps.newLinkedHashMap();
+		for (Map.Entry<K,Future<String>> me : futures.entrySet()) {
+			try {
+				outCompiledCss.put(me.getKey(),me.getValue().get());
+			} catch(InterruptedException intEx) {
+				Thread.currentThread().interrupt();
+				throw new ProcessorException("Interrupted while compiling the Sass sources",intEx);
+			} catch(ExecutionException exEx) {
+				if (exEx.getCause() instanceof ProcessorException) throw (ProcessorException)exEx.getCause();
+				throw new ProcessorException(exEx.getCause());
+			}
+		}
+		return outCompiledCss;
+	}
+	/**
+	 * Transforms many independent sass contents into css in parallel
+	 * Uses remote importing and Compass if they're initialized while creating an instance of {@link SassProcessor}
+	 * @param sassSourceReaders the Sass contents to process by an id
+	 * @return the compiled css by the same id
+	 */
+	public <K> Map<K,String> processAll(final Map<K,Reader> sassSourceReaders) throws ProcessorException {
+		return this.processAll(_sassOptions,
+							   sassSourceReaders);
+	}
 	/**
 	 * A getter used for lazy loading.
 	 */
-	protected RubySassEngine _getOrCreateRubySASSEngine(final String gemsHome) {
-		if (_rubySASSEngine == null) _rubySASSEngine = RubySassEngine.create(gemsHome);
-		return _rubySASSEngine;
+	private SassCompiledCssCache _getOrCreateCompiledCssCache() {
+		if (_compiledCssCache == null && Strings.isNOTNullOrEmpty(_compiledCssCacheDir)) _compiledCssCache = new SassCompiledCssCache(_compiledCssCacheDir);
+		return _compiledCssCache;
 	}
 }
\ No newline at end of file
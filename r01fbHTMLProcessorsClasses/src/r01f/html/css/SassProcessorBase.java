@@ -12,6 +12,14 @@ abstract class SassProcessorBase<SELF_TYPE extends SassProcessorBase<SELF_TYPE>>
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
     @Getter protected SassOptions _sassOptions;
+    /**
+     * The dir where the compiled css is cached (null if the compiled css is NOT cached)
+     */
+    @Getter protected String _compiledCssCacheDir;
+    /**
+     * The max number of ruby engines used to compile at the same time
+     */
+    @Getter protected int _enginePoolSize = RubySassEngine.DEFAULT_ENGINE_POOL_SIZE;
     
 /////////////////////////////////////////////////////////////////////////////////////////
 //  FLUENT-API
@@ -34,4 +42,26 @@ abstract class SassProcessorBase<SELF_TYPE extends SassProcessorBase<SELF_TYPE>>
 		_sassOptions = SassOptions.DEFAULT_OPTIONS;
 		return (SELF_TYPE)this;
 	}
+	/**
+	 * Caches the compiled css at the given dir so a source is NOT compiled again 
+	 * if neither it nor the imported files changed (see {@link SassCompiledCssCache})
+	 * @param cacheDir
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public SELF_TYPE cachingCompiledCssAt(final String cacheDir) {
+		_compiledCssCacheDir = cacheDir;
+		return (SELF_TYPE)this;
+	}
+	/**
+	 * Sets the max number of ruby engines used to compile at the same time
+	 * (it only has effect if the engines for the gems home were NOT created before)
+	 * @param poolSize
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public SELF_TYPE usingUpToRubyEngines(final int poolSize) {
+		_enginePoolSize = poolSize;
+		return (SELF_TYPE)this;
+	}
 }
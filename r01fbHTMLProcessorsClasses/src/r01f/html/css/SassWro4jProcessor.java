@@ -97,8 +97,10 @@ public class SassWro4jProcessor
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
 	private SassProcessor _getOrCreateSassProcessor(final String gemsHome) {
-		if (_sassProcessor != null) _sassProcessor = SassProcessor.create(gemsHome)
-																  .withOptions(_sassOptions);
+		if (_sassProcessor == null) _sassProcessor = SassProcessor.create(gemsHome)
+																  .withOptions(_sassOptions)
+																  .cachingCompiledCssAt(_compiledCssCacheDir)
+																  .usingUpToRubyEngines(_enginePoolSize);
 		return _sassProcessor;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package r01f.events.crud;
+
+import com.google.common.eventbus.Subscribe;
+
+import lombok.extern.slf4j.Slf4j;
+import r01f.events.PersistenceOperationEventListeners.PersistenceOperationOKEventListener;
+import r01f.events.PersistenceOperationEvents.PersistenceOperationOKEvent;
+import r01f.model.PersistableModelObject;
+import r01f.persistence.CRUDOK;
+import r01f.persistence.PersistenceOperationOK;
+import r01f.persistence.db.DBModelObjectsCache;
+
+/**
+ * {@link PersistenceOperationOKEvent}s listener that removes the created, updated or deleted model objects
+ * from the {@link DBModelObjectsCache} of EVERY model object type
+ * (the cache is consistent without it since it's keyed by the entity version, but the stale entries are freed at once)
+ */
+@Slf4j
+public class DBModelObjectsCacheInvalidatorEventListener
+  implements PersistenceOperationOKEventListener {
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Subscribe	// subscribes this event listener at the EventBus
+	@Override
+	public void onPersistenceOperationOK(final PersistenceOperationOKEvent opEvent) {
+		PersistenceOperationOK opOK = opEvent.getResultAsOperationOK();
+		if (!opOK.isCRUDOK()) return;
+
+		CRUDOK<?> crudOK = opOK.as(CRUDOK.class);
+		if (!crudOK.hasBeenCreated() && !crudOK.hasBeenUpdated() && !crudOK.hasBeenDeleted()) return;
+
+		DBModelObjectsCache cache = DBModelObjectsCache.existingFor(crudOK.getObjectType());
+		if (cache == null) return;
+
+		Object entity = crudOK.getOrThrow();
+		if (entity instanceof PersistableModelObject) {
+			PersistableModelObject<?> modelObj = (PersistableModelObject<?>)entity;
+			log.debug("Removing the {} model object with oid={} from the cache",
+					  crudOK.getObjectType().getSimpleName(),modelObj.getOid());
+			cache.invalidate(modelObj.getOid());
+		}
+	}
+}
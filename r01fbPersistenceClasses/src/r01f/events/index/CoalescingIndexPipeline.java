@@ -0,0 +1,617 @@
+package r01f.events.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import r01f.debug.Debuggable;
+import r01f.guids.OID;
+import r01f.model.IndexableModelObject;
+import r01f.persistence.index.IndexBatchResult;
+import r01f.persistence.index.IndexBatchResult.IndexBatchOperation;
+import r01f.services.interfaces.IndexServicesForModelObject;
+import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextBase;
+import r01f.util.types.Strings;
+
+/**
+ * Stage between the CRUD events and the {@link IndexServicesForModelObject} that reduces the index write amplification:
+ * <ul>
+ * 		<li>The index operations are NOT run at once: they're kept pending by model object oid and the pending operation
+ * 			of an oid is coalesced with the next ones (last write wins; a delete beats a previous or later update)</li>
+ * 		<li>The pending operations are flushed in batches (see {@link IndexServicesForModelObject#indexBatch(UserContext, Collection)})
+ * 			when there're max batch size pending operations or when the oldest one has been pending for the max delay</li>
+ * </ul>
+ * So an object updated 50 times in a second is reindexed once while the index freshness is bounded by the max delay
+ * (plus the flush time); the lag from the first pending change of an object to its flush is recorded
+ * <pre>
+ * 		pending	+ event		= pending
+ * 		INDEX	+ UPDATE	= INDEX (the last object)
+ * 		INDEX	+ DELETE	= DELETE
+ * 		UPDATE	+ UPDATE	= UPDATE (the last object)
+ * 		UPDATE	+ DELETE	= DELETE
+ * 		DELETE	+ UPDATE	= DELETE (an update event handled after the delete one)
+ * 		DELETE	+ INDEX		= UPDATE (the object was deleted and created again)
+ * </pre>
+ * A batch is run with the user context of its operations: the operations of a flush are grouped by user (and tenant)
+ * The operations of a failed batch are enqueued again (an INDEX is retried as an UPDATE since the batch could have been
+ * partially run) and retried at a later flush; they're discarded after max retries
+ *
+ * The flushes are run one after another at a single daemon thread shared by every pipeline
+ * BEWARE! the pending operations are lost if the jvm stops before they're flushed: call {@link #close()} before
+ * (when the crud events are handled asynchronously, the pipelines of the injected indexers are closed when the
+ * events executor is stopped, see ExecutorServiceManager#addStopTask)
+ */
+@Slf4j
+@Accessors(prefix="_")
+public class CoalescingIndexPipeline<O extends OID,M extends IndexableModelObject>
+  implements Debuggable {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+	public static final long DEFAULT_MAX_DELAY_MILLIS = 1000;
+	public static final int DEFAULT_MAX_RETRIES = 3;
+	/**
+	 * The thread where every pipeline flushes its pending operations: it's created with the first pipeline
+	 * and stopped when the last pipeline is closed
+	 */
+	private static ScheduledExecutorService FLUSHER;
+	private static int OPEN_PIPELINES = 0;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final Class<M> _type;
+	private final IndexServicesForModelObject<O,M> _indexServices;
+	@Getter private final int _maxBatchSize;
+	@Getter private final long _maxDelayMillis;
+	@Getter private final int _maxRetries;
+	/**
+	 * The pending operations by oid (in the order the oids were first changed: the first one is the oldest)
+	 */
+	private final LinkedHashMap<O,PendingIndexOp<M>> _pending = new LinkedHashMap<O,PendingIndexOp<M>>();
+	/**
+	 * true if a size-triggered flush is already scheduled
+	 */
+	private final AtomicBoolean _flushScheduled = new AtomicBoolean(false);
+	/**
+	 * true once the pipeline is closed: the operations are flushed at once at the calling thread
+	 */
+	private final AtomicBoolean _closed = new AtomicBoolean(false);
+	private final ScheduledExecutorService _flusher;
+	private final ScheduledFuture<?> _flushCheck;
+
+	private final AtomicLong _eventCount = new AtomicLong(0);
+	private final AtomicLong _flushedOpCount = new AtomicLong(0);
+	private final AtomicLong _retriedOpCount = new AtomicLong(0);
+	private final AtomicLong _failedOpCount = new AtomicLong(0);
+	private final AtomicLong _batchCount = new AtomicLong(0);
+	private final AtomicLong _lagMillisSum = new AtomicLong(0);
+	private volatile long _lastLagMillis = 0;
+	private volatile long _maxLagMillis = 0;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	private CoalescingIndexPipeline(final Class<M> type,
+									final IndexServicesForModelObject<O,M> indexServices,
+									final int maxBatchSize,final long maxDelayMillis,
+									final int maxRetries) {
+		if (maxBatchSize <= 0 || maxDelayMillis <= 0) throw new IllegalArgumentException("The index pipeline max batch size and max delay MUST be greater than zero");
+		if (maxRetries < 0) throw new IllegalArgumentException("The index pipeline max retries MUST NOT be negative");
+		_type = type;
+		_indexServices = indexServices;
+		_maxBatchSize = maxBatchSize;
+		_maxDelayMillis = maxDelayMillis;
+		_maxRetries = maxRetries;
+
+		// check the oldest pending operation age at a fraction of the max delay
+		long checkPeriod = Math.max(10,maxDelayMillis / 4);
+		_flusher = _acquireFlusher();
+		_flushCheck = _flusher.scheduleWithFixedDelay(new Runnable() {
+																@Override
+																public void run() {
+																	_flushIfOlderThanMaxDelay();
+																}
+													  },
+													  checkPeriod,checkPeriod,TimeUnit.MILLISECONDS);
+		log.info("Index pipeline for {}: batches of at most {} operations, flushed at most every {} millis ({} retries)",
+				 type.getSimpleName(),maxBatchSize,maxDelayMillis,maxRetries);
+	}
+	/**
+	 * Creates a pipeline with the default max batch size and max delay
+	 * @param type the indexed model object type
+	 * @param indexServices the index services the pending operations are flushed to
+	 * @return
+	 */
+	public static <O extends OID,M extends IndexableModelObject> CoalescingIndexPipeline<O,M> create(final Class<M> type,
+																									  final IndexServicesForModelObject<O,M> indexServices) {
+		return CoalescingIndexPipeline.create(type,
+											  indexServices,
+											  DEFAULT_MAX_BATCH_SIZE,DEFAULT_MAX_DELAY_MILLIS);
+	}
+	/**
+	 * Creates a pipeline with the default max retries
+	 * @param type the indexed model object type
+	 * @param indexServices the index services the pending operations are flushed to
+	 * @param maxBatchSize the pending operations are flushed when there're this number of them
+	 * @param maxDelayMillis the pending operations are flushed when the oldest one has been pending for this time
+	 * @return
+	 */
+	public static <O extends OID,M extends IndexableModelObject> CoalescingIndexPipeline<O,M> create(final Class<M> type,
+																									  final IndexServicesForModelObject<O,M> indexServices,
+																									  final int maxBatchSize,final long maxDelayMillis) {
+		return CoalescingIndexPipeline.create(type,
+											  indexServices,
+											  maxBatchSize,maxDelayMillis,
+											  DEFAULT_MAX_RETRIES);
+	}
+	/**
+	 * Creates a pipeline
+	 * @param type the indexed model object type
+	 * @param indexServices the index services the pending operations are flushed to
+	 * @param maxBatchSize the pending operations are flushed when there're this number of them
+	 * @param maxDelayMillis the pending operations are flushed when the oldest one has been pending for this time
+	 * @param maxRetries the times the operations of a failed batch are retried before they're discarded
+	 * @return
+	 */
+	public static <O extends OID,M extends IndexableModelObject> CoalescingIndexPipeline<O,M> create(final Class<M> type,
+																									  final IndexServicesForModelObject<O,M> indexServices,
+																									  final int maxBatchSize,final long maxDelayMillis,
+																									  final int maxRetries) {
+		return new CoalescingIndexPipeline<O,M>(type,
+												indexServices,
+												maxBatchSize,maxDelayMillis,
+												maxRetries);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FLUSHER THREAD
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static synchronized ScheduledExecutorService _acquireFlusher() {
+		if (FLUSHER == null) {
+			FLUSHER = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+																						   .setNameFormat("r01f-index-pipeline-flusher-%d")
+																						   .build());
+		}
+		OPEN_PIPELINES++;
+		return FLUSHER;
+	}
+	private static synchronized void _releaseFlusher() {
+		OPEN_PIPELINES--;
+		if (OPEN_PIPELINES <= 0 && FLUSHER != null) {
+			FLUSHER.shutdown();
+			FLUSHER = null;
+			OPEN_PIPELINES = 0;
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  ENQUEUE
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Enqueues a create
+	 * @param userContext
+	 * @param oid
+	 * @param modelObject
+	 */
+	public void created(final UserContext userContext,
+						final O oid,final M modelObject) {
+		_enqueue(userContext,
+				 oid,IndexBatchOperation.INDEX,modelObject);
+	}
+	/**
+	 * Enqueues an update
+	 * @param userContext
+	 * @param oid
+	 * @param modelObject
+	 */
+	public void updated(final UserContext userContext,
+						final O oid,final M modelObject) {
+		_enqueue(userContext,
+				 oid,IndexBatchOperation.UPDATE_INDEX,modelObject);
+	}
+	/**
+	 * Enqueues a delete
+	 * @param userContext
+	 * @param oid
+	 */
+	public void deleted(final UserContext userContext,
+						final O oid) {
+		_enqueue(userContext,
+				 oid,IndexBatchOperation.UNINDEX,null);
+	}
+	private void _enqueue(final UserContext userContext,
+						  final O oid,final IndexBatchOperation op,final M modelObject) {
+		_eventCount.incrementAndGet();
+		int pendingCount = 0;
+		synchronized(_pending) {
+			PendingIndexOp<M> prev = _pending.get(oid);
+			if (prev == null) {
+				_pending.put(oid,new PendingIndexOp<M>(op,modelObject,userContext,
+													   System.currentTimeMillis()));
+			} else {
+				prev.coalesceWith(op,modelObject,userContext);		// the first change time is kept
+			}
+			pendingCount = _pending.size();
+		}
+		// once closed there's no flusher: the operation is flushed at once
+		if (_closed.get()) {
+			_flushAll();
+			return;
+		}
+		if (pendingCount >= _maxBatchSize && _flushScheduled.compareAndSet(false,true)) {
+			try {
+				_flusher.execute(new Runnable() {
+										@Override
+										public void run() {
+											_flushScheduled.set(false);
+											_flushPending();
+										}
+								 });
+			} catch (RejectedExecutionException rejEx) {
+				// the pipeline was closed meanwhile
+				_flushScheduled.set(false);
+				_flushAll();
+			}
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FLUSH & CLOSE
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Flushes the pending operations at the calling thread
+	 * (the operations of a failed batch are retried at a later flush)
+	 */
+	public void flush() {
+		_flushPending();
+	}
+	/**
+	 * Stops the pipeline: the pending operations are flushed at the calling thread (retrying the failed ones
+	 * up to max retries) and the flusher thread is stopped if no other pipeline uses it
+	 * The operations enqueued after the pipeline is closed are flushed at once at the calling thread
+	 */
+	public void close() {
+		if (!_closed.compareAndSet(false,true)) return;
+		_flushCheck.cancel(false);
+		_flushAll();
+		_releaseFlusher();
+		log.info("Index pipeline for {} closed: {}",
+				 _type.getSimpleName(),this.debugInfo());
+	}
+	/**
+	 * @return true if the pipeline is closed
+	 */
+	public boolean isClosed() {
+		return _closed.get();
+	}
+	private void _flushAll() {
+		for (int i = 0; i <= _maxRetries && this.getPendingCount() > 0; i++) {
+			_flushPending();
+		}
+	}
+	private void _flushIfOlderThanMaxDelay() {
+		boolean hasToFlush = false;
+		synchronized(_pending) {
+			if (!_pending.isEmpty()) {
+				PendingIndexOp<M> oldest = _pending.values().iterator().next();
+				hasToFlush = System.currentTimeMillis() - oldest.getEnqueuedMillis() >= _maxDelayMillis;
+			}
+		}
+		if (hasToFlush) _flushPending();
+	}
+	/**
+	 * Flushes the pending operations in batches of at most max batch size operations
+	 * (the flushes are serialized so the operations of an oid are never flushed out of order)
+	 * The operations of a failed batch are enqueued again before the next batch is taken (so they're coalesced
+	 * with the operations of the same oids received while the batch was running) and they're left pending
+	 * until the next flush: the operations of their oids are NOT flushed ahead of them
+	 */
+	private void _flushPending() {
+		synchronized(this) {
+			Set<O> retried = new HashSet<O>();	// the oids whose operations were enqueued again by this flush
+			while (true) {
+				// [1] - Take a batch of pending operations (skipping the ones to be retried)
+				List<Map.Entry<O,PendingIndexOp<M>>> batch = new ArrayList<Map.Entry<O,PendingIndexOp<M>>>(_maxBatchSize);
+				synchronized(_pending) {
+					Iterator<Map.Entry<O,PendingIndexOp<M>>> it = _pending.entrySet().iterator();
+					while (it.hasNext() && batch.size() < _maxBatchSize) {
+						Map.Entry<O,PendingIndexOp<M>> me = it.next();
+						if (retried.contains(me.getKey())) continue;
+						batch.add(me);
+						it.remove();
+					}
+				}
+				if (batch.isEmpty()) break;
+
+				// [2] - Split the batch by user context
+				Map<String,List<Map.Entry<O,PendingIndexOp<M>>>> batchByUser = new LinkedHashMap<String,List<Map.Entry<O,PendingIndexOp<M>>>>();
+				long now = System.currentTimeMillis();
+				long lagSum = 0;
+				long maxLag = 0;
+				for (Map.Entry<O,PendingIndexOp<M>> me : batch) {
+					String userKey = _userKeyOf(me.getValue().getUserContext());
+					List<Map.Entry<O,PendingIndexOp<M>>> userBatch = batchByUser.get(userKey);
+					if (userBatch == null) {
+						userBatch = new ArrayList<Map.Entry<O,PendingIndexOp<M>>>();
+						batchByUser.put(userKey,userBatch);
+					}
+					userBatch.add(me);
+					long lag = now - me.getValue().getFirstChangeMillis();
+					lagSum += lag;
+					maxLag = Math.max(maxLag,lag);
+				}
+				// [3] - Run the batches of every user context
+				List<Map.Entry<O,PendingIndexOp<M>>> failed = new ArrayList<Map.Entry<O,PendingIndexOp<M>>>();
+				for (List<Map.Entry<O,PendingIndexOp<M>>> userBatch : batchByUser.values()) {
+					_runUserBatch(userBatch,
+								  failed);
+				}
+				int flushed = batch.size() - failed.size();
+				if (!failed.isEmpty()) retried.addAll(_retry(failed));		// enqueue the failed operations again
+
+				// [4] - Metrics
+				long flushedLag = maxLag + (System.currentTimeMillis() - now);
+				_batchCount.incrementAndGet();
+				_flushedOpCount.addAndGet(flushed);
+				_lagMillisSum.addAndGet(lagSum);
+				_lastLagMillis = flushedLag;
+				if (flushedLag > _maxLagMillis) _maxLagMillis = flushedLag;
+				log.debug("Index pipeline for {}: {} operations flushed in {} user batches ({} failed); lag {} millis",
+						  _type.getSimpleName(),batch.size(),batchByUser.size(),batch.size() - flushed,flushedLag);
+			}
+		}
+	}
+	/**
+	 * Runs the operations of a single user context (all of them have the same user key)
+	 * @param userBatch
+	 * @param failed where the operations of the failed batches are added
+	 */
+	private void _runUserBatch(final List<Map.Entry<O,PendingIndexOp<M>>> userBatch,
+							   final List<Map.Entry<O,PendingIndexOp<M>>> failed) {
+		List<Map.Entry<O,PendingIndexOp<M>>> toIndex = new ArrayList<Map.Entry<O,PendingIndexOp<M>>>();
+		List<Map.Entry<O,PendingIndexOp<M>>> toUpdate = new ArrayList<Map.Entry<O,PendingIndexOp<M>>>();
+		List<Map.Entry<O,PendingIndexOp<M>>> toRemove = new ArrayList<Map.Entry<O,PendingIndexOp<M>>>();
+		for (Map.Entry<O,PendingIndexOp<M>> me : userBatch) {
+			IndexBatchOperation op = me.getValue().getOperation();
+			if (op == IndexBatchOperation.INDEX) {
+				toIndex.add(me);
+			} else if (op == IndexBatchOperation.UPDATE_INDEX) {
+				toUpdate.add(me);
+			} else {
+				toRemove.add(me);
+			}
+		}
+		UserContext userContext = userBatch.get(userBatch.size() - 1).getValue().getUserContext();	// the last one of the user
+		if (!_run(IndexBatchOperation.UNINDEX,userContext,toRemove)) failed.addAll(toRemove);
+		if (!_run(IndexBatchOperation.INDEX,userContext,toIndex)) failed.addAll(toIndex);
+		if (!_run(IndexBatchOperation.UPDATE_INDEX,userContext,toUpdate)) failed.addAll(toUpdate);
+	}
+	/**
+	 * Runs a batch
+	 * @return true if every operation of the batch succeeded
+	 */
+	private boolean _run(final IndexBatchOperation op,final UserContext userContext,
+						 final List<Map.Entry<O,PendingIndexOp<M>>> ops) {
+		if (ops.isEmpty()) return true;
+		try {
+			IndexBatchResult result = null;
+			switch(op) {
+			case INDEX:
+				result = _indexServices.indexBatch(userContext,
+												   _modelObjectsOf(ops));
+				break;
+			case UPDATE_INDEX:
+				result = _indexServices.updateIndexBatch(userContext,
+														 _modelObjectsOf(ops));
+				break;
+			case UNINDEX:
+				result = _indexServices.removeFromIndexBatch(userContext,
+															 _oidsOf(ops));
+				break;
+			default:
+				throw new IllegalStateException();
+			}
+			if (result != null && result.getNumberOfDocsFailed() > 0) {
+				log.warn("Index pipeline for {}: {} of {} {} operations failed; the batch will be retried",
+						 _type.getSimpleName(),result.getNumberOfDocsFailed(),ops.size(),op);
+				return false;
+			}
+			return true;
+		} catch(Throwable th) {
+			log.error("Index pipeline for {}: {} batch of {} operations NOK; the batch will be retried",
+					  _type.getSimpleName(),op,ops.size(),
+					  th);
+			return false;
+		}
+	}
+	/**
+	 * Enqueues the failed operations again unless they've been retried max retries times
+	 * If the oid has been changed meanwhile, the failed operation is coalesced with the new one
+	 * @param failed
+	 * @return the oids whose operations were enqueued again
+	 */
+	private Set<O> _retry(final List<Map.Entry<O,PendingIndexOp<M>>> failed) {
+		Set<O> outRetried = new HashSet<O>(failed.size());
+		long now = System.currentTimeMillis();
+		int discarded = 0;
+		synchronized(_pending) {
+			for (Map.Entry<O,PendingIndexOp<M>> me : failed) {
+				PendingIndexOp<M> op = me.getValue();
+				if (op.getRetries() >= _maxRetries) {
+					discarded++;
+					continue;
+				}
+				op.retriedAt(now);
+				PendingIndexOp<M> newer = _pending.remove(me.getKey());
+				if (newer != null) op.coalesceWith(newer.getOperation(),newer.getModelObject(),newer.getUserContext());
+				_pending.put(me.getKey(),op);
+				outRetried.add(me.getKey());
+			}
+		}
+		_retriedOpCount.addAndGet(failed.size() - discarded);
+		if (discarded > 0) {
+			_failedOpCount.addAndGet(discarded);
+			log.error("Index pipeline for {}: {} operations discarded after {} retries",
+					  _type.getSimpleName(),discarded,_maxRetries);
+		}
+		return outRetried;
+	}
+	private List<M> _modelObjectsOf(final List<Map.Entry<O,PendingIndexOp<M>>> ops) {
+		List<M> outModelObjs = new ArrayList<M>(ops.size());
+		for (Map.Entry<O,PendingIndexOp<M>> me : ops) outModelObjs.add(me.getValue().getModelObject());
+		return outModelObjs;
+	}
+	private List<O> _oidsOf(final List<Map.Entry<O,PendingIndexOp<M>>> ops) {
+		List<O> outOids = new ArrayList<O>(ops.size());
+		for (Map.Entry<O,PendingIndexOp<M>> me : ops) outOids.add(me.getKey());
+		return outOids;
+	}
+	/**
+	 * The operations with the same user key are run in the same batch: the user (or app) and the tenant
+	 * (if the user context is NOT a {@link UserContextBase}, only the operations of the very same user context)
+	 */
+	private static String _userKeyOf(final UserContext userContext) {
+		if (userContext == null) return "";
+		if (userContext instanceof UserContextBase) {
+			UserContextBase userCtx = (UserContextBase)userContext;
+			return Strings.customized("{}:{}@{}",
+									  userCtx.isForApp() ? "app" : "user",userCtx.getAuthenticatedActorId(),userCtx.getTenantId());
+		}
+		return userContext.getClass().getName() + "@" + System.identityHashCode(userContext);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  PENDING OPERATION
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Accessors(prefix="_")
+	private static class PendingIndexOp<M> {
+		@Getter private IndexBatchOperation _operation;
+		@Getter private M _modelObject;
+		@Getter private UserContext _userContext;
+		@Getter private final long _firstChangeMillis;
+		@Getter private long _enqueuedMillis;		// the first change or the last retry
+		@Getter private int _retries;
+
+		PendingIndexOp(final IndexBatchOperation operation,final M modelObject,final UserContext userContext,
+					   final long firstChangeMillis) {
+			_operation = operation;
+			_modelObject = modelObject;
+			_userContext = userContext;
+			_firstChangeMillis = firstChangeMillis;
+			_enqueuedMillis = firstChangeMillis;
+		}
+		void coalesceWith(final IndexBatchOperation op,final M modelObject,final UserContext userContext) {
+			_userContext = userContext;
+			if (op == IndexBatchOperation.UNINDEX) {
+				_operation = IndexBatchOperation.UNINDEX;		// a delete beats everything before
+				_modelObject = null;
+			} else if (_operation == IndexBatchOperation.UNINDEX) {
+				if (op == IndexBatchOperation.INDEX) {
+					_operation = IndexBatchOperation.UPDATE_INDEX;	// deleted and created again: the doc is replaced
+					_modelObject = modelObject;
+				}
+				// an update after a delete is ignored: the delete beats it
+			} else {
+				_modelObject = modelObject;						// last write wins (a pending INDEX is kept as INDEX)
+			}
+		}
+		void retriedAt(final long millis) {
+			_retries++;
+			_enqueuedMillis = millis;							// the retry waits for the max delay
+			if (_operation == IndexBatchOperation.INDEX) _operation = IndexBatchOperation.UPDATE_INDEX;	// the doc could have been indexed: it's replaced
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METRICS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return the number of pending operations
+	 */
+	public int getPendingCount() {
+		synchronized(_pending) {
+			return _pending.size();
+		}
+	}
+	/**
+	 * @return the time (millis) the oldest pending operation has been waiting (the current index lag)
+	 */
+	public long getCurrentLagMillis() {
+		synchronized(_pending) {
+			if (_pending.isEmpty()) return 0;
+			return System.currentTimeMillis() - _pending.values().iterator().next().getFirstChangeMillis();
+		}
+	}
+	/**
+	 * @return the lag (millis from the first change of an object to its flush) of the last flushed batch
+	 */
+	public long getLastLagMillis() {
+		return _lastLagMillis;
+	}
+	/**
+	 * @return the max lag (millis from the first change of an object to its flush)
+	 */
+	public long getMaxLagMillis() {
+		return _maxLagMillis;
+	}
+	/**
+	 * @return the mean lag (millis from the first change of an object to the start of its flush)
+	 */
+	public double getMeanLagMillis() {
+		long flushed = _flushedOpCount.get();
+		return flushed > 0 ? _lagMillisSum.get() / (double)flushed : 0D;
+	}
+	/**
+	 * @return the number of received CRUD events
+	 */
+	public long getEventCount() {
+		return _eventCount.get();
+	}
+	/**
+	 * @return the number of index operations successfully run
+	 */
+	public long getFlushedOpCount() {
+		return _flushedOpCount.get();
+	}
+	/**
+	 * @return the number of index operations enqueued again because their batch failed
+	 */
+	public long getRetriedOpCount() {
+		return _retriedOpCount.get();
+	}
+	/**
+	 * @return the number of index operations discarded after max retries
+	 */
+	public long getFailedOpCount() {
+		return _failedOpCount.get();
+	}
+	/**
+	 * @return the number of index operations saved by coalescing the events
+	 */
+	public long getCoalescedCount() {
+		return Math.max(0,_eventCount.get() - _flushedOpCount.get() - _failedOpCount.get() - this.getPendingCount());
+	}
+	@Override
+	public CharSequence debugInfo() {
+		return Strings.of("Index pipeline for {}: {} events, {} coalesced, {} pending; {} operations flushed in {} batches ({} retried, {} failed); lag: current {} / last {} / max {} / mean {} millis")
+					  .customizeWith(_type.getSimpleName(),
+							  		 _eventCount.get(),this.getCoalescedCount(),this.getPendingCount(),
+							  		 _flushedOpCount.get(),_batchCount.get(),_retriedOpCount.get(),_failedOpCount.get(),
+							  		 this.getCurrentLagMillis(),_lastLagMillis,_maxLagMillis,
+							  		 String.format("%.2f",this.getMeanLagMillis()))
+					  .asString();
+	}
+}
@@ -23,4 +23,15 @@ public abstract class IndexerCRUDOKEventListener<O extends OID,M extends Indexab
 		super(type,
 			  indexServices);
 	}
+	/**
+	 * Creates a listener whose index operations are coalesced by oid and flushed in batches
+	 * (see {@link CoalescingIndexPipeline})
+	 */
+	public IndexerCRUDOKEventListener(final Class<M> type,
+									  final IndexServicesForModelObject<O,M> indexServices,
+									  final int maxBatchSize,final long maxDelayMillis) {
+		super(type,
+			  indexServices,
+			  maxBatchSize,maxDelayMillis);
+	}
 }
@@ -17,6 +17,8 @@ import r01f.util.types.Strings;
 
 /**
  * Listener to {@link PersistenceOperationOKEvent}s thrown by the persistence layer through the {@link EventBus}
+ * The index is updated at once for every event unless a max batch size and a max delay are given: in that case
+ * the index operations are coalesced by oid and flushed in batches (see {@link CoalescingIndexPipeline})
  * @param <M>
  */
 @Slf4j
@@ -31,6 +33,10 @@ abstract class IndexerCRUDOKEventListenerBase<O extends OID,M extends IndexableM
 	 * The indexers are computed only once... later on the cached value is used
 	 */
 	private final S _indexServices;
+	/**
+	 * The pipeline that coalesces the index operations (null if the index is updated at once)
+	 */
+	private final CoalescingIndexPipeline<O,M> _pipeline;
 /////////////////////////////////////////////////////////////////////////////////////////
 //  CONSTRUCTOR
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -38,6 +44,29 @@ abstract class IndexerCRUDOKEventListenerBase<O extends OID,M extends IndexableM
 										  final S indexServices) {
 		super(type);
 		_indexServices = indexServices;
+		_pipeline = null;
+	}
+	/**
+	 * Creates a listener whose index operations are coalesced by oid and flushed in batches
+	 * @param type
+	 * @param indexServices
+	 * @param maxBatchSize the pending operations are flushed when there're this number of them
+	 * @param maxDelayMillis the pending operations are flushed when the oldest one has been pending for this time
+	 */
+	public IndexerCRUDOKEventListenerBase(final Class<M> type,
+										  final S indexServices,
+										  final int maxBatchSize,final long maxDelayMillis) {
+		super(type);
+		_indexServices = indexServices;
+		_pipeline = CoalescingIndexPipeline.create(type,
+												   indexServices,
+												   maxBatchSize,maxDelayMillis);
+	}
+	/**
+	 * @return the pipeline that coalesces the index operations (null if the index is updated at once)
+	 */
+	public CoalescingIndexPipeline<O,M> getIndexPipeline() {
+		return _pipeline;
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  
@@ -61,8 +90,11 @@ abstract class IndexerCRUDOKEventListenerBase<O extends OID,M extends IndexableM
 						  hasToBeHandled));
 		}
 		
-		// [3] - Handle the event: update the index
-		if (hasToBeHandled) {
+		// [3] - Handle the event: update the index (or enqueue the operation at the pipeline)
+		if (hasToBeHandled && _pipeline != null) {
+			_enqueueIndexOperation(opEvent.getUserContext(),
+								   opOK);
+		} else if (hasToBeHandled) {
 			_updateIndex(opEvent.getUserContext(),
 					     opOK);
 		}			
@@ -80,6 +112,22 @@ abstract class IndexerCRUDOKEventListenerBase<O extends OID,M extends IndexableM
 /////////////////////////////////////////////////////////////////////////////////////////
 //  INDEX & UN_INDEX
 /////////////////////////////////////////////////////////////////////////////////////////	
+    @SuppressWarnings("unchecked")
+	private void _enqueueIndexOperation(final UserContext userContext,
+							  			final CRUDOK<? extends M> opOK) {
+		M entity = opOK.getOrThrow();
+		O oid = (O)entity.asFacet(HasOID.class).getOid();
+		if (opOK.hasBeenCreated()) {
+			_pipeline.created(userContext,
+							  oid,entity);
+		} else if (opOK.hasBeenUpdated()) {
+			_pipeline.updated(userContext,
+							  oid,entity);
+		} else if (opOK.hasBeenDeleted()) {
+			_pipeline.deleted(userContext,
+							  oid);
+		}
+	}
     @SuppressWarnings("unchecked")
 	private void _updateIndex(final UserContext userContext,
 							  final CRUDOK<? extends M> opOK){
@@ -19,4 +19,15 @@ public abstract class LuceneIndexerCRUDOKEventListener<O extends OID,M extends I
 		super(type,
 			  indexServices);
 	}
+	/**
+	 * Creates a listener whose index operations are coalesced by oid and flushed in batches
+	 * (see {@link CoalescingIndexPipeline})
+	 */
+	public LuceneIndexerCRUDOKEventListener(final Class<M> type,
+											final IndexServicesForModelObject<O,M> indexServices,
+											final int maxBatchSize,final long maxDelayMillis) {
+		super(type,
+			  indexServices,
+			  maxBatchSize,maxDelayMillis);
+	}
 }
@@ -1,5 +1,7 @@
 package r01f.internal;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Collection;
 
@@ -7,6 +9,8 @@ import javax.inject.Singleton;
 
 import com.google.common.eventbus.EventBus;
 import com.google.inject.Binder;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Module;
 import com.google.inject.PrivateBinder;
@@ -20,13 +24,20 @@ import com.google.inject.spi.TypeListener;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import r01f.concurrent.ExecutorSaturationPolicy;
 import r01f.concurrent.ExecutorServiceManager;
 import r01f.events.PersistenceOperationEventListeners.PersistenceOperationErrorEventListener;
 import r01f.events.PersistenceOperationEventListeners.PersistenceOperationOKEventListener;
 import r01f.events.crud.CRUDOperationErrorEventListener;
+import r01f.events.crud.DBModelObjectsCacheInvalidatorEventListener;
+import r01f.events.index.CoalescingIndexPipeline;
+import r01f.events.index.IndexerCRUDOKEventListener;
+import r01f.guids.CommonOIDs.AppCode;
 import r01f.inject.Matchers;
 import r01f.inject.ServiceHandler;
+import r01f.persistence.index.lucene.LuceneIndexerBase;
 import r01f.persistence.internal.DBGuiceModuleBase;
+import r01f.persistence.internal.LuceneSearchGuiceModuleBase;
 import r01f.persistence.internal.SearchGuiceModuleBase;
 import r01f.persistence.jobs.AsyncEventBusProvider;
 import r01f.persistence.jobs.ExecutorServiceManagerProvider;
@@ -35,7 +46,10 @@ import r01f.services.ServiceIDs.CoreAppCode;
 import r01f.services.ServiceIDs.CoreModule;
 import r01f.services.ServicesPackages;
 import r01f.services.core.internal.BeanImplementedServicesCoreBootstrapGuiceModuleBase;
+import r01f.services.interfaces.CRUDServicesForModelObject;
 import r01f.types.ExecutionMode;
+import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextBase;
 import r01f.util.types.Strings;
 
 /**
@@ -157,7 +171,20 @@ public abstract class BeanImplementedPersistenceServicesCoreBootstrapGuiceModule
 				log.warn("Events handling will be ASYNCHRONOUSLY handled using a thread pool of {} threads; " +
 						 "the size can be changed at 'services/crudEventsHandling/numberOfThreadsInPool' property at {}.{}.properties.xml",
 						 numberOfBackgroundThreads,_servicesCoreProps.getAppCode(),_servicesCoreProps.getAppComponent());
-				execServiceManagerProvider = new ExecutorServiceManagerProvider(numberOfBackgroundThreads);
+				// the queue of pending events is unbounded by default; if it's bounded, the saturation policy
+				// tells what's done with an event when the queue is full: CALLER_RUNS (default), BLOCK or DROP
+				int queueCapacity = _servicesCoreProps.propertyAt("services/crudEventsHandling/queueCapacity")
+													  .asInteger(-1);
+				ExecutorSaturationPolicy saturationPolicy = _servicesCoreProps.propertyAt("services/crudEventsHandling/@saturationPolicy")
+																			  .asEnumElement(ExecutorSaturationPolicy.class);
+				if (queueCapacity > 0) {
+					log.warn("Events handling queue is bounded to {} events (saturation policy: {}); " +
+							 "it can be changed at 'services/crudEventsHandling/queueCapacity' and 'services/crudEventsHandling/@saturationPolicy' properties at {}.{}.properties.xml",
+							 queueCapacity,saturationPolicy != null ? saturationPolicy : ExecutorSaturationPolicy.CALLER_RUNS,
+							 _servicesCoreProps.getAppCode(),_servicesCoreProps.getAppComponent());
+				}
+				execServiceManagerProvider = new ExecutorServiceManagerProvider(numberOfBackgroundThreads,
+																				queueCapacity,saturationPolicy);
 				theBinder.bind(ExecutorServiceManager.class)
 						 .toProvider(execServiceManagerProvider)
 						 .in(Singleton.class);
@@ -189,7 +216,10 @@ public abstract class BeanImplementedPersistenceServicesCoreBootstrapGuiceModule
 			// when an event listener gets binded, it's is automatically registered at the event bus
 			// 		Listen to injection of CRUDOperationOKEventListener & CRUDOperationNOKEventListener subtypes (indexers are CRUD events listeners)
 			// 		(when indexers are being injected)
-			EventBusSubscriberTypeListener typeListener = new EventBusSubscriberTypeListener(theBinder.getProvider(EventBus.class));	// inject a Provider to get dependencies injected!!!
+			// 		(when the events are handled asynchronously, the indexers' pipelines are closed when the events executor is stopped)
+			EventBusSubscriberTypeListener typeListener = new EventBusSubscriberTypeListener(theBinder.getProvider(EventBus.class),	// inject a Provider to get dependencies injected!!!
+																							 execMode == ExecutionMode.ASYNC ? theBinder.getProvider(ExecutorServiceManager.class)
+																									 						 : null);
 			theBinder.bindListener(Matchers.subclassesOf(PersistenceOperationOKEventListener.class,
 													     PersistenceOperationErrorEventListener.class),
 							       typeListener);	// registers the event listeners at the EventBus
@@ -199,12 +229,90 @@ public abstract class BeanImplementedPersistenceServicesCoreBootstrapGuiceModule
 			if (!CRUD_OPERATION_ERROR_LISTENER_BINDED) {
 				theBinder.bind(CRUDOperationErrorEventListener.class)
 					  	 .toInstance(new CRUDOperationErrorEventListener());				// CRUDOperationNOKEvent for EVERY model object
+				theBinder.bind(DBModelObjectsCacheInvalidatorEventListener.class)
+						 .toInstance(new DBModelObjectsCacheInvalidatorEventListener());	// CRUDOperationOKEvent for EVERY model object
 				CRUD_OPERATION_ERROR_LISTENER_BINDED = true;
 			}
 			
 			// Bind every listener
 			((ServicesBootstrapGuiceModuleBindsCRUDEventListeners)this).bindCRUDEventListeners(theBinder);
 		}
+		
+		// [3]: Replay the lucene index changes NOT commited by a previous process that crashed (see LuceneIndexCommitPolicy)
+		// ==================================================
+		// When a lucene indexer is created, a replayer that loads its model objects through the CRUD services
+		// is registered at the lucene index and the recovered changes are replayed
+		if (this.isModuleInstalled(LuceneSearchGuiceModuleBase.class)) {
+			theBinder.bindListener(Matchers.subclassesOf(LuceneIndexerBase.class),
+								   new LuceneIndexRecoveredChangesReplayerTypeListener(theBinder.getProvider(Injector.class),
+										   											   new RecoveredChangesReplayUserContext(coreAppCode.asAppCode())));
+		}
+	}
+	/**
+	 * Guice {@link TypeListener} that gets called when a {@link LuceneIndexerBase} subtype is injected (or created):
+	 * the CRUD services of the indexer's model object type are found at the injector and used to replay the 
+	 * lucene index changes NOT commited by a previous process (see {@link LuceneIndexerBase#replayRecoveredChangesLoadingFrom(UserContext, CRUDServicesForModelObject)})
+	 */
+	@RequiredArgsConstructor
+	private static class LuceneIndexRecoveredChangesReplayerTypeListener
+			  implements TypeListener {
+		
+		private final Provider<Injector> _injectorProvider;
+		private final UserContext _userContext;
+		
+		@Override
+		public <I> void hear(final TypeLiteral<I> type,
+							 final TypeEncounter<I> encounter) {
+			encounter.register(new InjectionListener<I>() {
+										@Override @SuppressWarnings({ "unchecked","rawtypes" })
+										public void afterInjection(final I injecteeIndexer) {
+											LuceneIndexerBase indexer = (LuceneIndexerBase)injecteeIndexer;
+											try {
+												CRUDServicesForModelObject crudServices = _crudServicesFor(indexer.getModelObjectType());
+												if (crudServices == null) {
+													log.warn("There're NO CRUD services for {} at the injector: the lucene index changes of {} NOT commited by a previous process cannot be replayed",
+															 indexer.getModelObjectType(),indexer.getClass());
+													return;
+												}
+												indexer.replayRecoveredChangesLoadingFrom(_userContext,
+																						  crudServices);
+											} catch(RuntimeException rtEx) {
+												log.error("Error replaying the lucene index changes of {} NOT commited by a previous process: {}",
+														  indexer.getClass(),rtEx.getMessage(),
+														  rtEx);
+											}
+										}
+							   });
+		}
+		private CRUDServicesForModelObject<?,?> _crudServicesFor(final Class<?> modelObjectType) {
+			// the indexer could be bound at a private module: look also at the parent injectors
+			for (Injector injector = _injectorProvider.get(); injector != null; injector = injector.getParent()) {
+				for (Binding<?> binding : injector.getAllBindings().values()) {
+					TypeLiteral<?> boundType = binding.getKey().getTypeLiteral();
+					if (!CRUDServicesForModelObject.class.isAssignableFrom(boundType.getRawType())) continue;
+					
+					// the model object type is the second type param of the CRUD services interface
+					Type crudServicesType = boundType.getSupertype(CRUDServicesForModelObject.class)
+													 .getType();
+					if (crudServicesType instanceof ParameterizedType
+					 && ((ParameterizedType)crudServicesType).getActualTypeArguments()[1] == modelObjectType) {
+						return (CRUDServicesForModelObject<?,?>)binding.getProvider().get();
+					}
+				}
+			}
+			return null;
+		}
+	}
+	/**
+	 * The user context used to load the model objects whose lucene index changes are replayed
+	 */
+	private static class RecoveredChangesReplayUserContext
+				 extends UserContextBase {
+		private static final long serialVersionUID = -4816237001520671944L;
+		
+		RecoveredChangesReplayUserContext(final AppCode appCode) {
+			super(appCode);
+		}
 	}
 	/**
 	 * Guice {@link TypeListener} that gets called when a {@link PersistenceOperationOKEventListener} subtype (the indexer is a CRUD events listener)
@@ -220,6 +328,8 @@ public abstract class BeanImplementedPersistenceServicesCoreBootstrapGuiceModule
 		// it's dependencies
 		// see r01f.persistence.jobs.EventBusProvider
 		private final Provider<EventBus> _eventBusProvider;
+		// null if the events are NOT handled asynchronously
+		private final Provider<ExecutorServiceManager> _execServiceManagerProvider;
 		
 		@Override
 		public <I> void hear(final TypeLiteral<I> type,
@@ -233,6 +343,20 @@ public abstract class BeanImplementedPersistenceServicesCoreBootstrapGuiceModule
 													 _eventBusProvider.get());
 											_eventBusProvider.get()
 													 		 .register(injecteeEventListener);	// register the indexer (the indexer is an event listener)
+											// flush and stop the indexer's pipeline when the events executor is stopped
+											if (_execServiceManagerProvider != null
+											 && injecteeEventListener instanceof IndexerCRUDOKEventListener) {
+												final CoalescingIndexPipeline<?,?> pipeline = ((IndexerCRUDOKEventListener<?,?>)injecteeEventListener).getIndexPipeline();
+												if (pipeline != null) {
+													_execServiceManagerProvider.get()
+																			   .addStopTask(new Runnable() {
+																									@Override
+																									public void run() {
+																										pipeline.close();
+																									}
+																							});
+												}
+											}
 										}
 							   });
 		}
@@ -1,20 +1,43 @@
 package r01f.persistence.db;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
 
 import com.google.common.base.Function;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
 
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import r01f.guids.OID;
 import r01f.marshalling.Marshaller;
+import r01f.marshalling.simple.SimpleBinaryMarshaller;
+import r01f.model.OIDForVersionableModelObject;
 import r01f.model.PersistableModelObject;
+import r01f.model.facets.Facetables;
+import r01f.model.facets.Versionable.HasVersionableFacet;
 import r01f.persistence.CRUDResult;
 import r01f.persistence.CRUDResultBuilder;
 import r01f.persistence.db.entities.DBEntityForModelObject;
+import r01f.persistence.db.entities.DBEntityForVersionableModelObject;
 import r01f.persistence.db.entities.primarykeys.DBPrimaryKeyForModelObject;
 import r01f.persistence.db.entities.primarykeys.DBPrimaryKeyForModelObjectImpl;
 import r01f.usercontext.UserContext;
@@ -35,6 +58,14 @@ public abstract class DBBaseForModelObject<O extends OID,M extends PersistableMo
 			  extends DBBase 
 		   implements TransformsDBEntityIntoModelObject<DB,M> {
 /////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Max number of oids at the IN clause of every existence or multiple load query 
+	 * (some databases limit the IN list size: ie oracle to 1000)
+	 */
+	protected static final int IN_QUERY_MAX_OIDS = 500;
+/////////////////////////////////////////////////////////////////////////////////////////
 //  NOT INJECTED STATUS
 /////////////////////////////////////////////////////////////////////////////////////////
 	/**
@@ -49,6 +80,19 @@ public abstract class DBBaseForModelObject<O extends OID,M extends PersistableMo
 	 * entity java type
 	 */
 	@Getter protected final Class<DB> _DBEntityType;
+	/**
+	 * The unmarshalled model objects cache used by the default transformer (null if it's disabled)
+	 */
+	@Getter protected final DBModelObjectsCache _modelObjectsCache;
+	/**
+	 * The binary descriptors marshaller (null if the model objects marshaller is NOT a simple marshaller)
+	 * It also reads the xml descriptors so both formats can be stored at the same table
+	 */
+	@Getter protected final SimpleBinaryMarshaller _modelObjectsBinaryMarshaller;
+	/**
+	 * true if the descriptors are stored in the compact binary format (see {@link #_descriptorFor(PersistableModelObject)})
+	 */
+	@Getter protected final boolean _binaryDescriptors;
 /////////////////////////////////////////////////////////////////////////////////////////
 //  CONSTRUCTOR
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -61,7 +105,14 @@ public abstract class DBBaseForModelObject<O extends OID,M extends PersistableMo
 			  persistenceProps);
 		_modelObjectType = modelObjectType;
 		_DBEntityType = dbEntityType;
+		_modelObjectsCache = DBModelObjectsCache.forModelObjectType(modelObjectType,
+																	persistenceProps);
+		_modelObjectsBinaryMarshaller = _binaryMarshallerFor(marshaller,
+															 persistenceProps);
+		_binaryDescriptors = _isBinaryDescriptorsFormat(_modelObjectsBinaryMarshaller,
+														persistenceProps);
 		// create a default transformer using the marshaller
+		// (the descriptor is NOT parsed if the same entity version was unmarshalled before)
 		_dbEntityIntoModelObjectTransformer = new TransformsDBEntityIntoModelObject<DB,M>() {
 													@Override
 													public M dbEntityToModelObject(final UserContext userContext,
@@ -69,10 +120,14 @@ public abstract class DBBaseForModelObject<O extends OID,M extends PersistableMo
 														M outObj = null;
 														if (dbEntity instanceof DBEntityHasModelObjectDescriptor) {
 															// use the marshaller 
-															DBEntityHasModelObjectDescriptor hasDescriptor = (DBEntityHasModelObjectDescriptor)dbEntity;
-															outObj = _modelObjectsMarshaller.<M>beanFromXml(hasDescriptor.getDescriptor());
-															outObj.setTrackingInfo(dbEntity.getTrackingInfo());
-															outObj.setEntityVersion(dbEntity.getEntityVersion());
+															if (_modelObjectsCache != null) outObj = _modelObjectsCache.<M>get(dbEntity);
+															if (outObj == null) {
+																DBEntityHasModelObjectDescriptor hasDescriptor = (DBEntityHasModelObjectDescriptor)dbEntity;
+																outObj = _modelObjectFromDescriptor(hasDescriptor.getDescriptor());
+																outObj.setTrackingInfo(dbEntity.getTrackingInfo());
+																outObj.setEntityVersion(dbEntity.getEntityVersion());
+																if (_modelObjectsCache != null) _modelObjectsCache.put(dbEntity,outObj);
+															}
 														} else {
 															log.warn("The db entity of type {} does NOT implements {} so the db entity MUST be manually translated bo model object",
 																	 dbEntity.getClass().getSimpleName(),DBEntityHasModelObjectDescriptor.class.getSimpleName());
@@ -92,6 +147,63 @@ public abstract class DBBaseForModelObject<O extends OID,M extends PersistableMo
 		_modelObjectType = modelObjectType;
 		_DBEntityType = dbEntityType;
 		_dbEntityIntoModelObjectTransformer = dbEntityIntoModelObjectTransformer;
+		_modelObjectsCache = null;		// custom transformers are NOT cached
+		_modelObjectsBinaryMarshaller = _binaryMarshallerFor(marshaller,
+															 persistenceProps);
+		_binaryDescriptors = _isBinaryDescriptorsFormat(_modelObjectsBinaryMarshaller,
+														persistenceProps);
+	}
+	private static SimpleBinaryMarshaller _binaryMarshallerFor(final Marshaller marshaller,
+															   final XMLPropertiesForAppComponent persistenceProps) {
+		if (!SimpleBinaryMarshaller.canBeCreatedFor(marshaller)) return null;
+		int compressOver = persistenceProps != null ? persistenceProps.propertyAt("persistence/descriptors/@compressOverBytes")
+																	  .asInteger(SimpleBinaryMarshaller.DEFAULT_COMPRESSION_THRESHOLD)
+													: SimpleBinaryMarshaller.DEFAULT_COMPRESSION_THRESHOLD;
+		return SimpleBinaryMarshaller.createFor(marshaller)
+									 .compressingOver(compressOver);
+	}
+	private static boolean _isBinaryDescriptorsFormat(final SimpleBinaryMarshaller binaryMarshaller,
+													  final XMLPropertiesForAppComponent persistenceProps) {
+		String format = persistenceProps != null ? persistenceProps.propertyAt("persistence/descriptors/@format")
+																   .asString("xml")
+												  : "xml";
+		if (!"binary".equalsIgnoreCase(format)) return false;
+		if (binaryMarshaller == null) {
+			log.warn("The descriptors binary format is configured but the model objects marshaller is NOT a simple marshaller: the descriptors are stored as xml");
+			return false;
+		}
+		return true;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  DESCRIPTORS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the descriptor to be stored at a db entity (see {@link DBEntityHasModelObjectDescriptor})
+	 * The format depends on the persistence properties:
+	 * <pre class='brush:xml'>
+	 * 		<persistence>
+	 * 			<descriptors format='xml|binary' compressOverBytes='1024'/>
+	 * 		</persistence>
+	 * </pre>
+	 * The stored descriptors are read whatever the format is (see {@link #_modelObjectFromDescriptor(String)})
+	 * so the format can be changed with existing rows
+	 * The CRUD write path stores it when the format is binary (see DBCRUDForModelObjectBase#_setDBEntityDescriptorFromModelObject);
+	 * the types that write the db entities by other means MUST use it to set the descriptor
+	 * @param modelObj
+	 * @return
+	 */
+	protected String _descriptorFor(final M modelObj) {
+		return _binaryDescriptors ? _modelObjectsBinaryMarshaller.descriptorFromBean(modelObj)
+								  : _modelObjectsMarshaller.xmlFromBean(modelObj);
+	}
+	/**
+	 * Returns the model object from a db entity descriptor detecting its format (xml or binary)
+	 * @param descriptor
+	 * @return
+	 */
+	protected M _modelObjectFromDescriptor(final String descriptor) {
+		return _modelObjectsBinaryMarshaller != null ? _modelObjectsBinaryMarshaller.<M>beanFromDescriptor(descriptor)
+													 : _modelObjectsMarshaller.<M>beanFromXml(descriptor);
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  CONVERTERS
@@ -236,4 +348,145 @@ public abstract class DBBaseForModelObject<O extends OID,M extends PersistableMo
 		}
 		return outResult;
 	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  MULTIPLE LOAD & EXISTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Loads the db entities of the given oids using IN-list queries of up to {@link #IN_QUERY_MAX_OIDS} oids
+	 * instead of an {@link EntityManager#find(Class, Object)} call for every oid
+	 * (if the model object is versionable ONLY the requested version of every oid is loaded, just like 
+	 *  {@link EntityManager#find(Class, Object)} does with the [oid,version] primary key)
+	 * @param userContext
+	 * @param oids
+	 * @return the found db entities by oid (the NOT found oids are NOT included)
+	 */
+	protected Map<O,DB> _doLoadEntities(final UserContext userContext,
+										final Collection<O> oids) {
+		if (CollectionUtils.isNullOrEmpty(oids)) return Maps.newHashMap();
+		
+		boolean isVersionable = Facetables.hasFacet(_modelObjectType,HasVersionableFacet.class);
+		Multimap<String,O> oidsByDBOid = _oidsByDBOid(oids,
+													  isVersionable);
+		Map<O,DB> outEntities = Maps.newHashMapWithExpectedSize(oidsByDBOid.size());
+		
+		CriteriaBuilder builder = this.getEntityManager().getCriteriaBuilder();
+		for (List<O> oidsBlock : Iterables.partition(oidsByDBOid.values(),IN_QUERY_MAX_OIDS)) {
+			CriteriaQuery<DB> query = builder.createQuery(_DBEntityType);
+			Root<DB> root = query.from(_DBEntityType);
+			query.select(root)
+				 .where(_oidsRestriction(builder,root,
+						 				 oidsBlock,
+						 				 isVersionable));
+			List<DB> dbEntities = this.getEntityManager().createQuery(query)
+													     .getResultList();
+			if (CollectionUtils.isNullOrEmpty(dbEntities)) continue;
+			for (DB dbEntity : dbEntities) {
+				String version = isVersionable ? ((DBEntityForVersionableModelObject)dbEntity).getVersion()
+											   : null;
+				for (O oid : oidsByDBOid.get(dbEntity.getOid())) {
+					if (_isSameVersion(oid,version)) outEntities.put(oid,dbEntity);
+				}
+			}
+		}
+		log.debug("> {} of {} {} entities loaded",outEntities.size(),oidsByDBOid.size(),_DBEntityType);
+		return outEntities;
+	}
+	/**
+	 * Returns the given oids that exist at the db using a projection query that ONLY returns 
+	 * the oid (and version) columns: the db entities are NOT loaded
+	 * (the oids are queried in blocks of {@link #IN_QUERY_MAX_OIDS} oids)
+	 * @param oids
+	 * @return
+	 */
+	protected Set<O> _findExistingOids(final Collection<O> oids) {
+		if (CollectionUtils.isNullOrEmpty(oids)) return Sets.newHashSet();
+		
+		boolean isVersionable = Facetables.hasFacet(_modelObjectType,HasVersionableFacet.class);
+		Multimap<String,O> oidsByDBOid = _oidsByDBOid(oids,
+													  isVersionable);
+		Set<O> outOids = Sets.newHashSetWithExpectedSize(oidsByDBOid.size());
+		
+		// use projections to return ONLY the oid (see DBFindForModelObjectBase)
+		CriteriaBuilder builder = this.getEntityManager().getCriteriaBuilder();
+		for (List<O> oidsBlock : Iterables.partition(oidsByDBOid.values(),IN_QUERY_MAX_OIDS)) {
+			CriteriaQuery<Tuple> query = builder.createTupleQuery();
+			Root<DB> root = query.from(_DBEntityType);
+			Path<String> oidPath = root.<String>get("_oid");
+			if (isVersionable) {
+				query.multiselect(oidPath,
+								  root.<String>get("_version"));
+			} else {
+				query.multiselect(oidPath);
+			}
+			query.where(_oidsRestriction(builder,root,
+										 oidsBlock,
+										 isVersionable));
+			List<Tuple> tupleResult = this.getEntityManager().createQuery(query)
+																	.setHint(QueryHints.READ_ONLY,HintValues.TRUE)
+													 		 .getResultList();
+			if (CollectionUtils.isNullOrEmpty(tupleResult)) continue;
+			for (Tuple tuple : tupleResult) {
+				String version = isVersionable ? (String)tuple.get(1) : null;
+				for (O oid : oidsByDBOid.get((String)tuple.get(0))) {
+					if (_isSameVersion(oid,version)) outOids.add(oid);
+				}
+			}
+		}
+		log.debug("> {} of {} {} entities exist",outOids.size(),oidsByDBOid.size(),_DBEntityType);
+		return outOids;
+	}
+	/**
+	 * Composes the where clause that restricts a query to the given oids:
+	 * <ul>
+	 * 		<li>Not versionable model objects: oid IN (oid1,oid2,...)</li>
+	 * 		<li>Versionable model objects: (oid=oid1 AND version=v1) OR (oid=oid2 AND version=v2) OR ...
+	 * 			so the other versions of the oids are NOT loaded</li>
+	 * </ul>
+	 * @param builder
+	 * @param root
+	 * @param oids
+	 * @param isVersionable
+	 * @return
+	 */
+	private Predicate _oidsRestriction(final CriteriaBuilder builder,final Root<DB> root,
+									   final Collection<O> oids,
+									   final boolean isVersionable) {
+		Path<String> oidPath = root.<String>get("_oid");
+		if (!isVersionable) {
+			List<String> dbOids = Lists.newArrayListWithExpectedSize(oids.size());
+			for (O oid : oids) dbOids.add(oid.asString());
+			return oidPath.in(dbOids);
+		}
+		Path<String> versionPath = root.<String>get("_version");
+		List<Predicate> oidAndVersions = Lists.newArrayListWithExpectedSize(oids.size());
+		for (O oid : oids) {
+			OIDForVersionableModelObject versionableOid = (OIDForVersionableModelObject)oid;
+			oidAndVersions.add(builder.and(builder.equal(oidPath,versionableOid.getOid().asString()),
+										   builder.equal(versionPath,versionableOid.getVersion().asString())));
+		}
+		return builder.or(oidAndVersions.toArray(new Predicate[oidAndVersions.size()]));
+	}
+	/**
+	 * Indexes the requested oids by the db oid column value 
+	 * (all the versions of a versionable entity share the oid)
+	 * @param oids
+	 * @param isVersionable
+	 * @return
+	 */
+	private Multimap<String,O> _oidsByDBOid(final Collection<O> oids,
+											final boolean isVersionable) {
+		Multimap<String,O> outOidsByDBOid = HashMultimap.create();
+		for (O oid : oids) {
+			if (oid == null) continue;
+			String dbOid = isVersionable ? ((OIDForVersionableModelObject)oid).getOid().asString()
+										 : oid.asString();
+			outOidsByDBOid.put(dbOid,oid);
+		}
+		return outOidsByDBOid;
+	}
+	private static <O extends OID> boolean _isSameVersion(final O oid,
+														  final String dbVersion) {
+		if (dbVersion == null) return true;		// not versionable
+		return ((OIDForVersionableModelObject)oid).getVersion().asString().equals(dbVersion);
+	}
 }
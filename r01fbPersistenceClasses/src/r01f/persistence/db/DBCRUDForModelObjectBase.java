@@ -1,9 +1,15 @@
 package r01f.persistence.db;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.EntityManager;
 
+import com.google.common.collect.Sets;
+
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import r01f.exceptions.Throwables;
@@ -17,6 +23,9 @@ import r01f.model.facets.LangDependentNamed.HasLangDependentNamedFacet;
 import r01f.model.facets.LangInDependentNamed;
 import r01f.model.facets.LangInDependentNamed.HasLangInDependentNamedFacet;
 import r01f.model.facets.Summarizable.HasSummaryFacet;
+import r01f.persistence.CRUDError;
+import r01f.persistence.CRUDOnMultipleOK;
+import r01f.persistence.CRUDOnMultipleResult;
 import r01f.persistence.CRUDResult;
 import r01f.persistence.CRUDResultBuilder;
 import r01f.persistence.PersistencePerformedOperation;
@@ -29,6 +38,7 @@ import r01f.types.summary.LangIndependentSummary;
 import r01f.types.summary.Summary;
 import r01f.usercontext.UserContext;
 import r01f.util.types.Strings;
+import r01f.util.types.collections.CollectionUtils;
 import r01f.xmlproperties.XMLPropertiesForAppComponent;
 
 /**
@@ -82,10 +92,24 @@ public abstract class DBCRUDForModelObjectBase<O extends OID,M extends Persistab
 		DB outEntity = _createDBEntityInstanceFor(modelObj);
 		this.setDBEntityFieldsFromModelObject(userContext,
 						     	  			  modelObj,outEntity);
+		_setDBEntityDescriptorFromModelObject(modelObj,outEntity);
 		// do not forget!!
 		outEntity.setEntityVersion(modelObj.getEntityVersion());
 		return outEntity;
 	}
+	/**
+	 * Stores the model object descriptor at the db entity if the descriptors are stored in the binary format
+	 * (see {@link #_descriptorFor(PersistableModelObject)}): the descriptor set at setDBEntityFieldsFromModelObject
+	 * (usually the xml) is replaced by the binary one
+	 * If the descriptors are stored as xml the descriptor set at setDBEntityFieldsFromModelObject is NOT changed
+	 * @param modelObj
+	 * @param dbEntity
+	 */
+	protected void _setDBEntityDescriptorFromModelObject(final M modelObj,
+														 final DB dbEntity) {
+		if (!_binaryDescriptors || !(dbEntity instanceof DBEntityHasModelObjectDescriptor)) return;
+		((DBEntityHasModelObjectDescriptor)dbEntity).setDescriptor(_descriptorFor(modelObj));
+	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  CRUD  
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -97,6 +121,54 @@ public abstract class DBCRUDForModelObjectBase<O extends OID,M extends Persistab
 		return _doLoad(userContext,
 					   oid,pk);
 	}
+	@Override
+	public CRUDOnMultipleResult<M> loadAll(final UserContext userContext,
+										   final Collection<O> oids) {
+		CRUDOnMultipleOK<M> outResults = CRUDResultBuilder.using(userContext)
+														  .on(_modelObjectType)
+														  .loadedMultiple();
+		if (CollectionUtils.isNullOrEmpty(oids)) return outResults;
+		
+		// Load all the entities at once...
+		Map<O,DB> dbEntities = _doLoadEntities(userContext,
+											   oids);
+		// ... and compose the results in the requested order
+		for (O oid : oids) {
+			DB dbEntity = oid != null ? dbEntities.get(oid) : null;
+			if (dbEntity != null) {
+				M modelObj = this.dbEntityToModelObject(userContext,
+														dbEntity);
+				outResults.addOperationOK(CRUDResultBuilder.using(userContext)
+														   .on(_modelObjectType)
+														   .loaded()
+														   .entity(modelObj));
+			} else {
+				CRUDError<M> notFound = CRUDResultBuilder.using(userContext)
+														 .on(_modelObjectType)
+														 .notLoaded()
+														 .becauseClientRequestedEntityWasNOTFound()
+														 		.about(oid).build();
+				log.warn(notFound.getDetailedMessage());
+				outResults.addOperationNOK(notFound);
+			}
+		}
+		return outResults;
+	}
+	@Override
+	public boolean exists(final UserContext userContext,
+						  final O oid) {
+		if (oid == null) return false;
+		return _findExistingOids(Collections.singleton(oid))
+						.contains(oid);
+	}
+	@Override
+	public boolean existsAll(final UserContext userContext,
+							 final Collection<O> oids) {
+		if (CollectionUtils.isNullOrEmpty(oids)) return true;
+		Set<O> requestedOids = Sets.newHashSet(oids);
+		if (requestedOids.contains(null)) return false;
+		return _findExistingOids(requestedOids).size() == requestedOids.size();
+	}
 	@Override 
 	public CRUDResult<M> create(final UserContext userContext,
 								final M modelObj) {
@@ -178,6 +250,7 @@ public abstract class DBCRUDForModelObjectBase<O extends OID,M extends Persistab
 			performedOp = PersistencePerformedOperation.UPDATED;
 			this.setDBEntityFieldsFromModelObject(userContext,		// update!! do NOT call _modelObjectToDBEntity since it creates a new DB object
 											  	  modelObj,dbEntityToPersist);
+			_setDBEntityDescriptorFromModelObject(modelObj,dbEntityToPersist);
 			dbEntityToPersist.setEntityVersion(modelObj.getEntityVersion());	// ... but do not forget to set the entity version
 																				//	   (usually it's NOT set at fromModelObject method)
 			if (userContext.getUserCode() != null)  dbEntityToPersist.setLastUpdatorUserCode(userContext.getUserCode());			
@@ -3,11 +3,13 @@ package r01f.persistence.db;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Tuple;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
@@ -28,6 +30,7 @@ import r01f.persistence.FindOIDsResult;
 import r01f.persistence.FindOIDsResultBuilder;
 import r01f.persistence.db.entities.DBEntityForModelObject;
 import r01f.persistence.db.entities.primarykeys.DBPrimaryKeyForModelObject;
+import r01f.persistence.search.db.DBKeysetCursor;
 import r01f.types.Range;
 import r01f.usercontext.UserContext;
 import r01f.util.types.collections.CollectionUtils;
@@ -93,6 +96,90 @@ public abstract class DBFindForModelObjectBase<O extends OID,M extends Persistab
 														  tupleResult);
 		return outOids;
 	}
+	/**
+	 * Finds all the entity oids page by page using keyset pagination: the oids are ordered and every page 
+	 * is got after the last oid of the previous page so getting a deep page costs the same as getting the 
+	 * first one (the offset paging makes the db scan and discard all the previous pages rows)
+	 * @param userContext
+	 * @param cursor the cursor returned alongside the previous page (see {@link r01f.persistence.FindOIDsOK#getNextPageCursor()}) or null for the first page
+	 * @param pageSize
+	 * @return
+	 */
+	@Override
+	public FindOIDsResult<O> findAllPage(final UserContext userContext,
+										 final String cursor,final int pageSize) {
+		DBKeysetCursor theCursor = cursor != null ? DBKeysetCursor.fromToken(cursor)
+												  : null;
+		boolean isVersionable = Facetables.hasFacet(_modelObjectType,HasVersionableFacet.class);
+		
+		CriteriaBuilder builder = _entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<DB> root = query.from(_DBEntityType);
+		Path<String> oidPath = root.<String>get("_oid");
+		Path<String> versionPath = isVersionable ? root.<String>get("_version") : null;
+		if (isVersionable) {
+			query.multiselect(oidPath,
+							  versionPath);
+			query.orderBy(builder.asc(oidPath),
+						  builder.asc(versionPath));
+		} else {
+			query.multiselect(oidPath);
+			query.orderBy(builder.asc(oidPath));
+		}
+		// the keyset predicate: (oid > :lastOid) OR (oid = :lastOid AND version > :lastVersion)
+		if (theCursor != null) {
+			Object[] lastKeys = theCursor.getLastKeys();
+			String lastOid = (String)lastKeys[0];
+			Predicate where = builder.greaterThan(oidPath,lastOid);
+			if (isVersionable) {
+				String lastVersion = (String)lastKeys[1];
+				where = builder.or(where,
+								   builder.and(builder.equal(oidPath,lastOid),
+										   	   builder.greaterThan(versionPath,lastVersion)));
+			}
+			query.where(where);
+		}
+		List<Tuple> tupleResult = _entityManager.createQuery(query)
+														.setHint(QueryHints.READ_ONLY,HintValues.TRUE)
+														.setMaxResults(pageSize)
+											    .getResultList();
+		FindOIDsResult<O> outOids = _buildResultsFromOids(userContext,
+														  tupleResult);
+		// the next page cursor (there's NO next page if this page is NOT full)
+		if (CollectionUtils.isNullOrEmpty(tupleResult) || tupleResult.size() < pageSize) return outOids;
+		
+		Tuple lastTuple = tupleResult.get(tupleResult.size()-1);
+		Object[] lastKeys = isVersionable ? new Object[] {lastTuple.get(0),lastTuple.get(1)}
+										  : new Object[] {lastTuple.get(0)};
+		int position = (theCursor != null ? theCursor.getPosition() : 0) + tupleResult.size();
+		return FindOIDsResultBuilder.using(userContext)
+									.on(_modelObjectType)
+									.foundEntitiesPageWithOids(outOids.getOrThrow(),
+															   new DBKeysetCursor(position,lastKeys).asToken());
+	}
+	/**
+	 * Finds which of the given oids exist using a projection query that ONLY returns the oids
+	 * (the entities are NOT loaded); usually used to check in a single round-trip which entities
+	 * of a batch already exist
+	 * @param userContext
+	 * @param oids
+	 * @return the existing oids
+	 */
+	public FindOIDsResult<O> findExisting(final UserContext userContext,
+										  final Collection<O> oids) {
+		Set<O> existingOids = _findExistingOids(oids);
+		FindOIDsResult<O> outOids = null;
+		if (CollectionUtils.hasData(existingOids)) {
+			outOids = FindOIDsResultBuilder.using(userContext)
+										   .on(_modelObjectType)
+										   .foundEntitiesWithOids(existingOids);
+		} else {
+			outOids = FindOIDsResultBuilder.using(userContext)
+										   .on(_modelObjectType)
+										   .noEntityFound();
+		}
+		return outOids;
+	}
 	@Override
 	public FindOIDsResult<O> findByCreateDate(final UserContext userContext,
 											  final Range<Date> createDate) {
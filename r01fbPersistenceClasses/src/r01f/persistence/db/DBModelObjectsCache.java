@@ -0,0 +1,275 @@
+package r01f.persistence.db;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import r01f.debug.Debuggable;
+import r01f.guids.OID;
+import r01f.model.OIDForVersionableModelObject;
+import r01f.persistence.db.entities.DBEntityForModelObject;
+import r01f.persistence.db.entities.primarykeys.DBPrimaryKeyForModelObjectImpl;
+import r01f.persistence.db.entities.primarykeys.DBPrimaryKeyForVersionableModelObjectImpl;
+import r01f.util.types.Strings;
+import r01f.util.types.Strings.StringExtended;
+import r01f.xmlproperties.XMLPropertiesForAppComponent;
+
+/**
+ * A cache of the model objects unmarshalled from the db entities' xml descriptor
+ * (see {@link DBEntityHasModelObjectDescriptor}) so the descriptor is NOT parsed again if the same entity version is loaded
+ * <ul>
+ * 		<li>The model objects are cached by the db entity primary key and the entity version:
+ * 			since the entity version is the JPA @Version, any update changes it so a stale model object is never returned</li>
+ * 		<li>The model objects are cached serialized so every load returns a copy (copy-on-read) that the caller can freely change;
+ * 			the cache size is bounded by the serialized bytes</li>
+ * 		<li>The entries of created, updated or deleted model objects are removed as soon as the CRUD event is received
+ * 			(see {@link r01f.events.crud.DBModelObjectsCacheInvalidatorEventListener})</li>
+ * </ul>
+ * There's a cache for every model object type; it can be configured at the persistence properties:
+ * <pre class='brush:xml'>
+ * 		<persistence>
+ * 			<modelObjectsCache enabled='true' maxSizeInMB='16'/>
+ * 		</persistence>
+ * </pre>
+ */
+@Slf4j
+@Accessors(prefix="_")
+public class DBModelObjectsCache
+  implements Debuggable {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static final int DEFAULT_MAX_SIZE_IN_MB = 16;
+	/**
+	 * The caches by model object type
+	 */
+	private static final ConcurrentMap<Class<?>,DBModelObjectsCache> CACHES = new ConcurrentHashMap<Class<?>,DBModelObjectsCache>();
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The cached model objects type
+	 */
+	@Getter private final Class<?> _modelObjectType;
+	/**
+	 * The serialized model objects by db entity primary key
+	 */
+	private final Cache<String,CachedModelObject> _cache;
+	/**
+	 * false if the model objects cannot be serialized (they're NOT cached)
+	 */
+	private volatile boolean _cacheable = true;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	DBModelObjectsCache(final Class<?> modelObjectType,
+						final int maxSizeInMB) {
+		_modelObjectType = modelObjectType;
+		_cache = CacheBuilder.newBuilder()
+							 .maximumWeight(maxSizeInMB * 1024L * 1024L)
+							 .weigher(new Weigher<String,CachedModelObject>() {
+											@Override
+											public int weigh(final String key,final CachedModelObject value) {
+												return key.length() * 2 + value.getSerialized().length;
+											}
+							 		  })
+							 .recordStats()
+							 .build();
+	}
+	/**
+	 * Returns the cache of a model object type (it's created the first time)
+	 * @param modelObjectType
+	 * @param persistenceProps the persistence properties where the cache is configured
+	 * @return the cache or null if it's disabled
+	 */
+	public static DBModelObjectsCache forModelObjectType(final Class<?> modelObjectType,
+														 final XMLPropertiesForAppComponent persistenceProps) {
+		DBModelObjectsCache outCache = CACHES.get(modelObjectType);
+		if (outCache != null) return outCache;
+
+		boolean enabled = persistenceProps != null ? persistenceProps.propertyAt("persistence/modelObjectsCache/@enabled")
+																	 .asBoolean(true)
+												   : true;
+		if (!enabled) return null;
+		int maxSizeInMB = persistenceProps != null ? persistenceProps.propertyAt("persistence/modelObjectsCache/@maxSizeInMB")
+																	 .asInteger(DEFAULT_MAX_SIZE_IN_MB)
+												   : DEFAULT_MAX_SIZE_IN_MB;
+		DBModelObjectsCache newCache = new DBModelObjectsCache(modelObjectType,
+															   maxSizeInMB);
+		outCache = CACHES.putIfAbsent(modelObjectType,newCache);
+		if (outCache == null) {
+			outCache = newCache;
+			log.info("Created the {} model objects cache with a max size of {}MB",
+					 modelObjectType.getSimpleName(),maxSizeInMB);
+		}
+		return outCache;
+	}
+	/**
+	 * Returns the cache of a model object type if it was created
+	 * @param modelObjectType
+	 * @return the cache or null
+	 */
+	public static DBModelObjectsCache existingFor(final Class<?> modelObjectType) {
+		return CACHES.get(modelObjectType);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns a copy of the model object unmarshalled from the given db entity
+	 * @param dbEntity
+	 * @return the model object or null if it's NOT cached or the cached one is another entity version
+	 */
+	@SuppressWarnings("unchecked")
+	public <M> M get(final DBEntityForModelObject<?> dbEntity) {
+		if (!_cacheable) return null;
+		String key = dbEntity.getDBEntityPrimaryKey().asString();
+		CachedModelObject cached = _cache.getIfPresent(key);
+		if (cached == null || cached.getEntityVersion() != dbEntity.getEntityVersion()) return null;
+		try {
+			ObjectInputStream ois = new ModelObjectInputStream(new ByteArrayInputStream(cached.getSerialized()),
+															   _modelObjectType.getClassLoader());
+			try {
+				return (M)ois.readObject();
+			} finally {
+				ois.close();
+			}
+		} catch(Exception ex) {
+			log.warn("Could NOT de-serialize the cached {} model object with key={}: {}",
+					 _modelObjectType.getSimpleName(),key,ex.getMessage());
+			_cache.invalidate(key);
+			return null;
+		}
+	}
+	/**
+	 * Caches the model object unmarshalled from the given db entity
+	 * (the model object is serialized so later changes do NOT affect the cached one)
+	 * @param dbEntity
+	 * @param modelObject
+	 */
+	public void put(final DBEntityForModelObject<?> dbEntity,
+					final Object modelObject) {
+		if (!_cacheable || modelObject == null) return;
+		if (!(modelObject instanceof Serializable)) {
+			_disable(null);
+			return;
+		}
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
+			ObjectOutputStream oos = new ObjectOutputStream(bos);
+			oos.writeObject(modelObject);
+			oos.close();
+			_cache.put(dbEntity.getDBEntityPrimaryKey().asString(),
+					   new CachedModelObject(dbEntity.getEntityVersion(),bos.toByteArray()));
+		} catch(IOException ioEx) {
+			_disable(ioEx);
+		}
+	}
+	/**
+	 * Removes the cached model object with the given oid
+	 * @param oid
+	 */
+	public void invalidate(final OID oid) {
+		String key = oid instanceof OIDForVersionableModelObject ? DBPrimaryKeyForVersionableModelObjectImpl.from((OIDForVersionableModelObject)oid).asString()
+																 : DBPrimaryKeyForModelObjectImpl.from(oid).asString();
+		_cache.invalidate(key);
+	}
+	/**
+	 * Removes all the cached model objects
+	 */
+	public void invalidateAll() {
+		_cache.invalidateAll();
+	}
+	/**
+	 * @return the hit / miss / eviction stats
+	 */
+	public CacheStats getStats() {
+		return _cache.stats();
+	}
+	/**
+	 * @return the number of cached model objects
+	 */
+	public long size() {
+		return _cache.size();
+	}
+	private void _disable(final Exception ex) {
+		if (!_cacheable) return;
+		_cacheable = false;
+		_cache.invalidateAll();
+		log.warn("The {} model objects are NOT serializable so they're NOT cached{}",
+				 _modelObjectType.getSimpleName(),ex != null ? ": " + ex.getMessage() : "");
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  DEBUG
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public CharSequence debugInfo() {
+		CacheStats stats = _cache.stats();
+		return Strings.of("{} model objects cache: size={} hits={} misses={} hitRate={} evictions={}")
+					  .customizeWith(_modelObjectType.getSimpleName(),_cache.size(),
+							  		 stats.hitCount(),stats.missCount(),stats.hitRate(),stats.evictionCount())
+					  .asString();
+	}
+	/**
+	 * @return the stats of every model object type cache
+	 */
+	public static CharSequence debugInfoOfAll() {
+		StringExtended outDbg = Strings.create(CACHES.size() * 100);
+		for (Map.Entry<Class<?>,DBModelObjectsCache> me : CACHES.entrySet()) {
+			outDbg.add(me.getValue().debugInfo())
+				  .add("\n");
+		}
+		return outDbg;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Accessors(prefix="_")
+	@RequiredArgsConstructor
+	private static class CachedModelObject {
+		@Getter private final long _entityVersion;
+		@Getter private final byte[] _serialized;
+	}
+	/**
+	 * Resolves the serialized classes with the model object type's classloader
+	 * (the default {@link ObjectInputStream} uses this class' classloader that might NOT see the model object types
+	 *  ie: if the framework is at a shared lib of the app server and the model objects are at the app)
+	 */
+	private static class ModelObjectInputStream
+				 extends ObjectInputStream {
+		private final ClassLoader _classLoader;
+
+		ModelObjectInputStream(final InputStream is,
+							   final ClassLoader classLoader) throws IOException {
+			super(is);
+			_classLoader = classLoader;
+		}
+		@Override
+		protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException,
+																			 ClassNotFoundException {
+			if (_classLoader == null) return super.resolveClass(desc);
+			try {
+				return Class.forName(desc.getName(),false,_classLoader);
+			} catch(ClassNotFoundException cnfEx) {
+				return super.resolveClass(desc);	// ie: primitive types or types not visible from the classloader
+			}
+		}
+	}
+}
@@ -4,6 +4,8 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
@@ -31,7 +33,15 @@ import lombok.extern.slf4j.Slf4j;
  *			<class>Datasource</class>
  *			<uri>poolPrueba</uri>
  *		</connection>
+ *		<connection name='pruebaJDBCPool'>
+ *			<class>Pool</class>
+ *			<driver>oracle.jdbc.OracleDriver</driver>
+ *			<uri>jdbc:oracle:thin:@dbmachine:1521:mydb</uri>
+ *			<user>usuario</user>
+ *			<password>password</password>
+ *		</connection>
  * </database>
+ * (ver {@link DBConnectionPool})
  * Utilizando el metodo SQLHelpper.getConnectionProperties(appCode,connectionName)
  * se obtiene el objeto Properties a partir del XML anterior.
  *
@@ -43,6 +53,10 @@ public class DBConnectionHelpper {
 ///////////////////////////////////////////////////////////////////////////////////////////
 // 	ESTADO
 ///////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * DataSources obtenidos de JNDI por nombre (el lookup se hace una unica vez)
+	 */
+	private static final ConcurrentMap<String,DataSource> DATA_SOURCES = new ConcurrentHashMap<String,DataSource>();
 
 ///////////////////////////////////////////////////////////////////////////////////////////
 //  METODOS
@@ -108,8 +122,8 @@ public class DBConnectionHelpper {
         } else if ( driverClass.equalsIgnoreCase("Pool") ) {
             String poolName = props.getProperty("uri");
             if (poolName == null || poolName.length() == 0) throw new IllegalArgumentException( "El nombre del pool especificado en las propiedades no es valida (null)" );
-            // return SQLHelpper._obtainPoolConnection(poolName,true);
-            return null;    // De momento... no esta implementado
+            return DBConnectionPool.forProperties(props)		// the uri is the jdbc uri and the driver class is at the driver property
+            					   .getConnection();
         } else {
             String user = props.getProperty("user");
             String password = props.getProperty("password");
@@ -171,12 +185,12 @@ public class DBConnectionHelpper {
      */
     private static Connection _obtainDataSourceConnection(final String dataSourceName,final boolean isTX) throws SQLException {
         try {
-            Context ctx = new InitialContext();
-            DataSource ds = null;
-            if (isTX) {
-                ds = (DataSource)ctx.lookup(dataSourceName);
-            } else {
-                ds = (DataSource)ctx.lookup(dataSourceName);
+        	// the jndi lookup is done only once for every dataSource
+            DataSource ds = DATA_SOURCES.get(dataSourceName);
+            if (ds == null) {
+            	Context ctx = new InitialContext();
+            	ds = (DataSource)ctx.lookup(dataSourceName);
+            	DATA_SOURCES.put(dataSourceName,ds);
             }
             Connection conx = ds.getConnection();
             if (conx == null) throw new SQLException( "No se ha podido obtener una conexion del dataSource " + dataSourceName );
@@ -0,0 +1,225 @@
+package r01f.persistence.db.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import r01f.exceptions.Throwables;
+
+/**
+ * Pool de conexiones JDBC (obtenidas con el {@link DriverManager}) utilizado cuando la clase de la conexion es Pool:
+ * <pre class="brush:xml">
+ *		<connection name='pruebaPool'>
+ *			<class>Pool</class>
+ *			<driver>oracle.jdbc.OracleDriver</driver>
+ *			<uri>jdbc:oracle:thin:@dbmachine:1521:mydb</uri>
+ *			<user>scott</user>
+ *			<password>tiger</password>
+ *			<maxPoolSize>10</maxPoolSize>				<!-- opcional: 10 por defecto -->
+ *			<poolTimeoutMillis>30000</poolTimeoutMillis>	<!-- opcional: espera maxima para obtener una conexion -->
+ *		</connection>
+ * </pre>
+ * Hay un unico pool por driver / uri / usuario y las conexiones se devuelven al pool al cerrarlas
+ * (ver {@link DBConnectionHelpper#closeConnection(Connection)}) de forma que NO se abre una conexion
+ * con la base de datos en cada operacion
+ * Antes de reutilizar una conexion se comprueba que sigue siendo valida
+ */
+@Slf4j
+@Accessors(prefix="_")
+public class DBConnectionPool {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTES
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final int DEFAULT_MAX_POOL_SIZE = 10;
+	private static final long DEFAULT_POOL_TIMEOUT_MILLIS = 30000;
+	private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+	
+	private static final ConcurrentMap<String,DBConnectionPool> POOLS = new ConcurrentHashMap<String,DBConnectionPool>();
+/////////////////////////////////////////////////////////////////////////////////////////
+//  ESTADO
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final String _driverClass;
+	private final String _uri;
+	private final String _user;
+	private final String _password;
+	@Getter private final int _maxPoolSize;
+	private final long _poolTimeoutMillis;
+	/**
+	 * Conexiones libres (la ultima devuelta es la primera que se reutiliza)
+	 */
+	private final BlockingDeque<Connection> _idleConnections = new LinkedBlockingDeque<Connection>();
+	/**
+	 * Limita el numero de conexiones en uso
+	 */
+	private final Semaphore _permits;
+	
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	private DBConnectionPool(final String driverClass,final String uri,
+							 final String user,final String password,
+							 final int maxPoolSize,final long poolTimeoutMillis) {
+		_driverClass = driverClass;
+		_uri = uri;
+		_user = user;
+		_password = password;
+		_maxPoolSize = maxPoolSize;
+		_poolTimeoutMillis = poolTimeoutMillis;
+		_permits = new Semaphore(maxPoolSize,true);
+	}
+	/**
+	 * Devuelve el pool para las propiedades de conexion (se crea la primera vez)
+	 * @param props
+	 * @return
+	 */
+	public static DBConnectionPool forProperties(final Properties props) {
+		String driverClass = props.getProperty("driver");
+		String uri = props.getProperty("uri");
+		String user = props.getProperty("user");
+		if (driverClass == null || driverClass.length() == 0) throw new IllegalArgumentException("El driver (driver) del pool especificado en las propiedades no es valido (null)");
+		
+		String key = driverClass + "|" + uri + "|" + user;
+		DBConnectionPool outPool = POOLS.get(key);
+		if (outPool == null) {
+			String maxPoolSize = props.getProperty("maxPoolSize");
+			String poolTimeoutMillis = props.getProperty("poolTimeoutMillis");
+			DBConnectionPool newPool = new DBConnectionPool(driverClass,uri,
+															user,props.getProperty("password"),
+															maxPoolSize != null ? Integer.parseInt(maxPoolSize.trim()) : DEFAULT_MAX_POOL_SIZE,
+															poolTimeoutMillis != null ? Long.parseLong(poolTimeoutMillis.trim()) : DEFAULT_POOL_TIMEOUT_MILLIS);
+			outPool = POOLS.putIfAbsent(key,newPool);
+			if (outPool == null) {
+				outPool = newPool;
+				log.info("Created a JDBC connection pool for {} (user {}) with max {} connections",uri,user,outPool.getMaxPoolSize());
+			}
+		}
+		return outPool;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METODOS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Obtiene una conexion del pool: al cerrarla se devuelve al pool
+	 * @return
+	 * @throws SQLException si no se puede obtener la conexion o se ha superado el tiempo de espera
+	 */
+	public Connection getConnection() throws SQLException {
+		try {
+			if (!_permits.tryAcquire(_poolTimeoutMillis,TimeUnit.MILLISECONDS)) throw new SQLException(Throwables.message("Could NOT get a connection to {} from the pool: all the {} connections are in use after waiting for {} millis",
+																														 _uri,_maxPoolSize,_poolTimeoutMillis));
+		} catch(InterruptedException intEx) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a pooled connection to " + _uri);
+		}
+		try {
+			Connection physicalConx = _pollValidConnection();
+			if (physicalConx == null) physicalConx = _newConnection();
+			return _pooled(physicalConx);
+		} catch(SQLException sqlEx) {
+			_permits.release();
+			throw sqlEx;
+		} catch(RuntimeException rtEx) {
+			_permits.release();
+			throw rtEx;
+		}
+	}
+	/**
+	 * Cierra las conexiones libres del pool
+	 */
+	public void closeIdleConnections() {
+		for (Connection conx = _idleConnections.poll(); conx != null; conx = _idleConnections.poll()) {
+			_closeQuietly(conx);
+		}
+	}
+	private Connection _pollValidConnection() {
+		for (Connection conx = _idleConnections.pollFirst(); conx != null; conx = _idleConnections.pollFirst()) {
+			try {
+				if (conx.isValid(VALIDATION_TIMEOUT_SECONDS)) return conx;
+			} catch(SQLException sqlEx) {
+				log.debug("Pooled connection validation error: {}",sqlEx.getMessage());
+			}
+			log.warn("A pooled connection to {} is NOT valid anymore: it's discarded",_uri);
+			_closeQuietly(conx);
+		}
+		return null;
+	}
+	private Connection _newConnection() throws SQLException {
+		try {
+			Class.forName(_driverClass);
+		} catch(ClassNotFoundException cnfEx) {
+			throw new SQLException("Error al instanciar el driver JDBC [" + _driverClass + "]: " + cnfEx.toString());
+		}
+		Connection outConx = DriverManager.getConnection(_uri,_user,_password);
+		if (outConx == null) throw new SQLException("No se ha podido obtener una conexion utilizando el driver " + _driverClass + " a la uri " + _uri);
+		return outConx;
+	}
+	private void _release(final Connection physicalConx) {
+		try {
+			// leave the connection as it was created
+			if (!physicalConx.getAutoCommit()) {
+				physicalConx.rollback();
+				physicalConx.setAutoCommit(true);
+			}
+			_idleConnections.offerFirst(physicalConx);
+		} catch(SQLException sqlEx) {
+			log.warn("Could NOT return a connection to {} to the pool: {}",_uri,sqlEx.getMessage());
+			_closeQuietly(physicalConx);
+		} finally {
+			_permits.release();
+		}
+	}
+	private static void _closeQuietly(final Connection conx) {
+		try {
+			conx.close();
+		} catch(SQLException sqlEx) {
+			/* ignore */
+		}
+	}
+	/**
+	 * Wraps the physical connection so it's returned to the pool when closed
+	 * @param physicalConx
+	 * @return
+	 */
+	private Connection _pooled(final Connection physicalConx) {
+		return (Connection)Proxy.newProxyInstance(Connection.class.getClassLoader(),
+												  new Class<?>[] {Connection.class},
+												  new InvocationHandler() {
+															private boolean _closed = false;
+															
+															@Override
+															public Object invoke(final Object proxy,final Method method,final Object[] args) throws Throwable {
+																String methodName = method.getName();
+																if (methodName.equals("close")) {
+																	if (!_closed) {
+																		_closed = true;
+																		_release(physicalConx);
+																	}
+																	return null;
+																} else if (methodName.equals("isClosed")) {
+																	return _closed || physicalConx.isClosed();
+																} else if (_closed && method.getDeclaringClass() != Object.class) {
+																	throw new SQLException("The pooled connection is closed");
+																}
+																try {
+																	return method.invoke(physicalConx,args);
+																} catch(InvocationTargetException invokeEx) {
+																	throw invokeEx.getCause();
+																}
+															}
+												  });
+	}
+}
@@ -76,16 +76,20 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
+import javax.sql.DataSource;
+
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import r01f.persistence.db.DBRow;
+import r01f.persistence.db.DBRowHandler;
 
 @Accessors(prefix="_")
 @NoArgsConstructor
@@ -94,7 +98,13 @@ public class DBManager {
 //  ESTADO
 /////////////////////////////////////////////////////////////////////////////////////////
 	@Getter @Setter protected Properties _conxProps;  	// Propiedades para obtener la conexion a BD
+	@Getter @Setter protected DataSource _dataSource;	// DataSource (pool) del que obtener las conexiones (si no se utilizan las propiedades)
+	@Getter @Setter protected int _fetchSize = 0;		// Filas que se leen en cada viaje a BD en las consultas (0 = valor por defecto del driver)
     				protected Connection _conx = null;	// Conexin a base de datos
+    /**
+     * Numero de sentencias que se envian a la base de datos en cada executeBatch
+     */
+    public static final int BATCH_SIZE = 500;
 
 ///////////////////////////////////////////////////////////////////////////////////////////
 //  CONSTRUCTOR/DESTRUCTOR
@@ -104,6 +114,13 @@ public class DBManager {
      */
     public DBManager(Properties conxProps) {
         _conxProps = conxProps;
+    }
+    /**
+     * Constructor a partir de un DataSource (normalmente un pool de conexiones)
+     * del que se obtienen las conexiones
+     */
+    public DBManager(final DataSource dataSource) {
+    	_dataSource = dataSource;
     }
 	/**
 	 * Liberar la conexion de base de datos
@@ -127,8 +144,8 @@ public class DBManager {
     	 * @throws SQLException
     	 */
     	public void beginTransaction() throws SQLException {
-    		if (_conxProps == null) throw new SQLException( "No se han establecido las propiedades para obtener la conexin (null)" );
-    		if (_conx == null) _conx = DBConnectionHelpper.getConnection(_conxProps);
+    		if (_conxProps == null && _dataSource == null) throw new SQLException( "No se han establecido las propiedades para obtener la conexin (null)" );
+    		if (_conx == null) _conx = _newConnection();
     	}
     	/**
     	 * Finaliza la transaccin haciendo un commit implicitamente
@@ -202,10 +219,11 @@ public class DBManager {
 
             try {
                 // Obtener una nueva conexion solo si no hay una ya creada (transaccin)
-                conx = (_conx == null ? DBConnectionHelpper.getConnection(_conxProps) : _conx);
+                conx = (_conx == null ? _newConnection() : _conx);
 
                 // Obtener un Statement y sustituir los parametros si los hay
                 ps = conx.prepareStatement(sql);
+                if (_fetchSize > 0) ps.setFetchSize(_fetchSize);
                 if (params != null) {
                   for (int i = 0; i < params.size(); i++)
                       ps.setObject(i + 1, params.get(i));
@@ -235,17 +253,67 @@ public class DBManager {
 
             if (rs != null && rs.next()) {
                 outList = new ArrayList<Map<String,String>>();     // Lista para los objetos
+                DBRow row = DBRow.of(rs);							// los nombres de las columnas se obtienen una unica vez
                 do {
-                    Map<String, String> rowMap = new HashMap<String,String>(rs.getMetaData().getColumnCount());
-                    for (int i=1; i <= rs.getMetaData().getColumnCount(); i++) {
-                        rowMap.put( rs.getMetaData().getColumnName(i).toUpperCase(),rs.getString(i) );
-                    }
                     // Meter el objeto en la lista
-                    outList.add(rowMap);
+                    outList.add(row.asMap());
                 } while(rs.next());
             }
             return outList;
         }
+        /**
+         * Ejecuta una query con parametros tratando cada fila a medida que se lee de la base de datos
+         * de forma que NO se mantienen todas las filas en memoria (consultas que devuelven muchas filas)
+         * @param sql Query SQL que quiere ser ejecutada.
+         * @param params Lista de parametros que completan la query final que va a ser ejecutada.
+         * @param fetchSize numero de filas que se leen en cada viaje a la base de datos (0 para utilizar el configurado en este objeto)
+         * @param rowHandler trata cada una de las filas (ver {@link DBRow})
+         * @return el numero de filas tratadas
+         * @exception SQLException si hay errores en el acceso a la base de datos.
+         */
+		@SuppressWarnings("resource")
+		public int executeQuery(final String sql,final List<String> params,
+								final int fetchSize,
+								final DBRowHandler rowHandler) throws SQLException {
+            Connection conx = null;
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+            if (sql == null) throw new SQLException("La sentencia SQL no puede ser nula");
+
+            int outCount = 0;
+            try {
+                // Obtener una nueva conexion solo si no hay una ya creada (transaccion)
+                conx = (_conx == null ? _newConnection() : _conx);
+
+                // Obtener un Statement de solo lectura y hacia adelante y sustituir los parametros si los hay
+                ps = conx.prepareStatement(sql,
+                						   ResultSet.TYPE_FORWARD_ONLY,ResultSet.CONCUR_READ_ONLY);
+                int effFetchSize = fetchSize > 0 ? fetchSize : _fetchSize;
+                if (effFetchSize > 0) ps.setFetchSize(effFetchSize);
+                if (params != null) {
+                  for (int i = 0; i < params.size(); i++)
+                      ps.setObject(i + 1, params.get(i));
+                }
+                // Ejecutar la query y tratar las filas a medida que se leen
+                rs = ps.executeQuery();
+                DBRow row = DBRow.of(rs);
+                while (rs.next()) {
+                	rowHandler.handle(row);
+                	outCount++;
+                }
+            } finally {
+                if (rs != null) rs.close();
+                rs = null;
+                if (ps != null) ps.close();
+                ps = null;
+                // Solo cerrar la conexion si esta se ha creado para la transaccion actual
+                if (_conx == null && conx != null) {
+                    DBConnectionHelpper.closeConnection(conx);
+                    conx = null;
+                }
+            }
+            return outCount;
+        }
 ///////////////////////////////////////////////////////////////////////////////////////////
 //  UPDATE / INSERT / DELETE
 ///////////////////////////////////////////////////////////////////////////////////////////
@@ -329,7 +397,7 @@ public class DBManager {
             if (sql == null) throw new SQLException("La sentencia SQL no puede ser nula");
             try {
     	        // Obtener una nueva conexion solo si no hay una ya creada (transaccin)
-    	        conx = (_conx == null ? DBConnectionHelpper.getConnection(_conxProps) : _conx);
+    	        conx = (_conx == null ? _newConnection() : _conx);
 
     	        // Obtener un Statement y sustituir los parametros si los hay
     	        ps = conx.prepareStatement(sql);
@@ -351,6 +419,253 @@ public class DBManager {
         }
 
 ///////////////////////////////////////////////////////////////////////////////////////////
+//  BATCH
+///////////////////////////////////////////////////////////////////////////////////////////
+        /**
+         * Ejecuta en batch (JDBC) una sentencia con distintos parametros: las ejecuciones se envian a
+         * la base de datos en bloques de {@link #BATCH_SIZE} en lugar de una a una
+         * Si no hay una transaccion en curso, todas las ejecuciones se hacen en una unica transaccion
+         * @param sql La sentencia a ejecutar
+         * @param paramsList Los parametros de cada ejecucion
+         * @return El numero de filas afectadas por cada ejecucion
+         * @throws SQLException si hay algun error en la base de datos
+         */
+		@SuppressWarnings("resource")
+		public int[] executeBatch(final String sql,final List<List<String>> paramsList) throws SQLException {
+            if (sql == null) throw new SQLException("La sentencia SQL no puede ser nula");
+            if (paramsList == null || paramsList.isEmpty()) return new int[0];
+            
+            Connection conx = null;
+            PreparedStatement ps = null;
+            int[] outCounts = new int[paramsList.size()];
+            boolean ownConx = _conx == null;
+            try {
+            	conx = _beginBatch();
+    	        ps = conx.prepareStatement(sql);
+    	        int pos = 0;
+    	        int pending = 0;
+    	        for (List<String> params : paramsList) {
+    	        	if (params != null) {
+    	        		for (int i = 0; i < params.size(); i++)
+    	        			ps.setObject(i + 1, params.get(i));
+    	        	}
+    	        	ps.addBatch();
+    	        	if (++pending == BATCH_SIZE) {
+    	        		pos = _copyBatchCounts(ps.executeBatch(),outCounts,pos);
+    	        		pending = 0;
+    	        	}
+    	        }
+    	        if (pending > 0) _copyBatchCounts(ps.executeBatch(),outCounts,pos);
+    	        if (ownConx) conx.commit();
+    	        return outCounts;
+            } catch(SQLException sqlEx) {
+            	if (ownConx && conx != null) conx.rollback();
+            	throw sqlEx;
+            } finally {
+                if (ps != null) ps.close();
+                ps = null;
+                _endBatch(conx,ownConx);
+            }
+        }
+        /**
+         * Ejecuta en batch (JDBC) una lista de sentencias: las sentencias se envian a
+         * la base de datos en bloques de {@link #BATCH_SIZE} en lugar de una a una
+         * Si no hay una transaccion en curso, todas las sentencias se ejecutan en una unica transaccion
+         * @param sqls Las sentencias a ejecutar
+         * @return El numero de filas afectadas por cada sentencia
+         * @throws SQLException si hay algun error en la base de datos
+         */
+		@SuppressWarnings("resource")
+		public int[] executeBatch(final List<String> sqls) throws SQLException {
+            if (sqls == null || sqls.isEmpty()) return new int[0];
+            
+            Connection conx = null;
+            Statement stmt = null;
+            int[] outCounts = new int[sqls.size()];
+            boolean ownConx = _conx == null;
+            try {
+            	conx = _beginBatch();
+            	stmt = conx.createStatement();
+    	        int pos = 0;
+    	        int pending = 0;
+    	        for (String sql : sqls) {
+    	        	stmt.addBatch(sql);
+    	        	if (++pending == BATCH_SIZE) {
+    	        		pos = _copyBatchCounts(stmt.executeBatch(),outCounts,pos);
+    	        		pending = 0;
+    	        	}
+    	        }
+    	        if (pending > 0) _copyBatchCounts(stmt.executeBatch(),outCounts,pos);
+    	        if (ownConx) conx.commit();
+    	        return outCounts;
+            } catch(SQLException sqlEx) {
+            	if (ownConx && conx != null) conx.rollback();
+            	throw sqlEx;
+            } finally {
+                if (stmt != null) stmt.close();
+                stmt = null;
+                _endBatch(conx,ownConx);
+            }
+        }
+        /**
+         * Ejecuta en batch una sentencia INSERT por cada fila
+         * Los valores se pasan como parametros de un unico PreparedStatement (solo las funciones SQL se incluyen en la sentencia);
+         * si las filas NO tienen las mismas columnas o funciones SQL, se prepara una sentencia nueva cada vez que cambia
+         * @param rows Las filas: cada una son parejas de elementos NOMBRE_COLUMNA / VALOR
+         * @param table Tabla en la que se inserta
+         * @return El numero de filas insertadas por cada sentencia
+         * @throws SQLException si hay algun error en la base de datos
+         */
+        public int[] executeInsertBatch(final List<List<DBSQLHelpper.DBData>> rows,
+        								final String table) throws SQLException {
+        	List<String> sqls = new ArrayList<String>(rows.size());
+        	List<List<Object>> paramsList = new ArrayList<List<Object>>(rows.size());
+        	for (List<DBSQLHelpper.DBData> row : rows) {
+        		List<Object> params = new ArrayList<Object>(row.size());
+        		sqls.add(DBSQLHelpper.composeParametrizedInsert(row,table,
+        														params));
+        		paramsList.add(params);
+        	}
+        	return _executeParametrizedBatch(sqls,paramsList);
+        }
+        /**
+         * Ejecuta en batch una sentencia UPDATE por cada fila
+         * Los valores se pasan como parametros (solo las funciones SQL se incluyen en la sentencia) pero como el WHERE de cada
+         * fila es distinto, se prepara una sentencia por fila: utilizar 
+         * {@link #executeUpdateBatch(List, String, String, List)} con un WHERE parametrizado para utilizar un unico PreparedStatement
+         * @param rows Las filas: cada una son parejas de elementos NOMBRE_COLUMNA / VALOR
+         * @param table Tabla que se actualiza
+         * @param wheres El WHERE de cada fila
+         * @return El numero de filas actualizadas por cada sentencia
+         * @throws SQLException si hay algun error en la base de datos
+         */
+        public int[] executeUpdateBatch(final List<List<DBSQLHelpper.DBData>> rows,
+        								final String table,final List<String> wheres) throws SQLException {
+        	if (wheres != null && wheres.size() != rows.size()) throw new IllegalArgumentException("There must be a where clause for every updated row");
+        	List<String> sqls = new ArrayList<String>(rows.size());
+        	List<List<Object>> paramsList = new ArrayList<List<Object>>(rows.size());
+        	for (int i=0; i < rows.size(); i++) {
+        		List<Object> params = new ArrayList<Object>(rows.get(i).size());
+        		sqls.add(DBSQLHelpper.composeParametrizedUpdate(rows.get(i),table,
+        														wheres != null ? wheres.get(i) : null,
+        														params));
+        		paramsList.add(params);
+        	}
+        	return _executeParametrizedBatch(sqls,paramsList);
+        }
+        /**
+         * Ejecuta en batch una sentencia UPDATE por cada fila con un unico PreparedStatement
+         * (los valores y los parametros del WHERE de cada fila se pasan como parametros)
+         * <pre class='brush:java'>
+         * 		dbManager.executeUpdateBatch(rows,"MY_TABLE",
+         * 									 "ID=?",Arrays.asList(Arrays.asList("1"),Arrays.asList("2")));
+         * </pre>
+         * @param rows Las filas: cada una son parejas de elementos NOMBRE_COLUMNA / VALOR
+         * @param table Tabla que se actualiza
+         * @param where El WHERE parametrizado (con ?)
+         * @param whereParamsList Los parametros del WHERE de cada fila
+         * @return El numero de filas actualizadas por cada sentencia
+         * @throws SQLException si hay algun error en la base de datos
+         */
+        public int[] executeUpdateBatch(final List<List<DBSQLHelpper.DBData>> rows,
+        								final String table,
+        								final String where,final List<List<String>> whereParamsList) throws SQLException {
+        	if (whereParamsList != null && whereParamsList.size() != rows.size()) throw new IllegalArgumentException("There must be the where clause params for every updated row");
+        	List<String> sqls = new ArrayList<String>(rows.size());
+        	List<List<Object>> paramsList = new ArrayList<List<Object>>(rows.size());
+        	for (int i=0; i < rows.size(); i++) {
+        		List<Object> params = new ArrayList<Object>(rows.get(i).size() + 1);
+        		sqls.add(DBSQLHelpper.composeParametrizedUpdate(rows.get(i),table,
+        														where,
+        														params));
+        		if (whereParamsList != null && whereParamsList.get(i) != null) params.addAll(whereParamsList.get(i));
+        		paramsList.add(params);
+        	}
+        	return _executeParametrizedBatch(sqls,paramsList);
+        }
+        /**
+         * Ejecuta en batch las sentencias parametrizadas: las filas consecutivas con la misma sentencia se 
+         * envian con el mismo PreparedStatement en bloques de {@link #BATCH_SIZE}
+         * Si no hay una transaccion en curso, todas las sentencias se ejecutan en una unica transaccion
+         */
+		@SuppressWarnings("resource")
+		private int[] _executeParametrizedBatch(final List<String> sqls,
+												final List<List<Object>> paramsList) throws SQLException {
+            if (sqls == null || sqls.isEmpty()) return new int[0];
+            
+            Connection conx = null;
+            PreparedStatement ps = null;
+            String psSql = null;
+            int[] outCounts = new int[sqls.size()];
+            boolean ownConx = _conx == null;
+            try {
+            	conx = _beginBatch();
+    	        int pos = 0;
+    	        int pending = 0;
+    	        for (int i = 0; i < sqls.size(); i++) {
+    	        	String sql = sqls.get(i);
+    	        	if (!sql.equals(psSql)) {
+    	        		// a new statement: send the pending rows of the previous one
+    	        		if (pending > 0) pos = _copyBatchCounts(ps.executeBatch(),outCounts,pos);
+    	        		pending = 0;
+    	        		if (ps != null) ps.close();
+    	        		ps = conx.prepareStatement(sql);
+    	        		psSql = sql;
+    	        	}
+    	        	List<Object> params = paramsList.get(i);
+    	        	for (int p = 0; p < params.size(); p++) ps.setObject(p + 1,params.get(p));
+    	        	ps.addBatch();
+    	        	if (++pending == BATCH_SIZE) {
+    	        		pos = _copyBatchCounts(ps.executeBatch(),outCounts,pos);
+    	        		pending = 0;
+    	        	}
+    	        }
+    	        if (pending > 0) _copyBatchCounts(ps.executeBatch(),outCounts,pos);
+    	        if (ownConx) conx.commit();
+    	        return outCounts;
+            } catch(SQLException sqlEx) {
+            	if (ownConx && conx != null) conx.rollback();
+            	throw sqlEx;
+            } finally {
+                if (ps != null) ps.close();
+                ps = null;
+                _endBatch(conx,ownConx);
+            }
+        }
+        private Connection _beginBatch() throws SQLException {
+        	if (_conx != null) return _conx;		// the current transaction
+        	Connection outConx = _newConnection();
+        	outConx.setAutoCommit(false);
+        	return outConx;
+        }
+        private void _endBatch(final Connection conx,final boolean ownConx) throws SQLException {
+            // Solo cerrar la conexion si esta se ha creado para la transaccion actual
+            if (ownConx && conx != null) {
+            	conx.setAutoCommit(true);
+                DBConnectionHelpper.closeConnection(conx);
+            }
+        }
+        private static int _copyBatchCounts(final int[] batchCounts,final int[] outCounts,final int pos) {
+        	System.arraycopy(batchCounts,0,outCounts,pos,batchCounts.length);
+        	return pos + batchCounts.length;
+        }
+///////////////////////////////////////////////////////////////////////////////////////////
+//  CONEXION
+///////////////////////////////////////////////////////////////////////////////////////////
+        /**
+         * Obtiene una nueva conexion del DataSource si se ha establecido o bien a partir de las propiedades
+         * @return
+         * @throws SQLException
+         */
+        private Connection _newConnection() throws SQLException {
+        	if (_dataSource != null) {
+        		Connection outConx = _dataSource.getConnection();
+        		if (outConx == null) throw new SQLException("No se ha podido obtener una conexion del DataSource");
+        		return outConx;
+        	}
+        	return DBConnectionHelpper.getConnection(_conxProps);
+        }
+///////////////////////////////////////////////////////////////////////////////////////////
 //  SECUENCIAS
 ///////////////////////////////////////////////////////////////////////////////////////////
     /**
@@ -371,7 +686,7 @@ public class DBManager {
             strSql = "CREATE SEQUENCE " + seqName + " " +
                                "START WITH " + startValue;
             // Obtener una nueva conexion solo si no hay una ya creada (transaccin)
-			conx = (_conx == null ? DBConnectionHelpper.getConnection(_conxProps) : _conx);
+			conx = (_conx == null ? _newConnection() : _conx);
             stmt = conx.prepareStatement(strSql);
             return stmt.execute();
         } finally {
@@ -398,7 +713,7 @@ public class DBManager {
         try {
             sql = "SELECT " + seqName + ".nextVal FROM DUAL";
             // Obtener una nueva conexion solo si no hay una ya creada (transaccin)
-			conx = (_conx == null ? DBConnectionHelpper.getConnection(_conxProps) : _conx);
+			conx = (_conx == null ? _newConnection() : _conx);
             ps = conx.prepareStatement(sql);
             ps.executeQuery();      //OJO!! No hacer rs = ps.executeQuery ya que falla con los TXDatasources
             rs = ps.getResultSet();
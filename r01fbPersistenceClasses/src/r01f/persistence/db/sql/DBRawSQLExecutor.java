@@ -5,6 +5,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
+import javax.sql.DataSource;
+
+import r01f.persistence.db.DBRowHandler;
 import r01f.persistence.db.DBSQLExecutor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -58,6 +61,13 @@ public class DBRawSQLExecutor implements DBSQLExecutor {
     public DBRawSQLExecutor(final Properties conxProps) {
         this.init(conxProps);
     }
+    /**
+     * Constructor
+     * @param dataSource DataSource (normalmente un pool) del que se obtienen las conexiones
+     */
+    public DBRawSQLExecutor(final DataSource dataSource) {
+    	_dbManager = new DBManager(dataSource);
+    }
 ///////////////////////////////////////////////////////////////////////////////////////////
 //  BUILDERS
 ///////////////////////////////////////////////////////////////////////////////////////////
@@ -70,6 +80,15 @@ public class DBRawSQLExecutor implements DBSQLExecutor {
     	DBSQLExecutor outExec = new DBRawSQLExecutor(conxProps);
     	return outExec;
     }
+    /**
+     * Crea un query executor que obtiene las conexiones del DataSource que se pasa como parametro
+     * @param dataSource el DataSource (normalmente un pool de conexiones)
+     * @return el ejecutor
+     */
+    public static DBSQLExecutor forConnectionsFrom(final DataSource dataSource) {
+    	DBSQLExecutor outExec = new DBRawSQLExecutor(dataSource);
+    	return outExec;
+    }
 ///////////////////////////////////////////////////////////////////////////////////////////
 //  INICIALIZACION
 ///////////////////////////////////////////////////////////////////////////////////////////
@@ -105,6 +124,22 @@ public class DBRawSQLExecutor implements DBSQLExecutor {
         // Devolver el resutado de la consulta
         return rdo;
     }
+    @Override
+    public int query(final String querySql,final List<String> params,
+    				 final int fetchSize,
+    				 final DBRowHandler rowHandler) throws SQLException {
+    	int outCount = 0;
+        if (querySql != null) {
+            // Ejecutar la query tratando las filas a medida que se leen
+            outCount = _dbManager.executeQuery(querySql,params,
+            								   fetchSize,
+            								   rowHandler);
+            log.debug("La consulta {} ha devuelto {} elementos",querySql,outCount);
+        } else {
+        	log.warn("Se ha intentado ejecutar una consulta NULA contra la base de datos");
+        }
+        return outCount;
+    }
 /////////////////////////////////////////////////////////////////////////////////////////
 //  INSERT
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -156,5 +191,55 @@ public class DBRawSQLExecutor implements DBSQLExecutor {
             log.warn("Se ha intentado ejecutar una delete NULA contra la base de datos");
         }
     }
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BATCH
+/////////////////////////////////////////////////////////////////////////////////////////
+    @Override
+    public int[] executeBatch(final String sql,
+    						  final List<List<String>> paramsList) throws SQLException {
+    	if (sql == null) {
+    		log.warn("Se ha intentado ejecutar un batch NULO contra la base de datos");
+    		return new int[0];
+    	}
+    	return _dbManager.executeBatch(sql,paramsList);
+    }
+    /**
+     * Inserta en batch una fila por cada lista de datos
+     * @param rows las filas: cada una son parejas de elementos NOMBRE_COLUMNA / VALOR
+     * @param table la tabla
+     * @return el numero de filas insertadas por cada sentencia
+     * @throws SQLException
+     */
+    public int[] insertBatch(final List<List<DBSQLHelpper.DBData>> rows,
+    						 final String table) throws SQLException {
+    	return _dbManager.executeInsertBatch(rows,table);
+    }
+    /**
+     * Actualiza en batch una fila por cada lista de datos
+     * @param rows las filas: cada una son parejas de elementos NOMBRE_COLUMNA / VALOR
+     * @param table la tabla
+     * @param wheres el WHERE de cada fila
+     * @return el numero de filas actualizadas por cada sentencia
+     * @throws SQLException
+     */
+    public int[] updateBatch(final List<List<DBSQLHelpper.DBData>> rows,
+    						 final String table,final List<String> wheres) throws SQLException {
+    	return _dbManager.executeUpdateBatch(rows,table,wheres);
+    }
+    /**
+     * Actualiza en batch una fila por cada lista de datos con un unico PreparedStatement
+     * @param rows las filas: cada una son parejas de elementos NOMBRE_COLUMNA / VALOR
+     * @param table la tabla
+     * @param where el WHERE parametrizado (con ?)
+     * @param whereParamsList los parametros del WHERE de cada fila
+     * @return el numero de filas actualizadas por cada sentencia
+     * @throws SQLException
+     */
+    public int[] updateBatch(final List<List<DBSQLHelpper.DBData>> rows,
+    						 final String table,
+    						 final String where,final List<List<String>> whereParamsList) throws SQLException {
+    	return _dbManager.executeUpdateBatch(rows,table,
+    										 where,whereParamsList);
+    }
 
 }
@@ -1,5 +1,6 @@
 package r01f.persistence.db.sql;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -74,9 +75,12 @@ public final class DBSQLHelpper {
     		StringBuilder sbCols = new StringBuilder("");
         	StringBuilder sbValues = new StringBuilder("");
 
-	    	int size = insertData.size();
 	        for (DBData currDBData : insertData) {
 	            if (!Strings.isNullOrEmpty(currDBData.value)) {
+	                if (sbCols.length() > 0) { // separar del elemento anterior
+	                    sbCols.append(',');
+	                    sbValues.append(',');
+	                }
 	                sbCols.append(currDBData.columnName);
 	                // Si se trata de una funcin SQL, debe ir sin comillas en la sentencia
 	                if (currDBData.isNumeric) {
@@ -86,10 +90,6 @@ public final class DBSQLHelpper {
 	                    sbValues.append(_escapeString(currDBData.value));
 	                    sbValues.append("'");
 	                }
-	                if (--size == 0) { //Ultimo elemento
-	                    sbCols.append(',');
-	                    sbValues.append(',');
-	                }
 	            }
 	        }
 
@@ -123,9 +123,11 @@ public final class DBSQLHelpper {
             sb.append(table);
             sb.append(" SET ");
 
-	        int size = updateData.size();
+	        boolean first = true;
 	        for (DBData currDBData : updateData) {
 	            if (!Strings.isNullOrEmpty(currDBData.value)) {
+	                if (!first) sb.append(",");	// separar del elemento anterior
+	                first = false;
 	                if (currDBData.isNumeric) {
 	                    sb.append(currDBData.columnName);
 	                    sb.append('=');
@@ -136,9 +138,6 @@ public final class DBSQLHelpper {
 	                    sb.append(_escapeString(currDBData.value));
 	                    sb.append("'");
 	                }
-	                if (--size == 0) {
-	                	sb.append(",");
-	                }
 	            }
 	        }
 
@@ -150,6 +149,64 @@ public final class DBSQLHelpper {
 
         return sb!=null ? sb.toString() : "";
     }
+    /**
+     * Crear una sentencia INSERT parametrizada (con ? en lugar de los valores) para ejecutarla con un PreparedStatement
+     * Los valores que son funciones SQL (ej: SYSDATE) se incluyen en la sentencia (NO se pueden pasar como parametros)
+     * @param insertData Parejas de elementos NOMBRE_COLUMNA / VALOR.
+     * @param table Nombre de la tabla sobre la que se hace la insert.
+     * @param outParams Lista en la que se devuelven los valores de los parametros (en orden)
+     * @return La sentencia SQL parametrizada
+     */
+    static String composeParametrizedInsert(final List<DBData> insertData,
+    										final String table,
+    										final List<Object> outParams) {
+    	if (insertData == null || insertData.isEmpty()) return "";
+    	
+		StringBuilder sbCols = new StringBuilder();
+    	StringBuilder sbValues = new StringBuilder();
+        for (DBData currDBData : insertData) {
+            if (Strings.isNullOrEmpty(currDBData.value)) continue;
+            if (sbCols.length() > 0) { // separar del elemento anterior
+                sbCols.append(',');
+                sbValues.append(',');
+            }
+            sbCols.append(currDBData.columnName);
+            _appendValueOrParam(sbValues,currDBData,outParams);
+        }
+        return new StringBuilder(26 + sbCols.length() + sbValues.length())
+        				.append("INSERT INTO ").append(table)
+        				.append(" (").append(sbCols).append(")")
+        				.append(" VALUES (").append(sbValues).append(") ")
+        				.toString();
+    }
+    /**
+     * Crear una sentencia UPDATE parametrizada (con ? en lugar de los valores) para ejecutarla con un PreparedStatement
+     * Los valores que son funciones SQL (ej: SYSDATE) se incluyen en la sentencia (NO se pueden pasar como parametros)
+     * @param updateData Parejas de elementos NOMBRE_COLUMNA / VALOR.
+     * @param table Tabla sobre la que queremos que se ejecute el update.
+     * @param where Clausula WHERE (puede contener ?: sus parametros se deben anadir a outParams DESPUES de llamar a este metodo)
+     * @param outParams Lista en la que se devuelven los valores de los parametros (en orden)
+     * @return La sentencia SQL parametrizada
+     */
+    static String composeParametrizedUpdate(final List<DBData> updateData,
+    										final String table,
+    										final String where,
+    										final List<Object> outParams) {
+    	if (updateData == null || updateData.isEmpty()) return "";
+    	
+    	StringBuilder sb = new StringBuilder(64);
+    	sb.append("UPDATE ").append(table).append(" SET ");
+        boolean first = true;
+        for (DBData currDBData : updateData) {
+            if (Strings.isNullOrEmpty(currDBData.value)) continue;
+            if (!first) sb.append(",");	// separar del elemento anterior
+            first = false;
+            sb.append(currDBData.columnName).append('=');
+            _appendValueOrParam(sb,currDBData,outParams);
+        }
+        if (!Strings.isNullOrEmpty(where)) sb.append(" WHERE ").append(where);
+        return sb.toString();
+    }
     /**
      * Crear una sentencia SQL para realizar un Borrado.
      * @param table Tabla sobre la que queremos que se ejecute el delete.
@@ -193,6 +250,33 @@ public final class DBSQLHelpper {
         }
         return sbEscape.toString();
     }
+    /**
+     * Anade un ? y el valor a la lista de parametros o bien el valor si se trata de una funcion SQL
+     * (los valores marcados como numericos que NO son numeros son funciones SQL: ej: SYSDATE)
+     */
+    private static void _appendValueOrParam(final StringBuilder sb,
+    										final DBData dbData,
+    										final List<Object> outParams) {
+    	if (dbData.isNumeric) {
+    		BigDecimal number = _numberOrNull(dbData.value);
+    		if (number == null) {
+    			sb.append(dbData.value);		// funcion SQL: debe ir sin comillas en la sentencia
+    		} else {
+    			sb.append('?');
+    			outParams.add(number);
+    		}
+    	} else {
+    		sb.append('?');
+    		outParams.add(dbData.value);
+    	}
+    }
+    private static BigDecimal _numberOrNull(final String value) {
+    	try {
+    		return new BigDecimal(value.trim());
+    	} catch(NumberFormatException nfEx) {
+    		return null;
+    	}
+    }
     /**
      * Crea un string con los elementos de una lista de strings separados por una coma.
      * @param list La lista de cadenas.
@@ -203,12 +287,9 @@ public final class DBSQLHelpper {
         if(list != null && !list.isEmpty()) {
 	        sb = new StringBuilder("");
 
-	        int size = list.size();
 	        for (String data : list) {
+	            if (sb.length() > 0) sb.append(",");
 	            sb.append(data);
-	            if (--size == 0) {
-	            	sb.append(",");
-	            }
 	        }
         }
 
@@ -22,6 +22,11 @@ public interface IndexManager {
 	 * @param userContext
 	 */
 	public void optimize(final UserContext userContext);
+	/**
+	 * Commits all the changes pending to be commited to the index
+	 * @param userContext
+	 */
+	public void flush(final UserContext userContext);
 	
 	/**
 	 * Truncates the index (removes all documents)
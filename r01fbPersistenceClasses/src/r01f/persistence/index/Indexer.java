@@ -1,5 +1,7 @@
 package r01f.persistence.index;
 
+import java.util.Collection;
+
 import r01f.guids.OID;
 import r01f.model.IndexableModelObject;
 import r01f.usercontext.UserContext;
@@ -32,4 +34,28 @@ public interface Indexer<M extends IndexableModelObject> {
 	 */
 	public void removeFromIndex(final UserContext userContext,
 								final OID oid);
+	/**
+	 * Indexes a batch of model objects
+	 * @param userContext
+	 * @param records
+	 * @return the batch result
+	 */
+	public IndexBatchResult indexBatch(final UserContext userContext,
+									   final Collection<M> records);
+	/**
+	 * Updates the indexed data for a batch of model objects
+	 * @param userContext
+	 * @param records
+	 * @return the batch result
+	 */
+	public IndexBatchResult updateIndexBatch(final UserContext userContext,
+									   		 final Collection<M> records);
+	/**
+	 * Deletes the indexed data for a batch of records
+	 * @param userContext
+	 * @param oids
+	 * @return the batch result
+	 */
+	public IndexBatchResult removeFromIndexBatch(final UserContext userContext,
+									   		 	 final Collection<? extends OID> oids);
 }
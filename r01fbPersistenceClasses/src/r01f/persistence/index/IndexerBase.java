@@ -1,22 +1,31 @@
 package r01f.persistence.index;
 
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
 import javax.inject.Provider;
 
 import lombok.Getter;
 import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
 import r01f.exceptions.Throwables;
 import r01f.guids.OID;
 import r01f.model.IndexableModelObject;
 import r01f.model.metadata.ModelObjectTypeMetaData;
 import r01f.model.metadata.ModelObjectTypeMetaDataBuilder;
 import r01f.persistence.PersistenceRequestedOperation;
+import r01f.persistence.index.IndexBatchResult.IndexBatchOperation;
 import r01f.persistence.index.document.IndexDocumentFieldValueSet;
 import r01f.usercontext.UserContext;
+import r01f.util.types.collections.CollectionUtils;
+
+import com.google.common.base.Stopwatch;
 
 /**
  * Base type for indexers
  * @param <P>
  */
+@Slf4j
 @Accessors(prefix="_")
 public abstract class IndexerBase<P extends IndexableModelObject> 
            implements Indexer<P> {
@@ -47,6 +56,94 @@ public abstract class IndexerBase<P extends IndexableModelObject>
 		_indexableFieldValuesExtractorProvider = indexableFieldValuesExtractorProvider;
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
+//  BATCH
+//	(by default every record is processed one after another; sub-types can override 
+//	 this methods to process the batch in a more efficient way)
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public IndexBatchResult indexBatch(final UserContext userContext,
+									   final Collection<P> records) {
+		Stopwatch stopWatch = Stopwatch.createStarted();
+		int processed = 0;
+		if (CollectionUtils.hasData(records)) {
+			for (P record : records) {
+				try {
+					this.index(userContext,
+							   record);
+					processed++;
+				} catch(Throwable th) {
+					log.error("Error indexing a {} record: {}",_modelObjectType,th.getMessage(),
+															   th);
+				}
+			}
+		}
+		return _batchResult(IndexBatchOperation.INDEX,
+							records,processed,
+							stopWatch);
+	}
+	@Override
+	public IndexBatchResult updateIndexBatch(final UserContext userContext,
+											 final Collection<P> records) {
+		Stopwatch stopWatch = Stopwatch.createStarted();
+		int processed = 0;
+		if (CollectionUtils.hasData(records)) {
+			for (P record : records) {
+				try {
+					this.updateIndex(userContext,
+							   		 record);
+					processed++;
+				} catch(Throwable th) {
+					log.error("Error updating the index of a {} record: {}",_modelObjectType,th.getMessage(),
+															   				th);
+				}
+			}
+		}
+		return _batchResult(IndexBatchOperation.UPDATE_INDEX,
+							records,processed,
+							stopWatch);
+	}
+	@Override
+	public IndexBatchResult removeFromIndexBatch(final UserContext userContext,
+												 final Collection<? extends OID> oids) {
+		Stopwatch stopWatch = Stopwatch.createStarted();
+		int processed = 0;
+		if (CollectionUtils.hasData(oids)) {
+			for (OID oid : oids) {
+				try {
+					this.removeFromIndex(userContext,
+							   		 	 oid);
+					processed++;
+				} catch(Throwable th) {
+					log.error("Error un-indexing the {} record with oid={}: {}",_modelObjectType,oid,th.getMessage(),
+															   					th);
+				}
+			}
+		}
+		return _batchResult(IndexBatchOperation.UNINDEX,
+							oids,processed,
+							stopWatch);
+	}
+	/**
+	 * Creates the batch result (the job oid is set by the services layer)
+	 * @param operation
+	 * @param requested
+	 * @param processed
+	 * @param stopWatch
+	 * @return
+	 */
+	protected IndexBatchResult _batchResult(final IndexBatchOperation operation,
+											final Collection<?> requested,final int processed,
+											final Stopwatch stopWatch) {
+		int numRequested = requested != null ? requested.size() : 0;
+		IndexBatchResult outResult = new IndexBatchResult(null,		// no job oid
+														  operation,
+														  numRequested,processed,numRequested - processed,
+														  stopWatch.elapsed(TimeUnit.MILLISECONDS));
+		stopWatch.stop();
+		log.info("{} > {}",_modelObjectType.getSimpleName(),outResult.debugInfo());
+		return outResult;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
 	/**
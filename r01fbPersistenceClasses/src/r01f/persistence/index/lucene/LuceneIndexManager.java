@@ -45,6 +45,10 @@ public final class LuceneIndexManager
 		_luceneIndex.optimize();
 	}
 	@Override
+	public void flush(final UserContext userContext) {
+		_luceneIndex.flush();
+	}
+	@Override
 	public void truncate(final UserContext userContext) {
 		_luceneIndex.truncate();
 	}
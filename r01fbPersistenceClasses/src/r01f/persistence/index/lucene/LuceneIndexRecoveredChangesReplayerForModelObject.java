@@ -0,0 +1,84 @@
+package r01f.persistence.index.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
+
+import lombok.extern.slf4j.Slf4j;
+import r01f.exceptions.Throwables;
+import r01f.guids.OID;
+import r01f.guids.OIDs;
+import r01f.model.IndexableModelObject;
+import r01f.model.facets.Versionable.HasVersionableFacet;
+import r01f.persistence.CRUDResult;
+import r01f.persistence.lucene.LuceneIndex;
+import r01f.persistence.lucene.LuceneIndexRecoveredChangesReplayer;
+import r01f.services.interfaces.CRUDServicesForModelObject;
+import r01f.usercontext.UserContext;
+
+/**
+ * Re-creates the documents of a model object type whose changes were recorded at the {@link LuceneIndex}
+ * changes journal BUT were NOT commited: the model object is loaded through the CRUD services and the
+ * document is created by the indexer just like when the model object was indexed
+ * (see {@link LuceneIndexerBase#replayRecoveredChangesLoadingFrom(UserContext, CRUDServicesForModelObject)})
+ *
+ * The id term text is the oid (or [oid]_[version] if the model object is versionable, see {@link LuceneIndexerBase})
+ * @param <O>
+ * @param <M>
+ */
+@Slf4j
+public class LuceneIndexRecoveredChangesReplayerForModelObject<O extends OID,M extends IndexableModelObject>
+  implements LuceneIndexRecoveredChangesReplayer {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final UserContext _userContext;
+	private final LuceneIndexerBase<M> _indexer;
+	private final CRUDServicesForModelObject<O,? extends M> _crudServices;
+	private final Class<O> _oidType;
+	private final boolean _versionable;
+	private final String _docIdFieldName;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	@SuppressWarnings("unchecked")
+	public LuceneIndexRecoveredChangesReplayerForModelObject(final UserContext userContext,
+															 final LuceneIndexerBase<M> indexer,
+															 final CRUDServicesForModelObject<O,? extends M> crudServices) {
+		_userContext = userContext;
+		_indexer = indexer;
+		_crudServices = crudServices;
+		_oidType = (Class<O>)indexer.getModelObjectMetaData().getOIDFieldMetaData().getDataType();
+		_versionable = indexer.getModelObjectMetaData().hasFacet(HasVersionableFacet.class);
+		_docIdFieldName = indexer.getModelObjectMetaData().getDocumentIDFieldMetaData().getIndexableFieldId().asString();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  LuceneIndexRecoveredChangesReplayer
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public Document documentFor(final Term idTerm) {
+		if (!_docIdFieldName.equals(idTerm.field())) return null;
+		O oid = _oidFrom(idTerm.text());
+		if (oid == null) return null;
+
+		CRUDResult<? extends M> loadResult = _crudServices.load(_userContext,
+														   		oid);
+		if (loadResult.hasSucceeded()) {
+			log.debug("Replaying the lucene index change of {} with oid={}",_indexer.getModelObjectType(),oid);
+			return _indexer.createLuceneDocumentFor(_userContext,
+													loadResult.getOrThrow());
+		}
+		// the model object does NOT exists (it's another model object type's oid or it was deleted)...
+		// any other error is thrown: in both cases the change is kept by the index to be replayed again
+		if (loadResult.asCRUDError().wasBecauseClientRequestedEntityWasNOTFound()) return null;
+		throw new IllegalStateException(Throwables.message("Could NOT load the {} with oid={} to replay its lucene index change: {}",
+														   _indexer.getModelObjectType(),oid,loadResult.asCRUDError().getErrorMessage()));
+	}
+	private O _oidFrom(final String id) {
+		if (!_versionable) return OIDs.createOIDFromString(_oidType,
+														   id);
+		int sepPos = id.lastIndexOf('_');
+		if (sepPos <= 0 || sepPos == id.length() - 1) return null;
+		return OIDs.createVersionableOIDFromString(_oidType,
+												   id.substring(0,sepPos),id.substring(sepPos + 1));
+	}
+}
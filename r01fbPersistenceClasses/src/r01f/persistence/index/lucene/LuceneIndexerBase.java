@@ -3,7 +3,10 @@ package r01f.persistence.index.lucene;
 import java.io.Reader;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import javax.inject.Provider;
 
@@ -29,6 +32,8 @@ import r01f.model.facets.Versionable.HasVersionableFacet;
 import r01f.model.metadata.FieldMetaData;
 import r01f.model.metadata.IndexableFieldID;
 import r01f.persistence.PersistenceRequestedOperation;
+import r01f.persistence.index.IndexBatchResult;
+import r01f.persistence.index.IndexBatchResult.IndexBatchOperation;
 import r01f.persistence.index.IndexableFieldValuesExtractor;
 import r01f.persistence.index.IndexerBase;
 import r01f.persistence.index.document.IndexDocumentFieldConfigSet;
@@ -36,7 +41,9 @@ import r01f.persistence.index.document.IndexDocumentFieldID;
 import r01f.persistence.index.document.IndexDocumentFieldValue;
 import r01f.persistence.index.document.IndexDocumentFieldValueSet;
 import r01f.persistence.index.document.IndexDocumentStandardFieldType;
+import r01f.persistence.lucene.LuceneFacetField;
 import r01f.persistence.lucene.LuceneIndex;
+import r01f.services.interfaces.CRUDServicesForModelObject;
 import r01f.types.CanBeRepresentedAsString;
 import r01f.types.IsPath;
 import r01f.types.Range;
@@ -49,6 +56,10 @@ import r01f.util.types.Dates;
 import r01f.util.types.Strings;
 import r01f.util.types.collections.CollectionUtils;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
 /**
  * Base Lucene indexer that encapsulates the logic described at {@link LuceneDocumentFactoryForIndexableModelObject} to create a lucene's {@link Document}
  * from a model object
@@ -69,6 +80,19 @@ public abstract class LuceneIndexerBase<P extends IndexableModelObject>
 	 * Lucene index to search against
 	 */
 	@Getter(AccessLevel.PROTECTED) private final LuceneIndex _luceneIndex;
+	/**
+	 * Pool where the lucene documents of a batch are built in parallel
+	 * (it's shared by all the indexers and it's bounded to the number of available processors)
+	 */
+	private static final ForkJoinPool BATCH_DOC_BUILDER_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+	/**
+	 * Below this number of model objects the batch documents are built in the calling thread
+	 */
+	private static final int BATCH_DOC_BUILDER_THRESHOLD = 16;
+	/**
+	 * The faceted fields of the model object (their values are also indexed as doc values)
+	 */
+	private final Map<String,LuceneFacetField> _facetFields;
 
 /////////////////////////////////////////////////////////////////////////////////////////
 //  
@@ -90,6 +114,7 @@ public abstract class LuceneIndexerBase<P extends IndexableModelObject>
 			  indexableFieldValuesExtractorProvider);
 		_fieldsConfigSet = fieldsConfigSet;			
 		_luceneIndex = luceneIndex;																						// indexes documents with fields
+		_facetFields = LuceneFacetField.facetFieldsOf(this.getModelObjectMetaData());
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //	INDEX METHODS
@@ -102,7 +127,10 @@ public abstract class LuceneIndexerBase<P extends IndexableModelObject>
 												modelObject,
 												PersistenceRequestedOperation.CREATE);	// new record
 		// Index in Lucene
-		_luceneIndex.index(doc);
+		IndexableFieldID docIdFieldId = modelObject.getModelObjectMetaData().getDocumentIDFieldMetaData().getIndexableFieldId();
+		_luceneIndex.index(new Term(docIdFieldId.asString(),
+									_luceneIdFieldValueFrom(modelObject)),
+						   doc);
 	}
 	@Override
 	public void updateIndex(final UserContext userContext,
@@ -132,6 +160,177 @@ public abstract class LuceneIndexerBase<P extends IndexableModelObject>
 							 oid);
 		}
 	}
+	/**
+	 * Commits all the changes pending to be commited to the lucene index
+	 * (it only makes sense if the {@link LuceneIndex} is NOT configured to commit after every change:
+	 *  see {@link r01f.persistence.lucene.LuceneIndexCommitPolicy})
+	 */
+	public void flush() {
+		_luceneIndex.flush();
+	}
+	/**
+	 * Registers at the lucene index a replayer that re-creates the documents of this indexer's model object
+	 * type whose changes were recorded at the changes journal BUT NOT commited by a previous process that crashed
+	 * (the model objects are loaded using the given CRUD services) and replays them at once (see {@link LuceneIndex#open()})
+	 * The changes of other model object types sharing the index are kept until their indexer registers its replayer
+	 * (this is done by the services bootstrap when the indexer is created)
+	 * @param userContext
+	 * @param crudServices
+	 */
+	public <O extends OID> void replayRecoveredChangesLoadingFrom(final UserContext userContext,
+																  final CRUDServicesForModelObject<O,? extends P> crudServices) {
+		_luceneIndex.addRecoveredChangesReplayer(new LuceneIndexRecoveredChangesReplayerForModelObject<O,P>(userContext,
+																											 this,
+																											 crudServices));
+		_luceneIndex.open();
+	}
+	/**
+	 * Creates the lucene document of a model object
+	 * (used to replay the recovered changes, see {@link LuceneIndexRecoveredChangesReplayerForModelObject})
+	 * @param userContext
+	 * @param modelObject
+	 * @return
+	 */
+	Document createLuceneDocumentFor(final UserContext userContext,
+									 final P modelObject) {
+		return _createLuceneDocumentFor(userContext,
+										modelObject,
+										PersistenceRequestedOperation.UPDATE);	// the document could have been commited or not
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//	BATCH INDEX METHODS
+//	The lucene documents are built in parallel and then handed to the index
+//	that commits them all at once
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public IndexBatchResult indexBatch(final UserContext userContext,
+									   final Collection<P> modelObjects) {
+		Stopwatch stopWatch = Stopwatch.createStarted();
+		Map<Term,Document> docs = _createLuceneDocumentsFor(userContext,
+															modelObjects,
+															PersistenceRequestedOperation.CREATE);	// new records
+		int indexed = _luceneIndex.indexBatch(docs);
+		return _batchResult(IndexBatchOperation.INDEX,
+							modelObjects,indexed,
+							stopWatch);
+	}
+	@Override
+	public IndexBatchResult updateIndexBatch(final UserContext userContext,
+											 final Collection<P> modelObjects) {
+		Stopwatch stopWatch = Stopwatch.createStarted();
+		Map<Term,Document> docs = _createLuceneDocumentsFor(userContext,
+															modelObjects,
+															PersistenceRequestedOperation.UPDATE);	// update existing records
+		int reIndexed = _luceneIndex.reIndexBatch(docs);
+		return _batchResult(IndexBatchOperation.UPDATE_INDEX,
+							modelObjects,reIndexed,
+							stopWatch);
+	}
+	@Override
+	public IndexBatchResult removeFromIndexBatch(final UserContext userContext,
+												 final Collection<? extends OID> oids) {
+		Stopwatch stopWatch = Stopwatch.createStarted();
+		IndexableFieldID docIdFieldId = this.getModelObjectMetaData().getDocumentIDFieldMetaData().getIndexableFieldId();
+		boolean versionable = this.getModelObjectMetaData().hasFacet(HasVersionableFacet.class);
+		Collection<Term> idTerms = Lists.newArrayListWithExpectedSize(oids != null ? oids.size() : 0);
+		if (CollectionUtils.hasData(oids)) {
+			for (OID oid : oids) {
+				if (versionable) {
+					if (!(oid instanceof OIDForVersionableModelObject)) throw new UnsupportedOperationException(Throwables.message("The model object {} is a versionable object, BUT it's oid type does NOT implements {}",
+																				   												   this.getModelObjectType(),OIDForVersionableModelObject.class));
+					OIDForVersionableModelObject versionableOid = (OIDForVersionableModelObject)oid;
+					idTerms.add(new Term(docIdFieldId.asString(),
+										 _idFor(versionableOid.getOid(),versionableOid.getVersion())));
+				} else {
+					idTerms.add(new Term(docIdFieldId.asString(),
+										 _idFor(oid)));
+				}
+			}
+		}
+		int unIndexed = _luceneIndex.unIndexBatch(idTerms);
+		return _batchResult(IndexBatchOperation.UNINDEX,
+							oids,unIndexed,
+							stopWatch);
+	}
+	/**
+	 * Creates the lucene documents for a batch of model objects
+	 * (the documents are built in parallel at a fork-join pool)
+	 * @param userContext
+	 * @param modelObjects
+	 * @param reqOp
+	 * @return the documents indexed by the id term; the model objects whose document could NOT be built are NOT included
+	 */
+	private Map<Term,Document> _createLuceneDocumentsFor(final UserContext userContext,
+														 final Collection<P> modelObjects,
+														 final PersistenceRequestedOperation reqOp) {
+		if (CollectionUtils.isNullOrEmpty(modelObjects)) return Maps.newLinkedHashMap();
+		List<P> modelObjectList = modelObjects instanceof List ? (List<P>)modelObjects
+															   : Lists.newArrayList(modelObjects);
+		return BATCH_DOC_BUILDER_POOL.invoke(new LuceneDocumentsBuilderTask(userContext,
+																			modelObjectList,0,modelObjectList.size(),
+																			reqOp));
+	}
+	/**
+	 * Builds the lucene documents of a range of the batch model objects, splitting the range
+	 * in two halves until it's small enough
+	 */
+	private class LuceneDocumentsBuilderTask
+		  extends RecursiveTask<Map<Term,Document>> {
+		
+		private static final long serialVersionUID = -2870389497004557441L;
+		
+		private final UserContext _userContext;
+		private final List<P> _modelObjects;
+		private final int _from;
+		private final int _to;
+		private final PersistenceRequestedOperation _reqOp;
+		
+		LuceneDocumentsBuilderTask(final UserContext userContext,
+								   final List<P> modelObjects,final int from,final int to,
+								   final PersistenceRequestedOperation reqOp) {
+			_userContext = userContext;
+			_modelObjects = modelObjects;
+			_from = from;
+			_to = to;
+			_reqOp = reqOp;
+		}
+		@Override
+		protected Map<Term,Document> compute() {
+			// [1] - Small range: build the documents
+			if (_to - _from <= BATCH_DOC_BUILDER_THRESHOLD) {
+				Map<Term,Document> outDocs = Maps.newLinkedHashMap();
+				for (P modelObject : _modelObjects.subList(_from,_to)) {
+					try {
+						IndexableFieldID docIdFieldId = modelObject.getModelObjectMetaData().getDocumentIDFieldMetaData().getIndexableFieldId();
+						Term idTerm = new Term(docIdFieldId.asString(),
+											   _luceneIdFieldValueFrom(modelObject));
+						outDocs.put(idTerm,
+									_createLuceneDocumentFor(_userContext,
+															 modelObject,
+															 _reqOp));
+					} catch(Throwable th) {
+						log.error("Error building the lucene document of a {} model object: {}",
+								  LuceneIndexerBase.this.getModelObjectType(),th.getMessage(),
+								  th);
+					}
+				}
+				return outDocs;
+			}
+			// [2] - Split the range (the docs order is preserved)
+			int middle = (_from + _to) >>> 1;
+			LuceneDocumentsBuilderTask left = new LuceneDocumentsBuilderTask(_userContext,
+																			 _modelObjects,_from,middle,
+																			 _reqOp);
+			LuceneDocumentsBuilderTask right = new LuceneDocumentsBuilderTask(_userContext,
+																			  _modelObjects,middle,_to,
+																			  _reqOp);
+			left.fork();
+			Map<Term,Document> rightDocs = right.compute();
+			Map<Term,Document> outDocs = left.join();
+			outDocs.putAll(rightDocs);
+			return outDocs;
+		}
+	}
 	@SuppressWarnings("unused") 
 	private void _removeFromIndex(final UserContext userContext,
 								  final OID oid) {
@@ -199,7 +398,13 @@ public abstract class LuceneIndexerBase<P extends IndexableModelObject>
 		}
 		// [5] - Create the Document using a factory that uses a
 		//		 LuceneFieldConfig template
-		return docFactory.createDocument();
+		Document outDoc = docFactory.createDocument();
+		
+		// [6] - Add the faceted fields doc values (used to count the search results by the field values)
+		for (LuceneFacetField facetField : _facetFields.values()) {
+			facetField.addDocValuesTo(outDoc);
+		}
+		return outDoc;
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  ID FIELD VALUE
@@ -20,8 +20,11 @@ import r01f.inject.HasMoreBindings;
 import r01f.persistence.index.IndexManager;
 import r01f.persistence.index.lucene.LuceneIndexManager;
 import r01f.persistence.lucene.LuceneIndex;
+import r01f.persistence.lucene.LuceneIndexCommitPolicy;
 import r01f.persistence.search.lucene.LuceneLanguageDependentAnalyzer;
 import r01f.services.core.internal.ServicesCoreBootstrapGuiceModule;
+import r01f.types.Path;
+import r01f.types.TimeLapse;
 import r01f.util.types.Strings;
 
 /**
@@ -82,6 +85,8 @@ public abstract class LuceneSearchGuiceModuleBase
 		// ... Lucene Index
 		binder.bind(LuceneIndex.class)
 			  .in(Singleton.class);
+		binder.bind(LuceneIndexCommitPolicy.class)
+			  .toInstance(_luceneIndexCommitPolicy());
 		if (!LUCENE_ANALYZER_BINDED) {
 			binder.bind(Analyzer.class)
 				  .toInstance(new LuceneLanguageDependentAnalyzer(_indexDocumentTypes(_searchComponents)));		// singleton binding...
@@ -114,6 +119,41 @@ public abstract class LuceneSearchGuiceModuleBase
 								    				 .asString());
 		return indexFilesPath;
 	}
+	/**
+	 * The lucene index commit policy is configured at the properties file as:
+	 * <pre class='brush:xml'>
+	 * 		<lucene>
+	 * 			<commitPolicy everyNumberOfChanges='500' every='5s'>
+	 * 				<journal>d:/temp_dev/r01/lucene_journal/changes.journal</journal>
+	 * 			</commitPolicy>
+	 * 		</lucene>
+	 * </pre>
+	 * If NO commit policy is configured the index is commited after every change
+	 * If the commit policy is journaled, the changes NOT commited by a crashed process are replayed when the 
+	 * index is opened (see {@link LuceneIndex#open()}): when an indexer is created, the services bootstrap registers a replayer
+	 * for its model object type (see {@link r01f.persistence.index.lucene.LuceneIndexerBase#replayRecoveredChangesLoadingFrom})
+	 * @return
+	 */
+	private LuceneIndexCommitPolicy _luceneIndexCommitPolicy() {
+		int everyNumberOfChanges = this.propertyAt("persistence/search/lucene/commitPolicy/@everyNumberOfChanges")
+									   .asInteger(0);
+		TimeLapse every = this.propertyAt("persistence/search/lucene/commitPolicy/@every")
+							  .asTimeLapse();
+		String journal = this.propertyAt("persistence/search/lucene/commitPolicy/journal")
+							 .asString();
+		
+		LuceneIndexCommitPolicy outPolicy = null;
+		if (everyNumberOfChanges <= 0 && every == null) {
+			outPolicy = LuceneIndexCommitPolicy.commitOnEveryChange();
+		} else {
+			outPolicy = everyNumberOfChanges > 0 ? LuceneIndexCommitPolicy.commitEveryNumberOfChanges(everyNumberOfChanges)
+												 : LuceneIndexCommitPolicy.commitOnFlush();
+			if (every != null) outPolicy = outPolicy.orEvery(every);
+			if (Strings.isNOTNullOrEmpty(journal)) outPolicy = outPolicy.journaledAt(Path.from(journal));
+		}
+		log.info("Lucene index commit policy: {}",outPolicy);
+		return outPolicy;
+	}
 	private static Directory _createLuceneDirectory(final String indexFilesPath) {
 		try {
 			// Ensure the dir exists
@@ -4,12 +4,15 @@ import java.util.concurrent.ExecutorService;
 
 import javax.inject.Inject;
 
-import com.google.common.eventbus.AsyncEventBus;
 import com.google.common.eventbus.EventBus;
 
 import r01f.concurrent.ExecutorServiceManager;
 import r01f.types.ExecutionMode;
 
+/**
+ * Provides an asynchronous {@link EventBus} whose events handling metrics are available through JMX
+ * (see {@link InstrumentedAsyncEventBus} and {@link EventBusMetricsMXBean})
+ */
 public class AsyncEventBusProvider 
 	 extends EventBusProviderBase {
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -43,8 +46,18 @@ public class AsyncEventBusProvider
 	@Override
 	protected EventBus _createEventBusInstance() {
 		ExecutorService execService = _executorServiceManager.getExecutorService();
-		_eventBusInstance = new AsyncEventBus("R01 ASYNC EventBus",
-								 		  	  execService);
+		InstrumentedAsyncEventBus eventBus = new InstrumentedAsyncEventBus("R01 ASYNC EventBus",
+								 		  	  							   execService);
+		final EventBusMetrics metrics = eventBus.getMetrics();
+		metrics.registerMBean(eventBus.identifier());
+		// the metrics are unregistered from jmx when the executor is stopped (ie when the servlet context is destroyed)
+		_executorServiceManager.addStopTask(new Runnable() {
+													@Override
+													public void run() {
+														metrics.unregisterMBean();
+													}
+											});
+		_eventBusInstance = eventBus;
 		return _eventBusInstance;
 	}
 }
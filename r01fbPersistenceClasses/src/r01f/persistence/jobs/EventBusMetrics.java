@@ -0,0 +1,268 @@
+package r01f.persistence.jobs;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import r01f.concurrent.InstrumentedThreadPoolExecutor;
+import r01f.debug.Debuggable;
+import r01f.util.types.Strings;
+
+/**
+ * Metrics of an {@link InstrumentedAsyncEventBus}:
+ * <ul>
+ * 		<li>The executor saturation: queue depth, events handled at the posting thread, blocked posts and dropped events</li>
+ * 		<li>By event type: posted, queued, running, completed and dropped events, the dispatch latency
+ * 			(from the post to the start of the handling) and the handlers time</li>
+ * </ul>
+ * The metrics can be read through JMX (see {@link EventBusMetricsMXBean})
+ */
+@Slf4j
+public class EventBusMetrics
+  implements EventBusMetricsMXBean,
+  			 Debuggable {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The events executor (null if it's not an instrumented one)
+	 */
+	private final InstrumentedThreadPoolExecutor _executor;
+	/**
+	 * The metrics by event type
+	 */
+	private final ConcurrentMap<Class<?>,EventTypeStats> _statsByEventType = new ConcurrentHashMap<Class<?>,EventTypeStats>();
+	/**
+	 * The name the metrics are registered with at the platform MBean server (null if they're NOT registered)
+	 */
+	private volatile ObjectName _objectName;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	EventBusMetrics(final InstrumentedThreadPoolExecutor executor) {
+		_executor = executor;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  RECORDING
+/////////////////////////////////////////////////////////////////////////////////////////
+	EventTypeStats statsFor(final Class<?> eventType) {
+		EventTypeStats outStats = _statsByEventType.get(eventType);
+		if (outStats == null) {
+			EventTypeStats newStats = new EventTypeStats();
+			outStats = _statsByEventType.putIfAbsent(eventType,newStats);
+			if (outStats == null) outStats = newStats;
+		}
+		return outStats;
+	}
+	/**
+	 * The counters of an event type
+	 */
+	static class EventTypeStats {
+		private final AtomicLong _posted = new AtomicLong(0);
+		private final AtomicLong _started = new AtomicLong(0);
+		private final AtomicLong _completed = new AtomicLong(0);
+		private final AtomicLong _dropped = new AtomicLong(0);
+		private final AtomicLong _dispatchNanos = new AtomicLong(0);
+		private final AtomicLong _maxDispatchNanos = new AtomicLong(0);
+		private final AtomicLong _handlerNanos = new AtomicLong(0);
+		private final AtomicLong _maxHandlerNanos = new AtomicLong(0);
+
+		void posted() {
+			_posted.incrementAndGet();
+		}
+		void started(final long dispatchNanos) {
+			_started.incrementAndGet();
+			_dispatchNanos.addAndGet(dispatchNanos);
+			_max(_maxDispatchNanos,dispatchNanos);
+		}
+		void completed(final long handlerNanos) {
+			_completed.incrementAndGet();
+			_handlerNanos.addAndGet(handlerNanos);
+			_max(_maxHandlerNanos,handlerNanos);
+		}
+		void dropped() {
+			_dropped.incrementAndGet();
+		}
+		void reset() {
+			// the in-flight events are kept so the queued / running counts stay right
+			long queued = _posted.get() - _started.get() - _dropped.get();
+			long running = _started.get() - _completed.get();
+			_posted.set(queued + running);
+			_started.set(running);
+			_completed.set(0);
+			_dropped.set(0);
+			_dispatchNanos.set(0);
+			_maxDispatchNanos.set(0);
+			_handlerNanos.set(0);
+			_maxHandlerNanos.set(0);
+		}
+		private static void _max(final AtomicLong max,final long value) {
+			long current = max.get();
+			while (value > current && !max.compareAndSet(current,value)) {
+				current = max.get();
+			}
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  EventBusMetricsMXBean
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public int getQueueDepth() {
+		return _executor != null ? _executor.getQueueDepth() : -1;
+	}
+	@Override
+	public int getQueueCapacity() {
+		return _executor != null && _executor.isBounded() ? _executor.getQueueCapacity() : -1;
+	}
+	@Override
+	public String getSaturationPolicy() {
+		return _executor != null && _executor.isBounded() ? _executor.getSaturationPolicy().name() : null;
+	}
+	@Override
+	public int getActiveThreads() {
+		return _executor != null ? _executor.getActiveCount() : -1;
+	}
+	@Override
+	public long getCallerRunEvents() {
+		return _executor != null ? _executor.getCallerRunCount() : 0;
+	}
+	@Override
+	public long getBlockedPosts() {
+		return _executor != null ? _executor.getBlockedCount() : 0;
+	}
+	@Override
+	public long getDroppedEvents() {
+		return _executor != null ? _executor.getDroppedCount() : 0;
+	}
+	@Override
+	public Map<String,EventTypeMetrics> getEventTypeMetrics() {
+		Map<String,EventTypeMetrics> outMetrics = new TreeMap<String,EventTypeMetrics>();
+		for (Map.Entry<Class<?>,EventTypeStats> me : _statsByEventType.entrySet()) {
+			outMetrics.put(me.getKey().getName(),
+						   new EventTypeMetrics(me.getKey().getName(),me.getValue()));
+		}
+		return outMetrics;
+	}
+	@Override
+	public void reset() {
+		for (EventTypeStats stats : _statsByEventType.values()) stats.reset();
+	}
+	/**
+	 * A snapshot of an event type metrics
+	 */
+	@Accessors(prefix="_")
+	public static class EventTypeMetrics {
+		@Getter private final String _eventType;
+		@Getter private final long _posted;
+		@Getter private final long _queued;
+		@Getter private final long _running;
+		@Getter private final long _completed;
+		@Getter private final long _dropped;
+		@Getter private final double _meanDispatchMillis;
+		@Getter private final double _maxDispatchMillis;
+		@Getter private final double _meanHandlerMillis;
+		@Getter private final double _maxHandlerMillis;
+
+		EventTypeMetrics(final String eventType,
+						 final EventTypeStats stats) {
+			long started = stats._started.get();
+			_eventType = eventType;
+			_posted = stats._posted.get();
+			_completed = stats._completed.get();
+			_dropped = stats._dropped.get();
+			_queued = Math.max(0,_posted - started - _dropped);
+			_running = Math.max(0,started - _completed);
+			_meanDispatchMillis = started > 0 ? _millis(stats._dispatchNanos.get()) / started : 0D;
+			_maxDispatchMillis = _millis(stats._maxDispatchNanos.get());
+			_meanHandlerMillis = _completed > 0 ? _millis(stats._handlerNanos.get()) / _completed : 0D;
+			_maxHandlerMillis = _millis(stats._maxHandlerNanos.get());
+		}
+		private static double _millis(final long nanos) {
+			return nanos / 1000000D;
+		}
+		@Override
+		public String toString() {
+			return Strings.of("{}: {} posted / {} queued / {} running / {} completed / {} dropped; dispatch latency mean {} max {} millis; handlers time mean {} max {} millis")
+						  .customizeWith(_eventType,
+								  		 _posted,_queued,_running,_completed,_dropped,
+								  		 String.format("%.2f",_meanDispatchMillis),String.format("%.2f",_maxDispatchMillis),
+								  		 String.format("%.2f",_meanHandlerMillis),String.format("%.2f",_maxHandlerMillis))
+						  .asString();
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  JMX
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Registers the metrics at the platform MBean server as r01f.events:type=AsyncEventBus,name={eventBusId}
+	 * (if the name is already used, ie another app at the same jvm, a sequence is appended)
+	 * BEWARE! the metrics MUST be unregistered when the event bus is no longer used (see {@link #unregisterMBean()})
+	 * otherwise the MBean server keeps a reference to them (and to the app classloader)
+	 * @param eventBusId
+	 * @return the name the metrics were registered with (null if they could NOT be registered)
+	 */
+	ObjectName registerMBean(final String eventBusId) {
+		MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+		for (int seq = 0; seq < 100; seq++) {
+			try {
+				String name = seq == 0 ? eventBusId : eventBusId + " (" + seq + ")";
+				ObjectName objName = new ObjectName("r01f.events:type=AsyncEventBus,name=" + ObjectName.quote(name));
+				mbeanServer.registerMBean(this,objName);
+				_objectName = objName;
+				log.info("The {} event bus metrics are available through JMX at {}",
+						 eventBusId,objName);
+				return objName;
+			} catch (InstanceAlreadyExistsException alreadyEx) {
+				continue;
+			} catch (JMException jmxEx) {
+				log.warn("Could NOT register the {} event bus metrics at JMX: {}",
+						 eventBusId,jmxEx.getMessage());
+				return null;
+			}
+		}
+		return null;
+	}
+	/**
+	 * Unregisters the metrics from the platform MBean server (if they were registered)
+	 */
+	void unregisterMBean() {
+		ObjectName objName = _objectName;
+		if (objName == null) return;
+		_objectName = null;
+		try {
+			ManagementFactory.getPlatformMBeanServer()
+							 .unregisterMBean(objName);
+			log.info("The event bus metrics at {} were unregistered from JMX",
+					 objName);
+		} catch (InstanceNotFoundException notFoundEx) {
+			/* already unregistered */
+		} catch (JMException jmxEx) {
+			log.warn("Could NOT unregister the event bus metrics at {} from JMX: {}",
+					 objName,jmxEx.getMessage());
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  Debuggable
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public CharSequence debugInfo() {
+		StringBuilder dbg = new StringBuilder();
+		dbg.append(_executor != null ? _executor.debugInfo() : "Not instrumented executor");
+		for (EventTypeMetrics metrics : this.getEventTypeMetrics().values()) {
+			dbg.append("\n\t").append(metrics);
+		}
+		return dbg;
+	}
+}
@@ -0,0 +1,48 @@
+package r01f.persistence.jobs;
+
+import java.util.Map;
+
+import r01f.persistence.jobs.EventBusMetrics.EventTypeMetrics;
+
+/**
+ * JMX view of the {@link InstrumentedAsyncEventBus} metrics (see {@link EventBusMetrics})
+ * The bean is registered as r01f.events:type=AsyncEventBus,name={event bus id}
+ */
+public interface EventBusMetricsMXBean {
+	/**
+	 * @return the number of events waiting at the executor queue
+	 */
+	public int getQueueDepth();
+	/**
+	 * @return the executor queue capacity (-1 if it's unbounded)
+	 */
+	public int getQueueCapacity();
+	/**
+	 * @return what's done with an event when the executor queue is full
+	 */
+	public String getSaturationPolicy();
+	/**
+	 * @return the number of threads handling events
+	 */
+	public int getActiveThreads();
+	/**
+	 * @return the number of events handled at the posting thread because the queue was full
+	 */
+	public long getCallerRunEvents();
+	/**
+	 * @return the number of times a posting thread waited because the queue was full
+	 */
+	public long getBlockedPosts();
+	/**
+	 * @return the number of events discarded
+	 */
+	public long getDroppedEvents();
+	/**
+	 * @return the metrics by event type name
+	 */
+	public Map<String,EventTypeMetrics> getEventTypeMetrics();
+	/**
+	 * Resets the event types metrics
+	 */
+	public void reset();
+}
@@ -5,6 +5,7 @@ import java.util.concurrent.ExecutorService;
 import com.google.inject.Provider;
 
 import r01f.concurrent.DaemonExecutorServiceLifeCycleManager;
+import r01f.concurrent.ExecutorSaturationPolicy;
 import r01f.concurrent.ExecutorServiceManager;
 
 /**
@@ -17,9 +18,18 @@ public class ExecutorServiceManagerProvider
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
 	private final int _numberOfBackgroundThreads;
+	private final int _queueCapacity;						// <= 0 if the queue is unbounded
+	private final ExecutorSaturationPolicy _saturationPolicy;	// what's done with a job when the queue is full
 	
 	public ExecutorServiceManagerProvider(final int numberOfBackgroundThreads) {
+		this(numberOfBackgroundThreads,
+			 -1,null);
+	}
+	public ExecutorServiceManagerProvider(final int numberOfBackgroundThreads,
+										  final int queueCapacity,final ExecutorSaturationPolicy saturationPolicy) {
 		_numberOfBackgroundThreads = numberOfBackgroundThreads;
+		_queueCapacity = queueCapacity;
+		_saturationPolicy = saturationPolicy;
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  
@@ -27,7 +37,8 @@ public class ExecutorServiceManagerProvider
 	@Override
 	public ExecutorServiceManager get() {
 		// Create a daemon executor service life cycle manager
-		ExecutorServiceManager execServiceManager = new DaemonExecutorServiceLifeCycleManager(_numberOfBackgroundThreads);
+		ExecutorServiceManager execServiceManager = new DaemonExecutorServiceLifeCycleManager(_numberOfBackgroundThreads,
+																							  _queueCapacity,_saturationPolicy);
 		execServiceManager.start();
 
 		return execServiceManager;
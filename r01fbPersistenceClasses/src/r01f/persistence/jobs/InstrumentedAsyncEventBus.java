@@ -0,0 +1,96 @@
+package r01f.persistence.jobs;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.google.common.eventbus.AsyncEventBus;
+import com.google.common.eventbus.EventBus;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import r01f.concurrent.InstrumentedThreadPoolExecutor;
+import r01f.concurrent.InstrumentedThreadPoolExecutor.DropAware;
+import r01f.persistence.jobs.EventBusMetrics.EventTypeStats;
+
+/**
+ * An asynchronous {@link EventBus} whose events handling can be watched (see {@link EventBusMetrics})
+ * Unlike the guava's {@link AsyncEventBus} (that submits a task for every subscriber) a single task is
+ * submitted to the executor for every posted event: the event subscribers are called one after another
+ * at the executor thread; this way the event type is known when the task is queued, started and completed
+ *
+ * If the executor is an {@link InstrumentedThreadPoolExecutor} with a bounded queue, when the queue is full:
+ * <ul>
+ * 		<li>CALLER_RUNS: the event is handled at the posting thread</li>
+ * 		<li>BLOCK: the posting thread waits for room at the queue
+ * 			(BEWARE! if the handlers post events themselves, all the executor threads could end up waiting)</li>
+ * 		<li>DROP: the event is discarded and counted</li>
+ * </ul>
+ */
+@Slf4j
+@Accessors(prefix="_")
+public class InstrumentedAsyncEventBus
+	 extends EventBus {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final ExecutorService _executor;
+	@Getter private final EventBusMetrics _metrics;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	public InstrumentedAsyncEventBus(final String identifier,
+									 final ExecutorService executor) {
+		super(identifier);
+		_executor = executor;
+		_metrics = new EventBusMetrics(executor instanceof InstrumentedThreadPoolExecutor ? (InstrumentedThreadPoolExecutor)executor
+																						  : null);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  POST
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public void post(final Object event) {
+		EventTypeStats stats = _metrics.statsFor(event.getClass());
+		stats.posted();
+		try {
+			_executor.execute(new EventDispatchTask(event,
+													stats,System.nanoTime()));
+		} catch (RejectedExecutionException rejEx) {
+			stats.dropped();
+			log.warn("The {} event could NOT be handled: {}",
+					 event.getClass().getSimpleName(),rejEx.getMessage());
+		}
+	}
+	/**
+	 * Dispatches an event to its subscribers at the executor thread
+	 */
+	private class EventDispatchTask
+	   implements Runnable,
+	   			  DropAware {
+		private final Object _event;
+		private final EventTypeStats _stats;
+		private final long _postNanos;
+
+		EventDispatchTask(final Object event,
+						  final EventTypeStats stats,final long postNanos) {
+			_event = event;
+			_stats = stats;
+			_postNanos = postNanos;
+		}
+		@Override
+		public void run() {
+			long startNanos = System.nanoTime();
+			_stats.started(startNanos - _postNanos);
+			try {
+				InstrumentedAsyncEventBus.super.post(_event);		// the subscribers are called at this thread
+			} finally {
+				_stats.completed(System.nanoTime() - startNanos);
+			}
+		}
+		@Override
+		public void onDropped() {
+			_stats.dropped();
+		}
+	}
+}
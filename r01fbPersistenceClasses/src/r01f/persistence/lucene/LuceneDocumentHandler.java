@@ -0,0 +1,16 @@
+package r01f.persistence.lucene;
+
+import org.apache.lucene.document.Document;
+
+/**
+ * Handles every {@link Document} of a streamed search (see {@link LuceneIndex#searchAll(org.apache.lucene.search.Query,java.util.Set,LuceneStoredFieldsSelector,LuceneDocumentHandler)})
+ * The documents are handed one by one as they're read from the index so they're NOT kept in memory
+ */
+public interface LuceneDocumentHandler {
+	/**
+	 * Handles a document
+	 * (if an exception is thrown the search is aborted)
+	 * @param doc
+	 */
+	public void handle(final Document doc);
+}
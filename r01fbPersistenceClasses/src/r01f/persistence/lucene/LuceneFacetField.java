@@ -0,0 +1,165 @@
+package r01f.persistence.lucene;
+
+import java.util.Collection;
+import java.util.Map;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.util.BytesRef;
+
+import r01f.model.metadata.FieldMetaData;
+import r01f.model.metadata.ModelObjectTypeMetaData;
+import r01f.persistence.index.document.IndexDocumentStandardFieldType;
+import r01f.util.types.collections.CollectionUtils;
+
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Doubles;
+
+/**
+ * A faceted field: the search results are counted by the values (or ranges of values) of the field
+ * (see {@link r01f.model.metadata.FieldMetaDataSearchEngineIndexingConfig#isFaceted()})
+ * The field values are indexed as doc values (see {@link #addDocValuesTo(Document)}) at a field named 
+ * {fieldId}$facet so the counts are computed by the {@link LuceneFacetsCollector} in the same pass as the search
+ * (a separate field is used so the sorting by the indexed field is NOT affected)
+ * <ul>
+ * 		<li>String (or enum) fields: a sorted-set doc value per field value (multiple values are allowed)</li>
+ * 		<li>Numeric, boolean and date fields: a numeric doc value (only a single value is allowed)</li>
+ * </ul>
+ * Multi-dimensional fields (ie: language dependent fields) cannot be faceted
+ */
+@Slf4j
+@Accessors(prefix="_")
+@RequiredArgsConstructor(access=AccessLevel.PRIVATE)
+public class LuceneFacetField {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final String FACET_FIELD_SUFFIX = "$facet";
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static enum LuceneFacetFieldValueType {
+		STRING,
+		LONG,		// int, long, boolean & date fields
+		DOUBLE;		// float & double fields (encoded as the raw long bits)
+	}
+	/**
+	 * The indexed field id
+	 */
+	@Getter private final String _fieldId;
+	/**
+	 * The doc values type
+	 */
+	@Getter private final LuceneFacetFieldValueType _valueType;
+	/**
+	 * The ranges bounds (null if counted by value)
+	 */
+	@Getter private final double[] _rangeBounds;
+	
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BUILDERS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the faceted field for a field metadata 
+	 * @param fieldMetaData
+	 * @return the faceted field or null if the field is NOT faceted or it cannot be faceted
+	 */
+	public static LuceneFacetField of(final FieldMetaData fieldMetaData) {
+		if (fieldMetaData.getSearchEngineIndexingConfig() == null
+		 || !fieldMetaData.getSearchEngineIndexingConfig().isFaceted()) return null;
+		if (fieldMetaData.hasMultipleDimensions()) {
+			log.warn("The field {} is configured as faceted but it has multiple dimensions: it's NOT faceted",fieldMetaData.getIndexableFieldId());
+			return null;
+		}
+		IndexDocumentStandardFieldType fieldType = IndexDocumentStandardFieldType.fromFieldMetaDataConfig(fieldMetaData);
+		LuceneFacetFieldValueType valueType = null;
+		if (fieldType == IndexDocumentStandardFieldType.String) {
+			valueType = LuceneFacetFieldValueType.STRING;
+		} else if (fieldType == IndexDocumentStandardFieldType.Int || fieldType == IndexDocumentStandardFieldType.Long) {
+			valueType = LuceneFacetFieldValueType.LONG;
+		} else if (fieldType == IndexDocumentStandardFieldType.Float || fieldType == IndexDocumentStandardFieldType.Double) {
+			valueType = LuceneFacetFieldValueType.DOUBLE;
+		} else {
+			log.warn("The field {} is configured as faceted but it's indexed as {}: it's NOT faceted",fieldMetaData.getIndexableFieldId(),fieldType);
+			return null;
+		}
+		Collection<Double> bounds = fieldMetaData.getSearchEngineIndexingConfig().getFacetRangeBounds();
+		return new LuceneFacetField(fieldMetaData.getIndexableFieldId().asString(),
+									valueType,
+									CollectionUtils.hasData(bounds) && valueType != LuceneFacetFieldValueType.STRING ? Doubles.toArray(bounds) 
+																													 : null);
+	}
+	/**
+	 * Returns the faceted fields of a model object type
+	 * @param modelObjectMetaData
+	 * @return the faceted fields by field id (an empty map if there's no faceted field)
+	 */
+	public static Map<String,LuceneFacetField> facetFieldsOf(final ModelObjectTypeMetaData modelObjectMetaData) {
+		Map<String,LuceneFacetField> outFields = Maps.newLinkedHashMap();
+		if (CollectionUtils.isNullOrEmpty(modelObjectMetaData.getFieldsMetaData())) return outFields;
+		for (FieldMetaData fieldMetaData : modelObjectMetaData.getFieldsMetaData().values()) {
+			LuceneFacetField facetField = LuceneFacetField.of(fieldMetaData);
+			if (facetField != null) outFields.put(facetField.getFieldId(),facetField);
+		}
+		return outFields;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return the name of the doc values field
+	 */
+	public String getDocValuesFieldName() {
+		return _fieldId + FACET_FIELD_SUFFIX;
+	}
+	/**
+	 * @return true if the field is counted by ranges
+	 */
+	public boolean isCountedByRanges() {
+		return _rangeBounds != null;
+	}
+	/**
+	 * Adds the doc values of the field to a document already containing the indexed field
+	 * @param doc
+	 */
+	public void addDocValuesTo(final Document doc) {
+		IndexableField[] fields = doc.getFields(_fieldId);
+		if (fields == null || fields.length == 0) return;
+		if (_valueType == LuceneFacetFieldValueType.STRING) {
+			for (IndexableField field : fields) {
+				if (field.stringValue() == null) continue;
+				doc.add(new SortedSetDocValuesField(this.getDocValuesFieldName(),
+													new BytesRef(field.stringValue())));
+			}
+		} else {
+			if (fields.length > 1) {
+				log.warn("The faceted numeric field {} has {} values: only a value is allowed so it's NOT counted for this document",
+						 _fieldId,fields.length);
+				return;
+			}
+			Number value = fields[0].numericValue();
+			if (value == null) return;
+			long docValue = _valueType == LuceneFacetFieldValueType.DOUBLE ? Double.doubleToRawLongBits(value.doubleValue())
+																		   : value.longValue();
+			doc.add(new NumericDocValuesField(this.getDocValuesFieldName(),
+											  docValue));
+		}
+	}
+	/**
+	 * Decodes a numeric doc value
+	 * @param docValue
+	 * @return
+	 */
+	public double numericValueOf(final long docValue) {
+		return _valueType == LuceneFacetFieldValueType.DOUBLE ? Double.longBitsToDouble(docValue)
+															  : docValue;
+	}
+}
@@ -0,0 +1,268 @@
+package r01f.persistence.lucene;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.index.AtomicReader;
+import org.apache.lucene.index.AtomicReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+
+import r01f.model.search.SearchResultsFacet;
+import r01f.model.search.SearchResultsFacetCount;
+import r01f.persistence.lucene.LuceneFacetField.LuceneFacetFieldValueType;
+import r01f.util.types.collections.CollectionUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * A {@link Collector} that counts the matching docs by the doc values of the faceted fields (see {@link LuceneFacetField})
+ * It's used alongside with the top docs collector so the counts are computed in the same pass as the search
+ * (see {@link LuceneIndex#search(org.apache.lucene.search.Query,java.util.Set,int,int,LuceneFacetsCollector)})
+ * <pre class='brush:java'>
+ * 		LuceneFacetsCollector facets = LuceneFacetsCollector.of(facetFields);
+ * 		LucenePageResults page = luceneIndex.search(qry,sortFields,
+ * 													0,10,
+ * 													facets);
+ * 		Collection<SearchResultsFacet> counts = facets.getFacets();
+ * </pre>
+ * String values are counted by ordinal at every segment and the ordinals are resolved to the values 
+ * only once per segment
+ * BEWARE! the collector is NOT thread-safe: a collector must be created for every search
+ */
+public class LuceneFacetsCollector 
+     extends Collector {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Max number of values counted per field (the most frequent ones)
+	 */
+	public static final int DEFAULT_MAX_VALUES_PER_FIELD = 100;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final Collection<_FieldCounter> _counters;
+	private final int _maxValuesPerField;
+	
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR & BUILDER
+/////////////////////////////////////////////////////////////////////////////////////////
+	private LuceneFacetsCollector(final Collection<LuceneFacetField> facetFields,
+								  final int maxValuesPerField) {
+		_counters = Lists.newArrayListWithExpectedSize(facetFields.size());
+		for (LuceneFacetField facetField : facetFields) {
+			_counters.add(facetField.getValueType() == LuceneFacetFieldValueType.STRING ? new _StringFieldCounter(facetField)
+																						: new _NumericFieldCounter(facetField));
+		}
+		_maxValuesPerField = maxValuesPerField;
+	}
+	/**
+	 * @param facetFields
+	 * @return a collector of the given faceted fields or null if there's no faceted field 
+	 */
+	public static LuceneFacetsCollector of(final Collection<LuceneFacetField> facetFields) {
+		return LuceneFacetsCollector.of(facetFields,
+										DEFAULT_MAX_VALUES_PER_FIELD);
+	}
+	/**
+	 * @param facetFields
+	 * @param maxValuesPerField max number of values counted per field (the most frequent ones)
+	 * @return a collector of the given faceted fields or null if there's no faceted field 
+	 */
+	public static LuceneFacetsCollector of(final Collection<LuceneFacetField> facetFields,
+										   final int maxValuesPerField) {
+		return CollectionUtils.hasData(facetFields) ? new LuceneFacetsCollector(facetFields,maxValuesPerField)
+													: null;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  COLLECTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public void setScorer(final Scorer scorer) throws IOException {
+		// the score is not used
+	}
+	@Override
+	public void setNextReader(final AtomicReaderContext context) throws IOException {
+		for (_FieldCounter counter : _counters) counter.setNextReader(context.reader());
+	}
+	@Override
+	public void collect(final int doc) throws IOException {
+		for (_FieldCounter counter : _counters) counter.collect(doc);
+	}
+	@Override
+	public boolean acceptsDocsOutOfOrder() {
+		return true;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  RESULTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the counts once the search has been executed
+	 * @return
+	 */
+	public Collection<SearchResultsFacet> getFacets() {
+		Collection<SearchResultsFacet> outFacets = Lists.newArrayListWithExpectedSize(_counters.size());
+		for (_FieldCounter counter : _counters) {
+			outFacets.add(new SearchResultsFacet(counter.getFacetField().getFieldId(),
+												 counter.getCounts(_maxValuesPerField)));
+		}
+		return outFacets;
+	}
+	private static List<SearchResultsFacetCount> _mostFrequent(final Map<String,Integer> countsByValue,
+															   final int maxValues) {
+		List<SearchResultsFacetCount> outCounts = Lists.newArrayListWithExpectedSize(countsByValue.size());
+		for (Map.Entry<String,Integer> me : countsByValue.entrySet()) {
+			outCounts.add(SearchResultsFacetCount.forValue(me.getKey(),me.getValue()));
+		}
+		Collections.sort(outCounts,
+						 new Comparator<SearchResultsFacetCount>() {
+									@Override
+									public int compare(final SearchResultsFacetCount c1,final SearchResultsFacetCount c2) {
+										return c1.getCount() != c2.getCount() ? (c1.getCount() > c2.getCount() ? -1 : 1)
+																			  : c1.getValue().compareTo(c2.getValue());
+									}
+						 });
+		return outCounts.size() > maxValues ? Lists.newArrayList(outCounts.subList(0,maxValues))
+											: outCounts;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELD COUNTERS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static abstract class _FieldCounter {
+		private final LuceneFacetField _facetField;
+		
+		_FieldCounter(final LuceneFacetField facetField) {
+			_facetField = facetField;
+		}
+		LuceneFacetField getFacetField() {
+			return _facetField;
+		}
+		abstract void setNextReader(final AtomicReader reader) throws IOException;
+		abstract void collect(final int doc) throws IOException;
+		abstract Collection<SearchResultsFacetCount> getCounts(final int maxValues);
+	}
+	/**
+	 * Counts by ordinal the sorted-set doc values of the current segment
+	 */
+	private static class _StringFieldCounter 
+		         extends _FieldCounter {
+		private final Map<String,Integer> _countsByValue = Maps.newHashMap();
+		private SortedSetDocValues _segmentValues;
+		private int[] _segmentOrdCounts;
+		
+		_StringFieldCounter(final LuceneFacetField facetField) {
+			super(facetField);
+		}
+		@Override
+		void setNextReader(final AtomicReader reader) throws IOException {
+			_flushSegment();
+			_segmentValues = reader.getSortedSetDocValues(this.getFacetField().getDocValuesFieldName());
+			_segmentOrdCounts = _segmentValues != null ? new int[(int)_segmentValues.getValueCount()]
+													   : null;
+		}
+		@Override
+		void collect(final int doc) throws IOException {
+			if (_segmentValues == null) return;
+			_segmentValues.setDocument(doc);
+			for (long ord = _segmentValues.nextOrd(); ord != SortedSetDocValues.NO_MORE_ORDS; ord = _segmentValues.nextOrd()) {
+				_segmentOrdCounts[(int)ord]++;
+			}
+		}
+		@Override
+		Collection<SearchResultsFacetCount> getCounts(final int maxValues) {
+			_flushSegment();
+			return _mostFrequent(_countsByValue,maxValues);
+		}
+		private void _flushSegment() {
+			if (_segmentValues == null) return;
+			BytesRef value = new BytesRef();
+			for (int ord=0; ord < _segmentOrdCounts.length; ord++) {
+				if (_segmentOrdCounts[ord] == 0) continue;
+				_segmentValues.lookupOrd(ord,value);
+				String valueStr = value.utf8ToString();
+				Integer prevCount = _countsByValue.get(valueStr);
+				_countsByValue.put(valueStr,
+								   prevCount != null ? prevCount + _segmentOrdCounts[ord] : _segmentOrdCounts[ord]);
+			}
+			_segmentValues = null;
+			_segmentOrdCounts = null;
+		}
+	}
+	/**
+	 * Counts the numeric doc values by value or by range
+	 */
+	private static class _NumericFieldCounter 
+		         extends _FieldCounter {
+		private final double[] _bounds;
+		private final int[] _rangeCounts;
+		private final Map<Long,int[]> _countsByValue;
+		private NumericDocValues _segmentValues;
+		private Bits _segmentDocsWithValue;
+		
+		_NumericFieldCounter(final LuceneFacetField facetField) {
+			super(facetField);
+			if (facetField.isCountedByRanges()) {
+				_bounds = Arrays.copyOf(facetField.getRangeBounds(),facetField.getRangeBounds().length);
+				Arrays.sort(_bounds);
+				_rangeCounts = new int[_bounds.length + 1];
+				_countsByValue = null;
+			} else {
+				_bounds = null;
+				_rangeCounts = null;
+				_countsByValue = Maps.newHashMap();
+			}
+		}
+		@Override
+		void setNextReader(final AtomicReader reader) throws IOException {
+			_segmentValues = reader.getNumericDocValues(this.getFacetField().getDocValuesFieldName());
+			_segmentDocsWithValue = _segmentValues != null ? reader.getDocsWithField(this.getFacetField().getDocValuesFieldName())
+														   : null;
+		}
+		@Override
+		void collect(final int doc) throws IOException {
+			if (_segmentValues == null || _segmentDocsWithValue == null || !_segmentDocsWithValue.get(doc)) return;
+			long docValue = _segmentValues.get(doc);
+			if (_bounds != null) {
+				int pos = Arrays.binarySearch(_bounds,this.getFacetField().numericValueOf(docValue));
+				_rangeCounts[pos >= 0 ? pos + 1 : -(pos + 1)]++;		// [b(i-1),b(i))
+			} else {
+				int[] count = _countsByValue.get(docValue);
+				if (count == null) {
+					count = new int[1];
+					_countsByValue.put(docValue,count);
+				}
+				count[0]++;
+			}
+		}
+		@Override
+		Collection<SearchResultsFacetCount> getCounts(final int maxValues) {
+			if (_bounds != null) {
+				Collection<SearchResultsFacetCount> outCounts = Lists.newArrayListWithExpectedSize(_rangeCounts.length);
+				for (int i=0; i < _rangeCounts.length; i++) {
+					outCounts.add(SearchResultsFacetCount.forRange(i > 0 ? _bounds[i-1] : null,
+																   i < _bounds.length ? _bounds[i] : null,
+																   _rangeCounts[i]));
+				}
+				return outCounts;
+			}
+			Map<String,Integer> countsByValue = Maps.newHashMapWithExpectedSize(_countsByValue.size());
+			for (Map.Entry<Long,int[]> me : _countsByValue.entrySet()) {
+				String value = this.getFacetField().getValueType() == LuceneFacetFieldValueType.DOUBLE ? Double.toString(Double.longBitsToDouble(me.getKey()))
+																									   : Long.toString(me.getKey());
+				countsByValue.put(value,me.getValue()[0]);
+			}
+			return _mostFrequent(countsByValue,maxValues);
+		}
+	}
+}
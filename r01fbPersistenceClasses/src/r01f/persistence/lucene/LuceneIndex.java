@@ -3,9 +3,18 @@ package r01f.persistence.lucene;
 import java.io.Closeable;
 import java.io.IOException;
 import java.text.NumberFormat;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.inject.Inject;
 
@@ -18,19 +27,30 @@ import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TrackingIndexWriter;
 import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiCollector;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherLifetimeManager;
 import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.search.TopScoreDocCollector;
 import org.apache.lucene.store.Directory;
 
+import r01f.concurrent.DaemonThreadFactory;
+import r01f.persistence.lucene.LuceneIndexChangesJournal.LuceneIndexChangeType;
+import r01f.persistence.lucene.LuceneIndexChangesJournal.LuceneIndexJournaledChange;
 import r01f.persistence.search.lucene.LucenePageResults;
+import r01f.types.Path;
 import r01f.util.types.collections.CollectionUtils;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
 
 @Slf4j
 public class LuceneIndex 
@@ -42,18 +62,81 @@ public class LuceneIndex
 	private final TrackingIndexWriter _trackingIndexWriter;
 	private final ReferenceManager<IndexSearcher> _indexSearcherReferenceManager;
 	private final ControlledRealTimeReopenThread<IndexSearcher> _indexSearcherReopenThread;
+	/**
+	 * Keeps the searchers used to get the first page of a cursor-paged search so the following 
+	 * pages are got from the same index generation (see {@link #searchAfter(Query,Set,String,int)})
+	 */
+	private final SearcherLifetimeManager _pinnedSearchers = new SearcherLifetimeManager();
+	/**
+	 * Age (in seconds) after which a pinned searcher is released
+	 */
+	private static final double PINNED_SEARCHER_MAX_AGE = 600;
+	/**
+	 * Number of docs collected at a time when iterating over all the results of a search
+	 * (see {@link #searchAll(Query,Set,LuceneStoredFieldsSelector,LuceneDocumentHandler)})
+	 */
+	private static final int SEARCH_ALL_PAGE_SIZE = 500;
 	
-	private long _reopenToken;		// index update/delete methods returned token
+	private volatile long _reopenToken;		// index update/delete methods returned token
+	
+	/**
+	 * When the changes are commited (see {@link LuceneIndexCommitPolicy})
+	 */
+	private final LuceneIndexCommitPolicy _commitPolicy;
+	/**
+	 * The number of changes NOT yet commited
+	 */
+	private final AtomicInteger _uncommitedChanges = new AtomicInteger(0);
+	/**
+	 * Changes (index / re-index / un-index) are done holding the read lock (many at the same time) 
+	 * while the commit is done holding the write lock so the journal is NOT reset while 
+	 * a change is recorded at the journal BUT NOT yet handed to the index writer
+	 */
+	private final ReadWriteLock _commitLock = new ReentrantReadWriteLock();
+	/**
+	 * The journal where the uncommited changes are recorded (null if NOT journaled)
+	 */
+	private final LuceneIndexChangesJournal _changesJournal;
+	/**
+	 * The changes recorded at the journal by a previous process that crashed
+	 * before commiting them
+	 */
+	private Collection<LuceneIndexJournaledChange> _recoveredChanges;
+	/**
+	 * The replayers that re-create the documents of the recovered changes when the index is opened
+	 * (see {@link #addRecoveredChangesReplayer(LuceneIndexRecoveredChangesReplayer)})
+	 */
+	private final Collection<LuceneIndexRecoveredChangesReplayer> _recoveredChangesReplayers = new CopyOnWriteArrayList<LuceneIndexRecoveredChangesReplayer>();
+	/**
+	 * Periodically commits the index (null if the commit is NOT periodically triggered)
+	 */
+	private final ScheduledExecutorService _commitScheduler;
 	
 /////////////////////////////////////////////////////////////////////////////////////////
 // 	CONSTRUCTOR
 /////////////////////////////////////////////////////////////////////////////////////////
 	/**
 	 * Constructor based on an instance of the type responsible of the lucene index persistence
+	 * The index is commited after every change
 	 */
-	@Inject
 	public LuceneIndex(final Directory luceneDirectory,
 					   final Analyzer analyzer) {
+		this(luceneDirectory,
+			 analyzer,
+			 LuceneIndexCommitPolicy.commitOnEveryChange());
+	}
+	/**
+	 * Constructor based on an instance of the type responsible of the lucene index persistence
+	 * @param luceneDirectory
+	 * @param analyzer
+	 * @param commitPolicy when the changes are commited
+	 */
+	@Inject
+	public LuceneIndex(final Directory luceneDirectory,
+					   final Analyzer analyzer,
+					   final LuceneIndexCommitPolicy commitPolicy) {
+		_commitPolicy = commitPolicy != null ? commitPolicy
+											 : LuceneIndexCommitPolicy.commitOnEveryChange();
 		try {
 			// [1]: Create the indexWriter
 			_indexWriter = new IndexWriter(luceneDirectory,
@@ -82,6 +165,40 @@ public class LuceneIndex
 		} catch (IOException ioEx) {
 			throw new IllegalStateException("Lucene index could not be created: " + ioEx.getMessage());
 		}
+		// [4]: The journal where the uncommited changes are recorded
+		//		If the journal is NOT empty, the previous process crashed before commiting the changes:
+		//		the recorded changes are moved apart until they're replayed (see replayRecoveredChanges)
+		if (_commitPolicy.isJournaled()) {
+			LuceneIndexChangesJournal recoveredJournal = new LuceneIndexChangesJournal(_recoveredJournalPath());
+			_recoveredChanges = recoveredJournal.readRecordedChanges();
+			
+			_changesJournal = new LuceneIndexChangesJournal(_commitPolicy.getJournalFilePath());
+			Collection<LuceneIndexJournaledChange> notCommitedChanges = _changesJournal.readRecordedChanges();
+			if (CollectionUtils.hasData(notCommitedChanges)) {
+				log.warn("The lucene index changes journal at {} contains {} changes that were NOT commited: they MUST be replayed!",
+						 _commitPolicy.getJournalFilePath(),notCommitedChanges.size());
+				_recoveredChanges.addAll(notCommitedChanges);
+				_writeRecoveredChanges(_recoveredChanges);
+				_changesJournal.reset();
+			}
+		} else {
+			_changesJournal = null;
+		}
+		// [5]: The periodic commit
+		if (_commitPolicy.isCommitPeriodicallyTriggered()) {
+			long commitPeriod = _commitPolicy.getMaxTimeBetweenCommits().asMilis();
+			_commitScheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+			_commitScheduler.scheduleWithFixedDelay(new Runnable() {
+															@Override
+															public void run() {
+																_commitIfThereArePendingChanges();
+															}
+													},
+													commitPeriod,commitPeriod,TimeUnit.MILLISECONDS);
+		} else {
+			_commitScheduler = null;
+		}
+		log.info("Lucene index created: {}",_commitPolicy);
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //	FINALIZE
@@ -95,23 +212,55 @@ public class LuceneIndex
 //	INDEX MAINTEINANCE
 /////////////////////////////////////////////////////////////////////////////////////////
 	/**
-	 * Opens the index
+	 * Opens the index: if a previous process crashed before commiting the changes recorded at the
+	 * changes journal, they're replayed using the registered replayers 
+	 * (see {@link #addRecoveredChangesReplayer(LuceneIndexRecoveredChangesReplayer)})
+	 * The changes whose document none of the replayers re-creates are kept until the index is opened again
 	 */
-	@SuppressWarnings("static-method")
 	public void open() {
-		throw new UnsupportedOperationException();
+		if (!this.hasRecoveredChanges()) return;
+		if (_recoveredChangesReplayers.isEmpty()) {
+			log.warn("There're {} lucene index recovered changes BUT there's NO replayer registered: they're kept until a replayer is registered and the index is opened again",
+					 _recoveredChanges.size());
+			return;
+		}
+		this.replayRecoveredChanges(new LuceneIndexRecoveredChangesReplayer() {
+											@Override
+											public Document documentFor(final Term idTerm) {
+												// the first replayer that re-creates the document wins
+												// (a failing replayer does NOT prevent the others from trying)
+												for (LuceneIndexRecoveredChangesReplayer replayer : _recoveredChangesReplayers) {
+													try {
+														Document doc = replayer.documentFor(idTerm);
+														if (doc != null) return doc;
+													} catch(RuntimeException rtEx) {
+														log.error("Error re-creating the document {}={} with the lucene index recovered changes replayer {}: {}",
+																  idTerm.field(),idTerm.text(),replayer,rtEx.getMessage(),
+																  rtEx);
+													}
+												}
+												return null;
+											}
+									});
 	}
 	@Override
 	public void close() {
 		try {
+			// stop the periodic commit
+			if (_commitScheduler != null) _commitScheduler.shutdownNow();
+			
 			// stop the index reader re-open thread
 			_indexSearcherReopenThread.interrupt();
 			_indexSearcherReopenThread.close();
 			
+			// release the pinned searchers
+			_pinnedSearchers.close();
+			
 			// Close the indexWriter, committing everything that's pending
-			_indexWriter.commit();
+			_commit();
 			_indexWriter.close();
 			
+			if (_changesJournal != null) _changesJournal.close();
 		} catch(IOException ioEx) {
 			log.error("Error while closing lucene index: {}",ioEx.getMessage(),
 											 		   	     ioEx);
@@ -138,20 +287,30 @@ public class LuceneIndex
 	 * @param doc the document to be indexed
 	 */
 	public void index(final Document doc) {	
+		this.index(null,
+				   doc);
+	}
+	/**
+	 * Index a Lucene document
+	 * @param idTerm term that identifies the document (it's recorded at the changes journal if the commit policy is journaled)
+	 * @param doc the document to be indexed
+	 */
+	public void index(final Term idTerm,
+					  final Document doc) {	
+		_commitLock.readLock().lock();
 		try {
+			_record(LuceneIndexChangeType.INDEX,
+					idTerm);
 			_reopenToken = _trackingIndexWriter.addDocument(doc);
+			_uncommitedChanges.incrementAndGet();
 			log.debug("document indexed in lucene");
 		} catch(IOException ioEx) {
 			log.error("Error while in Lucene index operation: {}",ioEx.getMessage(),
 											   		              ioEx);
 		} finally {
-			try {
-				_indexWriter.commit();
-			} catch (IOException ioEx) {
-				log.error("Error while commiting changes to Lucene index: {}",ioEx.getMessage(),
-												 		   					  ioEx);
-			}
+			_commitLock.readLock().unlock();
 		}
+		_commitIfNeeded();
 	}
 	/**
 	 * Updates the index info for a lucene document
@@ -159,21 +318,21 @@ public class LuceneIndex
 	 */
 	public void reIndex(final Term recordIdTerm,
 						final Document doc) {	
+		_commitLock.readLock().lock();
 		try {
+			_record(LuceneIndexChangeType.REINDEX,
+					recordIdTerm);
 			_reopenToken = _trackingIndexWriter.updateDocument(recordIdTerm, 
 													   		   doc);
+			_uncommitedChanges.incrementAndGet();
 			log.debug("{} document re-indexed in lucene",recordIdTerm.text());
 		} catch(IOException ioEx) {
 			log.error("Error in lucene re-indexing operation: {}",ioEx.getMessage(),
 											 		              ioEx);
 		} finally {
-			try {
-				_indexWriter.commit();
-			} catch (IOException ioEx) {
-				log.error("Error while commiting changes to Lucene index: {}",ioEx.getMessage(),
-												 		   					  ioEx);
-			}
+			_commitLock.readLock().unlock();
 		}
+		_commitIfNeeded();
 	}
 	/**
 	 * Unindex a lucene document
@@ -182,39 +341,315 @@ public class LuceneIndex
 	 * 						    otherwise all matching docs will be unindexed
 	 */
 	public void unIndex(final Term idTerm) {
+		_commitLock.readLock().lock();
 		try {
+			_record(LuceneIndexChangeType.UNINDEX,
+					idTerm);
 			_reopenToken = _trackingIndexWriter.deleteDocuments(idTerm);
+			_uncommitedChanges.incrementAndGet();
 			log.debug("{}={} term matching records un-indexed from lucene",idTerm.field(),
 																		   idTerm.text());
 		} catch(IOException ioEx) {
 			log.error("Error in un-index lucene operation: {}",ioEx.getMessage(),
 											 		   		   ioEx);			
 		} finally {
-			try {
-				_indexWriter.commit(); 
-			} catch (IOException ioEx) {
-				log.error("Error while commiting changes to Lucene index: {}",ioEx.getMessage(),
-												 		   					  ioEx);
-			}
+			_commitLock.readLock().unlock();
 		}
+		_commitIfNeeded();
 	}
 	/**
 	 * Delete all lucene index docs
+	 * (the index is always commited just after it's truncated)
 	 */
 	public void truncate() {
+		_commitLock.readLock().lock();
 		try {
+			_record(LuceneIndexChangeType.TRUNCATE,
+					null);		// a truncate has NO id term
 			_reopenToken = _trackingIndexWriter.deleteAll();
+			_uncommitedChanges.incrementAndGet();
 			log.warn("lucene index truncated");
 		} catch(IOException ioEx) {
 			log.error("Error truncating lucene index: {}",ioEx.getMessage(),
 											 		   	  ioEx);			
 		} finally {
-			try {
-				_indexWriter.commit(); 
-			} catch (IOException ioEx) {
-				log.error("Error truncating lucene index: {}",ioEx.getMessage(),
-												 			  ioEx);
+			_commitLock.readLock().unlock();
+		}
+		try {
+			_commit(); 
+		} catch (IOException ioEx) {
+			log.error("Error truncating lucene index: {}",ioEx.getMessage(),
+											 			  ioEx);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//	BATCH
+//	The batch is handed to the index writer and then commited ONCE whatever the 
+//	commit policy is (the batch is the commit unit)
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Index a batch of lucene documents
+	 * @param docs the documents to be indexed indexed by the term that identifies every document
+	 * @return the number of indexed documents
+	 */
+	public int indexBatch(final Map<Term,Document> docs) {
+		if (CollectionUtils.isNullOrEmpty(docs)) return 0;
+		int outIndexed = 0;
+		_commitLock.readLock().lock();
+		try {
+			for (Map.Entry<Term,Document> me : docs.entrySet()) {
+				try {
+					_record(LuceneIndexChangeType.INDEX,
+							me.getKey());
+					_reopenToken = _trackingIndexWriter.addDocument(me.getValue());
+					_uncommitedChanges.incrementAndGet();
+					outIndexed++;
+				} catch(IOException ioEx) {
+					log.error("Error while in Lucene batch index operation: {}",ioEx.getMessage(),
+											   		              			ioEx);
+				}
+			}
+		} finally {
+			_commitLock.readLock().unlock();
+		}
+		log.debug("{} documents indexed in lucene",outIndexed);
+		this.flush();
+		return outIndexed;
+	}
+	/**
+	 * Updates the index info for a batch of lucene documents
+	 * @param docs the documents to be re-indexed indexed by the term that identifies every document
+	 * @return the number of re-indexed documents
+	 */
+	public int reIndexBatch(final Map<Term,Document> docs) {
+		if (CollectionUtils.isNullOrEmpty(docs)) return 0;
+		int outReIndexed = 0;
+		_commitLock.readLock().lock();
+		try {
+			for (Map.Entry<Term,Document> me : docs.entrySet()) {
+				try {
+					_record(LuceneIndexChangeType.REINDEX,
+							me.getKey());
+					_reopenToken = _trackingIndexWriter.updateDocument(me.getKey(),
+																	   me.getValue());
+					_uncommitedChanges.incrementAndGet();
+					outReIndexed++;
+				} catch(IOException ioEx) {
+					log.error("Error in lucene batch re-indexing operation: {}",ioEx.getMessage(),
+											 		              			ioEx);
+				}
+			}
+		} finally {
+			_commitLock.readLock().unlock();
+		}
+		log.debug("{} documents re-indexed in lucene",outReIndexed);
+		this.flush();
+		return outReIndexed;
+	}
+	/**
+	 * Unindex a batch of lucene documents
+	 * @param idTerms the terms used to locate the documents to be unindexed
+	 * @return the number of un-indexed terms
+	 */
+	public int unIndexBatch(final Collection<Term> idTerms) {
+		if (CollectionUtils.isNullOrEmpty(idTerms)) return 0;
+		int outUnIndexed = 0;
+		_commitLock.readLock().lock();
+		try {
+			for (Term idTerm : idTerms) {
+				try {
+					_record(LuceneIndexChangeType.UNINDEX,
+							idTerm);
+					_reopenToken = _trackingIndexWriter.deleteDocuments(idTerm);
+					_uncommitedChanges.incrementAndGet();
+					outUnIndexed++;
+				} catch(IOException ioEx) {
+					log.error("Error in batch un-index lucene operation: {}",ioEx.getMessage(),
+											 		   		   		  	 ioEx);
+				}
+			}
+		} finally {
+			_commitLock.readLock().unlock();
+		}
+		log.debug("{} terms matching records un-indexed from lucene",outUnIndexed);
+		this.flush();
+		return outUnIndexed;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//	COMMIT
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Commits all the pending changes to the index
+	 * (this should be called at the end of a bulk indexing process if the commit policy
+	 *  is NOT to commit on every change)
+	 */
+	public void flush() {
+		try {
+			_commit();
+		} catch (IOException ioEx) {
+			log.error("Error while commiting changes to Lucene index: {}",ioEx.getMessage(),
+											 		   					  ioEx);
+		}
+	}
+	/**
+	 * @return the number of changes NOT yet commited 
+	 */
+	public int getUncommitedChangesCount() {
+		return _uncommitedChanges.get();
+	}
+	/**
+	 * Commits the index if the commit policy says so
+	 */
+	private void _commitIfNeeded() {
+		if (!_commitPolicy.isCommitTriggeredByNumberOfChanges()) return;
+		if (_uncommitedChanges.get() < _commitPolicy.getMaxUncommitedChanges()) return;
+		try {
+			_commit();
+		} catch (IOException ioEx) {
+			log.error("Error while commiting changes to Lucene index: {}",ioEx.getMessage(),
+											 		   					  ioEx);
+		}
+	}
+	private void _commitIfThereArePendingChanges() {
+		if (_uncommitedChanges.get() == 0) return;
+		try {
+			_commit();
+		} catch (Throwable th) {
+			log.error("Error while periodically commiting changes to Lucene index: {}",th.getMessage(),
+											 		   					  			   th);
+		}
+	}
+	private void _commit() throws IOException {
+		_commitLock.writeLock().lock();
+		try {
+			int changes = _uncommitedChanges.get();
+			if (changes == 0) return;		// another thread has already commited the changes
+			
+			Stopwatch stopWatch = Stopwatch.createStarted();
+			_indexWriter.commit();
+			_uncommitedChanges.set(0);
+			if (_changesJournal != null) _changesJournal.reset();
+			log.debug("{} changes commited to the lucene index in {} milis",changes,stopWatch.elapsed(TimeUnit.MILLISECONDS));
+		} finally {
+			_commitLock.writeLock().unlock();
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//	CHANGES JOURNAL
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return true if there're changes made by a previous process that crashed before commiting them
+	 */
+	public boolean hasRecoveredChanges() {
+		return CollectionUtils.hasData(_recoveredChanges);
+	}
+	/**
+	 * Registers a replayer used to re-create the documents of the recovered changes when the index
+	 * is opened (see {@link #open()})
+	 * If many model object types share the index, the changes of the types without a registered replayer
+	 * are kept until the index is opened again once their replayer is registered
+	 * @param replayer
+	 */
+	public void addRecoveredChangesReplayer(final LuceneIndexRecoveredChangesReplayer replayer) {
+		if (replayer != null) _recoveredChangesReplayers.add(replayer);
+	}
+	/**
+	 * Replays the changes that were recorded at the changes journal by a previous process that 
+	 * crashed before commiting them
+	 * The documents to be (re)indexed are created by the given replayer; the (re)index changes
+	 * whose document is NOT re-created (the replayer returns null or fails) are kept to be replayed 
+	 * again the next time (a later un-index or truncate change discards them)
+	 * @param replayer
+	 */
+	public synchronized void replayRecoveredChanges(final LuceneIndexRecoveredChangesReplayer replayer) {
+		if (!this.hasRecoveredChanges()) return;
+		
+		log.warn("Replaying {} lucene index changes that were NOT commited by a previous process",_recoveredChanges.size());
+		Map<Term,LuceneIndexJournaledChange> notReplayed = new LinkedHashMap<Term,LuceneIndexJournaledChange>();
+		try {
+			for (LuceneIndexJournaledChange change : _recoveredChanges) {
+				switch(change.getChangeType()) {
+				case INDEX:
+				case REINDEX:
+					// the document could have been commited or not... so it's always updated
+					Document doc = null;
+					try {
+						doc = replayer.documentFor(change.getIdTerm());
+					} catch(RuntimeException rtEx) {
+						log.error("Error re-creating the document of the lucene index recovered change {}: {}",change,rtEx.getMessage(),
+																											   rtEx);
+					}
+					if (doc != null) {
+						_reopenToken = _trackingIndexWriter.updateDocument(change.getIdTerm(),
+																		   doc);
+						notReplayed.remove(change.getIdTerm());
+					} else {
+						// the document could NOT be re-created: the change is kept 
+						// (it could belong to a model object type whose replayer is NOT yet registered)
+						notReplayed.remove(change.getIdTerm());
+						notReplayed.put(change.getIdTerm(),change);
+						continue;
+					}
+					break;
+				case UNINDEX:
+					_reopenToken = _trackingIndexWriter.deleteDocuments(change.getIdTerm());
+					notReplayed.remove(change.getIdTerm());
+					break;
+				case TRUNCATE:
+					_reopenToken = _trackingIndexWriter.deleteAll();
+					notReplayed.clear();
+					break;
+				default:
+					break;
+				}
+				_uncommitedChanges.incrementAndGet();
 			}
+			_commit();
+			
+			// the replayed changes are now commited: discard them and keep the NOT replayed ones
+			if (notReplayed.isEmpty()) {
+				_recoveredChanges = null;
+				_writeRecoveredChanges(null);
+			} else {
+				log.warn("{} lucene index recovered changes could NOT be replayed: they're kept until the index is opened again",
+						 notReplayed.size());
+				_recoveredChanges = Lists.newArrayList(notReplayed.values());
+				_writeRecoveredChanges(_recoveredChanges);
+			}
+		} catch(IOException ioEx) {
+			log.error("Error replaying the lucene index recovered changes: {}",ioEx.getMessage(),
+																			   ioEx);
+		}
+	}
+	private void _record(final LuceneIndexChangeType changeType,
+						 final Term idTerm) throws IOException {
+		if (_changesJournal == null) return;
+		if (idTerm == null && changeType != LuceneIndexChangeType.TRUNCATE) {
+			log.warn("A change of type {} without an id term cannot be recorded at the lucene changes journal",changeType);
+			return;
+		}
+		_changesJournal.record(changeType,
+							   idTerm);
+	}
+	private Path _recoveredJournalPath() {
+		Path journalPath = _commitPolicy.getJournalFilePath();
+		return journalPath.getFolderPath()
+						  .joinWith(journalPath.getFileName() + ".recovered");
+	}
+	private void _writeRecoveredChanges(final Collection<LuceneIndexJournaledChange> changes) {
+		LuceneIndexChangesJournal recoveredJournal = new LuceneIndexChangesJournal(_recoveredJournalPath());
+		recoveredJournal.reset();
+		if (CollectionUtils.isNullOrEmpty(changes)) return;
+		try {
+			for (LuceneIndexJournaledChange change : changes) {
+				recoveredJournal.record(change.getChangeType(),
+										change.getIdTerm());
+			}
+		} catch(IOException ioEx) {
+			log.error("Error recording the lucene index recovered changes: {}",ioEx.getMessage(),
+																			   ioEx);
+		} finally {
+			recoveredJournal.close();
 		}
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -264,6 +699,26 @@ public class LuceneIndex
 	 */
 	public LucenePageResults search(final Query qry,Set<SortField> sortFields,
 						  			final int firstResultItemOrder,final int numberOfResults) {
+		return this.search(qry,sortFields,
+						   firstResultItemOrder,numberOfResults,
+						   LuceneStoredFieldsSelector.all(),
+						   null);		// no facets
+	}
+	/**
+	 * Executes a search query counting the matching docs by the faceted fields values in the same pass
+	 * (the counts are got from the facets collector once the search is executed: see {@link LuceneFacetsCollector#getFacets()})
+	 * @param qry the query to be executed
+	 * @param sortFields the search query criteria
+	 * @param firstResultItemOrder the order number of the first element to be returned
+	 * @param numberOfResults number of results to be returned
+	 * @param storedFields the stored fields to be loaded from every page document
+	 * @param facets the facets collector (null if there's no faceted field)
+	 * @return a page of search results
+	 */
+	public LucenePageResults search(final Query qry,Set<SortField> sortFields,
+						  			final int firstResultItemOrder,final int numberOfResults,
+						  			final LuceneStoredFieldsSelector storedFields,
+						  			final LuceneFacetsCollector facets) {
 		assert(qry != null);
 		
 		Stopwatch stopWatch = Stopwatch.createStarted();
@@ -282,18 +737,27 @@ public class LuceneIndex
 				long theNumberOfResults = firstResultItemOrder + numberOfResults;
 				
 				// Exec the search (if the sort criteria is null, they're not used)
-				TopDocs scoredDocs = theSort != null ? searcher.search(qry,
-													 	 			   (int)theNumberOfResults,
-													 	 			   theSort)
-													 : searcher.search(qry,
-															 		   (int)theNumberOfResults);
+				TopDocs scoredDocs = null;
+				if (facets != null) {
+					scoredDocs = _searchCollectingFacets(searcher,
+														 qry,theSort,
+														 null,(int)theNumberOfResults,
+														 facets);
+				} else {
+					scoredDocs = theSort != null ? searcher.search(qry,
+												 	 			   (int)theNumberOfResults,
+												 	 			   theSort)
+												 : searcher.search(qry,
+														 		   (int)theNumberOfResults);
+				}
 				log.debug("query {} {} executed against lucene index: returned {} total items, {} in this page",qry.toString(),
 																												(theSort != null ? theSort.toString() : ""),
 																					 						    scoredDocs != null ? scoredDocs.totalHits : 0,
 																					 						    scoredDocs != null ? scoredDocs.scoreDocs.length : 0);
 				outDocs = LucenePageResults.create(searcher,
 												   scoredDocs,
-												   firstResultItemOrder,numberOfResults);
+												   firstResultItemOrder,numberOfResults,
+												   storedFields);
 			} finally {
 				_indexSearcherReferenceManager.release(searcher);
 			}
@@ -310,6 +774,161 @@ public class LuceneIndex
 		
 		return outDocs;
 	}
+	/**
+	 * Executes a search query returning a page of results after the one the given cursor points to
+	 * Unlike {@link #search(Query,Set,int,int)}, only the page docs are collected so getting a deep page costs
+	 * the same as getting the first one
+	 * The searcher used to get the first page is pinned so all the pages are got from the same 
+	 * index generation (if the pinned searcher has expired the current one is used)
+	 * @param qry the query to be executed
+	 * @param sortFields the search query criteria
+	 * @param cursor the cursor returned with the previous page (see {@link LucenePageResults#getNextPageCursor()}) or null for the first page
+	 * @param numberOfResults number of results to be returned
+	 * @return a page of search results
+	 */
+	public LucenePageResults searchAfter(final Query qry,Set<SortField> sortFields,
+										 final String cursor,final int numberOfResults) {
+		return this.searchAfter(qry,sortFields,
+								cursor,numberOfResults,
+								LuceneStoredFieldsSelector.all(),
+								null);		// no facets
+	}
+	/**
+	 * Executes a search query returning a page of results after the one the given cursor points to
+	 * counting the matching docs by the faceted fields values in the same pass
+	 * (the counts are only computed for the first page -when the cursor is null- since they're the same for all the pages)
+	 * @param qry the query to be executed
+	 * @param sortFields the search query criteria
+	 * @param cursor the cursor returned with the previous page (see {@link LucenePageResults#getNextPageCursor()}) or null for the first page
+	 * @param numberOfResults number of results to be returned
+	 * @param storedFields the stored fields to be loaded from every page document
+	 * @param facets the facets collector (null if there's no faceted field)
+	 * @return a page of search results
+	 */
+	public LucenePageResults searchAfter(final Query qry,Set<SortField> sortFields,
+										 final String cursor,final int numberOfResults,
+										 final LuceneStoredFieldsSelector storedFields,
+										 final LuceneFacetsCollector facets) {
+		assert(qry != null);
+		
+		Stopwatch stopWatch = Stopwatch.createStarted();
+		
+		LuceneSearchCursor theCursor = cursor != null ? LuceneSearchCursor.fromToken(cursor)
+													  : null;
+		LucenePageResults outDocs = null;
+		try {
+			// [1]: Get the searcher: the pinned one if it's NOT the first page
+			IndexSearcher searcher = null;
+			long searcherVersion = 0;
+			boolean pinned = false;
+			if (theCursor != null) {
+				searcher = _pinnedSearchers.acquire(theCursor.getSearcherVersion());
+				if (searcher != null) {
+					searcherVersion = theCursor.getSearcherVersion();
+					pinned = true;
+				} else {
+					log.warn("The lucene searcher pinned by the cursor ({}) has expired: the current searcher is used (the results might NOT be consistent with the previous pages)",
+							 theCursor);
+				}
+			}
+			if (searcher == null) {
+				_indexSearcherReopenThread.waitForGeneration(_reopenToken);	// wait until the index is re-opened for the last update
+				searcher = _indexSearcherReferenceManager.acquire();
+				searcherVersion = _pinnedSearchers.record(searcher);		// pin the searcher
+				_pinnedSearchers.prune(new SearcherLifetimeManager.PruneByAge(PINNED_SEARCHER_MAX_AGE));
+			}
+			try {
+				// sort criteria
+				Sort theSort = CollectionUtils.hasData(sortFields) ? new Sort(CollectionUtils.toArray(sortFields,SortField.class))
+																   : null;
+				// Exec the search (if the sort criteria is null, they're not used)
+				ScoreDoc after = theCursor != null ? theCursor.getAfter() : null;
+				TopDocs scoredDocs = null;
+				if (facets != null && theCursor == null) {
+					scoredDocs = _searchCollectingFacets(searcher,
+														 qry,theSort,
+														 null,numberOfResults,
+														 facets);
+				} else {
+					scoredDocs = theSort != null ? searcher.searchAfter(after,
+																		qry,
+																		numberOfResults,
+																		theSort)
+												 : searcher.searchAfter(after,
+														 				qry,
+														 				numberOfResults);
+				}
+				int firstResultItemOrder = theCursor != null ? theCursor.getPosition() : 0;
+				log.debug("query {} {} executed against lucene index after position {}: returned {} total items, {} in this page",qry.toString(),
+																																  (theSort != null ? theSort.toString() : ""),
+																																  firstResultItemOrder,
+																					 						    				  scoredDocs != null ? scoredDocs.totalHits : 0,
+																					 						    				  scoredDocs != null ? scoredDocs.scoreDocs.length : 0);
+				outDocs = LucenePageResults.create(searcher,
+												   scoredDocs,
+												   0,numberOfResults,				// the page docs are the top docs
+												   storedFields);
+				outDocs.setFirstResultItemOrder(firstResultItemOrder);
+				if (scoredDocs != null && CollectionUtils.hasData(scoredDocs.scoreDocs)
+				 && firstResultItemOrder + scoredDocs.scoreDocs.length < scoredDocs.totalHits) {
+					LuceneSearchCursor nextPageCursor = new LuceneSearchCursor(searcherVersion,
+																			   firstResultItemOrder + scoredDocs.scoreDocs.length,
+																			   scoredDocs.scoreDocs[scoredDocs.scoreDocs.length-1]);
+					outDocs.setNextPageCursor(nextPageCursor.asToken());
+				}
+			} finally {
+				if (pinned) {
+					_pinnedSearchers.release(searcher);
+				} else {
+					_indexSearcherReferenceManager.release(searcher);
+				}
+			}
+		} catch (IOException ioEx) {
+			log.error("Error freeing the searcher {}",ioEx.getMessage(),
+													  ioEx);
+		} catch (InterruptedException intEx) {
+			log.error("The index writer periodically re-open thread has stopped",intEx.getMessage(),
+																				 intEx);
+		}
+		
+		log.info("Lucene query (elapsed time: {} milis): {}",NumberFormat.getNumberInstance(Locale.getDefault()).format(stopWatch.elapsed(TimeUnit.MILLISECONDS)),qry);
+		stopWatch.stop();
+		
+		return outDocs;
+	}
+	/**
+	 * Collects the top docs and the facet counts in a single pass over the matching docs
+	 * (the same top docs collectors the {@link IndexSearcher} search methods use are wrapped alongside the facets collector)
+	 * @param searcher
+	 * @param qry
+	 * @param sort the sort criteria (null if sorted by relevance)
+	 * @param after the last doc of the previous page (null for the first page)
+	 * @param numberOfResults
+	 * @param facets
+	 * @return
+	 * @throws IOException
+	 */
+	private static TopDocs _searchCollectingFacets(final IndexSearcher searcher,
+												   final Query qry,final Sort sort,
+												   final ScoreDoc after,final int numberOfResults,
+												   final LuceneFacetsCollector facets) throws IOException {
+		int numHits = Math.min(Math.max(1,numberOfResults),
+							   Math.max(1,searcher.getIndexReader().maxDoc()));
+		if (sort != null) {
+			TopFieldCollector topDocsCollector = TopFieldCollector.create(sort,numHits,(FieldDoc)after,
+																		  true,				// fill the sort fields (used by the cursors)
+																		  false,false,		// do not track scores
+																		  false);			// docs might NOT be scored in order
+			searcher.search(qry,
+							MultiCollector.wrap(topDocsCollector,facets));
+			return topDocsCollector.topDocs();
+		}
+		TopScoreDocCollector topDocsCollector = TopScoreDocCollector.create(numHits,after,
+																			false);		// docs might NOT be scored in order
+		searcher.search(qry,
+						MultiCollector.wrap(topDocsCollector,facets));
+		return topDocsCollector.topDocs();
+	}
 	/**
 	 * Return all documents matching a query
 	 * @param qry
@@ -330,7 +949,7 @@ public class LuceneIndex
 													.forQuery(qry)
 													.sortedBy(sortFields)
 													.searchingWith(searcher)
-													.withPageSize(50)
+													.withPageSize(SEARCH_ALL_PAGE_SIZE)
 												.build()
 													.collectAll();
 			} finally {
@@ -349,4 +968,52 @@ public class LuceneIndex
 		
 		return outDocs;
 	}
+	/**
+	 * Hands every document matching a query to the given handler as it's read from the index
+	 * Unlike {@link #searchAll(Query,Set)} the documents are NOT kept in memory (only a page of doc ids
+	 * is collected at a time) and only the selected stored fields are loaded so it's suitable to iterate 
+	 * over huge result sets
+	 * All the documents are read from the same searcher (the same index generation)
+	 * @param qry
+	 * @param sortFields
+	 * @param fieldsSelector the stored fields to be loaded
+	 * @param handler the handler of every document
+	 * @return the number of handled documents
+	 */
+	public int searchAll(final Query qry,Set<SortField> sortFields,
+						 final LuceneStoredFieldsSelector fieldsSelector,
+						 final LuceneDocumentHandler handler) {
+		assert(qry != null && handler != null);
+		
+		Stopwatch stopWatch = Stopwatch.createStarted();
+		
+		int outCount = 0;
+		try {
+			_indexSearcherReopenThread.waitForGeneration(_reopenToken);	// wait until the index is re-opened for the last update
+			IndexSearcher searcher = _indexSearcherReferenceManager.acquire();
+			try {
+				outCount = LuceneResultsCollector.builder()
+														.forQuery(qry)
+														.sortedBy(sortFields)
+														.searchingWith(searcher)
+														.withPageSize(SEARCH_ALL_PAGE_SIZE)
+												 .build()
+														.collectAll(fieldsSelector != null ? fieldsSelector : LuceneStoredFieldsSelector.all(),
+																	handler);
+			} finally {
+				_indexSearcherReferenceManager.release(searcher);
+			}
+		} catch(IOException ioEx) {
+			log.error("Error freeing the searcher {}",ioEx.getMessage(),
+													  ioEx);
+		} catch (InterruptedException intEx) {
+			log.error("The index writer periodically re-open thread has stopped",intEx.getMessage(),
+																				 intEx);
+		}
+		
+		log.info("Lucene query streaming {} docs (elapsed time: {} milis): {}",outCount,NumberFormat.getNumberInstance(Locale.getDefault()).format(stopWatch.elapsed(TimeUnit.MILLISECONDS)),qry);
+		stopWatch.stop();
+		
+		return outCount;
+	}
 }
@@ -0,0 +1,204 @@
+package r01f.persistence.lucene;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collection;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.lucene.index.Term;
+
+import r01f.types.Path;
+import r01f.util.types.Strings;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+
+/**
+ * An append-only file where the {@link LuceneIndex} changes that are NOT yet commited are recorded
+ * The journal is reset every time the index is commited so if the journal is NOT empty when the
+ * {@link LuceneIndex} is created, the previous process crashed before commiting the recorded changes
+ *
+ * Every change is recorded as a line:
+ * <pre>
+ * 		[change type]\t[id term field]\t[id term text]
+ * </pre>
+ * BEWARE! the lucene {@link org.apache.lucene.document.Document}s are NOT recorded (they cannot be
+ * serialized), only the id term of the changed document; the document MUST be re-created from the
+ * source data when the changes are replayed (see {@link LuceneIndexRecoveredChangesReplayer})
+ */
+@Slf4j
+class LuceneIndexChangesJournal {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private final File _journalFile;
+	private Writer _writer;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	LuceneIndexChangesJournal(final Path journalFilePath) {
+		_journalFile = new File(journalFilePath.asAbsoluteString());
+		File journalDir = _journalFile.getParentFile();
+		if (journalDir != null && !journalDir.exists()) {
+			log.warn("The lucene index changes journal dir {} didn't existed so it's created",journalDir.getAbsolutePath());
+			journalDir.mkdirs();
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Reads the changes recorded at the journal
+	 * (the changes that were NOT commited before the previous process ended)
+	 * @return
+	 */
+	Collection<LuceneIndexJournaledChange> readRecordedChanges() {
+		Collection<LuceneIndexJournaledChange> outChanges = Lists.newArrayList();
+		if (!_journalFile.exists() || _journalFile.length() == 0) return outChanges;
+
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new InputStreamReader(new FileInputStream(_journalFile),
+															  Charsets.UTF_8));
+			String line = reader.readLine();
+			while (line != null) {
+				LuceneIndexJournaledChange change = _parseChange(line);
+				if (change != null) {
+					outChanges.add(change);
+				} else {
+					log.warn("Discarding a corrupt lucene index changes journal entry: {}",line);	// usually the last half-written line
+				}
+				line = reader.readLine();
+			}
+		} catch(IOException ioEx) {
+			log.error("Error reading the lucene index changes journal at {}: {}",_journalFile.getAbsolutePath(),ioEx.getMessage(),
+																				 ioEx);
+		} finally {
+			_closeQuietly(reader);
+		}
+		return outChanges;
+	}
+	/**
+	 * Records a change
+	 * @param changeType
+	 * @param idTerm
+	 * @throws IOException
+	 */
+	synchronized void record(final LuceneIndexChangeType changeType,
+							 final Term idTerm) throws IOException {
+		if (_writer == null) _writer = new OutputStreamWriter(new FileOutputStream(_journalFile,true),	// append
+															  Charsets.UTF_8);
+		_writer.write(changeType.name());
+		_writer.write('\t');
+		_writer.write(idTerm != null ? idTerm.field() : "");
+		_writer.write('\t');
+		_writer.write(idTerm != null ? _escape(idTerm.text()) : "");
+		_writer.write('\n');
+		_writer.flush();	// it's NOT synced (it survives a process crash BUT maybe not an OS crash)
+	}
+	/**
+	 * Resets the journal: called just after the index is commited
+	 */
+	synchronized void reset() {
+		_closeQuietly(_writer);
+		_writer = null;
+		if (_journalFile.exists() && !_journalFile.delete()) {
+			log.error("Could NOT reset the lucene index changes journal at {}",_journalFile.getAbsolutePath());
+		}
+	}
+	/**
+	 * Closes the journal
+	 */
+	synchronized void close() {
+		_closeQuietly(_writer);
+		_writer = null;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static LuceneIndexJournaledChange _parseChange(final String line) {
+		if (Strings.isNullOrEmpty(line)) return null;
+		String[] parts = line.split("\t",3);
+		if (parts.length != 3) return null;
+		LuceneIndexChangeType changeType = null;
+		try {
+			changeType = LuceneIndexChangeType.valueOf(parts[0]);
+		} catch(IllegalArgumentException illArgEx) {
+			return null;
+		}
+		Term idTerm = Strings.isNullOrEmpty(parts[1]) ? null
+													  : new Term(parts[1],
+															  	 _unescape(parts[2]));
+		if (idTerm == null && changeType != LuceneIndexChangeType.TRUNCATE) return null;
+		return new LuceneIndexJournaledChange(changeType,
+											  idTerm);
+	}
+	private static String _escape(final String text) {
+		return text.replace("\\","\\\\")
+				   .replace("\n","\\n")
+				   .replace("\r","\\r");
+	}
+	private static String _unescape(final String text) {
+		StringBuilder sb = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '\\' && i + 1 < text.length()) {
+				char next = text.charAt(++i);
+				sb.append(next == 'n' ? '\n'
+									  : next == 'r' ? '\r' : next);
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+	private static void _closeQuietly(final Closeable closeable) {
+		if (closeable == null) return;
+		try {
+			closeable.close();
+		} catch(IOException ioEx) {
+			log.warn("Error closing the lucene index changes journal: {}",ioEx.getMessage());
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The lucene index change types
+	 */
+	public static enum LuceneIndexChangeType {
+		INDEX,
+		REINDEX,
+		UNINDEX,
+		TRUNCATE;
+	}
+	/**
+	 * A change recorded at the journal
+	 */
+	@Accessors(prefix="_")
+	@RequiredArgsConstructor
+	public static class LuceneIndexJournaledChange {
+		@Getter private final LuceneIndexChangeType _changeType;
+		@Getter private final Term _idTerm;
+
+		@Override
+		public String toString() {
+			return _idTerm != null ? Strings.of("{} {}={}")
+											.customizeWith(_changeType,_idTerm.field(),_idTerm.text())
+											.asString()
+								   : _changeType.name();
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package r01f.persistence.lucene;
+
+import java.io.Serializable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import r01f.types.Path;
+import r01f.types.TimeLapse;
+import r01f.util.types.Strings;
+
+/**
+ * Tells {@link LuceneIndex} when the changes made to the index (index / re-index / un-index)
+ * must be commited (fsync-ed) to the lucene {@link org.apache.lucene.store.Directory}
+ *
+ * Commiting after every single document change means an fsync for every document so
+ * bulk (re)indexing runs as fast as the disk can sync; the commit can be grouped:
+ * <ul>
+ * 		<li>after N changed documents</li>
+ * 		<li>after T milis since the last commit</li>
+ * 		<li>only when explicitly flushed (see {@link LuceneIndex#flush()})</li>
+ * </ul>
+ * Note that searches DO NOT need the changes to be commited: the searchers are near-real-time ones
+ * opened from the {@link org.apache.lucene.index.IndexWriter} so they see the uncommited changes
+ * as soon as the {@link org.apache.lucene.search.ControlledRealTimeReopenThread} reopens them
+ *
+ * If the changes are NOT commited on every change, a journal file can be set: every uncommited
+ * change is recorded at this file, which is reset after every commit; if the process crashes
+ * the changes recorded at the journal can be replayed (see {@link LuceneIndex#replayRecoveredChanges(LuceneIndexRecoveredChangesReplayer)})
+ *
+ * Usage:
+ * <pre class='brush:java'>
+ * 		LuceneIndexCommitPolicy policy = LuceneIndexCommitPolicy.commitEveryNumberOfChanges(500)
+ * 																 .orEvery(TimeLapse.createFor("5s"))
+ * 																 .journaledAt(Path.from("d:/temp_dev/lucene/changes.journal"));
+ * </pre>
+ */
+@Accessors(prefix="_")
+@RequiredArgsConstructor(access=AccessLevel.PRIVATE)
+public class LuceneIndexCommitPolicy
+  implements Serializable {
+
+	private static final long serialVersionUID = -1394734306128271862L;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The number of uncommited changes that triggers a commit
+	 * (<= 0 if the commit is NOT triggered by the number of changes)
+	 */
+	@Getter private final int _maxUncommitedChanges;
+	/**
+	 * The max time between commits
+	 * (null if the commit is NOT periodically triggered)
+	 */
+	@Getter private final TimeLapse _maxTimeBetweenCommits;
+	/**
+	 * The file where the uncommited changes are recorded
+	 * (null if the uncommited changes are NOT journaled)
+	 */
+	@Getter private final Path _journalFilePath;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BUILDERS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Commits after every single change (this is the default)
+	 * @return
+	 */
+	public static LuceneIndexCommitPolicy commitOnEveryChange() {
+		return new LuceneIndexCommitPolicy(1,
+										   null,
+										   null);
+	}
+	/**
+	 * Commits every time the number of uncommited changes reaches the given number
+	 * @param numberOfChanges
+	 * @return
+	 */
+	public static LuceneIndexCommitPolicy commitEveryNumberOfChanges(final int numberOfChanges) {
+		if (numberOfChanges <= 0) throw new IllegalArgumentException("The number of changes between lucene index commits MUST be greater than zero");
+		return new LuceneIndexCommitPolicy(numberOfChanges,
+										   null,
+										   null);
+	}
+	/**
+	 * Commits periodically (only if there're uncommited changes)
+	 * @param timeLapse
+	 * @return
+	 */
+	public static LuceneIndexCommitPolicy commitEvery(final TimeLapse timeLapse) {
+		if (timeLapse == null || timeLapse.asMilis() <= 0) throw new IllegalArgumentException("The time between lucene index commits MUST be greater than zero");
+		return new LuceneIndexCommitPolicy(0,
+										   timeLapse,
+										   null);
+	}
+	/**
+	 * Commits ONLY when {@link LuceneIndex#flush()} is called or when the index is closed
+	 * @return
+	 */
+	public static LuceneIndexCommitPolicy commitOnFlush() {
+		return new LuceneIndexCommitPolicy(0,
+										   null,
+										   null);
+	}
+	/**
+	 * Also commits periodically (only if there're uncommited changes)
+	 * @param timeLapse
+	 * @return
+	 */
+	public LuceneIndexCommitPolicy orEvery(final TimeLapse timeLapse) {
+		if (timeLapse == null || timeLapse.asMilis() <= 0) throw new IllegalArgumentException("The time between lucene index commits MUST be greater than zero");
+		return new LuceneIndexCommitPolicy(_maxUncommitedChanges,
+										   timeLapse,
+										   _journalFilePath);
+	}
+	/**
+	 * Records the uncommited changes at the given file
+	 * @param journalFilePath
+	 * @return
+	 */
+	public LuceneIndexCommitPolicy journaledAt(final Path journalFilePath) {
+		return new LuceneIndexCommitPolicy(_maxUncommitedChanges,
+										   _maxTimeBetweenCommits,
+										   journalFilePath);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return true if a commit is done after every single change
+	 */
+	public boolean isCommitOnEveryChange() {
+		return _maxUncommitedChanges == 1;
+	}
+	/**
+	 * @return true if the commit is triggered by the number of uncommited changes
+	 */
+	public boolean isCommitTriggeredByNumberOfChanges() {
+		return _maxUncommitedChanges > 0;
+	}
+	/**
+	 * @return true if the commit is periodically triggered
+	 */
+	public boolean isCommitPeriodicallyTriggered() {
+		return _maxTimeBetweenCommits != null;
+	}
+	/**
+	 * @return true if the uncommited changes are recorded at a journal file
+	 */
+	public boolean isJournaled() {
+		return _journalFilePath != null
+			&& !this.isCommitOnEveryChange();	// there're never uncommited changes
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public String toString() {
+		return Strings.of("commit every {} changes / every {} / journal={}")
+					  .customizeWith(_maxUncommitedChanges > 0 ? _maxUncommitedChanges : "-",
+							  		 _maxTimeBetweenCommits != null ? _maxTimeBetweenCommits : "-",
+							  		 _journalFilePath != null ? _journalFilePath : "-")
+					  .asString();
+	}
+}
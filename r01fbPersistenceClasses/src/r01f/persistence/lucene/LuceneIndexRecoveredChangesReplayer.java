@@ -0,0 +1,25 @@
+package r01f.persistence.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
+
+/**
+ * Re-creates the lucene {@link Document}s whose changes were recorded at the {@link LuceneIndex}
+ * changes journal BUT were NOT commited because the process crashed
+ * (see {@link LuceneIndexCommitPolicy} and {@link LuceneIndex#replayRecoveredChanges(LuceneIndexRecoveredChangesReplayer)})
+ *
+ * The un-index and truncate changes are replayed by the {@link LuceneIndex} itself; the index / re-index
+ * changes need the document to be re-created from the source data (ie: loading the model object
+ * from the db)
+ * If the document cannot be re-created (the replayer returns null or throws), the change is NOT lost: 
+ * it's kept and replayed again the next time the index is opened
+ */
+public interface LuceneIndexRecoveredChangesReplayer {
+	/**
+	 * Re-creates the document identified by the given id term
+	 * @param idTerm the term that identifies the document (usually the model object oid)
+	 * @return the document or null if this replayer cannot re-create it (ie: it's another model object type's
+	 * 		   document or the source data does NOT exists)
+	 */
+	public Document documentFor(final Term idTerm);
+}
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TopDocs;
@@ -18,6 +19,8 @@ import com.google.common.collect.Sets;
 
 /**
  * Utility type that pages across all search results pages to collect all the result {@link Document}s
+ * Every page is got after the last doc of the previous one (see {@link IndexSearcher#searchAfter(ScoreDoc,Query,int)})
+ * so only a page of docs is collected at a time and the cost of getting a page does NOT depend on it's position
  * Usage: 
  * <pre class='brush:java'>
  * 		Set<Document> allDocs = LuceneResultsCollector.builder()
@@ -28,8 +31,17 @@ import com.google.common.collect.Sets;
  * 							  						  .build()
  * 															.collectAll();
  * </pre>
- * @param <F>
- * @param <I>
+ * ... or to hand every document to a handler as it's read (the documents are NOT kept in memory):
+ * <pre class='brush:java'>
+ * 		int count = LuceneResultsCollector.builder()
+ * 												.forQuery(qry)
+ * 												.sortedBy(orderFields)
+ * 												.searchingWith(indexSearcher)
+ * 												.withPageSize(500)
+ * 										  .build()
+ * 												.collectAll(LuceneStoredFieldsSelector.of(fieldIds),
+ * 															handler);
+ * </pre>
  */
 class LuceneResultsCollector {
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -39,8 +51,6 @@ class LuceneResultsCollector {
 	private final IndexSearcher _searcher;
 	private final int _pageSize;
 	private final Sort _sort;
-	
-	private int _currStartPointer = 0;
 /////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -91,44 +101,51 @@ class LuceneResultsCollector {
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
 	/**
-	 * @return all page documents
+	 * @return all page documents (null if there're no results)
 	 */
 	public Set<Document> collectAll() throws IOException {
-		Set<Document> outDocs = null;
-		
-		// Get first page
-		TopDocs topDocs = _topDocs();				// first page
-		if (topDocs != null && topDocs.totalHits > 0) {
-			outDocs = Sets.newLinkedHashSetWithExpectedSize(topDocs.totalHits);
+		final Set<Document> outDocs = Sets.newLinkedHashSet();
+		this.collectAll(LuceneStoredFieldsSelector.all(),
+						new LuceneDocumentHandler() {
+								@Override
+								public void handle(final Document doc) {
+									outDocs.add(doc);
+								}
+						});
+		return CollectionUtils.hasData(outDocs) ? outDocs : null;
+	}
+	/**
+	 * Hands every document to the handler as it's read: only a page of docs is in memory at a time
+	 * @param fieldsSelector the stored fields to be loaded
+	 * @param handler
+	 * @return the number of handled documents
+	 */
+	public int collectAll(final LuceneStoredFieldsSelector fieldsSelector,
+						  final LuceneDocumentHandler handler) throws IOException {
+		int outCount = 0;
+		ScoreDoc after = null;
+		while (true) {
+			TopDocs topDocs = _topDocsAfter(after);
+			if (topDocs == null || !CollectionUtils.hasData(topDocs.scoreDocs)) break;
 			
-			// Iterate over all the result pages
-			while (topDocs != null && CollectionUtils.hasData(topDocs.scoreDocs)) {
-				// Put the page in the return set
-				int start = _currStartPointer;
-				int end = Math.min(_currStartPointer+_pageSize,
-								   topDocs.totalHits);
-				for (int i=start; i < end; i++) {	// for (ScoreDoc scoredDoc : topDocs.scoreDocs) {
-					Document doc = _searcher.doc(topDocs.scoreDocs[i].doc);
-					outDocs.add(doc);
-				}
-				
-				// Goto the next page (if it exists)
-				_currStartPointer = _currStartPointer + end; 					// next page
-				if (_currStartPointer < topDocs.totalHits) {
-					topDocs = _topDocs();	
-				} else {
-					topDocs = null;
-				}
+			for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+				Document doc = fieldsSelector.load(_searcher,
+												   scoreDoc.doc);
+				handler.handle(doc);
+				outCount++;
 			}
+			if (topDocs.scoreDocs.length < _pageSize) break;		// last page
+			after = topDocs.scoreDocs[topDocs.scoreDocs.length-1];	// next page
 		}
-		return outDocs;
+		return outCount;
 	}
-	private TopDocs _topDocs() throws IOException {
-		return _sort != null ? _searcher.search(_query,
-								   				_currStartPointer + _pageSize,
-								   				_sort)
-							 : _searcher.search(_query,
-							 					_currStartPointer + _pageSize);
+	private TopDocs _topDocsAfter(final ScoreDoc after) throws IOException {
+		return _sort != null ? _searcher.searchAfter(after,
+													 _query,
+								   					 _pageSize,
+								   					 _sort)
+							 : _searcher.searchAfter(after,
+									 				 _query,
+							 						 _pageSize);
 	}
 }
- 
\ No newline at end of file
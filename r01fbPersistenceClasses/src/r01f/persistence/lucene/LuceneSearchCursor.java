@@ -0,0 +1,202 @@
+package r01f.persistence.lucene;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.util.BytesRef;
+
+import r01f.exceptions.Throwables;
+import r01f.util.types.Strings;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * A cursor used to page through the results of a lucene search using {@link org.apache.lucene.search.IndexSearcher#searchAfter(ScoreDoc,org.apache.lucene.search.Query,int)}
+ * so that getting a deep page costs the same as getting the first one
+ *
+ * The cursor contains:
+ * <ul>
+ * 		<li>The version of the searcher used to get the first page: the same searcher is used to get the following pages
+ * 			so the results are consistent across pages (see {@link org.apache.lucene.search.SearcherLifetimeManager})</li>
+ * 		<li>The order number of the first item of the page the cursor points to</li>
+ * 		<li>The last {@link ScoreDoc} of the previous page (a {@link FieldDoc} if the results are sorted)</li>
+ * </ul>
+ * The cursor is handed to the client as an opaque url-safe token:
+ * <pre class='brush:java'>
+ * 		LucenePageResults page = luceneIndex.searchAfter(qry,sortFields,
+ * 														 null,10);					// first page
+ * 		LucenePageResults nextPage = luceneIndex.searchAfter(qry,sortFields,
+ * 															 page.getNextPageCursor(),10);
+ * </pre>
+ */
+@Accessors(prefix="_")
+@RequiredArgsConstructor
+public class LuceneSearchCursor {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final byte FIELD_NULL = 0;
+	private static final byte FIELD_INTEGER = 1;
+	private static final byte FIELD_LONG = 2;
+	private static final byte FIELD_FLOAT = 3;
+	private static final byte FIELD_DOUBLE = 4;
+	private static final byte FIELD_STRING = 5;
+	private static final byte FIELD_BYTES = 6;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The version of the pinned searcher
+	 */
+	@Getter private final long _searcherVersion;
+	/**
+	 * The order number of the first item of the page
+	 */
+	@Getter private final int _position;
+	/**
+	 * The last doc of the previous page
+	 */
+	@Getter private final ScoreDoc _after;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TOKEN
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Encodes the cursor as an opaque url-safe token
+	 * @return
+	 */
+	public String asToken() {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(64);
+		DataOutputStream dos = new DataOutputStream(bos);
+		try {
+			dos.writeLong(_searcherVersion);
+			dos.writeInt(_position);
+			dos.writeInt(_after.doc);
+			dos.writeFloat(_after.score);
+			if (_after instanceof FieldDoc && ((FieldDoc)_after).fields != null) {
+				Object[] fields = ((FieldDoc)_after).fields;
+				dos.writeInt(fields.length);
+				for (Object field : fields) _writeField(dos,field);
+			} else {
+				dos.writeInt(-1);		// not a field doc
+			}
+			dos.flush();
+		} catch(IOException ioEx) {
+			throw new IllegalStateException(Throwables.message("Could NOT encode the lucene search cursor: {}",ioEx.getMessage()),
+											ioEx);
+		}
+		return BaseEncoding.base64Url()
+						   .omitPadding()
+						   .encode(bos.toByteArray());
+	}
+	/**
+	 * Decodes a cursor from a token previously obtained with {@link #asToken()}
+	 * @param token
+	 * @return
+	 */
+	public static LuceneSearchCursor fromToken(final String token) {
+		if (Strings.isNullOrEmpty(token)) throw new IllegalArgumentException("The lucene search cursor token cannot be null!");
+		try {
+			byte[] bytes = BaseEncoding.base64Url()
+									   .omitPadding()
+									   .decode(token);
+			DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes));
+			long searcherVersion = dis.readLong();
+			int position = dis.readInt();
+			int doc = dis.readInt();
+			float score = dis.readFloat();
+			int numFields = dis.readInt();
+			ScoreDoc after = null;
+			if (numFields >= 0) {
+				Object[] fields = new Object[numFields];
+				for (int i = 0; i < numFields; i++) fields[i] = _readField(dis);
+				after = new FieldDoc(doc,score,
+									 fields);
+			} else {
+				after = new ScoreDoc(doc,score);
+			}
+			return new LuceneSearchCursor(searcherVersion,
+										  position,
+										  after);
+		} catch(IOException ioEx) {
+			throw new IllegalArgumentException(Throwables.message("{} is NOT a valid lucene search cursor token: {}",token,ioEx.getMessage()),
+											   ioEx);
+		} catch(IllegalArgumentException illArgEx) {
+			throw new IllegalArgumentException(Throwables.message("{} is NOT a valid lucene search cursor token: {}",token,illArgEx.getMessage()),
+											   illArgEx);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static void _writeField(final DataOutputStream dos,
+									final Object field) throws IOException {
+		if (field == null) {
+			dos.writeByte(FIELD_NULL);
+		} else if (field instanceof Integer) {
+			dos.writeByte(FIELD_INTEGER);
+			dos.writeInt((Integer)field);
+		} else if (field instanceof Long) {
+			dos.writeByte(FIELD_LONG);
+			dos.writeLong((Long)field);
+		} else if (field instanceof Float) {
+			dos.writeByte(FIELD_FLOAT);
+			dos.writeFloat((Float)field);
+		} else if (field instanceof Double) {
+			dos.writeByte(FIELD_DOUBLE);
+			dos.writeDouble((Double)field);
+		} else if (field instanceof String) {
+			dos.writeByte(FIELD_STRING);
+			dos.writeUTF((String)field);
+		} else if (field instanceof BytesRef) {
+			BytesRef bytesRef = (BytesRef)field;
+			dos.writeByte(FIELD_BYTES);
+			dos.writeInt(bytesRef.length);
+			dos.write(bytesRef.bytes,bytesRef.offset,bytesRef.length);
+		} else {
+			throw new IllegalArgumentException(Throwables.message("A lucene sort field value of type {} cannot be stored at a search cursor",
+																  field.getClass()));
+		}
+	}
+	private static Object _readField(final DataInputStream dis) throws IOException {
+		byte type = dis.readByte();
+		switch(type) {
+		case FIELD_NULL:
+			return null;
+		case FIELD_INTEGER:
+			return dis.readInt();
+		case FIELD_LONG:
+			return dis.readLong();
+		case FIELD_FLOAT:
+			return dis.readFloat();
+		case FIELD_DOUBLE:
+			return dis.readDouble();
+		case FIELD_STRING:
+			return dis.readUTF();
+		case FIELD_BYTES:
+			byte[] bytes = new byte[dis.readInt()];
+			dis.readFully(bytes);
+			return new BytesRef(bytes);
+		default:
+			throw new IOException("Unknown sort field value type: " + type);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public String toString() {
+		return Strings.of("searcher version={}, position={}, after doc={}")
+					  .customizeWith(_searcherVersion,_position,_after.doc)
+					  .asString();
+	}
+}
@@ -4,18 +4,21 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.IndexableField;
 
-import com.google.api.client.util.Maps;
-import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Collections2;
-import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -52,16 +55,40 @@ import r01f.types.summary.SummaryStringBacked;
 import r01f.types.url.Url;
 import r01f.util.types.Dates;
 import r01f.util.types.Strings;
-import r01f.util.types.collections.CollectionUtils;
 
+/**
+ * Wraps a lucene {@link Document} returned by a search
+ * The stored fields are decoded lazily: only the fields whose values are requested are decoded 
+ * (see {@link #getField(FieldMetaDataID)}) using a decoders table precompiled once per model object type 
+ * so the field types are NOT guessed for every field of every document
+ * (the stored fields to be loaded from the index can also be selected: see {@link LuceneStoredFieldsSelector})
+ */
 @Slf4j
 @RequiredArgsConstructor(access=AccessLevel.PRIVATE)
 public class LuceneSearchResultDocument 
      extends IndexDocumentBase {
 /////////////////////////////////////////////////////////////////////////////////////////
+//  STATIC STATE
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The field decoders table of every model object type
+	 */
+	private static final LoadingCache<Class<? extends ModelObject>,_FieldDecoders> DECODERS = CacheBuilder.newBuilder()
+																										  .weakKeys()
+																										  .build(new CacheLoader<Class<? extends ModelObject>,_FieldDecoders>() {
+																														@Override
+																														public _FieldDecoders load(final Class<? extends ModelObject> modelObjType) {
+																															return new _FieldDecoders(ModelObjectTypeMetaDataBuilder.createFor(modelObjType));
+																														}
+																										  		 });
+/////////////////////////////////////////////////////////////////////////////////////////
 //  FIELDS
 /////////////////////////////////////////////////////////////////////////////////////////
 	private final Document _doc;
+	
+	private ModelObjectTypeMetaData _modelObjMetaData;
+	private Map<FieldMetaDataID,Collection<IndexableField>> _luceneFieldsByMetaData;
+	private final Map<FieldMetaDataID,IndexDocumentFieldValue<?>> _decodedFields = Maps.newHashMap();
 /////////////////////////////////////////////////////////////////////////////////////////
 //  BUILDERS
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -74,12 +101,15 @@ public class LuceneSearchResultDocument
 /////////////////////////////////////////////////////////////////////////////////////////
 	@Override
 	public ModelObjectTypeMetaData getModelObjectTypeMetaData() {
+		if (_modelObjMetaData != null) return _modelObjMetaData;
+		
 		IndexableField field = _doc.getField(ModelObjectTypeMetaData.TYPE_FIELD_ID.asString());
 		if (field == null) throw new IllegalStateException(Throwables.message("The lucene document is NOT valid: it does NOT have the {} field",
 																			  ModelObjectTypeMetaData.TYPE_FIELD_ID.asString()));  
 		long typeCode = field.numericValue()
 							 .longValue();
-		return ModelObjectTypeMetaDataBuilder.createFor(typeCode);
+		_modelObjMetaData = ModelObjectTypeMetaDataBuilder.createFor(typeCode);
+		return _modelObjMetaData;
 	}
 	@Override
 	public Class<? extends ModelObject> getModelObjectType() {
@@ -91,189 +121,341 @@ public class LuceneSearchResultDocument
 /////////////////////////////////////////////////////////////////////////////////////////
 	@Override
 	public Map<FieldMetaDataID,IndexDocumentFieldValue<?>> getFields() {
-		// [0] - Get the model object metadata
-		ModelObjectTypeMetaData modelObjMetaData = this.getModelObjectTypeMetaData();
+		Map<FieldMetaDataID,IndexDocumentFieldValue<?>> outFields = Maps.newLinkedHashMap();
+		for (FieldMetaDataID metaDataId : _luceneFieldsByMetaData().keySet()) {
+			outFields.put(metaDataId,
+						  this.getField(metaDataId));
+		}
+		return outFields;
+	}
+	/**
+	 * Returns a field decoding it's value from the lucene stored fields
+	 * (only the requested fields are decoded)
+	 */
+	@Override @SuppressWarnings("unchecked")
+	public <T> IndexDocumentFieldValue<T> getField(final FieldMetaDataID metaDataId) {
+		if (_decodedFields.containsKey(metaDataId)) return (IndexDocumentFieldValue<T>)_decodedFields.get(metaDataId);
+		
+		IndexDocumentFieldValue<T> outField = null;
+		Collection<IndexableField> luceneFields = _luceneFieldsByMetaData().get(metaDataId);
+		if (luceneFields != null) {
+			_FieldDecoder decoder = _decoders().getDecoderFor(metaDataId);
+			outField = decoder.decode(luceneFields);
+		}
+		_decodedFields.put(metaDataId,outField);
+		return outField;
+	}
+	@Override
+	public <T> IndexDocumentFieldValue<T> getFieldOrThrow(final FieldMetaDataID metaDataId) {
+		IndexDocumentFieldValue<T> outField = this.getField(metaDataId);
+		if (outField == null) throw new IllegalStateException(Throwables.message("The indexed document does NOT contains a field with name {}",metaDataId));
+		return outField;
+	}
+	private _FieldDecoders _decoders() {
+		return DECODERS.getUnchecked(this.getModelObjectType());
+	}
+	/**
+	 * Maps the lucene document fields to metadata
+	 * @return
+	 */
+	private Map<FieldMetaDataID,Collection<IndexableField>> _luceneFieldsByMetaData() {
+		if (_luceneFieldsByMetaData != null) return _luceneFieldsByMetaData;
 		
-		// [1] - Map the lucene document fields to metadata
-		Map<FieldMetaDataID,Collection<IndexableField>> luceneFieldsByMetaData = Maps.newHashMap();
+		_FieldDecoders decoders = _decoders();
+		_luceneFieldsByMetaData = Maps.newLinkedHashMap();
 		for (IndexableField luceneField : _doc.getFields()) {
-			// 1.a - Find the metadata id from the stored indexFieldId
-			IndexDocumentFieldID fieldId = IndexDocumentFieldID.forId(luceneField.name());	
-			FieldMetaDataID metaDataId = IndexDocumentFieldID.findMetaDataId(modelObjMetaData,
-																		fieldId);
-			if (metaDataId == null) throw new IllegalStateException(Throwables.message("The index-stored metadata with id={} is NOT configured on model object with type={}",
-																					   fieldId,modelObjMetaData.getType()));
-			// 1.b - Store the indexed field indexed by the metaData id		
-			Collection<IndexableField> indexedFields = luceneFieldsByMetaData.get(metaDataId);			
+			// a - Find the metadata id from the stored indexFieldId
+			FieldMetaDataID metaDataId = decoders.getMetaDataIdFor(luceneField.name());
+			
+			// b - Store the indexed field indexed by the metaData id		
+			Collection<IndexableField> indexedFields = _luceneFieldsByMetaData.get(metaDataId);			
 			if (indexedFields == null) {
-				indexedFields = Lists.newLinkedList();
-				luceneFieldsByMetaData.put(metaDataId,indexedFields);
+				indexedFields = Lists.newArrayListWithExpectedSize(1);
+				_luceneFieldsByMetaData.put(metaDataId,indexedFields);
 			}	
 			indexedFields.add(luceneField);
 		}
-		
-		// [2] - Convert every metadata to a IndexDocumentFieldValue
-		Map<FieldMetaDataID,IndexDocumentFieldValue<?>> outFields = Maps.newLinkedHashMap();
-		for (Map.Entry<FieldMetaDataID,Collection<IndexableField>> me : luceneFieldsByMetaData.entrySet()) {
-			FieldMetaDataID metaDataId = me.getKey();
-			FieldMetaData fieldMetaData = modelObjMetaData.getFieldMetaDataFor(metaDataId);
-			Collection<IndexableField> luceneFields = me.getValue();
-			
-			// Security checks
-			if (!(fieldMetaData.isCollectionField() || fieldMetaData.isSummaryField()) 
-			 && luceneFields.size() > 1) throw new IllegalStateException(Throwables.message("The field with id={} is NOT supposed to be multi-valued BUT multiple values are indexed",
-																							fieldMetaData.getIndexableFieldId()));
-			if (fieldMetaData.isBooleanField() && luceneFields.size() > 1) throw new IllegalStateException(Throwables.message("The field with id={} is a boolean field and this type of fields cannot be multi-valued",
-																						 							     	  fieldMetaData.getIndexableFieldId()));
-			// transform lucene fields to an IndexDocumentFieldValue
-			IndexDocumentFieldValue<?> indexDocumentFieldValue = _toIndexDocumentField(modelObjMetaData,
-																					   fieldMetaData,
-																					   luceneFields);
-			outFields.put(metaDataId,indexDocumentFieldValue);
-		}
-		return outFields;
+		return _luceneFieldsByMetaData;
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
-//  
+//  DECODERS TABLE
 /////////////////////////////////////////////////////////////////////////////////////////
-	@SuppressWarnings("unchecked")
-	private static <T> IndexDocumentFieldValue<T> _toIndexDocumentField(final ModelObjectTypeMetaData modelObjMetaData,
-																		final FieldMetaData fieldMetaData,
-																 		final Collection<IndexableField> luceneFields) {
-		IndexDocumentFieldValue<T> outValue = null;
+	/**
+	 * The decoders of the fields of a model object type: the lucene field name to metadata id mapping
+	 * and the field decoders are computed only once (the first time a field is found)
+	 */
+	private static class _FieldDecoders {
+		private final ModelObjectTypeMetaData _modelObjMetaData;
+		private final ConcurrentMap<String,FieldMetaDataID> _metaDataIdsByFieldName = new ConcurrentHashMap<String,FieldMetaDataID>();
+		private final ConcurrentMap<FieldMetaDataID,_FieldDecoder> _decoders = new ConcurrentHashMap<FieldMetaDataID,_FieldDecoder>();
 		
-		// Collection metadata
-		if (fieldMetaData.isCollectionField() && !fieldMetaData.isSummaryField()) {
-			outValue = (IndexDocumentFieldValue<T>) IndexDocumentFieldValue.forMetaDataNotCheckingType(fieldMetaData)	// do not check indexed type (it's supposed to be the correct one)
-																		   .andValues(FluentIterable.from(luceneFields)
-																				  				    .transform(new Function<IndexableField,T>() {
-																														@Override
-																														public T apply(final IndexableField luceneField) {
-																															return (T)_createValueFromLuceneIndexField(modelObjMetaData,
-																																									   fieldMetaData,
-																																							 	       luceneField);
-																														}
-																				  				    		   })
-																				  				    .toList());
-		} 
-		// Normal metadata stored in a single lucene field 
-		else if (luceneFields.size() == 1) {
-			// Transform the single value
-			IndexableField luceneField = CollectionUtils.pickOneAndOnlyElement(luceneFields);
-			T value = LuceneSearchResultDocument.<T>_createValueFromLuceneIndexField(modelObjMetaData,
-													   								 fieldMetaData,
-													   								 luceneField);
-			outValue = IndexDocumentFieldValue.forMetaDataNotCheckingType(fieldMetaData)	// do not check indexed type (it's supposed to be the correct one)
-											  .andValue(value);
-		} 
-		// Multi-dimension metadata stored in multiple lucene fields (ie: language-dependent summaries)
-		else if (luceneFields.size() > 1) {
-			T value =  LuceneSearchResultDocument.<T>_createValueFromMultipleLuceneIndexFields(fieldMetaData,
-													    		luceneFields);
-			outValue = IndexDocumentFieldValue.forMetaDataNotCheckingType(fieldMetaData)	// do not check indexed type (it's supposed to be the correct one)
-											  .andValue(value);
+		_FieldDecoders(final ModelObjectTypeMetaData modelObjMetaData) {
+			_modelObjMetaData = modelObjMetaData;
 		}
-		return outValue;
-	}
-	@SuppressWarnings("unchecked")
-	private static <T> T _createValueFromLuceneIndexField(final ModelObjectTypeMetaData modelObjMetaData,
-														  final FieldMetaData fieldMetaData,
-												     	  final IndexableField luceneField) {
-		if (fieldMetaData.isJavaTypeField()) return (T)((FieldMetaDataForJavaType)fieldMetaData).getDataType();
-
-		// Usually...
-		T outValue = null;
-				
-		// [1]: Get the correct type to be created
-		Class<T> type = null;
-		if (fieldMetaData.isCollectionField() && !fieldMetaData.isSummaryField()) {
-			type = (Class<T>)((FieldMetaDataForCollection)fieldMetaData).getComponentsType();
-		} 
-		else if (fieldMetaData.isPolymorphicField()) {
-			// Get the model object type and from it guess the field type
-			Class<? extends ModelObject> modelObjType = modelObjMetaData.getType();
-			FieldMetaDataForPolymorphicType polyFieldMetaData = (FieldMetaDataForPolymorphicType)fieldMetaData;
-			type = (Class<T>)polyFieldMetaData.getFieldTypeForModelObjType(modelObjType);
-		} 
-		else {
-			type = (Class<T>)fieldMetaData.getDataType();
-		}		
-		if (type == null) throw new IllegalStateException(Throwables.message("Cannot guess the {} field type from the field meta data config",luceneField.name()));
-		
-		// [2]: Create the instance knowing the field type
-		if (ReflectionUtils.isImplementing(type,OID.class)) {
-			outValue = (T)_createOidFromLuceneIndexedField((Class<? extends OID>)type,
-										 		           luceneField);
-		} 
-		else if (ReflectionUtils.isImplementing(type,Boolean.class)) {
-			outValue = (T)_createBooleanFromLuceneIndexedField(luceneField);
-		} 
-		else if (ReflectionUtils.isImplementing(type,Integer.class)) {
-			outValue = (T)_createIntegerFromLuceneIndexedField(luceneField);
-		} 
-		else if (ReflectionUtils.isImplementing(type,Long.class)) { 
-			outValue = (T)_createLongFromLuceneIndexedField(luceneField);
-		} 
-		else if (ReflectionUtils.isImplementing(type,Double.class)) { 
-			outValue = (T)_createDoubleFromLuceneIndexedField(luceneField);
-		} 
-		else if (ReflectionUtils.isImplementing(type,Float.class)) { 
-			outValue = (T)_createFloatFromLuceneIndexedField(luceneField);
-		}  
-		else if (ReflectionUtils.isImplementing(type,Date.class)) { 
-			outValue = (T)_createDateFromLuceneIndexedField(luceneField);
-		} 
-		else if (ReflectionUtils.isImplementing(type,LangIndependentSummary.class)) {
-			outValue = (T)_createLangIndependentSummaryFromLuceneIndexedField(luceneField);
-		} 
-		else if (ReflectionUtils.isImplementing(type,Url.class)) {
-			outValue = (T)_createURLFromLuceneIndexedField(luceneField);
+		FieldMetaDataID getMetaDataIdFor(final String luceneFieldName) {
+			FieldMetaDataID outMetaDataId = _metaDataIdsByFieldName.get(luceneFieldName);
+			if (outMetaDataId != null) return outMetaDataId;
+			
+			IndexDocumentFieldID fieldId = IndexDocumentFieldID.forId(luceneFieldName);	
+			outMetaDataId = IndexDocumentFieldID.findMetaDataId(_modelObjMetaData,
+																fieldId);
+			if (outMetaDataId == null) throw new IllegalStateException(Throwables.message("The index-stored metadata with id={} is NOT configured on model object with type={}",
+																					      fieldId,_modelObjMetaData.getType()));
+			_metaDataIdsByFieldName.putIfAbsent(luceneFieldName,outMetaDataId);
+			return outMetaDataId;
 		}
-		else if (ReflectionUtils.isImplementing(type,Language.class)) {
-			outValue = (T)_createLanguageFromLuceneIndexedField(luceneField);
+		_FieldDecoder getDecoderFor(final FieldMetaDataID metaDataId) {
+			_FieldDecoder outDecoder = _decoders.get(metaDataId);
+			if (outDecoder != null) return outDecoder;
+			
+			outDecoder = new _FieldDecoder(_modelObjMetaData,
+										   _modelObjMetaData.<FieldMetaData>getFieldMetaDataFor(metaDataId));
+			_decoders.putIfAbsent(metaDataId,outDecoder);
+			return outDecoder;
 		}
-		else if (ReflectionUtils.isImplementing(type,Enum.class)) {
-			Class<? extends Enum<?>> castedType =(Class<? extends Enum<?>>)type;
-			 outValue = (T) _createEnumFromLuceneIndexedField(castedType,
-						luceneField);
+	}
+	/**
+	 * Decodes a field: the value type and the way the value is created from the lucene stored fields
+	 * is guessed only once
+	 */
+	private static class _FieldDecoder {
+		private final FieldMetaData _fieldMetaData;
+		private final boolean _collection;
+		private final Class<?> _singleValueType;
+		private final _SingleValueDecoder _singleValueDecoder;
+		private final Class<?> _multiValueType;
+		private final _MultiValueDecoder _multiValueDecoder;
+		@SuppressWarnings("rawtypes")
+		private final EnumWrapper _enumWrapper;
+		
+		@SuppressWarnings("rawtypes")
+		_FieldDecoder(final ModelObjectTypeMetaData modelObjMetaData,
+					  final FieldMetaData fieldMetaData) {
+			_fieldMetaData = fieldMetaData;
+			_collection = fieldMetaData.isCollectionField() && !fieldMetaData.isSummaryField();
 			
+			// [1]: single lucene field values
+			if (fieldMetaData.isJavaTypeField()) {
+				_singleValueType = ((FieldMetaDataForJavaType)fieldMetaData).getDataType();
+				_singleValueDecoder = _SingleValueDecoder.JAVA_TYPE;
+			} else {
+				if (_collection) {
+					_singleValueType = ((FieldMetaDataForCollection)fieldMetaData).getComponentsType();
+				} else if (fieldMetaData.isPolymorphicField()) {
+					// Get the model object type and from it guess the field type
+					_singleValueType = ((FieldMetaDataForPolymorphicType)fieldMetaData).getFieldTypeForModelObjType(modelObjMetaData.getType());
+				} else {
+					_singleValueType = fieldMetaData.getDataType();
+				}
+				_singleValueDecoder = _singleValueType != null ? _SingleValueDecoder.forType(_singleValueType)
+															   : null;
+			}
+			_enumWrapper = _singleValueDecoder == _SingleValueDecoder.ENUM ? new EnumWrapper((Enum[])ReflectionUtils.typeFromClassName(_singleValueType.getName()).getEnumConstants(),true)
+																		   : null;
+			// [2]: multiple lucene fields values (ie: language-dependent summaries)
+			_multiValueType = fieldMetaData.isCollectionField() ? ((FieldMetaDataForCollection)fieldMetaData).getComponentsType()
+																: fieldMetaData.getDataType();
+			_multiValueDecoder = _multiValueType != null ? _MultiValueDecoder.forType(_multiValueType)
+														 : null;
 		}
-		else if (ReflectionUtils.isImplementing(type,IsPath.class)) {
-			outValue = (T)_createPathFromLuceneIndexedField((Class<? extends IsPath>)type,
-															luceneField);
+		@SuppressWarnings("unchecked")
+		<T> IndexDocumentFieldValue<T> decode(final Collection<IndexableField> luceneFields) {
+			// Security checks
+			if (!(_fieldMetaData.isCollectionField() || _fieldMetaData.isSummaryField()) 
+			 && luceneFields.size() > 1) throw new IllegalStateException(Throwables.message("The field with id={} is NOT supposed to be multi-valued BUT multiple values are indexed",
+																							_fieldMetaData.getIndexableFieldId()));
+			if (_fieldMetaData.isBooleanField() && luceneFields.size() > 1) throw new IllegalStateException(Throwables.message("The field with id={} is a boolean field and this type of fields cannot be multi-valued",
+																						 							     	   _fieldMetaData.getIndexableFieldId()));
+			IndexDocumentFieldValue<T> outValue = null;
+			
+			// Collection metadata
+			if (_collection) {
+				List<T> values = Lists.newArrayListWithExpectedSize(luceneFields.size());
+				for (IndexableField luceneField : luceneFields) values.add((T)_decodeSingle(luceneField));
+				outValue = (IndexDocumentFieldValue<T>) IndexDocumentFieldValue.forMetaDataNotCheckingType(_fieldMetaData)	// do not check indexed type (it's supposed to be the correct one)
+																			   .andValues(values);
+			} 
+			// Normal metadata stored in a single lucene field 
+			else if (luceneFields.size() == 1) {
+				T value = (T)_decodeSingle(luceneFields.iterator().next());
+				outValue = IndexDocumentFieldValue.forMetaDataNotCheckingType(_fieldMetaData)	// do not check indexed type (it's supposed to be the correct one)
+												  .andValue(value);
+			} 
+			// Multi-dimension metadata stored in multiple lucene fields (ie: language-dependent summaries)
+			else if (luceneFields.size() > 1) {
+				T value = (T)(_multiValueDecoder != null ? _multiValueDecoder.decode(_multiValueType,luceneFields)
+														 : null);
+				outValue = IndexDocumentFieldValue.forMetaDataNotCheckingType(_fieldMetaData)	// do not check indexed type (it's supposed to be the correct one)
+												  .andValue(value);
+			}
+			return outValue;
 		}
-		else if (ReflectionUtils.isImplementing(type,String.class)) {
-			outValue = (T)_createStringFromLuceneIndexedField(luceneField);
+		private Object _decodeSingle(final IndexableField luceneField) {
+			if (_singleValueType == null) throw new IllegalStateException(Throwables.message("Cannot guess the {} field type from the field meta data config",luceneField.name()));
+			Object outValue = null;
+			if (_singleValueDecoder == _SingleValueDecoder.ENUM) {
+				outValue = _createEnumFromLuceneIndexedField(_singleValueType,_enumWrapper,
+															 luceneField);
+			} else if (_singleValueDecoder != null) {
+				outValue = _singleValueDecoder.decode(_singleValueType,luceneField);
+			}
+			if (log.isDebugEnabled()) log.debug("\t-{}={} ({})",_fieldMetaData.getFieldId(),outValue,_singleValueType);
+			return outValue;
 		}
-		else if (ReflectionUtils.isImplementing(type,CanBeRepresentedAsString.class)) {		// DO NOT MOVE!!!
-			outValue = (T)_createCanBeStringFromLuceneIndexedField((Class<? extends CanBeRepresentedAsString>)type,
-																   luceneField);
-		} 
-		log.debug("\t-{}={} ({})",fieldMetaData.getFieldId(),outValue,type);
-		return outValue;
 	}
+	/**
+	 * Creates a value from a single lucene field
+	 * (the order of the types matters: it's the order in which the types are checked)
+	 */
 	@SuppressWarnings("unchecked")
-	private static <T> T _createValueFromMultipleLuceneIndexFields(final FieldMetaData metaData,
-												     	   		   final Collection<IndexableField> luceneFields) {
-		Object outValue = null;		
-		// Get the correct type to be created
-		Class<T> type = null; 
-		if (metaData.isCollectionField()) {
-			type = (Class<T>)((FieldMetaDataForCollection)metaData).getComponentsType();
-		} else {
-			type = (Class<T>)metaData.getDataType();
+	private static enum _SingleValueDecoder {
+		JAVA_TYPE(Class.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return type;
+			}
+		},
+		OID(OID.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createOidFromLuceneIndexedField((Class<? extends OID>)type,
+											 		    luceneField);
+			}
+		},
+		BOOLEAN(Boolean.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createBooleanFromLuceneIndexedField(luceneField);
+			}
+		},
+		INTEGER(Integer.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createIntegerFromLuceneIndexedField(luceneField);
+			}
+		},
+		LONG(Long.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createLongFromLuceneIndexedField(luceneField);
+			}
+		},
+		DOUBLE(Double.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createDoubleFromLuceneIndexedField(luceneField);
+			}
+		},
+		FLOAT(Float.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createFloatFromLuceneIndexedField(luceneField);
+			}
+		},
+		DATE(Date.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createDateFromLuceneIndexedField(luceneField);
+			}
+		},
+		LANG_INDEPENDENT_SUMMARY(LangIndependentSummary.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createLangIndependentSummaryFromLuceneIndexedField(luceneField);
+			}
+		},
+		URL(Url.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createURLFromLuceneIndexedField(luceneField);
+			}
+		},
+		LANGUAGE(Language.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createLanguageFromLuceneIndexedField(luceneField);
+			}
+		},
+		ENUM(Enum.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				throw new UnsupportedOperationException("enums are decoded using the field decoder's enum wrapper");
+			}
+		},
+		PATH(IsPath.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createPathFromLuceneIndexedField((Class<? extends IsPath>)type,
+														 luceneField);
+			}
+		},
+		STRING(String.class) {
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createStringFromLuceneIndexedField(luceneField);
+			}
+		},
+		CAN_BE_STRING(CanBeRepresentedAsString.class) {		// DO NOT MOVE!!!
+			@Override
+			Object decode(final Class<?> type,final IndexableField luceneField) {
+				return _createCanBeStringFromLuceneIndexedField((Class<? extends CanBeRepresentedAsString>)type,
+															    luceneField);
+			}
+		};
+		
+		private final Class<?> _type;
+		
+		private _SingleValueDecoder(final Class<?> type) {
+			_type = type;
 		}
-		// Create the instance
-		if (ReflectionUtils.isImplementing(type,Summary.class)) {
-			outValue = _createLangDependentSummaryFromLuceneIndexedField(luceneFields);
+		abstract Object decode(final Class<?> type,final IndexableField luceneField);
+		
+		static _SingleValueDecoder forType(final Class<?> type) {
+			for (_SingleValueDecoder decoder : _SingleValueDecoder.values()) {
+				if (decoder == JAVA_TYPE) continue;		// java type fields are detected from the metadata
+				if (ReflectionUtils.isImplementing(type,decoder._type)) return decoder;
+			}
+			return null;
 		}
-		else if (ReflectionUtils.isImplementing(type,LanguageTexts.class)) {
-			outValue = _createLanguageTextsFromLuceneIndexedField(luceneFields);
+	}
+	/**
+	 * Creates a value from multiple lucene fields (ie: a language dependent summary is stored in a field for every language)
+	 */
+	@SuppressWarnings("unchecked")
+	private static enum _MultiValueDecoder {
+		SUMMARY(Summary.class) {
+			@Override
+			Object decode(final Class<?> type,final Collection<IndexableField> luceneFields) {
+				return _createLangDependentSummaryFromLuceneIndexedField(luceneFields);
+			}
+		},
+		LANGUAGE_TEXTS(LanguageTexts.class) {
+			@Override
+			Object decode(final Class<?> type,final Collection<IndexableField> luceneFields) {
+				return _createLanguageTextsFromLuceneIndexedField(luceneFields);
+			}
+		},
+		RANGE(Range.class) {
+			@Override
+			Object decode(final Class<?> type,final Collection<IndexableField> luceneFields) {
+				return _createRangeFromLuceneIndexedField((Class<? extends Comparable<?>>)type,
+														  luceneFields);
+			}
+		};
+		
+		private final Class<?> _type;
+		
+		private _MultiValueDecoder(final Class<?> type) {
+			_type = type;
 		}
-		else if (ReflectionUtils.isImplementing(type,Range.class)) {				
-			return (T) _createRangeFromLuceneIndexedField((Class<? extends Comparable<?>>) type,luceneFields);
+		abstract Object decode(final Class<?> type,final Collection<IndexableField> luceneFields);
+		
+		static _MultiValueDecoder forType(final Class<?> type) {
+			for (_MultiValueDecoder decoder : _MultiValueDecoder.values()) {
+				if (ReflectionUtils.isImplementing(type,decoder._type)) return decoder;
+			}
+			return null;
 		}
-		return (T)outValue;
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  
@@ -358,12 +540,10 @@ public class LuceneSearchResultDocument
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	/*private static <E extends Enum<E>> E _createEnumFromLuceneIndexedField(final Class<?> enumType,
 															  			   final IndexableField luceneField) {*/
-	private static <T> T _createEnumFromLuceneIndexedField(final Class<?> enumType,
+	private static <T> T _createEnumFromLuceneIndexedField(final Class<?> enumType,final EnumWrapper enumWrapper,
 														   final IndexableField luceneField) {
 		Object outEnum = null;
 		String enumValue = luceneField.stringValue();		
-		Class<?> type = ReflectionUtils.typeFromClassName(enumType.getName());
-		EnumWrapper enumWrapper = new EnumWrapper((Enum[]) type.getEnumConstants(),true);
 	    ///Don't use here  Enums.of(enumType.getName())).fromCode...!! Does not compile for generic <T>.USE DIRECTLY ENUMWRAPPER and asign to an Object!!!!!
 		 // The error was: 
 		//   [javac] /softbase_ejie/aplic/r01fb/tmp/compileLib/r01fbPersistenceClasses/src/r01f/persistence/lucene/LuceneSearchResultDocument.java:369: incompatible types; inferred type argument(s) java.lang.Object do not conform to bounds of type variable(s) E
@@ -0,0 +1,91 @@
+package r01f.persistence.lucene;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DocumentStoredFieldVisitor;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.search.IndexSearcher;
+
+import r01f.util.types.collections.CollectionUtils;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Selects the stored fields to be loaded from a lucene {@link Document} so the fields NOT used
+ * to build the search results are NOT read from the index
+ * A field is loaded if it's name is one of the selected field ids or if it's a dimension dependent field
+ * of a selected field id (ie: summary.es, summary.eu... are loaded if summary is selected; see {@link r01f.persistence.index.document.IndexDocumentFieldID})
+ * <pre class='brush:java'>
+ * 		LuceneStoredFieldsSelector selector = LuceneStoredFieldsSelector.of(Arrays.asList("r01.oid","r01.summary"));
+ * 		Document doc = selector.load(searcher,docId);
+ * </pre>
+ */
+@RequiredArgsConstructor(access=AccessLevel.PRIVATE)
+public class LuceneStoredFieldsSelector {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The selected field ids (null if all the fields are loaded)
+	 */
+	private final Set<String> _fieldIds;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BUILDERS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return a selector that loads all the stored fields
+	 */
+	public static LuceneStoredFieldsSelector all() {
+		return new LuceneStoredFieldsSelector(null);
+	}
+	/**
+	 * @param fieldIds the field ids to be loaded (all if null or empty)
+	 * @return a selector that loads only the given fields (and it's dimension dependent fields)
+	 */
+	public static LuceneStoredFieldsSelector of(final Collection<String> fieldIds) {
+		return CollectionUtils.hasData(fieldIds) ? new LuceneStoredFieldsSelector(Sets.newHashSet(fieldIds))
+												 : LuceneStoredFieldsSelector.all();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  METHODS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return true if all the stored fields are loaded
+	 */
+	public boolean isAll() {
+		return _fieldIds == null;
+	}
+	/**
+	 * Loads the selected stored fields of a document
+	 * @param searcher
+	 * @param docId
+	 * @return
+	 * @throws IOException
+	 */
+	public Document load(final IndexSearcher searcher,
+						 final int docId) throws IOException {
+		if (_fieldIds == null) return searcher.doc(docId);
+
+		DocumentStoredFieldVisitor visitor = new DocumentStoredFieldVisitor() {
+														@Override
+														public Status needsField(final FieldInfo fieldInfo) throws IOException {
+															return _isSelected(fieldInfo.name) ? Status.YES : Status.NO;
+														}
+											 };
+		searcher.doc(docId,visitor);
+		return visitor.getDocument();
+	}
+	private boolean _isSelected(final String fieldName) {
+		if (_fieldIds.contains(fieldName)) return true;
+		// dimension dependent fields: {fieldId}.{dimension}
+		int dotPos = fieldName.lastIndexOf('.');
+		return dotPos > 0 && _fieldIds.contains(fieldName.substring(0,dotPos));
+	}
+}
@@ -2,6 +2,7 @@ package r01f.persistence.search;
 
 import r01f.model.search.SearchFilter;
 import r01f.model.search.SearchResultItem;
+import r01f.model.search.SearchResultItemsHandler;
 import r01f.model.search.SearchResults;
 import r01f.usercontext.UserContext;
 
@@ -32,4 +33,27 @@ public interface Searcher<F extends SearchFilter,
 									   		final F filter,
 									   		final int firstRowNum,final int numberOfRows);
 
+	/**
+	 * Searches records using a provided filter paging with a cursor: every page is got after the
+	 * last item of the previous page so getting a deep page costs the same as getting the first one
+	 * @param userContext
+	 * @param filter
+	 * @param cursor the cursor returned alongside the previous page (see {@link SearchResults#getNextPageCursor()}) or null for the first page
+	 * @param numberOfRows number of rows to be returned
+	 * @return the result items
+	 */
+	public SearchResults<F,I> filterRecords(final UserContext userContext,
+											final F filter,
+											final String cursor,final int numberOfRows);
+	/**
+	 * Searches ALL the records verifying the filter handing them one by one to the given handler
+	 * so the whole result set is NEVER kept in memory
+	 * @param userContext
+	 * @param filter
+	 * @param handler the handler of every result item
+	 * @return the number of handled items
+	 */
+	public int filterRecords(final UserContext userContext,
+							 final F filter,
+							 final SearchResultItemsHandler<I> handler);
 }
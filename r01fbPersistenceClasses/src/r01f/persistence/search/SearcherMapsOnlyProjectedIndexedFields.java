@@ -0,0 +1,28 @@
+package r01f.persistence.search;
+
+import java.util.Collection;
+
+import r01f.guids.OID;
+import r01f.model.ModelObject;
+import r01f.model.metadata.FieldMetaDataID;
+import r01f.model.search.SearchResultItemForModelObject;
+
+/**
+ * Interface to be implemented by {@link SearcherMapsIndexedFieldsToSearchResultItemFields} subtypes that
+ * only read some of the indexed fields when mapping them to the search result item's fields
+ * Only the common fields (oid, version, summary...) and the projected fields are loaded from the search index
+ * instead of the whole stored document
+ * <pre class='brush:java'>
+ * 		@Override
+ * 		public Collection<FieldMetaDataID> getProjectedFieldsMetaDataIds() {
+ * 			return Arrays.asList(MyModelObject.MY_FIELD.getFieldId());
+ * 		}
+ * </pre>
+ */
+public interface SearcherMapsOnlyProjectedIndexedFields<I extends SearchResultItemForModelObject<? extends OID,? extends ModelObject>> 
+		 extends SearcherMapsIndexedFieldsToSearchResultItemFields<I> {
+	/**
+	 * @return the ids of the metadata of the indexed fields read by {@link #mapIndexedFieldsToSearchResultItemFields(r01f.persistence.index.document.IndexDocument,SearchResultItemForModelObject)}
+	 */
+	public Collection<FieldMetaDataID> getProjectedFieldsMetaDataIds();
+}
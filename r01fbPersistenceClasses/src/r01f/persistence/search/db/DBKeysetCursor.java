@@ -0,0 +1,187 @@
+package r01f.persistence.search.db;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import r01f.exceptions.Throwables;
+import r01f.util.types.Strings;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * A cursor used to page through the results of a db query using keyset (seek) pagination:
+ * instead of skipping the rows of the previous pages (setFirstResult), the query continues
+ * from the key of the last row of the previous page:
+ * <pre>
+ * 		select e from MyEntity e where (...) AND (e._oid > :lastOid) order by e._oid
+ * </pre>
+ * so a deep page costs the same as the first one (the key MUST be indexed at the db)
+ *
+ * The cursor contains the order number of the first row of the page it points to, the total number
+ * of rows (counted only when the first page is got so the next pages do NOT run the count query again)
+ * and the values of the key columns of the last row of the previous page; it's handed to the client
+ * as an opaque url-safe token
+ * <pre class='brush:java'>
+ * 		DBKeysetCursor cursor = DBKeysetCursor.fromToken(token);
+ * 		Query qry = DBSearchQuery.of(entityManager)
+ * 								 .forEntity(MyDBEntity.class)
+ * 								 .withPredicates(filter.getBooleanQuery())
+ * 								 .getResultsQueryAfter(new String[] {"oid"},
+ * 													   cursor.getLastKeys());
+ * </pre>
+ */
+@Accessors(prefix="_")
+public class DBKeysetCursor {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final byte KEY_NULL = 0;
+	private static final byte KEY_STRING = 1;
+	private static final byte KEY_LONG = 2;
+	private static final byte KEY_INTEGER = 3;
+	private static final byte KEY_DATE = 4;
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The order number of the first row of the page
+	 */
+	@Getter private final int _position;
+	/**
+	 * The total number of rows counted when the first page was got (-1 if NOT counted)
+	 */
+	@Getter private final int _totalItemsCount;
+	/**
+	 * The key column values of the last row of the previous page
+	 */
+	@Getter private final Object[] _lastKeys;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	public DBKeysetCursor(final int position,
+						  final Object[] lastKeys) {
+		this(position,-1,
+			 lastKeys);
+	}
+	public DBKeysetCursor(final int position,final int totalItemsCount,
+						  final Object[] lastKeys) {
+		_position = position;
+		_totalItemsCount = totalItemsCount;
+		_lastKeys = lastKeys;
+	}
+	/**
+	 * @return true if the total number of rows was counted when the first page was got
+	 */
+	public boolean hasTotalItemsCount() {
+		return _totalItemsCount >= 0;
+	}
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TOKEN
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Encodes the cursor as an opaque url-safe token
+	 * @return
+	 */
+	public String asToken() {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(64);
+		DataOutputStream dos = new DataOutputStream(bos);
+		try {
+			dos.writeInt(_position);
+			dos.writeInt(_totalItemsCount);
+			dos.writeInt(_lastKeys.length);
+			for (Object key : _lastKeys) _writeKey(dos,key);
+			dos.flush();
+		} catch(IOException ioEx) {
+			throw new IllegalStateException(Throwables.message("Could NOT encode the db keyset cursor: {}",ioEx.getMessage()),
+											ioEx);
+		}
+		return BaseEncoding.base64Url()
+						   .omitPadding()
+						   .encode(bos.toByteArray());
+	}
+	/**
+	 * Decodes a cursor from a token previously obtained with {@link #asToken()}
+	 * @param token
+	 * @return
+	 */
+	public static DBKeysetCursor fromToken(final String token) {
+		if (Strings.isNullOrEmpty(token)) throw new IllegalArgumentException("The db keyset cursor token cannot be null!");
+		try {
+			byte[] bytes = BaseEncoding.base64Url()
+									   .omitPadding()
+									   .decode(token);
+			DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes));
+			int position = dis.readInt();
+			int totalItemsCount = dis.readInt();
+			Object[] lastKeys = new Object[dis.readInt()];
+			for (int i = 0; i < lastKeys.length; i++) lastKeys[i] = _readKey(dis);
+			return new DBKeysetCursor(position,totalItemsCount,
+									  lastKeys);
+		} catch(IOException ioEx) {
+			throw new IllegalArgumentException(Throwables.message("{} is NOT a valid db keyset cursor token: {}",token,ioEx.getMessage()),
+											   ioEx);
+		} catch(IllegalArgumentException illArgEx) {
+			throw new IllegalArgumentException(Throwables.message("{} is NOT a valid db keyset cursor token: {}",token,illArgEx.getMessage()),
+											   illArgEx);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static void _writeKey(final DataOutputStream dos,
+								  final Object key) throws IOException {
+		if (key == null) {
+			dos.writeByte(KEY_NULL);
+		} else if (key instanceof String) {
+			dos.writeByte(KEY_STRING);
+			dos.writeUTF((String)key);
+		} else if (key instanceof Long) {
+			dos.writeByte(KEY_LONG);
+			dos.writeLong((Long)key);
+		} else if (key instanceof Integer) {
+			dos.writeByte(KEY_INTEGER);
+			dos.writeInt((Integer)key);
+		} else if (key instanceof Date) {
+			dos.writeByte(KEY_DATE);
+			dos.writeLong(((Date)key).getTime());
+		} else {
+			throw new IllegalArgumentException(Throwables.message("A key column value of type {} cannot be stored at a db keyset cursor",
+																  key.getClass()));
+		}
+	}
+	private static Object _readKey(final DataInputStream dis) throws IOException {
+		byte type = dis.readByte();
+		switch(type) {
+		case KEY_NULL:
+			return null;
+		case KEY_STRING:
+			return dis.readUTF();
+		case KEY_LONG:
+			return dis.readLong();
+		case KEY_INTEGER:
+			return dis.readInt();
+		case KEY_DATE:
+			return new Date(dis.readLong());
+		default:
+			throw new IOException("Unknown key column value type: " + type);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public String toString() {
+		return Strings.of("position={}, total items={}, last keys={}")
+					  .customizeWith(_position,_totalItemsCount,Arrays.toString(_lastKeys))
+					  .asString();
+	}
+}
@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
@@ -55,11 +56,25 @@ import com.google.common.collect.Lists;
  *	    Query jpaQry = qry.getCountQuery();
  *	    System.out.println(">>>" + jpaQry.getSingleResult());
  * </pre>
+ * The compiled queries are cached by the query SHAPE (the clause types, field ids and operators but NOT the values)
+ * so two filters with the same shape share the same prepared query and only the parameters are bound 
+ * (see {@link DBSearchQueryCache})
  */
 @Slf4j
 public class DBSearchQuery 
 	 extends QueryBase<DBSearchQuery> {
 /////////////////////////////////////////////////////////////////////////////////////////
+//  COMPILED QUERIES CACHE
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final DBSearchQueryCache QUERY_CACHE = new DBSearchQueryCache(500);
+	
+	/**
+	 * @return the compiled queries cache (ie: to get the hit rate)
+	 */
+	public static DBSearchQueryCache getQueryCache() {
+		return QUERY_CACHE;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
 	private final EntityManager _entityManager;	
@@ -119,44 +134,128 @@ public class DBSearchQuery
 	 * @return
 	 */
 	public Query getCountQuery() {
-		// Compose JPQL
-		String jpql = _composeJPQL("COUNT(e)",
-								   _dbEntityType,
-								   _jpqlQueryFrom(this.getContainerBoolQry()));
-		// Create the query
-		Query outQry = _entityManager.createQuery(jpql);
-		_setJPAQueryParams(outQry,this.getContainerBoolQry()); 
-		return outQry;
+		return _cachedQueryFor("COUNT(e)");
 	}
 	/**
 	 * Returns the results retrieving query
 	 * @return
 	 */
 	public Query getResultsQuery() {
-		// Compose JPQL
-		String jpql = _composeJPQL("e",
-								   _dbEntityType,
-								   _jpqlQueryFrom(this.getContainerBoolQry()));
-		// Create the query
-		Query outQry = _entityManager.createQuery(jpql);
-		_setJPAQueryParams(outQry,this.getContainerBoolQry()); 
-		return outQry;
+		return _cachedQueryFor("e");
 	}
 	/**
 	 * Returns the results retrieving query
 	 * @return
 	 */
 	public Query getOidsQuery() {
-		// Compose JPQL
-		String jpql = _composeJPQL("e._oid",
-								   _dbEntityType,
-								   _jpqlQueryFrom(this.getContainerBoolQry()));
-		// Create the query
-		Query outQry = _entityManager.createQuery(jpql);
-		_setJPAQueryParams(outQry,this.getContainerBoolQry()); 
+		return _cachedQueryFor("e._oid");
+	}
+	/**
+	 * Gets the compiled query for the given column spec and the query shape from the cache
+	 * (the JPQL is only composed if the shape was NOT previously seen) and binds the parameters
+	 * @param colSpec
+	 * @return
+	 */
+	private Query _cachedQueryFor(final String colSpec) {
+		final BooleanQueryClause boolQry = this.getContainerBoolQry();
+		String shape = _shapeOf(_dbEntityType,colSpec,
+								boolQry);
+		Query outQry = QUERY_CACHE.queryFor(_entityManager,
+											shape,
+											new Callable<String>() {
+													@Override
+													public String call() {
+														return _composeJPQL(colSpec,
+																			_dbEntityType,
+																			_jpqlQueryFrom(boolQry));
+													}
+											});
+		_setJPAQueryParams(outQry,boolQry); 
 		return outQry;
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
+//  KEYSET PAGINATION
+//	Instead of skipping the previous pages rows (setFirstResult), the rows are ordered 
+//	by a set of key columns and the query continues after the last seen key values
+//	(see DBKeysetCursor)
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns the results retrieving query for a keyset-paged page: the results are ordered by the 
+	 * given key fields and only the rows after the given key values are returned
+	 * Every returned row is an Object[] containing the entity and the key field values
+	 * (the key field values of the last row are used to get the next page)
+	 * @param keyFieldIds the key fields (ie: oid or oid and version); the key MUST be unique
+	 * @param lastKeys the key field values of the last row of the previous page (null for the first page)
+	 * @return
+	 */
+	public Query getResultsQueryAfter(final String[] keyFieldIds,
+									  final Object[] lastKeys) {
+		if (keyFieldIds == null || keyFieldIds.length == 0) throw new IllegalArgumentException("At least a key field is needed for keyset pagination");
+		if (lastKeys != null && lastKeys.length != keyFieldIds.length) throw new IllegalArgumentException("The number of key field values does NOT match the number of key fields");
+		
+		// Get the compiled query from the cache or compose the JPQL
+		final BooleanQueryClause boolQry = this.getContainerBoolQry();
+		final StringBuilder colSpec = new StringBuilder("e");
+		final StringBuilder orderBy = new StringBuilder();
+		for (int i = 0; i < keyFieldIds.length; i++) {
+			colSpec.append(",e._").append(keyFieldIds[i]);
+			if (i > 0) orderBy.append(",");
+			orderBy.append("e._").append(keyFieldIds[i]);
+		}
+		String shape = _shapeOf(_dbEntityType,colSpec.toString(),
+								boolQry) + (lastKeys != null ? "|after" : "|first");
+		Query outQry = QUERY_CACHE.queryFor(_entityManager,
+											shape,
+											new Callable<String>() {
+													@Override
+													public String call() {
+														String jpqlWhere = _jpqlQueryFrom(boolQry);
+														String jpqlKeyset = lastKeys != null ? _jpqlKeysetFrom(keyFieldIds)
+																							 : null;
+														if (jpqlWhere != null && jpqlKeyset != null) {
+															jpqlWhere = jpqlWhere + " AND " + jpqlKeyset;
+														} else if (jpqlKeyset != null) {
+															jpqlWhere = jpqlKeyset;
+														}
+														String entityName = ReflectionUtils.classNameFromClassNameIncludingPackage(_dbEntityType.getName());
+														String jpql = "select " + colSpec + " from " + entityName + " e" 
+																	+ (jpqlWhere != null ? " where " + jpqlWhere : "")
+																	+ " order by " + orderBy;
+														log.debug("DB Search query: {}",jpql);
+														return jpql;
+													}
+											});
+		_setJPAQueryParams(outQry,boolQry);
+		if (lastKeys != null) {
+			for (int i = 0; i < lastKeys.length; i++) {
+				outQry.setParameter("keysetKey" + i,lastKeys[i]);
+			}
+		}
+		return outQry;
+	}
+	/**
+	 * Composes the keyset predicate: the row-value comparison (k0,k1,...) > (:k0,:k1,...)
+	 * expanded as (k0 > :k0) OR (k0 = :k0 AND k1 > :k1) OR ... since JPQL does NOT support row-values
+	 * @param keyFieldIds
+	 * @return
+	 */
+	private static String _jpqlKeysetFrom(final String[] keyFieldIds) {
+		StringBuilder outJPQL = new StringBuilder("(");
+		for (int i = 0; i < keyFieldIds.length; i++) {
+			if (i > 0) outJPQL.append(" OR ");
+			outJPQL.append("(");
+			for (int j = 0; j < i; j++) {
+				outJPQL.append(Strings.customized("e._{} = :keysetKey{} AND ",
+												  keyFieldIds[j],j));
+			}
+			outJPQL.append(Strings.customized("e._{} > :keysetKey{}",
+											  keyFieldIds[i],i));
+			outJPQL.append(")");
+		}
+		outJPQL.append(")");
+		return outJPQL.toString();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
 	private static String _composeJPQL(final String colSpec,
@@ -174,6 +273,63 @@ public class DBSearchQuery
 	}
 	
 	
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SHAPE
+//	The shape of a query is the structure of the clause tree WITHOUT the values:
+//	two queries with the same shape have the same JPQL 
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static String _shapeOf(final Class<? extends DBEntity> dbEntityType,final String colSpec,
+								   final BooleanQueryClause qryClause) {
+		StringBuilder outShape = new StringBuilder(128);
+		outShape.append(dbEntityType.getName())
+				.append("|").append(colSpec)
+				.append("|");
+		_appendShapeOf(outShape,qryClause);
+		return outShape.toString();
+	}
+	private static void _appendShapeOf(final StringBuilder shape,
+									   final QueryClause clause) {
+		if (clause == null) {
+			shape.append("null");
+			return;
+		}
+		if (clause instanceof BooleanQueryClause) {
+			BooleanQueryClause boolQry = (BooleanQueryClause)clause;
+			shape.append("B(");
+			if (CollectionUtils.hasData(boolQry.getClauses())) {
+				for (QualifiedQueryClause<? extends QueryClause> qualifiedClause : boolQry.getClauses()) {
+					shape.append(qualifiedClause.getOccur()).append(":");
+					_appendShapeOf(shape,qualifiedClause.getClause());		// recurse!
+					shape.append(";");
+				}
+			}
+			shape.append(")");
+			return;
+		}
+		String dbFieldId = clause.getFieldId().asString();
+		if (clause instanceof EqualsQueryClause<?>) {
+			EqualsQueryClause<?> eqQry = (EqualsQueryClause<?>)clause;
+			shape.append(eqQry.getValue() != null ? "EQ(" : "EQNULL(");		// a null value clause is NOT included at the JPQL
+		} 
+		else if (clause instanceof ContainsTextQueryClause) {
+			ContainsTextQueryClause containsTxtClause = (ContainsTextQueryClause)clause;
+			shape.append("TXT").append(containsTxtClause.getPosition()).append("(");
+		} 
+		else if (clause instanceof RangeQueryClause<?>) {
+			RangeQueryClause<?> rangeQry = (RangeQueryClause<?>)clause;
+			shape.append("RNG")
+				 .append(rangeQry.getRange().hasLowerBound() ? "L" : "")
+				 .append(rangeQry.getRange().hasUpperBound() ? "U" : "")
+				 .append("(");
+		} 
+		else if (clause instanceof ContainedInQueryClause<?>) {
+			shape.append("IN(");
+		} 
+		else {
+			shape.append(clause.getClass().getSimpleName()).append("(");
+		}
+		shape.append(dbFieldId).append(")");
+	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  QUERY
 /////////////////////////////////////////////////////////////////////////////////////////
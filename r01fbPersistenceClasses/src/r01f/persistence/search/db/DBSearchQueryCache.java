@@ -0,0 +1,222 @@
+package r01f.persistence.search.db;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import r01f.debug.Debuggable;
+import r01f.exceptions.Throwables;
+import r01f.util.types.Strings;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Caches the compiled db search queries by the SHAPE of the query: the query type (count, results, oids...),
+ * the entity and the structure of the {@link r01f.model.search.query.BooleanQueryClause} tree
+ * (the clause types, field ids and operators BUT NOT the values)
+ *
+ * Two filters with the same shape produce the same JPQL (only the parameter values are different) so:
+ * <ul>
+ * 		<li>The JPQL is composed only the first time a shape is seen</li>
+ * 		<li>The query is registered at the {@link EntityManagerFactory} as a named query so the JPA provider
+ * 			parses and prepares it only once: afterwards {@link EntityManager#createNamedQuery(String)} is used
+ * 			and only the parameters are bound</li>
+ * </ul>
+ * The named query name is derived from a hash of the JPQL so when an evicted shape is compiled again
+ * the same named query is re-registered (overwritten) instead of a new one being added: the number of
+ * named queries registered at the {@link EntityManagerFactory} is bounded by the number of distinct queries
+ * If the JPA provider does NOT support named queries registration (JPA < 2.1) the cached JPQL is used to
+ * create the query (the provider usually has it's own JPQL parse cache)
+ * <pre class='brush:java'>
+ * 		Query qry = cache.queryFor(entityManager,
+ * 								   shape,
+ * 								   new Callable<String>() {
+ * 										@Override
+ * 										public String call() {
+ * 											return ...;		// compose the jpql
+ * 										}
+ * 								   });
+ * </pre>
+ */
+@Slf4j
+@Accessors(prefix="_")
+public class DBSearchQueryCache
+  implements Debuggable {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final String NAMED_QUERY_PREFIX = "r01f.dbSearchQuery.";
+/////////////////////////////////////////////////////////////////////////////////////////
+//  FIELDS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The compiled queries indexed by the entity manager factory and the query shape
+	 */
+	private final Cache<DBSearchQueryCacheKey,DBSearchQueryCompiled> _compiledQueries;
+	/**
+	 * The max number of cached query shapes
+	 */
+	@Getter private final int _maxSize;
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTRUCTOR
+/////////////////////////////////////////////////////////////////////////////////////////
+	public DBSearchQueryCache(final int maxSize) {
+		_maxSize = maxSize;
+		_compiledQueries = CacheBuilder.newBuilder()
+									   .maximumSize(maxSize)
+									   .recordStats()
+									   .build();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Returns a {@link Query} for the given shape: if the shape was previously seen the
+	 * prepared query is reused; otherwise the JPQL is composed using the given {@link Callable}
+	 * The returned query has NO parameters bound
+	 * @param entityManager
+	 * @param shape the query shape (see {@link DBSearchQuery})
+	 * @param jpqlComposer composes the JPQL when the shape is NOT cached
+	 * @return
+	 */
+	public Query queryFor(final EntityManager entityManager,
+						  final String shape,
+						  final Callable<String> jpqlComposer) {
+		final EntityManagerFactory emf = entityManager.getEntityManagerFactory();
+		DBSearchQueryCompiled compiled = null;
+		try {
+			compiled = _compiledQueries.get(new DBSearchQueryCacheKey(emf,shape),
+											new Callable<DBSearchQueryCompiled>() {
+														@Override
+														public DBSearchQueryCompiled call() throws Exception {
+															return _compile(entityManager,emf,
+																			shape,jpqlComposer.call());
+														}
+											});
+		} catch(ExecutionException exEx) {
+			throw _compileError(shape,exEx.getCause());
+		} catch(UncheckedExecutionException uncheckedExEx) {
+			// the JPQL is NOT valid (the JPA provider throws an IllegalArgumentException) or any other runtime error
+			throw _compileError(shape,uncheckedExEx.getCause());
+		} catch(ExecutionError execErr) {
+			throw (Error)execErr.getCause();
+		}
+		return compiled.getNamedQuery() != null ? entityManager.createNamedQuery(compiled.getNamedQuery())
+												: entityManager.createQuery(compiled.getJpql());
+	}
+	private static IllegalStateException _compileError(final String shape,final Throwable cause) {
+		return new IllegalStateException(Throwables.message("Could NOT compile the db search query with shape {}: {}",
+															shape,cause.getMessage()),
+										 cause);
+	}
+	private DBSearchQueryCompiled _compile(final EntityManager entityManager,final EntityManagerFactory emf,
+										   final String shape,final String jpql) {
+		Query qry = entityManager.createQuery(jpql);		// parse the jpql (fails fast if it's NOT valid)
+		String namedQuery = _namedQueryFor(jpql);
+		try {
+			emf.addNamedQuery(namedQuery,qry);
+		} catch(UnsupportedOperationException unsEx) {
+			log.warn("The JPA provider does NOT support named query registration: the db search query JPQL will be parsed every time");
+			namedQuery = null;
+		} catch(AbstractMethodError absMthErr) {
+			log.warn("The JPA provider does NOT support named query registration (JPA < 2.1): the db search query JPQL will be parsed every time");
+			namedQuery = null;
+		}
+		log.debug("DB Search query shape {} compiled as {}: {} (cache hit rate={})",
+				  shape,namedQuery,jpql,this.getHitRate());
+		return new DBSearchQueryCompiled(jpql,namedQuery);
+	}
+	/**
+	 * The same JPQL is always registered with the same name (the registration replaces the previous one)
+	 * @param jpql
+	 * @return
+	 */
+	private static String _namedQueryFor(final String jpql) {
+		return NAMED_QUERY_PREFIX + Hashing.sha1()
+										   .hashString(jpql,Charsets.UTF_8)
+										   .toString();
+	}
+	/**
+	 * Discards all the cached queries
+	 * (the named queries already registered at the entity manager factories are NOT removed BUT
+	 *  they're re-registered with the same name if the queries are compiled again)
+	 */
+	public void invalidateAll() {
+		_compiledQueries.invalidateAll();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  STATS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * @return the cache stats
+	 */
+	public CacheStats getStats() {
+		return _compiledQueries.stats();
+	}
+	/**
+	 * @return the ratio of queries that reused a cached compiled query (1.0 if no query has been requested)
+	 */
+	public double getHitRate() {
+		return _compiledQueries.stats().hitRate();
+	}
+	/**
+	 * @return the number of cached query shapes
+	 */
+	public long getSize() {
+		return _compiledQueries.size();
+	}
+	@Override
+	public CharSequence debugInfo() {
+		CacheStats stats = _compiledQueries.stats();
+		return Strings.of("DB search query cache: {}/{} shapes, {} hits, {} misses (hit rate={}), {} evictions")
+					  .customizeWith(_compiledQueries.size(),_maxSize,
+							  		 stats.hitCount(),stats.missCount(),String.format("%.3f",stats.hitRate()),
+							  		 stats.evictionCount())
+					  .asString();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * The named queries are registered at an {@link EntityManagerFactory} so the key
+	 * includes the factory (compared by identity)
+	 */
+	@RequiredArgsConstructor
+	private static class DBSearchQueryCacheKey {
+		private final EntityManagerFactory _emf;
+		private final String _shape;
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof DBSearchQueryCacheKey)) return false;
+			DBSearchQueryCacheKey other = (DBSearchQueryCacheKey)obj;
+			return _emf == other._emf
+				&& _shape.equals(other._shape);
+		}
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(_emf) + _shape.hashCode();
+		}
+	}
+	@Accessors(prefix="_")
+	@RequiredArgsConstructor
+	private static class DBSearchQueryCompiled {
+		@Getter private final String _jpql;
+		@Getter private final String _namedQuery;
+	}
+}
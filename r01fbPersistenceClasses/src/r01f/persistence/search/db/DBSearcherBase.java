@@ -8,6 +8,7 @@ import javax.persistence.Query;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.Lists;
 
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -25,10 +26,12 @@ import r01f.model.facets.HasNumericID;
 import r01f.model.facets.HasOID;
 import r01f.model.facets.LangDependentNamed.HasLangDependentNamedFacet;
 import r01f.model.facets.LangInDependentNamed.HasLangInDependentNamedFacet;
+import r01f.model.facets.Versionable.HasVersionableFacet;
 import r01f.model.metadata.ModelObjectTypeMetaData;
 import r01f.model.metadata.ModelObjectTypeMetaDataBuilder;
 import r01f.model.search.SearchFilterForModelObject;
 import r01f.model.search.SearchResultItemForModelObject;
+import r01f.model.search.SearchResultItemsHandler;
 import r01f.model.search.SearchResults;
 import r01f.persistence.db.DBEntity;
 import r01f.persistence.db.TransformsDBEntityIntoModelObject;
@@ -51,6 +54,13 @@ public abstract class DBSearcherBase<F extends SearchFilterForModelObject,
 									 I extends SearchResultItemForModelObject<? extends OID,? extends IndexableModelObject>> 
            implements Searcher<F,I> {
 /////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Number of rows loaded at a time when handing all the records to a {@link SearchResultItemsHandler}
+	 */
+	private static final int FILTER_ALL_PAGE_SIZE = 500;
+/////////////////////////////////////////////////////////////////////////////////////////
 //  FIELDS
 /////////////////////////////////////////////////////////////////////////////////////////
 	/**
@@ -122,6 +132,122 @@ public abstract class DBSearcherBase<F extends SearchFilterForModelObject,
 									  totalItemsCount,firstResultItemOrder,
 									  items);
 	}
+	/**
+	 * Searches records paging with a keyset cursor: the rows are ordered by the oid (and the version if 
+	 * the model object is versionable) and every page is got after the last key of the previous page
+	 * so getting a deep page costs the same as getting the first one
+	 * (the returned {@link SearchResults} contains the cursor to get the next page: see {@link SearchResults#getNextPageCursor()})
+	 * The total items are counted only when the first page is got: the count travels with the cursor
+	 * to the next pages (so it's the count at the time the first page was got)
+	 */
+	@Override
+	public SearchResults<F,I> filterRecords(final UserContext userContext,
+											final F filter,
+											final String cursor,final int numberOfResults) {
+		// [0]-decode the cursor
+		DBKeysetCursor theCursor = cursor != null ? DBKeysetCursor.fromToken(cursor)
+												  : null;
+		int firstResultItemOrder = theCursor != null ? theCursor.getPosition() : 0;
+		
+		// [1]-Count the total items (only for the first page)
+		int totalItemsCount = theCursor != null && theCursor.hasTotalItemsCount() ? theCursor.getTotalItemsCount()
+																				  : this.countRecords(userContext,
+																						  			  filter);
+		
+		// [2]-build the query
+		String[] keyFieldIds = _keysetFieldIdsFor(filter);
+		Query q = DBSearchQuery.of(_entityManager)
+								   .forEntity(_dbEntityType)
+								   .withPredicates(filter.getBooleanQuery())
+							   .getResultsQueryAfter(keyFieldIds,
+									   				 theCursor != null ? theCursor.getLastKeys() : null);
+		q.setMaxResults(numberOfResults + 1);		// an extra row tells if there's a next page (the count could be outdated)
+		List<Object[]> rows = q.getResultList();
+		boolean hasNextPage = rows != null && rows.size() > numberOfResults;
+		if (hasNextPage) rows = rows.subList(0,numberOfResults);
+		
+		// [3]-transform results & compose the next page cursor from the last row keys
+		Collection<I> items = null;
+		String nextPageCursor = null;
+		if (CollectionUtils.hasData(rows)) {
+			items = Lists.newArrayListWithExpectedSize(rows.size());
+			for (Object[] row : rows) {
+				items.add(_createSearchResultItemFor(userContext,
+													 (DBEntityForModelObject<?>)row[0]));
+			}
+			if (hasNextPage) {
+				Object[] lastRow = rows.get(rows.size()-1);
+				Object[] lastKeys = new Object[keyFieldIds.length];
+				System.arraycopy(lastRow,1,
+								 lastKeys,0,keyFieldIds.length);
+				nextPageCursor = new DBKeysetCursor(firstResultItemOrder + rows.size(),totalItemsCount,
+													lastKeys)
+										.asToken();
+			}
+		}
+		SearchResults<F,I> outResults = new SearchResults<F,I>(filter,
+									  						   totalItemsCount,firstResultItemOrder,
+									  						   items);
+		outResults.setNextPageCursor(nextPageCursor);
+		return outResults;
+	}
+	/**
+	 * Hands every record verifying the filter to the handler paging with the keyset (see {@link #_keysetFieldIdsFor(SearchFilterForModelObject)}):
+	 * only a page of rows is loaded at a time and every entity is detached from the {@link EntityManager} 
+	 * once transformed so the whole result set is NEVER kept in memory
+	 * (unlike the paged methods the total items count is NOT queried)
+	 */
+	@Override
+	public int filterRecords(final UserContext userContext,
+							 final F filter,
+							 final SearchResultItemsHandler<I> handler) {
+		String[] keyFieldIds = _keysetFieldIdsFor(filter);
+		int outCount = 0;
+		Object[] lastKeys = null;
+		while (true) {
+			// [1]-get the page after the last keys
+			Query q = DBSearchQuery.of(_entityManager)
+									   .forEntity(_dbEntityType)
+									   .withPredicates(filter.getBooleanQuery())
+								   .getResultsQueryAfter(keyFieldIds,
+										   				 lastKeys);
+			q.setMaxResults(FILTER_ALL_PAGE_SIZE);
+			List<Object[]> rows = q.getResultList();
+			if (CollectionUtils.isNullOrEmpty(rows)) break;
+			
+			// [2]-transform and hand every row
+			for (Object[] row : rows) {
+				DBEntityForModelObject<?> dbEntity = (DBEntityForModelObject<?>)row[0];
+				I item = _createSearchResultItemFor(userContext,
+													dbEntity);
+				_entityManager.detach(dbEntity);		// do NOT keep the entity at the persistence context
+				handler.handle(item);
+				outCount++;
+			}
+			if (rows.size() < FILTER_ALL_PAGE_SIZE) break;		// last page
+			
+			// [3]-next page
+			Object[] lastRow = rows.get(rows.size()-1);
+			lastKeys = new Object[keyFieldIds.length];
+			System.arraycopy(lastRow,1,
+							 lastKeys,0,keyFieldIds.length);
+		}
+		return outCount;
+	}
+	/**
+	 * Returns the key fields used to order the rows when paging with a keyset cursor
+	 * (the oid and the version if the model object is versionable); 
+	 * sub-types can override this method to use another unique key
+	 * @param filter
+	 * @return
+	 */
+	protected String[] _keysetFieldIdsFor(final F filter) {
+		Class<? extends ModelObject> modelObjType = CollectionUtils.pickOneAndOnlyElement(filter.getFilteredModelObjectTypes(),
+																						  "This type is only suitable for filters with a single model object type");
+		ModelObjectTypeMetaData modelObjMetaData = ModelObjectTypeMetaDataBuilder.createFor(modelObjType);
+		return modelObjMetaData.hasFacet(HasVersionableFacet.class) ? new String[] {"oid","version"}
+																	: new String[] {"oid"};
+	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
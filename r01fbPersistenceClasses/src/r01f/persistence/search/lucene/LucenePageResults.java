@@ -1,6 +1,7 @@
 package r01f.persistence.search.lucene;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -15,6 +16,8 @@ import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
 
+import r01f.model.search.SearchResultsFacet;
+import r01f.persistence.lucene.LuceneStoredFieldsSelector;
 import r01f.util.types.collections.CollectionUtils;
 
 /**
@@ -36,6 +39,20 @@ public class LucenePageResults {
 	@Getter 		private final int _pageSize;
 	@Getter @Setter private int _totalHits;
 	@Getter @Setter private Set<Document> _documents;
+	/**
+	 * Orden del primer documento de la pgina (solo si se pagina con cursor)
+	 */
+	@Getter @Setter private int _firstResultItemOrder;
+	/**
+	 * Cursor para obtener la siguiente pgina (null si es la ltima pgina o no se pagina con cursor)
+	 * (ver {@link r01f.persistence.lucene.LuceneSearchCursor})
+	 */
+	@Getter @Setter private String _nextPageCursor;
+	/**
+	 * Cuentas de los resultados por los valores de los campos facetados (null si no hay campos facetados)
+	 * (ver {@link r01f.persistence.lucene.LuceneFacetsCollector})
+	 */
+	@Getter @Setter private Collection<SearchResultsFacet> _facets;
 /////////////////////////////////////////////////////////////////////////////////////////
 //	METODOS
 /////////////////////////////////////////////////////////////////////////////////////////
@@ -47,18 +64,44 @@ public class LucenePageResults {
 		if (_documents == null) _documents = new LinkedHashSet<Document>(_pageSize);
 		_documents.add(doc);
 	}
+	/**
+	 * @return true if there's a cursor to get the next page
+	 */
+	public boolean hasNextPageCursor() {
+		return _nextPageCursor != null;
+	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //	FACTORIA
 /////////////////////////////////////////////////////////////////////////////////////////
 	public static LucenePageResults create(final IndexSearcher searcher,
 										   final TopDocs topDocs,
 										   final int firstResultItemOrder,final int numberOfResults) throws IOException {
+		return LucenePageResults.create(searcher,
+										topDocs,
+										firstResultItemOrder,numberOfResults,
+										LuceneStoredFieldsSelector.all());
+	}
+	/**
+	 * Crea la pgina cargando de cada documento nicamente los campos almacenados seleccionados
+	 * @param searcher
+	 * @param topDocs
+	 * @param firstResultItemOrder
+	 * @param numberOfResults
+	 * @param storedFields los campos almacenados a cargar
+	 * @return
+	 * @throws IOException
+	 */
+	public static LucenePageResults create(final IndexSearcher searcher,
+										   final TopDocs topDocs,
+										   final int firstResultItemOrder,final int numberOfResults,
+										   final LuceneStoredFieldsSelector storedFields) throws IOException {
 		LucenePageResults outResults = new LucenePageResults(numberOfResults);
 		if (topDocs != null) {
 			outResults.setTotalHits(topDocs.totalHits);
 			if (CollectionUtils.hasData(topDocs.scoreDocs)) {
 				long start = firstResultItemOrder;
-				long end = Math.min(firstResultItemOrder+numberOfResults,topDocs.totalHits);
+				long end = Math.min(Math.min(firstResultItemOrder+numberOfResults,topDocs.totalHits),
+									topDocs.scoreDocs.length);		// when paging with a cursor the top docs are only the page docs
 				
 				log.debug("Lucene Page Results: start/end={}/{} -> total: {}, numberOfResults: {}, topDocs.size: {}",
 						  start,end,
@@ -67,7 +110,8 @@ public class LucenePageResults {
 						  topDocs.scoreDocs.length);
 						  
 				for (long i=start; i < end; i++) {	// for (ScoreDoc scoredDoc : topDocs.scoreDocs) {
-					Document doc = searcher.doc(topDocs.scoreDocs[(int)i].doc);
+					Document doc = storedFields.load(searcher,
+													 topDocs.scoreDocs[(int)i].doc);
 					outResults.addDocument(doc);
 				}
 			}
@@ -4,6 +4,7 @@ import java.text.NumberFormat;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -13,6 +14,7 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.SortField;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import lombok.AccessLevel;
@@ -39,16 +41,23 @@ import r01f.model.metadata.FieldMetaDataID;
 import r01f.model.metadata.HasFieldMetaDataForHasLanguageModelObject;
 import r01f.model.metadata.HasFieldsMetaDataForHasSummaryModelObject;
 import r01f.model.metadata.ModelObjectTypeMetaData;
+import r01f.model.metadata.ModelObjectTypeMetaDataBuilder;
 import r01f.model.search.SearchFilterForModelObject;
 import r01f.model.search.SearchResultItemForModelObject;
+import r01f.model.search.SearchResultItemsHandler;
 import r01f.model.search.SearchResults;
 import r01f.persistence.index.document.IndexDocumentFieldConfigSet;
+import r01f.persistence.lucene.LuceneDocumentHandler;
+import r01f.persistence.lucene.LuceneFacetField;
+import r01f.persistence.lucene.LuceneFacetsCollector;
 import r01f.persistence.lucene.LuceneIndex;
 import r01f.persistence.lucene.LuceneSearchResultDocument;
+import r01f.persistence.lucene.LuceneStoredFieldsSelector;
 import r01f.persistence.search.Searcher;
 import r01f.persistence.search.SearcherCreatesResultItemFromIndexData;
 import r01f.persistence.search.SearcherExternallyLoadsModelObject;
 import r01f.persistence.search.SearcherMapsIndexedFieldsToSearchResultItemFields;
+import r01f.persistence.search.SearcherMapsOnlyProjectedIndexedFields;
 import r01f.reflection.ReflectionUtils;
 import r01f.types.Factory;
 import r01f.types.summary.LangDependentSummary;
@@ -132,9 +141,63 @@ public abstract class LuceneSearcherBase<F extends SearchFilterForModelObject,
 		
 		// [3] Run the Query				
 		LucenePageResults pageResults = _luceneIndex.search(qry,sortFields,
-													        firstRowNum,numberOfRows);
+													        firstRowNum,numberOfRows,
+													        _storedFieldsSelectorFor(filter),
+													        _facetsCollectorFor(filter));
 		
 		// [4] Transform lucene documents to serarch results
+		outResults = _searchResultsFrom(userContext,
+										pageResults,
+										firstRowNum,numberOfRows);
+		return outResults;
+	}
+	/**
+	 * Searches records using a provided filter paging with a cursor: every page is got after the last
+	 * item of the previous page so getting a deep page costs the same as getting the first one
+	 * (the returned {@link SearchResults} contains the cursor to get the next page: see {@link SearchResults#getNextPageCursor()})
+	 * @param userContext
+	 * @param filter
+	 * @param cursor the cursor returned with the previous page or null to get the first page
+	 * @param numberOfRows number of rows to be returned
+	 * @return
+	 */
+	@Override
+	public SearchResults<F,I> filterRecords(final UserContext userContext,
+											final F filter,
+											final String cursor,final int numberOfRows) {
+		SearchResults<F,I> outResults = null; 
+		
+		// [1] Build the query
+		Query qry = _createQueryFor(filter);
+		
+		// [2] Build the sort fields
+		Set<SortField> sortFields = _createSortFieldsFor(filter);
+		
+		// [3] Run the Query				
+		LucenePageResults pageResults = _luceneIndex.searchAfter(qry,sortFields,
+													        	 cursor,numberOfRows,
+													        	 _storedFieldsSelectorFor(filter),
+													        	 _facetsCollectorFor(filter));
+		
+		// [4] Transform lucene documents to serarch results
+		outResults = _searchResultsFrom(userContext,
+										pageResults,
+										pageResults != null ? pageResults.getFirstResultItemOrder() : 0,numberOfRows);
+		if (outResults != null) outResults.setNextPageCursor(pageResults.getNextPageCursor());
+		return outResults;
+	}
+	/**
+	 * Transforms the lucene documents to search results
+	 * @param userContext
+	 * @param pageResults
+	 * @param firstRowNum
+	 * @param numberOfRows
+	 * @return
+	 */
+	private SearchResults<F,I> _searchResultsFrom(final UserContext userContext,
+												  final LucenePageResults pageResults,
+												  final int firstRowNum,final int numberOfRows) {
+		SearchResults<F,I> outResults = null;
 		Stopwatch stopWatch = Stopwatch.createStarted();
 		if (pageResults != null && CollectionUtils.hasData(pageResults.getDocuments())) {
 			outResults = new SearchResults<F,I>();
@@ -147,6 +210,7 @@ public abstract class LuceneSearcherBase<F extends SearchFilterForModelObject,
 													doc);// ... create the search result item
 				outResults.getPageItems().add(item);	 // ... put it on the list
 			}
+			outResults.setFacets(pageResults.getFacets());
 		}
 		log.info("Lucene documents transformed to search result items (elapsed time: {} milis)",NumberFormat.getNumberInstance(Locale.getDefault()).format(stopWatch.elapsed(TimeUnit.MILLISECONDS)));
 		stopWatch.stop();
@@ -155,36 +219,126 @@ public abstract class LuceneSearcherBase<F extends SearchFilterForModelObject,
 	}
 	/**
 	 * Return all filtered records (no paging)
+	 * BEWARE! all the items are kept in memory: use {@link #filterRecords(UserContext,SearchFilterForModelObject,SearchResultItemsHandler)}
+	 * 		   to iterate over huge result sets
 	 * @param userContext
 	 * @param filter the filter
 	 * @return
 	 */
 	public Collection<I> filterRecords(final UserContext userContext,
 									   final F filter) {
+		final Collection<I> outItems = Sets.newLinkedHashSet();
+		this.filterRecords(userContext,
+						   filter,
+						   new SearchResultItemsHandler<I>() {
+									@Override
+									public void handle(final I item) {
+										outItems.add(item);						 // ... put it on the list
+									}
+						   });
+		return CollectionUtils.hasData(outItems) ? outItems : null;
+	}
+	/**
+	 * Hands every filtered record to the handler as it's read from the index: neither the lucene documents
+	 * nor the search result items are kept in memory 
+	 * (the loaded stored fields are the ones returned by {@link #_storedFieldsSelectorFor(SearchFilterForModelObject)})
+	 * @param userContext
+	 * @param filter the filter
+	 * @param handler the handler of every search result item
+	 * @return the number of handled items
+	 */
+	@Override
+	public int filterRecords(final UserContext userContext,
+							 final F filter,
+							 final SearchResultItemsHandler<I> handler) {
 		// [1]-Build the query
 		Query qry = _createQueryFor(filter);
 		
 		// [2]-Build the sort fields
 		Set<SortField> sortFields = _createSortFieldsFor(filter);
 		
-		// [3]-Run the query
-		Set<Document> allDocs = _luceneIndex.searchAll(qry,sortFields);
+		// [3]-Run the query transforming every lucene document to a search result item as it's read
+		int outCount = _luceneIndex.searchAll(qry,sortFields,
+											  _storedFieldsSelectorFor(filter),
+											  new LuceneDocumentHandler() {
+														@Override
+														public void handle(final Document doc) {
+															I item = _createSearchResultItemFor(userContext,
+																								doc);// ... create the search result item
+															handler.handle(item);					 // ... and hand it
+														}
+											  });
+		return outCount;
+	}
+	/**
+	 * Returns the stored fields to be loaded from the index to create the search result items
+	 * By default the whole stored document is loaded; only the searchers that explicitly declare the indexed fields
+	 * they read ({@link SearcherMapsOnlyProjectedIndexedFields}) load just the common fields plus the projected fields
+	 * (see {@link #_projectedStoredFieldsSelectorFor(SearchFilterForModelObject, Collection)})
+	 * Sub-types can override this method to load only the fields they use:
+	 * <pre class='brush:java'>
+	 * 		@Override
+	 * 		protected LuceneStoredFieldsSelector _storedFieldsSelectorFor(final MyFilter filter) {
+	 * 			return _projectedStoredFieldsSelectorFor(filter,
+	 * 													 null);		// only the common fields
+	 * 		}
+	 * </pre>
+	 * @param filter
+	 * @return
+	 */
+	protected LuceneStoredFieldsSelector _storedFieldsSelectorFor(final F filter) {
+		if (this instanceof SearcherMapsOnlyProjectedIndexedFields
+		 && !(this instanceof SearcherCreatesResultItemFromIndexData)) return _projectedStoredFieldsSelectorFor(filter,
+																												((SearcherMapsOnlyProjectedIndexedFields<?>)this).getProjectedFieldsMetaDataIds());
+		return LuceneStoredFieldsSelector.all();
+	}
+	/**
+	 * Returns a selector of the common fields of the filtered model object types: type, oid, numeric id, entity version, language 
+	 * and summary plus the given projected fields
+	 * BEWARE! sub-types overriding {@link #_setResultItemCommonFields(SearchResultItemForModelObject,LuceneSearchResultDocument)} 
+	 * 		   using other fields MUST project them
+	 * @param filter
+	 * @param projectedFields the ids of the metadata of the other fields to be loaded (can be null)
+	 * @return the selector (all the fields if the filter does NOT set the model object types)
+	 */
+	protected LuceneStoredFieldsSelector _projectedStoredFieldsSelectorFor(final F filter,
+																		   final Collection<FieldMetaDataID> projectedFields) {
+		if (CollectionUtils.isNullOrEmpty(filter.getFilteredModelObjectTypes())) return LuceneStoredFieldsSelector.all();
 		
-		// [4] Transform lucene documents to serarch results
-		Stopwatch stopWatch = Stopwatch.createStarted();
-		Collection<I> outItems = null;
-		if (CollectionUtils.hasData(allDocs)) {
-			outItems = Sets.newLinkedHashSetWithExpectedSize(allDocs.size());
-			for (Document doc : allDocs) {
-				I item = _createSearchResultItemFor(userContext,
-													doc);// ... create the search result item
-				outItems.add(item);						 // ... put it on the list
+		Set<String> fieldIds = Sets.newHashSet();
+		fieldIds.add(ModelObjectTypeMetaData.TYPE_FIELD_ID.asString());
+		for (Class<? extends ModelObject> modelObjType : filter.getFilteredModelObjectTypes()) {
+			ModelObjectTypeMetaData modelObjectMetadata = ModelObjectTypeMetaDataBuilder.createFor(modelObjType);
+			if (modelObjectMetadata.hasFacet(HasOID.class)) fieldIds.add(modelObjectMetadata.getOIDFieldMetaData().getIndexableFieldId().asString());
+			if (modelObjectMetadata.hasFacet(HasNumericID.class)) fieldIds.add(modelObjectMetadata.getNumericIDFieldMetaData().getIndexableFieldId().asString());
+			if (modelObjectMetadata.hasFacet(HasEntityVersion.class)) fieldIds.add(modelObjectMetadata.getEntityVersionFieldMetaData().getIndexableFieldId().asString());
+			if (modelObjectMetadata.hasFacet(HasLanguage.class)) fieldIds.add(modelObjectMetadata.as(HasFieldMetaDataForHasLanguageModelObject.class)
+																									 .getLanguageFieldMetaData().getIndexableFieldId().asString());
+			if (modelObjectMetadata.hasFacet(HasSummaryFacet.class)) fieldIds.add(modelObjectMetadata.as(HasFieldsMetaDataForHasSummaryModelObject.class)
+																									 	 .getSummaryFieldMetaData().getIndexableFieldId().asString());	// summary.{lang} fields are also loaded
+			if (CollectionUtils.hasData(projectedFields)) {
+				for (FieldMetaDataID projectedField : projectedFields) {
+					FieldMetaData fieldMetaData = modelObjectMetadata.getFieldMetaDataFor(projectedField);
+					if (fieldMetaData != null) fieldIds.add(fieldMetaData.getIndexableFieldId().asString());
+				}
 			}
 		}
-		log.info("Lucene documents transformed to search result items (elapsed time: {} milis)",NumberFormat.getNumberInstance(Locale.getDefault()).format(stopWatch.elapsed(TimeUnit.MILLISECONDS)));
-		stopWatch.stop();
+		return LuceneStoredFieldsSelector.of(fieldIds);
+	}
+	/**
+	 * Returns the collector of the counts by the faceted fields of the filtered model object types
+	 * (see {@link r01f.model.metadata.FieldMetaDataSearchEngineIndexingConfig#isFaceted()})
+	 * @param filter
+	 * @return the collector or null if there's no faceted field
+	 */
+	protected LuceneFacetsCollector _facetsCollectorFor(final F filter) {
+		if (CollectionUtils.isNullOrEmpty(filter.getFilteredModelObjectTypes())) return null;
 		
-		return outItems;
+		Map<String,LuceneFacetField> facetFields = Maps.newLinkedHashMap();
+		for (Class<? extends ModelObject> modelObjType : filter.getFilteredModelObjectTypes()) {
+			facetFields.putAll(LuceneFacetField.facetFieldsOf(ModelObjectTypeMetaDataBuilder.createFor(modelObjType)));
+		}
+		return LuceneFacetsCollector.of(facetFields.values());
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  BASE QUERY BUILDING METHODS
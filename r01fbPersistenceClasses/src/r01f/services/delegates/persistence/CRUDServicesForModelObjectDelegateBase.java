@@ -1,5 +1,6 @@
 package r01f.services.delegates.persistence;
 
+import java.util.Collection;
 
 import com.google.common.eventbus.EventBus;
 
@@ -10,6 +11,7 @@ import r01f.guids.OIDIsGenerated;
 import r01f.guids.OIDs;
 import r01f.model.PersistableModelObject;
 import r01f.model.facets.SelfValidates;
+import r01f.persistence.CRUDOnMultipleResult;
 import r01f.persistence.CRUDResult;
 import r01f.persistence.CRUDResultBuilder;
 import r01f.persistence.PersistenceOperationError;
@@ -18,6 +20,7 @@ import r01f.persistence.db.DBCRUDForModelObject;
 import r01f.reflection.ReflectionUtils;
 import r01f.services.interfaces.CRUDServicesForModelObject;
 import r01f.usercontext.UserContext;
+import r01f.util.types.collections.CollectionUtils;
 import r01f.validation.ObjectValidationResult;
 
 /**
@@ -52,20 +55,25 @@ public abstract class CRUDServicesForModelObjectDelegateBase<O extends OID,M ext
 		     null);		// no event bus
 	}
 ////////////////////////////////////////////////////////////////////////////////////////
-//  LOAD | EXISTS
+//  LOAD | LOAD ALL | EXISTS
 ////////////////////////////////////////////////////////////////////////////////////////
+	@Override
 	public boolean exists(final UserContext userContext,
 						  final O oid) {
-		CRUDResult<M> loadResult = this.load(userContext,
-														oid);
-		boolean outExists = loadResult.hasSucceeded();
-		if (loadResult.hasFailed() && !loadResult.asCRUDError()		// as(CRUDError.class)
-												 .wasBecauseClientRequestedEntityWasNOTFound()) {
-			log.error("Error trying to check the existence of record with oid={}: {}",oid,
-					  loadResult.asCRUDError()	// as(CRUDError.class)
-					  		    .getPersistenceException().getMessage());
-		}
-		return outExists;
+		if (oid == null) return false;
+		// the existence is checked with an oid-only query: the entity is NOT loaded 
+		// (and no CRUD event is thrown)
+		return this.getServiceImplAs(CRUDServicesForModelObject.class)
+						.exists(userContext,
+								oid);
+	}
+	@Override
+	public boolean existsAll(final UserContext userContext,
+							 final Collection<O> oids) {
+		if (CollectionUtils.isNullOrEmpty(oids)) return true;
+		return this.getServiceImplAs(CRUDServicesForModelObject.class)
+						.existsAll(userContext,
+								   oids);
 	}
 	@Override 
 	public CRUDResult<M> load(final UserContext userContext,
@@ -90,6 +98,23 @@ public abstract class CRUDServicesForModelObjectDelegateBase<O extends OID,M ext
 		// [3] - Return
 		return outEntityLoadResult;
 	}
+	@Override
+	public CRUDOnMultipleResult<M> loadAll(final UserContext userContext,
+										   final Collection<O> oids) {
+		// [0] - check the oids
+		if (CollectionUtils.isNullOrEmpty(oids)) return CRUDResultBuilder.using(userContext)
+																		 .on(_modelObjectType)
+																		 .loadedMultiple();
+		// [1] - Load all the entities at once
+		CRUDOnMultipleResult<M> outEntitiesLoadResult = this.getServiceImplAs(CRUDServicesForModelObject.class)
+																	.loadAll(userContext,
+																			 oids);
+		// [2] - Throw CRUD events
+		_fireEvents(userContext,
+					outEntitiesLoadResult);
+		// [3] - Return
+		return outEntitiesLoadResult;
+	}
 /////////////////////////////////////////////////////////////////////////////////////////
 //  CREATE OR UPDATE
 /////////////////////////////////////////////////////////////////////////////////////////
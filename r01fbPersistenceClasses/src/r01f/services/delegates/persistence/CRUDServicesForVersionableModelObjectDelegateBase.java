@@ -5,25 +5,18 @@ import java.util.Date;
 import com.google.common.eventbus.EventBus;
 
 import lombok.extern.slf4j.Slf4j;
-import r01f.events.PersistenceOperationEvents.PersistenceOperationErrorEvent;
-import r01f.events.PersistenceOperationEvents.PersistenceOperationOKEvent;
 import r01f.guids.VersionIndependentOID;
 import r01f.model.OIDForVersionableModelObject;
 import r01f.model.PersistableModelObject;
 import r01f.model.facets.Versionable.HasVersionableFacet;
 import r01f.persistence.CRUDError;
-import r01f.persistence.CRUDOnMultipleError;
-import r01f.persistence.CRUDOnMultipleOK;
 import r01f.persistence.CRUDOnMultipleResult;
 import r01f.persistence.CRUDResult;
 import r01f.persistence.CRUDResultBuilder;
-import r01f.persistence.PersistenceOperationError;
-import r01f.persistence.PersistenceOperationOK;
 import r01f.persistence.PersistenceRequestedOperation;
 import r01f.persistence.db.DBCRUDForVersionableModelObject;
 import r01f.services.interfaces.CRUDServicesForVersionableModelObject;
 import r01f.usercontext.UserContext;
-import r01f.util.types.collections.CollectionUtils;
 
 @Slf4j
 public abstract class CRUDServicesForVersionableModelObjectDelegateBase<O extends OIDForVersionableModelObject,M extends PersistableModelObject<O> & HasVersionableFacet> 
@@ -212,44 +205,4 @@ public abstract class CRUDServicesForVersionableModelObjectDelegateBase<O extend
 		// [6] Return 
 		return activationResult;
 	}
-/////////////////////////////////////////////////////////////////////////////////////////
-//	EVENT FIRING
-/////////////////////////////////////////////////////////////////////////////////////////
-	/**
-	 * Throws an {@link EventBus} event
-	 * @param userContext
-	 * @param opResult
-	 */
-	protected void _fireEvents(final UserContext userContext,
-							   final CRUDOnMultipleResult<M> opResults) {
-		if (this.getEventBus() == null) return;		// do nothing
-		
-		log.debug("Publishing events for: {}",opResults.getClass());
-		if (opResults.hasFailed()) {
-			CRUDOnMultipleError<M> opNOK = opResults.asCRUDOnMultipleError();
-			PersistenceOperationErrorEvent errorEvent = new PersistenceOperationErrorEvent(userContext,
-												 					         	 		   opNOK);
-			this.getEventBus().post(errorEvent);
-			
-		} else if (opResults.hasSucceeded()) {
-			CRUDOnMultipleOK<M> opsPerformed = opResults.asCRUDOnMultipleOK();	
-			// Post OK results
-			if (CollectionUtils.hasData(opsPerformed.getOperationsOK())) {
-				for (PersistenceOperationOK opOk : opsPerformed.getOperationsOK()) {
-					PersistenceOperationOKEvent okEvent = new PersistenceOperationOKEvent(userContext,
-														 					      	  	  opOk);
-					this.getEventBus().post(okEvent);
-				}
-			}
-			// Post NOK results
-			if (CollectionUtils.hasData(opsPerformed.getOperationsNOK())) {
-				for (PersistenceOperationError opNOK : opsPerformed.getOperationsNOK()) {
-					PersistenceOperationErrorEvent okEvent = new PersistenceOperationErrorEvent(userContext,
-														 					      	  	  		opNOK);
-					this.getEventBus().post(okEvent);
-				}				
-			}
-			
-		} 
-	}
 }
@@ -47,6 +47,22 @@ public abstract class FindServicesForModelObjectDelegateBase<O extends OID,M ext
 		return outResults;
 	}
 	@Override
+	public FindOIDsResult<O> findAllPage(final UserContext userContext,
+										 final String cursor,final int pageSize) {
+		// [0] - check the page size
+		if (pageSize <= 0) {
+			return FindOIDsResultBuilder.using(userContext)
+										.on(_modelObjectType)
+										.errorFindingOids()
+											.causedByClientBadRequest("The page size MUST be greater than zero in order to find entities page by page");
+		}
+		// [1] - do the find
+		FindOIDsResult<O> outResults = this.getServiceImplAs(FindServicesForModelObject.class)
+												.findAllPage(userContext,
+															 cursor,pageSize);
+		return outResults;
+	}
+	@Override
 	public FindOIDsResult<O> findByCreateDate(final UserContext userContext,
 										  	  final Range<Date> createDate) {
 		// [0] - check the date
@@ -11,9 +11,15 @@ import r01f.guids.OID;
 import r01f.model.PersistableModelObject;
 import r01f.persistence.CRUDError;
 import r01f.persistence.CRUDOK;
+import r01f.persistence.CRUDOnMultipleError;
+import r01f.persistence.CRUDOnMultipleOK;
+import r01f.persistence.CRUDOnMultipleResult;
 import r01f.persistence.CRUDResult;
+import r01f.persistence.PersistenceOperationError;
+import r01f.persistence.PersistenceOperationOK;
 import r01f.services.interfaces.ServiceInterfaceForModelObject;
 import r01f.usercontext.UserContext;
+import r01f.util.types.collections.CollectionUtils;
 
 @Slf4j
 @Accessors(prefix="_")
@@ -75,4 +81,41 @@ public abstract class PersistenceServicesForModelObjectDelegateBase<O extends OI
 			
 		} 
 	}
+	/**
+	 * Throws an {@link EventBus} event
+	 * @param userContext
+	 * @param opResult
+	 */
+	protected void _fireEvents(final UserContext userContext,
+							   final CRUDOnMultipleResult<M> opResults) {
+		if (this.getEventBus() == null) return;		// do nothing
+		
+		log.debug("Publishing events for: {}",opResults.getClass());
+		if (opResults.hasFailed()) {
+			CRUDOnMultipleError<M> opNOK = opResults.asCRUDOnMultipleError();
+			PersistenceOperationErrorEvent errorEvent = new PersistenceOperationErrorEvent(userContext,
+												 					         	 		   opNOK);
+			this.getEventBus().post(errorEvent);
+			
+		} else if (opResults.hasSucceeded()) {
+			CRUDOnMultipleOK<M> opsPerformed = opResults.asCRUDOnMultipleOK();	
+			// Post OK results
+			if (CollectionUtils.hasData(opsPerformed.getOperationsOK())) {
+				for (PersistenceOperationOK opOk : opsPerformed.getOperationsOK()) {
+					PersistenceOperationOKEvent okEvent = new PersistenceOperationOKEvent(userContext,
+														 					      	  	  opOk);
+					this.getEventBus().post(okEvent);
+				}
+			}
+			// Post NOK results
+			if (CollectionUtils.hasData(opsPerformed.getOperationsNOK())) {
+				for (PersistenceOperationError opNOK : opsPerformed.getOperationsNOK()) {
+					PersistenceOperationErrorEvent okEvent = new PersistenceOperationErrorEvent(userContext,
+														 					      	  	  		opNOK);
+					this.getEventBus().post(okEvent);
+				}				
+			}
+			
+		} 
+	}
 }
@@ -1,5 +1,7 @@
 package r01f.services.persistence;
 
+import java.util.Collection;
+
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -9,6 +11,7 @@ import com.google.inject.persist.Transactional;
 import lombok.experimental.Accessors;
 import r01f.guids.OID;
 import r01f.model.PersistableModelObject;
+import r01f.persistence.CRUDOnMultipleResult;
 import r01f.persistence.CRUDResult;
 import r01f.services.interfaces.CRUDServicesForModelObject;
 import r01f.usercontext.UserContext;
@@ -65,6 +68,30 @@ public abstract class CoreCRUDServiceForModelObjectBase<O extends OID,M extends
 	}
 	@Transactional
 	@Override 
+	public CRUDOnMultipleResult<M> loadAll(final UserContext userContext,
+										   final Collection<O> oids) {
+		return this.createDelegateAs(CRUDServicesForModelObject.class)
+						.loadAll(userContext,
+								 oids);
+	}
+	@Transactional
+	@Override 
+	public boolean exists(final UserContext userContext,
+						  final O oid) {
+		return this.createDelegateAs(CRUDServicesForModelObject.class)
+						.exists(userContext,
+								oid);
+	}
+	@Transactional
+	@Override 
+	public boolean existsAll(final UserContext userContext,
+							 final Collection<O> oids) {
+		return this.createDelegateAs(CRUDServicesForModelObject.class)
+						.existsAll(userContext,
+								   oids);
+	}
+	@Transactional
+	@Override 
 	public CRUDResult<M> create(final UserContext userContext, 
 								final M record) {
 		return this.createDelegateAs(CRUDServicesForModelObject.class)
@@ -61,6 +61,13 @@ public abstract class CoreFindServiceForModelObjectBase<O extends OID,M extends
 		return this.createDelegateAs(FindServicesForModelObject.class)
 						.findAll(userContext);
 	}
+	@Override 
+	public FindOIDsResult<O> findAllPage(final UserContext userContext,
+										 final String cursor,final int pageSize) {
+		return this.createDelegateAs(FindServicesForModelObject.class)
+						.findAllPage(userContext,
+									 cursor,pageSize);
+	}
 	@Override
 	public FindOIDsResult<O> findByCreateDate(final UserContext userContext,
 											  final Range<Date> createDate) {
@@ -8,6 +8,7 @@ import r01f.model.IndexableModelObject;
 import r01f.model.ModelObject;
 import r01f.model.PersistableModelObject;
 import r01f.model.jobs.EnqueuedJob;
+import r01f.persistence.index.IndexBatchResult;
 import r01f.persistence.index.Indexer;
 import r01f.services.interfaces.CRUDServicesForModelObject;
 import r01f.services.interfaces.FindServicesForModelObject;
@@ -134,4 +135,28 @@ public abstract class CoreIndexServicesForModelObjectBase<O extends OID,M extend
 		return this.createDelegateAs(IndexServicesForModelObject.class)
 								.reIndexAll(userContext);
 	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BATCH
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public IndexBatchResult indexBatch(final UserContext userContext,
+									   final Collection<M> modelObjects) {
+		return this.createDelegateAs(IndexServicesForModelObject.class)
+								.indexBatch(userContext,
+											modelObjects);
+	}
+	@Override
+	public IndexBatchResult updateIndexBatch(final UserContext userContext,
+											 final Collection<M> modelObjects) {
+		return this.createDelegateAs(IndexServicesForModelObject.class)
+								.updateIndexBatch(userContext,
+												  modelObjects);
+	}
+	@Override
+	public IndexBatchResult removeFromIndexBatch(final UserContext userContext,
+												 final Collection<O> oids) {
+		return this.createDelegateAs(IndexServicesForModelObject.class)
+								.removeFromIndexBatch(userContext,
+													  oids);
+	}
 }
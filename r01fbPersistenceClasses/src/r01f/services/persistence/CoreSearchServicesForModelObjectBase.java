@@ -9,6 +9,7 @@ import lombok.experimental.Accessors;
 import r01f.guids.OID;
 import r01f.model.search.SearchFilter;
 import r01f.model.search.SearchResultItem;
+import r01f.model.search.SearchResultItemsHandler;
 import r01f.model.search.SearchResults;
 import r01f.persistence.search.HasSearcher;
 import r01f.persistence.search.Searcher;
@@ -65,5 +66,23 @@ public abstract class CoreSearchServicesForModelObjectBase<F extends SearchFilte
 									   filter,
 									   firstRowNum,numberOfRows);
 	}
+	@Override
+	public SearchResults<F,I> filterRecords(final UserContext userContext,
+	                    		 			final F filter,
+	                    		 			final String cursor,final int numberOfRows) {
+		return  this.createDelegateAs(SearchServices.class)
+						.filterRecords(userContext, 
+									   filter,
+									   cursor,numberOfRows);
+	}
+	@Override
+	public int filterRecords(final UserContext userContext,
+	                    	 final F filter,
+	                    	 final SearchResultItemsHandler<I> handler) {
+		return  this.createDelegateAs(SearchServices.class)
+						.filterRecords(userContext, 
+									   filter,
+									   handler);
+	}
 
-}
+}
\ No newline at end of file
@@ -11,6 +11,7 @@ import r01f.model.IndexableModelObject;
 import r01f.model.jobs.EnqueuedJob;
 import r01f.model.jobs.EnqueuedJobStatus;
 import r01f.model.jobs.SuppliesJobOID;
+import r01f.persistence.index.IndexBatchResult;
 import r01f.persistence.index.Indexer;
 import r01f.services.interfaces.CRUDServicesForModelObject;
 import r01f.services.interfaces.FindServicesForModelObject;
@@ -110,6 +111,33 @@ public abstract class IndexServicesForModelObjectDelegateBase<O extends OID,M ex
 						   IndexOperation.REINDEX);
 	}
 /////////////////////////////////////////////////////////////////////////////////////////
+//  BATCH
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Override
+	public IndexBatchResult indexBatch(final UserContext userContext,
+									   final Collection<M> modelObjects) {
+		IndexBatchResult outResult = _indexer.indexBatch(userContext,
+														 modelObjects);
+		outResult.setOid(this.supplyJobOID());
+		return outResult;
+	}
+	@Override
+	public IndexBatchResult updateIndexBatch(final UserContext userContext,
+											 final Collection<M> modelObjects) {
+		IndexBatchResult outResult = _indexer.updateIndexBatch(userContext,
+															   modelObjects);
+		outResult.setOid(this.supplyJobOID());
+		return outResult;
+	}
+	@Override
+	public IndexBatchResult removeFromIndexBatch(final UserContext userContext,
+												 final Collection<O> oids) {
+		IndexBatchResult outResult = _indexer.removeFromIndexBatch(userContext,
+																   oids);
+		outResult.setOid(this.supplyJobOID());
+		return outResult;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
 //  
 /////////////////////////////////////////////////////////////////////////////////////////
 	protected EnqueuedJob _processOne(final UserContext userContext,
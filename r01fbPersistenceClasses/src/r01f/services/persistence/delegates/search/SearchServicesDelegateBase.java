@@ -13,6 +13,7 @@ import r01f.model.PersistableModelObject;
 import r01f.model.search.SearchFilter;
 import r01f.model.search.SearchResultItem;
 import r01f.model.search.SearchResultItemForModelObject;
+import r01f.model.search.SearchResultItemsHandler;
 import r01f.model.search.SearchResults;
 import r01f.model.search.SearchResultsProvider;
 import r01f.persistence.search.SearchResultsLoaders.SearchResultsLoader;
@@ -105,8 +106,61 @@ public abstract class SearchServicesDelegateBase<F extends SearchFilter,I extend
     	SearchResults<F,I> outSearchResults = new SearchResults<F,I>(filter,
     										   	    				 count,effFirstRowNum,
     										   	    				 items);
+    	if (results != null) outSearchResults.setFacets(results.getFacets());
     	return outSearchResults;
 	}
+	/**
+	 * Returns a {@link SearchResults} structure that encapsulates the {@link SearchFilter} 
+	 * and the {@link Collection} of {@link SearchResultItemForModelObject}s paging with a cursor
+	 * (see {@link SearchResults#getNextPageCursor()})
+	 * @param userContext
+	 * @param filter
+	 * @param cursor the cursor returned alongside the previous page or null for the first page
+	 * @param numberOfRows
+	 * @return
+	 */
+	public SearchResults<F,I> filterRecords(final UserContext userContext, 
+							         	 	final F filter,
+							         	 	final String cursor,final int numberOfRows) {
+		// Validate the filer
+		_validateSearchFilter(userContext,
+							  filter);
+		
+    	int effNumberOfRows = numberOfRows <= 0 ? SearchResults.defaultPageSize() 
+    											: numberOfRows;
+		SearchResults<F,I> results = _searcher.filterRecords(userContext,
+															 filter,
+														     cursor,effNumberOfRows);
+		SearchResults<F,I> outSearchResults = new SearchResults<F,I>(filter,
+    										   	    				 results != null ? results.getTotalItemsCount() : 0,
+    										   	    				 results != null ? results.getStartPosition() : 0,
+    										   	    				 results != null ? results.getPageItems() : null);
+		if (results != null) {
+			outSearchResults.setNextPageCursor(results.getNextPageCursor());
+			outSearchResults.setFacets(results.getFacets());
+		}
+    	return outSearchResults;
+	}
+	/**
+	 * Hands every item that verify the filter conditions to the handler as it's got from the searcher
+	 * so the whole result set is NEVER kept in memory
+	 * @param userContext
+	 * @param filter
+	 * @param handler
+	 * @return the number of handled items
+	 */
+	public int filterRecords(final UserContext userContext, 
+							 final F filter,
+							 final SearchResultItemsHandler<I> handler) {
+		// Validate the filer
+		_validateSearchFilter(userContext,
+							  filter);
+		
+		int outCount = _searcher.filterRecords(userContext,
+											   filter,
+											   handler);
+		return outCount;
+	}
 	/**
 	 * Returns all oids for the records that verify the filter condition
 	 * @param userContext
@@ -0,0 +1,48 @@
+package r01f.bundles;
+
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ResourceBundleMessageTemplateTest {
+	@Test
+	public void formatIsTheSameAsMessageFormatTest() {
+		_assertSameAsMessageFormat("Hello {0}, you have {1} messages","Bob",12345);
+		_assertSameAsMessageFormat("{1}{0}{2}",new Date(0),null,"z");
+		_assertSameAsMessageFormat("a}b {0}",1.5);
+		_assertSameAsMessageFormat("missing {3} param","a");
+		_assertSameAsMessageFormat("no params","a");
+		_assertSameAsMessageFormat("it''s {0}","quoted");
+		_assertSameAsMessageFormat("{0,number,#.##} formatted",3.14159);
+	}
+	@Test(expected=IllegalArgumentException.class)
+	public void invalidPatternThrowsWhenFormattedTest() {
+		ResourceBundleMessageTemplate.compile("{ 0}")
+									 .format("a");
+	}
+	@Test
+	public void messagesWithKeysStartingWithTest() {
+		Map<String,String> messages = new HashMap<String,String>();
+		messages.put("my.one","One");
+		messages.put("my.two","Two");
+		messages.put("mz","Z");
+		messages.put("yours.one","Your One");
+		ResourceBundleSnapshot snapshot = new ResourceBundleSnapshot(messages);
+
+		Map<String,String> myMessages = snapshot.getMessagesWithKeysStartingWith("my.");
+		Assert.assertEquals(2,myMessages.size());
+		Assert.assertEquals("One",myMessages.get("my.one"));
+		Assert.assertEquals("Two",myMessages.get("my.two"));
+		Assert.assertEquals(3,snapshot.getMessagesWithKeysStartingWith("m").size());
+		Assert.assertTrue(snapshot.getMessagesWithKeysStartingWith("z").isEmpty());
+		Assert.assertEquals("Your One",snapshot.getString("yours.one"));
+	}
+	private static void _assertSameAsMessageFormat(final String pattern,final Object... params) {
+		Assert.assertEquals(MessageFormat.format(pattern,params),
+							ResourceBundleMessageTemplate.compile(pattern).format(params));
+	}
+}
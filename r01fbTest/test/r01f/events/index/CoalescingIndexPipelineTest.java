@@ -0,0 +1,358 @@
+package r01f.events.index;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import r01f.guids.CommonOIDs.UserCode;
+import r01f.guids.OIDBaseMutable;
+import r01f.model.IndexableModelObject;
+import r01f.persistence.index.IndexBatchResult;
+import r01f.persistence.index.IndexBatchResult.IndexBatchOperation;
+import r01f.services.interfaces.IndexServicesForModelObject;
+import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextBase;
+
+/**
+ * Checks the {@link CoalescingIndexPipeline}:
+ * <ul>
+ * 		<li>the pending operation of an oid is coalesced with the next ones as the coalescing table says</li>
+ * 		<li>the batches are run with the user context of their operations</li>
+ * 		<li>the operations of a failed batch are retried up to max retries</li>
+ * 		<li>closing the pipeline flushes the pending operations</li>
+ * </ul>
+ * The max delay is long enough for the pending operations to be flushed only when the test calls flush()
+ */
+public class CoalescingIndexPipelineTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SET UP
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final long MAX_DELAY_MILLIS = 60000;
+	private static final UserContext USER_CONTEXT = new TestUserContext("user");
+
+	private CoalescingIndexPipeline<TestOID,IndexableModelObject> _pipeline;
+
+	@After
+	public void tearDown() {
+		if (_pipeline != null) _pipeline.close();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void coalescingTableTest() {
+		RecordingIndexServices indexServices = new RecordingIndexServices();
+		_pipeline = _createPipeline(indexServices,
+									CoalescingIndexPipeline.DEFAULT_MAX_RETRIES);
+		IndexableModelObject a1 = _modelObject("a1"), a2 = _modelObject("a2");
+		IndexableModelObject b1 = _modelObject("b1");
+		IndexableModelObject c1 = _modelObject("c1"), c2 = _modelObject("c2");
+		IndexableModelObject d1 = _modelObject("d1");
+		IndexableModelObject e1 = _modelObject("e1");
+		IndexableModelObject f1 = _modelObject("f1");
+
+		_pipeline.created(USER_CONTEXT,_oid("a"),a1);		// INDEX + UPDATE = INDEX (the last object)
+		_pipeline.updated(USER_CONTEXT,_oid("a"),a2);
+		_pipeline.created(USER_CONTEXT,_oid("b"),b1);		// INDEX + DELETE = DELETE
+		_pipeline.deleted(USER_CONTEXT,_oid("b"));
+		_pipeline.updated(USER_CONTEXT,_oid("c"),c1);		// UPDATE + UPDATE = UPDATE (the last object)
+		_pipeline.updated(USER_CONTEXT,_oid("c"),c2);
+		_pipeline.updated(USER_CONTEXT,_oid("d"),d1);		// UPDATE + DELETE = DELETE
+		_pipeline.deleted(USER_CONTEXT,_oid("d"));
+		_pipeline.deleted(USER_CONTEXT,_oid("e"));			// DELETE + UPDATE = DELETE
+		_pipeline.updated(USER_CONTEXT,_oid("e"),e1);
+		_pipeline.deleted(USER_CONTEXT,_oid("f"));			// DELETE + INDEX = UPDATE
+		_pipeline.created(USER_CONTEXT,_oid("f"),f1);
+
+		Assert.assertEquals(6,_pipeline.getPendingCount());
+		Assert.assertTrue(indexServices.getCalls().isEmpty());		// nothing is run until the flush
+
+		_pipeline.flush();
+
+		Assert.assertEquals(3,indexServices.getCalls().size());
+		indexServices.assertCall(0,IndexBatchOperation.UNINDEX,USER_CONTEXT,_oid("b"),_oid("d"),_oid("e"));
+		indexServices.assertCall(1,IndexBatchOperation.INDEX,USER_CONTEXT,a2);
+		indexServices.assertCall(2,IndexBatchOperation.UPDATE_INDEX,USER_CONTEXT,c2,f1);
+
+		Assert.assertEquals(0,_pipeline.getPendingCount());
+		Assert.assertEquals(12,_pipeline.getEventCount());
+		Assert.assertEquals(6,_pipeline.getFlushedOpCount());
+		Assert.assertEquals(6,_pipeline.getCoalescedCount());
+	}
+	@Test
+	public void batchesByUserContextTest() {
+		RecordingIndexServices indexServices = new RecordingIndexServices();
+		_pipeline = _createPipeline(indexServices,
+									CoalescingIndexPipeline.DEFAULT_MAX_RETRIES);
+		UserContext user1 = new TestUserContext("user1");
+		UserContext user1Again = new TestUserContext("user1");		// another instance for the same user
+		UserContext user2 = new TestUserContext("user2");
+		IndexableModelObject a = _modelObject("a");
+		IndexableModelObject b = _modelObject("b");
+		IndexableModelObject c = _modelObject("c");
+
+		_pipeline.created(user1,_oid("a"),a);
+		_pipeline.created(user2,_oid("b"),b);
+		_pipeline.created(user1Again,_oid("c"),c);
+		_pipeline.flush();
+
+		Assert.assertEquals(2,indexServices.getCalls().size());
+		indexServices.assertCall(0,IndexBatchOperation.INDEX,user1Again,a,c);
+		indexServices.assertCall(1,IndexBatchOperation.INDEX,user2,b);
+	}
+	@Test
+	public void failedBatchIsRetriedTest() {
+		RecordingIndexServices indexServices = new RecordingIndexServices();
+		_pipeline = _createPipeline(indexServices,
+									CoalescingIndexPipeline.DEFAULT_MAX_RETRIES);
+		IndexableModelObject a = _modelObject("a");
+		IndexableModelObject b1 = _modelObject("b1"), b2 = _modelObject("b2");
+
+		// the INDEX batch throws: it's retried as an UPDATE (the batch could have been partially run)
+		indexServices.failNext(1);
+		_pipeline.created(USER_CONTEXT,_oid("a"),a);
+		_pipeline.created(USER_CONTEXT,_oid("b"),b1);
+		_pipeline.flush();
+
+		Assert.assertEquals(2,_pipeline.getPendingCount());
+		Assert.assertEquals(2,_pipeline.getRetriedOpCount());
+		Assert.assertEquals(0,_pipeline.getFlushedOpCount());
+
+		// b changes before the retry: the retried operation is coalesced with the new one
+		_pipeline.updated(USER_CONTEXT,_oid("b"),b2);
+		_pipeline.flush();
+
+		Assert.assertEquals(2,indexServices.getCalls().size());
+		indexServices.assertCall(0,IndexBatchOperation.INDEX,USER_CONTEXT,a,b1);
+		indexServices.assertCall(1,IndexBatchOperation.UPDATE_INDEX,USER_CONTEXT,a,b2);
+		Assert.assertEquals(0,_pipeline.getPendingCount());
+		Assert.assertEquals(2,_pipeline.getFlushedOpCount());
+		Assert.assertEquals(0,_pipeline.getFailedOpCount());
+	}
+	@Test
+	public void operationReceivedWhileItsBatchFailsIsNotFlushedAheadTest() {
+		RecordingIndexServices indexServices = new RecordingIndexServices();
+		_pipeline = _createPipeline(indexServices,
+									CoalescingIndexPipeline.DEFAULT_MAX_RETRIES);
+		final IndexableModelObject a1 = _modelObject("a1");
+		final IndexableModelObject b1 = _modelObject("b1");
+
+		// a is deleted while the batch with its update is failing
+		indexServices.failNext(1);
+		indexServices.whileFailing(new Runnable() {
+											@Override
+											public void run() {
+												_pipeline.deleted(USER_CONTEXT,_oid("a"));
+												_pipeline.updated(USER_CONTEXT,_oid("b"),b1);
+											}
+								   });
+		_pipeline.updated(USER_CONTEXT,_oid("a"),a1);
+		_pipeline.flush();
+
+		// the delete is coalesced with the retried update (it's NOT flushed ahead of it)
+		// ... but the operations of other oids received meanwhile are flushed
+		Assert.assertEquals(2,indexServices.getCalls().size());
+		indexServices.assertCall(0,IndexBatchOperation.UPDATE_INDEX,USER_CONTEXT,a1);
+		indexServices.assertCall(1,IndexBatchOperation.UPDATE_INDEX,USER_CONTEXT,b1);
+		Assert.assertEquals(1,_pipeline.getPendingCount());
+
+		_pipeline.flush();
+		Assert.assertEquals(3,indexServices.getCalls().size());
+		indexServices.assertCall(2,IndexBatchOperation.UNINDEX,USER_CONTEXT,_oid("a"));
+
+		// the stale update is NOT replayed
+		_pipeline.flush();
+		Assert.assertEquals(3,indexServices.getCalls().size());
+		Assert.assertEquals(0,_pipeline.getPendingCount());
+	}
+	@Test
+	public void partiallyFailedBatchIsRetriedTest() {
+		RecordingIndexServices indexServices = new RecordingIndexServices();
+		_pipeline = _createPipeline(indexServices,
+									CoalescingIndexPipeline.DEFAULT_MAX_RETRIES);
+		IndexableModelObject a = _modelObject("a");
+		IndexableModelObject b = _modelObject("b");
+
+		// one of the docs of the batch fails
+		indexServices.failDocsOfNext(1);
+		_pipeline.updated(USER_CONTEXT,_oid("a"),a);
+		_pipeline.updated(USER_CONTEXT,_oid("b"),b);
+		_pipeline.flush();
+		Assert.assertEquals(2,_pipeline.getPendingCount());
+
+		_pipeline.flush();
+		Assert.assertEquals(2,indexServices.getCalls().size());
+		indexServices.assertCall(1,IndexBatchOperation.UPDATE_INDEX,USER_CONTEXT,a,b);
+		Assert.assertEquals(0,_pipeline.getPendingCount());
+	}
+	@Test
+	public void discardedAfterMaxRetriesTest() {
+		RecordingIndexServices indexServices = new RecordingIndexServices();
+		_pipeline = _createPipeline(indexServices,
+									2);		// max retries
+		indexServices.failNext(Integer.MAX_VALUE);
+		_pipeline.deleted(USER_CONTEXT,_oid("a"));
+
+		_pipeline.flush();		// fails: retry 1
+		_pipeline.flush();		// fails: retry 2
+		Assert.assertEquals(1,_pipeline.getPendingCount());
+		_pipeline.flush();		// fails: discarded
+
+		Assert.assertEquals(3,indexServices.getCalls().size());
+		Assert.assertEquals(0,_pipeline.getPendingCount());
+		Assert.assertEquals(2,_pipeline.getRetriedOpCount());
+		Assert.assertEquals(1,_pipeline.getFailedOpCount());
+		Assert.assertEquals(0,_pipeline.getFlushedOpCount());
+		Assert.assertEquals(0,_pipeline.getCoalescedCount());
+	}
+	@Test
+	public void closeFlushesTheOperationsTest() {
+		RecordingIndexServices indexServices = new RecordingIndexServices();
+		_pipeline = _createPipeline(indexServices,
+									CoalescingIndexPipeline.DEFAULT_MAX_RETRIES);
+		IndexableModelObject a = _modelObject("a");
+		IndexableModelObject b = _modelObject("b");
+
+		// the first attempt fails: the operation is retried while closing
+		indexServices.failNext(1);
+		_pipeline.created(USER_CONTEXT,_oid("a"),a);
+		_pipeline.close();
+
+		Assert.assertTrue(_pipeline.isClosed());
+		Assert.assertEquals(0,_pipeline.getPendingCount());
+		Assert.assertEquals(2,indexServices.getCalls().size());
+		indexServices.assertCall(1,IndexBatchOperation.UPDATE_INDEX,USER_CONTEXT,a);
+
+		// once closed the operations are flushed at once
+		_pipeline.created(USER_CONTEXT,_oid("b"),b);
+		Assert.assertEquals(0,_pipeline.getPendingCount());
+		indexServices.assertCall(2,IndexBatchOperation.INDEX,USER_CONTEXT,b);
+
+		_pipeline.close();		// closing twice does nothing
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static CoalescingIndexPipeline<TestOID,IndexableModelObject> _createPipeline(final RecordingIndexServices indexServices,
+																						  final int maxRetries) {
+		return CoalescingIndexPipeline.create(IndexableModelObject.class,
+											  indexServices.asIndexServices(),
+											  1000,MAX_DELAY_MILLIS,
+											  maxRetries);
+	}
+	private static TestOID _oid(final String id) {
+		return new TestOID(id);
+	}
+	/**
+	 * The pipeline does NOT look into the model objects: a proxy is enough
+	 */
+	private static IndexableModelObject _modelObject(final String name) {
+		return (IndexableModelObject)Proxy.newProxyInstance(CoalescingIndexPipelineTest.class.getClassLoader(),
+															new Class<?>[] { IndexableModelObject.class },
+															new InvocationHandler() {
+																	@Override
+																	public Object invoke(final Object proxy,
+																						 final Method method,final Object[] args) {
+																		if (method.getName().equals("equals")) return proxy == args[0];
+																		if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+																		if (method.getName().equals("toString")) return name;
+																		throw new UnsupportedOperationException(method.getName());
+																	}
+															});
+	}
+	/**
+	 * Records the batches the pipeline runs (optionally failing them)
+	 */
+	private static class RecordingIndexServices
+			  implements InvocationHandler {
+		private final List<Object[]> _calls = Lists.newArrayList();	// [operation,userContext,items]
+		private int _failNext = 0;
+		private int _failDocsOfNext = 0;
+		private Runnable _whileFailing;
+
+		@SuppressWarnings("unchecked")
+		IndexServicesForModelObject<TestOID,IndexableModelObject> asIndexServices() {
+			return (IndexServicesForModelObject<TestOID,IndexableModelObject>)Proxy.newProxyInstance(CoalescingIndexPipelineTest.class.getClassLoader(),
+																									  new Class<?>[] { IndexServicesForModelObject.class },
+																									  this);
+		}
+		void failNext(final int times) {
+			_failNext = times;
+		}
+		void whileFailing(final Runnable whileFailing) {
+			_whileFailing = whileFailing;
+		}
+		void failDocsOfNext(final int times) {
+			_failDocsOfNext = times;
+		}
+		List<Object[]> getCalls() {
+			return _calls;
+		}
+		void assertCall(final int index,
+						final IndexBatchOperation op,final UserContext userContext,final Object... items) {
+			Object[] call = _calls.get(index);
+			Assert.assertEquals(op,call[0]);
+			Assert.assertSame(userContext,call[1]);
+			Assert.assertEquals(Arrays.asList(items),call[2]);
+		}
+		@Override
+		public Object invoke(final Object proxy,
+							 final Method method,final Object[] args) {
+			IndexBatchOperation op = null;
+			if (method.getName().equals("indexBatch")) {
+				op = IndexBatchOperation.INDEX;
+			} else if (method.getName().equals("updateIndexBatch")) {
+				op = IndexBatchOperation.UPDATE_INDEX;
+			} else if (method.getName().equals("removeFromIndexBatch")) {
+				op = IndexBatchOperation.UNINDEX;
+			} else {
+				throw new UnsupportedOperationException(method.getName());
+			}
+			Collection<?> items = (Collection<?>)args[1];
+			_calls.add(new Object[] { op,args[0],Lists.newArrayList(items) });
+			if (_failNext > 0) {
+				_failNext--;
+				if (_whileFailing != null) {
+					Runnable whileFailing = _whileFailing;
+					_whileFailing = null;
+					whileFailing.run();
+				}
+				throw new IllegalStateException("index NOT available");
+			}
+			int failedDocs = 0;
+			if (_failDocsOfNext > 0) {
+				_failDocsOfNext--;
+				failedDocs = 1;
+			}
+			return new IndexBatchResult(null,
+										op,
+										items.size(),items.size() - failedDocs,failedDocs,
+										0);
+		}
+	}
+	private static class TestOID
+	     		 extends OIDBaseMutable<String> {
+		private static final long serialVersionUID = 3911256375862367155L;
+
+		TestOID(final String id) {
+			super(id);
+		}
+	}
+	private static class TestUserContext
+	     		 extends UserContextBase {
+		private static final long serialVersionUID = -2455061375096420313L;
+
+		TestUserContext(final String user) {
+			super(UserCode.forId(user));
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package r01f.guid;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import r01f.guids.CommonOIDs.AppCode;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Generates guids from many threads with a tiny LOW key (256 LOW values for every HIGH value) so the
+ * HIGH value rolls over many times while the threads are generating guids and checks that NO guid is repeated
+ */
+public class HighLowBlockGUIDDispenserTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CONSTANTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final int THREADS = 8;
+	private static final int GUIDS_PER_THREAD = 20000;
+	private static final String UNIQUE_ID = "lc";
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void uniqueGUIDsAcrossHighRolloversTest() throws Exception {
+		CountingHighLowGUIDPersist persist = new CountingHighLowGUIDPersist(0);
+		_checkUniqueGUIDs(new HighLowBlockGUIDDispenser(_dispenserDef("8"),
+														_persistFactories(persist)),
+						  persist);
+	}
+	@Test
+	public void uniqueGUIDsAcrossSlowHighRolloversTest() throws Exception {
+		// the HIGH value update takes a while so the threads exhaust the current HIGH before the next one is reserved
+		CountingHighLowGUIDPersist persist = new CountingHighLowGUIDPersist(1);
+		_checkUniqueGUIDs(new HighLowBlockGUIDDispenser(_dispenserDef("8"),
+														_persistFactories(persist)),
+						  persist);
+	}
+	@Test
+	public void uniqueGUIDsWithBlocksNotDividingTheLowSpaceTest() throws Exception {
+		// 256 LOW values are NOT a multiple of the thread block size: the last block of every HIGH is shorter
+		CountingHighLowGUIDPersist persist = new CountingHighLowGUIDPersist(0);
+		_checkUniqueGUIDs(new HighLowBlockGUIDDispenser(_dispenserDef("7"),
+														_persistFactories(persist)),
+						  persist);
+	}
+	@Test
+	public void failedPrefetchIsRetriedSynchronouslyTest() throws Exception {
+		// the first HIGH prefetch fails (the 1st update is the constructor's one)
+		CountingHighLowGUIDPersist persist = new CountingHighLowGUIDPersist(0,
+																			2);
+		_checkUniqueGUIDs(new HighLowBlockGUIDDispenser(_dispenserDef("8"),
+														_persistFactories(persist)),
+						  persist);
+	}
+	@Test
+	public void failedPrefetchAndRetryIsRetriedAgainTest() {
+		// the first HIGH prefetch AND its synchronous retry fail
+		CountingHighLowGUIDPersist persist = new CountingHighLowGUIDPersist(0,
+																			2,3);
+		GUIDDispenser dispenser = new HighLowBlockGUIDDispenser(_dispenserDef("8"),
+																_persistFactories(persist));
+		Set<String> guids = Sets.newHashSet();
+		int failures = 0;
+		for (int i = 0; i < 1000; i++) {
+			try {
+				Assert.assertTrue(guids.add(dispenser.generateGUID()));
+			} catch(IllegalStateException illStateEx) {
+				failures++;
+			}
+		}
+		// only the guid requested while the retry failed is NOT generated
+		Assert.assertEquals(1,failures);
+		Assert.assertEquals(999,guids.size());
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static void _checkUniqueGUIDs(final GUIDDispenser dispenser,
+										  final CountingHighLowGUIDPersist persist) throws Exception {
+		final Set<String> guids = Sets.newSetFromMap(new ConcurrentHashMap<String,Boolean>(THREADS * GUIDS_PER_THREAD));
+		final CountDownLatch startGate = new CountDownLatch(1);
+		ExecutorService exec = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Integer>> repeated = Lists.newArrayListWithExpectedSize(THREADS);
+			for (int t = 0; t < THREADS; t++) {
+				repeated.add(exec.submit(new Callable<Integer>() {
+												@Override
+												public Integer call() throws Exception {
+													startGate.await();
+													int outRepeated = 0;
+													for (int i = 0; i < GUIDS_PER_THREAD; i++) {
+														String guid = dispenser.generateGUID();
+														Assert.assertTrue(guid.endsWith(UNIQUE_ID));
+														if (!guids.add(guid)) outRepeated++;
+													}
+													return outRepeated;
+												}
+										 }));
+			}
+			startGate.countDown();
+			int totalRepeated = 0;
+			for (Future<Integer> f : repeated) totalRepeated += f.get(60,TimeUnit.SECONDS);
+
+			Assert.assertEquals(0,totalRepeated);
+			Assert.assertEquals(THREADS * GUIDS_PER_THREAD,guids.size());
+			// every HIGH has at most 255 LOW values: the HIGH rolled over many times
+			Assert.assertTrue(persist.getUpdates() >= (THREADS * GUIDS_PER_THREAD) / 255);
+		} finally {
+			exec.shutdownNow();
+		}
+	}
+	private static GUIDDispenserDef _dispenserDef(final String threadBlockSize) {
+		Properties props = new Properties();
+		props.put("highKeyBytes","8");
+		props.put("lowKeyBytes","1");			// 256 guids for every HIGH
+		props.put("threadBlockSize",threadBlockSize);
+		props.put("persistenceBindingId","countingHighKeyPersist");
+		return new GUIDDispenserDef(AppCode.forId("r01fb"),"test",UNIQUE_ID,
+									20,
+									"highLowBlockGUIDDispenser",
+									props);
+	}
+	private static Map<String,HighLowGUIDPersist> _persistFactories(final HighLowGUIDPersist persist) {
+		return ImmutableMap.<String,HighLowGUIDPersist>of("countingHighKeyPersist",persist);
+	}
+	/**
+	 * Counts the HIGH key updates (optionally emulating a db round-trip or failing some updates)
+	 */
+	private static class CountingHighLowGUIDPersist
+		         extends HighLowMemoryGUIDPersist {
+		private final long _updateMillis;
+		private final Set<Integer> _failingUpdates;
+		private final AtomicInteger _updates = new AtomicInteger(0);
+
+		CountingHighLowGUIDPersist(final long updateMillis,
+								   final Integer... failingUpdates) {
+			_updateMillis = updateMillis;
+			_failingUpdates = Sets.newHashSet(failingUpdates);
+		}
+		@Override
+		public boolean updateGUID(final GUIDDispenserDef dispDef,
+								  final HighLowKey highKey) {
+			int update = _updates.incrementAndGet();
+			if (_failingUpdates.contains(update)) throw new IllegalStateException("HIGH key update " + update + " failed");
+			if (_updateMillis > 0) {
+				try {
+					Thread.sleep(_updateMillis);
+				} catch (InterruptedException intEx) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return super.updateGUID(dispDef,highKey);
+		}
+		int getUpdates() {
+			return _updates.get();
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package r01f.guid;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import r01f.guids.CommonOIDs.AppCode;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Compares the {@link HighLowGUIDDispenser} (synchronized) with the {@link HighLowBlockGUIDDispenser} (lock-free)
+ * under concurrent guid generation
+ * The HIGH key persistence emulates a db round-trip and the LOW key is small so the HIGH rolls over frequently
+ * Run with:
+ * <pre>
+ * 		java -cp ... r01f.guid.HighLowGUIDDispenserBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3,time=2,timeUnit=TimeUnit.SECONDS)
+@Measurement(iterations=5,time=2,timeUnit=TimeUnit.SECONDS)
+@Threads(8)
+@Fork(1)
+public class HighLowGUIDDispenserBenchmark {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  STATE
+/////////////////////////////////////////////////////////////////////////////////////////
+	private GUIDDispenser _highLowDispenser;
+	private GUIDDispenser _highLowBlockDispenser;
+
+	@Setup
+	public void setUp() {
+		_highLowDispenser = new HighLowGUIDDispenser(_dispenserDef("highLowGUIDDispenser"),
+													 _persistFactories());
+		_highLowBlockDispenser = new HighLowBlockGUIDDispenser(_dispenserDef("highLowBlockGUIDDispenser"),
+															   _persistFactories());
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BENCHMARKS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Benchmark
+	public String highLowGUIDDispenser() {
+		return _highLowDispenser.generateGUID();
+	}
+	@Benchmark
+	public String highLowBlockGUIDDispenser() {
+		return _highLowBlockDispenser.generateGUID();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static void main(final String[] args) throws RunnerException {
+		Options opts = new OptionsBuilder().include(HighLowGUIDDispenserBenchmark.class.getSimpleName())
+										   .build();
+		new Runner(opts).run();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static GUIDDispenserDef _dispenserDef(final String factoryBindingId) {
+		Properties props = new Properties();
+		props.put("highKeyBytes","8");
+		props.put("lowKeyBytes","2");			// 65536 guids for every HIGH: the HIGH rolls over frequently
+		props.put("persistenceBindingId","slowHighKeyPersist");
+		return new GUIDDispenserDef(AppCode.forId("r01fb"),"benchmark","lc",
+									36,
+									factoryBindingId,
+									props);
+	}
+	private static Map<String,HighLowGUIDPersist> _persistFactories() {
+		return ImmutableMap.<String,HighLowGUIDPersist>of("slowHighKeyPersist",new SlowHighLowGUIDPersist());
+	}
+	/**
+	 * Emulates a db round-trip when the HIGH key is updated
+	 */
+	private static class SlowHighLowGUIDPersist
+		         extends HighLowMemoryGUIDPersist {
+		@Override
+		public boolean updateGUID(final GUIDDispenserDef dispDef,
+								  final HighLowKey highKey) {
+			try {
+				Thread.sleep(2);
+			} catch (InterruptedException intEx) {
+				Thread.currentThread().interrupt();
+			}
+			return super.updateGUID(dispDef,highKey);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package r01f.httpclient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import r01f.concurrent.TimeOutController;
+
+/**
+ * Concurrent {@link HttpClient} GETs against a local server with a connection timeout:
+ * <ul>
+ * 		<li>socketTimeout: the timeout is enforced by the socket (the way the {@link HttpClient} does it)</li>
+ * 		<li>threadPerRequest: every GET is guarded by a new thread (the way the timeout was enforced before)</li>
+ * 		<li>pooledGuard: every GET is guarded by a thread of a shared pool</li>
+ * </ul>
+ * The number of threads started by every benchmark is printed at the end of its run
+ * Run with:
+ * <pre>
+ * 		java -cp ... r01f.httpclient.HttpClientConnectTimeoutBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3,time=2,timeUnit=TimeUnit.SECONDS)
+@Measurement(iterations=5,time=2,timeUnit=TimeUnit.SECONDS)
+@Threads(8)
+@Fork(1)
+public class HttpClientConnectTimeoutBenchmark {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  STATE
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final long CONX_TIMEOUT = 2000;
+	private static final byte[] RESPONSE = "OK".getBytes();
+
+	private HttpServer _server;
+	private String _url;
+	private long _startedThreadsAtSetup;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		_server = HttpServer.create(new InetSocketAddress("127.0.0.1",0),
+									128);
+		_server.createContext("/",new HttpHandler() {
+											@Override
+											public void handle(final HttpExchange exchange) throws IOException {
+												exchange.sendResponseHeaders(200,RESPONSE.length);
+												OutputStream os = exchange.getResponseBody();
+												os.write(RESPONSE);
+												os.close();
+											}
+								  });
+		_server.setExecutor(Executors.newFixedThreadPool(8));
+		_server.start();
+		_url = "http://127.0.0.1:" + _server.getAddress().getPort() + "/";
+		_startedThreadsAtSetup = _threads().getTotalStartedThreadCount();
+	}
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		System.out.println("\nThreads started: " + (_threads().getTotalStartedThreadCount() - _startedThreadsAtSetup));
+		_server.stop(0);
+	}
+	private static ThreadMXBean _threads() {
+		return ManagementFactory.getThreadMXBean();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BENCHMARKS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Benchmark
+	public String socketTimeout() throws IOException {
+		return _get();
+	}
+	@Benchmark
+	public String threadPerRequest() throws Exception {
+		final String[] outResponse = new String[1];
+		TimeOutController.execute(new Runnable() {
+										@Override
+										public void run() {
+											outResponse[0] = _getQuietly();
+										}
+								  },
+								  CONX_TIMEOUT);
+		return outResponse[0];
+	}
+	@Benchmark
+	public String pooledGuard() throws Exception {
+		final String[] outResponse = new String[1];
+		TimeOutController.executePooled(new Runnable() {
+											@Override
+											public void run() {
+												outResponse[0] = _getQuietly();
+											}
+										},
+										CONX_TIMEOUT);
+		return outResponse[0];
+	}
+	private String _get() throws IOException {
+		return HttpClient.forUrl(_url)
+						 .withConnectionTimeOut(CONX_TIMEOUT)
+						 .GET()
+						 .loadAsString();
+	}
+	private String _getQuietly() {
+		try {
+			return _get();
+		} catch (IOException ioEx) {
+			throw new IllegalStateException(ioEx);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static void main(final String[] args) throws RunnerException {
+		Options opts = new OptionsBuilder().include(HttpClientConnectTimeoutBenchmark.class.getSimpleName())
+										   .build();
+		new Runner(opts).run();
+	}
+}
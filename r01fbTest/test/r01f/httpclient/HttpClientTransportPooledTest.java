@@ -0,0 +1,157 @@
+package r01f.httpclient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Checks the {@link HttpClientTransportPooled} against a local server:
+ * <ul>
+ * 		<li>the connections are reused between requests</li>
+ * 		<li>a request waits for a free pooled connection at most the pool timeout whatever the connection timeout is</li>
+ * </ul>
+ */
+public class HttpClientTransportPooledTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SET UP
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final byte[] RESPONSE = "OK".getBytes();
+	private static final int POOL_TIMEOUT = 500;
+
+	private HttpServer _server;
+	private String _url;
+	private CountDownLatch _releaseStreamedResponses;
+
+	@Before
+	public void setUp() throws IOException {
+		_releaseStreamedResponses = new CountDownLatch(1);
+		_server = HttpServer.create(new InetSocketAddress("localhost",0),0);
+		_server.createContext("/ok",new HttpHandler() {
+											@Override
+											public void handle(final HttpExchange exchange) throws IOException {
+												exchange.sendResponseHeaders(200,RESPONSE.length);
+												OutputStream os = exchange.getResponseBody();
+												os.write(RESPONSE);
+												os.close();
+											}
+									 });
+		_server.createContext("/streamed",new HttpHandler() {
+											@Override
+											public void handle(final HttpExchange exchange) throws IOException {
+												// chunked response NOT finished until released: the pooled connection stays leased
+												exchange.sendResponseHeaders(200,0);
+												OutputStream os = exchange.getResponseBody();
+												os.write(RESPONSE);
+												os.flush();
+												try {
+													_releaseStreamedResponses.await(10,TimeUnit.SECONDS);
+												} catch(InterruptedException intEx) {
+													Thread.currentThread().interrupt();
+												}
+												os.close();
+											}
+										   });
+		_server.setExecutor(Executors.newCachedThreadPool());
+		_server.start();
+		_url = "http://localhost:" + _server.getAddress().getPort();
+	}
+	@After
+	public void tearDown() {
+		_releaseStreamedResponses.countDown();
+		_server.stop(0);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void connectionIsReusedTest() throws IOException {
+		HttpClientTransportPooled transport = HttpClientTransportPooled.create(1,1,
+																			   30 * 1000L,0,
+																			   POOL_TIMEOUT);
+		try {
+			for (int i = 0; i < 3; i++) {
+				HttpURLConnection conx = transport.openConnection(_url + "/ok",1000,
+																  null,null,null,null);
+				Assert.assertEquals(200,conx.getResponseCode());
+				Assert.assertArrayEquals(RESPONSE,_read(conx));
+			}
+			Assert.assertEquals(3,transport.getRequestCount());
+			Assert.assertEquals(0,transport.getFailedRequestCount());
+			Assert.assertEquals(0,transport.getPoolStats().getLeased());
+			Assert.assertEquals(1,transport.getPoolStats().getAvailable());
+		} finally {
+			transport.close();
+		}
+	}
+	@Test(timeout=10000)
+	public void noConnectionTimeoutWaitsThePoolTimeoutTest() throws IOException {
+		_assertWaitsThePoolTimeout(0);		// 0 = no connection timeout
+	}
+	@Test(timeout=10000)
+	public void connectionTimeoutDoesNotChangeThePoolTimeoutTest() throws IOException {
+		_assertWaitsThePoolTimeout(5000);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private void _assertWaitsThePoolTimeout(final long conxTimeOut) throws IOException {
+		HttpClientTransportPooled transport = HttpClientTransportPooled.create(1,1,
+																			   30 * 1000L,0,
+																			   POOL_TIMEOUT);
+		try {
+			// the only pooled connection is leased while the response is NOT fully read
+			HttpURLConnection leasedConx = transport.openConnection(_url + "/streamed",conxTimeOut,
+																	null,null,null,null);
+			Assert.assertEquals(200,leasedConx.getResponseCode());
+			Assert.assertEquals(1,transport.getPoolStats().getLeased());
+
+			// ... so another request waits for a free connection at most the pool timeout
+			HttpURLConnection waitingConx = transport.openConnection(_url + "/ok",conxTimeOut,
+																	 null,null,null,null);
+			long start = System.currentTimeMillis();
+			try {
+				waitingConx.getResponseCode();
+				Assert.fail("The request should have timed out waiting for a free pooled connection");
+			} catch(ConnectionPoolTimeoutException poolTimeoutEx) {
+				long elapsed = System.currentTimeMillis() - start;
+				Assert.assertTrue("waited " + elapsed + " millis",
+								  elapsed >= POOL_TIMEOUT && elapsed < POOL_TIMEOUT + 2000);
+			}
+			Assert.assertEquals(1,transport.getPoolTimeoutCount());
+
+			// once the response is read the connection returns to the pool
+			_releaseStreamedResponses.countDown();
+			_read(leasedConx);
+			HttpURLConnection conx = transport.openConnection(_url + "/ok",conxTimeOut,
+															  null,null,null,null);
+			Assert.assertEquals(200,conx.getResponseCode());
+			Assert.assertArrayEquals(RESPONSE,_read(conx));
+		} finally {
+			transport.close();
+		}
+	}
+	private static byte[] _read(final HttpURLConnection conx) throws IOException {
+		InputStream is = conx.getInputStream();
+		try {
+			return ByteStreams.toByteArray(is);
+		} finally {
+			is.close();
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package r01f.marshalling;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import r01f.marshalling.simple.SimpleBinaryMarshaller;
+import r01f.marshalling.simple.SimpleMarshallerBuilder;
+
+/**
+ * Compares the model object descriptors xml marshalling with the compact binary one:
+ * <ul>
+ * 		<li>xml: {@link Marshaller} (xmlFromBean / beanFromXml)</li>
+ * 		<li>binary: {@link SimpleBinaryMarshaller} NOT compressed</li>
+ * 		<li>binaryCompressed: {@link SimpleBinaryMarshaller} deflating the encoded object</li>
+ * </ul>
+ * The descriptor sizes are printed before the benchmarks are run
+ * Run with:
+ * <pre>
+ * 		java -cp ... r01f.marshalling.SimpleBinaryMarshallerBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3,time=2,timeUnit=TimeUnit.SECONDS)
+@Measurement(iterations=5,time=2,timeUnit=TimeUnit.SECONDS)
+@Fork(1)
+public class SimpleBinaryMarshallerBenchmark {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  STATE
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final int NUM_ITEMS = 50;
+
+	private Marshaller _xmlMarshaller;
+	private SimpleBinaryMarshaller _binaryMarshaller;
+	private SimpleBinaryMarshaller _binaryCompressedMarshaller;
+
+	private BenchmarkObj _obj;
+	private String _xmlDescriptor;
+	private String _binaryDescriptor;
+	private String _binaryCompressedDescriptor;
+
+	@Setup
+	public void setUp() {
+		_xmlMarshaller = SimpleMarshallerBuilder.createForTypes(BenchmarkObj.class)
+												.getForMultipleUse();
+		_binaryMarshaller = SimpleBinaryMarshaller.createFor(_xmlMarshaller)
+												  .notCompressing();
+		_binaryCompressedMarshaller = SimpleBinaryMarshaller.createFor(_xmlMarshaller)
+															.compressingOver(0);
+		_obj = _createObj();
+		_xmlDescriptor = _xmlMarshaller.xmlFromBean(_obj);
+		_binaryDescriptor = _binaryMarshaller.descriptorFromBean(_obj);
+		_binaryCompressedDescriptor = _binaryCompressedMarshaller.descriptorFromBean(_obj);
+	}
+	private static BenchmarkObj _createObj() {
+		BenchmarkObj outObj = new BenchmarkObj();
+		outObj.setOid("oid-0000000000000000000001");
+		outObj.setVersion(3);
+		outObj.setName("A model object persisted at the db");
+		outObj.setDescription("The model object description: the descriptor holds the whole model object");
+		outObj.setCreateDate(new Date());
+		outObj.setStatus(BenchmarkStatus.PUBLISHED);
+		List<String> tags = new ArrayList<String>();
+		for (int i = 0; i < 10; i++) tags.add("tag" + i);
+		outObj.setTags(tags);
+		List<BenchmarkItem> items = new ArrayList<BenchmarkItem>(NUM_ITEMS);
+		for (int i = 0; i < NUM_ITEMS; i++) {
+			BenchmarkItem item = new BenchmarkItem();
+			item.setId(i);
+			item.setWeight(i * 0.5);
+			item.setText("item text " + i);
+			items.add(item);
+		}
+		outObj.setItems(items);
+		return outObj;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BENCHMARKS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Benchmark
+	public String xmlMarshall() {
+		return _xmlMarshaller.xmlFromBean(_obj);
+	}
+	@Benchmark
+	public String binaryMarshall() {
+		return _binaryMarshaller.descriptorFromBean(_obj);
+	}
+	@Benchmark
+	public String binaryCompressedMarshall() {
+		return _binaryCompressedMarshaller.descriptorFromBean(_obj);
+	}
+	@Benchmark
+	public BenchmarkObj xmlUnmarshall() {
+		return _xmlMarshaller.beanFromXml(_xmlDescriptor);
+	}
+	@Benchmark
+	public BenchmarkObj binaryUnmarshall() {
+		return _binaryMarshaller.beanFromDescriptor(_binaryDescriptor);
+	}
+	@Benchmark
+	public BenchmarkObj binaryCompressedUnmarshall() {
+		return _binaryCompressedMarshaller.beanFromDescriptor(_binaryCompressedDescriptor);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  MODEL
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static enum BenchmarkStatus {
+		DRAFT,
+		PUBLISHED;
+	}
+	@XmlRootElement(name="benchmarkObj")
+	@Accessors(prefix="_")
+	@NoArgsConstructor
+	public static class BenchmarkObj
+	         implements Serializable {
+		private static final long serialVersionUID = 4398436431985349251L;
+
+		@XmlAttribute(name="oid")
+		@Getter @Setter private String _oid;
+		@XmlAttribute(name="version")
+		@Getter @Setter private long _version;
+		@XmlAttribute(name="status")
+		@Getter @Setter private BenchmarkStatus _status;
+		@XmlElement(name="name")
+		@Getter @Setter private String _name;
+		@XmlElement(name="description")
+		@Getter @Setter private String _description;
+		@XmlElement(name="createDate")
+		@Getter @Setter private Date _createDate;
+		@XmlElementWrapper(name="tags") @XmlElement(name="tag")
+		@Getter @Setter private List<String> _tags;
+		@XmlElementWrapper(name="items")
+		@Getter @Setter private List<BenchmarkItem> _items;
+	}
+	@XmlRootElement(name="benchmarkItem")
+	@Accessors(prefix="_")
+	@NoArgsConstructor
+	public static class BenchmarkItem
+	         implements Serializable {
+		private static final long serialVersionUID = -2021486153170218420L;
+
+		@XmlAttribute(name="id")
+		@Getter @Setter private int _id;
+		@XmlAttribute(name="weight")
+		@Getter @Setter private double _weight;
+		@XmlElement(name="text")
+		@Getter @Setter private String _text;
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static void main(final String[] args) throws RunnerException {
+		SimpleBinaryMarshallerBenchmark sizes = new SimpleBinaryMarshallerBenchmark();
+		sizes.setUp();
+		System.out.println("Descriptor sizes (chars): xml=" + sizes._xmlDescriptor.length()
+												 + " binary=" + sizes._binaryDescriptor.length()
+												 + " binaryCompressed=" + sizes._binaryCompressedDescriptor.length());
+
+		Options opts = new OptionsBuilder().include(SimpleBinaryMarshallerBenchmark.class.getSimpleName())
+										   .build();
+		new Runner(opts).run();
+	}
+}
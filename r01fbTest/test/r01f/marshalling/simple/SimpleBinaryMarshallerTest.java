@@ -0,0 +1,412 @@
+package r01f.marshalling.simple;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.BaseEncoding;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import r01f.marshalling.Marshaller;
+import r01f.marshalling.MarshallerException;
+import r01f.marshalling.annotations.OidField;
+import r01f.marshalling.annotations.XmlReadTransformer;
+import r01f.marshalling.annotations.XmlWriteTransformer;
+import r01f.marshalling.simple.SimpleMarshallerCustomXmlTransformers.XmlReadCustomTransformer;
+import r01f.marshalling.simple.SimpleMarshallerCustomXmlTransformers.XmlWriteCustomTransformer;
+
+/**
+ * Round-trips objects through {@link BinaryFromObjsBuilder} / {@link ObjsFromBinaryBuilder} (see {@link SimpleBinaryMarshaller}):
+ * <ul>
+ * 		<li>every value tag, nested beans, collections, maps and nulls</li>
+ * 		<li>plain and deflated payloads</li>
+ * 		<li>a field NOT mapped anymore is skipped</li>
+ * 		<li>corrupt or truncated payloads are rejected with a {@link MarshallerException}</li>
+ * 		<li>xml descriptors are read by the xml marshaller</li>
+ * </ul>
+ */
+public class SimpleBinaryMarshallerTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SET UP
+/////////////////////////////////////////////////////////////////////////////////////////
+	private Marshaller _xmlMarshaller;
+	private SimpleBinaryMarshaller _plainMarshaller;
+	private SimpleBinaryMarshaller _deflatingMarshaller;
+
+	@Before
+	public void setUp() {
+		_xmlMarshaller = SimpleMarshallerBuilder.createForTypes(TestBean.class,TestChild.class,TestCode.class,TestCustom.class)
+												.getForMultipleUse();
+		_plainMarshaller = SimpleBinaryMarshaller.createFor(_xmlMarshaller)
+												 .notCompressing();
+		_deflatingMarshaller = SimpleBinaryMarshaller.createFor(_xmlMarshaller)
+													 .compressingOver(0);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  ROUND-TRIP
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void plainRoundTripTest() {
+		TestBean bean = _createBean();
+		byte[] bytes = _plainMarshaller.bytesFromBean(bean);
+		Assert.assertEquals(SimpleBinaryMarshaller.FORMAT_VERSION,bytes[0]);
+		Assert.assertEquals(0,bytes[1]);							// NOT deflated
+
+		_assertSameBean(bean,_plainMarshaller.<TestBean>beanFromBytes(bytes));
+	}
+	@Test
+	public void deflatedRoundTripTest() {
+		TestBean bean = _createBean();
+		byte[] bytes = _deflatingMarshaller.bytesFromBean(bean);
+		Assert.assertEquals(SimpleBinaryMarshaller.FORMAT_VERSION,bytes[0]);
+		Assert.assertEquals(SimpleBinaryMarshaller.FLAG_DEFLATED,bytes[1]);
+		Assert.assertTrue(bytes.length < _plainMarshaller.bytesFromBean(bean).length);
+
+		_assertSameBean(bean,_deflatingMarshaller.<TestBean>beanFromBytes(bytes));
+		// the flags tell the format: any marshaller reads both
+		_assertSameBean(bean,_plainMarshaller.<TestBean>beanFromBytes(bytes));
+	}
+	@Test
+	public void descriptorRoundTripTest() {
+		TestBean bean = _createBean();
+		String descriptor = _plainMarshaller.descriptorFromBean(bean);
+		Assert.assertTrue(SimpleBinaryMarshaller.isBinaryDescriptor(descriptor));
+
+		_assertSameBean(bean,_plainMarshaller.<TestBean>beanFromDescriptor(descriptor));
+	}
+	@Test
+	public void nullsTest() {
+		// a null root object
+		Assert.assertNull(_plainMarshaller.beanFromBytes(_plainMarshaller.bytesFromBean(null)));
+
+		// null fields and null collection / map elements
+		TestBean bean = new TestBean();
+		bean.setName("only the name");
+		bean.setTags(new ArrayList<String>(Arrays.asList("a",null,"b")));
+		Map<String,TestChild> childrenByName = new HashMap<String,TestChild>();
+		childrenByName.put("nullChild",null);
+		bean.setChildrenByName(childrenByName);
+
+		TestBean readBean = _plainMarshaller.beanFromBytes(_plainMarshaller.bytesFromBean(bean));
+		Assert.assertEquals("only the name",readBean.getName());
+		Assert.assertNull(readBean.getDescription());
+		Assert.assertNull(readBean.getCreateDate());
+		Assert.assertNull(readBean.getChild());
+		Assert.assertNull(readBean.getCustom());
+		Assert.assertEquals(Arrays.asList("a","b"),readBean.getTags());		// the null elements are NOT written
+		Assert.assertTrue(readBean.getChildrenByName() == null || readBean.getChildrenByName().isEmpty());
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SCHEMA EVOLUTION
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void notMappedFieldIsSkippedTest() {
+		// a TestChild written when it had two more fields (a string and a nested bean with a collection)
+		String childTypeName = ((SimpleMarshallerMappings)_xmlMarshaller.getMappings()).getBeanMapFromClassName(TestChild.class.getName())
+																						   .getTypeName();
+		PayloadWriter payload = new PayloadWriter();
+		payload.tag(SimpleBinaryMarshaller.TAG_BEAN).name(childTypeName).varInt(3);
+		payload.name("removedField").tag(SimpleBinaryMarshaller.TAG_STRING).string("removed");
+		payload.name("removedBean").tag(SimpleBinaryMarshaller.TAG_BEAN).name(childTypeName).varInt(1)
+									.name("removedCol").tag(SimpleBinaryMarshaller.TAG_COLLECTION).varInt(2)
+																   .tag(SimpleBinaryMarshaller.TAG_INT).varInt(2)
+																   .tag(SimpleBinaryMarshaller.TAG_TRUE);
+		payload.name("name").tag(SimpleBinaryMarshaller.TAG_STRING).string("kept");
+
+		TestChild child = _plainMarshaller.beanFromBytes(payload.bytes());
+		Assert.assertEquals("kept",child.getName());
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  CORRUPT PAYLOADS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void truncatedPlainPayloadTest() {
+		byte[] bytes = _plainMarshaller.bytesFromBean(_createBean());
+		_assertNotValid(Arrays.copyOf(bytes,bytes.length - 3));
+		_assertNotValid(Arrays.copyOf(bytes,3));
+		_assertNotValid(Arrays.copyOf(bytes,1));
+	}
+	@Test
+	public void truncatedDeflatedPayloadTest() {
+		byte[] bytes = _deflatingMarshaller.bytesFromBean(_createBean());
+		_assertNotValid(Arrays.copyOf(bytes,bytes.length / 2));
+	}
+	@Test
+	public void corruptPayloadTest() {
+		// unknown tag
+		_assertNotValid(new byte[] { SimpleBinaryMarshaller.FORMAT_VERSION,0,99 });
+		// a newer format
+		_assertNotValid(new byte[] { SimpleBinaryMarshaller.FORMAT_VERSION + 1,0,SimpleBinaryMarshaller.TAG_NULL });
+		// a string longer than the payload
+		_assertNotValid(new PayloadWriter().tag(SimpleBinaryMarshaller.TAG_STRING).varInt(Integer.MAX_VALUE).bytes());
+		// a collection bigger than the payload
+		_assertNotValid(new PayloadWriter().tag(SimpleBinaryMarshaller.TAG_COLLECTION).varInt(1000000).bytes());
+		// a name index that was never written
+		_assertNotValid(new PayloadWriter().tag(SimpleBinaryMarshaller.TAG_BEAN).varInt((5 << 1) | 1).bytes());
+		// not a deflated payload
+		_assertNotValid(new byte[] { SimpleBinaryMarshaller.FORMAT_VERSION,SimpleBinaryMarshaller.FLAG_DEFLATED,1,2,3,4 });
+		// not base64
+		try {
+			_plainMarshaller.beanFromDescriptor(SimpleBinaryMarshaller.DESCRIPTOR_PREFIX + "@@not base64@@");
+			Assert.fail("A corrupt descriptor MUST NOT be read");
+		} catch(MarshallerException marshEx) {
+			/* expected */
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  XML FALLBACK
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void xmlDescriptorFallbackTest() {
+		TestChild child = _createChild("xmlChild",7);
+		String xml = _xmlMarshaller.xmlFromBean(child);
+		Assert.assertFalse(SimpleBinaryMarshaller.isBinaryDescriptor(xml));
+
+		TestChild readChild = _plainMarshaller.beanFromDescriptor(xml);
+		Assert.assertEquals("xmlChild",readChild.getName());
+		Assert.assertEquals(7,readChild.getOrder());
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private void _assertNotValid(final byte[] bytes) {
+		try {
+			_plainMarshaller.beanFromBytes(bytes);
+			Assert.fail("A corrupt payload MUST NOT be read: " + BaseEncoding.base16().encode(bytes));
+		} catch(MarshallerException marshEx) {
+			/* expected */
+		}
+	}
+	private static TestBean _createBean() {
+		TestBean outBean = new TestBean();
+		outBean.setName("name");								// TAG_STRING
+		outBean.setDescription("a description with non ascii chars: \u00f1\u00e1\u00e9");
+		outBean.setCount(-42);									// TAG_INT (negative zig-zag)
+		outBean.setBig(Long.MAX_VALUE);							// TAG_LONG
+		outBean.setWeight(12.5D);								// TAG_DOUBLE
+		outBean.setRatio(0.25F);								// TAG_FLOAT
+		outBean.setActive(true);								// TAG_TRUE
+		outBean.setDeleted(Boolean.FALSE);						// TAG_FALSE
+		outBean.setCreateDate(new Date(1234567890123L));		// TAG_DATE
+		outBean.setSqlDate(new java.sql.Date(1234567890000L));	// TAG_SQL_DATE
+		outBean.setStatus(TestStatus.PUBLISHED);				// TAG_ENUM
+		outBean.setJavaType(TestChild.class);					// TAG_JAVA_TYPE
+		outBean.setCustom(new TestCustom(3,4));					// TAG_CUSTOM
+		outBean.setCode(new TestCode("CODE-1"));				// TAG_TEXT
+		outBean.setChild(_createChild("child",0));				// TAG_BEAN
+		List<String> tags = new ArrayList<String>();			// TAG_COLLECTION
+		for (int i = 0; i < 20; i++) tags.add("tag" + i);
+		outBean.setTags(tags);
+		List<TestChild> children = new ArrayList<TestChild>();
+		for (int i = 0; i < 10; i++) children.add(_createChild("child" + i,i));
+		outBean.setChildren(children);
+		Map<String,TestChild> childrenByName = new LinkedHashMap<String,TestChild>();	// TAG_MAP
+		childrenByName.put("a",_createChild("a",1));
+		childrenByName.put("b",_createChild("b",2));
+		outBean.setChildrenByName(childrenByName);
+		return outBean;
+	}
+	private static TestChild _createChild(final String name,final int order) {
+		TestChild outChild = new TestChild();
+		outChild.setName(name);
+		outChild.setOrder(order);
+		return outChild;
+	}
+	private static void _assertSameBean(final TestBean expected,final TestBean actual) {
+		Assert.assertNotNull(actual);
+		Assert.assertEquals(expected.getName(),actual.getName());
+		Assert.assertEquals(expected.getDescription(),actual.getDescription());
+		Assert.assertEquals(expected.getCount(),actual.getCount());
+		Assert.assertEquals(expected.getBig(),actual.getBig());
+		Assert.assertEquals(expected.getWeight(),actual.getWeight(),0D);
+		Assert.assertEquals(expected.getRatio(),actual.getRatio(),0F);
+		Assert.assertEquals(expected.isActive(),actual.isActive());
+		Assert.assertEquals(expected.getDeleted(),actual.getDeleted());
+		Assert.assertEquals(expected.getCreateDate(),actual.getCreateDate());
+		Assert.assertEquals(expected.getSqlDate(),actual.getSqlDate());
+		Assert.assertSame(java.sql.Date.class,actual.getSqlDate().getClass());
+		Assert.assertSame(expected.getStatus(),actual.getStatus());
+		Assert.assertSame(expected.getJavaType(),actual.getJavaType());
+		Assert.assertEquals(expected.getCustom().getX(),actual.getCustom().getX());
+		Assert.assertEquals(expected.getCustom().getY(),actual.getCustom().getY());
+		Assert.assertEquals(expected.getCode().toString(),actual.getCode().toString());
+		_assertSameChild(expected.getChild(),actual.getChild());
+		Assert.assertEquals(expected.getTags(),actual.getTags());
+		Assert.assertEquals(expected.getChildren().size(),actual.getChildren().size());
+		for (int i = 0; i < expected.getChildren().size(); i++) {
+			_assertSameChild(expected.getChildren().get(i),actual.getChildren().get(i));
+		}
+		Assert.assertEquals(expected.getChildrenByName().keySet(),actual.getChildrenByName().keySet());
+		for (String key : expected.getChildrenByName().keySet()) {
+			_assertSameChild(expected.getChildrenByName().get(key),actual.getChildrenByName().get(key));
+		}
+	}
+	private static void _assertSameChild(final TestChild expected,final TestChild actual) {
+		Assert.assertNotNull(actual);
+		Assert.assertEquals(expected.getName(),actual.getName());
+		Assert.assertEquals(expected.getOrder(),actual.getOrder());
+	}
+	/**
+	 * Writes a payload by hand (see {@link BinaryFromObjsBuilder}) so payloads that the builder never writes can be read
+	 */
+	private static class PayloadWriter {
+		private final ByteArrayOutputStream _bos = new ByteArrayOutputStream();
+		private final Map<String,Integer> _names = new HashMap<String,Integer>();
+
+		PayloadWriter() {
+			_bos.write(SimpleBinaryMarshaller.FORMAT_VERSION);
+			_bos.write(0);		// not deflated
+		}
+		PayloadWriter tag(final byte tag) {
+			_bos.write(tag);
+			return this;
+		}
+		PayloadWriter varInt(final int value) {
+			int v = value;
+			while ((v & ~0x7F) != 0) {
+				_bos.write((v & 0x7F) | 0x80);
+				v >>>= 7;
+			}
+			_bos.write(v);
+			return this;
+		}
+		PayloadWriter name(final String name) {
+			Integer index = _names.get(name);
+			if (index != null) return this.varInt((index << 1) | 1);
+			_names.put(name,_names.size());
+			byte[] bytes = name.getBytes(Charsets.UTF_8);
+			this.varInt(bytes.length << 1);
+			_bos.write(bytes,0,bytes.length);
+			return this;
+		}
+		PayloadWriter string(final String str) {
+			byte[] bytes = str.getBytes(Charsets.UTF_8);
+			this.varInt(bytes.length);
+			_bos.write(bytes,0,bytes.length);
+			return this;
+		}
+		byte[] bytes() {
+			return _bos.toByteArray();
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  MODEL
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static enum TestStatus {
+		DRAFT,
+		PUBLISHED;
+	}
+	@XmlRootElement(name="testBean")
+	@Accessors(prefix="_")
+	@NoArgsConstructor
+	public static class TestBean {
+		@XmlAttribute(name="name")
+		@Getter @Setter private String _name;
+		@XmlElement(name="description")
+		@Getter @Setter private String _description;
+		@XmlAttribute(name="count")
+		@Getter @Setter private int _count;
+		@XmlAttribute(name="big")
+		@Getter @Setter private long _big;
+		@XmlAttribute(name="weight")
+		@Getter @Setter private double _weight;
+		@XmlAttribute(name="ratio")
+		@Getter @Setter private float _ratio;
+		@XmlAttribute(name="active")
+		@Getter @Setter private boolean _active;
+		@XmlAttribute(name="deleted")
+		@Getter @Setter private Boolean _deleted;
+		@XmlElement(name="createDate")
+		@Getter @Setter private Date _createDate;
+		@XmlElement(name="sqlDate")
+		@Getter @Setter private java.sql.Date _sqlDate;
+		@XmlAttribute(name="status")
+		@Getter @Setter private TestStatus _status;
+		@XmlAttribute(name="javaType")
+		@Getter @Setter private Class<?> _javaType;
+		@XmlElement(name="custom")
+		@Getter @Setter private TestCustom _custom;
+		@XmlElement(name="code")
+		@Getter @Setter private TestCode _code;
+		@XmlElement(name="child")
+		@Getter @Setter private TestChild _child;
+		@XmlElementWrapper(name="tags") @XmlElement(name="tag")
+		@Getter @Setter private List<String> _tags;
+		@XmlElementWrapper(name="children")
+		@Getter @Setter private List<TestChild> _children;
+		@XmlElementWrapper(name="childrenByName")
+		@Getter @Setter private Map<String,TestChild> _childrenByName;
+	}
+	@XmlRootElement(name="testChild")
+	@Accessors(prefix="_")
+	@NoArgsConstructor
+	public static class TestChild {
+		@XmlAttribute(name="name") @OidField
+		@Getter @Setter private String _name;
+		@XmlAttribute(name="order")
+		@Getter @Setter private int _order;
+	}
+	/**
+	 * A type without mapped fields: it's written as text and created back from the text
+	 */
+	@XmlRootElement(name="testCode")
+	public static class TestCode {
+		private final String _code;
+
+		public TestCode(final String code) {
+			_code = code;
+		}
+		@Override
+		public String toString() {
+			return _code;
+		}
+	}
+	/**
+	 * A type with custom xml transformers: x,y
+	 */
+	@XmlRootElement(name="testCustom") @XmlReadTransformer(using=TestCustomTransformers.class) @XmlWriteTransformer(using=TestCustomTransformers.class)
+	@Accessors(prefix="_")
+	public static class TestCustom {
+		@Getter private final int _x;
+		@Getter private final int _y;
+
+		public TestCustom(final int x,final int y) {
+			_x = x;
+			_y = y;
+		}
+	}
+	public static class TestCustomTransformers
+			 implements XmlReadCustomTransformer<TestCustom>,
+			 			XmlWriteCustomTransformer {
+		@Override
+		public String xmlFromBean(final boolean isAttribute,
+								  final Object bean) {
+			TestCustom custom = (TestCustom)bean;
+			return custom.getX() + "," + custom.getY();
+		}
+		@Override
+		public TestCustom beanFromXml(final boolean isAttribute,
+									  final CharSequence xml) {
+			String[] xy = xml.toString().split(",");
+			return new TestCustom(Integer.parseInt(xy[0]),Integer.parseInt(xy[1]));
+		}
+	}
+}
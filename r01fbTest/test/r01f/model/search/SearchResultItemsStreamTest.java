@@ -0,0 +1,137 @@
+package r01f.model.search;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+
+import r01f.marshalling.Marshaller;
+
+/**
+ * Checks that the {@link SearchResultItemsStream} items are read exactly as they were written
+ * (ie the line breaks inside the CDATA sections written by the marshaller are NOT modified)
+ */
+public class SearchResultItemsStreamTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void itemsAreReadAsWrittenTest() throws IOException {
+		List<String> xmls = Lists.newArrayList("<item><![CDATA[first line\nsecond line]]></item>",
+											   "<item/>",
+											   "<item><![CDATA[&#10; is NOT a line break\r\n\u00f1\n\n]]></item>\n",
+											   "<item>\n\t<name>4</name>\n</item>");
+		byte[] stream = _write(xmls);
+
+		RecordingMarshaller marshaller = new RecordingMarshaller();
+		final List<SearchResultItem> handled = Lists.newArrayList();
+		int count = SearchResultItemsStream.read(marshaller.proxy(),
+												 new ByteArrayInputStream(stream),
+												 new SearchResultItemsHandler<SearchResultItem>() {
+														@Override
+														public void handle(final SearchResultItem item) {
+															handled.add(item);
+														}
+												 });
+		Assert.assertEquals(xmls.size(),count);
+		Assert.assertEquals(xmls.size(),handled.size());
+		Assert.assertEquals(xmls,marshaller.getReadXmls());
+	}
+	@Test
+	public void noItemsTest() throws IOException {
+		RecordingMarshaller marshaller = new RecordingMarshaller();
+		int count = SearchResultItemsStream.read(marshaller.proxy(),
+												 new ByteArrayInputStream(new byte[0]),
+												 new SearchResultItemsHandler<SearchResultItem>() {
+														@Override
+														public void handle(final SearchResultItem item) {
+															Assert.fail("There are NO items");
+														}
+												 });
+		Assert.assertEquals(0,count);
+	}
+	@Test(expected=EOFException.class)
+	public void truncatedStreamTest() throws IOException {
+		byte[] stream = _write(Lists.newArrayList("<item><![CDATA[first line\nsecond line]]></item>"));
+		InputStream truncated = new ByteArrayInputStream(stream,0,stream.length - 10);
+		SearchResultItemsStream.read(new RecordingMarshaller().proxy(),
+									 truncated,
+									 new SearchResultItemsHandler<SearchResultItem>() {
+											@Override
+											public void handle(final SearchResultItem item) {
+												Assert.fail("The item is NOT complete");
+											}
+									 });
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Writes the items whose xml is the given one and returns the written stream
+	 */
+	private static byte[] _write(final List<String> xmls) throws IOException {
+		RecordingMarshaller marshaller = new RecordingMarshaller();
+		StringWriter w = new StringWriter();
+		for (String xml : xmls) {
+			SearchResultItemsStream.write(marshaller.proxy(),
+										  _item(xml),
+										  w);
+		}
+		return w.toString().getBytes(Charsets.UTF_8);
+	}
+	/**
+	 * The item's toString() is its xml
+	 */
+	private static SearchResultItem _item(final String xml) {
+		return (SearchResultItem)Proxy.newProxyInstance(SearchResultItem.class.getClassLoader(),
+														new Class<?>[] {SearchResultItem.class},
+														new InvocationHandler() {
+																@Override
+																public Object invoke(final Object proxy,
+																					 final Method method,final Object[] args) {
+																	if (method.getName().equals("toString")) return xml;
+																	if (method.getName().equals("hashCode")) return xml.hashCode();
+																	if (method.getName().equals("equals")) return proxy == args[0];
+																	return null;
+																}
+														});
+	}
+	/**
+	 * A {@link Marshaller} that writes an item's toString() as its xml and records the read xmls
+	 */
+	private static class RecordingMarshaller
+			  implements InvocationHandler {
+		private final List<String> _readXmls = Lists.newArrayList();
+
+		List<String> getReadXmls() {
+			return _readXmls;
+		}
+		Marshaller proxy() {
+			return (Marshaller)Proxy.newProxyInstance(Marshaller.class.getClassLoader(),
+													  new Class<?>[] {Marshaller.class},
+													  this);
+		}
+		@Override
+		public Object invoke(final Object proxy,
+							 final Method method,final Object[] args) {
+			if (method.getName().equals("xmlFromBean")) return args[0].toString();
+			if (method.getName().equals("beanFromXml")) {
+				String xml = args[0].toString();
+				_readXmls.add(xml);
+				return _item(xml);
+			}
+			throw new UnsupportedOperationException(method.getName());
+		}
+	}
+}
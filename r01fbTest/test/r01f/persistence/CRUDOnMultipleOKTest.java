@@ -0,0 +1,137 @@
+package r01f.persistence;
+
+import java.util.Iterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Checks the {@link CRUDOnMultipleOK} status methods and the entities it returns 
+ * when all, none or some of the operations succeeded
+ */
+public class CRUDOnMultipleOKTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void allSucceededTest() {
+		CRUDOnMultipleOK<String> results = _results();
+		results.addOperationOK(_ok("a"));
+		results.addOperationOK(_ok("b"));
+		
+		Assert.assertTrue(results.haveAllSucceeded());
+		Assert.assertTrue(results.haveSomeSucceeded());
+		Assert.assertFalse(results.haveSomeFailed());
+		Assert.assertFalse(results.haveAllFailed());
+		Assert.assertEquals(2,results.getNumberOfOperationsOK());
+		Assert.assertEquals(0,results.getNumberOfOperationsNOK());
+		Assert.assertNull(results.getFirstError());
+		Assert.assertEquals(Sets.newHashSet("a","b"),Sets.newHashSet(results.getEntitiesOK()));
+		Assert.assertEquals(Sets.newHashSet("a","b"),Sets.newHashSet(results.get()));
+		Assert.assertEquals(Sets.newHashSet("a","b"),Sets.newHashSet(results.getStrict()));
+	}
+	@Test
+	public void allFailedTest() {
+		CRUDOnMultipleOK<String> results = _results();
+		results.addOperationNOK(_notFound());
+		results.addOperationNOK(_notFound());
+		
+		Assert.assertTrue(results.haveAllFailed());
+		Assert.assertTrue(results.haveSomeFailed());
+		Assert.assertFalse(results.haveSomeSucceeded());
+		Assert.assertFalse(results.haveAllSucceeded());
+		Assert.assertEquals(0,results.getNumberOfOperationsOK());
+		Assert.assertEquals(2,results.getNumberOfOperationsNOK());
+		Assert.assertNotNull(results.getFirstError());
+		Assert.assertNull(results.getEntitiesOK());
+		try {
+			results.get();
+			Assert.fail("get() MUST throw if all the operations failed");
+		} catch (PersistenceException persistEx) {
+			/* expected */
+		}
+		try {
+			results.getStrict();
+			Assert.fail("getStrict() MUST throw if any operation failed");
+		} catch (PersistenceException persistEx) {
+			/* expected */
+		}
+	}
+	@Test
+	public void someFailedTest() {
+		CRUDOnMultipleOK<String> results = _results();
+		results.addOperationOK(_ok("a"));
+		results.addOperationNOK(_notFound());
+		results.addOperationOK(_ok("c"));
+		
+		Assert.assertTrue(results.haveSomeSucceeded());
+		Assert.assertTrue(results.haveSomeFailed());
+		Assert.assertFalse(results.haveAllSucceeded());
+		Assert.assertFalse(results.haveAllFailed());
+		Assert.assertEquals(2,results.getNumberOfOperationsOK());
+		Assert.assertEquals(1,results.getNumberOfOperationsNOK());
+		Assert.assertEquals(PersistenceErrorType.ENTITY_NOT_FOUND,results.getFirstError().getErrorType());
+		// get() returns ONLY the successful ones...
+		Assert.assertEquals(Sets.newHashSet("a","c"),Sets.newHashSet(results.getEntitiesOK()));
+		Assert.assertEquals(Sets.newHashSet("a","c"),Sets.newHashSet(results.get()));
+		// ... while getStrict() throws
+		try {
+			results.getStrict();
+			Assert.fail("getStrict() MUST throw if any operation failed");
+		} catch (PersistenceException persistEx) {
+			/* expected */
+		}
+	}
+	@Test
+	public void noOperationsTest() {
+		CRUDOnMultipleOK<String> results = _results();
+		
+		Assert.assertFalse(results.haveAllSucceeded());
+		Assert.assertFalse(results.haveSomeSucceeded());
+		Assert.assertFalse(results.haveSomeFailed());
+		Assert.assertFalse(results.haveAllFailed());
+		Assert.assertNull(results.getEntitiesOK());
+		Assert.assertNull(results.getStrict());
+	}
+	@Test
+	public void addOperationsKeepsTheBlocksOrderTest() {
+		CRUDOnMultipleOK<String> results = _results();
+		CRUDOnMultipleOK<String> block1 = _results();
+		block1.addOperationOK(_ok("a"));
+		block1.addOperationNOK(_notFound());
+		CRUDOnMultipleOK<String> block2 = _results();
+		block2.addOperationOK(_ok("c"));
+		results.addOperations(block1);
+		results.addOperations(block2);
+		
+		Assert.assertEquals(3,results.getOperationExecResult().size());
+		Assert.assertEquals(2,results.getNumberOfOperationsOK());
+		Assert.assertTrue(results.haveSomeFailed());
+		// the operations are kept in the order they were added: block1 ones first
+		Iterator<CRUDResult<String>> opsIt = results.getOperationExecResult().iterator();
+		Assert.assertEquals("a",opsIt.next().asCRUDOK().getOrThrow());
+		Assert.assertTrue(opsIt.next().hasFailed());
+		Assert.assertEquals("c",opsIt.next().asCRUDOK().getOrThrow());
+		Assert.assertEquals(Lists.newArrayList("a","c"),Lists.newArrayList(results.getEntitiesOK()));
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static CRUDOnMultipleOK<String> _results() {
+		return new CRUDOnMultipleOK<String>(String.class,
+											PersistenceRequestedOperation.LOAD,PersistencePerformedOperation.LOADED);
+	}
+	private static CRUDOK<String> _ok(final String entity) {
+		return new CRUDOK<String>(String.class,
+								  PersistenceRequestedOperation.LOAD,
+								  entity);
+	}
+	private static CRUDError<String> _notFound() {
+		return new CRUDError<String>(String.class,
+									 PersistenceRequestedOperation.LOAD,
+									 "not found",PersistenceErrorType.ENTITY_NOT_FOUND);
+	}
+}
@@ -0,0 +1,162 @@
+package r01f.persistence.db;
+
+import java.io.File;
+import java.io.Serializable;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+import r01f.persistence.db.entities.DBEntityBase;
+import r01f.persistence.db.entities.DBEntityForModelObject;
+import r01f.persistence.db.entities.primarykeys.DBPrimaryKeyForModelObjectImpl;
+
+/**
+ * Checks that the {@link DBModelObjectsCache}:
+ * <ul>
+ * 		<li>returns the cached model object ONLY if the db entity version matches</li>
+ * 		<li>returns a copy on every hit so changing the returned model object does NOT change the cached one</li>
+ * 		<li>de-serializes model object types NOT visible from the framework classloader</li>
+ * </ul>
+ */
+public class DBModelObjectsCacheTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void hitReturnsACopyTest() {
+		DBModelObjectsCache cache = new DBModelObjectsCache(TestModelObject.class,1);
+		TestDBEntity dbEntity = new TestDBEntity("oid1",1);
+		TestModelObject modelObj = new TestModelObject("name",Lists.newArrayList("a","b"));
+		cache.put(dbEntity,modelObj);
+		
+		// the model object changes after being cached: the cached one does NOT change
+		modelObj.getTags().add("changed after put");
+		
+		TestModelObject hit1 = cache.get(dbEntity);
+		Assert.assertNotNull(hit1);
+		Assert.assertNotSame(modelObj,hit1);
+		Assert.assertEquals("name",hit1.getName());
+		Assert.assertEquals(Lists.newArrayList("a","b"),hit1.getTags());
+		
+		// the returned model object changes: the next hit does NOT see the change
+		hit1.getTags().add("changed after get");
+		TestModelObject hit2 = cache.get(dbEntity);
+		Assert.assertNotSame(hit1,hit2);
+		Assert.assertEquals(Lists.newArrayList("a","b"),hit2.getTags());
+		
+		Assert.assertEquals(2,cache.getStats().hitCount());
+		Assert.assertEquals(1,cache.size());
+	}
+	@Test
+	public void otherEntityVersionIsAMissTest() {
+		DBModelObjectsCache cache = new DBModelObjectsCache(TestModelObject.class,1);
+		cache.put(new TestDBEntity("oid1",1),
+				  new TestModelObject("name",Lists.newArrayList("a")));
+		
+		Assert.assertNull(cache.get(new TestDBEntity("oid1",2)));		// the entity was updated
+		Assert.assertNull(cache.get(new TestDBEntity("oid2",1)));		// not cached
+		Assert.assertNotNull(cache.get(new TestDBEntity("oid1",1)));
+		
+		cache.invalidateAll();
+		Assert.assertNull(cache.get(new TestDBEntity("oid1",1)));
+	}
+	@Test
+	public void modelObjectTypeClassLoaderTest() throws Exception {
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		Assume.assumeNotNull(javac);
+		
+		File workDir = Files.createTempDir();
+		try {
+			// a model object type that is ONLY visible from a child classloader
+			File pckgDir = new File(workDir,"r01ftest/cache");
+			pckgDir.mkdirs();
+			File src = new File(pckgDir,"ChildModelObject.java");
+			Files.write("package r01ftest.cache; public class ChildModelObject implements java.io.Serializable { public String name = \"child\"; }",
+						src,Charsets.UTF_8);
+			Assert.assertEquals(0,javac.run(null,null,null,
+											"-proc:none","-d",workDir.getAbsolutePath(),src.getAbsolutePath()));
+			URLClassLoader childClassLoader = new URLClassLoader(new URL[] {workDir.toURI().toURL()},
+																 DBModelObjectsCacheTest.class.getClassLoader());
+			Class<?> modelObjType = childClassLoader.loadClass("r01ftest.cache.ChildModelObject");
+			
+			DBModelObjectsCache cache = new DBModelObjectsCache(modelObjType,1);
+			TestDBEntity dbEntity = new TestDBEntity("oid1",1);
+			cache.put(dbEntity,modelObjType.newInstance());
+			
+			Object hit = cache.get(dbEntity);
+			Assert.assertNotNull(hit);
+			Assert.assertSame(modelObjType,hit.getClass());
+		} finally {
+			_delete(workDir);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static void _delete(final File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) _delete(child);
+		}
+		file.delete();
+	}
+	@SuppressWarnings("serial")
+	private static class TestModelObject
+			  implements Serializable {
+		private final String _name;
+		private final List<String> _tags;
+		
+		TestModelObject(final String name,final List<String> tags) {
+			_name = name;
+			_tags = tags;
+		}
+		String getName() {
+			return _name;
+		}
+		List<String> getTags() {
+			return _tags;
+		}
+	}
+	@SuppressWarnings("serial")
+	private static class TestDBEntity 
+				 extends DBEntityBase
+			  implements DBEntityForModelObject<DBPrimaryKeyForModelObjectImpl> {
+		private String _oid;
+		
+		TestDBEntity(final String oid,final long entityVersion) {
+			_oid = oid;
+			_entityVersion = entityVersion;
+		}
+		@Override
+		public String getOid() {
+			return _oid;
+		}
+		@Override
+		public void setOid(final String oid) {
+			_oid = oid;
+		}
+		@Override
+		public DBPrimaryKeyForModelObjectImpl getDBEntityPrimaryKey() {
+			return DBPrimaryKeyForModelObjectImpl.from(_oid);
+		}
+		@Override
+		protected void _preCreate() {
+			/* nothing */
+		}
+		@Override
+		protected void _preUpdate() {
+			/* nothing */
+		}
+	}
+}
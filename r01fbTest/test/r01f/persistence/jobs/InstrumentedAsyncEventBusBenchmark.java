@@ -0,0 +1,118 @@
+package r01f.persistence.jobs;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.AsyncEventBus;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+import r01f.concurrent.DaemonThreadFactory;
+import r01f.concurrent.ExecutorSaturationPolicy;
+import r01f.concurrent.InstrumentedThreadPoolExecutor;
+
+/**
+ * Posts events faster than they're handled to compare:
+ * <ul>
+ * 		<li>guava: the guava's {@link AsyncEventBus} with an unbounded fixed thread pool (the queue grows without limit)</li>
+ * 		<li>UNBOUNDED: the {@link InstrumentedAsyncEventBus} with an unbounded queue</li>
+ * 		<li>CALLER_RUNS / BLOCK / DROP: the {@link InstrumentedAsyncEventBus} with a bounded queue and every saturation policy</li>
+ * </ul>
+ * The event bus metrics are printed at the end of every run
+ * Run with:
+ * <pre>
+ * 		java -cp ... r01f.persistence.jobs.InstrumentedAsyncEventBusBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3,time=2,timeUnit=TimeUnit.SECONDS)
+@Measurement(iterations=5,time=2,timeUnit=TimeUnit.SECONDS)
+@Threads(4)
+@Fork(1)
+public class InstrumentedAsyncEventBusBenchmark {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  STATE
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final int NUM_THREADS = 2;
+	private static final int QUEUE_CAPACITY = 1000;
+	private static final int HANDLER_TOKENS = 2000;		// cpu burnt by every handler call
+
+	@Param({"guava","UNBOUNDED","CALLER_RUNS","BLOCK","DROP"})
+	public String _mode;		// jmh sets the @Param fields so it can NOT be private
+
+	private ExecutorService _executor;
+	private EventBus _eventBus;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		if (_mode.equals("guava")) {
+			_executor = Executors.newFixedThreadPool(NUM_THREADS,new DaemonThreadFactory());
+			_eventBus = new AsyncEventBus("benchmark",_executor);
+		} else {
+			_executor = _mode.equals("UNBOUNDED") ? InstrumentedThreadPoolExecutor.createUnbounded(NUM_THREADS,new DaemonThreadFactory())
+												  : InstrumentedThreadPoolExecutor.createBounded(NUM_THREADS,
+														  										 QUEUE_CAPACITY,ExecutorSaturationPolicy.valueOf(_mode),
+														  										 new DaemonThreadFactory());
+			_eventBus = new InstrumentedAsyncEventBus("benchmark",_executor);
+		}
+		_eventBus.register(new BenchmarkListener());
+	}
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (_eventBus instanceof InstrumentedAsyncEventBus) {
+			System.out.println("\n" + ((InstrumentedAsyncEventBus)_eventBus).getMetrics().debugInfo());
+		}
+		_executor.shutdownNow();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BENCHMARKS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Benchmark
+	public void post() {
+		_eventBus.post(new BenchmarkEvent());
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  EVENTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static class BenchmarkEvent {
+		/* nothing */
+	}
+	public static class BenchmarkListener {
+		@Subscribe @AllowConcurrentEvents
+		public void onEvent(final BenchmarkEvent event) {
+			Blackhole.consumeCPU(HANDLER_TOKENS);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static void main(final String[] args) throws RunnerException {
+		Options opts = new OptionsBuilder().include(InstrumentedAsyncEventBusBenchmark.class.getSimpleName())
+										   .build();
+		new Runner(opts).run();
+	}
+}
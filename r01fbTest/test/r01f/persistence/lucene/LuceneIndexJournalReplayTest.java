@@ -0,0 +1,244 @@
+package r01f.persistence.lucene;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+
+import r01f.types.Path;
+
+/**
+ * Simulates a process that crashes before commiting the changes recorded at the {@link LuceneIndex}
+ * changes journal and checks that the changes are replayed when the index is re-opened
+ * The crash is simulated NOT closing the index and re-opening a copy of its directory
+ * (the copy only contains what was commited)
+ */
+public class LuceneIndexJournalReplayTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SET UP
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final String ID_FIELD = "oid";
+	private static final String TITLE_FIELD = "title";
+
+	private File _journalDir;
+	private LuceneIndexCommitPolicy _commitPolicy;
+	private Analyzer _analyzer;
+
+	@Before
+	public void setUp() {
+		_journalDir = Files.createTempDir();
+		_commitPolicy = LuceneIndexCommitPolicy.commitOnFlush()
+											   .journaledAt(Path.from(new File(_journalDir,"changes.journal")));
+		_analyzer = new StandardAnalyzer(LuceneConstants.VERSION);
+	}
+	@After
+	public void tearDown() {
+		File[] files = _journalDir.listFiles();
+		if (files != null) {
+			for (File file : files) file.delete();
+		}
+		_journalDir.delete();
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void crashReopenAndReplayTest() throws IOException {
+		Directory dir = new RAMDirectory();
+		LuceneIndex crashedIndex = new LuceneIndex(dir,_analyzer,
+												   _commitPolicy);
+		try {
+			// commited changes
+			crashedIndex.index(_idTerm("a"),_doc("a","original"));
+			crashedIndex.index(_idTerm("b"),_doc("b","original"));
+			crashedIndex.flush();
+
+			// NOT commited changes
+			crashedIndex.reIndex(_idTerm("a"),_doc("a","updated"));
+			crashedIndex.index(_idTerm("c"),_doc("c","created"));
+			crashedIndex.unIndex(_idTerm("b"));
+
+			// ... the process crashes: the re-opened index only contains the commited changes
+			LuceneIndex index = new LuceneIndex(new RAMDirectory(dir,IOContext.DEFAULT),_analyzer,
+												_commitPolicy);
+			try {
+				Assert.assertTrue(index.hasRecoveredChanges());
+				Assert.assertEquals(1,index.count(new TermQuery(_idTerm("b"))));
+				Assert.assertEquals(0,index.count(new TermQuery(_idTerm("c"))));
+
+				// the source data (b was deleted)
+				Map<String,Document> sourceDocs = Maps.newHashMap();
+				sourceDocs.put("a",_doc("a","updated"));
+				sourceDocs.put("c",_doc("c","created"));
+				index.addRecoveredChangesReplayer(_replayerFor(sourceDocs));
+				index.open();
+
+				Assert.assertFalse(index.hasRecoveredChanges());
+				Assert.assertEquals(1,index.count(new TermQuery(new Term(TITLE_FIELD,"updated"))));
+				Assert.assertEquals(0,index.count(new TermQuery(new Term(TITLE_FIELD,"original"))));
+				Assert.assertEquals(1,index.count(new TermQuery(_idTerm("c"))));
+				Assert.assertEquals(0,index.count(new TermQuery(_idTerm("b"))));
+				Assert.assertEquals(0,index.getUncommitedChangesCount());
+			} finally {
+				index.close();
+			}
+			// once replayed the changes are NOT replayed again
+			LuceneIndex reopenedIndex = new LuceneIndex(new RAMDirectory(),_analyzer,
+														_commitPolicy);
+			try {
+				Assert.assertFalse(reopenedIndex.hasRecoveredChanges());
+			} finally {
+				reopenedIndex.close();
+			}
+		} finally {
+			crashedIndex.close();
+		}
+	}
+	@Test
+	public void recoveredChangesAreKeptIfThereIsNoReplayerTest() throws IOException {
+		Files.write("INDEX\t" + ID_FIELD + "\ta\n",
+					new File(_journalDir,"changes.journal"),Charsets.UTF_8);
+		LuceneIndex index = new LuceneIndex(new RAMDirectory(),_analyzer,
+											_commitPolicy);
+		try {
+			index.open();
+			Assert.assertTrue(index.hasRecoveredChanges());
+		} finally {
+			index.close();
+		}
+		// the changes are still there for the next process
+		LuceneIndex reopenedIndex = new LuceneIndex(new RAMDirectory(),_analyzer,
+													_commitPolicy);
+		try {
+			Assert.assertTrue(reopenedIndex.hasRecoveredChanges());
+		} finally {
+			reopenedIndex.close();
+		}
+	}
+	@Test
+	public void changesNotReplayedAreKeptUntilTheirReplayerIsRegisteredTest() throws IOException {
+		Directory dir = new RAMDirectory();
+		LuceneIndex committedIndex = new LuceneIndex(dir,_analyzer);
+		committedIndex.index(_idTerm("b"),_doc("b","original"));
+		committedIndex.close();
+
+		// the index is shared by two model object types: a & c are from one type and b & d from the other
+		Files.write("INDEX\t" + ID_FIELD + "\ta\n" +
+					"REINDEX\t" + ID_FIELD + "\tb\n" +
+					"INDEX\t" + ID_FIELD + "\tc\n" +
+					"INDEX\t" + ID_FIELD + "\td\n",
+					new File(_journalDir,"changes.journal"),Charsets.UTF_8);
+
+		LuceneIndex index = new LuceneIndex(dir,_analyzer,
+											_commitPolicy);
+		try {
+			// only the replayer of the first type is registered (and it fails with c)
+			Map<String,Document> sourceDocs = Maps.newHashMap();
+			sourceDocs.put("a",_doc("a","created"));
+			index.addRecoveredChangesReplayer(_replayerFor(sourceDocs));
+			index.addRecoveredChangesReplayer(_failingReplayerFor("c"));
+			index.open();
+
+			// a is replayed; b is NOT deleted and b, c & d are kept
+			Assert.assertTrue(index.hasRecoveredChanges());
+			Assert.assertEquals(1,index.count(new TermQuery(_idTerm("a"))));
+			Assert.assertEquals(1,index.count(new TermQuery(new Term(TITLE_FIELD,"original"))));
+			Assert.assertEquals(0,index.count(new TermQuery(_idTerm("c"))));
+			Assert.assertEquals(0,index.count(new TermQuery(_idTerm("d"))));
+
+			// the replayer of the other type is registered
+			Map<String,Document> otherSourceDocs = Maps.newHashMap();
+			otherSourceDocs.put("b",_doc("b","updated"));
+			otherSourceDocs.put("c",_doc("c","created"));
+			otherSourceDocs.put("d",_doc("d","created"));
+			index.addRecoveredChangesReplayer(_replayerFor(otherSourceDocs));
+			index.open();
+
+			Assert.assertFalse(index.hasRecoveredChanges());
+			Assert.assertEquals(1,index.count(new TermQuery(new Term(TITLE_FIELD,"updated"))));
+			Assert.assertEquals(0,index.count(new TermQuery(new Term(TITLE_FIELD,"original"))));
+			Assert.assertEquals(1,index.count(new TermQuery(_idTerm("c"))));
+			Assert.assertEquals(1,index.count(new TermQuery(_idTerm("d"))));
+		} finally {
+			index.close();
+		}
+	}
+	@Test
+	public void truncateIsReplayedInOrderTest() throws IOException {
+		Directory dir = new RAMDirectory();
+		LuceneIndex committedIndex = new LuceneIndex(dir,_analyzer);
+		committedIndex.index(_idTerm("a"),_doc("a","original"));
+		committedIndex.index(_idTerm("b"),_doc("b","original"));
+		committedIndex.close();
+
+		// the process crashed just after truncating the index and indexing a new doc
+		Files.write("INDEX\t" + ID_FIELD + "\tc\n" +
+					"TRUNCATE\t\t\n" +
+					"INDEX\t" + ID_FIELD + "\td\n",
+					new File(_journalDir,"changes.journal"),Charsets.UTF_8);
+
+		LuceneIndex index = new LuceneIndex(dir,_analyzer,
+											_commitPolicy);
+		try {
+			Map<String,Document> sourceDocs = Maps.newHashMap();
+			sourceDocs.put("c",_doc("c","created"));
+			sourceDocs.put("d",_doc("d","created"));
+			index.addRecoveredChangesReplayer(_replayerFor(sourceDocs));
+			index.open();
+
+			Assert.assertEquals(1,index.count(new MatchAllDocsQuery()));
+			Assert.assertEquals(1,index.count(new TermQuery(_idTerm("d"))));
+		} finally {
+			index.close();
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static Term _idTerm(final String id) {
+		return new Term(ID_FIELD,id);
+	}
+	private static Document _doc(final String id,final String title) {
+		Document doc = new Document();
+		doc.add(new StringField(ID_FIELD,id,Store.YES));
+		doc.add(new TextField(TITLE_FIELD,title,Store.YES));
+		return doc;
+	}
+	private static LuceneIndexRecoveredChangesReplayer _replayerFor(final Map<String,Document> sourceDocs) {
+		return new LuceneIndexRecoveredChangesReplayer() {
+						@Override
+						public Document documentFor(final Term idTerm) {
+							return sourceDocs.get(idTerm.text());
+						}
+			   };
+	}
+	private static LuceneIndexRecoveredChangesReplayer _failingReplayerFor(final String failingId) {
+		return new LuceneIndexRecoveredChangesReplayer() {
+						@Override
+						public Document documentFor(final Term idTerm) {
+							if (idTerm.text().equals(failingId)) throw new IllegalStateException("Could NOT load " + failingId);
+							return null;
+						}
+			   };
+	}
+}
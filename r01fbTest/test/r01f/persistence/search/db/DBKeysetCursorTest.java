@@ -0,0 +1,43 @@
+package r01f.persistence.search.db;
+
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks the {@link DBKeysetCursor} token encoding
+ */
+public class DBKeysetCursorTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void tokenCarriesTheTotalItemsCountTest() {
+		Date date = new Date();
+		DBKeysetCursor cursor = new DBKeysetCursor(20,1534,
+												   new Object[] {"oid-20","v1",7L,3,date,null});
+		DBKeysetCursor decoded = DBKeysetCursor.fromToken(cursor.asToken());
+
+		Assert.assertEquals(20,decoded.getPosition());
+		Assert.assertTrue(decoded.hasTotalItemsCount());
+		Assert.assertEquals(1534,decoded.getTotalItemsCount());
+		Assert.assertArrayEquals(new Object[] {"oid-20","v1",7L,3,date,null},
+								 decoded.getLastKeys());
+	}
+	@Test
+	public void tokenWithoutTotalItemsCountTest() {
+		DBKeysetCursor cursor = new DBKeysetCursor(10,
+												   new Object[] {"oid-10"});
+		DBKeysetCursor decoded = DBKeysetCursor.fromToken(cursor.asToken());
+
+		Assert.assertEquals(10,decoded.getPosition());
+		Assert.assertFalse(decoded.hasTotalItemsCount());
+		Assert.assertArrayEquals(new Object[] {"oid-10"},
+								 decoded.getLastKeys());
+	}
+	@Test(expected=IllegalArgumentException.class)
+	public void invalidTokenTest() {
+		DBKeysetCursor.fromToken("notAToken");
+	}
+}
@@ -0,0 +1,108 @@
+package r01f.persistence.search.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that {@link DBSearchQueryCache#queryFor(EntityManager, String, Callable)} surfaces the errors
+ * composing or compiling the JPQL (the guava cache wraps them)
+ */
+public class DBSearchQueryCacheTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void invalidJpqlTest() {
+		IllegalArgumentException invalidJpqlEx = new IllegalArgumentException("invalid jpql");
+		DBSearchQueryCache cache = new DBSearchQueryCache(10);
+		try {
+			cache.queryFor(_entityManagerThrowing(invalidJpqlEx),
+						   "shape",_jpql("SELECT FROM"));
+			Assert.fail("An invalid JPQL should NOT be compiled");
+		} catch(IllegalStateException illStateEx) {
+			Assert.assertSame(invalidJpqlEx,illStateEx.getCause());
+		}
+	}
+	@Test
+	public void jpqlComposingErrorTest() {
+		final Exception composeEx = new Exception("could NOT compose the jpql");
+		DBSearchQueryCache cache = new DBSearchQueryCache(10);
+		try {
+			cache.queryFor(_entityManagerThrowing(null),
+						   "shape",new Callable<String>() {
+											@Override
+											public String call() throws Exception {
+												throw composeEx;
+											}
+								   });
+			Assert.fail("The JPQL should NOT be composed");
+		} catch(IllegalStateException illStateEx) {
+			Assert.assertSame(composeEx,illStateEx.getCause());
+		}
+	}
+	@Test
+	public void compilingErrorIsRethrownTest() {
+		StackOverflowError compileErr = new StackOverflowError();
+		DBSearchQueryCache cache = new DBSearchQueryCache(10);
+		try {
+			cache.queryFor(_entityManagerThrowing(compileErr),
+						   "shape",_jpql("SELECT e FROM MyEntity e"));
+			Assert.fail("The JPQL should NOT be compiled");
+		} catch(StackOverflowError err) {
+			Assert.assertSame(compileErr,err);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static Callable<String> _jpql(final String jpql) {
+		return new Callable<String>() {
+						@Override
+						public String call() {
+							return jpql;
+						}
+			   };
+	}
+	/**
+	 * Creates an entity manager whose createQuery method throws the given error
+	 */
+	private static EntityManager _entityManagerThrowing(final Throwable th) {
+		final EntityManagerFactory emf = _proxy(EntityManagerFactory.class,
+												null);
+		return _proxy(EntityManager.class,
+					  new InvocationHandler() {
+							@Override
+							public Object invoke(final Object proxy,
+												 final Method method,final Object[] args) throws Throwable {
+								if (method.getName().equals("getEntityManagerFactory")) return emf;
+								if (method.getName().equals("createQuery") && th != null) throw th;
+								throw new UnsupportedOperationException(method.getName());
+							}
+					  });
+	}
+	@SuppressWarnings("unchecked")
+	private static <T> T _proxy(final Class<T> type,
+								final InvocationHandler handler) {
+		return (T)Proxy.newProxyInstance(type.getClassLoader(),
+										 new Class<?>[] {type},
+										 new InvocationHandler() {
+												@Override
+												public Object invoke(final Object proxy,
+																	 final Method method,final Object[] args) throws Throwable {
+													if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+													if (method.getName().equals("equals")) return proxy == args[0];
+													if (method.getName().equals("toString")) return type.getSimpleName();
+													if (handler != null) return handler.invoke(proxy,method,args);
+													throw new UnsupportedOperationException(method.getName());
+												}
+										 });
+	}
+}
@@ -0,0 +1,164 @@
+package r01f.reflection.scanner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+
+import r01f.services.ServicesPackages;
+
+/**
+ * Checks that the types at a jar that ships a {@link TypeIndex} are merged with the types found
+ * scanning a jar that does NOT ship an index:
+ * <ul>
+ * 		<li>indexed.jar: IndexedTask (at the index) and HiddenTask (NOT at the index: the jar is NOT scanned so it's NOT found)</li>
+ * 		<li>scanned.jar: ScannedTask (there's no index: the jar is scanned)</li>
+ * </ul>
+ * The types are compiled when the test runs (it's skipped if there's no java compiler available)
+ */
+public class TypeIndexMergeTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SET UP
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final String PCKG = "r01ftest.typeindex";
+
+	private File _workDir;
+	private URLClassLoader _classLoader;
+	private ClassLoader _prevContextClassLoader;
+
+	@Before
+	public void setUp() throws IOException {
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		Assume.assumeNotNull(javac);
+
+		_workDir = Files.createTempDir();
+		File indexedClasses = _compile(javac,"indexed",
+									   "IndexedTask","HiddenTask");
+		File scannedClasses = _compile(javac,"scanned",
+									   "ScannedTask");
+		File indexedJar = _jar(indexedClasses,new File(_workDir,"indexed.jar"),
+							   TypeIndexFormat.entry(PCKG + ".IndexedTask",
+									   				 Collections.<String>emptyList(),Arrays.asList(Runnable.class.getName())));
+		File scannedJar = _jar(scannedClasses,new File(_workDir,"scanned.jar"),
+							   null);		// no index
+		_classLoader = new URLClassLoader(new URL[] {indexedJar.toURI().toURL(),scannedJar.toURI().toURL()},
+										  TypeIndexMergeTest.class.getClassLoader());
+		_prevContextClassLoader = Thread.currentThread().getContextClassLoader();
+		Thread.currentThread().setContextClassLoader(_classLoader);
+	}
+	@After
+	public void tearDown() throws IOException {
+		if (_prevContextClassLoader != null) Thread.currentThread().setContextClassLoader(_prevContextClassLoader);
+		if (_workDir != null) _delete(_workDir);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void indexedRootsTest() throws IOException {
+		TypeIndex typeIndex = TypeIndex.forClassLoader(_classLoader);
+		Assert.assertTrue(typeIndex.isAvailable());
+
+		URL indexedPckgUrl = _classLoader.findResource(PCKG.replace('.','/') + "/IndexedTask.class");
+		URL scannedPckgUrl = _classLoader.findResource(PCKG.replace('.','/') + "/ScannedTask.class");
+		Assert.assertTrue(typeIndex.isIndexed(indexedPckgUrl));
+		Assert.assertFalse(typeIndex.isIndexed(scannedPckgUrl));
+		Assert.assertEquals(Lists.newArrayList(scannedPckgUrl),
+							typeIndex.notIndexed(Arrays.asList(indexedPckgUrl,scannedPckgUrl)));
+	}
+	@Test
+	public void typeScannerMergesIndexedAndScannedTypesTest() {
+		TypeScanner<Runnable> scanner = new TypeScanner<Runnable>();
+		scanner.setClassLoader(_classLoader);
+		scanner.findImplementations(Runnable.class,
+									PCKG);
+		_assertFound(scanner.getClasses());
+	}
+	@Test
+	public void servicesPackagesMergesIndexedAndScannedTypesTest() {
+		Set<Class<? extends Runnable>> types = ServicesPackages.findSubTypesAt(Runnable.class,
+																			   Arrays.asList(PCKG),
+																			   _classLoader);
+		_assertFound(types);
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static void _assertFound(final Set<? extends Class<?>> types) {
+		Set<String> typeNames = Sets.newHashSet();
+		for (Class<?> type : types) typeNames.add(type.getName());
+		Assert.assertTrue(typeNames.contains(PCKG + ".IndexedTask"));		// from the index
+		Assert.assertTrue(typeNames.contains(PCKG + ".ScannedTask"));		// from the not indexed jar
+		Assert.assertFalse(typeNames.contains(PCKG + ".HiddenTask"));		// the indexed jar is NOT scanned
+	}
+	private File _compile(final JavaCompiler javac,
+						  final String name,
+						  final String... typeNames) throws IOException {
+		File srcDir = new File(_workDir,name + "-src");
+		File classesDir = new File(_workDir,name + "-classes");
+		File pckgDir = new File(srcDir,PCKG.replace('.','/'));
+		pckgDir.mkdirs();
+		classesDir.mkdirs();
+		String[] args = new String[typeNames.length + 3];
+		args[0] = "-proc:none";			// the index is written by the test
+		args[1] = "-d";
+		args[2] = classesDir.getAbsolutePath();
+		for (int i = 0; i < typeNames.length; i++) {
+			File src = new File(pckgDir,typeNames[i] + ".java");
+			Files.write("package " + PCKG + "; public class " + typeNames[i] + " implements Runnable { @Override public void run() { /* nothing */ } }",
+						src,Charsets.UTF_8);
+			args[i + 3] = src.getAbsolutePath();
+		}
+		Assert.assertEquals(0,javac.run(null,null,null,args));
+		return classesDir;
+	}
+	private static File _jar(final File classesDir,final File jar,
+							 final String indexEntry) throws IOException {
+		JarOutputStream jos = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			File pckgDir = new File(classesDir,PCKG.replace('.','/'));
+			jos.putNextEntry(new JarEntry(PCKG.replace('.','/') + "/"));
+			jos.closeEntry();
+			for (File classFile : pckgDir.listFiles()) {
+				jos.putNextEntry(new JarEntry(PCKG.replace('.','/') + "/" + classFile.getName()));
+				jos.write(Files.toByteArray(classFile));
+				jos.closeEntry();
+			}
+			if (indexEntry != null) {
+				jos.putNextEntry(new JarEntry(TypeIndex.INDEX_RESOURCE));
+				jos.write((indexEntry + "\n").getBytes(Charsets.UTF_8));
+				jos.closeEntry();
+			}
+		} finally {
+			jos.close();
+		}
+		return jar;
+	}
+	private static void _delete(final File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) _delete(child);
+		}
+		file.delete();
+	}
+}
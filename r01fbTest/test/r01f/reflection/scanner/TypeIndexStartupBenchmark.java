@@ -0,0 +1,84 @@
+package r01f.reflection.scanner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+
+import r01f.services.interfaces.ServiceInterface;
+
+/**
+ * Compares the bootstrap type discovery cost in a cold jvm (every measurement runs at a new fork):
+ * <ul>
+ * 		<li>scan: org.reflections classpath scanning (as the finders did before the type index)</li>
+ * 		<li>index: the {@link TypeIndex} resources written by the {@link TypeIndexAnnotationProcessor}</li>
+ * </ul>
+ * BEWARE! r01fbClasses MUST be built with the annotation processor enabled (otherwise there's no index to read)
+ * Run with:
+ * <pre>
+ * 		java -cp ... r01f.reflection.scanner.TypeIndexStartupBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=0)
+@Measurement(iterations=1)
+@Fork(10)
+public class TypeIndexStartupBenchmark {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  STATE
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final List<String> PACKAGES = Arrays.asList("r01f");
+
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BENCHMARKS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Benchmark
+	public void scan(final Blackhole bh) {
+		Reflections typeScanner = new Reflections(new ConfigurationBuilder()
+															.setUrls(ClasspathHelper.forPackage(PACKAGES.get(0)))
+															.setScanners(new SubTypesScanner(true),
+																		 new TypeAnnotationsScanner()));
+		bh.consume(typeScanner.getSubTypesOf(ServiceInterface.class));
+		bh.consume(typeScanner.getTypesAnnotatedWith(XmlRootElement.class));
+	}
+	@Benchmark
+	public void index(final Blackhole bh) {
+		TypeIndex typeIndex = TypeIndex.forClassLoader(Thread.currentThread().getContextClassLoader());
+		if (!typeIndex.isAvailable()) throw new IllegalStateException("There's NO type index at the classpath: build r01fbClasses with the annotation processor enabled");
+		bh.consume(typeIndex.getSubTypesOf(ServiceInterface.class,
+										   PACKAGES));
+		bh.consume(typeIndex.getTypesAnnotatedWith(XmlRootElement.class,
+												   PACKAGES));
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static void main(final String[] args) throws RunnerException {
+		Options opts = new OptionsBuilder().include(TypeIndexStartupBenchmark.class.getSimpleName())
+										   .build();
+		new Runner(opts).run();
+	}
+}
@@ -0,0 +1,139 @@
+package r01f.services.client.api.delegates;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import r01f.guids.CommonOIDs.UserCode;
+import r01f.guids.OIDBaseMutable;
+import r01f.model.PersistableModelObject;
+import r01f.persistence.CRUDOnMultipleOK;
+import r01f.persistence.CRUDResultBuilder;
+import r01f.services.interfaces.CRUDServicesForModelObject;
+import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextBase;
+
+/**
+ * Checks the {@link ClientAPIDelegateForModelObjectCRUDServices} loadAll method when all, none
+ * or some of the requested records are found
+ */
+public class ClientAPIDelegateForModelObjectCRUDServicesTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  SET UP
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final UserContext USER_CONTEXT = new TestUserContext("user");
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void loadAllSomeMissingTest() {
+		TestModelObject a = _modelObject("a");
+		TestModelObject c = _modelObject("c");
+		ClientAPIDelegateForModelObjectCRUDServices<TestOID,TestModelObject> api = _api(a,null,c);
+
+		Collection<TestModelObject> loaded = api.loadAll(Lists.newArrayList(_oid("a"),_oid("b"),_oid("c")));
+		Assert.assertEquals(Lists.newArrayList(a,c),Lists.newArrayList(loaded));
+	}
+	@Test
+	public void loadAllAllMissingTest() {
+		ClientAPIDelegateForModelObjectCRUDServices<TestOID,TestModelObject> api = _api(null,null);
+
+		Collection<TestModelObject> loaded = api.loadAll(Lists.newArrayList(_oid("a"),_oid("b")));
+		Assert.assertNotNull(loaded);
+		Assert.assertTrue(loaded.isEmpty());
+	}
+	@Test
+	public void loadAllNoOidsTest() {
+		ClientAPIDelegateForModelObjectCRUDServices<TestOID,TestModelObject> api = _api();
+
+		Collection<TestModelObject> loaded = api.loadAll(Lists.<TestOID>newArrayList());
+		Assert.assertNotNull(loaded);
+		Assert.assertTrue(loaded.isEmpty());
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Creates an api whose loadAll services method answers with the given records
+	 * (a null record is a not found one)
+	 */
+	@SuppressWarnings("unchecked")
+	private static ClientAPIDelegateForModelObjectCRUDServices<TestOID,TestModelObject> _api(final TestModelObject... records) {
+		final CRUDOnMultipleOK<TestModelObject> results = CRUDResultBuilder.using(USER_CONTEXT)
+																		   .on(TestModelObject.class)
+																		   .loadedMultiple();
+		for (TestModelObject record : records) {
+			if (record != null) {
+				results.addOperationOK(CRUDResultBuilder.using(USER_CONTEXT)
+														.on(TestModelObject.class)
+														.loaded()
+														.entity(record));
+			} else {
+				results.addOperationNOK(CRUDResultBuilder.using(USER_CONTEXT)
+														 .on(TestModelObject.class)
+														 .notLoaded()
+														 .becauseClientRequestedEntityWasNOTFound()
+														 .build());
+			}
+		}
+		InvocationHandler servicesHandler = new InvocationHandler() {
+													@Override
+													public Object invoke(final Object proxy,
+																		 final Method method,final Object[] args) {
+														if (method.getName().equals("loadAll")) return results;
+														throw new UnsupportedOperationException(method.getName());
+													}
+											};
+		CRUDServicesForModelObject<TestOID,TestModelObject> services = (CRUDServicesForModelObject<TestOID,TestModelObject>)Proxy.newProxyInstance(CRUDServicesForModelObject.class.getClassLoader(),
+																																				   new Class<?>[] {CRUDServicesForModelObject.class},
+																																				   servicesHandler);
+		return new ClientAPIDelegateForModelObjectCRUDServices<TestOID,TestModelObject>(USER_CONTEXT,
+																						null,		// no marshaller needed
+																						services) {
+						/* nothing */
+			   };
+	}
+	private static TestOID _oid(final String id) {
+		return new TestOID(id);
+	}
+	private static TestModelObject _modelObject(final String name) {
+		return (TestModelObject)Proxy.newProxyInstance(TestModelObject.class.getClassLoader(),
+													   new Class<?>[] {TestModelObject.class},
+													   new InvocationHandler() {
+																@Override
+																public Object invoke(final Object proxy,
+																					 final Method method,final Object[] args) {
+																	if (method.getName().equals("toString")) return name;
+																	if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+																	if (method.getName().equals("equals")) return proxy == args[0];
+																	return null;
+																}
+													   });
+	}
+	private static interface TestModelObject
+					 extends PersistableModelObject<TestOID> {
+		/* just a type */
+	}
+	private static class TestOID
+				 extends OIDBaseMutable<String> {
+		private static final long serialVersionUID = -2305711837468211436L;
+
+		TestOID(final String id) {
+			super(id);
+		}
+	}
+	private static class TestUserContext
+				 extends UserContextBase {
+		private static final long serialVersionUID = 6122931865723374052L;
+
+		TestUserContext(final String user) {
+			super(UserCode.forId(user));
+		}
+	}
+}
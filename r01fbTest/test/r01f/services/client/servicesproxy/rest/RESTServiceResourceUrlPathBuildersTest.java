@@ -0,0 +1,46 @@
+package r01f.services.client.servicesproxy.rest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import r01f.guids.OIDBaseMutable;
+import r01f.services.client.servicesproxy.rest.RESTServiceResourceUrlPathBuilders.RESTServiceResourceUrlPathBuilderForModelObjectPersistence;
+import r01f.services.client.servicesproxy.rest.RESTServiceResourceUrlPathBuilders.RESTServiceResourceUrlPathBuilderForModelObjectPersistenceBase;
+import r01f.types.url.Url;
+import r01f.types.url.UrlPath;
+
+/**
+ * Checks the {@link RESTServiceResourceUrlPathBuilderForModelObjectPersistence} paths of the multiple
+ * entities resources
+ */
+public class RESTServiceResourceUrlPathBuildersTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void entityListByOidsPathsTest() {
+		RESTServiceResourceUrlPathBuilderForModelObjectPersistence<TestOID> pathBuilder = new TestPathBuilder();
+		// loadAll: GET
+		Assert.assertEquals("records/list/byOids",
+							pathBuilder.pathOfEntityListByOids().asRelativeString());
+		// existsAll: HEAD to a dedicated resource (a HEAD to the loadAll resource would be answered by the GET method)
+		Assert.assertEquals("records/list/byOids/exists",
+							pathBuilder.pathOfEntityListByOidsExistence().asRelativeString());
+		Assert.assertFalse(pathBuilder.pathOfEntityListByOids().equals(pathBuilder.pathOfEntityListByOidsExistence()));
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static class TestPathBuilder
+				 extends RESTServiceResourceUrlPathBuilderForModelObjectPersistenceBase<TestOID> {
+		TestPathBuilder() {
+			super(Url.from("http://localhost:8080"),
+				  UrlPath.from("myRESTServicesWar"),
+				  UrlPath.from("records"));
+		}
+	}
+	private static class TestOID
+				 extends OIDBaseMutable<String> {
+		private static final long serialVersionUID = 4637192841102536711L;
+	}
+}
@@ -0,0 +1,68 @@
+package r01f.usercontext;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import r01f.marshalling.Marshaller;
+
+/**
+ * Checks that {@link UserContextTokens#userContextFrom(Marshaller, String)} surfaces the errors
+ * parsing the userContext header (the guava cache wraps them)
+ */
+public class UserContextTokensTest {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  TESTS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Test
+	public void unsupportedTokenVersionTest() {
+		try {
+			UserContextTokens.userContextFrom(_marshallerThrowing(null),
+											  "R01UC9.notAValidToken");
+			Assert.fail("An unsupported token should NOT be parsed");
+		} catch(IllegalArgumentException illArgEx) {
+			Assert.assertTrue(illArgEx.getCause() instanceof IllegalArgumentException);
+			Assert.assertTrue(illArgEx.getCause().getMessage().contains("Unsupported user context token version"));
+		}
+	}
+	@Test
+	public void xmlUnmarshallingErrorTest() {
+		IllegalStateException unmarshallEx = new IllegalStateException("not a user context xml");
+		try {
+			UserContextTokens.userContextFrom(_marshallerThrowing(unmarshallEx),
+											  "<notAUserContext/>");
+			Assert.fail("An invalid user context xml should NOT be parsed");
+		} catch(IllegalArgumentException illArgEx) {
+			Assert.assertSame(unmarshallEx,illArgEx.getCause());
+		}
+	}
+	@Test
+	public void xmlUnmarshallingErrorIsRethrownTest() {
+		StackOverflowError unmarshallErr = new StackOverflowError();
+		try {
+			UserContextTokens.userContextFrom(_marshallerThrowing(unmarshallErr),
+											  "<aDeeplyNestedUserContext/>");
+			Assert.fail("An invalid user context xml should NOT be parsed");
+		} catch(StackOverflowError err) {
+			Assert.assertSame(unmarshallErr,err);
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static Marshaller _marshallerThrowing(final Throwable th) {
+		return (Marshaller)Proxy.newProxyInstance(Marshaller.class.getClassLoader(),
+												  new Class<?>[] {Marshaller.class},
+												  new InvocationHandler() {
+															@Override
+															public Object invoke(final Object proxy,
+																				 final Method method,final Object[] args) throws Throwable {
+																if (th != null) throw th;
+																throw new UnsupportedOperationException(method.getName());
+															}
+												  });
+	}
+}
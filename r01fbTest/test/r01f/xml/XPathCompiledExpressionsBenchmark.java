@@ -0,0 +1,93 @@
+package r01f.xml;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Emulates the properties resolution after a properties reload (all the cached properties are invalidated
+ * so every property xpath is evaluated against the component's xml):
+ * <ul>
+ * 		<li>uncached: the xpath factory is looked up and the expression compiled for every property (previous behavior)</li>
+ * 		<li>cached: {@link XMLUtils} using {@link XPathCompiledExpressions}</li>
+ * </ul>
+ * Run with:
+ * <pre>
+ * 		java -cp ... r01f.xml.XPathCompiledExpressionsBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3,time=2,timeUnit=TimeUnit.SECONDS)
+@Measurement(iterations=5,time=2,timeUnit=TimeUnit.SECONDS)
+@Fork(1)
+public class XPathCompiledExpressionsBenchmark {
+/////////////////////////////////////////////////////////////////////////////////////////
+//  STATE
+/////////////////////////////////////////////////////////////////////////////////////////
+	private static final int NUM_PROPERTIES = 100;
+
+	private Document _xml;
+	private String[] _propXPaths;
+
+	@Setup
+	public void setUp() throws SAXException {
+		StringBuilder xml = new StringBuilder("<component>");
+		_propXPaths = new String[NUM_PROPERTIES];
+		for (int i = 0; i < NUM_PROPERTIES; i++) {
+			xml.append("<group").append(i % 10).append(">")
+			   .append("<prop").append(i).append(" attr='").append(i).append("'>value").append(i).append("</prop").append(i).append(">")
+			   .append("</group").append(i % 10).append(">");
+			_propXPaths[i] = "component/group" + (i % 10) + "/prop" + i;
+		}
+		xml.append("</component>");
+		_xml = XMLUtils.parse(xml.toString());
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BENCHMARKS
+/////////////////////////////////////////////////////////////////////////////////////////
+	@Benchmark
+	public void uncachedReloadResolution(final Blackhole bh) throws XPathExpressionException {
+		for (String propXPath : _propXPaths) {
+			bh.consume(XPathFactory.newInstance()
+								   .newXPath()
+								   .compile(propXPath)
+								   .evaluate(_xml,XPathConstants.STRING));
+		}
+	}
+	@Benchmark
+	public void cachedReloadResolution(final Blackhole bh) throws XPathExpressionException {
+		for (String propXPath : _propXPaths) {
+			bh.consume(XMLUtils.stringByXPath(_xml,propXPath));
+		}
+	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//
+/////////////////////////////////////////////////////////////////////////////////////////
+	public static void main(final String[] args) throws RunnerException {
+		Options opts = new OptionsBuilder().include(XPathCompiledExpressionsBenchmark.class.getSimpleName())
+										   .build();
+		new Runner(opts).run();
+	}
+}
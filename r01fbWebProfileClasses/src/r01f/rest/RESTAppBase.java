@@ -11,6 +11,7 @@ import javax.ws.rs.ext.MessageBodyWriter;
 
 import com.google.common.collect.Sets;
 import com.sun.jersey.guice.JerseyServletModule;
+import com.sun.jersey.spi.StringReaderProvider;
 
 import r01f.util.types.collections.CollectionUtils;
 
@@ -46,6 +47,15 @@ public abstract class RESTAppBase
 		Set<Class<? extends MessageBodyReader<?>>> outMappers = Sets.newHashSet();
 		return outMappers;
 	}
+	/**
+	 * @return the {@link StringReaderProvider} types that maps request received header (or query string) params
+	 * 		   (ie: the userContext header, see {@link RESTRequestTypeMappersForModelObjects.UserContextRequestTypeMapperBase})
+	 */
+	@SuppressWarnings("static-method")
+	public Set<Class<? extends StringReaderProvider<?>>> getRequestReceivedHeaderParamsMappers() {
+		Set<Class<? extends StringReaderProvider<?>>> outMappers = Sets.newHashSet();
+		return outMappers;
+	}
 	/**
 	 * @return the {@link MessageBodyWriter} types that maps response sent objects
 	 */
@@ -78,6 +88,10 @@ public abstract class RESTAppBase
 		Set<Class<? extends MessageBodyReader<?>>> reqReceivedTypesMappers = this.getRequestReceivedTypesMappers();
 		if (CollectionUtils.hasData(reqReceivedTypesMappers)) s.addAll(reqReceivedTypesMappers);
 		
+		// Request received header params mappers: transforms the header params (ie the userContext) to Java
+		Set<Class<? extends StringReaderProvider<?>>> reqReceivedHeaderParamsMappers = this.getRequestReceivedHeaderParamsMappers();
+		if (CollectionUtils.hasData(reqReceivedHeaderParamsMappers)) s.addAll(reqReceivedHeaderParamsMappers);
+		
 		// Response sent objects mappers: transforms Java->XML for REST methods return types
 		Set<Class<? extends MessageBodyWriter<?>>> respSentTypesMappers = this.getResponseSentTypesMappers();
 		if (CollectionUtils.hasData(respSentTypesMappers)) s.addAll(respSentTypesMappers);
@@ -5,6 +5,7 @@ import java.util.Collection;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,7 @@ import r01f.exceptions.Throwables;
 import r01f.guids.OID;
 import r01f.model.PersistableModelObject;
 import r01f.model.jobs.EnqueuedJob;
+import r01f.model.search.SearchResultItemsStream;
 import r01f.model.search.SearchResults;
 import r01f.patterns.IsBuilder;
 import r01f.persistence.CRUDError;
@@ -183,7 +185,16 @@ public class RESTOperationsResponseBuilder
 				Collection<CRUDOK<M>> opsOK = multipleCRUDOK.getOperationsOK();
 				Collection<CRUDError<M>> opsNOK = multipleCRUDOK.getOperationsNOK();
 				
-				if (CollectionUtils.isNullOrEmpty(opsOK) && CollectionUtils.hasData(opsNOK)) {			// only errors!
+				if (multipleCRUDOK.getRequestedOperation() == PersistenceRequestedOperation.LOAD) {
+					// Multiple load: the NOT found entities are NOT an error; the client receives
+					// the loaded entities AND the NOT found ones
+					outResponse = Response.ok()
+										  .contentLocation(_resourceURI)
+										  .header("x-r01-modelObjType",_modelObjectType.getName())
+										  .entity(multipleCRUDOK)
+										  .type(MediaType.APPLICATION_XML_TYPE)
+										  .build();
+				} else if (CollectionUtils.isNullOrEmpty(opsOK) && CollectionUtils.hasData(opsNOK)) {			// only errors!
 					// Throw the exception for the first error... it'll be mapped by the RESTExceptionMappers REST type mapper
 					CRUDError<M> anError = CollectionUtils.pickOneElement(opsNOK);
 					anError.throwAsPersistenceException();
@@ -370,5 +381,19 @@ public class RESTOperationsResponseBuilder
 										   .build();
 			return outResponse;
 		}
+		/**
+		 * Returns a REST {@link Response} for a streamed search operation: the items are written
+		 * as they're got (a chunked response: see {@link SearchResultItemsStream})
+		 * @param itemsStream
+		 * @return the response
+		 */
+		public Response build(final StreamingOutput itemsStream) {
+			Response outResponse = Response.ok()
+										   .contentLocation(_resourceURI)
+										   .type(SearchResultItemsStream.MEDIA_TYPE)
+										   .entity(itemsStream)
+										   .build();
+			return outResponse;
+		}
 	}
 }
@@ -21,8 +21,13 @@ import r01f.model.jobs.EnqueuedJob;
 import r01f.persistence.index.IndexManagementCommand;
 import r01f.reflection.ReflectionUtils;
 import r01f.rest.RESTRequestTypeMappersForBasicTypes.XMLMarshalledObjectRequestTypeMapper;
+import r01f.usercontext.UserContext;
+import r01f.usercontext.UserContextTokens;
 import r01f.util.types.Strings;
 
+import com.sun.jersey.spi.StringReader;
+import com.sun.jersey.spi.StringReaderProvider;
+
 /**
  * Type mappers for user types received as POST payload
  */
@@ -113,4 +118,44 @@ public class RESTRequestTypeMappersForModelObjects {
 			_objectsMarshaller = marshaller;
 		}
 	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//	UserContext
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Maps the userContext header (@HeaderParam("userContext") UserContext userContext) to a {@link UserContext}
+	 * The header can contain either a user context token or the user context xml (see {@link UserContextTokens}):
+	 * every distinct header value is unmarshalled only once
+	 * <pre class='brush:java'>
+	 * 		@Provider
+	 * 		public class MyUserContextRequestTypeMapper
+	 * 			 extends UserContextRequestTypeMapperBase {
+	 * 			public MyUserContextRequestTypeMapper() {
+	 * 				super(MyMarshaller.get());
+	 * 			}
+	 * 		}
+	 * </pre>
+	 * (the type must be returned by {@link RESTAppBase#getRequestReceivedHeaderParamsMappers()})
+	 */
+	public static abstract class UserContextRequestTypeMapperBase
+		  	 		  implements StringReaderProvider<UserContext> {
+
+		private final Marshaller _marshaller;
+
+		@Inject
+		public UserContextRequestTypeMapperBase(final Marshaller marshaller) {
+			_marshaller = marshaller;
+		}
+		@Override
+		public StringReader<UserContext> getStringReader(final Class<?> type,final Type genericType,
+														 final Annotation[] annotations) {
+			if (!ReflectionUtils.isImplementing(type,UserContext.class)) return null;
+			return new StringReader<UserContext>() {
+							@Override
+							public UserContext fromString(final String tokenOrXml) {
+								return UserContextTokens.userContextFrom(_marshaller,
+																		 tokenOrXml);
+							}
+					   };
+		}
+	}
 }
@@ -1,12 +1,15 @@
 package r01f.rest.resources.delegates;
 
 import java.net.URI;
+import java.util.Collection;
 
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
 
 import lombok.experimental.Accessors;
 import r01f.guids.OID;
 import r01f.model.PersistableModelObject;
+import r01f.persistence.CRUDOnMultipleResult;
 import r01f.persistence.CRUDResult;
 import r01f.persistence.PersistenceException;
 import r01f.rest.RESTOperationsResponseBuilder;
@@ -59,6 +62,71 @@ public abstract class RESTCRUDDelegateBase<O extends OID,M extends PersistableMo
 															.build(loadResult);
 		return outResponse;
 	}
+	/**
+	 * Loads many db entities at once: usually the response of a GET request to the 
+	 * {resource}/list/byOids?oids=oid1,oid2,... path
+	 * (the NOT found entities are returned as not loaded operations)
+	 * @param userContext
+	 * @param resourcePath
+	 * @param oids
+	 * @return
+	 * @throws PersistenceException 
+	 */
+	public Response loadAll(final UserContext userContext,final String resourcePath,
+							final Collection<O> oids) throws PersistenceException {
+		CRUDOnMultipleResult<M> loadResults = _persistenceServices.loadAll(userContext,
+									  					     			   oids);
+		Response outResponse = RESTOperationsResponseBuilder.crudOn(_modelObjectType)
+														    .at(URI.create(resourcePath))
+															.build(loadResults);
+		return outResponse;
+	}
+	/**
+	 * Checks the existence of a db entity WITHOUT loading it: usually the response of a HEAD request
+	 * (200 if the entity exists or 404 if it does NOT exist; no entity body in any case)
+	 * @param userContext
+	 * @param resourcePath
+	 * @param oid
+	 * @return
+	 * @throws PersistenceException 
+	 */
+	@SuppressWarnings("unused")
+	public Response exists(final UserContext userContext,final String resourcePath,
+						   final O oid) throws PersistenceException {
+		boolean exists = _persistenceServices.exists(userContext,
+													 oid);
+		return exists ? Response.ok().build()
+					  : Response.status(Status.NOT_FOUND).build();
+	}
+	/**
+	 * Checks the existence of many db entities WITHOUT loading them: the response of a HEAD request to the
+	 * {resource}/list/byOids/exists?oids=oid1,oid2,... path
+	 * (200 if ALL the entities exist or 404 otherwise; no entity body in any case)
+	 * BEWARE! it MUST be a dedicated @HEAD resource method: JAX-RS answers a HEAD request with the GET method 
+	 * 		   of the same path if there's no @HEAD one, so a HEAD to {resource}/list/byOids would be answered
+	 * 		   by {@link #loadAll(UserContext, String, Collection)} with a 200 even if some entity does NOT exist
+	 * <pre class='brush:java'>
+	 * 		@HEAD @Path("list/byOids/exists")
+	 * 		public Response existsAll(@HeaderParam("userContext") final MyUserContext userContext,
+	 * 								  @QueryParam("oids") final MyOIDs oids) throws PersistenceException {
+	 * 			return _delegate.existsAll(userContext,_uriInfo.getRequestUri().toString(),
+	 * 									   oids);
+	 * 		}
+	 * </pre>
+	 * @param userContext
+	 * @param resourcePath
+	 * @param oids
+	 * @return
+	 * @throws PersistenceException 
+	 */
+	@SuppressWarnings("unused")
+	public Response existsAll(final UserContext userContext,final String resourcePath,
+							  final Collection<O> oids) throws PersistenceException {
+		boolean exists = _persistenceServices.existsAll(userContext,
+														oids);
+		return exists ? Response.ok().build()
+					  : Response.status(Status.NOT_FOUND).build();
+	}
 	/**
 	 * Creates a db entity
 	 * @param userContext
@@ -61,6 +61,23 @@ public abstract class RESTFindDelegateBase<O extends OID,M extends PersistableMo
 															.build(findResult);
 		return outResponse;
 	}
+	/**
+	 * Finds all persisted model object oids page by page (keyset pagination)
+	 * @param userContext the user auth data & context info
+	 * @param resourcePath
+	 * @param cursor the cursor returned alongside the previous page or null for the first page
+	 * @param pageSize
+	 * @return a {@link PersistenceOperationResult} that encapsulates the page oids and the next page cursor
+	 */
+	public Response findAllPage(final UserContext userContext,final String resourcePath,
+								final String cursor,final int pageSize) {
+		FindOIDsResult<O> findResult = _findServices.findAllPage(userContext,
+																 cursor,pageSize);
+		Response outResponse = RESTOperationsResponseBuilder.findOn(_modelObjectType)
+														    .at(URI.create(resourcePath))
+															.build(findResult);
+		return outResponse;
+	}
 	/**
 	 * Finds all persisted model object oids which create date is in the provided range
 	 * If the entity is a {@link Versionable}  {@link PersistableModelObject}, it returns the 
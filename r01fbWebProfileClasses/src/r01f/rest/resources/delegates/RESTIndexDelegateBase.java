@@ -9,6 +9,7 @@ import lombok.experimental.Accessors;
 import r01f.guids.OID;
 import r01f.model.IndexableModelObject;
 import r01f.model.jobs.EnqueuedJob;
+import r01f.persistence.index.IndexBatchResult;
 import r01f.rest.RESTOperationsResponseBuilder;
 import r01f.services.interfaces.IndexServicesForModelObject;
 import r01f.usercontext.UserContext;
@@ -154,4 +155,56 @@ public abstract class RESTIndexDelegateBase<O extends OID,M extends IndexableMod
 															 .build(job);
 		return outResponse;
 	}
+/////////////////////////////////////////////////////////////////////////////////////////
+//  BATCH
+/////////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Indexes a batch of model objects
+	 * @param userContext
+	 * @param resourcePath
+	 * @param modelObjects
+	 * @return the batch result
+	 */
+	public Response indexBatch(final UserContext userContext,final String resourcePath,
+							   final Collection<M> modelObjects) {
+		IndexBatchResult result = _indexServices.indexBatch(userContext,
+															modelObjects);
+		Response outResponse  = RESTOperationsResponseBuilder.searchIndex()
+															 .at(URI.create(resourcePath))
+															 .build(result);
+		return outResponse;
+	}
+	/**
+	 * Updates the index data of a batch of model objects
+	 * @param userContext
+	 * @param resourcePath
+	 * @param modelObjects
+	 * @return the batch result
+	 */
+	public Response updateIndexBatch(final UserContext userContext,final String resourcePath,
+							   		 final Collection<M> modelObjects) {
+		IndexBatchResult result = _indexServices.updateIndexBatch(userContext,
+															 	  modelObjects);
+		Response outResponse  = RESTOperationsResponseBuilder.searchIndex()
+															 .at(URI.create(resourcePath))
+															 .build(result);
+		return outResponse;
+	}
+	/**
+	 * Un-Indexes a batch of model objects
+	 * (the oids are POSTed to {resource}/batch/unindex since a DELETE request does NOT carry a payload)
+	 * @param userContext
+	 * @param resourcePath
+	 * @param oids
+	 * @return the batch result
+	 */
+	public Response removeFromIndexBatch(final UserContext userContext,final String resourcePath,
+							   		 	 final Collection<O> oids) {
+		IndexBatchResult result = _indexServices.removeFromIndexBatch(userContext,
+															 	  	  oids);
+		Response outResponse  = RESTOperationsResponseBuilder.searchIndex()
+															 .at(URI.create(resourcePath))
+															 .build(result);
+		return outResponse;
+	}
 }
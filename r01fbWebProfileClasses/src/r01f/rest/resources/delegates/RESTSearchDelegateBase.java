@@ -1,20 +1,34 @@
 package r01f.rest.resources.delegates;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URI;
 
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import r01f.marshalling.Marshaller;
 import r01f.model.search.SearchFilter;
 import r01f.model.search.SearchResultItem;
+import r01f.model.search.SearchResultItemsHandler;
+import r01f.model.search.SearchResultItemsStream;
 import r01f.model.search.SearchResults;
 import r01f.rest.RESTOperationsResponseBuilder;
 import r01f.services.interfaces.SearchServices;
 import r01f.usercontext.UserContext;
 
+import com.google.common.base.Charsets;
+
 /**
  * Base type for REST services that encapsulates the common search index ops: indexing, searching
  */
+@Slf4j
 @Accessors(prefix="_")
 public abstract class RESTSearchDelegateBase<F extends SearchFilter,I extends SearchResultItem> 
            implements RESTDelegate {
@@ -59,4 +73,65 @@ public abstract class RESTSearchDelegateBase<F extends SearchFilter,I extends Se
 															.build(searchResults);
 		return outResponse;
 	}
+	/**
+	 * Search using the provided filter paging with a cursor
+	 * @param userContext 
+	 * @param resourcePath
+	 * @param filter
+	 * @param cursor the cursor returned alongside the previous page or null for the first page
+	 * @param itemsToReturn
+	 * @return
+	 */
+	public Response search(final UserContext userContext,final String resourcePath,
+						   final F filter,
+						   final String cursor,final int itemsToReturn) {
+		SearchResults<F,I> searchResults = null;
+		searchResults = _searchServices.filterRecords(userContext,
+									   		    	  filter,
+									   		    	  cursor,itemsToReturn);
+		Response outResponse = RESTOperationsResponseBuilder.searchIndex()
+															.at(URI.create(resourcePath))
+															.build(searchResults);
+		return outResponse;
+	}
+	/**
+	 * Search ALL the records using the provided filter streaming the items as they're got
+	 * (a chunked response where every item is written preceded by its length: see {@link SearchResultItemsStream})
+	 * so the whole result set is NEVER kept in memory
+	 * @param userContext 
+	 * @param resourcePath
+	 * @param filter
+	 * @param marshaller the marshaller used to serialize every item
+	 * @return
+	 */
+	public Response searchStreamed(final UserContext userContext,final String resourcePath,
+								   final F filter,
+								   final Marshaller marshaller) {
+		StreamingOutput itemsStream = new StreamingOutput() {
+												@Override
+												public void write(final OutputStream os) throws IOException {
+													final Writer w = new BufferedWriter(new OutputStreamWriter(os,Charsets.UTF_8));
+													int count = _searchServices.filterRecords(userContext,
+																							  filter,
+																							  new SearchResultItemsHandler<I>() {
+																										@Override
+																										public void handle(final I item) {
+																											try {
+																												SearchResultItemsStream.write(marshaller,
+																																			  item,
+																																			  w);
+																											} catch(IOException ioEx) {
+																												throw new WebApplicationException(ioEx);	// the client has gone: abort the search
+																											}
+																										}
+																							  });
+													w.flush();
+													log.debug("{} search result items streamed to {}",count,resourcePath);
+												}
+									  };
+		Response outResponse = RESTOperationsResponseBuilder.searchIndex()
+															.at(URI.create(resourcePath))
+															.build(itemsStream);
+		return outResponse;
+	}
 }